@@ -0,0 +1,62 @@
+package at.jku.dke.etutor.benchmark;
+
+import at.jku.dke.etutor.service.dto.TaskDisplayDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the task search of the {@code AssignmentSPARQLEndpointService}.
+ *
+ * @author fne
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class AssignmentServiceBenchmark {
+
+    @Param("20")
+    public int pageSize;
+
+    private int invocation;
+
+    /**
+     * Benchmarks the task search with a header filter, which uses the text index.
+     *
+     * @param state the dataset state
+     * @return the slice of tasks
+     */
+    @Benchmark
+    public Slice<TaskDisplayDTO> taskSearch(DatasetState state) {
+        String filter = BenchmarkDataset.HEADER_WORDS.get(invocation++ % BenchmarkDataset.HEADER_WORDS.size());
+
+        return state.getDataset().getAssignmentSPARQLEndpointService()
+            .findAllTasks(filter, PageRequest.of(0, pageSize), BenchmarkDataset.OWNER, null);
+    }
+
+    /**
+     * Benchmarks the unfiltered task list.
+     *
+     * @param state the dataset state
+     * @return the slice of tasks
+     */
+    @Benchmark
+    public Slice<TaskDisplayDTO> taskList(DatasetState state) {
+        return state.getDataset().getAssignmentSPARQLEndpointService()
+            .findAllTasks(null, PageRequest.of(invocation++ % 5, pageSize), BenchmarkDataset.OWNER, null);
+    }
+}
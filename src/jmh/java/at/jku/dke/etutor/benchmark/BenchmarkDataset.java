@@ -0,0 +1,369 @@
+package at.jku.dke.etutor.benchmark;
+
+import at.jku.dke.etutor.domain.rdf.ETutorVocabulary;
+import at.jku.dke.etutor.helper.LocalRDFConnectionFactory;
+import at.jku.dke.etutor.helper.RDFConnectionFactory;
+import at.jku.dke.etutor.service.AssignmentSPARQLEndpointService;
+import at.jku.dke.etutor.service.CourseInstanceSPARQLEndpointService;
+import at.jku.dke.etutor.service.ExerciseSheetSPARQLEndpointService;
+import at.jku.dke.etutor.service.LearningGoalForestCache;
+import at.jku.dke.etutor.service.LearningGoalGraphCache;
+import at.jku.dke.etutor.service.LecturerSPARQLEndpointService;
+import at.jku.dke.etutor.service.SPARQLEndpointService;
+import at.jku.dke.etutor.service.StudentProgressProjection;
+import at.jku.dke.etutor.service.StudentService;
+import at.jku.dke.etutor.service.TaskAssignmentCache;
+import at.jku.dke.etutor.service.dto.CourseDTO;
+import at.jku.dke.etutor.service.dto.LearningGoalAssignmentDTO;
+import at.jku.dke.etutor.service.dto.LearningGoalDTO;
+import at.jku.dke.etutor.service.dto.NewLearningGoalDTO;
+import at.jku.dke.etutor.service.dto.courseinstance.NewCourseInstanceDTO;
+import at.jku.dke.etutor.service.dto.exercisesheet.NewExerciseSheetDTO;
+import at.jku.dke.etutor.service.dto.taskassignment.LearningGoalDisplayDTO;
+import at.jku.dke.etutor.service.dto.taskassignment.NewTaskAssignmentDTO;
+import at.jku.dke.etutor.service.exception.AllTasksAlreadyAssignedException;
+import at.jku.dke.etutor.service.exception.NoFurtherTasksAvailableException;
+import at.jku.dke.etutor.service.search.SearchIndex;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Resource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic in-memory dataset for the benchmarks of the SPARQL service layer.
+ * <p>
+ * The services are booted against a {@link LocalRDFConnectionFactory} (in-memory dataset with
+ * Lucene index) and the dataset is seeded through the services themselves, i.e. the benchmarks
+ * query the same structures which the application creates. The dataset consists of one course
+ * with a learning goal hierarchy, tasks assigned to the goals, one course instance with the
+ * given number of students and exercise sheets, which have been opened by all students.
+ * The structure and the random choices (difficulties, points, submissions) are
+ * derived from the seed, the generated ids are not.
+ *
+ * @author fne
+ */
+public class BenchmarkDataset {
+
+    /**
+     * The owner of the generated learning goals, tasks and exercise sheets.
+     */
+    public static final String OWNER = "admin";
+
+    /**
+     * The words which are used in the task headers and which can be used as search terms.
+     */
+    public static final List<String> HEADER_WORDS = List.of("Join", "Aggregation", "Subquery", "Projection",
+        "Selection", "Normalization", "Transaction", "Index", "Trigger", "View");
+
+    private static final List<Resource> DIFFICULTIES = List.of(ETutorVocabulary.Easy, ETutorVocabulary.Medium,
+        ETutorVocabulary.Hard, ETutorVocabulary.VeryHard);
+
+    private final Parameters parameters;
+    private final Random random;
+
+    private final StudentProgressProjection studentProgressProjection;
+    private final SPARQLEndpointService sparqlEndpointService;
+    private final AssignmentSPARQLEndpointService assignmentSPARQLEndpointService;
+    private final ExerciseSheetSPARQLEndpointService exerciseSheetSPARQLEndpointService;
+    private final CourseInstanceSPARQLEndpointService courseInstanceSPARQLEndpointService;
+    private final LecturerSPARQLEndpointService lecturerSPARQLEndpointService;
+    private final StudentService studentService;
+
+    private final List<LearningGoalDTO> rootGoals = new ArrayList<>();
+    private final List<String> exerciseSheetUUIDs = new ArrayList<>();
+    private final List<String> matriculationNumbers = new ArrayList<>();
+    private String courseId;
+    private String courseInstanceUUID;
+    private int taskCount;
+
+    /**
+     * Constructor.
+     *
+     * @param parameters the parameters of the dataset
+     */
+    private BenchmarkDataset(Parameters parameters) {
+        this.parameters = parameters;
+        this.random = new Random(parameters.seed());
+
+        RDFConnectionFactory rdfConnectionFactory = new LocalRDFConnectionFactory(DatasetFactory.createTxnMem());
+        LearningGoalGraphCache learningGoalGraphCache = new LearningGoalGraphCache(rdfConnectionFactory);
+
+        studentProgressProjection = new StudentProgressProjection(rdfConnectionFactory);
+        SearchIndex searchIndex = new SearchIndex(rdfConnectionFactory);
+        TaskAssignmentCache taskAssignmentCache = new TaskAssignmentCache(rdfConnectionFactory);
+        sparqlEndpointService = new SPARQLEndpointService(rdfConnectionFactory, learningGoalGraphCache, searchIndex, taskAssignmentCache,
+            new LearningGoalForestCache(rdfConnectionFactory));
+        assignmentSPARQLEndpointService = new AssignmentSPARQLEndpointService(rdfConnectionFactory, learningGoalGraphCache, searchIndex,
+            taskAssignmentCache);
+        exerciseSheetSPARQLEndpointService = new ExerciseSheetSPARQLEndpointService(rdfConnectionFactory, studentProgressProjection);
+        courseInstanceSPARQLEndpointService = new CourseInstanceSPARQLEndpointService(rdfConnectionFactory, null, studentProgressProjection);
+        lecturerSPARQLEndpointService = new LecturerSPARQLEndpointService(rdfConnectionFactory, studentProgressProjection);
+        studentService = new StudentService(exerciseSheetSPARQLEndpointService, null, null, null,
+            assignmentSPARQLEndpointService, rdfConnectionFactory, null, null, null, null,
+            studentProgressProjection, learningGoalGraphCache, null, null);
+    }
+
+    /**
+     * Creates and seeds a new dataset.
+     *
+     * @param parameters the parameters of the dataset
+     * @return the seeded dataset
+     * @throws Exception if the dataset could not be seeded
+     */
+    public static BenchmarkDataset create(Parameters parameters) throws Exception {
+        BenchmarkDataset dataset = new BenchmarkDataset(parameters);
+        dataset.seed();
+        return dataset;
+    }
+
+    /**
+     * Seeds the dataset.
+     *
+     * @throws Exception if the dataset could not be seeded
+     */
+    private void seed() throws Exception {
+        sparqlEndpointService.insertScheme();
+
+        CourseDTO courseDTO = new CourseDTO();
+        courseDTO.setName("Benchmark course");
+        courseDTO.setCourseType("LVA");
+        courseId = sparqlEndpointService.insertNewCourse(courseDTO, OWNER).getId();
+
+        for (int i = 1; i <= parameters.rootGoals(); i++) {
+            NewLearningGoalDTO goalDTO = newGoal("Goal " + i);
+            LearningGoalDTO goal = sparqlEndpointService.insertNewLearningGoal(goalDTO, OWNER);
+            rootGoals.add(goal);
+            sparqlEndpointService.addGoalAssignment(new LearningGoalAssignmentDTO(courseId, goal.getId()));
+
+            insertTasks(goal);
+            insertSubGoals(goal, 1);
+        }
+
+        NewCourseInstanceDTO newCourseInstanceDTO = new NewCourseInstanceDTO();
+        newCourseInstanceDTO.setCourseId(courseId);
+        newCourseInstanceDTO.setYear(2022);
+        newCourseInstanceDTO.setTermId(ETutorVocabulary.Winter.getURI());
+        String courseInstanceUrl = courseInstanceSPARQLEndpointService.createNewCourseInstance(newCourseInstanceDTO);
+        courseInstanceUUID = courseInstanceUrl.substring(courseInstanceUrl.lastIndexOf('#') + 1);
+
+        for (int i = 0; i < parameters.students(); i++) {
+            matriculationNumbers.add(String.format("k%08d", 10_000_000 + i));
+        }
+        courseInstanceSPARQLEndpointService.setStudentsOfCourseInstance(matriculationNumbers, courseInstanceUrl);
+
+        for (int i = 0; i < parameters.exerciseSheets(); i++) {
+            String exerciseSheetUUID = addExerciseSheet();
+            exerciseSheetUUIDs.add(exerciseSheetUUID);
+
+            for (String matriculationNumber : matriculationNumbers) {
+                int assignedTasks = openExerciseSheet(matriculationNumber, exerciseSheetUUID);
+
+                if (random.nextDouble() < parameters.submissionRatio()) {
+                    for (int orderNo = 1; orderNo <= assignedTasks; orderNo++) {
+                        studentService.setDispatcherPointsForIndividualTask(courseInstanceUUID, exerciseSheetUUID,
+                            matriculationNumber, orderNo, random.nextInt(11));
+                        studentService.markTaskAssignmentAsSubmitted(courseInstanceUUID, exerciseSheetUUID, matriculationNumber, orderNo);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a new exercise sheet, which covers two random root goals, and assigns it to the course instance.
+     *
+     * @return the UUID of the exercise sheet
+     * @throws Exception if the exercise sheet could not be created
+     */
+    public String addExerciseSheet() throws Exception {
+        List<LearningGoalDTO> goals = new ArrayList<>(rootGoals);
+        Collections.shuffle(goals, random);
+
+        NewExerciseSheetDTO newExerciseSheetDTO = new NewExerciseSheetDTO();
+        newExerciseSheetDTO.setName("Sheet " + (exerciseSheetUUIDs.size() + 1) + " " + random.nextInt(100_000));
+        newExerciseSheetDTO.setDifficultyId(ETutorVocabulary.Medium.getURI());
+        newExerciseSheetDTO.setLearningGoals(goals.stream()
+            .limit(2)
+            .map(goal -> new at.jku.dke.etutor.service.dto.exercisesheet.LearningGoalAssignmentDTO(
+                new LearningGoalDisplayDTO(goal.getId(), goal.getName()), 1))
+            .toList());
+        newExerciseSheetDTO.setTaskCount(parameters.tasksPerSheet());
+
+        String exerciseSheetId = exerciseSheetSPARQLEndpointService.insertNewExerciseSheet(newExerciseSheetDTO, OWNER).getId();
+        courseInstanceSPARQLEndpointService.addExerciseSheetCourseInstanceAssignments(courseInstanceUUID,
+            Collections.singletonList(exerciseSheetId));
+        return exerciseSheetId.substring(exerciseSheetId.lastIndexOf('#') + 1);
+    }
+
+    /**
+     * Opens the exercise sheet for the given student and assigns as many tasks as possible.
+     *
+     * @param matriculationNumber the matriculation number
+     * @param exerciseSheetUUID   the UUID of the exercise sheet
+     * @return the number of assigned tasks
+     * @throws Exception if the exercise sheet has already been opened
+     */
+    public int openExerciseSheet(String matriculationNumber, String exerciseSheetUUID) throws Exception {
+        int assignedTasks = 0;
+        try {
+            studentService.openExerciseSheetForStudent(matriculationNumber, courseInstanceUUID, exerciseSheetUUID);
+            assignedTasks++;
+
+            while (assignedTasks < parameters.tasksPerSheet()) {
+                studentService.assignNextTaskForStudent(courseInstanceUUID, exerciseSheetUUID, matriculationNumber);
+                assignedTasks++;
+            }
+        } catch (NoFurtherTasksAvailableException | AllTasksAlreadyAssignedException e) {
+            // The sheet has been opened, but the goals do not provide further tasks.
+        }
+        return assignedTasks;
+    }
+
+    /**
+     * Inserts the sub goals of the given goal recursively.
+     *
+     * @param parent the parent goal
+     * @param depth  the depth of the parent goal
+     * @throws Exception if a goal could not be inserted
+     */
+    private void insertSubGoals(LearningGoalDTO parent, int depth) throws Exception {
+        if (depth >= parameters.goalDepth()) {
+            return;
+        }
+        for (int i = 1; i <= parameters.subGoalsPerGoal(); i++) {
+            LearningGoalDTO goal = sparqlEndpointService.insertSubGoal(newGoal(parent.getName() + "." + i), OWNER, parent.getName());
+
+            insertTasks(goal);
+            insertSubGoals(goal, depth + 1);
+        }
+    }
+
+    /**
+     * Inserts the tasks of the given goal.
+     *
+     * @param goal the goal
+     */
+    private void insertTasks(LearningGoalDTO goal) {
+        for (int i = 0; i < parameters.tasksPerGoal(); i++) {
+            taskCount++;
+
+            NewTaskAssignmentDTO newTaskAssignmentDTO = new NewTaskAssignmentDTO();
+            newTaskAssignmentDTO.setCreator(OWNER);
+            newTaskAssignmentDTO.setHeader(HEADER_WORDS.get(random.nextInt(HEADER_WORDS.size())) + " task " + taskCount);
+            newTaskAssignmentDTO.setTaskDifficultyId(DIFFICULTIES.get(random.nextInt(DIFFICULTIES.size())).getURI());
+            newTaskAssignmentDTO.setOrganisationUnit("DKE");
+            newTaskAssignmentDTO.setTaskAssignmentTypeId(ETutorVocabulary.NoType.getURI());
+            newTaskAssignmentDTO.setMaxPoints(String.valueOf(1 + random.nextInt(10)));
+            newTaskAssignmentDTO.setDiagnoseLevelWeighting("1");
+            newTaskAssignmentDTO.setLearningGoalIds(List.of(new LearningGoalDisplayDTO(goal.getId(), goal.getName())));
+
+            assignmentSPARQLEndpointService.insertNewTaskAssignment(newTaskAssignmentDTO, OWNER);
+        }
+    }
+
+    /**
+     * Creates a new public learning goal dto.
+     *
+     * @param name the name of the goal
+     * @return the new learning goal dto
+     */
+    private static NewLearningGoalDTO newGoal(String name) {
+        NewLearningGoalDTO goalDTO = new NewLearningGoalDTO();
+        goalDTO.setName(name);
+        goalDTO.setDescription("Synthetic learning goal " + name);
+        goalDTO.setPrivateGoal(false);
+        return goalDTO;
+    }
+
+    /**
+     * Returns the parameters of this dataset.
+     *
+     * @return the parameters
+     */
+    public Parameters getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Returns the uuid of the course instance.
+     *
+     * @return the course instance uuid
+     */
+    public String getCourseInstanceUUID() {
+        return courseInstanceUUID;
+    }
+
+    /**
+     * Returns the uuids of the exercise sheets, which have been opened by all students.
+     *
+     * @return the exercise sheet uuids
+     */
+    public List<String> getExerciseSheetUUIDs() {
+        return Collections.unmodifiableList(exerciseSheetUUIDs);
+    }
+
+    /**
+     * Returns the matriculation numbers of the students of the course instance.
+     *
+     * @return the matriculation numbers
+     */
+    public List<String> getMatriculationNumbers() {
+        return Collections.unmodifiableList(matriculationNumbers);
+    }
+
+    /**
+     * Returns the student service.
+     *
+     * @return the student service
+     */
+    public StudentService getStudentService() {
+        return studentService;
+    }
+
+    /**
+     * Returns the assignment service.
+     *
+     * @return the assignment service
+     */
+    public AssignmentSPARQLEndpointService getAssignmentSPARQLEndpointService() {
+        return assignmentSPARQLEndpointService;
+    }
+
+    /**
+     * Returns the lecturer service.
+     *
+     * @return the lecturer service
+     */
+    public LecturerSPARQLEndpointService getLecturerSPARQLEndpointService() {
+        return lecturerSPARQLEndpointService;
+    }
+
+    /**
+     * Returns the student progress projection.
+     *
+     * @return the student progress projection
+     */
+    public StudentProgressProjection getStudentProgressProjection() {
+        return studentProgressProjection;
+    }
+
+    /**
+     * The parameters of a benchmark dataset.
+     *
+     * @param rootGoals       the number of root goals of the course
+     * @param subGoalsPerGoal the number of sub goals of each goal
+     * @param goalDepth       the depth of the goal hierarchy, {@code 1} means root goals only
+     * @param tasksPerGoal    the number of tasks per goal
+     * @param students        the number of students of the course instance
+     * @param exerciseSheets  the number of exercise sheets, which are opened by all students
+     * @param tasksPerSheet   the number of tasks per exercise sheet
+     * @param submissionRatio the ratio of opened exercise sheets whose tasks have been submitted
+     * @param seed            the seed of the random choices
+     */
+    public record Parameters(int rootGoals, int subGoalsPerGoal, int goalDepth, int tasksPerGoal, int students,
+                             int exerciseSheets, int tasksPerSheet, double submissionRatio, long seed) {
+    }
+}
@@ -0,0 +1,67 @@
+package at.jku.dke.etutor.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark state, which holds the seeded synthetic dataset.
+ * The dataset is seeded once per trial, the size can be changed with the
+ * JMH parameters, e.g. {@code -p students=1000,5000}.
+ *
+ * @author fne
+ */
+@State(Scope.Benchmark)
+public class DatasetState {
+
+    @Param("4")
+    public int rootGoals;
+
+    @Param("3")
+    public int subGoalsPerGoal;
+
+    @Param("2")
+    public int goalDepth;
+
+    @Param("2")
+    public int tasksPerGoal;
+
+    @Param("200")
+    public int students;
+
+    @Param("4")
+    public int exerciseSheets;
+
+    @Param("3")
+    public int tasksPerSheet;
+
+    @Param("0.7")
+    public double submissionRatio;
+
+    @Param("42")
+    public long seed;
+
+    private BenchmarkDataset dataset;
+
+    /**
+     * Seeds the dataset.
+     *
+     * @throws Exception if the dataset could not be seeded
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        dataset = BenchmarkDataset.create(new BenchmarkDataset.Parameters(rootGoals, subGoalsPerGoal, goalDepth,
+            tasksPerGoal, students, exerciseSheets, tasksPerSheet, submissionRatio, seed));
+    }
+
+    /**
+     * Returns the seeded dataset.
+     *
+     * @return the dataset
+     */
+    public BenchmarkDataset getDataset() {
+        return dataset;
+    }
+}
@@ -0,0 +1,88 @@
+package at.jku.dke.etutor.benchmark;
+
+import at.jku.dke.etutor.service.dto.courseinstance.taskassignment.StudentAssignmentOverviewInfoDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the lecturer related queries of the {@code LecturerSPARQLEndpointService}.
+ *
+ * @author fne
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class LecturerServiceBenchmark {
+
+    @Param("20")
+    public int pageSize;
+
+    @Param({"aggregated", "single"})
+    public String exportType;
+
+    private int invocation;
+
+    /**
+     * Benchmarks the paging through the lecturer overview of an exercise sheet.
+     *
+     * @param state the dataset state
+     * @return the page
+     */
+    @Benchmark
+    public Page<StudentAssignmentOverviewInfoDTO> lecturerOverviewPage(DatasetState state) {
+        BenchmarkDataset dataset = state.getDataset();
+        int pageCount = Math.max(1, (dataset.getMatriculationNumbers().size() + pageSize - 1) / pageSize);
+        int current = invocation++;
+
+        return dataset.getLecturerSPARQLEndpointService().getPagedLecturerOverview(dataset.getCourseInstanceUUID(),
+            exerciseSheet(dataset, current), PageRequest.of(current % pageCount, pageSize));
+    }
+
+    /**
+     * Benchmarks the export of the achieved points of an exercise sheet.
+     *
+     * @param state the dataset state
+     * @return the size of the export in bytes
+     * @throws IOException must not be thrown
+     */
+    @Benchmark
+    public int pointsExport(DatasetState state) throws IOException {
+        BenchmarkDataset dataset = state.getDataset();
+
+        try (InputStream inputStream = dataset.getLecturerSPARQLEndpointService()
+            .getAchievedPointsForExerciseSheet(dataset.getCourseInstanceUUID(), exerciseSheet(dataset, invocation++), exportType)
+            .getInputStream()) {
+            return inputStream.readAllBytes().length;
+        }
+    }
+
+    /**
+     * Returns the exercise sheet of the given invocation.
+     *
+     * @param dataset    the dataset
+     * @param invocation the invocation
+     * @return the exercise sheet uuid
+     */
+    private static String exerciseSheet(BenchmarkDataset dataset, int invocation) {
+        List<String> exerciseSheets = dataset.getExerciseSheetUUIDs();
+        return exerciseSheets.get(invocation % exerciseSheets.size());
+    }
+}
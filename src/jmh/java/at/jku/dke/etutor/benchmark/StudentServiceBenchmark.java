@@ -0,0 +1,130 @@
+package at.jku.dke.etutor.benchmark;
+
+import at.jku.dke.etutor.service.dto.courseinstance.CourseInstanceProgressOverviewDTO;
+import at.jku.dke.etutor.service.dto.student.StudentTaskListInfoDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the student related queries of the {@code StudentService}.
+ *
+ * @author fne
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StudentServiceBenchmark {
+
+    /**
+     * Benchmarks the progress overview of a student.
+     *
+     * @param state  the dataset state
+     * @param cursor the student cursor
+     * @return the progress overview
+     */
+    @Benchmark
+    public List<CourseInstanceProgressOverviewDTO> progressOverview(DatasetState state, StudentCursor cursor) {
+        BenchmarkDataset dataset = state.getDataset();
+
+        return dataset.getStudentService().getProgressOverview(cursor.next(dataset), dataset.getCourseInstanceUUID());
+    }
+
+    /**
+     * Benchmarks the task list of an opened exercise sheet.
+     *
+     * @param state  the dataset state
+     * @param cursor the student cursor
+     * @return the task list
+     */
+    @Benchmark
+    public List<StudentTaskListInfoDTO> taskList(DatasetState state, StudentCursor cursor) {
+        BenchmarkDataset dataset = state.getDataset();
+        String matriculationNumber = cursor.next(dataset);
+        List<String> exerciseSheets = dataset.getExerciseSheetUUIDs();
+
+        return dataset.getStudentService().getStudentTaskList(dataset.getCourseInstanceUUID(),
+            exerciseSheets.get(cursor.position % exerciseSheets.size()), matriculationNumber);
+    }
+
+    /**
+     * Benchmarks the allocation of tasks, i.e. a student opens an exercise sheet
+     * and the tasks are assigned according to the student's learning curve.
+     *
+     * @param state      the dataset state
+     * @param allocation the allocation state
+     * @return the number of assigned tasks
+     * @throws Exception must not be thrown
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int taskAllocation(DatasetState state, AllocationState allocation) throws Exception {
+        return state.getDataset().openExerciseSheet(allocation.matriculationNumber, allocation.exerciseSheetUUID);
+    }
+
+    /**
+     * Cursor, which iterates over the students of the dataset.
+     */
+    @State(Scope.Thread)
+    public static class StudentCursor {
+
+        private int position = -1;
+
+        /**
+         * Returns the next student.
+         *
+         * @param dataset the dataset
+         * @return the matriculation number of the next student
+         */
+        String next(BenchmarkDataset dataset) {
+            List<String> students = dataset.getMatriculationNumbers();
+            position = (position + 1) % students.size();
+            return students.get(position);
+        }
+    }
+
+    /**
+     * State of the task allocation benchmark, which provides a student who has not opened the
+     * exercise sheet yet. A new exercise sheet is added when all students have opened the current one.
+     */
+    @State(Scope.Benchmark)
+    public static class AllocationState {
+
+        private String exerciseSheetUUID;
+        private String matriculationNumber;
+        private int position;
+
+        /**
+         * Selects the next student before each invocation, which is acceptable
+         * as an allocation takes milliseconds.
+         *
+         * @param state the dataset state
+         * @throws Exception if a new exercise sheet could not be added
+         */
+        @Setup(Level.Invocation)
+        public void nextStudent(DatasetState state) throws Exception {
+            BenchmarkDataset dataset = state.getDataset();
+            List<String> students = dataset.getMatriculationNumbers();
+
+            if (exerciseSheetUUID == null || position == students.size()) {
+                exerciseSheetUUID = dataset.addExerciseSheet();
+                position = 0;
+            }
+            matriculationNumber = students.get(position++);
+        }
+    }
+}
@@ -1,53 +1,239 @@
 package at.jku.dke.etutor.calc.config;
 
 import at.jku.dke.etutor.calc.functions.AdditionalFunctions;
+import at.jku.dke.etutor.calc.models.CorrectionContext;
 import at.jku.dke.etutor.calc.models.CorrectnessRule;
 import at.jku.dke.etutor.calc.models.Feedback;
 import at.jku.dke.etutor.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.Charset;
-import java.util.Objects;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
-public class CorrectionConfig {
+/**
+ * Configuration of the calc correction, i.e. the correctness rules listed in the rule file.
+ * <p>
+ * The rule file is compiled once into a {@link CorrectionPipeline}, which is reused by all corrections
+ * and recompiled when the modification time or size of the file changes. If the changed file cannot be compiled,
+ * the previous pipeline is kept. Each rule class is instantiated once. The workbooks of a correction are indexed
+ * once in a {@link CorrectionContext}, which is shared by all rules. The evaluation time of every rule
+ * is recorded in the {@code calc.correction.rule} timer.
+ *
+ * @author fne
+ */
+@Component
+public class CorrectionConfig implements MeterBinder {
 
+    private static final String ERROR_FEEDBACK = "Your submission has Syntax Errors, please Contact the Admin of your Program!";
 
-    private static final String FILE;
-    static {
-       FILE = Objects.requireNonNullElse(System.getenv("CALC_CORRECTION_FILE_PATH"),
-           "src/main/java/at/jku/dke/etutor/calc/config/CorrectionConfig.txt");
+    private final Logger log = LoggerFactory.getLogger(CorrectionConfig.class);
+
+    private final Path ruleFile;
+    private final Map<String, CorrectnessRule> ruleInstances = new ConcurrentHashMap<>();
+
+    private volatile CompiledRuleFile compiledRuleFile;
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * Constructor.
+     *
+     * @param applicationProperties the injected application properties
+     */
+    public CorrectionConfig(ApplicationProperties applicationProperties) {
+        ApplicationProperties.CalcCorrection properties = applicationProperties.getCalcCorrection();
+
+        ruleFile = Path.of(properties.getRuleFile()).toAbsolutePath().normalize();
     }
 
-    public static Feedback runCorrection (XWPFDocument instructionWriter,  XSSFWorkbook solution, XSSFWorkbook submission) throws ClassNotFoundException {
+    /**
+     * Binds the rule timers to the given registry.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        meterRegistry = registry;
+    }
 
+    /**
+     * @param instructionWriter file of the instruction writer
+     * @param solution          workbook of the solution
+     * @param submission        workbook of the submission
+     * @return the feedback of the first failing rule or a positive feedback if all rules succeeded
+     */
+    public Feedback runCorrection(XWPFDocument instructionWriter, XSSFWorkbook solution, XSSFWorkbook submission) {
         try {
-
             if (!AdditionalFunctions.checkCryptoCode(instructionWriter, submission)) {
                 return new Feedback(false, "Please use the instruction which was generated for you to solve the task!");
             }
 
-            try (BufferedReader br = new BufferedReader(new FileReader(FILE, Charset.defaultCharset()))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    CorrectnessRule correctnessRule = (CorrectnessRule) Class.forName(line).getDeclaredConstructor().newInstance();
-                    if (!correctnessRule.checkCorrectness(solution, submission).isCorrect()) {
-                        return correctnessRule.checkCorrectness(solution, submission);
-                    }
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-                return new Feedback(false, "Your submission has Syntax Errors, please Contact the Admin of your Program!");
+            CorrectionPipeline pipeline = getPipeline();
+            CorrectionContext context = new CorrectionContext(solution, submission);
+            Feedback feedback = pipeline.evaluate(rule -> evaluate(rule, context));
+            if (feedback != null) {
+                return feedback;
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Feedback(false, ERROR_FEEDBACK);
         } catch (Exception e) {
-            return new Feedback(false, "Your submission has Syntax Errors, please Contact the Admin of your Program!");
+            log.error("Could not correct the calc submission", e);
+            return new Feedback(false, ERROR_FEEDBACK);
         }
         return new Feedback(true, "Congratulation! Your Submission is correct");
     }
+
+    /**
+     * Returns the compiled pipeline of the rule file, which is recompiled if the file has changed.
+     *
+     * @return the pipeline
+     * @throws IOException                  if the rule file could not be read and no pipeline has been compiled yet
+     * @throws ReflectiveOperationException if a rule could not be instantiated and no pipeline has been compiled yet
+     */
+    public CorrectionPipeline getPipeline() throws IOException, ReflectiveOperationException {
+        CompiledRuleFile current = compiledRuleFile;
+        RuleFileVersion version;
+        try {
+            version = RuleFileVersion.of(ruleFile);
+        } catch (IOException e) {
+            if (current == null) {
+                throw e;
+            }
+            log.warn("Could not read the attributes of the calc rule file {}, the previous rules are used", ruleFile, e);
+            return current.pipeline();
+        }
+
+        if (current != null && current.version().equals(version)) {
+            return current.pipeline();
+        }
+        synchronized (this) {
+            current = compiledRuleFile;
+            if (current != null && current.version().equals(version)) {
+                return current.pipeline();
+            }
+
+            try {
+                CorrectionPipeline pipeline = compile(Files.readAllLines(ruleFile, Charset.defaultCharset()));
+                log.info("Compiled {} calc correctness rules from {}", pipeline.getRules().size(), ruleFile);
+                compiledRuleFile = new CompiledRuleFile(version, pipeline);
+                return pipeline;
+            } catch (IOException | ReflectiveOperationException | ClassCastException e) {
+                if (current == null) {
+                    throw e;
+                }
+                log.error("Could not compile the changed calc rule file {}, the previous rules are used", ruleFile, e);
+                compiledRuleFile = new CompiledRuleFile(version, current.pipeline());
+                return current.pipeline();
+            }
+        }
+    }
+
+    /**
+     * Compiles the lines of a rule file. Blank lines and lines starting with {@code #} are ignored.
+     *
+     * @param lines the lines, each containing the class name of a rule
+     * @return the pipeline
+     * @throws ReflectiveOperationException if a rule could not be instantiated
+     */
+    private CorrectionPipeline compile(List<String> lines) throws ReflectiveOperationException {
+        List<CorrectnessRule> rules = new ArrayList<>();
+        for (String line : lines) {
+            String className = line.strip();
+            if (className.isEmpty() || className.startsWith("#")) {
+                continue;
+            }
+            CorrectnessRule rule = ruleInstances.get(className);
+            if (rule == null) {
+                rule = Class.forName(className).asSubclass(CorrectnessRule.class).getDeclaredConstructor().newInstance();
+                CorrectnessRule existing = ruleInstances.putIfAbsent(className, rule);
+                if (existing != null) {
+                    rule = existing;
+                }
+            }
+            rules.add(rule);
+        }
+        return new CorrectionPipeline(rules);
+    }
+
+    /**
+     * Evaluates a rule and records its evaluation time. The cached formula results are cleared
+     * after a rule which modifies the workbooks. If the thread has been interrupted, the rule is not evaluated.
+     *
+     * @param rule    the rule
+     * @param context the context of the correction
+     * @return the feedback of the rule
+     * @throws Exception if the rule could not be evaluated
+     */
+    private Feedback evaluate(CorrectnessRule rule, CorrectionContext context) throws Exception {
+        // a correction which exceeded its deadline is cancelled before the next rule
+        if (Thread.interrupted()) {
+            throw new InterruptedException("The calc correction has been cancelled");
+        }
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            Feedback feedback = rule.checkCorrectness(context);
+            outcome = feedback.isCorrect() ? "correct" : "incorrect";
+            return feedback;
+        } finally {
+            if (rule.modifiesWorkbooks()) {
+                context.invalidateFormulaResults();
+            }
+            MeterRegistry registry = meterRegistry;
+            if (registry != null) {
+                Timer.builder("calc.correction.rule")
+                    .description("Evaluation time of the calc correctness rules")
+                    .tag("rule", rule.getClass().getSimpleName())
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Version of the rule file, which changes when the file is modified.
+     *
+     * @param lastModified the modification time
+     * @param size         the size
+     */
+    private record RuleFileVersion(FileTime lastModified, long size) {
+        /**
+         * Reads the version of the given file.
+         *
+         * @param file the file
+         * @return the version
+         * @throws IOException if the attributes could not be read
+         */
+        static RuleFileVersion of(Path file) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new RuleFileVersion(attributes.lastModifiedTime(), attributes.size());
+        }
+    }
+
+    /**
+     * Pipeline compiled from a version of the rule file.
+     *
+     * @param version  the version of the rule file
+     * @param pipeline the pipeline
+     */
+    private record CompiledRuleFile(RuleFileVersion version, CorrectionPipeline pipeline) {
+    }
 }
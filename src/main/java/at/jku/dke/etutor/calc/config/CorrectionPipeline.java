@@ -0,0 +1,70 @@
+package at.jku.dke.etutor.calc.config;
+
+import at.jku.dke.etutor.calc.models.CorrectnessRule;
+import at.jku.dke.etutor.calc.models.Feedback;
+
+import java.util.List;
+
+/**
+ * Immutable, compiled list of the correctness rules of the calc correction.
+ * <p>
+ * The rules are evaluated one after the other in the configured order until the first rule fails,
+ * every rule is evaluated at most once. The rules share the workbooks of a correction, which are not thread-safe,
+ * so they are never evaluated concurrently.
+ *
+ * @author fne
+ */
+public final class CorrectionPipeline {
+
+    private final List<CorrectnessRule> rules;
+
+    /**
+     * Constructor.
+     *
+     * @param rules the rules in evaluation order
+     */
+    public CorrectionPipeline(List<CorrectnessRule> rules) {
+        this.rules = List.copyOf(rules);
+    }
+
+    /**
+     * Returns the rules in evaluation order.
+     *
+     * @return the rules
+     */
+    public List<CorrectnessRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Evaluates the rules.
+     *
+     * @param evaluation the evaluation of a single rule
+     * @return the feedback of the first failing rule or {@code null} if all rules succeeded
+     * @throws Exception if a rule could not be evaluated
+     */
+    public Feedback evaluate(RuleEvaluation evaluation) throws Exception {
+        for (CorrectnessRule rule : rules) {
+            Feedback feedback = evaluation.evaluate(rule);
+            if (!feedback.isCorrect()) {
+                return feedback;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Evaluation of a single rule against the solution and submission of a correction.
+     */
+    @FunctionalInterface
+    public interface RuleEvaluation {
+        /**
+         * Evaluates the given rule.
+         *
+         * @param rule the rule
+         * @return the feedback of the rule
+         * @throws Exception if the rule could not be evaluated
+         */
+        Feedback evaluate(CorrectnessRule rule) throws Exception;
+    }
+}
@@ -0,0 +1,15 @@
+package at.jku.dke.etutor.calc.exception;
+
+import java.io.Serial;
+
+/**
+ * Exception which indicates that a calc submission exceeds the limits of the correction, e.g. because it is a zip bomb
+ */
+public class SubmissionLimitExceededException extends Exception {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public SubmissionLimitExceededException(String message) {
+        super(message);
+    }
+}
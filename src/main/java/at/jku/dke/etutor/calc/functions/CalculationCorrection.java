@@ -1,7 +1,10 @@
 package at.jku.dke.etutor.calc.functions;
 
+import at.jku.dke.etutor.calc.models.CellColor;
+import at.jku.dke.etutor.calc.models.CorrectionContext;
 import at.jku.dke.etutor.calc.models.CorrectnessRule;
 import at.jku.dke.etutor.calc.models.Feedback;
+import at.jku.dke.etutor.calc.models.WorkbookIndex;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
@@ -22,16 +25,33 @@ public class CalculationCorrection extends CorrectnessRule {
      */
     @Override
     public Feedback checkCorrectness(XSSFWorkbook solution, XSSFWorkbook submission) throws Exception {
-        if (!isCorrectCalculated(solution, submission)) {
+        return checkCorrectness(new CorrectionContext(solution, submission));
+    }
+
+    /**
+     * @param context the context of the correction
+     * @return the Feedback regarding the correct calculations
+     */
+    @Override
+    public Feedback checkCorrectness(CorrectionContext context) throws Exception {
+        if (!isCorrectCalculated(context)) {
             return new Feedback(false, "Your calculated Values are not correct !");
         }
-        if (!correctFormulasUse(solution, submission)) {
+        if (!correctFormulasUse(context)) {
             return new Feedback(false,"Your use of one of the following functions is not correct: VLOOKUP, HLOOKUP, LOOKUP!");
         }
 
         return new Feedback(true, null);
     }
 
+    /**
+     * @return true, because the calculation help cells of the solution and submission are overridden
+     */
+    @Override
+    public boolean modifiesWorkbooks() {
+        return true;
+    }
+
 
 
     /**
@@ -40,19 +60,32 @@ public class CalculationCorrection extends CorrectnessRule {
      * @return true, when cells of the submission which should be calculated (evalutated with the function of the Class FillColorHex) are the same as the ones of the solution
      */
     public static boolean isCorrectCalculated (XSSFWorkbook solution, XSSFWorkbook submission) throws Exception {
+        return isCorrectCalculated(new CorrectionContext(solution, submission));
+    }
+
+    /**
+     * @param context the context of the correction (is necessary because the formulas have to be evaluated)
+     * @return true, when cells of the submission which should be calculated (orange cells of the index) are the same as the ones of the solution
+     */
+    public static boolean isCorrectCalculated (CorrectionContext context) throws Exception {
+        XSSFWorkbook solution = context.getSolution();
+        XSSFWorkbook submission = context.getSubmission();
 
         for (Sheet sheetSolution : solution) {
 
             Sheet sheetSubmission = submission.getSheetAt(solution.getSheetIndex(sheetSolution.getSheetName()));
+            WorkbookIndex.SheetIndex sheetIndexSolution = context.getSolutionIndex().getSheet(sheetSolution);
 
-            FormulaEvaluator formulaEvaluatorSubmission = submission.getCreationHelper().createFormulaEvaluator();
-            FormulaEvaluator formulaEvaluatorSolution = solution.getCreationHelper().createFormulaEvaluator();
+            // the cached results of the previous sheet may depend on cells which are overridden below
+            context.invalidateFormulaResults();
+            FormulaEvaluator formulaEvaluatorSubmission = context.getSubmissionFormulaEvaluator();
+            FormulaEvaluator formulaEvaluatorSolution = context.getSolutionFormulaEvaluator();
 
 
             // overrides the calculationHelpCells with random values when the cells are numeric
             // overrides the calculationHelpCells with another string value in the workbook when the cells are strings
-            if (FillColorHex.getCalculationHelpCells(sheetSolution).size() > 0) {
-                List<Cell> calculationHelpCells = FillColorHex.getCalculationHelpCells(sheetSolution);
+            List<Cell> calculationHelpCells = sheetIndexSolution.getCells(CellColor.CALCULATION_HELP);
+            if (calculationHelpCells.size() > 0) {
                 List<Cell> stringCalculationHelpCells = new ArrayList<>();
                 int counter = 0;
                 for (Cell cell : calculationHelpCells) {
@@ -77,18 +110,12 @@ public class CalculationCorrection extends CorrectnessRule {
 
 
             // checks the formulas and compares the cells of the solution and submission
-            for (Row row : sheetSolution) {
-                for (Cell cell : row) {
-                    if (FillColorHex.isCalculationCell(sheetSolution, cell)) {
-                        Cell cell_submission = sheetSubmission.getRow(cell.getRowIndex()).getCell(cell.getColumnIndex());
-                        ValuesCorrection.overrideUnknownFormulas(formulaEvaluatorSolution, cell);
-                        ValuesCorrection.overrideUnknownFormulas(formulaEvaluatorSubmission, cell_submission);
-                        if (!ValuesCorrection.compareCells(cell, cell_submission)) {
-                            return false;
-                        }
-
-                    }
-
+            for (Cell cell : sheetIndexSolution.getCells(CellColor.CALCULATION)) {
+                Cell cell_submission = sheetSubmission.getRow(cell.getRowIndex()).getCell(cell.getColumnIndex());
+                ValuesCorrection.overrideUnknownFormulas(formulaEvaluatorSolution, cell);
+                ValuesCorrection.overrideUnknownFormulas(formulaEvaluatorSubmission, cell_submission);
+                if (!ValuesCorrection.compareCells(cell, cell_submission)) {
+                    return false;
                 }
             }
         }
@@ -102,35 +129,42 @@ public class CalculationCorrection extends CorrectnessRule {
      * @return true if VLOOKUP, HLOOKUP and LOOKUP are used correctly
      */
     public static boolean correctFormulasUse(XSSFWorkbook workbook_solution, XSSFWorkbook workbook_submission) {
+        return correctFormulasUse(new CorrectionContext(workbook_solution, workbook_submission));
+    }
 
-        for (Sheet sheet : workbook_solution) {
-            for (Row row : sheet) {
-                for (Cell cell : row) {
-                    if (cell.getCellType() == CellType.FORMULA) {
-                        if (cell.getCellFormula().contains("LOOKUP")) {
+    /**
+     * @param context the context of the correction
+     * @return true if VLOOKUP, HLOOKUP and LOOKUP are used correctly
+     */
+    public static boolean correctFormulasUse(CorrectionContext context) {
+        XSSFWorkbook workbook_submission = context.getSubmission();
+
+        for (Sheet sheet : context.getSolution()) {
+            for (Cell cell : context.getSolutionIndex().getSheet(sheet).getFormulaCells()) {
+                if (cell.getCellType() == CellType.FORMULA) {
+                    if (cell.getCellFormula().contains("LOOKUP")) {
 
-                            List<String> formulaParametersSolution = getFormulaParameters(cell.getCellFormula());
+                        List<String> formulaParametersSolution = getFormulaParameters(cell.getCellFormula());
 
-                            // gets the submission cell which is on the same place as the solution cell
-                            Cell cell_submission = workbook_submission.getSheet(cell.getSheet().getSheetName()).getRow(cell.getRowIndex()).getCell(cell.getColumnIndex());
+                        // gets the submission cell which is on the same place as the solution cell
+                        Cell cell_submission = workbook_submission.getSheet(cell.getSheet().getSheetName()).getRow(cell.getRowIndex()).getCell(cell.getColumnIndex());
 
-                            if (cell_submission.getCellType() == CellType.FORMULA) {
+                        if (cell_submission.getCellType() == CellType.FORMULA) {
 
-                                List<String> formulaParametersSubmission = getFormulaParameters(cell_submission.getCellFormula());
+                            List<String> formulaParametersSubmission = getFormulaParameters(cell_submission.getCellFormula());
 
 
-                                // check for the VLOOKUP formula
-                                if (cell.getCellFormula().contains("VLOOKUP") || cell.getCellFormula().contains("HLOOKUP")) {
-                                    if (!checkFormulaVLookupHLookup(cell, cell_submission, formulaParametersSolution, formulaParametersSubmission)) {
-                                        return false;
-                                    }
-                                } else if (cell.getCellFormula().contains("LOOKUP")) {
-                                    if (!checkFormulaLookup(cell, cell_submission, formulaParametersSolution, formulaParametersSubmission)) {
-                                        return false;
-                                    }
+                            // check for the VLOOKUP formula
+                            if (cell.getCellFormula().contains("VLOOKUP") || cell.getCellFormula().contains("HLOOKUP")) {
+                                if (!checkFormulaVLookupHLookup(cell, cell_submission, formulaParametersSolution, formulaParametersSubmission)) {
+                                    return false;
                                 }
-                            } else return false;
-                        }
+                            } else if (cell.getCellFormula().contains("LOOKUP")) {
+                                if (!checkFormulaLookup(cell, cell_submission, formulaParametersSolution, formulaParametersSubmission)) {
+                                    return false;
+                                }
+                            }
+                        } else return false;
                     }
                 }
             }
@@ -1,7 +1,10 @@
 package at.jku.dke.etutor.calc.functions;
 
+import at.jku.dke.etutor.calc.models.CellColor;
+import at.jku.dke.etutor.calc.models.CorrectionContext;
 import at.jku.dke.etutor.calc.models.CorrectnessRule;
 import at.jku.dke.etutor.calc.models.Feedback;
+import at.jku.dke.etutor.calc.models.WorkbookIndex;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.Row;
@@ -27,6 +30,15 @@ public class CellFormatCorrection extends CorrectnessRule {
         return checkCorrectCellFormat(solution, submission);
     }
 
+    /**
+     * @param context the context of the correction
+     * @return the Feedback regarding the correct format of the cell
+     */
+    @Override
+    public Feedback checkCorrectness(CorrectionContext context) throws Exception {
+        return checkCorrectCellFormat(context);
+    }
+
     /**
      * @param solution workbook of the solution
      * @param submission workbook of the submission
@@ -34,21 +46,33 @@ public class CellFormatCorrection extends CorrectnessRule {
      * for more information check the functions above
      */
     public static Feedback checkCorrectCellFormat (XSSFWorkbook solution, XSSFWorkbook submission) throws Exception {
+        return checkCorrectCellFormat(new CorrectionContext(solution, submission));
+    }
+
+    /**
+     * @param context the context of the correction
+     * @return feedback if the solution has the same formatted cells as the submission (format, hidden, locked, usw.)
+     */
+    public static Feedback checkCorrectCellFormat (CorrectionContext context) throws Exception {
+        XSSFWorkbook solution = context.getSolution();
+        XSSFWorkbook submission = context.getSubmission();
 
         for (int i = 0; i < solution.getNumberOfSheets(); i++) {
             XSSFSheet sheetSolution = solution.getSheetAt(i);
             XSSFSheet sheetSubmission = submission.getSheetAt(i);
+            WorkbookIndex.SheetIndex sheetIndexSolution = context.getSolutionIndex().getSheet(i);
 
             for (Row row : sheetSolution) {
                 for (Cell cell : row) {
                     // is just checking the cell format if the cell is a value, calculation, dropdown or checkCellFormatCell
-                    if (FillColorHex.isCheckCellFormatCell(sheetSolution, cell) || FillColorHex.isCalculationCell(sheetSolution, cell) || FillColorHex.isValueCell(sheetSolution, cell) || FillColorHex.isDropdownCell(sheetSolution, cell)) {
+                    CellColor cellColor = sheetIndexSolution.getCellColor(cell);
+                    if (cellColor != null && cellColor != CellColor.CALCULATION_HELP) {
                         XSSFCell cellSolution = sheetSolution.getRow(cell.getRowIndex()).getCell(cell.getColumnIndex());
                         XSSFCell cellSubmission = sheetSubmission.getRow(cell.getRowIndex()).getCell(cell.getColumnIndex());
                         if (!checkDataFormat(cellSolution, cellSubmission)) {
                             return new Feedback(false, "Your calculated cells are not in the correct data format!");
                         }
-                        if (!checkExactlyMatchingCellFormat(cellSolution, cellSubmission)) {
+                        if (cellColor == CellColor.CHECK_CELL_FORMAT && !checkMatchingCellFormat(cellSolution, cellSubmission)) {
                             return new Feedback(false, "Your cells are not in the correct format. Check the size, font and the alignment of your cells!");
                         }
                         if (!checkHidden(cellSolution, cellSubmission)) {
@@ -143,18 +167,25 @@ public class CellFormatCorrection extends CorrectnessRule {
      */
     public static boolean checkExactlyMatchingCellFormat (XSSFCell solution, XSSFCell submission) throws Exception {
         if (FillColorHex.isCheckCellFormatCell(solution.getSheet(), solution)) {
-            if (solution.getCellStyle().getAlignment() != submission.getCellStyle().getAlignment()) {
-                return false;
-            }
-            if (solution.getCellStyle().getFont().getFontHeight() != submission.getCellStyle().getFont().getFontHeight()) {
-                return false;
-            }
-            if (!Objects.equals(solution.getCellStyle().getFont().getFontName(), submission.getCellStyle().getFont().getFontName())) {
-                return false;
-            }
+            return checkMatchingCellFormat(solution, submission);
         }
         return true;
     }
 
+    /**
+     * @param solution Cell of the solution
+     * @param submission Cell of the submission
+     * @return true if the alignment and font of the submission cell are the same as of the solution cell
+     */
+    public static boolean checkMatchingCellFormat (XSSFCell solution, XSSFCell submission) {
+        if (solution.getCellStyle().getAlignment() != submission.getCellStyle().getAlignment()) {
+            return false;
+        }
+        if (solution.getCellStyle().getFont().getFontHeight() != submission.getCellStyle().getFont().getFontHeight()) {
+            return false;
+        }
+        return Objects.equals(solution.getCellStyle().getFont().getFontName(), submission.getCellStyle().getFont().getFontName());
+    }
+
 
 }
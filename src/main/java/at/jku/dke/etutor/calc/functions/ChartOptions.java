@@ -1,5 +1,6 @@
 package at.jku.dke.etutor.calc.functions;
 
+import at.jku.dke.etutor.calc.models.CorrectionContext;
 import at.jku.dke.etutor.calc.models.CorrectnessRule;
 import at.jku.dke.etutor.calc.models.Feedback;
 import org.apache.poi.xddf.usermodel.chart.XDDFChartData;
@@ -24,6 +25,15 @@ public class ChartOptions extends CorrectnessRule {
         return correctChartOptions(solution, submission);
     }
 
+    /**
+     * @param context the context of the correction
+     * @return the Feedback regarding the correct charts
+     */
+    @Override
+    public Feedback checkCorrectness(CorrectionContext context) throws Exception {
+        return correctChartOptions(context);
+    }
+
     /**
      * @param solution workbook of the solution
      * @param submission workbook of the submission
@@ -31,33 +41,40 @@ public class ChartOptions extends CorrectnessRule {
      * for more information check the functions above
      */
     public static Feedback correctChartOptions (XSSFWorkbook solution, XSSFWorkbook submission) {
-        if (!correctChartType(solution, submission)) {
+        return correctChartOptions(new CorrectionContext(solution, submission));
+    }
+
+    /**
+     * @param context the context of the correction
+     * @return the Feedback regarding the correct charts
+     */
+    public static Feedback correctChartOptions (CorrectionContext context) {
+        if (!correctChartType(context)) {
             return new Feedback(false, "Your charts do not have the correct type!");
         }
-        if (!correctChartRange(solution, submission)) {
+        if (!correctChartRange(context)) {
             return new Feedback(false, "Your charts do not cover the correct range!");
         }
-        if (!checkHasTitle(solution, submission)) {
+        if (!checkHasTitle(context)) {
             return new Feedback(false, "Your charts do not have a title!");
         }
-        if (!checkNumberOfAxis(solution, submission)) {
+        if (!checkNumberOfAxis(context)) {
             return new Feedback(false, "Your charts do not have the correct number of axis!");
         }
         return new Feedback(true, null);
     }
 
     /**
-     * @param solution workbook of the solution
-     * @param submission workbook of the submission
+     * @param context the context of the correction
      * @return true if the chart type of the solution is the same as the chart type of the submission
      */
-    public static boolean correctChartType (XSSFWorkbook solution, XSSFWorkbook submission) {
-        int numberOfSheets = solution.getNumberOfSheets();
+    public static boolean correctChartType (CorrectionContext context) {
+        int numberOfSheets = context.getSolution().getNumberOfSheets();
         for (int i = 0; i < numberOfSheets; i++) {
-            if (solution.getSheetAt(i).getDrawingPatriarch() != null) {
-                if (submission.getSheetAt(i).getDrawingPatriarch() != null) {
-                    List<XSSFChart> charts_solution = solution.getSheetAt(i).getDrawingPatriarch().getCharts();
-                    List<XSSFChart> charts_submission = submission.getSheetAt(i).getDrawingPatriarch().getCharts();
+            if (context.getSolutionIndex().getSheet(i).getCharts() != null) {
+                if (context.getSubmissionIndex().getSheet(i).getCharts() != null) {
+                    List<XSSFChart> charts_solution = context.getSolutionIndex().getSheet(i).getCharts();
+                    List<XSSFChart> charts_submission = context.getSubmissionIndex().getSheet(i).getCharts();
 
                     if (charts_solution.size() == charts_submission.size()) {
 
@@ -90,17 +107,16 @@ public class ChartOptions extends CorrectnessRule {
     }
 
     /**
-     * @param solution workbook of the solution
-     * @param submission workbook of the submission
+     * @param context the context of the correction
      * @return true if the range of the charts are the same
      */
-    public static boolean correctChartRange (XSSFWorkbook solution, XSSFWorkbook submission) {
-        int numberOfSheets = solution.getNumberOfSheets();
+    public static boolean correctChartRange (CorrectionContext context) {
+        int numberOfSheets = context.getSolution().getNumberOfSheets();
         for (int i = 0; i < numberOfSheets; i++) {
-            if (solution.getSheetAt(i).getDrawingPatriarch() != null) {
-                if (submission.getSheetAt(i).getDrawingPatriarch() != null) {
-                    List<XSSFChart> charts_solution = solution.getSheetAt(i).getDrawingPatriarch().getCharts();
-                    List<XSSFChart> charts_submission = submission.getSheetAt(i).getDrawingPatriarch().getCharts();
+            if (context.getSolutionIndex().getSheet(i).getCharts() != null) {
+                if (context.getSubmissionIndex().getSheet(i).getCharts() != null) {
+                    List<XSSFChart> charts_solution = context.getSolutionIndex().getSheet(i).getCharts();
+                    List<XSSFChart> charts_submission = context.getSubmissionIndex().getSheet(i).getCharts();
 
                     List<String> dataRangeReferenceListSolution = new ArrayList<>();
                     List<String> dataRangeReferenceListSubmission = new ArrayList<>();
@@ -151,18 +167,17 @@ public class ChartOptions extends CorrectnessRule {
     }
 
     /**
-     * @param solution workbook of the solution
-     * @param submission workbook of the submission
+     * @param context the context of the correction
      * @return true if the charts of the submission have a title (of course just if the  charts of the solution have a title)
      */
-    public static boolean checkHasTitle (XSSFWorkbook solution, XSSFWorkbook submission) {
+    public static boolean checkHasTitle (CorrectionContext context) {
 
-        int numberOfSheets = solution.getNumberOfSheets();
+        int numberOfSheets = context.getSolution().getNumberOfSheets();
         for (int i = 0; i < numberOfSheets; i++) {
-            if (solution.getSheetAt(i).getDrawingPatriarch() != null) {
-                if (submission.getSheetAt(i).getDrawingPatriarch() != null) {
-                    List<XSSFChart> charts_solution = solution.getSheetAt(i).getDrawingPatriarch().getCharts();
-                    List<XSSFChart> charts_submission = submission.getSheetAt(i).getDrawingPatriarch().getCharts();
+            if (context.getSolutionIndex().getSheet(i).getCharts() != null) {
+                if (context.getSubmissionIndex().getSheet(i).getCharts() != null) {
+                    List<XSSFChart> charts_solution = context.getSolutionIndex().getSheet(i).getCharts();
+                    List<XSSFChart> charts_submission = context.getSubmissionIndex().getSheet(i).getCharts();
 
                     List<Integer> solutionChartTitles = new ArrayList<>();
                     List<Integer> submissionChartTitles = new ArrayList<>();
@@ -188,17 +203,16 @@ public class ChartOptions extends CorrectnessRule {
     }
 
     /**
-     * @param solution workbook of the solution
-     * @param submission workbook of the submission
+     * @param context the context of the correction
      * @return true if the number of the axis of solution and submission are the same
      */
-    public static boolean checkNumberOfAxis (XSSFWorkbook solution, XSSFWorkbook submission) {
-        int numberOfSheets = solution.getNumberOfSheets();
+    public static boolean checkNumberOfAxis (CorrectionContext context) {
+        int numberOfSheets = context.getSolution().getNumberOfSheets();
         for (int i = 0; i < numberOfSheets; i++) {
-            if (solution.getSheetAt(i).getDrawingPatriarch() != null) {
-                if (submission.getSheetAt(i).getDrawingPatriarch() != null) {
-                    List<XSSFChart> charts_solution = solution.getSheetAt(i).getDrawingPatriarch().getCharts();
-                    List<XSSFChart> charts_submission = submission.getSheetAt(i).getDrawingPatriarch().getCharts();
+            if (context.getSolutionIndex().getSheet(i).getCharts() != null) {
+                if (context.getSubmissionIndex().getSheet(i).getCharts() != null) {
+                    List<XSSFChart> charts_solution = context.getSolutionIndex().getSheet(i).getCharts();
+                    List<XSSFChart> charts_submission = context.getSubmissionIndex().getSheet(i).getCharts();
 
                     List<Integer> numberOfAxisSolution = new ArrayList<>();
                     List<Integer> numberOfAxisSubmission = new ArrayList<>();
@@ -1,7 +1,10 @@
 package at.jku.dke.etutor.calc.functions;
 
+import at.jku.dke.etutor.calc.models.CellColor;
+import at.jku.dke.etutor.calc.models.CorrectionContext;
 import at.jku.dke.etutor.calc.models.CorrectnessRule;
 import at.jku.dke.etutor.calc.models.Feedback;
+import at.jku.dke.etutor.calc.models.WorkbookIndex;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.CellReference;
@@ -22,10 +25,28 @@ public class DropDownCorrection extends CorrectnessRule {
      */
     @Override
     public Feedback checkCorrectness(XSSFWorkbook solution, XSSFWorkbook submission) throws Exception {
-        if (correctDropDown(solution, submission).equals("Your Dropdown and the Values are correct !")) {
+        return checkCorrectness(new CorrectionContext(solution, submission));
+    }
+
+    /**
+     * @param context the context of the correction
+     * @return the Feedback regarding the correct dropdowns
+     */
+    @Override
+    public Feedback checkCorrectness(CorrectionContext context) throws Exception {
+        String feedback = correctDropDown(context);
+        if (feedback.equals("Your Dropdown and the Values are correct !")) {
             return new Feedback(true, null);
         }
-        return new Feedback(false, correctDropDown(solution, submission));
+        return new Feedback(false, feedback);
+    }
+
+    /**
+     * @return true, because the dropdown cells of the solution and submission are overridden with the dropdown values
+     */
+    @Override
+    public boolean modifiesWorkbooks() {
+        return true;
     }
 
     /**
@@ -34,10 +55,18 @@ public class DropDownCorrection extends CorrectnessRule {
      * @return true, when the cell in the sheet is a dropdown
      */
     public static boolean isDropdown(Sheet sheet, Cell cell) {
+        return isDropdown((List<XSSFDataValidation>) sheet.getDataValidations(), cell);
+    }
+
+    /**
+     * @param dropdown data validations of the sheet
+     * @param cell cell where the function should be evaluated
+     * @return true, when the cell is in the range of one of the data validations
+     */
+    public static boolean isDropdown(List<XSSFDataValidation> dropdown, Cell cell) {
         if (cell != null) {
             List<String> dropdown_list = new ArrayList<>();
             List<String> dropdowns = new ArrayList<>();
-            List<XSSFDataValidation> dropdown = (List<XSSFDataValidation>) sheet.getDataValidations();
             char[] alphabet = {'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z'};
 
             // Coordinates of the cell
@@ -96,7 +125,17 @@ public class DropDownCorrection extends CorrectnessRule {
      * @return a List of Strings with all Dropdown values of a cell
      */
     public static List <String> getDropdownValues (XSSFWorkbook workbook, Sheet sheet, Cell cell) throws Exception {
-        List <Cell> dropdowns = getDropdownCells(workbook, sheet, cell);
+        return getDropdownValues(workbook, (List<XSSFDataValidation>) sheet.getDataValidations(), cell);
+    }
+
+    /**
+     * @param workbook workbook where the function should be evaluated
+     * @param dropdown data validations of the sheet of the cell
+     * @param cell cell where the function should be evaluated
+     * @return a List of Strings with all Dropdown values of a cell
+     */
+    public static List <String> getDropdownValues (XSSFWorkbook workbook, List<XSSFDataValidation> dropdown, Cell cell) throws Exception {
+        List <Cell> dropdowns = getDropdownCells(workbook, dropdown, cell);
         List <String> dropdown_values = new ArrayList<>();
         for (Cell elem : dropdowns) {
             dropdown_values.add(elem.toString());
@@ -160,12 +199,16 @@ public class DropDownCorrection extends CorrectnessRule {
      * @return a List of Cells with all Dropdown values of a cell
      */
     public static List <Cell> getDropdownCells (XSSFWorkbook workbook, Sheet sheet, Cell cell) throws Exception {
-        char[] alphabet = {'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z'};
-        String cell_position = alphabet[cell.getColumnIndex()] + Integer.toString(cell.getRowIndex()+1);
-
-        // gets all ranges of the dropdownCells
-        List<XSSFDataValidation> dropdown = (List<XSSFDataValidation>) sheet.getDataValidations();
+        return getDropdownCells(workbook, (List<XSSFDataValidation>) sheet.getDataValidations(), cell);
+    }
 
+    /**
+     * @param workbook workbook where the function should be evaluated
+     * @param dropdown data validations of the sheet of the cell
+     * @param cell cell where the function should be evaluated
+     * @return a List of Cells with all Dropdown values of a cell
+     */
+    public static List <Cell> getDropdownCells (XSSFWorkbook workbook, List<XSSFDataValidation> dropdown, Cell cell) throws Exception {
         List <String> data = new ArrayList<>();
 
         for (XSSFDataValidation elem : dropdown) {
@@ -219,16 +262,35 @@ public class DropDownCorrection extends CorrectnessRule {
      */
     public static String correctDropDown (XSSFWorkbook solution, XSSFWorkbook submission) throws Exception {
         try {
+            return correctDropDown(new CorrectionContext(solution, submission));
+        } catch (Exception e) {
+            return "Your submission has either Syntax errors or does not include the correct dropdown cells.";
+        }
+    }
+
+    /**
+     * @param context the context of the correction
+     * @return a String which gives feedback about the dropdowns of the sheet of the submission, by comparing the dropdowns with the dropdowns of the solution
+     * Catches every Exception and prints feedback that the submission has syntax errors
+     */
+    public static String correctDropDown (CorrectionContext context) {
+        try {
+            XSSFWorkbook solution = context.getSolution();
+            XSSFWorkbook submission = context.getSubmission();
 
             for (Sheet sheetSolution : solution) {
 
                 Sheet sheetSubmission = submission.getSheetAt(solution.getSheetIndex(sheetSolution.getSheetName()));
+                WorkbookIndex.SheetIndex sheetIndexSolution = context.getSolutionIndex().getSheet(sheetSolution);
+                WorkbookIndex.SheetIndex sheetIndexSubmission = context.getSubmissionIndex().getSheet(sheetSubmission);
 
                 // List of cell with all dropdown cells (all cells with a green background color) of the solution
-                List<Cell> dropdownCellsSolution = FillColorHex.getDropdownCells(sheetSolution);
+                List<Cell> dropdownCellsSolution = sheetIndexSolution.getCells(CellColor.DROPDOWN);
 
-                FormulaEvaluator formulaEvaluatorSubmission = submission.getCreationHelper().createFormulaEvaluator();
-                FormulaEvaluator formulaEvaluatorSolution = solution.getCreationHelper().createFormulaEvaluator();
+                // the cached results of the previous sheet may depend on cells which are overridden below
+                context.invalidateFormulaResults();
+                FormulaEvaluator formulaEvaluatorSubmission = context.getSubmissionFormulaEvaluator();
+                FormulaEvaluator formulaEvaluatorSolution = context.getSolutionFormulaEvaluator();
 
 
                 // iterates over all dropdown cells (green cells)
@@ -237,11 +299,11 @@ public class DropDownCorrection extends CorrectnessRule {
                     // gets the cell of the submission which is on the same place as the solution cell
                     Cell currentDropdownCellSubmission = sheetSubmission.getRow(currentDropdownCellSolution.getRowIndex()).getCell(currentDropdownCellSolution.getColumnIndex());
 
-                    if (isDropdown(sheetSolution, currentDropdownCellSolution)) {
+                    if (isDropdown(sheetIndexSolution.getDataValidations(), currentDropdownCellSolution)) {
                         // checks if the submission cell is a dropdown
-                        if (isDropdown(sheetSubmission, currentDropdownCellSubmission)) {
-                            List<String> dropdownValuesSubmission = getDropdownValues(submission, sheetSubmission, currentDropdownCellSubmission);
-                            List<String> dropdownValuesSolution = getDropdownValues(solution, sheetSolution, currentDropdownCellSolution);
+                        if (isDropdown(sheetIndexSubmission.getDataValidations(), currentDropdownCellSubmission)) {
+                            List<String> dropdownValuesSubmission = getDropdownValues(submission, sheetIndexSubmission.getDataValidations(), currentDropdownCellSubmission);
+                            List<String> dropdownValuesSolution = getDropdownValues(solution, sheetIndexSolution.getDataValidations(), currentDropdownCellSolution);
 
                             boolean correct_dropdown = true;
                             boolean correct_dropdown_values = true;
@@ -263,14 +325,14 @@ public class DropDownCorrection extends CorrectnessRule {
                                             if (currentCell_submission.getCellType() == CellType.FORMULA) {
                                                 ValuesCorrection.overrideUnknownFormulas(formulaEvaluatorSubmission, currentCell_submission);
                                             }
-                                            if (FillColorHex.isDropdownCell(sheetSolution, currentCell_solution) && (!(currentCell_solution.getColumnIndex() == currentDropdownCellSolution.getColumnIndex() && currentCell_solution.getRowIndex() == currentDropdownCellSolution.getRowIndex()))) {
+                                            if (sheetIndexSolution.is(currentCell_solution, CellColor.DROPDOWN) && (!(currentCell_solution.getColumnIndex() == currentDropdownCellSolution.getColumnIndex() && currentCell_solution.getRowIndex() == currentDropdownCellSolution.getRowIndex()))) {
                                                 sheetSubmission.getRow(currentCell_solution.getRowIndex()).getCell(currentCell_solution.getColumnIndex()).setCellValue(currentCell_solution.getStringCellValue());
                                             }
                                             if (currentCell_solution.getCellType() == CellType.FORMULA && currentCell_submission.getCellType() == CellType.FORMULA) {
                                                 ValuesCorrection.overrideUnknownFormulas(formulaEvaluatorSolution, currentCell_solution);
                                                 ValuesCorrection.overrideUnknownFormulas(formulaEvaluatorSubmission, currentCell_submission);
                                             }
-                                            if (FillColorHex.isValueCell(sheetSolution, currentCell_solution)) {
+                                            if (sheetIndexSolution.is(currentCell_solution, CellColor.VALUE)) {
                                                 if (currentCell_solution.getCellType() == CellType.FORMULA) {
                                                     formulaEvaluatorSolution.evaluateFormulaCell(currentCell_solution);
                                                 }
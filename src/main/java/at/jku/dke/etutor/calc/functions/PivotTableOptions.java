@@ -1,5 +1,6 @@
 package at.jku.dke.etutor.calc.functions;
 
+import at.jku.dke.etutor.calc.models.CorrectionContext;
 import at.jku.dke.etutor.calc.models.CorrectnessRule;
 import at.jku.dke.etutor.calc.models.Feedback;
 import org.apache.poi.ss.util.AreaReference;
@@ -24,6 +25,15 @@ public class PivotTableOptions extends CorrectnessRule {
         return correctPivotTableOptions(solution, submission);
     }
 
+    /**
+     * @param context the context of the correction
+     * @return the Feedback regarding the correct pivot tables
+     */
+    @Override
+    public Feedback checkCorrectness(CorrectionContext context) throws Exception {
+        return correctPivotTableOptions(context);
+    }
+
     /**
      * @param solution workbook of the solution
      * @param submission workbook of the submission
@@ -31,28 +41,35 @@ public class PivotTableOptions extends CorrectnessRule {
      * for more information check the functions above
      */
     public static Feedback correctPivotTableOptions (XSSFWorkbook solution, XSSFWorkbook submission) {
-        if (!correctPivotTableDataFieldNames(solution, submission)) {
+        return correctPivotTableOptions(new CorrectionContext(solution, submission));
+    }
+
+    /**
+     * @param context the context of the correction
+     * @return the Feedback regarding the correct pivot tables
+     */
+    public static Feedback correctPivotTableOptions (CorrectionContext context) {
+        if (!correctPivotTableDataFieldNames(context)) {
             return new Feedback(false, "The field names of your submission are not correct!");
         }
-        if (!correctPivotTableAreaReference(solution, submission)) {
+        if (!correctPivotTableAreaReference(context)) {
             return new Feedback(false, "The areas which are referenced by your pivot tables are not correct!");
         }
         return new Feedback(true, null);
     }
 
     /**
-     * @param solution workbook of the solution
-     * @param submission workbook of the submission
+     * @param context the context of the correction
      * @return ture if the table name of the pivot table is the same in solution and submission
      */
-    public static boolean correctPivotTableName (XSSFWorkbook solution, XSSFWorkbook submission) {
+    public static boolean correctPivotTableName (CorrectionContext context) {
 
-        int numberOfSheets = solution.getNumberOfSheets();
+        int numberOfSheets = context.getSolution().getNumberOfSheets();
         for (int i = 0; i < numberOfSheets; i++) {
-            if (solution.getSheetAt(i).getPivotTables() != null) {
-                if (submission.getSheetAt(i).getPivotTables() != null) {
-                    List<XSSFPivotTable> pivotTablesSolution = solution.getSheetAt(i).getPivotTables();
-                    List<XSSFPivotTable> pivotTablesSubmission = submission.getSheetAt(i).getPivotTables();
+            if (context.getSolutionIndex().getSheet(i).getPivotTables() != null) {
+                if (context.getSubmissionIndex().getSheet(i).getPivotTables() != null) {
+                    List<XSSFPivotTable> pivotTablesSolution = context.getSolutionIndex().getSheet(i).getPivotTables();
+                    List<XSSFPivotTable> pivotTablesSubmission = context.getSubmissionIndex().getSheet(i).getPivotTables();
 
 
                     List<String> pivotTableNamesSolution = new ArrayList<>();
@@ -89,18 +106,17 @@ public class PivotTableOptions extends CorrectnessRule {
     }
 
     /**
-     * @param solution workbook of the solution
-     * @param submission workbook of the submission
+     * @param context the context of the correction
      * @return true if the data field names of the solution and submission are the same
      */
-    public static boolean correctPivotTableDataFieldNames (XSSFWorkbook solution, XSSFWorkbook submission) {
+    public static boolean correctPivotTableDataFieldNames (CorrectionContext context) {
 
-        int numberOfSheets = solution.getNumberOfSheets();
+        int numberOfSheets = context.getSolution().getNumberOfSheets();
         for (int i = 0; i < numberOfSheets; i++) {
-            if (solution.getSheetAt(i).getPivotTables() != null) {
-                if (submission.getSheetAt(i).getPivotTables() != null) {
-                    List<XSSFPivotTable> pivotTablesSolution = solution.getSheetAt(i).getPivotTables();
-                    List<XSSFPivotTable> pivotTablesSubmission = submission.getSheetAt(i).getPivotTables();
+            if (context.getSolutionIndex().getSheet(i).getPivotTables() != null) {
+                if (context.getSubmissionIndex().getSheet(i).getPivotTables() != null) {
+                    List<XSSFPivotTable> pivotTablesSolution = context.getSolutionIndex().getSheet(i).getPivotTables();
+                    List<XSSFPivotTable> pivotTablesSubmission = context.getSubmissionIndex().getSheet(i).getPivotTables();
 
                     List<String> pivotTableDataFieldNamesSolution = new ArrayList<>();
                     List<String> pivotTableDataFieldNamesSubmission = new ArrayList<>();
@@ -141,17 +157,16 @@ public class PivotTableOptions extends CorrectnessRule {
     }
 
     /**
-     * @param solution workbook of the solution
-     * @param submission workbook of the submission
+     * @param context the context of the correction
      * @return true if the area which references the pivot table do not differ between solution and submission
      */
-    public static boolean correctPivotTableAreaReference (XSSFWorkbook solution, XSSFWorkbook submission) {
-        int numberOfSheets = solution.getNumberOfSheets();
+    public static boolean correctPivotTableAreaReference (CorrectionContext context) {
+        int numberOfSheets = context.getSolution().getNumberOfSheets();
         for (int i = 0; i < numberOfSheets; i++) {
-            if (solution.getSheetAt(i).getPivotTables() != null) {
-                if (submission.getSheetAt(i).getPivotTables() != null) {
-                    List<XSSFPivotTable> pivotTablesSolution = solution.getSheetAt(i).getPivotTables();
-                    List<XSSFPivotTable> pivotTablesSubmission = submission.getSheetAt(i).getPivotTables();
+            if (context.getSolutionIndex().getSheet(i).getPivotTables() != null) {
+                if (context.getSubmissionIndex().getSheet(i).getPivotTables() != null) {
+                    List<XSSFPivotTable> pivotTablesSolution = context.getSolutionIndex().getSheet(i).getPivotTables();
+                    List<XSSFPivotTable> pivotTablesSubmission = context.getSubmissionIndex().getSheet(i).getPivotTables();
 
                     List<String> pivotTableAreaReferencesSolution = new ArrayList<>();
                     List<String> pivotTableAreaReferencesSubmission = new ArrayList<>();
@@ -159,7 +174,7 @@ public class PivotTableOptions extends CorrectnessRule {
                     for (XSSFPivotTable pivotTable : pivotTablesSolution) {
                         for (org.apache.poi.ooxml.POIXMLDocumentPart documentPart : pivotTable.getRelations()) {
                             if (documentPart instanceof XSSFPivotCacheDefinition pivotCacheDefinition) {
-                                pivotTableAreaReferencesSolution.add(pivotCacheDefinition.getPivotArea(solution).formatAsString());
+                                pivotTableAreaReferencesSolution.add(pivotCacheDefinition.getPivotArea(context.getSolution()).formatAsString());
                             }
                         }
                     }
@@ -167,7 +182,7 @@ public class PivotTableOptions extends CorrectnessRule {
                     for (XSSFPivotTable pivotTable : pivotTablesSubmission) {
                         for (org.apache.poi.ooxml.POIXMLDocumentPart documentPart : pivotTable.getRelations()) {
                             if (documentPart instanceof XSSFPivotCacheDefinition pivotCacheDefinition) {
-                                pivotTableAreaReferencesSubmission.add(pivotCacheDefinition.getPivotArea(submission).formatAsString());
+                                pivotTableAreaReferencesSubmission.add(pivotCacheDefinition.getPivotArea(context.getSubmission()).formatAsString());
                             }
                         }
                     }
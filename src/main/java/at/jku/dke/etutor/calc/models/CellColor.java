@@ -0,0 +1,69 @@
+package at.jku.dke.etutor.calc.models;
+
+import java.util.Set;
+
+/**
+ * The background colors which mark the cells of a calc task, given as ARGB strings
+ * of {@link at.jku.dke.etutor.calc.functions.FillColorHex#getFillColorHex(org.apache.poi.ss.usermodel.Cell)}.
+ *
+ * @author fne
+ */
+public enum CellColor {
+    /**
+     * Green cells, which contain a dropdown.
+     */
+    DROPDOWN(Set.of("[255, 0, 169, 51]", "[255, 221, 232, 203]", "[255, 175, 208, 149]", "[255, 119, 188, 101]",
+        "[255, 63, 175, 70]", "[255, 6, 154, 46]", "[255, 18, 118, 34]", "[255, 34, 75, 18]", "[255, 46, 39, 6]")),
+    /**
+     * Yellow cells, which contain values.
+     */
+    VALUE(Set.of("[255, 255, 255, 0]", "[255, 255, 255, 215]", "[255, 255, 255, 166]", "[255, 255, 255, 109]",
+        "[255, 255, 255, 56]", "[255, 230, 233, 5]", "[255, 112, 110, 12]", "[255, 172, 178, 12]", "[255, 68, 50, 5]")),
+    /**
+     * Orange cells, which have to be calculated.
+     */
+    CALCULATION(Set.of("[255, 255, 128, 0]", "[255, 255, 219, 182]", "[255, 255, 182, 108]", "[255, 255, 151, 47]",
+        "[255, 255, 134, 13]", "[255, 234, 117, 0]", "[255, 184, 92, 0]", "[255, 123, 61, 0]", "[255, 73, 35, 0]")),
+    /**
+     * Red cells, which are used by the calculations and overridden by the correction.
+     */
+    CALCULATION_HELP(Set.of("[255, 255, 0, 0]", "[255, 255, 215, 215]", "[255, 255, 166, 166]", "[255, 255, 109, 109]",
+        "[255, 255, 56, 56]", "[255, 241, 13, 12]", "[255, 201, 33, 30]", "[255, 141, 40, 30]", "[255, 80, 32, 12]")),
+    /**
+     * Grey cells, whose format has to match exactly.
+     */
+    CHECK_CELL_FORMAT(Set.of("[255, 102, 102, 102]", "[255, 128, 128, 128]", "[255, 153, 153, 153]", "[255, 178, 178, 178]",
+        "[255, 204, 204, 204]", "[255, 221, 221, 221]", "[255, 238, 238, 238]"));
+
+    private final Set<String> fillColors;
+
+    /**
+     * Constructor.
+     *
+     * @param fillColors the fill colors of the cells
+     */
+    CellColor(Set<String> fillColors) {
+        this.fillColors = fillColors;
+    }
+
+    /**
+     * @param fillColorHex the fill color of a cell
+     * @return true, if the fill color is one of the colors of this kind of cells
+     */
+    public boolean matches(String fillColorHex) {
+        return fillColors.contains(fillColorHex);
+    }
+
+    /**
+     * @param fillColorHex the fill color of a cell
+     * @return the kind of cells with the fill color, or {@code null} if the fill color does not mark a cell
+     */
+    public static CellColor of(String fillColorHex) {
+        for (CellColor cellColor : values()) {
+            if (cellColor.matches(fillColorHex)) {
+                return cellColor;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,98 @@
+package at.jku.dke.etutor.calc.models;
+
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * The solution and submission of a correction together with their {@link WorkbookIndex}es,
+ * which are built once and shared by all correctness rules.
+ * <p>
+ * The formula evaluators of both workbooks are shared as well, so that evaluated formulas are cached across rules.
+ * A rule which overrides cell values must call {@link #invalidateFormulaResults()} before it evaluates
+ * formulas which depend on the overridden cells.
+ *
+ * @author fne
+ */
+public class CorrectionContext {
+
+    private final XSSFWorkbook solution;
+    private final XSSFWorkbook submission;
+    private final WorkbookIndex solutionIndex;
+    private final WorkbookIndex submissionIndex;
+
+    private FormulaEvaluator solutionFormulaEvaluator;
+    private FormulaEvaluator submissionFormulaEvaluator;
+
+    /**
+     * Constructor.
+     *
+     * @param solution   workbook of the solution
+     * @param submission workbook of the submission
+     */
+    public CorrectionContext(XSSFWorkbook solution, XSSFWorkbook submission) {
+        this.solution = solution;
+        this.submission = submission;
+        this.solutionIndex = new WorkbookIndex(solution);
+        this.submissionIndex = new WorkbookIndex(submission);
+    }
+
+    /**
+     * @return workbook of the solution
+     */
+    public XSSFWorkbook getSolution() {
+        return solution;
+    }
+
+    /**
+     * @return workbook of the submission
+     */
+    public XSSFWorkbook getSubmission() {
+        return submission;
+    }
+
+    /**
+     * @return index of the solution
+     */
+    public WorkbookIndex getSolutionIndex() {
+        return solutionIndex;
+    }
+
+    /**
+     * @return index of the submission
+     */
+    public WorkbookIndex getSubmissionIndex() {
+        return submissionIndex;
+    }
+
+    /**
+     * @return the shared formula evaluator of the solution
+     */
+    public synchronized FormulaEvaluator getSolutionFormulaEvaluator() {
+        if (solutionFormulaEvaluator == null) {
+            solutionFormulaEvaluator = solution.getCreationHelper().createFormulaEvaluator();
+        }
+        return solutionFormulaEvaluator;
+    }
+
+    /**
+     * @return the shared formula evaluator of the submission
+     */
+    public synchronized FormulaEvaluator getSubmissionFormulaEvaluator() {
+        if (submissionFormulaEvaluator == null) {
+            submissionFormulaEvaluator = submission.getCreationHelper().createFormulaEvaluator();
+        }
+        return submissionFormulaEvaluator;
+    }
+
+    /**
+     * Clears the cached formula results of both workbooks, which is necessary after cell values have been overridden.
+     */
+    public synchronized void invalidateFormulaResults() {
+        if (solutionFormulaEvaluator != null) {
+            solutionFormulaEvaluator.clearAllCachedResultValues();
+        }
+        if (submissionFormulaEvaluator != null) {
+            submissionFormulaEvaluator.clearAllCachedResultValues();
+        }
+    }
+}
@@ -3,7 +3,30 @@ package at.jku.dke.etutor.calc.models;
 
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
+/**
+ * Rule which checks one aspect of a calc submission. A rule is instantiated once
+ * and shared by all corrections, so implementations must not keep state between calls.
+ */
 public abstract class CorrectnessRule {
 
     public abstract Feedback checkCorrectness(XSSFWorkbook solution, XSSFWorkbook submission) throws Exception;
+
+    /**
+     * Checks the rule with the shared index of the correction. Rules which do not use the index
+     * check the workbooks directly.
+     *
+     * @param context the context of the correction
+     * @return the Feedback of the rule
+     */
+    public Feedback checkCorrectness(CorrectionContext context) throws Exception {
+        return checkCorrectness(context.getSolution(), context.getSubmission());
+    }
+
+    /**
+     * @return true, if the rule changes cell values of the solution or submission workbook while it is checked,
+     * the cached formula results of the correction are discarded after such a rule
+     */
+    public boolean modifiesWorkbooks() {
+        return false;
+    }
 }
@@ -0,0 +1,181 @@
+package at.jku.dke.etutor.calc.models;
+
+import at.jku.dke.etutor.calc.functions.FillColorHex;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.xssf.usermodel.XSSFChart;
+import org.apache.poi.xssf.usermodel.XSSFDataValidation;
+import org.apache.poi.xssf.usermodel.XSSFDrawing;
+import org.apache.poi.xssf.usermodel.XSSFPivotTable;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the features of a workbook which are used by the correctness rules. The index is built
+ * with one pass over the cells of every sheet: the marked cells by background color and the formula cells,
+ * as well as the data validations, charts and pivot tables of every sheet.
+ * <p>
+ * The index does not depend on cell values, so it stays valid if a rule overrides values of the workbook.
+ *
+ * @author fne
+ */
+public final class WorkbookIndex {
+
+    private final XSSFWorkbook workbook;
+    private final List<SheetIndex> sheets;
+
+    /**
+     * Constructor.
+     *
+     * @param workbook the workbook to index
+     */
+    public WorkbookIndex(XSSFWorkbook workbook) {
+        this.workbook = workbook;
+
+        List<SheetIndex> sheetList = new ArrayList<>(workbook.getNumberOfSheets());
+        for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+            sheetList.add(new SheetIndex(workbook.getSheetAt(i)));
+        }
+        sheets = List.copyOf(sheetList);
+    }
+
+    /**
+     * @return the indexed workbook
+     */
+    public XSSFWorkbook getWorkbook() {
+        return workbook;
+    }
+
+    /**
+     * @param sheetIndex the position of the sheet
+     * @return the index of the sheet
+     */
+    public SheetIndex getSheet(int sheetIndex) {
+        return sheets.get(sheetIndex);
+    }
+
+    /**
+     * @param sheet a sheet of the indexed workbook
+     * @return the index of the sheet
+     */
+    public SheetIndex getSheet(Sheet sheet) {
+        return sheets.get(workbook.getSheetIndex(sheet));
+    }
+
+    /**
+     * Index of a single sheet.
+     */
+    public static final class SheetIndex {
+
+        private final XSSFSheet sheet;
+        private final Map<CellAddress, CellColor> cellColors = new HashMap<>();
+        private final Map<CellColor, List<Cell>> cellsByColor = new EnumMap<>(CellColor.class);
+        private final List<Cell> formulaCells = new ArrayList<>();
+        private final List<XSSFDataValidation> dataValidations;
+        private final List<XSSFChart> charts;
+        private final List<XSSFPivotTable> pivotTables;
+
+        /**
+         * Constructor.
+         *
+         * @param sheet the sheet to index
+         */
+        private SheetIndex(XSSFSheet sheet) {
+            this.sheet = sheet;
+
+            for (CellColor cellColor : CellColor.values()) {
+                cellsByColor.put(cellColor, new ArrayList<>());
+            }
+            for (Row row : sheet) {
+                for (Cell cell : row) {
+                    CellColor cellColor = CellColor.of(FillColorHex.getFillColorHex(cell));
+                    if (cellColor != null) {
+                        cellColors.put(cell.getAddress(), cellColor);
+                        cellsByColor.get(cellColor).add(cell);
+                    }
+                    if (cell.getCellType() == CellType.FORMULA) {
+                        formulaCells.add(cell);
+                    }
+                }
+            }
+
+            dataValidations = Collections.unmodifiableList(sheet.getDataValidations());
+            XSSFDrawing drawing = sheet.getDrawingPatriarch();
+            charts = drawing == null ? null : Collections.unmodifiableList(drawing.getCharts());
+            pivotTables = Collections.unmodifiableList(sheet.getPivotTables());
+        }
+
+        /**
+         * @return the indexed sheet
+         */
+        public XSSFSheet getSheet() {
+            return sheet;
+        }
+
+        /**
+         * @param cell a cell of the sheet
+         * @return the kind of the cell by its background color, or {@code null} if the cell is not marked
+         */
+        public CellColor getCellColor(Cell cell) {
+            if (cell == null || cell.getSheet() != sheet) {
+                return null;
+            }
+            return cellColors.get(cell.getAddress());
+        }
+
+        /**
+         * @param cell      a cell of the sheet
+         * @param cellColor the kind of cells
+         * @return true, if the cell is marked with the background color of the given kind
+         */
+        public boolean is(Cell cell, CellColor cellColor) {
+            return getCellColor(cell) == cellColor;
+        }
+
+        /**
+         * @param cellColor the kind of cells
+         * @return the cells marked with the background color of the given kind, in row order
+         */
+        public List<Cell> getCells(CellColor cellColor) {
+            return Collections.unmodifiableList(cellsByColor.get(cellColor));
+        }
+
+        /**
+         * @return the cells which contained a formula when the index was built, in row order
+         */
+        public List<Cell> getFormulaCells() {
+            return Collections.unmodifiableList(formulaCells);
+        }
+
+        /**
+         * @return the data validations of the sheet
+         */
+        public List<XSSFDataValidation> getDataValidations() {
+            return dataValidations;
+        }
+
+        /**
+         * @return the charts of the sheet, or {@code null} if the sheet has no drawing
+         */
+        public List<XSSFChart> getCharts() {
+            return charts;
+        }
+
+        /**
+         * @return the pivot tables of the sheet
+         */
+        public List<XSSFPivotTable> getPivotTables() {
+            return pivotTables;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package at.jku.dke.etutor.calc.sandbox;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock deadline of a correction, which is started and closed by the thread that runs the correction.
+ * <p>
+ * When the deadline expires, the thread is interrupted, so that the correction is cancelled cooperatively,
+ * and the registered cancellation, e.g. the termination of a worker process, is run. The cancellation must not block.
+ * Closing the deadline clears the interrupt flag if the deadline has expired.
+ *
+ * @author fne
+ */
+public final class CorrectionDeadline implements AutoCloseable {
+
+    private final Thread thread;
+    private final long deadlineNanos;
+    private final ScheduledFuture<?> expiry;
+
+    private boolean expired;
+    private boolean closed;
+    private Runnable cancellation;
+
+    /**
+     * Constructor.
+     *
+     * @param scheduler the scheduler of the expiry
+     * @param timeout   the timeout
+     */
+    private CorrectionDeadline(ScheduledExecutorService scheduler, Duration timeout) {
+        thread = Thread.currentThread();
+        deadlineNanos = System.nanoTime() + timeout.toNanos();
+        expiry = scheduler.schedule(this::expire, timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Starts a deadline for the current thread.
+     *
+     * @param scheduler the scheduler of the expiry
+     * @param timeout   the timeout
+     * @return the deadline
+     */
+    public static CorrectionDeadline start(ScheduledExecutorService scheduler, Duration timeout) {
+        return new CorrectionDeadline(scheduler, timeout);
+    }
+
+    /**
+     * Registers the cancellation which is run when the deadline expires, or immediately if it has already expired.
+     *
+     * @param cancellation the cancellation, or {@code null} to remove the registered cancellation
+     */
+    public synchronized void onExpiry(Runnable cancellation) {
+        this.cancellation = cancellation;
+        if (expired && !closed && cancellation != null) {
+            cancellation.run();
+        }
+    }
+
+    /**
+     * @return true, if the deadline has expired
+     */
+    public synchronized boolean isExpired() {
+        return expired;
+    }
+
+    /**
+     * @return the remaining time, which is zero if the deadline has expired
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Stops the deadline.
+     */
+    @Override
+    public void close() {
+        expiry.cancel(false);
+        synchronized (this) {
+            closed = true;
+            if (expired) {
+                Thread.interrupted();
+            }
+        }
+    }
+
+    /**
+     * Expires the deadline, unless it has been closed.
+     */
+    private synchronized void expire() {
+        if (closed) {
+            return;
+        }
+        expired = true;
+        thread.interrupt();
+        // the cancellation runs while the deadline is locked, so it cannot run after the deadline has been closed
+        if (cancellation != null) {
+            cancellation.run();
+        }
+    }
+}
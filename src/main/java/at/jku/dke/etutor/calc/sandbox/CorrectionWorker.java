@@ -0,0 +1,118 @@
+package at.jku.dke.etutor.calc.sandbox;
+
+import at.jku.dke.etutor.calc.config.CorrectionConfig;
+import at.jku.dke.etutor.calc.models.Feedback;
+import at.jku.dke.etutor.config.ApplicationProperties;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Main class of the child JVMs which correct calc submissions for the {@link ForkedCorrectionPool}.
+ * <p>
+ * The worker reads correction requests from the standard input and writes the feedback to the standard output
+ * until the standard input is closed. A request consists of the writer instruction, the calc solution and
+ * the calc submission, each written as length and content. A response consists of a status byte,
+ * followed by whether the submission is correct and the textual feedback, or by the description of the error
+ * if the submission could not be corrected. The standard output is reserved for the responses, so errors are
+ * reported to the parent instead of being printed.
+ *
+ * @author fne
+ */
+public final class CorrectionWorker {
+
+    static final byte STATUS_FEEDBACK = 0;
+    static final byte STATUS_ERROR = 1;
+
+    /**
+     * Maximum length of an error description, which is written as modified UTF-8 with at most 65535 bytes.
+     */
+    private static final int MAX_ERROR_LENGTH = 4096;
+
+    /**
+     * Private constructor.
+     */
+    private CorrectionWorker() {
+    }
+
+    /**
+     * Runs the worker.
+     *
+     * @param args the rule file, the minimum inflation ratio and the maximum uncompressed size of the submissions
+     * @throws IOException if the requests could not be read or the responses could not be written
+     */
+    public static void main(String[] args) throws IOException {
+        // the standard output is the channel to the parent, so everything else is printed to the standard error
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        System.setOut(System.err);
+        DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCalcCorrection().setRuleFile(args[0]);
+        new SubmissionLimits(Long.parseLong(args[2]), Double.parseDouble(args[1])).applyToPoi();
+        CorrectionConfig correctionConfig = new CorrectionConfig(applicationProperties);
+
+        while (true) {
+            byte[] writerInstruction;
+            try {
+                writerInstruction = readContent(input);
+            } catch (EOFException e) {
+                return;
+            }
+            byte[] calcSolution = readContent(input);
+            byte[] calcSubmission = readContent(input);
+
+            Feedback feedback;
+            try {
+                feedback = correctionConfig.runCorrection(new XWPFDocument(new ByteArrayInputStream(writerInstruction)),
+                    new XSSFWorkbook(new ByteArrayInputStream(calcSolution)),
+                    new XSSFWorkbook(new ByteArrayInputStream(calcSubmission)));
+            } catch (IOException | RuntimeException e) {
+                String error = e.toString();
+                output.writeByte(STATUS_ERROR);
+                output.writeUTF(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+                output.flush();
+                continue;
+            }
+            output.writeByte(STATUS_FEEDBACK);
+            output.writeBoolean(feedback.isCorrect());
+            output.writeUTF(feedback.getTextualFeedback() == null ? "" : feedback.getTextualFeedback());
+            output.flush();
+        }
+    }
+
+    /**
+     * Reads a content, which is written as length and content.
+     *
+     * @param input the input
+     * @return the content
+     * @throws IOException if the content could not be read
+     */
+    static byte[] readContent(DataInputStream input) throws IOException {
+        byte[] content = new byte[input.readInt()];
+        input.readFully(content);
+        return content;
+    }
+
+    /**
+     * Writes a content as length and content.
+     *
+     * @param output  the output
+     * @param content the content
+     * @throws IOException if the content could not be written
+     */
+    static void writeContent(DataOutputStream output, byte[] content) throws IOException {
+        output.writeInt(content.length);
+        output.write(content);
+    }
+}
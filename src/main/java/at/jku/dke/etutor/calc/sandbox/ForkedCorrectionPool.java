@@ -0,0 +1,181 @@
+package at.jku.dke.etutor.calc.sandbox;
+
+import at.jku.dke.etutor.calc.models.Feedback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of child JVMs with a capped heap, which correct calc submissions isolated from the application.
+ * <p>
+ * Every worker process corrects one submission at a time, so the pool size bounds the number of concurrent
+ * forked corrections. The processes are started on first use and reused. A process which is terminated because
+ * its correction exceeded the deadline, or which exited because it ran out of memory, is replaced by a new
+ * process for the next correction. A submission which the worker could not correct, e.g. because it could not
+ * be parsed, is answered with a negative feedback and the worker is kept.
+ *
+ * @author fne
+ */
+public final class ForkedCorrectionPool implements AutoCloseable {
+
+    /**
+     * Exit code of a JVM which has been started with {@code -XX:+ExitOnOutOfMemoryError} and ran out of memory.
+     */
+    private static final int OUT_OF_MEMORY_EXIT_CODE = 3;
+
+    private static final String ERROR_FEEDBACK = "Your submission could not be corrected, please check that it is a valid calc file!";
+
+    private final Logger log = LoggerFactory.getLogger(ForkedCorrectionPool.class);
+
+    private final List<String> command;
+    private final BlockingQueue<WorkerSlot> idleSlots;
+    private final List<WorkerSlot> slots = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param command the command which starts a {@link CorrectionWorker}
+     * @param size    the number of worker processes
+     */
+    public ForkedCorrectionPool(List<String> command, int size) {
+        this.command = List.copyOf(command);
+        idleSlots = new ArrayBlockingQueue<>(size);
+        for (int i = 0; i < size; i++) {
+            WorkerSlot slot = new WorkerSlot();
+            slots.add(slot);
+            idleSlots.add(slot);
+        }
+    }
+
+    /**
+     * Creates the command which starts a {@link CorrectionWorker} with the java executable of the running JVM.
+     *
+     * @param classpath       the classpath of the worker
+     * @param maxHeapBytes    the maximum heap size of the worker
+     * @param ruleFile        the rule file
+     * @param minInflateRatio the minimum inflation ratio of the submissions
+     * @param maxEntrySize    the maximum uncompressed size of the submissions
+     * @return the command
+     */
+    public static List<String> createCommand(String classpath, long maxHeapBytes, String ruleFile, double minInflateRatio, long maxEntrySize) {
+        String java = ProcessHandle.current().info().command()
+            .orElse(System.getProperty("java.home") + "/bin/java");
+        return List.of(java,
+            "-Xmx" + Math.max(1, maxHeapBytes / (1024 * 1024)) + "m",
+            "-XX:+ExitOnOutOfMemoryError",
+            "-Djava.awt.headless=true",
+            "-cp", classpath,
+            CorrectionWorker.class.getName(),
+            ruleFile, Double.toString(minInflateRatio), Long.toString(maxEntrySize));
+    }
+
+    /**
+     * Corrects a submission in a worker process. The worker process is terminated when the deadline expires.
+     *
+     * @param writerInstruction the content of the writer instruction
+     * @param calcSolution      the content of the calc solution
+     * @param calcSubmission    the content of the calc submission
+     * @param deadline          the deadline of the correction
+     * @return the feedback, a negative feedback if the worker could not correct the submission,
+     * or {@code null} if the worker ran out of memory
+     * @throws IOException          if the worker could not be started, failed or has been terminated
+     * @throws InterruptedException if the thread has been interrupted while waiting for a worker
+     */
+    public Feedback correct(byte[] writerInstruction, byte[] calcSolution, byte[] calcSubmission, CorrectionDeadline deadline)
+        throws IOException, InterruptedException {
+        WorkerSlot slot = idleSlots.poll(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        if (slot == null) {
+            throw new IOException("No calc correction worker became available before the deadline");
+        }
+        try {
+            Process process = slot.getProcess();
+            deadline.onExpiry(process::destroyForcibly);
+            try {
+                DataOutputStream output = slot.output;
+                CorrectionWorker.writeContent(output, writerInstruction);
+                CorrectionWorker.writeContent(output, calcSolution);
+                CorrectionWorker.writeContent(output, calcSubmission);
+                output.flush();
+
+                DataInputStream input = slot.input;
+                byte status = input.readByte();
+                if (status == CorrectionWorker.STATUS_ERROR) {
+                    log.warn("Calc correction worker could not correct the submission: {}", input.readUTF());
+                    return new Feedback(false, ERROR_FEEDBACK);
+                }
+                if (status != CorrectionWorker.STATUS_FEEDBACK) {
+                    throw new IOException("Unknown status " + status + " of the calc correction worker");
+                }
+                boolean correct = input.readBoolean();
+                return new Feedback(correct, input.readUTF());
+            } catch (IOException e) {
+                slot.discard();
+                // a worker which has been terminated by the deadline did not run out of memory
+                if (!deadline.isExpired() && process.waitFor(5, TimeUnit.SECONDS) && process.exitValue() == OUT_OF_MEMORY_EXIT_CODE) {
+                    log.warn("Calc correction worker ran out of memory");
+                    return null;
+                }
+                throw e;
+            } finally {
+                deadline.onExpiry(null);
+            }
+        } finally {
+            idleSlots.add(slot);
+        }
+    }
+
+    /**
+     * Terminates the worker processes.
+     */
+    @Override
+    public void close() {
+        slots.forEach(WorkerSlot::discard);
+    }
+
+    /**
+     * Slot of a worker process, which is started on demand.
+     */
+    private final class WorkerSlot {
+        private Process process;
+        private DataOutputStream output;
+        private DataInputStream input;
+
+        /**
+         * Returns the process of this slot, which is started if it is not running.
+         *
+         * @return the process
+         * @throws IOException if the process could not be started
+         */
+        synchronized Process getProcess() throws IOException {
+            if (process == null || !process.isAlive()) {
+                process = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+                output = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+                input = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+                log.info("Started calc correction worker {}", process.pid());
+            }
+            return process;
+        }
+
+        /**
+         * Terminates the process of this slot.
+         */
+        synchronized void discard() {
+            if (process != null) {
+                process.destroyForcibly();
+                process = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package at.jku.dke.etutor.calc.sandbox;
+
+import at.jku.dke.etutor.calc.exception.SubmissionLimitExceededException;
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Limits of the content of a calc submission, which are checked before the submission is parsed.
+ * <p>
+ * A xlsx file is a zip archive, so a small upload can inflate to gigabytes. The entries are inflated
+ * once without keeping their content, and the submission is rejected as soon as the uncompressed size
+ * or the inflation ratio exceeds the limits.
+ *
+ * @author fne
+ */
+public final class SubmissionLimits {
+
+    /**
+     * Uncompressed size up to which the inflation ratio is not checked, as small files compress well.
+     */
+    private static final long RATIO_GRACE_SIZE = 1024 * 1024;
+
+    private final long maxUncompressedSize;
+    private final double minInflateRatio;
+
+    /**
+     * Constructor.
+     *
+     * @param maxUncompressedSize the maximum size of all inflated entries in bytes
+     * @param minInflateRatio     the minimum ratio of the compressed to the uncompressed size
+     */
+    public SubmissionLimits(long maxUncompressedSize, double minInflateRatio) {
+        this.maxUncompressedSize = maxUncompressedSize;
+        this.minInflateRatio = minInflateRatio;
+    }
+
+    /**
+     * Applies the limits to the zip handling of POI, which checks them for every single entry while parsing.
+     * The limits of POI are global, so they are only applied in the {@link CorrectionWorker} process,
+     * where they cannot affect other documents, e.g. the instructions and solutions uploaded by lecturers.
+     */
+    public void applyToPoi() {
+        ZipSecureFile.setMinInflateRatio(minInflateRatio);
+        ZipSecureFile.setMaxEntrySize(maxUncompressedSize);
+    }
+
+    /**
+     * Checks the content of a submission. Content which is not a zip archive is not rejected,
+     * as it is reported by the parser.
+     *
+     * @param content the content of the submission
+     * @throws SubmissionLimitExceededException if the content exceeds the limits
+     */
+    public void check(byte[] content) throws SubmissionLimitExceededException {
+        long uncompressedSize = 0;
+        byte[] buffer = new byte[8192];
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(content))) {
+            while (zipInputStream.getNextEntry() != null) {
+                int read;
+                while ((read = zipInputStream.read(buffer)) != -1) {
+                    uncompressedSize += read;
+                    if (uncompressedSize > maxUncompressedSize) {
+                        throw new SubmissionLimitExceededException("The uncompressed submission exceeds " + maxUncompressedSize + " bytes");
+                    }
+                    if (uncompressedSize > RATIO_GRACE_SIZE && (double) content.length / uncompressedSize < minInflateRatio) {
+                        throw new SubmissionLimitExceededException("The inflation ratio of the submission is below " + minInflateRatio);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // not a valid zip archive
+        }
+    }
+}
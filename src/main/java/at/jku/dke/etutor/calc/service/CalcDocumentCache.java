@@ -0,0 +1,468 @@
+package at.jku.dke.etutor.calc.service;
+
+import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.repository.FileRepository;
+import at.jku.dke.etutor.service.exception.FileNotExistsException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Cache of the parsed calc workbooks and writer documents, keyed by the internal file id.
+ * <p>
+ * The contents of a file never change, so the instructions and solutions of a task do not have to be
+ * read and parsed again on every correction. Every entry keeps the content of the file, a shared instance
+ * for read-only access, which is parsed on first use, and a spare copy for callers which modify the document.
+ * A copy is handed over only once, after the first copy of a document has been requested the next spare copy
+ * is parsed in the background, so that repeated corrections usually only parse the submission.
+ * The cache is bounded by the estimated size of the parsed documents, which is derived from the uncompressed
+ * size of their XML parts, and entries are weighed again when a shared instance or spare copies are added.
+ *
+ * @author fne
+ */
+@Service
+public class CalcDocumentCache implements MeterBinder {
+
+    /**
+     * Estimated heap size of a parsed document relative to the uncompressed size of its XML parts.
+     * The XMLBeans object model of an OOXML part retains several times the size of its XML,
+     * the compressed content is usually another five to twenty times smaller.
+     */
+    private static final int PARSED_SIZE_FACTOR = 6;
+
+    private final Logger log = LoggerFactory.getLogger(CalcDocumentCache.class);
+
+    private final FileRepository fileRepository;
+    private final Cache<DocumentKey, CachedDocument<?>> cache;
+    private final ThreadPoolExecutor copyExecutor;
+
+    private volatile Counter spareCopyHits;
+    private volatile Counter spareCopyMisses;
+
+    /**
+     * Constructor.
+     *
+     * @param fileRepository        the injected file repository
+     * @param applicationProperties the injected application properties
+     */
+    public CalcDocumentCache(FileRepository fileRepository, ApplicationProperties applicationProperties) {
+        this.fileRepository = fileRepository;
+
+        // the content, the shared instance and the spare copy are kept in memory
+        cache = CacheBuilder.newBuilder()
+            .maximumWeight(applicationProperties.getCalcCorrection().getDocumentCacheSize().toBytes())
+            .weigher((DocumentKey key, CachedDocument<?> document) -> document.weigh())
+            .recordStats()
+            .build();
+        copyExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(64),
+            new ThreadFactoryBuilder().setNameFormat("calc-document-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Binds the cache statistics to the given registry.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, cache, "calcDocuments");
+        spareCopyHits = Counter.builder("cache.copies")
+            .description("Number of copies of calc documents which had been parsed in advance")
+            .tag("cache", "calcDocuments")
+            .tag("result", "hit")
+            .register(registry);
+        spareCopyMisses = Counter.builder("cache.copies")
+            .description("Number of copies of calc documents which had to be parsed on request")
+            .tag("cache", "calcDocuments")
+            .tag("result", "miss")
+            .register(registry);
+    }
+
+    /**
+     * Stops the thread which parses the spare copies.
+     */
+    @PreDestroy
+    public void shutdown() {
+        copyExecutor.shutdownNow();
+    }
+
+    /**
+     * Returns the shared instance of a writer document, which must not be modified.
+     *
+     * @param fileId the internal file id
+     * @return the shared document
+     * @throws FileNotExistsException if the file does not exist
+     * @throws IOException            if the file could not be read or parsed
+     */
+    public XWPFDocument getDocument(long fileId) throws FileNotExistsException, IOException {
+        return get(fileId, DocumentType.WRITER).getShared();
+    }
+
+    /**
+     * Returns the shared instance of a calc workbook, which must not be modified.
+     *
+     * @param fileId the internal file id
+     * @return the shared workbook
+     * @throws FileNotExistsException if the file does not exist
+     * @throws IOException            if the file could not be read or parsed
+     */
+    public XSSFWorkbook getWorkbook(long fileId) throws FileNotExistsException, IOException {
+        return get(fileId, DocumentType.CALC).getShared();
+    }
+
+    /**
+     * Returns a copy of a writer document, which is owned by the caller and may be modified.
+     *
+     * @param fileId the internal file id
+     * @return the copy of the document
+     * @throws FileNotExistsException if the file does not exist
+     * @throws IOException            if the file could not be read or parsed
+     */
+    public XWPFDocument copyDocument(long fileId) throws FileNotExistsException, IOException {
+        return get(fileId, DocumentType.WRITER).takeCopy();
+    }
+
+    /**
+     * Returns a copy of a calc workbook, which is owned by the caller and may be modified.
+     *
+     * @param fileId the internal file id
+     * @return the copy of the workbook
+     * @throws FileNotExistsException if the file does not exist
+     * @throws IOException            if the file could not be read or parsed
+     */
+    public XSSFWorkbook copyWorkbook(long fileId) throws FileNotExistsException, IOException {
+        return get(fileId, DocumentType.CALC).takeCopy();
+    }
+
+    /**
+     * Returns the cached content of a writer document, which must not be modified.
+     *
+     * @param fileId the internal file id
+     * @return the content of the file
+     * @throws FileNotExistsException if the file does not exist
+     * @throws IOException            if the file could not be read
+     */
+    public byte[] getDocumentContent(long fileId) throws FileNotExistsException, IOException {
+        return get(fileId, DocumentType.WRITER).content;
+    }
+
+    /**
+     * Returns the cached content of a calc workbook, which must not be modified.
+     *
+     * @param fileId the internal file id
+     * @return the content of the file
+     * @throws FileNotExistsException if the file does not exist
+     * @throws IOException            if the file could not be read
+     */
+    public byte[] getWorkbookContent(long fileId) throws FileNotExistsException, IOException {
+        return get(fileId, DocumentType.CALC).content;
+    }
+
+    /**
+     * Removes the documents of a file, e.g. after the file has been deleted.
+     *
+     * @param fileId the internal file id
+     */
+    public void invalidate(long fileId) {
+        for (DocumentType<?> type : DocumentType.values()) {
+            cache.invalidate(new DocumentKey(fileId, type));
+        }
+    }
+
+    /**
+     * Returns the cached document, which is loaded if it is not cached yet.
+     *
+     * @param fileId the internal file id
+     * @param type   the type of the document
+     * @param <T>    the class of the document
+     * @return the cached document
+     * @throws FileNotExistsException if the file does not exist
+     * @throws IOException            if the file could not be read or parsed
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CachedDocument<T> get(long fileId, DocumentType<T> type) throws FileNotExistsException, IOException {
+        try {
+            return (CachedDocument<T>) cache.get(new DocumentKey(fileId, type), () -> load(fileId, type));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof FileNotExistsException fileNotExistsException) {
+                throw fileNotExistsException;
+            }
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            throw new IOException("Could not load the calc document " + fileId, e.getCause());
+        }
+    }
+
+    /**
+     * Reads the content of a file and parses the shared instance.
+     *
+     * @param fileId the internal file id
+     * @param type   the type of the document
+     * @param <T>    the class of the document
+     * @return the document
+     * @throws FileNotExistsException if the file does not exist
+     * @throws IOException            if the file could not be read or parsed
+     */
+    private <T> CachedDocument<T> load(long fileId, DocumentType<T> type) throws FileNotExistsException, IOException {
+        byte[] content;
+        try (InputStream inputStream = fileRepository.openContent(fileId)) {
+            content = inputStream.readAllBytes();
+        }
+        return new CachedDocument<>(new DocumentKey(fileId, type), type, content, estimateParsedSize(content));
+    }
+
+    /**
+     * Estimates the heap size of a parsed document by the uncompressed size of the parts of its content.
+     *
+     * @param content the content of the file
+     * @return the estimated size in bytes
+     * @throws IOException if the content could not be read
+     */
+    static long estimateParsedSize(byte[] content) throws IOException {
+        long uncompressedSize = 0;
+        byte[] buffer = new byte[8192];
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(content))) {
+            while (zipInputStream.getNextEntry() != null) {
+                int read;
+                while ((read = zipInputStream.read(buffer)) > 0) {
+                    uncompressedSize += read;
+                }
+            }
+        }
+        return PARSED_SIZE_FACTOR * Math.max(uncompressedSize, content.length);
+    }
+
+    /**
+     * Type of a cached document.
+     *
+     * @param <T> the class of the parsed document
+     */
+    private static final class DocumentType<T> {
+
+        static final DocumentType<XSSFWorkbook> CALC = new DocumentType<>("calc", XSSFWorkbook::new);
+        static final DocumentType<XWPFDocument> WRITER = new DocumentType<>("writer", XWPFDocument::new);
+
+        private final String name;
+        private final Parser<T> parser;
+
+        /**
+         * Constructor.
+         *
+         * @param name   the name of the type
+         * @param parser the parser of the documents
+         */
+        private DocumentType(String name, Parser<T> parser) {
+            this.name = name;
+            this.parser = parser;
+        }
+
+        /**
+         * Returns the types of the cached documents.
+         *
+         * @return the types
+         */
+        static DocumentType<?>[] values() {
+            return new DocumentType<?>[]{CALC, WRITER};
+        }
+
+        /**
+         * Parses a document.
+         *
+         * @param content the content of the file
+         * @return the parsed document
+         * @throws IOException if the content could not be parsed
+         */
+        T parse(byte[] content) throws IOException {
+            return parser.parse(new ByteArrayInputStream(content));
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Parser of a document.
+     *
+     * @param <T> the class of the parsed document
+     */
+    @FunctionalInterface
+    private interface Parser<T> {
+        /**
+         * Parses a document.
+         *
+         * @param inputStream the content
+         * @return the parsed document
+         * @throws IOException if the content could not be parsed
+         */
+        T parse(InputStream inputStream) throws IOException;
+    }
+
+    /**
+     * Key of a cached document.
+     *
+     * @param fileId the internal file id
+     * @param type   the type of the document
+     */
+    private record DocumentKey(long fileId, DocumentType<?> type) {
+    }
+
+    /**
+     * Cached document with its content, the shared instance and the spare copy.
+     *
+     * @param <T> the class of the parsed document
+     */
+    private final class CachedDocument<T> {
+
+        private final DocumentKey key;
+        private final DocumentType<T> type;
+        private final byte[] content;
+        private final long parsedSize;
+        private final AtomicReference<T> spareCopy = new AtomicReference<>();
+        private final AtomicBoolean copying = new AtomicBoolean();
+        private final AtomicBoolean spareCopies = new AtomicBoolean();
+
+        private volatile T shared;
+
+        /**
+         * Constructor.
+         *
+         * @param key        the key of the document
+         * @param type       the type of the document
+         * @param content    the content of the file
+         * @param parsedSize the estimated size of a parsed instance
+         */
+        private CachedDocument(DocumentKey key, DocumentType<T> type, byte[] content, long parsedSize) {
+            this.key = key;
+            this.type = type;
+            this.content = content;
+            this.parsedSize = parsedSize;
+        }
+
+        /**
+         * Returns the estimated size of the content and the parsed instances, which are kept in memory.
+         *
+         * @return the weight in bytes
+         */
+        int weigh() {
+            long parsedInstances = (shared != null ? 1 : 0) + (spareCopies.get() ? 1 : 0);
+            return (int) Math.min(Integer.MAX_VALUE, content.length + parsedInstances * parsedSize);
+        }
+
+        /**
+         * Weighs the entry again, unless it has been removed from the cache in the meantime.
+         */
+        private void reweigh() {
+            cache.asMap().replace(key, this, this);
+        }
+
+        /**
+         * Returns the shared instance, which is parsed on first access.
+         *
+         * @return the shared instance
+         * @throws IOException if the content could not be parsed
+         */
+        T getShared() throws IOException {
+            T document = shared;
+            if (document == null) {
+                synchronized (this) {
+                    document = shared;
+                    if (document == null) {
+                        document = type.parse(content);
+                        shared = document;
+                        reweigh();
+                    }
+                }
+            }
+            return document;
+        }
+
+        /**
+         * Hands over the spare copy, or parses a copy if there is none, and schedules the next spare copy.
+         * Spare copies are only kept for documents which have been copied before.
+         *
+         * @return the copy
+         * @throws IOException if the content could not be parsed
+         */
+        T takeCopy() throws IOException {
+            T copy = spareCopy.getAndSet(null);
+            if (copy != null) {
+                increment(spareCopyHits);
+            } else {
+                increment(spareCopyMisses);
+                copy = type.parse(content);
+            }
+            if (spareCopies.compareAndSet(false, true)) {
+                reweigh();
+            }
+            scheduleSpareCopy();
+            return copy;
+        }
+
+        /**
+         * Parses the next spare copy in the background, unless it is already being parsed.
+         */
+        private void scheduleSpareCopy() {
+            if (!copying.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                copyExecutor.execute(() -> {
+                    try {
+                        if (spareCopy.get() == null) {
+                            spareCopy.set(type.parse(content));
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        log.warn("Could not parse the spare copy of the {} document {}", type, key.fileId(), e);
+                    } finally {
+                        copying.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // the queue is full or the cache is shutting down, the next copy is parsed on request
+                copying.set(false);
+            }
+        }
+
+        /**
+         * Increments a counter if the metrics are bound.
+         *
+         * @param counter the counter
+         */
+        private void increment(Counter counter) {
+            if (counter != null) {
+                counter.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package at.jku.dke.etutor.calc.service;
+
+import at.jku.dke.etutor.calc.exception.SubmissionLimitExceededException;
+import at.jku.dke.etutor.calc.models.Feedback;
+import at.jku.dke.etutor.calc.sandbox.CorrectionDeadline;
+import at.jku.dke.etutor.calc.sandbox.ForkedCorrectionPool;
+import at.jku.dke.etutor.calc.sandbox.SubmissionLimits;
+import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.repository.FileRepository;
+import at.jku.dke.etutor.service.exception.FileNotExistsException;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Service which corrects untrusted calc submissions within resource limits.
+ * <p>
+ * Before a submission is parsed, its file size and the size and inflation ratio of its zip content are checked.
+ * Every correction has a wall-clock deadline: when it expires, the correcting thread is interrupted, which cancels
+ * the correction between two rules, and a forked correction is terminated. Optionally, the corrections run in
+ * a small pool of child JVMs with a capped heap, so that a submission which exhausts the memory does not affect
+ * the application. A breached limit is reported to the student as feedback.
+ *
+ * @author fne
+ */
+@Service
+public class CalcSandbox implements MeterBinder {
+
+    static final String FILE_SIZE_FEEDBACK = "Your submission is too large, please make sure that it does not exceed %d MB!";
+    static final String CONTENT_SIZE_FEEDBACK = "Your submission contains too much data, please remove unnecessary content and submit it again!";
+    static final String TIMEOUT_FEEDBACK = "The correction of your submission took too long, please remove unnecessary content and submit it again!";
+    static final String MEMORY_FEEDBACK = "The correction of your submission needed too much memory, please remove unnecessary content and submit it again!";
+
+    private final Logger log = LoggerFactory.getLogger(CalcSandbox.class);
+
+    private final FileRepository fileRepository;
+    private final CalcDocumentCache calcDocumentCache;
+    private final CorrectionService correctionService;
+
+    private final SubmissionLimits submissionLimits;
+    private final long maxFileSize;
+    private final Duration timeout;
+    private final ScheduledExecutorService scheduler;
+    private final ForkedCorrectionPool forkedCorrectionPool;
+
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * Constructor.
+     *
+     * @param fileRepository        the injected file repository
+     * @param calcDocumentCache     the injected cache of the parsed calc documents
+     * @param correctionService     the injected calc correction service
+     * @param applicationProperties the injected application properties
+     */
+    public CalcSandbox(FileRepository fileRepository, CalcDocumentCache calcDocumentCache, CorrectionService correctionService,
+                       ApplicationProperties applicationProperties) {
+        this.fileRepository = fileRepository;
+        this.calcDocumentCache = calcDocumentCache;
+        this.correctionService = correctionService;
+
+        ApplicationProperties.CalcCorrection.Sandbox properties = applicationProperties.getCalcCorrection().getSandbox();
+        submissionLimits = new SubmissionLimits(properties.getMaxUncompressedSize().toBytes(), properties.getMinInflateRatio());
+        maxFileSize = properties.getMaxFileSize().toBytes();
+        timeout = properties.getTimeout();
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("calc-sandbox-%d").setDaemon(true).build());
+
+        if (properties.isFork()) {
+            String classpath = properties.getForkClasspath() != null ? properties.getForkClasspath() : System.getProperty("java.class.path");
+            String ruleFile = Path.of(applicationProperties.getCalcCorrection().getRuleFile()).toAbsolutePath().toString();
+            forkedCorrectionPool = new ForkedCorrectionPool(ForkedCorrectionPool.createCommand(classpath, properties.getForkMaxHeap().toBytes(),
+                ruleFile, properties.getMinInflateRatio(), properties.getMaxUncompressedSize().toBytes()), properties.getForkWorkers());
+        } else {
+            forkedCorrectionPool = null;
+        }
+    }
+
+    /**
+     * Binds the limit breach counters to the given registry.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        meterRegistry = registry;
+    }
+
+    /**
+     * Stops the scheduler of the deadlines and the worker processes.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (forkedCorrectionPool != null) {
+            forkedCorrectionPool.close();
+        }
+    }
+
+    /**
+     * Corrects a calc submission within the limits.
+     *
+     * @param writerInstructionFileId id of the writer instruction file
+     * @param calcSolutionFileId      id of the calc solution file
+     * @param calcSubmissionFileId    id of the calc submission file
+     * @return the feedback of the correction, or the feedback of the breached limit
+     * @throws FileNotExistsException if a file does not exist
+     * @throws IOException            if a file could not be read or parsed, or the forked correction failed
+     */
+    public Feedback correct(long writerInstructionFileId, long calcSolutionFileId, long calcSubmissionFileId) throws FileNotExistsException, IOException {
+        byte[] submission;
+        try (InputStream inputStream = fileRepository.openContent(calcSubmissionFileId)) {
+            submission = inputStream.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxFileSize + 1));
+        }
+        if (submission.length > maxFileSize) {
+            return breach("file-size", String.format(FILE_SIZE_FEEDBACK, Math.max(1, maxFileSize / (1024 * 1024))));
+        }
+        try {
+            submissionLimits.check(submission);
+        } catch (SubmissionLimitExceededException e) {
+            log.info("Rejected calc submission {}: {}", calcSubmissionFileId, e.getMessage());
+            return breach("content-size", CONTENT_SIZE_FEEDBACK);
+        }
+
+        try (CorrectionDeadline deadline = CorrectionDeadline.start(scheduler, timeout)) {
+            try {
+                Feedback feedback = forkedCorrectionPool != null ?
+                    forkedCorrectionPool.correct(calcDocumentCache.getDocumentContent(writerInstructionFileId),
+                        calcDocumentCache.getWorkbookContent(calcSolutionFileId), submission, deadline) :
+                    correctionService.runCorrection(calcDocumentCache.getDocument(writerInstructionFileId),
+                        calcDocumentCache.copyWorkbook(calcSolutionFileId), new XSSFWorkbook(new ByteArrayInputStream(submission)));
+                if (deadline.isExpired()) {
+                    return breach("timeout", TIMEOUT_FEEDBACK);
+                }
+                return feedback != null ? feedback : breach("memory", MEMORY_FEEDBACK);
+            } catch (IOException | InterruptedException e) {
+                if (deadline.isExpired()) {
+                    return breach("timeout", TIMEOUT_FEEDBACK);
+                }
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for a calc correction worker", e);
+                }
+                throw (IOException) e;
+            }
+        }
+    }
+
+    /**
+     * Counts a breached limit.
+     *
+     * @param limit    the limit
+     * @param feedback the textual feedback
+     * @return the negative feedback
+     */
+    private Feedback breach(String limit, String feedback) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            Counter.builder("calc.correction.limit.breaches")
+                .description("Number of calc submissions which exceeded a limit of the correction")
+                .tag("limit", limit)
+                .register(registry)
+                .increment();
+        }
+        return new Feedback(false, feedback);
+    }
+}
@@ -7,17 +7,30 @@ import at.jku.dke.etutor.calc.models.Feedback;
 import at.jku.dke.etutor.calc.models.RandomInstruction;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.springframework.stereotype.Service;
 
+@Service
 public class CorrectionService {
 
+    private final CorrectionConfig correctionConfig;
+
+    /**
+     * Constructor.
+     *
+     * @param correctionConfig the injected correction config
+     */
+    public CorrectionService(CorrectionConfig correctionConfig) {
+        this.correctionConfig = correctionConfig;
+    }
+
     /**
      * @param instructionWriter file of the instruction writer
      * @param solutionCalc file of the solution calc
      * @param submissionCalc file of the submission calc
      * @return Feedback of the submission
      */
-    public static Feedback runCorrection (XWPFDocument instructionWriter, XSSFWorkbook solutionCalc, XSSFWorkbook submissionCalc) throws ClassNotFoundException {
-        return CorrectionConfig.runCorrection(instructionWriter, solutionCalc, submissionCalc);
+    public Feedback runCorrection (XWPFDocument instructionWriter, XSSFWorkbook solutionCalc, XSSFWorkbook submissionCalc) {
+        return correctionConfig.runCorrection(instructionWriter, solutionCalc, submissionCalc);
     }
 
     /**
@@ -1,6 +1,9 @@
 package at.jku.dke.etutor.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 /**
  * Properties specific to Etutor Plus Plus.
@@ -16,8 +19,20 @@ public class ApplicationProperties {
 
     private final BpmnDispatcher bpmnDispatcher = new BpmnDispatcher();
 
+    private final DispatcherClient dispatcherClient = new DispatcherClient();
+
+    private final DispatcherCache dispatcherCache = new DispatcherCache();
+
     private final Apriori apriori = new Apriori();
 
+    private final PdfRendering pdfRendering = new PdfRendering();
+
+    private final FileStorage fileStorage = new FileStorage();
+
+    private final Generator generator = new Generator();
+
+    private final CalcCorrection calcCorrection = new CalcCorrection();
+
     public Apriori getApriori() {
 		return apriori;
 	}
@@ -49,12 +64,67 @@ public class ApplicationProperties {
         return bpmnDispatcher;
     }
 
+    /**
+     * Getter for the field <code>dispatcherClient</code>
+     *
+     * @return a {@link ApplicationProperties.DispatcherClient} object
+     */
+    public DispatcherClient getDispatcherClient() {
+        return dispatcherClient;
+    }
+
+    /**
+     * Getter for the field <code>dispatcherCache</code>
+     *
+     * @return a {@link ApplicationProperties.DispatcherCache} object
+     */
+    public DispatcherCache getDispatcherCache() {
+        return dispatcherCache;
+    }
+
+    /**
+     * Getter for the field <code>pdfRendering</code>
+     *
+     * @return a {@link ApplicationProperties.PdfRendering} object
+     */
+    public PdfRendering getPdfRendering() {
+        return pdfRendering;
+    }
+
+    /**
+     * Getter for the field <code>fileStorage</code>
+     *
+     * @return a {@link ApplicationProperties.FileStorage} object
+     */
+    public FileStorage getFileStorage() {
+        return fileStorage;
+    }
+
+    /**
+     * Getter for the field <code>generator</code>
+     *
+     * @return a {@link ApplicationProperties.Generator} object
+     */
+    public Generator getGenerator() {
+        return generator;
+    }
+
+    /**
+     * Getter for the field <code>calcCorrection</code>
+     *
+     * @return a {@link ApplicationProperties.CalcCorrection} object
+     */
+    public CalcCorrection getCalcCorrection() {
+        return calcCorrection;
+    }
+
     /**
      * Configuration class for the fuseki connection.
      */
     public static class Fuseki {
 
         private String baseUrl; //"http://localhost:3030/etutorpp-database";
+        private final Pool pool = new Pool();
 
         /**
          * Returns the base url for the fuseki connection
@@ -73,6 +143,174 @@ public class ApplicationProperties {
         public void setBaseUrl(String baseUrl) {
             this.baseUrl = baseUrl;
         }
+
+        /**
+         * Returns the connection pool configuration.
+         *
+         * @return the connection pool configuration
+         */
+        public Pool getPool() {
+            return pool;
+        }
+
+        /**
+         * Configuration class for the pooled fuseki connections.
+         */
+        public static class Pool {
+
+            private boolean enabled = true;
+            private int maxConnections = 20;
+            private int httpThreads = 8;
+            private boolean http2 = true;
+            private Duration connectTimeout = Duration.ofSeconds(10);
+            private Duration acquireTimeout = Duration.ofSeconds(30);
+            private Duration idleTimeout = Duration.ofMinutes(5);
+            private Duration evictionInterval = Duration.ofSeconds(30);
+
+            /**
+             * Returns whether connection pooling is enabled.
+             *
+             * @return {@code true} if pooling is enabled, otherwise {@code false}
+             */
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            /**
+             * Sets whether connection pooling is enabled.
+             *
+             * @param enabled the value to set
+             */
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            /**
+             * Returns the maximum number of concurrently borrowed connections to the dataset.
+             *
+             * @return the maximum number of connections
+             */
+            public int getMaxConnections() {
+                return maxConnections;
+            }
+
+            /**
+             * Sets the maximum number of concurrently borrowed connections to the dataset.
+             *
+             * @param maxConnections the maximum number of connections
+             */
+            public void setMaxConnections(int maxConnections) {
+                this.maxConnections = maxConnections;
+            }
+
+            /**
+             * Returns the number of threads of the shared http client.
+             *
+             * @return the number of threads
+             */
+            public int getHttpThreads() {
+                return httpThreads;
+            }
+
+            /**
+             * Sets the number of threads of the shared http client.
+             *
+             * @param httpThreads the number of threads
+             */
+            public void setHttpThreads(int httpThreads) {
+                this.httpThreads = httpThreads;
+            }
+
+            /**
+             * Returns whether the shared http client prefers HTTP/2.
+             *
+             * @return {@code true} if HTTP/2 is preferred, otherwise {@code false}
+             */
+            public boolean isHttp2() {
+                return http2;
+            }
+
+            /**
+             * Sets whether the shared http client prefers HTTP/2.
+             *
+             * @param http2 the value to set
+             */
+            public void setHttp2(boolean http2) {
+                this.http2 = http2;
+            }
+
+            /**
+             * Returns the connect timeout of the shared http client.
+             *
+             * @return the connect timeout
+             */
+            public Duration getConnectTimeout() {
+                return connectTimeout;
+            }
+
+            /**
+             * Sets the connect timeout of the shared http client.
+             *
+             * @param connectTimeout the connect timeout
+             */
+            public void setConnectTimeout(Duration connectTimeout) {
+                this.connectTimeout = connectTimeout;
+            }
+
+            /**
+             * Returns the maximum time to wait for a free connection.
+             *
+             * @return the acquire timeout
+             */
+            public Duration getAcquireTimeout() {
+                return acquireTimeout;
+            }
+
+            /**
+             * Sets the maximum time to wait for a free connection.
+             *
+             * @param acquireTimeout the acquire timeout
+             */
+            public void setAcquireTimeout(Duration acquireTimeout) {
+                this.acquireTimeout = acquireTimeout;
+            }
+
+            /**
+             * Returns the time after which an idle connection gets evicted.
+             *
+             * @return the idle timeout
+             */
+            public Duration getIdleTimeout() {
+                return idleTimeout;
+            }
+
+            /**
+             * Sets the time after which an idle connection gets evicted.
+             *
+             * @param idleTimeout the idle timeout
+             */
+            public void setIdleTimeout(Duration idleTimeout) {
+                this.idleTimeout = idleTimeout;
+            }
+
+            /**
+             * Returns the interval of the idle connection eviction.
+             *
+             * @return the eviction interval
+             */
+            public Duration getEvictionInterval() {
+                return evictionInterval;
+            }
+
+            /**
+             * Sets the interval of the idle connection eviction.
+             *
+             * @param evictionInterval the eviction interval
+             */
+            public void setEvictionInterval(Duration evictionInterval) {
+                this.evictionInterval = evictionInterval;
+            }
+        }
     }
 
     /**
@@ -162,6 +400,1039 @@ public class ApplicationProperties {
         }
     }
 
+    /**
+     * Configuration class for the http client which is shared by all dispatcher clients.
+     * The concurrency limits apply to each dispatcher base url separately.
+     */
+    public static class DispatcherClient {
+
+        private int httpThreads = 30;
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private Duration requestTimeout = Duration.ofSeconds(60);
+        private int maxConcurrentRequests = 50;
+        private int maxQueuedRequests = 500;
+        private int maxRetries = 2;
+        private Duration initialBackoff = Duration.ofMillis(200);
+        private Duration maxBackoff = Duration.ofSeconds(2);
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private Duration hedgeDelay;
+
+        /**
+         * Returns the number of threads of the http client.
+         *
+         * @return the number of http threads
+         */
+        public int getHttpThreads() {
+            return httpThreads;
+        }
+
+        /**
+         * Sets the number of threads of the http client.
+         *
+         * @param httpThreads the number of http threads
+         */
+        public void setHttpThreads(int httpThreads) {
+            this.httpThreads = httpThreads;
+        }
+
+        /**
+         * Returns the timeout for establishing a connection to a dispatcher.
+         *
+         * @return the connect timeout
+         */
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        /**
+         * Sets the timeout for establishing a connection to a dispatcher.
+         *
+         * @param connectTimeout the connect timeout
+         */
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        /**
+         * Returns the timeout for receiving the response of a dispatcher request.
+         *
+         * @return the request timeout
+         */
+        public Duration getRequestTimeout() {
+            return requestTimeout;
+        }
+
+        /**
+         * Sets the timeout for receiving the response of a dispatcher request.
+         *
+         * @param requestTimeout the request timeout
+         */
+        public void setRequestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+        }
+
+        /**
+         * Returns the maximum number of concurrent requests per dispatcher.
+         *
+         * @return the maximum number of concurrent requests
+         */
+        public int getMaxConcurrentRequests() {
+            return maxConcurrentRequests;
+        }
+
+        /**
+         * Sets the maximum number of concurrent requests per dispatcher.
+         *
+         * @param maxConcurrentRequests the maximum number of concurrent requests
+         */
+        public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+        }
+
+        /**
+         * Returns the maximum number of requests per dispatcher which wait for a free slot.
+         * Further requests are rejected.
+         *
+         * @return the maximum number of queued requests
+         */
+        public int getMaxQueuedRequests() {
+            return maxQueuedRequests;
+        }
+
+        /**
+         * Sets the maximum number of requests per dispatcher which wait for a free slot.
+         *
+         * @param maxQueuedRequests the maximum number of queued requests
+         */
+        public void setMaxQueuedRequests(int maxQueuedRequests) {
+            this.maxQueuedRequests = maxQueuedRequests;
+        }
+
+        /**
+         * Returns the maximum number of retries of idempotent requests which failed
+         * because the dispatcher could not be reached or was temporarily unavailable.
+         *
+         * @return the maximum number of retries
+         */
+        public int getMaxRetries() {
+            return maxRetries;
+        }
+
+        /**
+         * Sets the maximum number of retries of idempotent requests.
+         *
+         * @param maxRetries the maximum number of retries
+         */
+        public void setMaxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+        }
+
+        /**
+         * Returns the delay before the first retry, which is doubled for each further retry.
+         *
+         * @return the initial backoff
+         */
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        /**
+         * Sets the delay before the first retry.
+         *
+         * @param initialBackoff the initial backoff
+         */
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        /**
+         * Returns the upper bound of the delay between retries.
+         *
+         * @return the maximum backoff
+         */
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        /**
+         * Sets the upper bound of the delay between retries.
+         *
+         * @param maxBackoff the maximum backoff
+         */
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        /**
+         * Returns the number of consecutive failures after which the circuit breaker
+         * of a dispatcher opens and further requests fail fast.
+         *
+         * @return the failure threshold
+         */
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        /**
+         * Sets the number of consecutive failures after which the circuit breaker of a dispatcher opens.
+         *
+         * @param failureThreshold the failure threshold
+         */
+        public void setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        /**
+         * Returns the duration for which an open circuit breaker rejects requests
+         * before a trial request is let through.
+         *
+         * @return the open duration
+         */
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        /**
+         * Sets the duration for which an open circuit breaker rejects requests.
+         *
+         * @param openDuration the open duration
+         */
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        /**
+         * Returns the delay after which a second request is sent for submissions and gradings
+         * if the first one has not been answered yet, or {@code null} if hedging is disabled.
+         *
+         * @return the hedge delay
+         */
+        public Duration getHedgeDelay() {
+            return hedgeDelay;
+        }
+
+        /**
+         * Sets the delay after which a second request is sent for submissions and gradings.
+         *
+         * @param hedgeDelay the hedge delay, {@code null} disables hedging
+         */
+        public void setHedgeDelay(Duration hedgeDelay) {
+            this.hedgeDelay = hedgeDelay;
+        }
+    }
+
+    /**
+     * Configuration class for the cache of the submissions and gradings fetched from the dispatchers.
+     */
+    public static class DispatcherCache {
+
+        private DataSize maximumSize = DataSize.ofMegabytes(64);
+        private String diskDirectory;
+        private Duration diskRetention = Duration.ofDays(30);
+
+        /**
+         * Returns the maximum size of the cached payloads in memory.
+         *
+         * @return the maximum size
+         */
+        public DataSize getMaximumSize() {
+            return maximumSize;
+        }
+
+        /**
+         * Sets the maximum size of the cached payloads in memory.
+         *
+         * @param maximumSize the maximum size
+         */
+        public void setMaximumSize(DataSize maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        /**
+         * Returns the directory of the on-disk tier, or {@code null} if only the memory is used.
+         *
+         * @return the disk directory
+         */
+        public String getDiskDirectory() {
+            return diskDirectory;
+        }
+
+        /**
+         * Sets the directory of the on-disk tier.
+         *
+         * @param diskDirectory the disk directory, {@code null} disables the on-disk tier
+         */
+        public void setDiskDirectory(String diskDirectory) {
+            this.diskDirectory = diskDirectory;
+        }
+
+        /**
+         * Returns the duration after which payloads are removed from the on-disk tier.
+         *
+         * @return the disk retention
+         */
+        public Duration getDiskRetention() {
+            return diskRetention;
+        }
+
+        /**
+         * Sets the duration after which payloads are removed from the on-disk tier.
+         *
+         * @param diskRetention the disk retention
+         */
+        public void setDiskRetention(Duration diskRetention) {
+            this.diskRetention = diskRetention;
+        }
+    }
+
+    /**
+     * Configuration class for the asynchronous rendering of exercise sheet PDFs.
+     */
+    public static class PdfRendering {
+
+        private int workerThreads = 2;
+        private int queueCapacity = 500;
+        private Duration jobRetention = Duration.ofHours(1);
+
+        /**
+         * Returns the number of threads which render PDFs concurrently.
+         *
+         * @return the number of worker threads
+         */
+        public int getWorkerThreads() {
+            return workerThreads;
+        }
+
+        /**
+         * Sets the number of threads which render PDFs concurrently.
+         *
+         * @param workerThreads the number of worker threads
+         */
+        public void setWorkerThreads(int workerThreads) {
+            this.workerThreads = workerThreads;
+        }
+
+        /**
+         * Returns the maximum number of waiting rendering jobs.
+         *
+         * @return the queue capacity
+         */
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * Sets the maximum number of waiting rendering jobs.
+         *
+         * @param queueCapacity the queue capacity
+         */
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        /**
+         * Returns the duration for which finished jobs are kept for status requests and de-duplication.
+         *
+         * @return the job retention
+         */
+        public Duration getJobRetention() {
+            return jobRetention;
+        }
+
+        /**
+         * Sets the duration for which finished jobs are kept for status requests and de-duplication.
+         *
+         * @param jobRetention the job retention
+         */
+        public void setJobRetention(Duration jobRetention) {
+            this.jobRetention = jobRetention;
+        }
+    }
+
+    /**
+     * Configuration class for the storage of uploaded file contents.
+     */
+    public static class FileStorage {
+
+        private String directory = "files";
+
+        /**
+         * Returns the directory in which the file contents are stored.
+         *
+         * @return the storage directory
+         */
+        public String getDirectory() {
+            return directory;
+        }
+
+        /**
+         * Sets the directory in which the file contents are stored.
+         *
+         * @param directory the storage directory
+         */
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+    }
+
+    /**
+     * Configuration class for the synthetic course data generator, which is run with the {@code generator} profile.
+     */
+    public static class Generator {
+
+        private long seed = 42;
+        private String owner = "admin";
+        private int courses = 1;
+        private int rootGoals = 6;
+        private int subGoalsPerGoal = 3;
+        private int goalDepth = 2;
+        private double dependencyRatio = 0.2;
+        private int tasksPerGoal = 3;
+        private int taskGroupsPerType = 2;
+        private int exerciseSheets = 8;
+        private int tasksPerSheet = 4;
+        private int instancesPerCourse = 1;
+        private int students = 2000;
+        private double openRatio = 0.9;
+        private double submissionRatio = 0.7;
+        private int maxSubmissions = 3;
+        private double goalCompletionRatio = 0.3;
+        private int batchSize = 50000;
+        private String outputFile;
+
+        /**
+         * Returns the seed of the random number generator, the same seed produces the same data.
+         *
+         * @return the seed of the random number generator
+         */
+        public long getSeed() {
+            return seed;
+        }
+
+        /**
+         * Sets the seed of the random number generator.
+         *
+         * @param seed the seed of the random number generator
+         */
+        public void setSeed(long seed) {
+            this.seed = seed;
+        }
+
+        /**
+         * Returns the login of the lecturer who owns the generated goals, courses and tasks.
+         *
+         * @return the owner's login
+         */
+        public String getOwner() {
+            return owner;
+        }
+
+        /**
+         * Sets the login of the lecturer who owns the generated goals, courses and tasks.
+         *
+         * @param owner the owner's login
+         */
+        public void setOwner(String owner) {
+            this.owner = owner;
+        }
+
+        /**
+         * Returns the number of generated courses.
+         *
+         * @return the number of generated courses
+         */
+        public int getCourses() {
+            return courses;
+        }
+
+        /**
+         * Sets the number of generated courses.
+         *
+         * @param courses the number of generated courses
+         */
+        public void setCourses(int courses) {
+            this.courses = courses;
+        }
+
+        /**
+         * Returns the number of root learning goals per course.
+         *
+         * @return the number of root learning goals per course
+         */
+        public int getRootGoals() {
+            return rootGoals;
+        }
+
+        /**
+         * Sets the number of root learning goals per course.
+         *
+         * @param rootGoals the number of root learning goals per course
+         */
+        public void setRootGoals(int rootGoals) {
+            this.rootGoals = rootGoals;
+        }
+
+        /**
+         * Returns the number of sub goals of each learning goal.
+         *
+         * @return the number of sub goals of each learning goal
+         */
+        public int getSubGoalsPerGoal() {
+            return subGoalsPerGoal;
+        }
+
+        /**
+         * Sets the number of sub goals of each learning goal.
+         *
+         * @param subGoalsPerGoal the number of sub goals of each learning goal
+         */
+        public void setSubGoalsPerGoal(int subGoalsPerGoal) {
+            this.subGoalsPerGoal = subGoalsPerGoal;
+        }
+
+        /**
+         * Returns the depth of the learning goal trees below the root goals.
+         *
+         * @return the depth of the learning goal trees below the root goals
+         */
+        public int getGoalDepth() {
+            return goalDepth;
+        }
+
+        /**
+         * Sets the depth of the learning goal trees below the root goals.
+         *
+         * @param goalDepth the depth of the learning goal trees below the root goals
+         */
+        public void setGoalDepth(int goalDepth) {
+            this.goalDepth = goalDepth;
+        }
+
+        /**
+         * Returns the probability that a learning goal depends on one of its preceding siblings.
+         *
+         * @return the probability that a learning goal depends on one of its preceding siblings
+         */
+        public double getDependencyRatio() {
+            return dependencyRatio;
+        }
+
+        /**
+         * Sets the probability that a learning goal depends on one of its preceding siblings.
+         *
+         * @param dependencyRatio the probability that a learning goal depends on one of its preceding siblings
+         */
+        public void setDependencyRatio(double dependencyRatio) {
+            this.dependencyRatio = dependencyRatio;
+        }
+
+        /**
+         * Returns the number of task assignments per learning goal.
+         *
+         * @return the number of task assignments per learning goal
+         */
+        public int getTasksPerGoal() {
+            return tasksPerGoal;
+        }
+
+        /**
+         * Sets the number of task assignments per learning goal.
+         *
+         * @param tasksPerGoal the number of task assignments per learning goal
+         */
+        public void setTasksPerGoal(int tasksPerGoal) {
+            this.tasksPerGoal = tasksPerGoal;
+        }
+
+        /**
+         * Returns the number of task groups per task group type and course.
+         *
+         * @return the number of task groups per task group type and course
+         */
+        public int getTaskGroupsPerType() {
+            return taskGroupsPerType;
+        }
+
+        /**
+         * Sets the number of task groups per task group type and course.
+         *
+         * @param taskGroupsPerType the number of task groups per task group type and course
+         */
+        public void setTaskGroupsPerType(int taskGroupsPerType) {
+            this.taskGroupsPerType = taskGroupsPerType;
+        }
+
+        /**
+         * Returns the number of exercise sheets per course.
+         *
+         * @return the number of exercise sheets per course
+         */
+        public int getExerciseSheets() {
+            return exerciseSheets;
+        }
+
+        /**
+         * Sets the number of exercise sheets per course.
+         *
+         * @param exerciseSheets the number of exercise sheets per course
+         */
+        public void setExerciseSheets(int exerciseSheets) {
+            this.exerciseSheets = exerciseSheets;
+        }
+
+        /**
+         * Returns the number of tasks of each exercise sheet.
+         *
+         * @return the number of tasks of each exercise sheet
+         */
+        public int getTasksPerSheet() {
+            return tasksPerSheet;
+        }
+
+        /**
+         * Sets the number of tasks of each exercise sheet.
+         *
+         * @param tasksPerSheet the number of tasks of each exercise sheet
+         */
+        public void setTasksPerSheet(int tasksPerSheet) {
+            this.tasksPerSheet = tasksPerSheet;
+        }
+
+        /**
+         * Returns the number of course instances per course.
+         *
+         * @return the number of course instances per course
+         */
+        public int getInstancesPerCourse() {
+            return instancesPerCourse;
+        }
+
+        /**
+         * Sets the number of course instances per course.
+         *
+         * @param instancesPerCourse the number of course instances per course
+         */
+        public void setInstancesPerCourse(int instancesPerCourse) {
+            this.instancesPerCourse = instancesPerCourse;
+        }
+
+        /**
+         * Returns the number of students per course instance.
+         *
+         * @return the number of students per course instance
+         */
+        public int getStudents() {
+            return students;
+        }
+
+        /**
+         * Sets the number of students per course instance.
+         *
+         * @param students the number of students per course instance
+         */
+        public void setStudents(int students) {
+            this.students = students;
+        }
+
+        /**
+         * Returns the probability that a student has opened an exercise sheet.
+         *
+         * @return the probability that a student has opened an exercise sheet
+         */
+        public double getOpenRatio() {
+            return openRatio;
+        }
+
+        /**
+         * Sets the probability that a student has opened an exercise sheet.
+         *
+         * @param openRatio the probability that a student has opened an exercise sheet
+         */
+        public void setOpenRatio(double openRatio) {
+            this.openRatio = openRatio;
+        }
+
+        /**
+         * Returns the probability that a student has submitted an assigned task.
+         *
+         * @return the probability that a student has submitted an assigned task
+         */
+        public double getSubmissionRatio() {
+            return submissionRatio;
+        }
+
+        /**
+         * Sets the probability that a student has submitted an assigned task.
+         *
+         * @param submissionRatio the probability that a student has submitted an assigned task
+         */
+        public void setSubmissionRatio(double submissionRatio) {
+            this.submissionRatio = submissionRatio;
+        }
+
+        /**
+         * Returns the maximum number of submissions per individual task.
+         *
+         * @return the maximum number of submissions per individual task
+         */
+        public int getMaxSubmissions() {
+            return maxSubmissions;
+        }
+
+        /**
+         * Sets the maximum number of submissions per individual task.
+         *
+         * @param maxSubmissions the maximum number of submissions per individual task
+         */
+        public void setMaxSubmissions(int maxSubmissions) {
+            this.maxSubmissions = maxSubmissions;
+        }
+
+        /**
+         * Returns the probability that a student has completed a learning goal.
+         *
+         * @return the probability that a student has completed a learning goal
+         */
+        public double getGoalCompletionRatio() {
+            return goalCompletionRatio;
+        }
+
+        /**
+         * Sets the probability that a student has completed a learning goal.
+         *
+         * @param goalCompletionRatio the probability that a student has completed a learning goal
+         */
+        public void setGoalCompletionRatio(double goalCompletionRatio) {
+            this.goalCompletionRatio = goalCompletionRatio;
+        }
+
+        /**
+         * Returns the number of quads which are loaded into the RDF database at once.
+         *
+         * @return the number of quads which are loaded into the RDF database at once
+         */
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        /**
+         * Sets the number of quads which are loaded into the RDF database at once.
+         *
+         * @param batchSize the number of quads which are loaded into the RDF database at once
+         */
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * Returns the N-Quads file the data is written to. If it is {@code null}, the data is loaded into the RDF database.
+         *
+         * @return the N-Quads file the data is written to
+         */
+        public String getOutputFile() {
+            return outputFile;
+        }
+
+        /**
+         * Sets the N-Quads file the data is written to (gzip compressed if it ends with {@code .gz}).
+         *
+         * @param outputFile the N-Quads file the data is written to
+         */
+        public void setOutputFile(String outputFile) {
+            this.outputFile = outputFile;
+        }
+    }
+
+    /**
+     * Configuration class for the correction of calc submissions.
+     */
+    public static class CalcCorrection {
+
+        private String ruleFile = "src/main/java/at/jku/dke/etutor/calc/config/CorrectionConfig.txt";
+        private DataSize documentCacheSize = DataSize.ofMegabytes(128);
+        private int workerThreads = 2;
+        private int queueCapacity = 200;
+        private Duration jobRetention = Duration.ofHours(1);
+        private Duration requestTimeout = Duration.ofMinutes(2);
+        private final Sandbox sandbox = new Sandbox();
+
+        /**
+         * Returns the path of the file which lists the class names of the correctness rules in evaluation order.
+         *
+         * @return the rule file
+         */
+        public String getRuleFile() {
+            return ruleFile;
+        }
+
+        /**
+         * Sets the path of the file which lists the class names of the correctness rules in evaluation order.
+         *
+         * @param ruleFile the rule file
+         */
+        public void setRuleFile(String ruleFile) {
+            this.ruleFile = ruleFile;
+        }
+
+        /**
+         * Returns the maximum estimated size of the parsed instructions and solutions in memory.
+         *
+         * @return the maximum size
+         */
+        public DataSize getDocumentCacheSize() {
+            return documentCacheSize;
+        }
+
+        /**
+         * Sets the maximum estimated size of the parsed instructions and solutions in memory.
+         *
+         * @param documentCacheSize the maximum size
+         */
+        public void setDocumentCacheSize(DataSize documentCacheSize) {
+            this.documentCacheSize = documentCacheSize;
+        }
+
+        /**
+         * Returns the number of threads which correct submissions concurrently.
+         *
+         * @return the number of worker threads
+         */
+        public int getWorkerThreads() {
+            return workerThreads;
+        }
+
+        /**
+         * Sets the number of threads which correct submissions concurrently.
+         *
+         * @param workerThreads the number of worker threads
+         */
+        public void setWorkerThreads(int workerThreads) {
+            this.workerThreads = workerThreads;
+        }
+
+        /**
+         * Returns the maximum number of waiting correction jobs.
+         *
+         * @return the queue capacity
+         */
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * Sets the maximum number of waiting correction jobs.
+         *
+         * @param queueCapacity the queue capacity
+         */
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        /**
+         * Returns the duration for which finished jobs are kept for status requests.
+         *
+         * @return the job retention
+         */
+        public Duration getJobRetention() {
+            return jobRetention;
+        }
+
+        /**
+         * Sets the duration for which finished jobs are kept for status requests.
+         *
+         * @param jobRetention the job retention
+         */
+        public void setJobRetention(Duration jobRetention) {
+            this.jobRetention = jobRetention;
+        }
+
+        /**
+         * Returns the time for which a request waits for the result of its correction job.
+         *
+         * @return the request timeout
+         */
+        public Duration getRequestTimeout() {
+            return requestTimeout;
+        }
+
+        /**
+         * Sets the time for which a request waits for the result of its correction job.
+         *
+         * @param requestTimeout the request timeout
+         */
+        public void setRequestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+        }
+
+        /**
+         * Returns the limits of the correction of untrusted submissions.
+         *
+         * @return the sandbox configuration
+         */
+        public Sandbox getSandbox() {
+            return sandbox;
+        }
+
+        /**
+         * Configuration class for the limits of the correction of untrusted submissions.
+         */
+        public static class Sandbox {
+
+            private Duration timeout = Duration.ofSeconds(60);
+            private DataSize maxFileSize = DataSize.ofMegabytes(10);
+            private DataSize maxUncompressedSize = DataSize.ofMegabytes(100);
+            private double minInflateRatio = 0.01;
+            private boolean fork;
+            private int forkWorkers = 2;
+            private DataSize forkMaxHeap = DataSize.ofMegabytes(512);
+            private String forkClasspath;
+
+            /**
+             * Returns the maximum duration of a correction.
+             *
+             * @return the timeout
+             */
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            /**
+             * Sets the maximum duration of a correction.
+             *
+             * @param timeout the timeout
+             */
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+
+            /**
+             * Returns the maximum size of a submission file.
+             *
+             * @return the maximum file size
+             */
+            public DataSize getMaxFileSize() {
+                return maxFileSize;
+            }
+
+            /**
+             * Sets the maximum size of a submission file.
+             *
+             * @param maxFileSize the maximum file size
+             */
+            public void setMaxFileSize(DataSize maxFileSize) {
+                this.maxFileSize = maxFileSize;
+            }
+
+            /**
+             * Returns the maximum size of the inflated content of a submission.
+             *
+             * @return the maximum uncompressed size
+             */
+            public DataSize getMaxUncompressedSize() {
+                return maxUncompressedSize;
+            }
+
+            /**
+             * Sets the maximum size of the inflated content of a submission.
+             *
+             * @param maxUncompressedSize the maximum uncompressed size
+             */
+            public void setMaxUncompressedSize(DataSize maxUncompressedSize) {
+                this.maxUncompressedSize = maxUncompressedSize;
+            }
+
+            /**
+             * Returns the minimum ratio of the compressed to the uncompressed size of a submission.
+             *
+             * @return the minimum inflation ratio
+             */
+            public double getMinInflateRatio() {
+                return minInflateRatio;
+            }
+
+            /**
+             * Sets the minimum ratio of the compressed to the uncompressed size of a submission.
+             *
+             * @param minInflateRatio the minimum inflation ratio
+             */
+            public void setMinInflateRatio(double minInflateRatio) {
+                this.minInflateRatio = minInflateRatio;
+            }
+
+            /**
+             * Returns whether the corrections run in child JVMs.
+             *
+             * @return true, if the corrections are forked
+             */
+            public boolean isFork() {
+                return fork;
+            }
+
+            /**
+             * Sets whether the corrections run in child JVMs.
+             *
+             * @param fork true, if the corrections should be forked
+             */
+            public void setFork(boolean fork) {
+                this.fork = fork;
+            }
+
+            /**
+             * Returns the number of child JVMs.
+             *
+             * @return the number of forked workers
+             */
+            public int getForkWorkers() {
+                return forkWorkers;
+            }
+
+            /**
+             * Sets the number of child JVMs.
+             *
+             * @param forkWorkers the number of forked workers
+             */
+            public void setForkWorkers(int forkWorkers) {
+                this.forkWorkers = forkWorkers;
+            }
+
+            /**
+             * Returns the maximum heap size of a child JVM.
+             *
+             * @return the maximum heap size
+             */
+            public DataSize getForkMaxHeap() {
+                return forkMaxHeap;
+            }
+
+            /**
+             * Sets the maximum heap size of a child JVM.
+             *
+             * @param forkMaxHeap the maximum heap size
+             */
+            public void setForkMaxHeap(DataSize forkMaxHeap) {
+                this.forkMaxHeap = forkMaxHeap;
+            }
+
+            /**
+             * Returns the classpath of the child JVMs, or {@code null} if the classpath of the application is used.
+             *
+             * @return the classpath
+             */
+            public String getForkClasspath() {
+                return forkClasspath;
+            }
+
+            /**
+             * Sets the classpath of the child JVMs, which is required if the application runs from an executable jar.
+             *
+             * @param forkClasspath the classpath
+             */
+            public void setForkClasspath(String forkClasspath) {
+                this.forkClasspath = forkClasspath;
+            }
+        }
+    }
 
     public static class Apriori{
 
@@ -1,33 +1,41 @@
 package at.jku.dke.etutor.config;
 
 import at.jku.dke.etutor.helper.FusekiRDFConnectionFactory;
+import at.jku.dke.etutor.helper.PooledFusekiRDFConnectionFactory;
 import at.jku.dke.etutor.helper.RDFConnectionFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
- * q
+ * Configuration of the rdf connection factory. Unless pooling is disabled
+ * with {@code application.fuseki.pool.enabled}, a pooled factory is used.
  *
  * @author fne
  */
 @Configuration
 public class RDFConnectionConfiguration {
 
-    private RDFConnectionFactory connectionFactory;
+    private final RDFConnectionFactory connectionFactory;
 
     /**
      * Constructor.
      *
      * @param applicationProperties the injected application properties
+     * @param meterRegistry         the injected meter registry
      */
-    public RDFConnectionConfiguration(ApplicationProperties applicationProperties) {
-        connectionFactory = new FusekiRDFConnectionFactory(applicationProperties);
+    public RDFConnectionConfiguration(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        if (applicationProperties.getFuseki().getPool().isEnabled()) {
+            connectionFactory = new PooledFusekiRDFConnectionFactory(applicationProperties, meterRegistry);
+        } else {
+            connectionFactory = new FusekiRDFConnectionFactory(applicationProperties);
+        }
     }
 
     /**
+     * Returns the rdf connection factory. The pooled factory is closed on shutdown.
      *
-     *
-     * @return
+     * @return the rdf connection factory
      */
     @Bean
     public RDFConnectionFactory getRDFConnection() {
@@ -0,0 +1,101 @@
+package at.jku.dke.etutor.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entity which represents a content in the content-addressed file store.
+ * The content is shared by all files with the same hash and counts their references.
+ *
+ * @author fne
+ */
+@Entity
+@Table(name = "file_blob")
+public class FileBlob implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+    private long size;
+    private long referenceCount;
+    private LocalDateTime releaseTime;
+
+    /**
+     * Returns the SHA-256 hash of the content.
+     *
+     * @return the hash
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * Sets the SHA-256 hash of the content.
+     *
+     * @param hash the hash to set
+     */
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    /**
+     * Returns the size.
+     *
+     * @return the size
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Sets the size.
+     *
+     * @param size the size to set
+     */
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    /**
+     * Returns the number of files which reference the content.
+     *
+     * @return the reference count
+     */
+    public long getReferenceCount() {
+        return referenceCount;
+    }
+
+    /**
+     * Sets the number of files which reference the content.
+     *
+     * @param referenceCount the reference count to set
+     */
+    public void setReferenceCount(long referenceCount) {
+        this.referenceCount = referenceCount;
+    }
+
+    /**
+     * Returns the time at which the last reference has been removed.
+     *
+     * @return the release time, or {@code null} if the content is referenced
+     */
+    public LocalDateTime getReleaseTime() {
+        return releaseTime;
+    }
+
+    /**
+     * Sets the time at which the last reference has been removed.
+     *
+     * @param releaseTime the release time to set
+     */
+    public void setReleaseTime(LocalDateTime releaseTime) {
+        this.releaseTime = releaseTime;
+    }
+}
@@ -29,8 +29,9 @@ public class FileEntity implements Serializable {
     private String contentType;
     private long size;
     @Lob
-    @Column(nullable = false)
     private byte[] content;
+    @Column(length = 64)
+    private String storageKey;
     @Column(nullable = false)
     @CreatedDate
     private LocalDateTime submitTime = LocalDateTime.now();
@@ -112,7 +113,8 @@ public class FileEntity implements Serializable {
     }
 
     /**
-     * Returns the file's content.
+     * Returns the file's content, if it is stored in the database.
+     * Files which are stored in the file system have a storage key instead.
      *
      * @return the content
      */
@@ -129,6 +131,24 @@ public class FileEntity implements Serializable {
         this.content = content;
     }
 
+    /**
+     * Returns the key of the content in the file system store.
+     *
+     * @return the storage key, or {@code null} if the content is stored in the database
+     */
+    public String getStorageKey() {
+        return storageKey;
+    }
+
+    /**
+     * Sets the key of the content in the file system store.
+     *
+     * @param storageKey the storage key to set
+     */
+    public void setStorageKey(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
     /**
      * Returns the associated student.
      *
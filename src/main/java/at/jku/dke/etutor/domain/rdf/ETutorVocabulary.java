@@ -29,6 +29,7 @@ public final class ETutorVocabulary {
     private static final String CLASS_INDIVIDUAL_TASK_SUBMISSION = "IndividualTaskSubmission";
     private static final String CLASS_TASK_GROUP = "TaskGroup";
     private static final String CLASS_LEARNING_GOAL_ASSIGNMENT = "LearningGoalAssignment";
+    private static final String CLASS_EXERCISE_SHEET_ASSIGNMENT = "ExerciseSheetAssignment";
 
     private static final String PROP_IS_PRIVATE = "isPrivate";
     private static final String PROP_DEPENDS_ON = "dependsOn";
@@ -53,6 +54,9 @@ public final class ETutorVocabulary {
     private static final String PROP_HAS_COURSE = "hasCourse";
     private static final String PROP_HAS_STUDENT = "hasStudent";
     private static final String PROP_HAS_EXERCISE_SHEET = "hasExerciseSheet";
+    private static final String PROP_HAS_EXERCISE_SHEET_ASSIGNMENT = "hasExerciseSheetAssignment";
+    private static final String PROP_IS_EXERCISE_SHEET_CLOSED = "isExerciseSheetClosed";
+    private static final String PROP_HAS_EXERCISE_SHEET_OPEN_DATE_TIME = "hasExerciseSheetOpenDateTime";
     private static final String PROP_HAS_INDIVIDUAL_TASK_ASSIGNMENT = "hasIndividualTaskAssignment";
     private static final String PROP_FROM_COURSE_INSTANCE = "fromCourseInstance";
     private static final String PROP_FROM_EXERCISE_SHEET = "fromExerciseSheet";
@@ -69,6 +73,8 @@ public final class ETutorVocabulary {
     private static final String PROP_HAS_SUBMISSION = "hasSubmission";
     private static final String PROP_HAS_DISPATCHER_POINTS = "hasDispatcherPoints";
     private static final String PROP_HAS_DIAGNOSE_LEVEL = "hasDiagnoseLevel";
+    private static final String PROP_HAS_INSTANT = "hasInstant";
+    private static final String PROP_IS_SOLVED = "isSolved";
 
     private static final String PROP_HAS_TASK_ASSIGNMENT = "hasTaskAssignment";
     private static final String PROP_HAS_TASK_CREATOR = "hasTaskCreator";
@@ -291,6 +297,18 @@ public final class ETutorVocabulary {
      * The hasExerciseSheet property.
      */
     public static final Property hasExerciseSheet = m.createProperty(URI + PROP_HAS_EXERCISE_SHEET);
+    /**
+     * The hasExerciseSheetAssignment property.
+     */
+    public static final Property hasExerciseSheetAssignment = m.createProperty(URI + PROP_HAS_EXERCISE_SHEET_ASSIGNMENT);
+    /**
+     * The isExerciseSheetClosed property.
+     */
+    public static final Property isExerciseSheetClosed = m.createProperty(URI + PROP_IS_EXERCISE_SHEET_CLOSED);
+    /**
+     * The hasExerciseSheetOpenDateTime property.
+     */
+    public static final Property hasExerciseSheetOpenDateTime = m.createProperty(URI + PROP_HAS_EXERCISE_SHEET_OPEN_DATE_TIME);
     /**
      * The hasIndividualTaskAssignment property.
      */
@@ -583,6 +601,14 @@ public final class ETutorVocabulary {
      * The hasDiagnoseLevel property
      */
     public static final Property hasDiagnoseLevel = m.createProperty(URI+PROP_HAS_DIAGNOSE_LEVEL);
+    /**
+     * The hasInstant property.
+     */
+    public static final Property hasInstant = m.createProperty(URI + PROP_HAS_INSTANT);
+    /**
+     * The isSolved property.
+     */
+    public static final Property isSolved = m.createProperty(URI + PROP_IS_SOLVED);
     /**
      * The hasTaskGroupName property.
      */
@@ -645,6 +671,10 @@ public final class ETutorVocabulary {
      * The learning goal assignment resource.
      */
     public static final Resource LearningGoalAssignment = m.createResource(URI + CLASS_LEARNING_GOAL_ASSIGNMENT);
+    /**
+     * The exercise sheet assignment resource.
+     */
+    public static final Resource ExerciseSheetAssignment = m.createResource(URI + CLASS_EXERCISE_SHEET_ASSIGNMENT);
     /**
      * The course instance resource.
      */
@@ -20,6 +20,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Class which is used to created local RDF connections to an in-memory
@@ -30,6 +31,7 @@ import java.util.Objects;
 public class LocalRDFConnectionFactory implements RDFConnectionFactory {
 
     private Dataset dataset;
+    private final AtomicLong clearCount = new AtomicLong();
 
     /**
      * Constructor.
@@ -63,6 +65,17 @@ public class LocalRDFConnectionFactory implements RDFConnectionFactory {
     @Override
     public void clearDataset() {
         createLuceneDataset(DatasetFactory.createTxnMem());
+        clearCount.incrementAndGet();
+    }
+
+    /**
+     * Returns how often the dataset has been cleared.
+     *
+     * @return the number of times the dataset has been cleared
+     */
+    @Override
+    public long getClearCount() {
+        return clearCount.get();
     }
 
     /**
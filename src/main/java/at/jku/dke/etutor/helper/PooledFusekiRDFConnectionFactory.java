@@ -0,0 +1,371 @@
+package at.jku.dke.etutor.helper;
+
+import at.jku.dke.etutor.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.jena.rdfconnection.RDFConnection;
+import org.apache.jena.rdfconnection.RDFConnectionFuseki;
+import org.apache.jena.shared.JenaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class which is used to hand out pooled rdf connections to the configured fuseki server.
+ * <p>
+ * All connections share one bounded, keep-alive {@link HttpClient}. The number of
+ * concurrently borrowed connections is limited by the configured maximum, idle connections
+ * are evicted periodically and the pool state is published to the given {@link MeterRegistry}.
+ * Connections are returned to the pool when they are closed by the caller.
+ *
+ * @author fne
+ */
+public class PooledFusekiRDFConnectionFactory implements RDFConnectionFactory, AutoCloseable {
+
+    public static final String METER_PREFIX = "etutor.fuseki.pool";
+    public static final String METER_DATASET_DIMENSION = "dataset";
+
+    private final Logger log = LoggerFactory.getLogger(PooledFusekiRDFConnectionFactory.class);
+
+    private final String destination;
+    private final int maxConnections;
+    private final Duration idleTimeout;
+    private final Duration acquireTimeout;
+
+    private final ExecutorService httpExecutor;
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService evictionExecutor;
+
+    private final Semaphore permits;
+    private final Deque<IdleConnection> idleConnections = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final Counter createdCounter;
+    private final Counter evictedCounter;
+    private final Counter acquireTimeoutCounter;
+    private final Timer acquireTimer;
+
+    /**
+     * Constructor.
+     *
+     * @param applicationProperties the application properties
+     * @param meterRegistry         the meter registry which receives the pool metrics
+     */
+    public PooledFusekiRDFConnectionFactory(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        Objects.requireNonNull(applicationProperties);
+        Objects.requireNonNull(meterRegistry);
+
+        ApplicationProperties.Fuseki.Pool poolProperties = applicationProperties.getFuseki().getPool();
+
+        this.destination = applicationProperties.getFuseki().getBaseUrl();
+        this.maxConnections = poolProperties.getMaxConnections();
+        this.idleTimeout = poolProperties.getIdleTimeout();
+        this.acquireTimeout = poolProperties.getAcquireTimeout();
+        this.permits = new Semaphore(maxConnections, true);
+
+        this.httpExecutor = Executors.newFixedThreadPool(poolProperties.getHttpThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "fuseki-http-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+            .version(poolProperties.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+            .connectTimeout(poolProperties.getConnectTimeout())
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(httpExecutor)
+            .build();
+
+        String dataset = getDatasetName(destination);
+        this.createdCounter = Counter.builder(METER_PREFIX + ".created")
+            .description("Number of rdf connections created by the pool")
+            .tag(METER_DATASET_DIMENSION, dataset)
+            .register(meterRegistry);
+        this.evictedCounter = Counter.builder(METER_PREFIX + ".evicted")
+            .description("Number of idle rdf connections evicted from the pool")
+            .tag(METER_DATASET_DIMENSION, dataset)
+            .register(meterRegistry);
+        this.acquireTimeoutCounter = Counter.builder(METER_PREFIX + ".acquire.timeouts")
+            .description("Number of failed attempts to acquire an rdf connection in time")
+            .tag(METER_DATASET_DIMENSION, dataset)
+            .register(meterRegistry);
+        this.acquireTimer = Timer.builder(METER_PREFIX + ".acquire")
+            .description("Time spent waiting for an rdf connection")
+            .tag(METER_DATASET_DIMENSION, dataset)
+            .register(meterRegistry);
+        Gauge.builder(METER_PREFIX + ".active", activeConnections, AtomicInteger::get)
+            .description("Number of rdf connections currently borrowed from the pool")
+            .tag(METER_DATASET_DIMENSION, dataset)
+            .register(meterRegistry);
+        Gauge.builder(METER_PREFIX + ".idle", idleConnections, Deque::size)
+            .description("Number of idle rdf connections in the pool")
+            .tag(METER_DATASET_DIMENSION, dataset)
+            .register(meterRegistry);
+        Gauge.builder(METER_PREFIX + ".pending", permits, Semaphore::getQueueLength)
+            .description("Number of threads waiting for an rdf connection")
+            .tag(METER_DATASET_DIMENSION, dataset)
+            .register(meterRegistry);
+        Gauge.builder(METER_PREFIX + ".max", () -> maxConnections)
+            .description("Maximum number of concurrently borrowed rdf connections")
+            .tag(METER_DATASET_DIMENSION, dataset)
+            .register(meterRegistry);
+
+        this.evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fuseki-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long evictionInterval = poolProperties.getEvictionInterval().toMillis();
+        evictionExecutor.scheduleWithFixedDelay(this::evictIdleConnections, evictionInterval, evictionInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns a pooled rdf connection. The connection is handed back to the pool
+     * as soon as it gets closed.
+     *
+     * @return the pooled rdf connection
+     * @throws JenaException if no connection could be acquired within the configured timeout
+     */
+    @Override
+    public RDFConnection getRDFConnection() {
+        if (closed.get()) {
+            throw new JenaException("The rdf connection pool has already been closed");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                acquireTimeoutCounter.increment();
+                throw new JenaException(String.format("Could not acquire an rdf connection to %s within %s", destination, acquireTimeout));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JenaException("Interrupted while waiting for an rdf connection", e);
+        } finally {
+            acquireTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        RDFConnection delegate;
+        try {
+            IdleConnection idleConnection = idleConnections.pollFirst();
+            delegate = idleConnection != null ? idleConnection.connection() : createConnection();
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        activeConnections.incrementAndGet();
+        return wrap(delegate);
+    }
+
+    /**
+     * Clears the dataset (only works in embedded mode).
+     */
+    @Override
+    public void clearDataset() {
+        //Not implemented!
+    }
+
+    /**
+     * Returns whether a hashtag replacement is needed or not.
+     *
+     * @return {@code true} if a hashtag replacement is needed, otherwise {@code false}
+     */
+    @Override
+    public boolean needsHashtagReplacement() {
+        return true;
+    }
+
+    /**
+     * Closes all idle connections and shuts down the shared http client's executors.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        evictionExecutor.shutdownNow();
+        IdleConnection idleConnection;
+        while ((idleConnection = idleConnections.pollFirst()) != null) {
+            closeQuietly(idleConnection.connection());
+        }
+        httpExecutor.shutdown();
+    }
+
+    /**
+     * Closes idle connections which have not been used for longer than the configured idle timeout.
+     */
+    void evictIdleConnections() {
+        long threshold = System.nanoTime() - idleTimeout.toNanos();
+        Iterator<IdleConnection> iterator = idleConnections.descendingIterator();
+
+        while (iterator.hasNext()) {
+            IdleConnection idleConnection = iterator.next();
+            if (idleConnection.idleSince() - threshold > 0) {
+                // The deque is ordered by last usage, all remaining connections are younger.
+                break;
+            }
+            if (idleConnections.removeLastOccurrence(idleConnection)) {
+                closeQuietly(idleConnection.connection());
+                evictedCounter.increment();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of currently borrowed connections.
+     *
+     * @return the number of active connections
+     */
+    int getActiveConnectionCount() {
+        return activeConnections.get();
+    }
+
+    /**
+     * Returns the number of idle connections.
+     *
+     * @return the number of idle connections
+     */
+    int getIdleConnectionCount() {
+        return idleConnections.size();
+    }
+
+    /**
+     * Creates a new remote connection which uses the shared http client.
+     *
+     * @return the new connection
+     */
+    private RDFConnection createConnection() {
+        createdCounter.increment();
+        return RDFConnectionFuseki.create()
+            .destination(destination)
+            .httpClient(httpClient)
+            .build();
+    }
+
+    /**
+     * Hands the given connection back to the pool.
+     *
+     * @param connection the connection to release
+     */
+    private void release(RDFConnection connection) {
+        activeConnections.decrementAndGet();
+        if (closed.get()) {
+            closeQuietly(connection);
+        } else {
+            idleConnections.offerFirst(new IdleConnection(connection, System.nanoTime()));
+        }
+        permits.release();
+    }
+
+    /**
+     * Wraps the given connection into a proxy which returns the connection to the
+     * pool instead of closing it.
+     *
+     * @param delegate the pooled connection
+     * @return the proxy
+     */
+    private RDFConnection wrap(RDFConnection delegate) {
+        AtomicBoolean released = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (isCloseMethod(method)) {
+                if (released.compareAndSet(false, true)) {
+                    release(delegate);
+                }
+                return null;
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeObjectMethod(proxy, method, args);
+            }
+            if (released.get()) {
+                throw new JenaException("The rdf connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (RDFConnection) Proxy.newProxyInstance(RDFConnection.class.getClassLoader(), new Class<?>[]{RDFConnection.class}, handler);
+    }
+
+    /**
+     * Returns whether the given method is the {@code close()} method of the connection.
+     *
+     * @param method the method to check
+     * @return {@code true} if the given method closes the connection, otherwise {@code false}
+     */
+    private static boolean isCloseMethod(Method method) {
+        return "close".equals(method.getName()) && method.getParameterCount() == 0;
+    }
+
+    /**
+     * Handles the {@link Object} methods of the connection proxy.
+     *
+     * @param proxy  the proxy
+     * @param method the invoked method
+     * @param args   the arguments
+     * @return the result of the method
+     */
+    private static Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> "PooledRDFConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+        };
+    }
+
+    /**
+     * Closes the given connection and logs failures.
+     *
+     * @param connection the connection to close
+     */
+    private void closeQuietly(RDFConnection connection) {
+        try {
+            connection.close();
+        } catch (RuntimeException e) {
+            log.warn("Could not close pooled rdf connection", e);
+        }
+    }
+
+    /**
+     * Returns the dataset name of the given fuseki url which is used as metric tag.
+     *
+     * @param destination the fuseki url
+     * @return the dataset name
+     */
+    private static String getDatasetName(String destination) {
+        String dataset = StringUtils.substringAfterLast(StringUtils.removeEnd(destination, "/"), "/");
+        return StringUtils.defaultIfBlank(dataset, "default");
+    }
+
+    /**
+     * An idle connection together with the time it was returned to the pool.
+     *
+     * @param connection the connection
+     * @param idleSince  the {@link System#nanoTime()} when the connection was returned
+     */
+    private record IdleConnection(RDFConnection connection, long idleSince) {
+    }
+}
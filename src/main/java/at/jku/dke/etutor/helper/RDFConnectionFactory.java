@@ -20,6 +20,16 @@ public interface RDFConnectionFactory {
      */
     void clearDataset();
 
+    /**
+     * Returns how often the dataset has been cleared. Components which keep
+     * the dataset's content in memory use it to detect a cleared dataset.
+     *
+     * @return the number of times the dataset has been cleared
+     */
+    default long getClearCount() {
+        return 0;
+    }
+
     /**
      * Returns whether a hashtag replacement is needed or not.
      *
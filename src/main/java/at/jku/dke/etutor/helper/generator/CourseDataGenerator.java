@@ -0,0 +1,703 @@
+package at.jku.dke.etutor.helper.generator;
+
+import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.domain.rdf.ETutorVocabulary;
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Generator of synthetic course data for load tests and capacity planning.
+ * <p>
+ * The generator writes the same RDF structures as the SPARQL endpoint services, i.e.
+ * learning goal trees with sub goals and dependencies, task groups, task assignments of
+ * every type, exercise sheets, course instances with their students, opened exercise
+ * sheets and the submission histories of the assigned tasks. The quads are streamed
+ * to a {@link CourseDataSink}, only the goals and tasks of the current course are kept in memory.
+ * <p>
+ * All identifiers and values are derived from the configured seed, therefore the same
+ * settings always produce the same quads. The students are only created in the RDF
+ * database, the generator does not create user accounts. Instances of this class are not thread-safe.
+ *
+ * @author fne
+ */
+public class CourseDataGenerator {
+
+    private static final Instant START = Instant.parse("2022-10-03T08:00:00Z");
+    private static final int FIRST_MATRICULATION_NUMBER = 10000000;
+    private static final int MAX_POINTS = 10;
+    private static final int MAX_DIAGNOSE_LEVEL = 3;
+
+    private static final List<Resource> TASK_ASSIGNMENT_TYPES = List.of(
+        ETutorVocabulary.NoType,
+        ETutorVocabulary.UploadTask,
+        ETutorVocabulary.SQLTask,
+        ETutorVocabulary.RATask,
+        ETutorVocabulary.XQueryTask,
+        ETutorVocabulary.DatalogTask,
+        ETutorVocabulary.UmlTask,
+        ETutorVocabulary.BpmnTask,
+        ETutorVocabulary.PmTask,
+        ETutorVocabulary.CalcTask,
+        ETutorVocabulary.AprioriTask
+    );
+
+    private static final Set<Resource> DISPATCHER_TASK_ASSIGNMENT_TYPES = Set.of(
+        ETutorVocabulary.SQLTask,
+        ETutorVocabulary.RATask,
+        ETutorVocabulary.XQueryTask,
+        ETutorVocabulary.DatalogTask,
+        ETutorVocabulary.UmlTask,
+        ETutorVocabulary.BpmnTask
+    );
+
+    private static final List<Resource> TASK_GROUP_TYPES = List.of(
+        ETutorVocabulary.NoTypeTaskGroup,
+        ETutorVocabulary.SQLTypeTaskGroup,
+        ETutorVocabulary.XQueryTypeTaskGroup,
+        ETutorVocabulary.DatalogTypeTaskGroup,
+        ETutorVocabulary.AprioriTypeTaskGroup
+    );
+
+    private static final Map<Resource, Resource> TASK_GROUP_TYPE_OF_TASK_ASSIGNMENT_TYPE = Map.of(
+        ETutorVocabulary.NoType, ETutorVocabulary.NoTypeTaskGroup,
+        ETutorVocabulary.SQLTask, ETutorVocabulary.SQLTypeTaskGroup,
+        ETutorVocabulary.RATask, ETutorVocabulary.SQLTypeTaskGroup,
+        ETutorVocabulary.XQueryTask, ETutorVocabulary.XQueryTypeTaskGroup,
+        ETutorVocabulary.DatalogTask, ETutorVocabulary.DatalogTypeTaskGroup,
+        ETutorVocabulary.AprioriTask, ETutorVocabulary.AprioriTypeTaskGroup
+    );
+
+    private static final List<Resource> DIFFICULTIES = List.of(
+        ETutorVocabulary.Easy,
+        ETutorVocabulary.Medium,
+        ETutorVocabulary.Hard,
+        ETutorVocabulary.VeryHard
+    );
+
+    private static final List<String> TOPICS = List.of(
+        "Joins", "Aggregation", "Subqueries", "Normalization", "Transactions", "Indexes", "Views",
+        "Recursion", "XPath", "Sorting", "Grouping", "Relational algebra", "Datalog rules", "Process mining",
+        "Business processes", "Class diagrams", "Spreadsheets", "Association rules", "Triggers", "Constraints"
+    );
+
+    private final Logger log = LoggerFactory.getLogger(CourseDataGenerator.class);
+
+    private final ApplicationProperties.Generator settings;
+
+    private Random random;
+    private CourseDataSink sink;
+    private long blankNodeCount;
+    private long quadCount;
+    private int goalCount;
+    private int taskAssignmentCount;
+    private int courseInstanceCount;
+    private int studentCount;
+    private long individualTaskCount;
+    private long submissionCount;
+
+    /**
+     * Constructor.
+     *
+     * @param settings the generator settings, must not be {@code null}
+     */
+    public CourseDataGenerator(ApplicationProperties.Generator settings) {
+        this.settings = Objects.requireNonNull(settings);
+    }
+
+    /**
+     * Generates the course data and writes it to the given sink.
+     * The sink is not closed by this method.
+     *
+     * @param sink the sink, must not be {@code null}
+     * @return the statistics of the generated data
+     */
+    public Statistics generate(CourseDataSink sink) {
+        this.sink = Objects.requireNonNull(sink);
+        random = new Random(settings.getSeed());
+        blankNodeCount = 0;
+        quadCount = 0;
+        goalCount = 0;
+        taskAssignmentCount = 0;
+        courseInstanceCount = 0;
+        studentCount = 0;
+        individualTaskCount = 0;
+        submissionCount = 0;
+
+        int matriculationNumber = FIRST_MATRICULATION_NUMBER;
+
+        for (int courseNo = 1; courseNo <= settings.getCourses(); courseNo++) {
+            GeneratedCourse course = generateCourse(courseNo);
+
+            for (int instanceNo = 1; instanceNo <= settings.getInstancesPerCourse(); instanceNo++) {
+                generateCourseInstance(course, instanceNo, matriculationNumber);
+                matriculationNumber += settings.getStudents();
+
+                log.info("Generated course instance {} of {} ({} quads so far)", instanceNo, course.name(), quadCount);
+            }
+        }
+        sink.boundary();
+
+        return new Statistics(quadCount, goalCount, taskAssignmentCount, courseInstanceCount,
+            studentCount, individualTaskCount, submissionCount);
+    }
+
+    //region Courses
+    /**
+     * Generates a course with its learning goals, task groups, tasks and exercise sheets.
+     *
+     * @param courseNo the number of the course
+     * @return the generated course
+     */
+    private GeneratedCourse generateCourse(int courseNo) {
+        String name = String.format("Synthetic course %d-%d", settings.getSeed(), courseNo);
+        Node course = uri(ETutorVocabulary.createCourseURL(encode(name)));
+
+        triple(course, ETutorVocabulary.hasCourseDescription, literal("Generated course for load tests"));
+        triple(course, RDFS.label, literal(name));
+        triple(course, ETutorVocabulary.hasCourseCreator, literal(settings.getOwner()));
+        triple(course, ETutorVocabulary.hasCourseLink, literal(""));
+        triple(course, ETutorVocabulary.hasCourseType, literal("LVA"));
+        triple(course, RDF.type, ETutorVocabulary.Course);
+
+        Map<Resource, List<Node>> taskGroups = generateTaskGroups(name);
+
+        List<GeneratedGoal> goals = new ArrayList<>();
+        List<GeneratedGoal> rootGoals = new ArrayList<>();
+        for (int goalNo = 1; goalNo <= settings.getRootGoals(); goalNo++) {
+            GeneratedGoal rootGoal = generateGoal(name + " goal " + goalNo, settings.getGoalDepth(), goals, taskGroups);
+            rootGoals.add(rootGoal);
+            triple(course, ETutorVocabulary.hasGoal, rootGoal.node());
+        }
+        generateDependencies(rootGoals);
+
+        List<GeneratedSheet> sheets = new ArrayList<>();
+        for (int sheetNo = 1; sheetNo <= settings.getExerciseSheets(); sheetNo++) {
+            sheets.add(generateExerciseSheet(name, sheetNo, rootGoals));
+        }
+        sink.boundary();
+
+        return new GeneratedCourse(name, goals, sheets);
+    }
+
+    /**
+     * Generates the task groups of a course.
+     *
+     * @param courseName the name of the course
+     * @return the task groups by task group type
+     */
+    private Map<Resource, List<Node>> generateTaskGroups(String courseName) {
+        Map<Resource, List<Node>> taskGroups = new HashMap<>();
+
+        for (Resource type : TASK_GROUP_TYPES) {
+            List<Node> groups = new ArrayList<>();
+
+            for (int groupNo = 1; groupNo <= settings.getTaskGroupsPerType(); groupNo++) {
+                String name = String.format("%s %s %d", courseName, type.getLocalName(), groupNo);
+                Node group = uri(ETutorVocabulary.getTaskGroupIdFromName(name));
+
+                triple(group, RDF.type, ETutorVocabulary.TaskGroup);
+                triple(group, ETutorVocabulary.hasTaskGroupName, literal(name));
+                triple(group, ETutorVocabulary.hasTaskGroupType, type.asNode());
+                triple(group, ETutorVocabulary.hasTaskGroupDescription, literal("Generated task group"));
+
+                if (type.equals(ETutorVocabulary.SQLTypeTaskGroup)) {
+                    triple(group, ETutorVocabulary.hasSQLCreateStatements, literal("CREATE TABLE item (id INT PRIMARY KEY, value INT);"));
+                    triple(group, ETutorVocabulary.hasSQLInsertStatementsSubmission, literal("INSERT INTO item VALUES (1, 1);"));
+                    triple(group, ETutorVocabulary.hasSQLInsertStatementsDiagnose, literal("INSERT INTO item VALUES (2, 2);"));
+                    triple(group, ETutorVocabulary.hasTaskGroupIdForDispatcher, literal(String.valueOf(1 + random.nextInt(1000))));
+                } else if (type.equals(ETutorVocabulary.XQueryTypeTaskGroup)) {
+                    triple(group, ETutorVocabulary.hasDiagnoseXMLFile, literal("<items><item id=\"1\"/></items>"));
+                    triple(group, ETutorVocabulary.hasSubmissionXMLFile, literal("<items><item id=\"2\"/></items>"));
+                } else if (type.equals(ETutorVocabulary.DatalogTypeTaskGroup)) {
+                    triple(group, ETutorVocabulary.hasDatalogFacts, literal("q(1, 2). q(2, 3)."));
+                } else if (type.equals(ETutorVocabulary.AprioriTypeTaskGroup)) {
+                    triple(group, ETutorVocabulary.hasAprioriID, literal(String.valueOf(1 + random.nextInt(1000))));
+                }
+
+                triple(group, ETutorVocabulary.hasTaskGroupCreator, literal(settings.getOwner()));
+                triple(group, ETutorVocabulary.hasTaskGroupChangeDate, dateTime(START));
+                groups.add(group);
+            }
+            taskGroups.put(type, groups);
+        }
+        return taskGroups;
+    }
+
+    /**
+     * Generates a learning goal with its tasks and sub goals.
+     *
+     * @param name       the name of the goal
+     * @param depth      the remaining depth of the goal tree
+     * @param goals      the list to which the generated goals are added
+     * @param taskGroups the task groups of the course
+     * @return the generated goal
+     */
+    private GeneratedGoal generateGoal(String name, int depth, List<GeneratedGoal> goals, Map<Resource, List<Node>> taskGroups) {
+        Node goal = uri(ETutorVocabulary.createGoalUrl(settings.getOwner(), encode(name)));
+
+        triple(goal, ETutorVocabulary.hasDescription, literal("Generated learning goal"));
+        triple(goal, RDFS.label, literal(name));
+        triple(goal, ETutorVocabulary.hasChangeDate, dateTime(START));
+        triple(goal, ETutorVocabulary.hasOwner, literal(settings.getOwner()));
+        triple(goal, ETutorVocabulary.needsVerificationBeforeCompletion, typed("false", XSDDatatype.XSDboolean));
+        triple(goal, ETutorVocabulary.isPrivate, typed("false", XSDDatatype.XSDboolean));
+        triple(goal, RDF.type, ETutorVocabulary.Goal);
+        goalCount++;
+
+        List<GeneratedTask> tasks = new ArrayList<>();
+        for (int taskNo = 1; taskNo <= settings.getTasksPerGoal(); taskNo++) {
+            GeneratedTask task = generateTaskAssignment(taskGroups);
+            tasks.add(task);
+            triple(goal, ETutorVocabulary.hasTaskAssignment, task.node());
+        }
+
+        List<GeneratedGoal> subGoals = new ArrayList<>();
+        if (depth > 0) {
+            for (int goalNo = 1; goalNo <= settings.getSubGoalsPerGoal(); goalNo++) {
+                GeneratedGoal subGoal = generateGoal(name + "." + goalNo, depth - 1, goals, taskGroups);
+                subGoals.add(subGoal);
+                triple(goal, ETutorVocabulary.hasSubGoal, subGoal.node());
+            }
+            generateDependencies(subGoals);
+        }
+
+        GeneratedGoal generatedGoal = new GeneratedGoal(goal, tasks, subGoals);
+        goals.add(generatedGoal);
+        return generatedGoal;
+    }
+
+    /**
+     * Generates dependencies between sibling goals. A goal may only depend on a preceding
+     * sibling, therefore the dependencies are free of cycles.
+     *
+     * @param siblings the sibling goals
+     */
+    private void generateDependencies(List<GeneratedGoal> siblings) {
+        for (int i = 1; i < siblings.size(); i++) {
+            if (random.nextDouble() < settings.getDependencyRatio()) {
+                triple(siblings.get(i).node(), ETutorVocabulary.dependsOn, siblings.get(random.nextInt(i)).node());
+            }
+        }
+    }
+
+    /**
+     * Generates a task assignment. The types are assigned round robin, therefore every type is generated.
+     *
+     * @param taskGroups the task groups of the course
+     * @return the generated task
+     */
+    private GeneratedTask generateTaskAssignment(Map<Resource, List<Node>> taskGroups) {
+        Resource type = TASK_ASSIGNMENT_TYPES.get(taskAssignmentCount % TASK_ASSIGNMENT_TYPES.size());
+        boolean dispatcherTask = DISPATCHER_TASK_ASSIGNMENT_TYPES.contains(type);
+        int number = ++taskAssignmentCount;
+        String topic = TOPICS.get(random.nextInt(TOPICS.size()));
+        Node task = uri(ETutorVocabulary.createTaskAssignmentUrl(nextUUID()));
+
+        triple(task, ETutorVocabulary.hasTaskCreator, literal(settings.getOwner()));
+        triple(task, ETutorVocabulary.hasTaskHeader, literal(topic + " " + number));
+        triple(task, ETutorVocabulary.hasTaskCreationDate, dateTime(START));
+        triple(task, ETutorVocabulary.hasUploadFileId, literal("0"));
+        triple(task, ETutorVocabulary.hasUploadCalcSolutionFileId, literal("0"));
+        triple(task, ETutorVocabulary.hasUploadCalcInstructionFileId, literal("0"));
+        triple(task, ETutorVocabulary.hasUploadWriterInstructionFileId, literal("0"));
+
+        if (dispatcherTask) {
+            triple(task, ETutorVocabulary.hasTaskIdForDispatcher, literal(String.valueOf(1 + random.nextInt(10000))));
+            triple(task, ETutorVocabulary.hasMaxPoints, literal(String.valueOf(MAX_POINTS)));
+        }
+
+        if (type.equals(ETutorVocabulary.SQLTask) || type.equals(ETutorVocabulary.RATask)) {
+            triple(task, ETutorVocabulary.hasSQLSolution, literal("SELECT id FROM item WHERE value > " + number));
+        } else if (type.equals(ETutorVocabulary.XQueryTask)) {
+            triple(task, ETutorVocabulary.hasXQuerySolution, literal("//item[@id > " + number + "]"));
+            triple(task, ETutorVocabulary.hasXQueryXPathSorting, literal("//item/@id"));
+        } else if (type.equals(ETutorVocabulary.DatalogTask)) {
+            triple(task, ETutorVocabulary.hasDLGSolution, literal("p(X) :- q(X, " + number + ")."));
+            triple(task, ETutorVocabulary.hasDLGQuery, literal("p(X)?"));
+        } else if (type.equals(ETutorVocabulary.BpmnTask)) {
+            triple(task, ETutorVocabulary.hasBpmnConfig, literal("{\"tasks\": " + number + "}"));
+        } else if (type.equals(ETutorVocabulary.PmTask)) {
+            triple(task, ETutorVocabulary.hasMaxActivity, typed("8", XSDDatatype.XSDinteger));
+            triple(task, ETutorVocabulary.hasMinActivity, typed("4", XSDDatatype.XSDinteger));
+            triple(task, ETutorVocabulary.hasMaxLogSize, typed("50", XSDDatatype.XSDinteger));
+            triple(task, ETutorVocabulary.hasMinLogSize, typed("10", XSDDatatype.XSDinteger));
+            triple(task, ETutorVocabulary.hasConfigNum, literal(String.valueOf(1 + random.nextInt(10))));
+        } else if (type.equals(ETutorVocabulary.AprioriTask)) {
+            triple(task, ETutorVocabulary.hasAprioriID, literal(String.valueOf(1 + random.nextInt(1000))));
+        }
+
+        triple(task, ETutorVocabulary.hasDiagnoseLevelWeighting, literal("0"));
+        triple(task, ETutorVocabulary.hasTypicalProcessingTime, literal(String.valueOf(5 * (1 + random.nextInt(12)))));
+        triple(task, ETutorVocabulary.hasTaskDifficulty, DIFFICULTIES.get(random.nextInt(DIFFICULTIES.size())).asNode());
+        triple(task, ETutorVocabulary.hasTaskOrganisationUnit, literal("DKE"));
+        triple(task, ETutorVocabulary.hasInternalTaskCreator, literal(settings.getOwner()));
+        triple(task, ETutorVocabulary.hasTaskAssignmentType, type.asNode());
+        triple(task, ETutorVocabulary.hasTaskInstruction, literal("Generated " + type.getLocalName() + " about " + topic.toLowerCase()));
+        triple(task, ETutorVocabulary.isPrivateTask, typed("false", XSDDatatype.XSDboolean));
+        triple(task, RDF.type, ETutorVocabulary.TaskAssignment);
+
+        Resource taskGroupType = TASK_GROUP_TYPE_OF_TASK_ASSIGNMENT_TYPE.get(type);
+        if (taskGroupType != null && !taskGroups.get(taskGroupType).isEmpty()) {
+            List<Node> groups = taskGroups.get(taskGroupType);
+            triple(groups.get(random.nextInt(groups.size())), ETutorVocabulary.hasTask, task);
+        }
+
+        return new GeneratedTask(task, dispatcherTask);
+    }
+
+    /**
+     * Generates an exercise sheet which covers up to two of the root goals.
+     *
+     * @param courseName the name of the course
+     * @param sheetNo    the number of the sheet
+     * @param rootGoals  the root goals of the course
+     * @return the generated sheet
+     */
+    private GeneratedSheet generateExerciseSheet(String courseName, int sheetNo, List<GeneratedGoal> rootGoals) {
+        Node sheet = uri(ETutorVocabulary.createExerciseSheetURLString(nextUUID()));
+
+        triple(sheet, ETutorVocabulary.hasInternalExerciseSheetCreator, literal(settings.getOwner()));
+        triple(sheet, ETutorVocabulary.hasExerciseSheetCreationTime, dateTime(START));
+        triple(sheet, RDFS.label, literal(courseName + " sheet " + sheetNo));
+        triple(sheet, ETutorVocabulary.hasExerciseSheetDifficulty, DIFFICULTIES.get(random.nextInt(DIFFICULTIES.size())).asNode());
+        triple(sheet, RDF.type, ETutorVocabulary.ExerciseSheet);
+        triple(sheet, ETutorVocabulary.hasExerciseSheetTaskCount, typed(String.valueOf(settings.getTasksPerSheet()), XSDDatatype.XSDint));
+        triple(sheet, ETutorVocabulary.isGenerateWholeExerciseSheet, typed("false", XSDDatatype.XSDboolean));
+        triple(sheet, ETutorVocabulary.isCloseAutomatically, typed("false", XSDDatatype.XSDboolean));
+
+        List<GeneratedTask> tasks = new ArrayList<>();
+        int priority = 1;
+        for (GeneratedGoal goal : pick(rootGoals, 2)) {
+            Node assignment = blankNode();
+            triple(assignment, RDF.type, ETutorVocabulary.LearningGoalAssignment);
+            triple(assignment, ETutorVocabulary.hasPriority, typed(String.valueOf(priority++), XSDDatatype.XSDunsignedInt));
+            triple(assignment, ETutorVocabulary.containsLearningGoal, goal.node());
+            triple(sheet, ETutorVocabulary.containsLearningGoalAssignment, assignment);
+
+            goal.collectTasks(tasks);
+        }
+
+        return new GeneratedSheet(sheet, tasks);
+    }
+    //endregion
+
+    //region Course instances
+    /**
+     * Generates a course instance with its students.
+     *
+     * @param course                   the course
+     * @param instanceNo               the number of the instance, odd numbers are winter terms
+     * @param firstMatriculationNumber the matriculation number of the first student
+     */
+    private void generateCourseInstance(GeneratedCourse course, int instanceNo, int firstMatriculationNumber) {
+        Node instance = uri(ETutorVocabulary.createCourseInstanceURLString(nextUUID()));
+        Resource term = instanceNo % 2 == 1 ? ETutorVocabulary.Winter : ETutorVocabulary.Summer;
+        int year = START.atZone(ZoneOffset.UTC).getYear() + instanceNo / 2;
+        Instant start = START.plus(Duration.ofDays(182L * (instanceNo - 1)));
+
+        triple(instance, ETutorVocabulary.hasCourse, uri(ETutorVocabulary.createCourseURL(encode(course.name()))));
+        triple(instance, ETutorVocabulary.hasInstanceYear, typed(String.valueOf(year), XSDDatatype.XSDint));
+        triple(instance, ETutorVocabulary.hasTerm, term.asNode());
+        triple(instance, RDFS.label, literal(String.format("%s %s %d", course.name(),
+            ETutorVocabulary.getTermTextFromUri(term.getURI()), year)));
+        triple(instance, RDF.type, ETutorVocabulary.CourseInstance);
+        courseInstanceCount++;
+
+        for (GeneratedGoal goal : course.goals()) {
+            quad(instance, goal.node(), RDF.type.asNode(), ETutorVocabulary.Goal.asNode());
+            quad(instance, goal.node(), ETutorVocabulary.hasFailedCount.asNode(), typed("0", XSDDatatype.XSDint));
+        }
+
+        List<Instant> openDates = new ArrayList<>();
+        for (GeneratedSheet sheet : course.sheets()) {
+            Instant openDate = start.plus(Duration.ofDays(7L * openDates.size()));
+            openDates.add(openDate);
+
+            Node assignment = blankNode();
+            triple(instance, ETutorVocabulary.hasExerciseSheetAssignment, assignment);
+            triple(assignment, RDF.type, ETutorVocabulary.ExerciseSheetAssignment);
+            triple(assignment, ETutorVocabulary.hasExerciseSheet, sheet.node());
+            triple(assignment, ETutorVocabulary.isExerciseSheetClosed, typed("false", XSDDatatype.XSDboolean));
+            triple(assignment, ETutorVocabulary.hasExerciseSheetOpenDateTime, dateTime(openDate));
+        }
+        sink.boundary();
+
+        for (int i = 0; i < settings.getStudents(); i++) {
+            generateStudent(course, instance, openDates, String.format("k%08d", firstMatriculationNumber + i));
+        }
+    }
+
+    /**
+     * Generates a student of a course instance with the opened exercise sheets and completed goals.
+     *
+     * @param course              the course
+     * @param instance            the course instance
+     * @param openDates           the open dates of the exercise sheets
+     * @param matriculationNumber the student's matriculation number
+     */
+    private void generateStudent(GeneratedCourse course, Node instance, List<Instant> openDates, String matriculationNumber) {
+        Node student = uri(ETutorVocabulary.getStudentURLFromMatriculationNumber(matriculationNumber));
+
+        triple(instance, ETutorVocabulary.hasStudent, student);
+        triple(student, RDF.type, ETutorVocabulary.Student);
+        triple(student, RDFS.label, literal(matriculationNumber));
+        studentCount++;
+
+        boolean active = false;
+        for (int i = 0; i < course.sheets().size(); i++) {
+            if (random.nextDouble() < settings.getOpenRatio()) {
+                generateIndividualAssignment(instance, student, course.sheets().get(i), openDates.get(i));
+                active = true;
+            }
+        }
+
+        if (active) {
+            quad(instance, student, ETutorVocabulary.isInitialTestCompleted.asNode(), typed("true", XSDDatatype.XSDboolean));
+        }
+        for (GeneratedGoal goal : course.goals()) {
+            if (random.nextDouble() < settings.getGoalCompletionRatio()) {
+                quad(instance, goal.node(), ETutorVocabulary.isCompletedFrom.asNode(), student);
+            }
+        }
+        sink.boundary();
+    }
+
+    /**
+     * Generates the individual assignment of an opened exercise sheet.
+     *
+     * @param instance the course instance
+     * @param student  the student
+     * @param sheet    the exercise sheet
+     * @param openDate the open date of the sheet
+     */
+    private void generateIndividualAssignment(Node instance, Node student, GeneratedSheet sheet, Instant openDate) {
+        Node assignment = blankNode();
+
+        triple(student, ETutorVocabulary.hasIndividualTaskAssignment, assignment);
+        triple(assignment, RDF.type, ETutorVocabulary.IndividualTaskAssignment);
+        triple(assignment, ETutorVocabulary.fromCourseInstance, instance);
+        triple(assignment, ETutorVocabulary.fromExerciseSheet, sheet.node());
+        triple(assignment, ETutorVocabulary.isClosed, typed("false", XSDDatatype.XSDboolean));
+
+        Instant openedAt = openDate.plus(Duration.ofMinutes(random.nextInt(3 * 24 * 60)));
+        int orderNo = 1;
+        for (GeneratedTask task : pick(sheet.tasks(), settings.getTasksPerSheet())) {
+            generateIndividualTask(assignment, orderNo++, task, openedAt);
+        }
+    }
+
+    /**
+     * Generates an individual task and, for tasks which are evaluated by a dispatcher, its submission history.
+     *
+     * @param assignment the individual assignment
+     * @param orderNo    the order number of the task
+     * @param task       the assigned task
+     * @param openedAt   the instant at which the exercise sheet has been opened
+     */
+    private void generateIndividualTask(Node assignment, int orderNo, GeneratedTask task, Instant openedAt) {
+        Node individualTask = blankNode();
+        boolean submitted = random.nextDouble() < settings.getSubmissionRatio();
+        boolean solved = submitted && random.nextBoolean();
+
+        triple(assignment, ETutorVocabulary.hasIndividualTask, individualTask);
+        triple(individualTask, RDF.type, ETutorVocabulary.IndividualTask);
+        triple(individualTask, ETutorVocabulary.hasOrderNo, typed(String.valueOf(orderNo), XSDDatatype.XSDint));
+        triple(individualTask, ETutorVocabulary.refersToTask, task.node());
+        individualTaskCount++;
+
+        if (task.dispatcherTask()) {
+            int submissions = submitted && settings.getMaxSubmissions() > 0 ? 1 + random.nextInt(settings.getMaxSubmissions()) : 0;
+            Instant instant = openedAt;
+            String latestSubmission = null;
+
+            for (int i = 1; i <= submissions; i++) {
+                instant = instant.plus(Duration.ofMinutes(1 + random.nextInt(120)));
+                latestSubmission = nextUUID();
+
+                Node submission = blankNode();
+                triple(individualTask, ETutorVocabulary.hasIndividualTaskSubmission, submission);
+                triple(submission, RDF.type, ETutorVocabulary.IndividualTaskSubmission);
+                triple(submission, ETutorVocabulary.hasSubmission, literal(latestSubmission));
+                triple(submission, ETutorVocabulary.hasInstant, dateTime(instant));
+                triple(submission, ETutorVocabulary.isSubmitted, typed("true", XSDDatatype.XSDboolean));
+                triple(submission, ETutorVocabulary.isSolved, typed(String.valueOf(solved && i == submissions), XSDDatatype.XSDboolean));
+                submissionCount++;
+            }
+
+            if (latestSubmission == null && random.nextBoolean()) {
+                // The task has only been diagnosed, but not submitted.
+                latestSubmission = nextUUID();
+            }
+            if (latestSubmission != null) {
+                int points = solved ? MAX_POINTS : random.nextInt(MAX_POINTS);
+                triple(individualTask, ETutorVocabulary.hasSubmission, literal(latestSubmission));
+                triple(individualTask, ETutorVocabulary.hasDispatcherPoints, typed(Double.toString(points), XSDDatatype.XSDdouble));
+                triple(individualTask, ETutorVocabulary.hasDiagnoseLevel, typed(String.valueOf(random.nextInt(MAX_DIAGNOSE_LEVEL + 1)), XSDDatatype.XSDint));
+            }
+        }
+
+        triple(individualTask, ETutorVocabulary.isSubmitted, typed(String.valueOf(submitted), XSDDatatype.XSDboolean));
+        triple(individualTask, ETutorVocabulary.isGraded, typed(String.valueOf(submitted && random.nextBoolean()), XSDDatatype.XSDboolean));
+        triple(individualTask, ETutorVocabulary.isLearningGoalCompleted, typed(String.valueOf(solved), XSDDatatype.XSDboolean));
+    }
+    //endregion
+
+    //region Helpers
+    /**
+     * Returns up to {@code count} distinct random elements of the given list.
+     *
+     * @param elements the elements
+     * @param count    the maximum number of elements
+     * @param <T>      the type of the elements
+     * @return the picked elements
+     */
+    private <T> List<T> pick(List<T> elements, int count) {
+        List<T> copy = new ArrayList<>(elements);
+        Collections.shuffle(copy, random);
+        return copy.subList(0, Math.min(count, copy.size()));
+    }
+
+    /**
+     * Returns a random (version 4) uuid, which is derived from the seed.
+     *
+     * @return the uuid
+     */
+    private String nextUUID() {
+        long mostSignificantBits = (random.nextLong() & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;
+        long leastSignificantBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificantBits, leastSignificantBits).toString();
+    }
+
+    /**
+     * Returns a new blank node with a deterministic label. The label contains the seed,
+     * so that the data of different seeds can be loaded into the same local dataset.
+     *
+     * @return the blank node
+     */
+    private Node blankNode() {
+        return NodeFactory.createBlankNode("g" + settings.getSeed() + "-" + blankNodeCount++);
+    }
+
+    /**
+     * Adds a triple of the default graph.
+     *
+     * @param subject   the subject
+     * @param predicate the predicate
+     * @param object    the object
+     */
+    private void triple(Node subject, Property predicate, Node object) {
+        quad(Quad.defaultGraphIRI, subject, predicate.asNode(), object);
+    }
+
+    /**
+     * Adds a triple of the default graph.
+     *
+     * @param subject   the subject
+     * @param predicate the predicate
+     * @param object    the object
+     */
+    private void triple(Node subject, Property predicate, Resource object) {
+        triple(subject, predicate, object.asNode());
+    }
+
+    /**
+     * Adds a quad.
+     *
+     * @param graph     the graph
+     * @param subject   the subject
+     * @param predicate the predicate
+     * @param object    the object
+     */
+    private void quad(Node graph, Node subject, Node predicate, Node object) {
+        sink.add(Quad.create(graph, subject, predicate, object));
+        quadCount++;
+    }
+
+    /**
+     * Returns the RDF encoded name, like the {@code getNameForRDF} methods of the DTOs.
+     *
+     * @param name the name
+     * @return the encoded name
+     */
+    private static String encode(String name) {
+        return URLEncoder.encode(name.replace(' ', '_').trim(), StandardCharsets.UTF_8);
+    }
+
+    private static Node uri(String uri) {
+        return NodeFactory.createURI(uri);
+    }
+
+    private static Node literal(String value) {
+        return NodeFactory.createLiteral(value);
+    }
+
+    private static Node typed(String lexicalForm, RDFDatatype datatype) {
+        return NodeFactory.createLiteral(lexicalForm, datatype);
+    }
+
+    private static Node dateTime(Instant instant) {
+        return typed(instant.toString(), XSDDatatype.XSDdateTime);
+    }
+    //endregion
+
+    /**
+     * Statistics of the generated data.
+     *
+     * @param quads           the number of quads
+     * @param goals           the number of learning goals
+     * @param taskAssignments the number of task assignments
+     * @param courseInstances the number of course instances
+     * @param students        the number of course instance memberships
+     * @param individualTasks the number of assigned tasks
+     * @param submissions     the number of submissions
+     */
+    public record Statistics(long quads, int goals, int taskAssignments, int courseInstances,
+                             int students, long individualTasks, long submissions) {
+    }
+
+    private record GeneratedCourse(String name, List<GeneratedGoal> goals, List<GeneratedSheet> sheets) {
+    }
+
+    private record GeneratedSheet(Node node, List<GeneratedTask> tasks) {
+    }
+
+    private record GeneratedTask(Node node, boolean dispatcherTask) {
+    }
+
+    private record GeneratedGoal(Node node, List<GeneratedTask> tasks, List<GeneratedGoal> subGoals) {
+
+        /**
+         * Adds the tasks of this goal and its sub goals to the given list.
+         *
+         * @param target the target list
+         */
+        void collectTasks(List<GeneratedTask> target) {
+            target.addAll(tasks);
+            subGoals.forEach(subGoal -> subGoal.collectTasks(target));
+        }
+    }
+}
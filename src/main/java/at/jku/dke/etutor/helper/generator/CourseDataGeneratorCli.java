@@ -0,0 +1,103 @@
+package at.jku.dke.etutor.helper.generator;
+
+import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.helper.FusekiRDFConnectionFactory;
+import ch.qos.logback.classic.Level;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.handler.NoUnboundElementsBindHandler;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line interface of the {@link CourseDataGenerator}, which runs without the application context.
+ * <p>
+ * The settings are passed as {@code --name=value} arguments with the names of the
+ * {@code application.generator} properties, e.g. {@code --students=5000 --output-file=courses.nq.gz}.
+ * Instead of an output file, {@code --fuseki-url=http://localhost:3030/etutorpp-database}
+ * loads the data directly into a Fuseki dataset.
+ *
+ * @author fne
+ */
+public final class CourseDataGeneratorCli {
+
+    private static final String FUSEKI_URL = "fuseki-url";
+    private static final String PREFIX = "generator";
+
+    /**
+     * Constructor.
+     */
+    private CourseDataGeneratorCli() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Runs the generator.
+     *
+     * @param args the command line arguments
+     * @throws IOException if the output file could not be written
+     */
+    public static void main(String[] args) throws IOException {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+
+        Map<String, String> arguments = parseArguments(args);
+        String fusekiUrl = arguments.remove(FUSEKI_URL);
+        ApplicationProperties.Generator settings = bindSettings(arguments);
+
+        if (settings.getOutputFile() == null && fusekiUrl == null) {
+            System.err.println("Usage: CourseDataGeneratorCli (--output-file=<file> | --fuseki-url=<url>) [--<setting>=<value> ...]");
+            System.exit(1);
+        }
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getFuseki().setBaseUrl(fusekiUrl);
+
+        try (CourseDataSink sink = CourseDataSink.of(settings, new FusekiRDFConnectionFactory(applicationProperties))) {
+            System.out.println(new CourseDataGenerator(settings).generate(sink));
+        }
+    }
+
+    /**
+     * Parses the {@code --name=value} arguments.
+     *
+     * @param args the command line arguments
+     * @return the arguments by name
+     * @throws IllegalArgumentException if an argument is malformed
+     */
+    static Map<String, String> parseArguments(String[] args) {
+        Map<String, String> arguments = new HashMap<>();
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Invalid argument: " + arg + ", expected --name=value");
+            }
+            arguments.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return arguments;
+    }
+
+    /**
+     * Binds the arguments to the generator settings with the relaxed binding rules
+     * of the application properties, i.e. {@code --output-file} and {@code --outputFile} are equivalent.
+     *
+     * @param arguments the arguments by name
+     * @return the generator settings
+     * @throws org.springframework.boot.context.properties.bind.BindException if an argument is unknown or has an invalid value
+     */
+    static ApplicationProperties.Generator bindSettings(Map<String, String> arguments) {
+        Map<String, String> properties = new HashMap<>();
+        arguments.forEach((name, value) -> properties.put(PREFIX + "." + name, value));
+
+        ApplicationProperties.Generator settings = new ApplicationProperties.Generator();
+        new Binder(new MapConfigurationPropertySource(properties))
+            .bind(PREFIX, Bindable.ofInstance(settings), new NoUnboundElementsBindHandler());
+        return settings;
+    }
+}
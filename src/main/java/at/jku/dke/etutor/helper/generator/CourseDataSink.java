@@ -0,0 +1,54 @@
+package at.jku.dke.etutor.helper.generator;
+
+import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.helper.RDFConnectionFactory;
+import org.apache.jena.sparql.core.Quad;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Target of the quads which are generated by the {@link CourseDataGenerator}.
+ *
+ * @author fne
+ */
+public interface CourseDataSink extends AutoCloseable {
+
+    /**
+     * Adds the given quad.
+     *
+     * @param quad the quad to add
+     */
+    void add(Quad quad);
+
+    /**
+     * Marks a point in the stream of quads at which no blank node is shared
+     * with the following quads, i.e. a point at which the quads can safely be
+     * split into separate requests.
+     */
+    void boundary();
+
+    /**
+     * Flushes the remaining quads and releases the sink's resources.
+     *
+     * @throws IOException if an I/O related error occurs
+     */
+    @Override
+    void close() throws IOException;
+
+    /**
+     * Returns the sink for the given generator settings, i.e. an N-Quads file if
+     * an output file is configured, otherwise the RDF database.
+     *
+     * @param settings             the generator settings
+     * @param rdfConnectionFactory the RDF connection factory
+     * @return the sink
+     * @throws IOException if the output file could not be opened
+     */
+    static CourseDataSink of(ApplicationProperties.Generator settings, RDFConnectionFactory rdfConnectionFactory) throws IOException {
+        if (settings.getOutputFile() != null) {
+            return StreamRDFCourseDataSink.nQuads(Path.of(settings.getOutputFile()));
+        }
+        return new RDFConnectionCourseDataSink(rdfConnectionFactory, settings.getBatchSize());
+    }
+}
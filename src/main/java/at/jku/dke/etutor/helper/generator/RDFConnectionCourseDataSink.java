@@ -0,0 +1,87 @@
+package at.jku.dke.etutor.helper.generator;
+
+import at.jku.dke.etutor.helper.RDFConnectionFactory;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdfconnection.RDFConnection;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.core.Quad;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+
+/**
+ * Course data sink which loads the quads in batches into the RDF database.
+ * A batch is only sent at a {@linkplain #boundary() boundary}, because blank
+ * nodes cannot be shared between separate load requests.
+ *
+ * @author fne
+ */
+public class RDFConnectionCourseDataSink implements CourseDataSink {
+
+    private final Logger log = LoggerFactory.getLogger(RDFConnectionCourseDataSink.class);
+
+    private final RDFConnectionFactory rdfConnectionFactory;
+    private final int batchSize;
+
+    private DatasetGraph batch = DatasetGraphFactory.create();
+    private int batchCount;
+    private long loadedCount;
+
+    /**
+     * Constructor.
+     *
+     * @param rdfConnectionFactory the RDF connection factory, must not be {@code null}
+     * @param batchSize            the minimum number of quads of a load request
+     */
+    public RDFConnectionCourseDataSink(RDFConnectionFactory rdfConnectionFactory, int batchSize) {
+        this.rdfConnectionFactory = Objects.requireNonNull(rdfConnectionFactory);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * See {@link CourseDataSink#add(Quad)}
+     */
+    @Override
+    public void add(Quad quad) {
+        batch.add(quad);
+        batchCount++;
+    }
+
+    /**
+     * See {@link CourseDataSink#boundary()}
+     */
+    @Override
+    public void boundary() {
+        if (batchCount >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * See {@link CourseDataSink#close()}
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    /**
+     * Loads the current batch into the RDF database.
+     */
+    private void flush() {
+        if (batchCount == 0) {
+            return;
+        }
+
+        try (RDFConnection connection = rdfConnectionFactory.getRDFConnection()) {
+            connection.loadDataset(DatasetFactory.wrap(batch));
+        }
+        loadedCount += batchCount;
+        log.debug("Loaded {} quads ({} in total)", batchCount, loadedCount);
+
+        batch = DatasetGraphFactory.create();
+        batchCount = 0;
+    }
+}
@@ -0,0 +1,95 @@
+package at.jku.dke.etutor.helper.generator;
+
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.sparql.core.Quad;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Course data sink which passes the quads to a Jena {@link StreamRDF}, e.g. an N-Quads writer.
+ *
+ * @author fne
+ */
+public class StreamRDFCourseDataSink implements CourseDataSink {
+
+    private final StreamRDF stream;
+    private final Closeable resource;
+
+    /**
+     * Constructor.
+     *
+     * @param stream   the stream, must not be {@code null}
+     * @param resource the resource which is closed after the stream has been finished, may be {@code null}
+     */
+    public StreamRDFCourseDataSink(StreamRDF stream, Closeable resource) {
+        this.stream = Objects.requireNonNull(stream);
+        this.resource = resource;
+
+        stream.start();
+    }
+
+    /**
+     * Returns a sink which writes N-Quads to the given file. The file is
+     * gzip compressed if its name ends with {@code .gz}.
+     *
+     * @param path the path of the file
+     * @return the sink
+     * @throws IOException if the file could not be opened
+     */
+    public static StreamRDFCourseDataSink nQuads(Path path) throws IOException {
+        OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(path));
+
+        if (path.getFileName().toString().endsWith(".gz")) {
+            outputStream = new GZIPOutputStream(outputStream);
+        }
+        return nQuads(outputStream);
+    }
+
+    /**
+     * Returns a sink which writes N-Quads to the given output stream. The stream is
+     * closed when the sink is closed.
+     *
+     * @param outputStream the output stream
+     * @return the sink
+     */
+    public static StreamRDFCourseDataSink nQuads(OutputStream outputStream) {
+        return new StreamRDFCourseDataSink(StreamRDFWriter.getWriterStream(outputStream, RDFFormat.NQUADS), outputStream);
+    }
+
+    /**
+     * See {@link CourseDataSink#add(Quad)}
+     */
+    @Override
+    public void add(Quad quad) {
+        stream.quad(quad);
+    }
+
+    /**
+     * See {@link CourseDataSink#boundary()}
+     */
+    @Override
+    public void boundary() {
+        // A single stream does not have to be split.
+    }
+
+    /**
+     * See {@link CourseDataSink#close()}
+     */
+    @Override
+    public void close() throws IOException {
+        stream.finish();
+
+        if (resource != null) {
+            resource.close();
+        }
+    }
+}
@@ -3,6 +3,11 @@ package at.jku.dke.etutor.repository;
 import at.jku.dke.etutor.service.dto.FileMetaDataModelDTO;
 import at.jku.dke.etutor.service.exception.FileNotExistsException;
 import at.jku.dke.etutor.service.exception.StudentNotExistsException;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 /**
  * ostgresql history table
@@ -26,6 +31,66 @@ public interface FileRepositoryCustom {
 
     long uploadFile(String filename, String contentType, byte[] content, long size) ;
 
+    /**
+     * Saves a file whose content is streamed into the file store.
+     *
+     * @param matriculationNumber the student's matriculation number
+     * @param filename            the file name
+     * @param contentType         the content type
+     * @param content             the content, which is read until its end but not closed
+     * @return the id from the database
+     * @throws StudentNotExistsException if the student does not exist
+     * @throws IOException               if the content could not be stored
+     */
+    long uploadFile(String matriculationNumber, String filename, String contentType, InputStream content) throws StudentNotExistsException, IOException;
+
+    /**
+     * Saves a file which is not associated with a student and whose content is streamed into the file store.
+     *
+     * @param filename    the file name
+     * @param contentType the content type
+     * @param content     the content, which is read until its end but not closed
+     * @return the id from the database
+     * @throws IOException if the content could not be stored
+     */
+    long uploadFile(String filename, String contentType, InputStream content) throws IOException;
+
+    /**
+     * Opens the content of a stored file.
+     *
+     * @param id the file's id
+     * @return the input stream of the content, which has to be closed by the caller
+     * @throws FileNotExistsException if the requested file does not exist
+     * @throws IOException            if the content could not be opened
+     */
+    InputStream openContent(long id) throws FileNotExistsException, IOException;
+
+    /**
+     * Returns the content of a stored file as resource, which supports the retrieval of byte ranges.
+     *
+     * @param id the file's id
+     * @return the resource
+     * @throws FileNotExistsException if the requested file does not exist
+     */
+    Resource getContentResource(long id) throws FileNotExistsException;
+
+    /**
+     * Deletes a file and releases its reference to the stored content.
+     *
+     * @param id the file's id
+     */
+    void deleteFile(long id);
+
+    /**
+     * Removes the stored contents which have not been referenced since the given time,
+     * as well as orphaned contents and temporary files which have not been modified since then.
+     *
+     * @param unusedSince the time
+     * @return the number of removed contents
+     * @throws IOException if the file store could not be read
+     */
+    int removeUnreferencedContents(LocalDateTime unusedSince) throws IOException;
+
     /**
      * Retrieves the file meta data from a stored file.
      *
@@ -0,0 +1,286 @@
+package at.jku.dke.etutor.repository.impl;
+
+import at.jku.dke.etutor.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.PathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store for the contents of uploaded files in the file system.
+ * <p>
+ * The key of a blob is the SHA-256 hash of its content, so identical contents are stored once.
+ * Contents are first staged, which computes the hash while streaming into a temporary file,
+ * and published afterwards. Publishing a content which is already stored only discards the
+ * staged copy. The blobs are distributed over sub directories named after the first two
+ * characters of their key. Reference counting of the blobs is done by the file repository.
+ *
+ * @author fne
+ */
+@Component
+public class FileBlobStore {
+
+    private static final String TEMP_PREFIX = "upload-";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Logger log = LoggerFactory.getLogger(FileBlobStore.class);
+
+    private final Path directory;
+
+    /**
+     * Constructor.
+     *
+     * @param applicationProperties the injected application properties
+     */
+    public FileBlobStore(ApplicationProperties applicationProperties) {
+        directory = Path.of(applicationProperties.getFileStorage().getDirectory()).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the file storage directory " + directory, e);
+        }
+    }
+
+    /**
+     * Stages the given content by streaming it into a temporary file.
+     *
+     * @param content the content, which is read until its end but not closed
+     * @return the staged blob, which has to be published or discarded
+     * @throws IOException if the content could not be staged
+     */
+    public StagedBlob stage(InputStream content) throws IOException {
+        Objects.requireNonNull(content);
+
+        MessageDigest digest = createDigest();
+        Path tempFile = Files.createTempFile(directory, TEMP_PREFIX, TEMP_SUFFIX);
+        try (OutputStream outputStream = new DigestOutputStream(Files.newOutputStream(tempFile), digest)) {
+            long size = content.transferTo(outputStream);
+            return new StagedBlob(HexFormat.of().formatHex(digest.digest()), size, tempFile, null);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Stages the given content which is already held in memory. Nothing is written until the blob is published.
+     *
+     * @param content the content
+     * @return the staged blob, which has to be published or discarded
+     */
+    public StagedBlob stage(byte[] content) {
+        Objects.requireNonNull(content);
+
+        return new StagedBlob(HexFormat.of().formatHex(createDigest().digest(content)), content.length, null, content);
+    }
+
+    /**
+     * Publishes a staged blob. If a blob with the same content is already stored, the staged copy is discarded.
+     *
+     * @param blob the staged blob
+     * @return {@code true} if the content has been written, {@code false} if it was already stored
+     * @throws IOException if the content could not be stored
+     */
+    public boolean publish(StagedBlob blob) throws IOException {
+        Path target = resolve(blob.key());
+        if (Files.exists(target)) {
+            // Marks the blob as recently used, so that it is not removed as orphan in the meantime
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            discard(blob);
+            return false;
+        }
+
+        Files.createDirectories(target.getParent());
+        Path source = blob.tempFile();
+        if (source == null) {
+            source = Files.createTempFile(directory, TEMP_PREFIX, TEMP_SUFFIX);
+            Files.write(source, blob.content());
+        }
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Published concurrently with identical content
+            return false;
+        } finally {
+            Files.deleteIfExists(source);
+        }
+        return true;
+    }
+
+    /**
+     * Discards the temporary file of a staged blob, if any.
+     *
+     * @param blob the staged blob
+     */
+    public void discard(StagedBlob blob) {
+        if (blob.tempFile() == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(blob.tempFile());
+        } catch (IOException e) {
+            log.warn("Could not delete temporary file {}", blob.tempFile(), e);
+        }
+    }
+
+    /**
+     * Opens the content of a blob.
+     *
+     * @param key the blob's key
+     * @return the input stream of the content
+     * @throws IOException if the blob could not be opened
+     */
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    /**
+     * Returns a resource of the blob's content, which supports the retrieval of byte ranges.
+     *
+     * @param key the blob's key
+     * @return the resource
+     */
+    public Resource getResource(String key) {
+        return new PathResource(resolve(key));
+    }
+
+    /**
+     * Returns whether a blob is stored.
+     *
+     * @param key the blob's key
+     * @return {@code true} if the blob exists, otherwise {@code false}
+     */
+    public boolean exists(String key) {
+        return Files.exists(resolve(key));
+    }
+
+    /**
+     * Deletes a blob. Failures are logged, as a remaining blob does not affect the stored files.
+     *
+     * @param key the blob's key
+     */
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            log.warn("Could not delete blob {}", key, e);
+        }
+    }
+
+    /**
+     * Deletes a blob unless it has been modified since the given instant, i.e. unless it has been
+     * published again meanwhile. Failures are logged, as a remaining blob does not affect the stored files.
+     *
+     * @param key            the blob's key
+     * @param modifiedBefore the instant
+     */
+    public void deleteIfNotModifiedSince(String key, Instant modifiedBefore) {
+        Path path = resolve(key);
+        try {
+            if (Files.getLastModifiedTime(path).toInstant().isBefore(modifiedBefore)) {
+                Files.deleteIfExists(path);
+            }
+        } catch (NoSuchFileException e) {
+            // Already deleted
+        } catch (IOException e) {
+            log.warn("Could not delete blob {}", key, e);
+        }
+    }
+
+    /**
+     * Deletes the temporary files which have not been modified since the given instant,
+     * e.g. after the application has been stopped during an upload.
+     *
+     * @param modifiedBefore the instant
+     * @return the number of deleted files
+     * @throws IOException if the storage directory could not be read
+     */
+    public int deleteTemporaryFiles(Instant modifiedBefore) throws IOException {
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, TEMP_PREFIX + "*" + TEMP_SUFFIX)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(modifiedBefore) && Files.deleteIfExists(file)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the keys of the blobs which have not been modified since the given instant.
+     *
+     * @param modifiedBefore the instant
+     * @return the keys
+     * @throws IOException if the storage directory could not be read
+     */
+    public List<String> getKeysModifiedBefore(Instant modifiedBefore) throws IOException {
+        List<String> keys = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getParent().equals(directory) || !Files.isRegularFile(file)) {
+                    continue;
+                }
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(modifiedBefore)) {
+                    keys.add(file.getFileName().toString());
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Resolves the path of a blob.
+     *
+     * @param key the blob's key
+     * @return the path
+     */
+    private Path resolve(String key) {
+        Objects.requireNonNull(key);
+        if (key.length() < 3 || !key.chars().allMatch(Character::isLetterOrDigit)) {
+            throw new IllegalArgumentException("Invalid blob key " + key);
+        }
+        return directory.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    /**
+     * Creates the digest which computes the blob keys.
+     *
+     * @return the SHA-256 message digest
+     */
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A staged blob.
+     *
+     * @param key      the SHA-256 hash of the content
+     * @param size     the size of the content in bytes
+     * @param tempFile the temporary file holding the content, or {@code null} if the content is held in memory
+     * @param content  the content held in memory, or {@code null} if it has been written to a temporary file
+     */
+    public record StagedBlob(String key, long size, Path tempFile, byte[] content) {
+    }
+}
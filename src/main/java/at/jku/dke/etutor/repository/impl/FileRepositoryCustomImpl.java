@@ -1,16 +1,35 @@
 package at.jku.dke.etutor.repository.impl;
 
+import at.jku.dke.etutor.domain.FileBlob;
 import at.jku.dke.etutor.domain.FileEntity;
 import at.jku.dke.etutor.domain.Student;
 import at.jku.dke.etutor.repository.FileRepositoryCustom;
 import at.jku.dke.etutor.service.dto.FileMetaDataModelDTO;
 import at.jku.dke.etutor.service.exception.FileNotExistsException;
 import at.jku.dke.etutor.service.exception.StudentNotExistsException;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
 import javax.persistence.TypedQuery;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
 
 /**
  * Implements the the custom file repository's functions.
@@ -23,6 +42,21 @@ public class FileRepositoryCustomImpl implements FileRepositoryCustom {
     @PersistenceContext
     private EntityManager entityManager;
 
+    private final FileBlobStore fileBlobStore;
+    private final TransactionTemplate registrationTransaction;
+
+    /**
+     * Constructor.
+     *
+     * @param fileBlobStore      the injected file blob store
+     * @param transactionManager the injected transaction manager
+     */
+    public FileRepositoryCustomImpl(FileBlobStore fileBlobStore, PlatformTransactionManager transactionManager) {
+        this.fileBlobStore = fileBlobStore;
+        this.registrationTransaction = new TransactionTemplate(transactionManager);
+        this.registrationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
     /**
      * Saves a file in the db.
      *
@@ -37,42 +71,155 @@ public class FileRepositoryCustomImpl implements FileRepositoryCustom {
     @Override
     public long uploadFile(String matriculationNumber, String filename, String contentType,
                            byte[] content, long size) throws StudentNotExistsException {
-        TypedQuery<Student> studentQry = entityManager.createQuery("""
-            SELECT s FROM Student s WHERE s.user.login = :matriculationNo
-            """, Student.class);
-        studentQry.setParameter("matriculationNo", matriculationNumber);
+        Student student = findStudent(matriculationNumber);
+        try {
+            return persistFile(filename, contentType, fileBlobStore.stage(content), student);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-        Student student;
+    @Override
+    public long uploadFile(String filename, String contentType,
+                           byte[] content, long size) {
         try {
-            student = studentQry.getSingleResult();
-        } catch (NoResultException nre) {
-            throw new StudentNotExistsException();
+            return persistFile(filename, contentType, fileBlobStore.stage(content), null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        FileEntity fileEntity = new FileEntity();
-        fileEntity.setContent(content);
-        fileEntity.setContentType(contentType);
-        fileEntity.setName(filename);
-        fileEntity.setSize(size);
-        fileEntity.setStudent(student);
+    }
 
-        entityManager.persist(fileEntity);
+    /**
+     * Saves a file whose content is streamed into the file store.
+     *
+     * @param matriculationNumber the student's matriculation number
+     * @param filename            the file name
+     * @param contentType         the content type
+     * @param content             the content, which is read until its end but not closed
+     * @return the id from the database
+     * @throws StudentNotExistsException if the student does not exist
+     * @throws IOException               if the content could not be stored
+     */
+    @Override
+    public long uploadFile(String matriculationNumber, String filename, String contentType,
+                           InputStream content) throws StudentNotExistsException, IOException {
+        Student student = findStudent(matriculationNumber);
 
-        return fileEntity.getId();
+        return persistFile(filename, contentType, fileBlobStore.stage(content), student);
     }
 
+    /**
+     * Saves a file which is not associated with a student and whose content is streamed into the file store.
+     *
+     * @param filename    the file name
+     * @param contentType the content type
+     * @param content     the content, which is read until its end but not closed
+     * @return the id from the database
+     * @throws IOException if the content could not be stored
+     */
     @Override
-    public long uploadFile(String filename, String contentType,
-                           byte[] content, long size) {
+    public long uploadFile(String filename, String contentType, InputStream content) throws IOException {
+        return persistFile(filename, contentType, fileBlobStore.stage(content), null);
+    }
 
-        FileEntity fileEntity = new FileEntity();
-        fileEntity.setContent(content);
-        fileEntity.setContentType(contentType);
-        fileEntity.setName(filename);
-        fileEntity.setSize(size);
+    /**
+     * Opens the content of a stored file.
+     *
+     * @param id the file's id
+     * @return the input stream of the content, which has to be closed by the caller
+     * @throws FileNotExistsException if the requested file does not exist
+     * @throws IOException            if the content could not be opened
+     */
+    @Override
+    public InputStream openContent(long id) throws FileNotExistsException, IOException {
+        String storageKey = getStorageKey(id);
+        if (storageKey != null) {
+            return fileBlobStore.open(storageKey);
+        }
+        return new ByteArrayInputStream(getDatabaseContent(id));
+    }
 
-        entityManager.persist(fileEntity);
+    /**
+     * Returns the content of a stored file as resource, which supports the retrieval of byte ranges.
+     *
+     * @param id the file's id
+     * @return the resource
+     * @throws FileNotExistsException if the requested file does not exist
+     */
+    @Override
+    public Resource getContentResource(long id) throws FileNotExistsException {
+        String storageKey = getStorageKey(id);
+        if (storageKey != null) {
+            return fileBlobStore.getResource(storageKey);
+        }
+        return new ByteArrayResource(getDatabaseContent(id));
+    }
 
-        return fileEntity.getId();
+    /**
+     * Deletes a file and releases its reference to the stored content.
+     * Contents without references are removed by {@link #removeUnreferencedContents(LocalDateTime)}.
+     *
+     * @param id the file's id
+     */
+    @Override
+    public void deleteFile(long id) {
+        FileEntity fileEntity = entityManager.find(FileEntity.class, id);
+        if (fileEntity == null) {
+            throw new EmptyResultDataAccessException(String.format("No %s entity with id %s exists!", FileEntity.class, id), 1);
+        }
+        String storageKey = fileEntity.getStorageKey();
+        entityManager.remove(fileEntity);
+
+        if (storageKey != null && !releaseReference(storageKey)) {
+            // Content which has been stored before the introduction of the reference counts
+            afterTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> fileBlobStore.delete(storageKey));
+        }
+    }
+
+    /**
+     * Removes the stored contents which have not been referenced since the given time,
+     * as well as orphaned contents and temporary files which have not been modified since then.
+     *
+     * @param unusedSince the time
+     * @return the number of removed contents
+     * @throws IOException if the file store could not be read
+     */
+    @Override
+    public int removeUnreferencedContents(LocalDateTime unusedSince) throws IOException {
+        int count = 0;
+
+        List<String> hashes = entityManager.createQuery("""
+            SELECT b.hash FROM FileBlob b WHERE b.referenceCount = 0 AND b.releaseTime < :unusedSince
+            """, String.class)
+            .setParameter("unusedSince", unusedSince)
+            .getResultList();
+        for (String hash : hashes) {
+            Instant removalTime = Instant.now();
+            int deleted = entityManager.createQuery("""
+                DELETE FROM FileBlob b
+                WHERE b.hash = :hash AND b.referenceCount = 0
+                  AND NOT EXISTS (SELECT fe.id FROM FileEntity fe WHERE fe.storageKey = :hash)
+                """)
+                .setParameter("hash", hash)
+                .executeUpdate();
+            // The row is locked until the end of the transaction, so that the content cannot be referenced again meanwhile.
+            // The content is deleted after the commit, unless it has been published again since then.
+            if (deleted == 1) {
+                afterTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> fileBlobStore.deleteIfNotModifiedSince(hash, removalTime));
+                count++;
+            }
+        }
+
+        Instant modifiedBefore = unusedSince.atZone(ZoneId.systemDefault()).toInstant();
+        for (String key : fileBlobStore.getKeysModifiedBefore(modifiedBefore)) {
+            if (entityManager.find(FileBlob.class, key) == null && !isReferencedByFile(key)) {
+                fileBlobStore.delete(key);
+                count++;
+            }
+        }
+        fileBlobStore.deleteTemporaryFiles(modifiedBefore);
+
+        return count;
     }
 
     /**
@@ -97,4 +244,206 @@ public class FileRepositoryCustomImpl implements FileRepositoryCustom {
             throw new FileNotExistsException();
         }
     }
+
+    /**
+     * Publishes the staged content in the file store, references it and persists the file entity.
+     * Identical contents are stored once and shared by all files referencing them.
+     *
+     * @param filename    the file name
+     * @param contentType the content type
+     * @param blob        the staged content
+     * @param student     the optional student
+     * @return the id from the database
+     * @throws IOException if the content could not be stored
+     */
+    private long persistFile(String filename, String contentType, FileBlobStore.StagedBlob blob, Student student) throws IOException {
+        try {
+            acquireReference(blob);
+            fileBlobStore.publish(blob);
+        } finally {
+            fileBlobStore.discard(blob);
+        }
+
+        FileEntity fileEntity = new FileEntity();
+        fileEntity.setStorageKey(blob.key());
+        fileEntity.setContentType(contentType);
+        fileEntity.setName(filename);
+        fileEntity.setSize(blob.size());
+        fileEntity.setStudent(student);
+
+        entityManager.persist(fileEntity);
+
+        return fileEntity.getId();
+    }
+
+    /**
+     * Increments the reference count of a content, or registers the content if it is not known yet.
+     * The update locks the row, so that the content cannot be removed until the transaction is completed.
+     * <p>
+     * Unknown contents are registered without references in a separate transaction. If an upload of the same
+     * content registers it concurrently, the insert fails with a duplicate key, which leaves the current
+     * transaction intact, and the reference count of the concurrently registered row is incremented.
+     *
+     * @param blob the staged content
+     */
+    private void acquireReference(FileBlobStore.StagedBlob blob) {
+        if (incrementReferenceCount(blob.key())) {
+            return;
+        }
+
+        RuntimeException registrationFailure = null;
+        try {
+            registrationTransaction.executeWithoutResult(status -> {
+                FileBlob fileBlob = new FileBlob();
+                fileBlob.setHash(blob.key());
+                fileBlob.setSize(blob.size());
+                fileBlob.setReferenceCount(0);
+                // Collected like a released content if the upload is rolled back
+                fileBlob.setReleaseTime(LocalDateTime.now());
+                entityManager.persist(fileBlob);
+                entityManager.flush();
+            });
+        } catch (PersistenceException | DataAccessException e) {
+            registrationFailure = e;
+        }
+
+        if (!incrementReferenceCount(blob.key())) {
+            throw new IllegalStateException("The content " + blob.key() + " could not be registered", registrationFailure);
+        }
+    }
+
+    /**
+     * Increments the reference count of a registered content.
+     *
+     * @param hash the hash of the content
+     * @return {@code true} if the content is registered, otherwise {@code false}
+     */
+    private boolean incrementReferenceCount(String hash) {
+        return entityManager.createQuery("""
+            UPDATE FileBlob b SET b.referenceCount = b.referenceCount + 1, b.releaseTime = NULL
+            WHERE b.hash = :hash
+            """)
+            .setParameter("hash", hash)
+            .executeUpdate() == 1;
+    }
+
+    /**
+     * Decrements the reference count of a content.
+     *
+     * @param hash the hash of the content
+     * @return {@code true} if the content is reference counted, otherwise {@code false}
+     */
+    private boolean releaseReference(String hash) {
+        int updated = entityManager.createQuery("""
+            UPDATE FileBlob b SET b.referenceCount = b.referenceCount - 1
+            WHERE b.hash = :hash AND b.referenceCount > 0
+            """)
+            .setParameter("hash", hash)
+            .executeUpdate();
+        if (updated == 0) {
+            return entityManager.find(FileBlob.class, hash) != null;
+        }
+
+        entityManager.createQuery("""
+            UPDATE FileBlob b SET b.releaseTime = :now
+            WHERE b.hash = :hash AND b.referenceCount = 0
+            """)
+            .setParameter("hash", hash)
+            .setParameter("now", LocalDateTime.now())
+            .executeUpdate();
+        return true;
+    }
+
+    /**
+     * Returns whether a file references the given storage key.
+     *
+     * @param storageKey the storage key
+     * @return {@code true} if a file references the key, otherwise {@code false}
+     */
+    private boolean isReferencedByFile(String storageKey) {
+        return entityManager.createQuery("""
+            SELECT COUNT(fe) FROM FileEntity fe WHERE fe.storageKey = :storageKey
+            """, Long.class)
+            .setParameter("storageKey", storageKey)
+            .getSingleResult() > 0;
+    }
+
+    /**
+     * Returns the student with the given matriculation number.
+     *
+     * @param matriculationNumber the student's matriculation number
+     * @return the student
+     * @throws StudentNotExistsException if the student does not exist
+     */
+    private Student findStudent(String matriculationNumber) throws StudentNotExistsException {
+        TypedQuery<Student> studentQry = entityManager.createQuery("""
+            SELECT s FROM Student s WHERE s.user.login = :matriculationNo
+            """, Student.class);
+        studentQry.setParameter("matriculationNo", matriculationNumber);
+
+        try {
+            return studentQry.getSingleResult();
+        } catch (NoResultException nre) {
+            throw new StudentNotExistsException();
+        }
+    }
+
+    /**
+     * Returns the storage key of a file.
+     *
+     * @param id the file's id
+     * @return the storage key, or {@code null} if the content is stored in the database
+     * @throws FileNotExistsException if the requested file does not exist
+     */
+    private String getStorageKey(long id) throws FileNotExistsException {
+        TypedQuery<String> query = entityManager.createQuery("""
+            SELECT fe.storageKey FROM FileEntity fe WHERE fe.id = :id
+            """, String.class);
+        query.setParameter("id", id);
+
+        try {
+            return query.getSingleResult();
+        } catch (NoResultException nre) {
+            throw new FileNotExistsException();
+        }
+    }
+
+    /**
+     * Returns the content of a file which is stored in the database.
+     *
+     * @param id the file's id
+     * @return the content
+     * @throws FileNotExistsException if the requested file does not exist
+     */
+    private byte[] getDatabaseContent(long id) throws FileNotExistsException {
+        FileEntity fileEntity = entityManager.find(FileEntity.class, id);
+        if (fileEntity == null || fileEntity.getContent() == null) {
+            throw new FileNotExistsException();
+        }
+        return fileEntity.getContent();
+    }
+
+    /**
+     * Runs the given action once the current transaction has been completed with the given status,
+     * or immediately for the commit status if no transaction is active.
+     *
+     * @param status the transaction status
+     * @param action the action
+     */
+    private static void afterTransaction(int status, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                action.run();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int completionStatus) {
+                if (completionStatus == status) {
+                    action.run();
+                }
+            }
+        });
+    }
 }
@@ -2,11 +2,15 @@ package at.jku.dke.etutor.service;
 
 import at.jku.dke.etutor.helper.RDFConnectionFactory;
 import org.apache.commons.lang3.time.DateFormatUtils;
+import org.apache.jena.query.ParameterizedSparqlString;
 import org.apache.jena.rdfconnection.RDFConnection;
+import org.apache.jena.update.UpdateRequest;
 
 import java.text.ParseException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -36,6 +40,25 @@ public abstract /*sealed*/ class AbstractSPARQLEndpointService /* permits Assign
         return rdfConnectionFactory.getRDFConnection();
     }
 
+    /**
+     * Begins a new unit of work, which collects updates and sends them
+     * to the server as one request.
+     *
+     * @return the new unit of work
+     */
+    protected UnitOfWork beginUnitOfWork() {
+        return new UnitOfWork();
+    }
+
+    /**
+     * Returns how often the dataset has been cleared.
+     *
+     * @return the number of times the dataset has been cleared
+     */
+    protected long getDatasetClearCount() {
+        return rdfConnectionFactory.getClearCount();
+    }
+
     /**
      * Returns whether a hashtag replacement is needed or not.
      *
@@ -82,4 +105,101 @@ public abstract /*sealed*/ class AbstractSPARQLEndpointService /* permits Assign
 
         return DateFormatUtils.ISO_8601_EXTENDED_DATETIME_FORMAT.parse(instantAsString).toInstant();
     }
+
+    /**
+     * Collects SPARQL updates, which are sent to the server in a single
+     * multi-operation update request on commit. The operations are executed in the
+     * order in which they have been added, and Fuseki executes the whole request in
+     * one write transaction, so the updates are applied atomically.
+     * <p>
+     * Actions which depend on the updates, e.g. the maintenance of projections,
+     * can be registered with {@link #afterCommit(Runnable)}.
+     * A unit of work is not thread-safe and must be committed only once.
+     */
+    protected final class UnitOfWork {
+
+        private final UpdateRequest updateRequest = new UpdateRequest();
+        private final List<Runnable> afterCommitActions = new ArrayList<>();
+        private boolean committed;
+
+        /**
+         * Constructor.
+         */
+        private UnitOfWork() {
+        }
+
+        /**
+         * Adds the given update to this unit of work.
+         *
+         * @param update the parameterized update
+         * @return this unit of work
+         */
+        public UnitOfWork add(ParameterizedSparqlString update) {
+            Objects.requireNonNull(update);
+
+            return add(update.asUpdate());
+        }
+
+        /**
+         * Adds the operations of the given update request to this unit of work.
+         *
+         * @param update the update request
+         * @return this unit of work
+         */
+        public UnitOfWork add(UpdateRequest update) {
+            Objects.requireNonNull(update);
+            checkNotCommitted();
+
+            update.getOperations().forEach(updateRequest::add);
+            return this;
+        }
+
+        /**
+         * Registers an action which is executed after the updates have been committed successfully.
+         *
+         * @param action the action
+         * @return this unit of work
+         */
+        public UnitOfWork afterCommit(Runnable action) {
+            Objects.requireNonNull(action);
+            checkNotCommitted();
+
+            afterCommitActions.add(action);
+            return this;
+        }
+
+        /**
+         * Returns whether this unit of work does not contain any updates.
+         *
+         * @return {@code true} if no update has been added, otherwise {@code false}
+         */
+        public boolean isEmpty() {
+            return updateRequest.getOperations().isEmpty();
+        }
+
+        /**
+         * Sends the collected updates to the server in one request and executes the
+         * registered actions afterwards. No request is sent if no update has been added.
+         */
+        public void commit() {
+            checkNotCommitted();
+            committed = true;
+
+            if (!isEmpty()) {
+                try (RDFConnection connection = getConnection()) {
+                    connection.update(updateRequest);
+                }
+            }
+            afterCommitActions.forEach(Runnable::run);
+        }
+
+        /**
+         * Throws an exception if this unit of work has already been committed.
+         */
+        private void checkNotCommitted() {
+            if (committed) {
+                throw new IllegalStateException("The unit of work has already been committed");
+            }
+        }
+    }
 }
@@ -5,7 +5,11 @@ import at.jku.dke.etutor.helper.RDFConnectionFactory;
 import at.jku.dke.etutor.service.dto.TaskDisplayDTO;
 import at.jku.dke.etutor.service.dto.taskassignment.*;
 import at.jku.dke.etutor.service.exception.InternalTaskAssignmentNonexistentException;
+import at.jku.dke.etutor.service.exception.InvalidContinuationTokenException;
 import at.jku.dke.etutor.service.exception.TaskGroupAlreadyExistentException;
+import at.jku.dke.etutor.service.pagination.Keyset;
+import at.jku.dke.etutor.service.pagination.KeysetSlice;
+import at.jku.dke.etutor.service.search.SearchIndex;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.query.ParameterizedSparqlString;
@@ -72,22 +76,6 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
             """;
 
 
-    private static final String QRY_ASK_MAX_POINTS_FOR_TASK_ASSIGNMENT = """
-        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-
-
-        SELECT ?maxPoints WHERE {
-              ?courseInstance a etutor:CourseInstance.
-                ?student etutor:hasIndividualTaskAssignment ?individualAssignment.
-                ?individualAssignment etutor:fromExerciseSheet ?sheet;
-            etutor:fromCourseInstance ?courseInstance.
-                ?individualAssignment etutor:hasIndividualTask ?individualTask.
-                ?individualTask etutor:hasOrderNo ?orderNo;
-                            etutor:refersToTask ?taskAssignment.
-                ?taskAssignment etutor:hasMaxPoints ?maxPoints.
-        }
-        """;
-
     private static final String QRY_ASK_CALC_INFORMATION = """
         PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
 
@@ -133,29 +121,6 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
             }
             """;
 
-    private static final String QRY_CONSTRUCT_TASK_ASSIGNMENTS =
-        """
-            PREFIX etutor:            <http://www.dke.uni-linz.ac.at/etutorpp/>
-            PREFIX etutor-difficulty: <http://www.dke.uni-linz.ac.at/etutorpp/DifficultyRanking#>
-            PREFIX rdfs:              <http://www.w3.org/2000/01/rdf-schema#>
-
-            CONSTRUCT { ?assignment ?predicate ?object.
-              ?assignment etutor:isAssignmentOf ?goal.
-              ?othergoal rdfs:label ?goalName.
-              ?assignment etutor:hasTaskGroup ?taskGroup. }
-            WHERE {
-              ?assignment ?predicate ?object.
-              ?assignment a etutor:TaskAssignment.
-              OPTIONAL {
-                ?goal etutor:hasTaskAssignment ?assignment.
-                ?othergoal rdfs:label ?goalName.
-              }
-              OPTIONAL {
-                ?taskGroup etutor:hasTask ?assignment.
-              }
-            }
-            """;
-
     private static final String QRY_SELECT_LEARNING_GOAL_IDS_OF_ASSIGNMENT =
         """
             PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
@@ -179,13 +144,75 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
             ORDER BY (LCASE(?assignmentHeader))
             """;
 
+    private static final String QRY_SELECT_TASK_DISPLAYS =
+        """
+            PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+
+            SELECT DISTINCT (STR(?assignment) AS ?assignmentId) ?header ?internalCreator ?privateTask (LCASE(STR(?header)) AS ?sortHeader)
+            WHERE {
+              {
+                ?assignment a etutor:TaskAssignment.
+                ?assignment etutor:hasTaskHeader ?header.
+                ?assignment etutor:hasInternalTaskCreator ?internalCreator.
+                ?assignment etutor:isPrivateTask ?privateTask.
+                FILTER(?privateTask = false)
+              } UNION {
+                ?assignment a etutor:TaskAssignment.
+                ?assignment etutor:hasTaskHeader ?header.
+                ?assignment etutor:hasInternalTaskCreator ?internalCreator.
+                ?assignment etutor:isPrivateTask ?privateTask.
+                FILTER(?internalCreator = ?loggedInUser && ?privateTask = true)
+              }
+            """;
+
+    private static final String QRY_SELECT_TASK_GROUP_DISPLAYS =
+        """
+            PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+
+            SELECT (STR(?taskGroup) AS ?id) ?taskGroupName (LCASE(STR(?taskGroupName)) AS ?sortName)
+            WHERE {
+              ?taskGroup a etutor:TaskGroup.
+              ?taskGroup etutor:hasTaskGroupName ?taskGroupName.
+            """;
+
+    private static final String QRY_COUNT_TASK_GROUPS =
+        """
+            PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+
+            SELECT (COUNT(?taskGroup) AS ?cnt)
+            WHERE {
+              ?taskGroup a etutor:TaskGroup.
+            }
+            """;
+
+    private static final Keyset TASK_DISPLAY_KEYSET = new Keyset(
+        Keyset.Key.of("LCASE(STR(?header))", "?sortHeader"),
+        Keyset.Key.of("STR(?assignment)", "?assignmentId")
+    );
+
+    private static final Keyset TASK_GROUP_DISPLAY_KEYSET = new Keyset(
+        Keyset.Key.of("LCASE(STR(?taskGroupName))", "?sortName"),
+        Keyset.Key.of("STR(?taskGroup)", "?id")
+    );
+
+    private final LearningGoalGraphCache learningGoalGraphCache;
+    private final SearchIndex searchIndex;
+    private final TaskAssignmentCache taskAssignmentCache;
+
     /**
      * Constructor.
      *
-     * @param rdfConnectionFactory the injected rdf connection factory
+     * @param rdfConnectionFactory   the injected rdf connection factory
+     * @param learningGoalGraphCache the injected learning goal graph cache
+     * @param searchIndex            the injected search index
+     * @param taskAssignmentCache    the injected task assignment cache
      */
-    public AssignmentSPARQLEndpointService(RDFConnectionFactory rdfConnectionFactory) {
+    public AssignmentSPARQLEndpointService(RDFConnectionFactory rdfConnectionFactory, LearningGoalGraphCache learningGoalGraphCache,
+                                           SearchIndex searchIndex, TaskAssignmentCache taskAssignmentCache) {
         super(rdfConnectionFactory);
+        this.learningGoalGraphCache = learningGoalGraphCache;
+        this.searchIndex = searchIndex;
+        this.taskAssignmentCache = taskAssignmentCache;
     }
 
     /**
@@ -214,6 +241,8 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
         try (RDFConnection connection = getConnection()) {
             connection.load(model);
         }
+        learningGoalGraphCache.invalidateAll();
+        searchIndex.refreshTask(newTaskAssignment.getURI());
 
         return new TaskAssignmentDTO(newTaskAssignmentDTO, newTaskAssignment.getURI(), now, internalCreator);
     }
@@ -276,6 +305,9 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
         try (RDFConnection connection = getConnection()) {
             connection.update(parameterizedQry.asUpdate());
         }
+        learningGoalGraphCache.invalidateAll();
+        taskAssignmentCache.invalidateTaskAssignment(assignmentId);
+        searchIndex.refreshTask(assignmentId);
     }
 
     /**
@@ -502,6 +534,9 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
 
             connection.update(query.asUpdate());
         }
+        learningGoalGraphCache.invalidateAll();
+        taskAssignmentCache.invalidateTaskAssignment(taskAssignment.getId());
+        searchIndex.refreshTask(taskAssignment.getId());
     }
 
     /**
@@ -555,6 +590,8 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
             updateQuery.setIri("?assignment", assignment);
             connection.update(updateQuery.asUpdate());
         }
+        learningGoalGraphCache.invalidateAll();
+        taskAssignmentCache.invalidateTaskAssignment(assignment);
     }
 
     /**
@@ -667,27 +704,21 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
      * @return {@link Optional} which contains the task, if a task with the given id exists
      */
     public Optional<TaskAssignmentDTO> getTaskAssignmentByInternalId(String id) {
-        ParameterizedSparqlString query = new ParameterizedSparqlString(QRY_CONSTRUCT_TASK_ASSIGNMENTS);
-
         String taskAssignmentId = String.format("http://www.dke.uni-linz.ac.at/etutorpp/TaskAssignment#%s", id);
-        query.setIri("?assignment", taskAssignmentId);
-
-        try (RDFConnection connection = getConnection()) {
-            Model model = connection.queryConstruct(query.asQuery());
 
-            if (model.isEmpty()) {
-                return Optional.empty();
-            }
-            ResIterator iterator = model.listResourcesWithProperty(RDF.type, ETutorVocabulary.TaskAssignment);
+        Optional<Model> model = taskAssignmentCache.getTaskAssignment(taskAssignmentId);
+        if (model.isEmpty()) {
+            return Optional.empty();
+        }
+        ResIterator iterator = model.get().listResourcesWithProperty(RDF.type, ETutorVocabulary.TaskAssignment);
 
-            try {
-                Resource resource = iterator.nextResource();
-                return Optional.of(new TaskAssignmentDTO(resource));
-            } finally {
-                iterator.close();
-            }
+        try {
+            Resource resource = iterator.nextResource();
+            return Optional.of(new TaskAssignmentDTO(resource));
         } catch (ParseException | MalformedURLException e) {
             return Optional.empty();
+        } finally {
+            iterator.close();
         }
     }
 
@@ -712,6 +743,8 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
 
     /**
      * Returns a paged task display (task header + id). An optional header filter may be passed to this method.
+     * Filtered requests are answered by the search index and ordered by relevance, the unfiltered list
+     * is ordered by the task header.
      *
      * @param headerFilter          the optional header filter, might be null
      * @param pageable              the mandatory pageable object
@@ -723,62 +756,11 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
         Objects.requireNonNull(pageable);
         Objects.requireNonNull(user);
 
-        ParameterizedSparqlString qry = new ParameterizedSparqlString();
-        qry.append(
-            """
-                PREFIX text:   <http://jena.apache.org/text#>
-                PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-                PREFIX rdfs:   <http://www.w3.org/2000/01/rdf-schema#>
-
-                SELECT DISTINCT (STR(?assignment) AS ?assignmentId) ?header ?internalCreator ?privateTask
-                WHERE {
-                    {
-                """
-        );
-
-        if (StringUtils.isNotBlank(headerFilter)) {
-            qry.append(String.format("?assignment text:query (etutor:hasTaskHeader \"*%s*\").%n", headerFilter));
+        if (StringUtils.isNotBlank(headerFilter) || StringUtils.isNotBlank(taskGroupHeaderFilter)) {
+            return searchIndex.searchTasks(headerFilter, taskGroupHeaderFilter, user, pageable);
         }
 
-        if (StringUtils.isNotBlank(taskGroupHeaderFilter)) {
-            qry.append(String.format("?taskGroup text:query (etutor:hasTaskGroupName \"*%s*\").%n", taskGroupHeaderFilter));
-            qry.append("?taskGroup a etutor:TaskGroup.\n");
-            qry.append("?taskGroup etutor:hasTask ?assignment.\n");
-        }
-
-        qry.append(
-            """
-                    ?assignment a etutor:TaskAssignment.
-                    ?assignment etutor:hasTaskHeader ?header.
-                    ?assignment etutor:hasInternalTaskCreator ?internalCreator.
-                    ?assignment etutor:isPrivateTask ?privateTask.
-                    FILTER(?privateTask = false)
-                  } UNION {
-                """
-        );
-
-        if (StringUtils.isNotBlank(headerFilter)) {
-            qry.append(String.format("?assignment text:query (etutor:hasTaskHeader \"*%s*\").%n", headerFilter));
-        }
-
-        if (StringUtils.isNotBlank(taskGroupHeaderFilter)) {
-            qry.append(String.format("?taskGroup text:query (etutor:hasTaskGroupName \"*%s*\").%n", taskGroupHeaderFilter));
-            qry.append("?taskGroup a etutor:TaskGroup.\n");
-            qry.append("?taskGroup etutor:hasTask ?assignment.\n");
-        }
-
-        qry.append(
-            """
-                    ?assignment a etutor:TaskAssignment.
-                    ?assignment etutor:hasTaskHeader ?header.
-                    ?assignment etutor:hasInternalTaskCreator ?internalCreator.
-                    ?assignment etutor:isPrivateTask ?privateTask.
-                    FILTER(?internalCreator = ?loggedInUser && ?privateTask = true)
-                  }
-                }
-                ORDER BY (LCASE(?header))
-                """
-        );
+        ParameterizedSparqlString qry = createTaskDisplayQuery(user, null);
 
         if (pageable.isPaged()) {
             qry.append("LIMIT ");
@@ -786,7 +768,6 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
             qry.append("\nOFFSET ");
             qry.append(pageable.getOffset());
         }
-        qry.setLiteral("?loggedInUser", user);
 
         try (RDFConnection connection = getConnection()) {
             try (QueryExecution queryExecution = connection.query(qry.asQuery())) {
@@ -794,14 +775,7 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
                 List<TaskDisplayDTO> resultList = new ArrayList<>();
 
                 while (set.hasNext()) {
-                    QuerySolution querySolution = set.nextSolution();
-
-                    String assignmentId = querySolution.getLiteral("?assignmentId").getString();
-                    String header = querySolution.getLiteral("?header").getString();
-                    String internalCreator = querySolution.getLiteral("?internalCreator").getString();
-                    boolean privateTask = querySolution.getLiteral("?privateTask").getBoolean();
-
-                    resultList.add(new TaskDisplayDTO(assignmentId, header, internalCreator, privateTask));
+                    resultList.add(toTaskDisplay(set.nextSolution()));
                 }
 
                 boolean hasNext = pageable.isPaged() && resultList.size() > pageable.getPageSize();
@@ -810,6 +784,30 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
         }
     }
 
+    /**
+     * Returns a page of the unfiltered task display list, which is ordered by the task header
+     * and selected by a continuation token.
+     *
+     * @param user              the currently logged-in user
+     * @param continuationToken the continuation token of the previous page, null for the first page
+     * @param size              the page size
+     * @return page of the task displays
+     * @throws InvalidContinuationTokenException if the continuation token is invalid
+     */
+    public KeysetSlice<TaskDisplayDTO> findAllTasks(String user, String continuationToken, int size) throws InvalidContinuationTokenException {
+        Objects.requireNonNull(user);
+
+        List<String> after = TASK_DISPLAY_KEYSET.decode(continuationToken);
+        ParameterizedSparqlString qry = createTaskDisplayQuery(user, after);
+        TASK_DISPLAY_KEYSET.appendLimit(qry, size);
+
+        try (RDFConnection connection = getConnection()) {
+            try (QueryExecution queryExecution = connection.query(qry.asQuery())) {
+                return TASK_DISPLAY_KEYSET.read(queryExecution.execSelect(), size, this::toTaskDisplay, null);
+            }
+        }
+    }
+
     /**
      * Returns the list of assigned learning goal ids of the given task assignment.
      *
@@ -905,6 +903,7 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
 
             connection.load(model);
         }
+        searchIndex.refreshTaskGroup(resource.getURI());
 
         return new TaskGroupDTO(newTaskGroupDTO.getName(),
             newTaskGroupDTO.getDescription(),
@@ -945,6 +944,9 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
         try (RDFConnection connection = getConnection()) {
             connection.update(query.asUpdate());
         }
+        taskAssignmentCache.invalidateTaskGroup(id);
+        taskAssignmentCache.invalidateAllTaskAssignments();
+        searchIndex.refreshTaskGroup(id);
     }
 
     /**
@@ -969,6 +971,7 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
         try (RDFConnection connection = getConnection()) {
             connection.update(query.asUpdate());
         }
+        taskAssignmentCache.invalidateTaskGroup(taskGroupDTO.getId());
     }
 
     /**
@@ -1168,6 +1171,7 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
         try (RDFConnection connection = getConnection()) {
             connection.update(query.asUpdate());
         }
+        taskAssignmentCache.invalidateTaskGroup(taskGroupDTO.getId());
 
         // Call helper methods for task-group-type-specific modifications if necessary
         if(taskGroupDTO.getTaskGroupTypeId().equals(ETutorVocabulary.SQLTypeTaskGroup.toString())) {
@@ -1242,6 +1246,7 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
         try (RDFConnection connection = getConnection()) {
             connection.update(query.asUpdate());
         }
+        taskAssignmentCache.invalidateTaskGroup(taskGroupDTO.getId());
 
         return taskGroupDTO;
     }
@@ -1282,6 +1287,7 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
         try (RDFConnection connection = getConnection()) {
             connection.update(query.asUpdate());
         }
+        taskAssignmentCache.invalidateTaskGroup(taskGroupDTO.getId());
 
         return taskGroupDTO;
     }
@@ -1336,6 +1342,7 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
     try (RDFConnection connection = getConnection()) {
         connection.update(query.asUpdate());
     }
+    taskAssignmentCache.invalidateTaskGroup(taskGroupDTO.getId());
 
     return taskGroupDTO;
     }
@@ -1375,6 +1382,7 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
         try (RDFConnection connection = getConnection()) {
             connection.update(query.asUpdate());
         }
+        taskAssignmentCache.invalidateTaskGroup(taskGroupDTO.getId());
 
         return taskGroupDTO;
     }
@@ -1389,31 +1397,13 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
         Objects.requireNonNull(name);
         String id = ETutorVocabulary.getTaskGroupIdFromName(name);
 
-        ParameterizedSparqlString query = new ParameterizedSparqlString("""
-            PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-
-            CONSTRUCT {
-              ?group ?predicate ?object.
-            } WHERE {
-              ?group ?predicate ?object.
-            }
-            """);
-        query.setIri("?group", id);
-
-        try (RDFConnection connection = getConnection()) {
-            Model resultModel = connection.queryConstruct(query.asQuery());
-            Resource resource = resultModel.getResource(id);
-
-            if (resultModel.isEmpty() || resource == null) {
-                return Optional.empty();
-            }
-
-            return Optional.of(new TaskGroupDTO(resource));
-        }
+        return taskAssignmentCache.getTaskGroup(id)
+            .map(model -> new TaskGroupDTO(model.getResource(id)));
     }
 
     /**
-     * Returns the paged list of task groups.
+     * Returns the paged list of task groups. Filtered requests are answered by the search index
+     * and ordered by relevance, the unfiltered list is ordered by the name.
      *
      * @param nameQry the name filter, may be null or blank
      * @param page    the page object, must be null
@@ -1422,36 +1412,11 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
     public Page<TaskGroupDisplayDTO> getFilteredTaskGroupPaged(String nameQry, Pageable page) {
         Objects.requireNonNull(page);
 
-        ParameterizedSparqlString countQry = new ParameterizedSparqlString("""
-            PREFIX text:   <http://jena.apache.org/text#>
-            PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-
-            SELECT (COUNT(?taskGroup) AS ?cnt)
-            WHERE {
-            """);
-        ParameterizedSparqlString selectQry = new ParameterizedSparqlString("""
-            PREFIX text:   <http://jena.apache.org/text#>
-            PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-
-            SELECT (STR(?taskGroup) AS ?id) ?taskGroupName
-            WHERE {
-            """);
-
         if (StringUtils.isNotBlank(nameQry)) {
-            countQry.append(String.format("?taskGroup text:query (rdfs:label \"*%s*\").%n", nameQry));
-            selectQry.append(String.format("?taskGroup text:query (rdfs:label \"*%s*\").%n", nameQry));
+            return searchIndex.searchTaskGroups(nameQry, page);
         }
 
-        countQry.append("""
-              ?taskGroup a etutor:TaskGroup.
-            }
-            """);
-        selectQry.append("""
-              ?taskGroup a etutor:TaskGroup.
-              ?taskGroup etutor:hasTaskGroupName ?taskGroupName
-            }
-            ORDER BY (LCASE(?taskGroupName))
-            """);
+        ParameterizedSparqlString selectQry = createTaskGroupDisplayQuery(null);
 
         if (page.isPaged()) {
             selectQry.append("LIMIT ");
@@ -1467,127 +1432,34 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
                 ResultSet set = queryExecution.execSelect();
 
                 while (set.hasNext()) {
-                    QuerySolution solution = set.nextSolution();
-                    String id = solution.getLiteral("?id").getString();
-                    String taskGroupName = solution.getLiteral("?taskGroupName").getString();
-
-                    taskGroupList.add(new TaskGroupDisplayDTO(id, taskGroupName));
+                    taskGroupList.add(toTaskGroupDisplay(set.nextSolution()));
                 }
             }
-
-            try (QueryExecution queryExecution = connection.query(countQry.asQuery())) {
-                ResultSet set = queryExecution.execSelect();
-                //noinspection ResultOfMethodCallIgnored
-                set.hasNext();
-                count = set.nextSolution().getLiteral("?cnt").getInt();
-            }
+            count = countTaskGroups(connection);
 
             return PageableExecutionUtils.getPage(taskGroupList, page, () -> count);
         }
     }
 
-    public Optional<Integer> getMaxPointsForTaskAssignmentByIndividualTask(String matriculationNumber, String courseInstanceUUID, String exerciseSheetUUID, int orderNo) {
-        Objects.requireNonNull(matriculationNumber);
-        Objects.requireNonNull(courseInstanceUUID);
-        Objects.requireNonNull(exerciseSheetUUID);
-        assert orderNo > 0;
-
-        String courseInstanceURL = ETutorVocabulary.createCourseInstanceURLString(courseInstanceUUID);
-        String exerciseSheetURL = ETutorVocabulary.createExerciseSheetURLString(exerciseSheetUUID);
-        String studentURL = ETutorVocabulary.getStudentURLFromMatriculationNumber(matriculationNumber);
-
-        ParameterizedSparqlString query = new ParameterizedSparqlString(QRY_ASK_MAX_POINTS_FOR_TASK_ASSIGNMENT);
-        query.setIri("?courseInstance", courseInstanceURL);
-        query.setIri("?student", studentURL);
-        query.setIri("?sheet", exerciseSheetURL);
-        query.setLiteral("?orderNo", orderNo );
-
-        try (RDFConnection connection = getConnection()) {
-            try (QueryExecution execution = connection.query(query.asQuery())) {
-                ResultSet set = execution.execSelect();
-
-                if (set.hasNext()) {
-                    QuerySolution solution = set.nextSolution();
-                    Literal pointsLiteral = solution.getLiteral("?maxPoints");
-
-                    if (pointsLiteral == null) {
-                        return Optional.of(0);
-                    }
-                    return Optional.of(pointsLiteral.getInt());
-                } else {
-                    return Optional.of(0);
-                }
-            }
-        }
-    }
-
-
-    public Optional<String> getStartTimeForTaskAssignmentByIndividualTask(String matriculationNumber, String courseInstanceUUID, String exerciseSheetUUID, int orderNo) {
-        Objects.requireNonNull(matriculationNumber);
-        Objects.requireNonNull(courseInstanceUUID);
-        Objects.requireNonNull(exerciseSheetUUID);
-        assert orderNo > 0;
-
-        String courseInstanceURL = ETutorVocabulary.createCourseInstanceURLString(courseInstanceUUID);
-        String exerciseSheetURL = ETutorVocabulary.createExerciseSheetURLString(exerciseSheetUUID);
-        String studentURL = ETutorVocabulary.getStudentURLFromMatriculationNumber(matriculationNumber);
-
-        ParameterizedSparqlString query = new ParameterizedSparqlString(QRY_ASK_MAX_POINTS_FOR_TASK_ASSIGNMENT);
-        query.setIri("?courseInstance", courseInstanceURL);
-        query.setIri("?student", studentURL);
-        query.setIri("?sheet", exerciseSheetURL);
-        query.setLiteral("?orderNo", orderNo );
-
-        try (RDFConnection connection = getConnection()) {
-            try (QueryExecution execution = connection.query(query.asQuery())) {
-                ResultSet set = execution.execSelect();
-
-                if (set.hasNext()) {
-                    QuerySolution solution = set.nextSolution();
-                    Literal startTime = solution.getLiteral("?startTime");
-
-                    if (startTime == null) {
-                        return Optional.empty();
-                    }
-                    return Optional.of(startTime.getString());
-                } else {
-                    return Optional.empty();
-                }
-            }
-        }
-    }
-
-    public Optional<String> getEndTimeForTaskAssignmentByIndividualTask(String matriculationNumber, String courseInstanceUUID, String exerciseSheetUUID, int orderNo) {
-        Objects.requireNonNull(matriculationNumber);
-        Objects.requireNonNull(courseInstanceUUID);
-        Objects.requireNonNull(exerciseSheetUUID);
-        assert orderNo > 0;
-
-        String courseInstanceURL = ETutorVocabulary.createCourseInstanceURLString(courseInstanceUUID);
-        String exerciseSheetURL = ETutorVocabulary.createExerciseSheetURLString(exerciseSheetUUID);
-        String studentURL = ETutorVocabulary.getStudentURLFromMatriculationNumber(matriculationNumber);
-
-        ParameterizedSparqlString query = new ParameterizedSparqlString(QRY_ASK_MAX_POINTS_FOR_TASK_ASSIGNMENT);
-        query.setIri("?courseInstance", courseInstanceURL);
-        query.setIri("?student", studentURL);
-        query.setIri("?sheet", exerciseSheetURL);
-        query.setLiteral("?orderNo", orderNo );
+    /**
+     * Returns a page of the unfiltered task group list, which is ordered by the name and selected
+     * by a continuation token. The task groups are only counted for the first page.
+     *
+     * @param continuationToken the continuation token of the previous page, null for the first page
+     * @param size              the page size
+     * @return page of the task groups
+     * @throws InvalidContinuationTokenException if the continuation token is invalid
+     */
+    public KeysetSlice<TaskGroupDisplayDTO> getTaskGroupsPaged(String continuationToken, int size) throws InvalidContinuationTokenException {
+        List<String> after = TASK_GROUP_DISPLAY_KEYSET.decode(continuationToken);
+        ParameterizedSparqlString selectQry = createTaskGroupDisplayQuery(after);
+        TASK_GROUP_DISPLAY_KEYSET.appendLimit(selectQry, size);
 
         try (RDFConnection connection = getConnection()) {
-            try (QueryExecution execution = connection.query(query.asQuery())) {
-                ResultSet set = execution.execSelect();
+            Long count = after == null ? countTaskGroups(connection) : null;
 
-                if (set.hasNext()) {
-                    QuerySolution solution = set.nextSolution();
-                    Literal endTime = solution.getLiteral("?endTime");
-
-                    if (endTime == null) {
-                        return Optional.empty();
-                    }
-                    return Optional.of(endTime.getString());
-                } else {
-                    return Optional.empty();
-                }
+            try (QueryExecution queryExecution = connection.query(selectQry.asQuery())) {
+                return TASK_GROUP_DISPLAY_KEYSET.read(queryExecution.execSelect(), size, this::toTaskGroupDisplay, count);
             }
         }
     }
@@ -1791,5 +1663,78 @@ public /*non-sealed*/ class  AssignmentSPARQLEndpointService extends AbstractSPA
         return resource;
     }
 
+    /**
+     * Creates the ordered query of the unfiltered task display list.
+     *
+     * @param user  the currently logged-in user
+     * @param after the key values of the last task of the previous page, may be null
+     * @return the query
+     */
+    private ParameterizedSparqlString createTaskDisplayQuery(String user, List<String> after) {
+        ParameterizedSparqlString qry = new ParameterizedSparqlString(QRY_SELECT_TASK_DISPLAYS);
+        TASK_DISPLAY_KEYSET.appendFilter(qry, after);
+        qry.append("}\n");
+        TASK_DISPLAY_KEYSET.appendOrderBy(qry);
+        qry.setLiteral("?loggedInUser", user);
+        return qry;
+    }
+
+    /**
+     * Converts a row of the task display list.
+     *
+     * @param solution the row
+     * @return the task display
+     */
+    private TaskDisplayDTO toTaskDisplay(QuerySolution solution) {
+        String assignmentId = solution.getLiteral("?assignmentId").getString();
+        String header = solution.getLiteral("?header").getString();
+        String internalCreator = solution.getLiteral("?internalCreator").getString();
+        boolean privateTask = solution.getLiteral("?privateTask").getBoolean();
+
+        return new TaskDisplayDTO(assignmentId, header, internalCreator, privateTask);
+    }
+
+    /**
+     * Creates the ordered query of the unfiltered task group list.
+     *
+     * @param after the key values of the last task group of the previous page, may be null
+     * @return the query
+     */
+    private ParameterizedSparqlString createTaskGroupDisplayQuery(List<String> after) {
+        ParameterizedSparqlString qry = new ParameterizedSparqlString(QRY_SELECT_TASK_GROUP_DISPLAYS);
+        TASK_GROUP_DISPLAY_KEYSET.appendFilter(qry, after);
+        qry.append("}\n");
+        TASK_GROUP_DISPLAY_KEYSET.appendOrderBy(qry);
+        return qry;
+    }
+
+    /**
+     * Counts the task groups.
+     *
+     * @param connection the rdf connection
+     * @return the number of task groups
+     */
+    private long countTaskGroups(RDFConnection connection) {
+        try (QueryExecution queryExecution = connection.query(QRY_COUNT_TASK_GROUPS)) {
+            ResultSet set = queryExecution.execSelect();
+            //noinspection ResultOfMethodCallIgnored
+            set.hasNext();
+            return set.nextSolution().getLiteral("?cnt").getInt();
+        }
+    }
+
+    /**
+     * Converts a row of the task group list.
+     *
+     * @param solution the row
+     * @return the task group display
+     */
+    private TaskGroupDisplayDTO toTaskGroupDisplay(QuerySolution solution) {
+        String id = solution.getLiteral("?id").getString();
+        String taskGroupName = solution.getLiteral("?taskGroupName").getString();
+
+        return new TaskGroupDisplayDTO(id, taskGroupName);
+    }
+
     //endregion
 }
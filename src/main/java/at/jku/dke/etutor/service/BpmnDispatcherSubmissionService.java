@@ -6,18 +6,25 @@ import at.jku.dke.etutor.service.exception.DispatcherRequestFailedException;
 import at.jku.dke.etutor.service.client.bpmn.BpmnSubmissionClient;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BpmnDispatcherSubmissionService {
+    private final Logger log = LoggerFactory.getLogger(BpmnDispatcherSubmissionService.class);
     private final BpmnSubmissionClient bpmnSubmissionClient;
+    private final DispatcherPayloadCache dispatcherPayloadCache;
     private final ObjectMapper mapper = new ObjectMapper();
 
-    public BpmnDispatcherSubmissionService(BpmnSubmissionClient bpmnSubmissionClient) {
+    public BpmnDispatcherSubmissionService(BpmnSubmissionClient bpmnSubmissionClient, DispatcherPayloadCache dispatcherPayloadCache) {
         this.bpmnSubmissionClient = bpmnSubmissionClient;
+        this.dispatcherPayloadCache = dispatcherPayloadCache;
     }
 
     /**
@@ -26,9 +33,20 @@ public class BpmnDispatcherSubmissionService {
      * @param UUID the UUID
      * @return the Bpmn submission
      * @throws JsonProcessingException if the returned value cannot be deserialized
+     * @throws DispatcherRequestFailedException if the dispatcher did not return the submission
      */
     public SubmissionDTO getBpmnSubmission(String UUID) throws JsonProcessingException, DispatcherRequestFailedException {
-        return mapper.readValue(bpmnSubmissionClient.getBpmnSubmission(UUID).getBody(), SubmissionDTO.class);
+        return mapper.readValue(getBody(DispatcherSubmissionService.await(getBpmnSubmissionResponseAsync(UUID))), SubmissionDTO.class);
+    }
+
+    /**
+     * Returns the Bpmn dispatcher's response for the submission with the given UUID, which is served from the cache if possible
+     *
+     * @param UUID the UUID
+     * @return the future of the response
+     */
+    public CompletableFuture<ResponseEntity<String>> getBpmnSubmissionResponseAsync(String UUID) {
+        return dispatcherPayloadCache.getAsync(DispatcherPayloadCache.PayloadType.BPMN_SUBMISSION, UUID, bpmnSubmissionClient::getBpmnSubmissionAsync);
     }
 
     /**
@@ -37,26 +55,53 @@ public class BpmnDispatcherSubmissionService {
      * @param UUID the UUID
      * @return the grading
      * @throws JsonProcessingException if the returned value cannot be parsed
+     * @throws DispatcherRequestFailedException if the dispatcher did not return the grading
      */
     public GradingDTO getBpmnGrading(String UUID) throws JsonProcessingException, DispatcherRequestFailedException {
-        return mapper.readValue(bpmnSubmissionClient.getBpmnGrading(UUID).getBody(), GradingDTO.class);
+        return mapper.readValue(getBody(DispatcherSubmissionService.await(getBpmnGradingResponseAsync(UUID))), GradingDTO.class);
+    }
+
+    /**
+     * Returns the Bpmn dispatcher's response for the grading with the given UUID, which is served from the cache if possible
+     *
+     * @param UUID the UUID
+     * @return the future of the response
+     */
+    public CompletableFuture<ResponseEntity<String>> getBpmnGradingResponseAsync(String UUID) {
+        return dispatcherPayloadCache.getAsync(DispatcherPayloadCache.PayloadType.BPMN_GRADING, UUID, bpmnSubmissionClient::getBpmnGradingAsync);
+    }
+
+    /**
+     * Returns the body of a successful response from the dispatcher
+     * @param response the response
+     * @return the body
+     * @throws DispatcherRequestFailedException if the dispatcher did not answer successfully
+     */
+    private String getBody(ResponseEntity<String> response) throws DispatcherRequestFailedException {
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null)
+            throw new DispatcherRequestFailedException("The Bpmn dispatcher answered with status " + response.getStatusCodeValue());
+        return response.getBody();
     }
 
     /**
      * Returns the submission string for a given submission, identified by its UUID.
      * Also checks if the passed UUID is an actual UUID.
      * @param submissionUUID the UUID (dispatcher) for the submission
-     * @return the submission string
+     * @return the submission string, or an empty optional if the submission could not be fetched from the dispatcher
      */
     public Optional<String> getSubmissionStringFromSubmissionUUID(String submissionUUID) {
         try {
             UUID.fromString(submissionUUID); // check if submission is valid UUID; throws Exception if not (legacy requirement)
+        } catch (IllegalArgumentException ex) {
+            return Optional.of(submissionUUID); //legacy requirement; some persisted submissions might not be UUIDs, but actual submission strings
+        }
+        try {
             var submissionDTO = getBpmnSubmission(submissionUUID);
 
             return Optional.ofNullable(new ObjectMapper().writeValueAsString(submissionDTO.getPassedAttributes()));
-        } catch (IllegalArgumentException | JsonProcessingException | DispatcherRequestFailedException ex) {
-            // Todo: handle exceptions
+        } catch (JsonProcessingException | DispatcherRequestFailedException ex) {
+            log.warn("Could not fetch submission {} from the Bpmn dispatcher: {}", submissionUUID, ex.getMessage());
         }
-        return Optional.of(submissionUUID); //legacy requirement; some persisted submissions might not be UUIDs, but actual submission strings
+        return Optional.empty();
     }
 }
@@ -0,0 +1,284 @@
+package at.jku.dke.etutor.service;
+
+import at.jku.dke.etutor.calc.models.Feedback;
+import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.service.dto.student.CalcCorrectionJobDTO;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service which corrects calc submissions asynchronously.
+ * <p>
+ * The parsing and correction of the spreadsheets run on a bounded worker pool, so that a burst of submissions
+ * does not occupy the web worker threads. A correction of the same files which is requested by a student while an
+ * equal job is queued or running is de-duplicated against this job. Finished jobs are kept for the configured
+ * retention so that their status can be polled.
+ *
+ * @author fne
+ */
+@Service
+public class CalcCorrectionJobService implements MeterBinder {
+
+    /**
+     * The status of a correction job.
+     */
+    public enum JobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private static final String METER_PREFIX = "etutor.calc.correction";
+
+    private final Logger log = LoggerFactory.getLogger(CalcCorrectionJobService.class);
+
+    private final StudentService studentService;
+
+    private final ThreadPoolExecutor executor;
+    private final Duration requestTimeout;
+    private final Cache<String, CorrectionJob> jobs;
+    private final Map<JobKey, CorrectionJob> inFlightJobs = new ConcurrentHashMap<>();
+
+    private volatile Timer waitTimer;
+    private volatile Timer executionTimer;
+
+    /**
+     * Constructor.
+     *
+     * @param studentService        the injected student service
+     * @param applicationProperties the injected application properties
+     */
+    public CalcCorrectionJobService(StudentService studentService, ApplicationProperties applicationProperties) {
+        this.studentService = studentService;
+
+        ApplicationProperties.CalcCorrection properties = applicationProperties.getCalcCorrection();
+        executor = new ThreadPoolExecutor(properties.getWorkerThreads(), properties.getWorkerThreads(),
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+            new ThreadFactoryBuilder().setNameFormat("calc-correction-job-%d").setDaemon(true).build());
+        requestTimeout = properties.getRequestTimeout();
+
+        jobs = CacheBuilder.newBuilder()
+            .expireAfterWrite(properties.getJobRetention())
+            .build();
+    }
+
+    /**
+     * Shuts the worker pool down. Queued jobs are discarded.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        Gauge.builder(METER_PREFIX + ".queued", executor, e -> e.getQueue().size())
+            .description("The number of queued calc correction jobs")
+            .register(registry);
+        Gauge.builder(METER_PREFIX + ".active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("The number of running calc correction jobs")
+            .register(registry);
+        waitTimer = Timer.builder(METER_PREFIX + ".wait")
+            .description("The time calc correction jobs wait in the queue")
+            .register(registry);
+        executionTimer = Timer.builder(METER_PREFIX + ".execution")
+            .description("The time needed to parse and correct a calc submission")
+            .register(registry);
+    }
+
+    /**
+     * Returns the time for which a request waits for the result of a job.
+     *
+     * @return the request timeout
+     */
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * Submits the correction of a calc submission. If an equal job of the student is queued or running,
+     * this job is returned instead. If the queue is full, the returned job has failed and its result
+     * completes with a {@link RejectedExecutionException}.
+     *
+     * @param login                   the login of the student who requested the correction
+     * @param writerInstructionFileId the id of the writer instruction file
+     * @param calcSolutionFileId      the id of the calc solution file
+     * @param calcSubmissionFileId    the id of the calc submission file
+     * @return the job
+     */
+    public CalcCorrectionJob submit(String login, long writerInstructionFileId, long calcSolutionFileId, long calcSubmissionFileId) {
+        Objects.requireNonNull(login);
+
+        JobKey key = new JobKey(login, writerInstructionFileId, calcSolutionFileId, calcSubmissionFileId);
+        CorrectionJob[] created = new CorrectionJob[1];
+        CorrectionJob job = inFlightJobs.computeIfAbsent(key, k -> {
+            created[0] = new CorrectionJob(login);
+            return created[0];
+        });
+
+        if (created[0] == null) {
+            log.debug("Calc correction of submission {} for {} is already {}", calcSubmissionFileId, login, job.status);
+            return job;
+        }
+        jobs.put(job.id, job);
+        job.result.whenComplete((feedback, throwable) -> inFlightJobs.remove(key, job));
+
+        try {
+            executor.execute(() -> run(job, writerInstructionFileId, calcSolutionFileId, calcSubmissionFileId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Calc correction queue is full, rejected submission {} for {}", calcSubmissionFileId, login);
+            job.fail(e);
+        }
+        return job;
+    }
+
+    /**
+     * Returns the status of a job of the given student.
+     *
+     * @param jobId the id of the job
+     * @param login the login of the student
+     * @return an optional containing the job status, or an empty optional if the student has no such job
+     */
+    public Optional<CalcCorrectionJobDTO> getJob(String jobId, String login) {
+        Objects.requireNonNull(jobId);
+        Objects.requireNonNull(login);
+
+        return Optional.ofNullable(jobs.getIfPresent(jobId))
+            .filter(job -> job.login.equals(login))
+            .map(CorrectionJob::toDTO);
+    }
+
+    /**
+     * Corrects the submission and completes the job.
+     *
+     * @param job                     the job
+     * @param writerInstructionFileId the id of the writer instruction file
+     * @param calcSolutionFileId      the id of the calc solution file
+     * @param calcSubmissionFileId    the id of the calc submission file
+     */
+    private void run(CorrectionJob job, long writerInstructionFileId, long calcSolutionFileId, long calcSubmissionFileId) {
+        long start = System.nanoTime();
+        record(waitTimer, Duration.between(job.submitted, Instant.now()).toNanos());
+        job.status = JobStatus.RUNNING;
+        try {
+            Feedback feedback = studentService.correctCalcTask(writerInstructionFileId, calcSolutionFileId, calcSubmissionFileId);
+            if (feedback == null) {
+                job.fail(new IllegalStateException("The calc submission " + calcSubmissionFileId + " could not be corrected"));
+            } else {
+                job.complete(feedback);
+            }
+        } catch (RuntimeException e) {
+            log.error("Calc correction of submission " + calcSubmissionFileId + " for " + job.login + " failed", e);
+            job.fail(e);
+        } finally {
+            record(executionTimer, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records a duration if the metrics are bound.
+     *
+     * @param timer the timer
+     * @param nanos the duration in nanoseconds
+     */
+    private static void record(Timer timer, long nanos) {
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * A submitted calc correction job.
+     */
+    public interface CalcCorrectionJob {
+
+        /**
+         * Returns the status of the job.
+         *
+         * @return the status
+         */
+        CalcCorrectionJobDTO toDTO();
+
+        /**
+         * Returns the result of the job, which completes with the feedback of the correction.
+         *
+         * @return the future of the feedback
+         */
+        CompletableFuture<Feedback> getResult();
+    }
+
+    /**
+     * A correction job.
+     */
+    private static final class CorrectionJob implements CalcCorrectionJob {
+        private final String id = UUID.randomUUID().toString();
+        private final Instant submitted = Instant.now();
+        private final String login;
+        private final CompletableFuture<Feedback> result = new CompletableFuture<>();
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile Feedback feedback;
+        private volatile Instant finished;
+
+        private CorrectionJob(String login) {
+            this.login = login;
+        }
+
+        private void complete(Feedback feedback) {
+            this.feedback = feedback;
+            this.finished = Instant.now();
+            this.status = JobStatus.COMPLETED;
+            result.complete(feedback);
+        }
+
+        private void fail(Throwable throwable) {
+            this.finished = Instant.now();
+            this.status = JobStatus.FAILED;
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public CalcCorrectionJobDTO toDTO() {
+            Feedback completedFeedback = feedback;
+            return new CalcCorrectionJobDTO(id, status.name(),
+                completedFeedback == null ? null : completedFeedback.isCorrect(),
+                completedFeedback == null ? null : completedFeedback.getTextualFeedback(),
+                submitted, finished);
+        }
+
+        @Override
+        public CompletableFuture<Feedback> getResult() {
+            return result;
+        }
+    }
+
+    /**
+     * De-duplication key of the queued and running jobs.
+     */
+    private record JobKey(String login, long writerInstructionFileId, long calcSolutionFileId, long calcSubmissionFileId) {
+    }
+}
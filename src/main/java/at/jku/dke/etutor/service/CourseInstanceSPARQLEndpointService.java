@@ -9,6 +9,9 @@ import at.jku.dke.etutor.service.dto.courseinstance.StudentInfoDTO;
 import at.jku.dke.etutor.service.dto.exercisesheet.ExerciseSheetDisplayDTO;
 import at.jku.dke.etutor.service.exception.CourseInstanceNotFoundException;
 import at.jku.dke.etutor.service.exception.CourseNotFoundException;
+import at.jku.dke.etutor.service.exception.InvalidContinuationTokenException;
+import at.jku.dke.etutor.service.pagination.Keyset;
+import at.jku.dke.etutor.service.pagination.KeysetSlice;
 import one.util.streamex.StreamEx;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
@@ -174,17 +177,60 @@ public /*non-sealed */class CourseInstanceSPARQLEndpointService extends Abstract
             }
             """;
 
+    private static final String QRY_SELECT_LECTURER_COURSE_INSTANCES =
+        """
+            PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+            PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>
+
+            SELECT (str(?instance) as ?instanceId) ?year (str(?term) as ?termId) ?instanceName (COUNT(?student) as ?studentCnt)
+            WHERE {
+              ?course etutor:hasCourseCreator ?creator.
+              ?course a etutor:Course.
+              ?instance etutor:hasCourse ?course.
+              ?instance a etutor:CourseInstance.
+              ?instance rdfs:label ?instanceName.
+              ?instance etutor:hasInstanceYear ?year.
+              ?instance etutor:hasTerm ?term.
+              OPTIONAL {
+                ?instance etutor:hasStudent ?student
+              }
+            """;
+
+    private static final String QRY_COUNT_LECTURER_COURSE_INSTANCES =
+        """
+            PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+
+            SELECT (COUNT(?courseInstance) AS ?cnt)
+            WHERE {
+              ?course etutor:hasCourseCreator ?creator.
+              ?course a etutor:Course.
+              ?courseInstance etutor:hasCourse ?course.
+              ?courseInstance a etutor:CourseInstance.
+            }
+            """;
+
+    private static final Keyset LECTURER_COURSE_INSTANCE_KEYSET = new Keyset(
+        new Keyset.Key("?year", "?year", XSDDatatype.XSDint),
+        Keyset.Key.of("STR(?term)", "?termId"),
+        Keyset.Key.of("STR(?instanceName)", "?instanceName"),
+        Keyset.Key.of("STR(?instance)", "?instanceId")
+    );
+
     private final UserService userService;
+    private final StudentProgressProjection studentProgressProjection;
 
     /**
      * Constructor.
      *
-     * @param rdfConnectionFactory the injected rdf connection factory
-     * @param userService          the injected user service
+     * @param rdfConnectionFactory      the injected rdf connection factory
+     * @param userService               the injected user service
+     * @param studentProgressProjection the injected student progress projection
      */
-    public CourseInstanceSPARQLEndpointService(RDFConnectionFactory rdfConnectionFactory, UserService userService) {
+    public CourseInstanceSPARQLEndpointService(RDFConnectionFactory rdfConnectionFactory, UserService userService,
+                                               StudentProgressProjection studentProgressProjection) {
         super(rdfConnectionFactory);
         this.userService = userService;
+        this.studentProgressProjection = studentProgressProjection;
     }
 
     /**
@@ -270,6 +316,7 @@ public /*non-sealed */class CourseInstanceSPARQLEndpointService extends Abstract
             updateQry.setIri("?courseInstance", courseInstanceId);
             connection.update(updateQry.asUpdate());
         }
+        studentProgressProjection.invalidateCourseInstance(courseInstanceId);
     }
 
     /**
@@ -385,38 +432,8 @@ public /*non-sealed */class CourseInstanceSPARQLEndpointService extends Abstract
         Objects.requireNonNull(login);
         Objects.requireNonNull(page);
 
-        ParameterizedSparqlString selectQry = new ParameterizedSparqlString("""
-            PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-            PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>
-
-            SELECT (str(?instance) as ?instanceId) ?year (str(?term) as ?termId) ?instanceName (COUNT(?student) as ?studentCnt)
-            WHERE {
-              ?course etutor:hasCourseCreator ?creator.
-              ?course a etutor:Course.
-              ?instance etutor:hasCourse ?course.
-              ?instance a etutor:CourseInstance.
-              ?instance rdfs:label ?instanceName.
-              ?instance etutor:hasInstanceYear ?year.
-              ?instance etutor:hasTerm ?term.
-              OPTIONAL {
-                ?instance etutor:hasStudent ?student
-              }
-            }
-            GROUP BY ?instance ?year ?term ?instanceName
-            ORDER BY ?year ?term ?instanceName
-            """);
-
-        ParameterizedSparqlString countQry = new ParameterizedSparqlString("""
-            PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-
-            SELECT (COUNT(?courseInstance) AS ?cnt)
-            WHERE {
-              ?course etutor:hasCourseCreator ?creator.
-              ?course a etutor:Course.
-              ?courseInstance etutor:hasCourse ?course.
-              ?courseInstance a etutor:CourseInstance.
-            }
-            """);
+        ParameterizedSparqlString selectQry = createLecturerCourseInstanceQuery(login, null);
+        ParameterizedSparqlString countQry = new ParameterizedSparqlString(QRY_COUNT_LECTURER_COURSE_INSTANCES);
 
         if (page.isPaged()) {
             selectQry.append("LIMIT ");
@@ -425,12 +442,43 @@ public /*non-sealed */class CourseInstanceSPARQLEndpointService extends Abstract
             selectQry.append(page.getOffset());
         }
 
-        selectQry.setLiteral("?creator", login);
         countQry.setLiteral("?creator", login);
 
         return retrieveDisplayableCoursePageFromQuery(page, selectQry, countQry);
     }
 
+    /**
+     * Returns a page of the course instances of a user who is a course instructor, which is selected
+     * by a continuation token. The course instances are only counted for the first page.
+     *
+     * @param login             the user's login (AK number)
+     * @param continuationToken the continuation token of the previous page, null for the first page
+     * @param size              the page size
+     * @return page of course instances
+     * @throws InvalidContinuationTokenException if the continuation token is invalid
+     */
+    public KeysetSlice<DisplayableCourseInstanceDTO> getDisplayableCourseInstancesForLecturer(String login, String continuationToken, int size)
+        throws InvalidContinuationTokenException {
+        Objects.requireNonNull(login);
+
+        List<String> after = LECTURER_COURSE_INSTANCE_KEYSET.decode(continuationToken);
+        ParameterizedSparqlString selectQry = createLecturerCourseInstanceQuery(login, after);
+        LECTURER_COURSE_INSTANCE_KEYSET.appendLimit(selectQry, size);
+
+        try (RDFConnection connection = getConnection()) {
+            Long count = null;
+            if (after == null) {
+                ParameterizedSparqlString countQry = new ParameterizedSparqlString(QRY_COUNT_LECTURER_COURSE_INSTANCES);
+                countQry.setLiteral("?creator", login);
+                count = (long) countCourseInstances(connection, countQry);
+            }
+
+            try (QueryExecution execution = connection.query(selectQry.asQuery())) {
+                return LECTURER_COURSE_INSTANCE_KEYSET.read(execution.execSelect(), size, this::toDisplayableCourseInstance, count);
+            }
+        }
+    }
+
     /**
      * Returns the page of displayable course instances.
      *
@@ -540,6 +588,7 @@ public /*non-sealed */class CourseInstanceSPARQLEndpointService extends Abstract
 
             connection.update(qry.asUpdate());
         }
+        studentProgressProjection.invalidateCourseInstance(courseInstanceUri);
     }
 
     /**
@@ -615,6 +664,7 @@ public /*non-sealed */class CourseInstanceSPARQLEndpointService extends Abstract
             connection.update(dropNamedGraphQry.asUpdate());
             connection.update(deleteCourseInstanceQry.asUpdate());
         }
+        studentProgressProjection.invalidateCourseInstance(courseInstanceUri);
     }
 
     /**
@@ -642,6 +692,7 @@ public /*non-sealed */class CourseInstanceSPARQLEndpointService extends Abstract
         try (RDFConnection connection = getConnection()) {
             connection.update(query.asUpdate());
         }
+        studentProgressProjection.exerciseSheetClosed(exerciseSheetUrl);
     }
 
     //region Private helper methods
@@ -664,26 +715,65 @@ public /*non-sealed */class CourseInstanceSPARQLEndpointService extends Abstract
                 ResultSet set = execution.execSelect();
 
                 while (set.hasNext()) {
-                    QuerySolution solution = set.nextSolution();
-                    String id = solution.getLiteral("?instanceId").getString();
-                    int year = solution.getLiteral("?year").getInt();
-                    String termId = solution.getLiteral("?termId").getString();
-                    int studentCount = solution.getLiteral("?studentCnt").getInt();
-                    String name = solution.getLiteral("?instanceName").getString();
-                    list.add(new DisplayableCourseInstanceDTO(id, name, studentCount, year, termId));
+                    list.add(toDisplayableCourseInstance(set.nextSolution()));
                 }
             }
-            try (QueryExecution execution = connection.query(countQry.asQuery())) {
-                ResultSet set = execution.execSelect();
-                //noinspection ResultOfMethodCallIgnored
-                set.hasNext();
-                QuerySolution solution = set.nextSolution();
-                count = solution.getLiteral("?cnt").getInt();
-            }
+            count = countCourseInstances(connection, countQry);
             return PageableExecutionUtils.getPage(list, page, () -> count);
         }
     }
 
+    /**
+     * Creates the ordered query of the course instances of a course instructor.
+     *
+     * @param login the user's login (AK number)
+     * @param after the key values of the last course instance of the previous page, may be null
+     * @return the query
+     */
+    private ParameterizedSparqlString createLecturerCourseInstanceQuery(String login, List<String> after) {
+        ParameterizedSparqlString selectQry = new ParameterizedSparqlString(QRY_SELECT_LECTURER_COURSE_INSTANCES);
+        LECTURER_COURSE_INSTANCE_KEYSET.appendFilter(selectQry, after);
+        selectQry.append("""
+            }
+            GROUP BY ?instance ?year ?term ?instanceName
+            """);
+        LECTURER_COURSE_INSTANCE_KEYSET.appendOrderBy(selectQry);
+        selectQry.setLiteral("?creator", login);
+        return selectQry;
+    }
+
+    /**
+     * Executes a count query of course instances.
+     *
+     * @param connection the rdf connection
+     * @param countQry   the count query
+     * @return the number of course instances
+     */
+    private int countCourseInstances(RDFConnection connection, ParameterizedSparqlString countQry) {
+        try (QueryExecution execution = connection.query(countQry.asQuery())) {
+            ResultSet set = execution.execSelect();
+            //noinspection ResultOfMethodCallIgnored
+            set.hasNext();
+            QuerySolution solution = set.nextSolution();
+            return solution.getLiteral("?cnt").getInt();
+        }
+    }
+
+    /**
+     * Converts a row of a course instance query.
+     *
+     * @param solution the row
+     * @return the displayable course instance
+     */
+    private DisplayableCourseInstanceDTO toDisplayableCourseInstance(QuerySolution solution) {
+        String id = solution.getLiteral("?instanceId").getString();
+        int year = solution.getLiteral("?year").getInt();
+        String termId = solution.getLiteral("?termId").getString();
+        int studentCount = solution.getLiteral("?studentCnt").getInt();
+        String name = solution.getLiteral("?instanceName").getString();
+        return new DisplayableCourseInstanceDTO(id, name, studentCount, year, termId);
+    }
+
     /**
      * Returns the student info cache from a given student iterator.
      *
@@ -0,0 +1,375 @@
+package at.jku.dke.etutor.service;
+
+import at.jku.dke.etutor.config.ApplicationProperties;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Cache of the submissions and gradings fetched from the dispatchers.
+ * <p>
+ * Submissions and gradings do not change once the dispatcher has created them, so their
+ * payloads are cached by type and UUID without expiration. Only successful responses are cached,
+ * as a grading might not be available yet. The memory tier is bounded by the size of the payloads,
+ * which are weighed by the two bytes per character a string may retain on the heap.
+ * If a disk directory is configured, payloads are also written to disk, so that entries
+ * evicted from memory or lost by a restart do not have to be fetched again.
+ * Concurrent requests for the same payload share one dispatcher request.
+ *
+ * @author fne
+ */
+@Component
+public class DispatcherPayloadCache implements MeterBinder {
+
+    private final Logger log = LoggerFactory.getLogger(DispatcherPayloadCache.class);
+
+    private final Cache<PayloadKey, String> cache;
+    private final Map<PayloadKey, CompletableFuture<ResponseEntity<String>>> loading = new ConcurrentHashMap<>();
+    private final Path diskDirectory;
+    private final Duration diskRetention;
+
+    private volatile Counter diskHits;
+
+    /**
+     * Constructor.
+     *
+     * @param applicationProperties the injected application properties
+     */
+    public DispatcherPayloadCache(ApplicationProperties applicationProperties) {
+        ApplicationProperties.DispatcherCache properties = applicationProperties.getDispatcherCache();
+
+        cache = CacheBuilder.newBuilder()
+            .maximumWeight(properties.getMaximumSize().toBytes())
+            .weigher((PayloadKey key, String payload) -> weigh(payload))
+            .recordStats()
+            .build();
+        diskRetention = properties.getDiskRetention();
+
+        if (properties.getDiskDirectory() == null) {
+            diskDirectory = null;
+        } else {
+            diskDirectory = Path.of(properties.getDiskDirectory()).toAbsolutePath().normalize();
+            try {
+                for (PayloadType type : PayloadType.values()) {
+                    Files.createDirectories(diskDirectory.resolve(type.getDirectoryName()));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not create the dispatcher cache directory " + diskDirectory, e);
+            }
+        }
+    }
+
+    /**
+     * Binds the cache statistics to the given registry.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, cache, "dispatcherPayloads");
+        diskHits = Counter.builder("cache.disk.hits")
+            .description("Number of payloads read from the on-disk tier")
+            .tag("cache", "dispatcherPayloads")
+            .register(registry);
+    }
+
+    /**
+     * Returns the cached payload.
+     *
+     * @param type the payload type
+     * @param uuid the UUID of the submission
+     * @return the payload, or an empty optional if it is not cached
+     */
+    public Optional<String> get(PayloadType type, String uuid) {
+        if (!PayloadKey.isValidUUID(uuid)) {
+            return Optional.empty();
+        }
+        PayloadKey key = new PayloadKey(type, uuid);
+
+        String payload = cache.getIfPresent(key);
+        if (payload == null) {
+            payload = readFromDisk(key);
+            if (payload != null) {
+                cache.put(key, payload);
+            }
+        }
+        return Optional.ofNullable(payload);
+    }
+
+    /**
+     * Returns the response for the payload, which is either served from the cache or loaded
+     * with the given loader. Successful responses of the loader are cached.
+     * Values which are not UUIDs are passed to the loader without caching.
+     *
+     * @param type   the payload type
+     * @param uuid   the UUID of the submission
+     * @param loader the function which requests the payload from the dispatcher
+     * @return the future of the response
+     */
+    public CompletableFuture<ResponseEntity<String>> getAsync(PayloadType type, String uuid,
+                                                             Function<String, CompletableFuture<ResponseEntity<String>>> loader) {
+        Objects.requireNonNull(loader);
+
+        if (!PayloadKey.isValidUUID(uuid)) {
+            return loader.apply(uuid);
+        }
+        Optional<String> cached = get(type, uuid);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(ResponseEntity.ok(cached.get()));
+        }
+
+        PayloadKey key = new PayloadKey(type, uuid);
+        CompletableFuture<ResponseEntity<String>> created = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<String>> existing = loading.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture<ResponseEntity<String>> future;
+        try {
+            future = loader.apply(uuid);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((response, throwable) -> {
+            if (throwable == null && response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                put(key, response.getBody());
+            }
+            loading.remove(key, created);
+            if (throwable != null) {
+                created.completeExceptionally(throwable);
+            } else {
+                created.complete(response);
+            }
+        });
+        return created;
+    }
+
+    /**
+     * Loads the payloads which are not cached yet concurrently, e.g. before a page lists many submissions.
+     * Failures are ignored, as the payloads are requested again when they are accessed.
+     *
+     * @param type    the payload type
+     * @param uuids   the UUIDs of the submissions
+     * @param loader  the function which requests a payload from the dispatcher
+     * @param timeout the maximum time to wait for the payloads
+     */
+    public void prefetch(PayloadType type, Collection<String> uuids,
+                         Function<String, CompletableFuture<ResponseEntity<String>>> loader, Duration timeout) {
+        Objects.requireNonNull(uuids);
+
+        CompletableFuture<?>[] futures = uuids.stream()
+            .filter(PayloadKey::isValidUUID)
+            .distinct()
+            .filter(uuid -> get(type, uuid).isEmpty())
+            .map(uuid -> getAsync(type, uuid, loader).exceptionally(throwable -> null))
+            .toArray(CompletableFuture[]::new);
+        if (futures.length == 0) {
+            return;
+        }
+
+        try {
+            CompletableFuture.allOf(futures).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.debug("Could not prefetch all {} payloads: {}", type, e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the payloads from the on-disk tier which have not been written within the retention.
+     *
+     * @return the number of removed payloads
+     */
+    @Scheduled(cron = "0 30 2 * * ?")
+    public int removeExpiredDiskEntries() {
+        if (diskDirectory == null) {
+            return 0;
+        }
+
+        Instant expiredBefore = Instant.now().minus(diskRetention);
+        int count = 0;
+        for (PayloadType type : PayloadType.values()) {
+            try (Stream<Path> files = Files.list(diskDirectory.resolve(type.getDirectoryName()))) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    if (Files.getLastModifiedTime(file).toInstant().isBefore(expiredBefore) && Files.deleteIfExists(file)) {
+                        count++;
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Could not clean up the dispatcher cache directory", e);
+            }
+        }
+        log.debug("Removed {} expired dispatcher payloads from disk", count);
+        return count;
+    }
+
+    /**
+     * Returns the weight of a payload in bytes. Strings retain up to two bytes per character,
+     * so the weight is an upper bound of the retained size that matches the configured maximum size.
+     *
+     * @param payload the payload
+     * @return the weight in bytes
+     */
+    static int weigh(String payload) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) payload.length() * Character.BYTES);
+    }
+
+    /**
+     * Stores a payload in memory and on disk.
+     *
+     * @param key     the key
+     * @param payload the payload
+     */
+    private void put(PayloadKey key, String payload) {
+        cache.put(key, payload);
+        writeToDisk(key, payload);
+    }
+
+    /**
+     * Reads a payload from the on-disk tier.
+     *
+     * @param key the key
+     * @return the payload, or {@code null} if it is not stored
+     */
+    private String readFromDisk(PayloadKey key) {
+        if (diskDirectory == null) {
+            return null;
+        }
+        try {
+            String payload = Files.readString(resolve(key), StandardCharsets.UTF_8);
+            Counter counter = diskHits;
+            if (counter != null) {
+                counter.increment();
+            }
+            return payload;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Could not read the cached payload {}", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes a payload to the on-disk tier, if enabled.
+     *
+     * @param key     the key
+     * @param payload the payload
+     */
+    private void writeToDisk(PayloadKey key, String payload) {
+        if (diskDirectory == null) {
+            return;
+        }
+        Path target = resolve(key);
+        try {
+            Path tempFile = Files.createTempFile(target.getParent(), "payload-", ".tmp");
+            try {
+                Files.writeString(tempFile, payload, StandardCharsets.UTF_8);
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            log.warn("Could not write the cached payload {}", key, e);
+        }
+    }
+
+    /**
+     * Resolves the file of a payload.
+     *
+     * @param key the key
+     * @return the path
+     */
+    private Path resolve(PayloadKey key) {
+        return diskDirectory.resolve(key.type().getDirectoryName()).resolve(key.uuid() + ".json");
+    }
+
+    /**
+     * The types of the cached payloads.
+     */
+    public enum PayloadType {
+        SUBMISSION,
+        GRADING,
+        BPMN_SUBMISSION,
+        BPMN_GRADING;
+
+        /**
+         * Returns the name of the directory of this type in the on-disk tier.
+         *
+         * @return the directory name
+         */
+        private String getDirectoryName() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    /**
+     * Key of a cached payload.
+     *
+     * @param type the payload type
+     * @param uuid the UUID of the submission, which is normalized to lower case
+     */
+    private record PayloadKey(PayloadType type, String uuid) {
+
+        /**
+         * Constructor.
+         *
+         * @param type the payload type
+         * @param uuid the UUID of the submission
+         * @throws IllegalArgumentException if the UUID is not valid
+         */
+        private PayloadKey {
+            Objects.requireNonNull(type);
+            uuid = UUID.fromString(Objects.requireNonNull(uuid)).toString();
+        }
+
+        /**
+         * Returns whether the given value is a valid UUID.
+         *
+         * @param value the value
+         * @return {@code true} if the value is a UUID, otherwise {@code false}
+         */
+        private static boolean isValidUUID(String value) {
+            try {
+                UUID.fromString(value);
+                return true;
+            } catch (IllegalArgumentException | NullPointerException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -6,22 +6,32 @@ import at.jku.dke.etutor.service.exception.DispatcherRequestFailedException;
 import at.jku.dke.etutor.service.client.dke.DkeSubmissionClient;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Service class for fetching submissions and gradings
  * from the DKE component via the proxy service.
+ * Fetched submissions and gradings are cached, as they do not change.
  */
 @Service
 public class DispatcherSubmissionService {
+    private final Logger log = LoggerFactory.getLogger(DispatcherSubmissionService.class);
     private final DkeSubmissionClient dkeSubmissionClient;
+    private final DispatcherPayloadCache dispatcherPayloadCache;
     private final ObjectMapper mapper;
-    public DispatcherSubmissionService(DkeSubmissionClient dkeSubmissionClient){
+    public DispatcherSubmissionService(DkeSubmissionClient dkeSubmissionClient, DispatcherPayloadCache dispatcherPayloadCache){
         this.dkeSubmissionClient = dkeSubmissionClient;
+        this.dispatcherPayloadCache = dispatcherPayloadCache;
         this.mapper = new ObjectMapper();
     }
 
@@ -31,9 +41,30 @@ public class DispatcherSubmissionService {
      * @param UUID the UUID
      * @return the submission
      * @throws JsonProcessingException if the returned value cannot be deserialized
+     * @throws DispatcherRequestFailedException if the dispatcher did not return the submission
      */
     public SubmissionDTO getSubmission(String UUID) throws JsonProcessingException, DispatcherRequestFailedException {
-        return mapper.readValue(dkeSubmissionClient.getSubmission(UUID).getBody(), SubmissionDTO.class);
+        return mapper.readValue(getBody(await(getSubmissionResponseAsync(UUID))), SubmissionDTO.class);
+    }
+
+    /**
+     * Returns the dispatcher's response for the submission with the given UUID, which is served from the cache if possible
+     *
+     * @param UUID the UUID
+     * @return the future of the response
+     */
+    public CompletableFuture<ResponseEntity<String>> getSubmissionResponseAsync(String UUID) {
+        return dispatcherPayloadCache.getAsync(DispatcherPayloadCache.PayloadType.SUBMISSION, UUID, dkeSubmissionClient::getSubmissionAsync);
+    }
+
+    /**
+     * Fetches the submissions with the given UUIDs which are not cached yet concurrently,
+     * e.g. before a list of submissions is built
+     *
+     * @param UUIDs the UUIDs
+     */
+    public void prefetchSubmissions(Collection<String> UUIDs) {
+        dispatcherPayloadCache.prefetch(DispatcherPayloadCache.PayloadType.SUBMISSION, UUIDs, dkeSubmissionClient::getSubmissionAsync, dkeSubmissionClient.getRequestTimeout());
     }
 
 
@@ -43,9 +74,53 @@ public class DispatcherSubmissionService {
      * @param UUID the UUID
      * @return the grading
      * @throws JsonProcessingException if the returned value cannot be parsed
+     * @throws DispatcherRequestFailedException if the dispatcher did not return the grading
      */
     public GradingDTO getGrading(String UUID) throws JsonProcessingException, DispatcherRequestFailedException {
-        return mapper.readValue(dkeSubmissionClient.getGrading(UUID).getBody(), GradingDTO.class);
+        return mapper.readValue(getBody(await(getGradingResponseAsync(UUID))), GradingDTO.class);
+    }
+
+    /**
+     * Returns the dispatcher's response for the grading with the given UUID, which is served from the cache if possible
+     *
+     * @param UUID the UUID
+     * @return the future of the response
+     */
+    public CompletableFuture<ResponseEntity<String>> getGradingResponseAsync(String UUID) {
+        return dispatcherPayloadCache.getAsync(DispatcherPayloadCache.PayloadType.GRADING, UUID, dkeSubmissionClient::getGradingAsync);
+    }
+
+    /**
+     * Returns the body of a successful response from the dispatcher
+     * @param response the response
+     * @return the body
+     * @throws DispatcherRequestFailedException if the dispatcher did not answer successfully
+     */
+    private String getBody(ResponseEntity<String> response) throws DispatcherRequestFailedException {
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null)
+            throw new DispatcherRequestFailedException("The dispatcher answered with status " + response.getStatusCodeValue());
+        return response.getBody();
+    }
+
+    /**
+     * Waits for a response from the dispatcher
+     * @param future the future of the response
+     * @return the response
+     * @throws DispatcherRequestFailedException if the request failed
+     */
+    static ResponseEntity<String> await(CompletableFuture<ResponseEntity<String>> future) throws DispatcherRequestFailedException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DispatcherRequestFailedException("Interrupted while waiting for the dispatcher");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DispatcherRequestFailedException dispatcherRequestFailedException)
+                throw dispatcherRequestFailedException;
+            if (e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            throw new IllegalStateException(e.getCause());
+        }
     }
 
     /**
@@ -53,20 +128,24 @@ public class DispatcherSubmissionService {
      * Also checks if the passed UUID is an actual UUID.
      * @param submissionUUID the UUID (dispatcher) for the submission
      * @param taskAssignmentTypeId the task assignment type
-     * @return the submission string
+     * @return the submission string, or an empty optional if the submission could not be fetched from the dispatcher
      */
     public Optional<String> getSubmissionStringFromSubmissionUUID(String submissionUUID, String taskAssignmentTypeId) {
         String taskAssignmentType = taskAssignmentTypeId.substring(taskAssignmentTypeId.indexOf("#")+1);
         try {
             UUID.fromString(submissionUUID); // check if submission is valid UUID; throws Exception if not (legacy requirement)
+        } catch (IllegalArgumentException ex) {
+            return Optional.of(submissionUUID); //legacy requirement; some persisted submissions might not be UUIDs, but actual submission strings
+        }
+        try {
             var submissionDTO = getSubmission(submissionUUID);
 
             var submissionString = getSubmissionStringFromSubmissionDTO(Objects.requireNonNull(submissionDTO), taskAssignmentType);
             return Optional.ofNullable(submissionString);
-        } catch (IllegalArgumentException | JsonProcessingException | DispatcherRequestFailedException ex) {
-            // Todo: handle exceptions
+        } catch (JsonProcessingException | DispatcherRequestFailedException ex) {
+            log.warn("Could not fetch submission {} from the dispatcher: {}", submissionUUID, ex.getMessage());
         }
-        return Optional.of(submissionUUID); //legacy requirement; some persisted submissions might not be UUIDs, but actual submission strings
+        return Optional.empty();
     }
 
     /**
@@ -0,0 +1,511 @@
+package at.jku.dke.etutor.service;
+
+import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.domain.User;
+import at.jku.dke.etutor.service.dto.MultipartFileImpl;
+import at.jku.dke.etutor.service.dto.exercisesheet.ExerciseSheetDTO;
+import at.jku.dke.etutor.service.dto.student.ExerciseSheetPdfJobDTO;
+import at.jku.dke.etutor.service.dto.taskassignment.TaskAssignmentDTO;
+import at.jku.dke.etutor.service.dto.taskassignment.TaskGroupDTO;
+import at.jku.dke.etutor.service.exception.StudentNotExistsException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jetbrains.annotations.NotNull;
+import org.jsoup.Jsoup;
+import org.jsoup.helper.W3CDom;
+import org.jsoup.nodes.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.LongConsumer;
+
+/**
+ * Service which renders the PDF versions of individual exercise sheets.
+ * <p>
+ * The Thymeleaf template engine is created once and caches the parsed exercise sheet template.
+ * PDFs are rendered asynchronously on a bounded worker pool; a rendering request for the same
+ * course instance, exercise sheet, student and rendered content is de-duplicated against the queued,
+ * running and recently completed jobs. The callback of a de-duplicated request is attached to the
+ * existing job, or called with the file id of a completed job. The status of the latest job of a student
+ * is kept for the configured retention so that it can be polled.
+ *
+ * @author fne
+ */
+@Service
+public class ExerciseSheetPdfRenderingService implements MeterBinder {
+
+    /**
+     * The status of a rendering job.
+     */
+    public enum JobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private static final String TEMPLATE_LOCATION = "/templates/exercise-sheet/";
+    private static final String TEMPLATE_NAME = "exercise-sheet.html";
+    private static final String HREF_TO_BE_REPLACED = "href=\"/";
+    private static final String HREF_TO_REPLACE_WITH = "href=\"https://etutor.dke.uni-linz.ac.at/etutorpp/";
+    private static final String METER_PREFIX = "etutor.pdf.rendering";
+
+    private final Logger log = LoggerFactory.getLogger(ExerciseSheetPdfRenderingService.class);
+
+    private final UserService userService;
+    private final ExerciseSheetSPARQLEndpointService exerciseSheetSPARQLEndpointService;
+    private final AssignmentSPARQLEndpointService assignmentSPARQLEndpointService;
+    private final UploadFileService uploadFileService;
+
+    private final TemplateEngine templateEngine;
+    private final ThreadPoolExecutor executor;
+    private final Cache<JobKey, RenderingJob> jobs;
+    private final Cache<StudentSheetKey, RenderingJob> latestJobs;
+
+    /**
+     * Constructor.
+     *
+     * @param userService                        the injected user service
+     * @param exerciseSheetSPARQLEndpointService the injected exercise sheet SPARQL endpoint service
+     * @param assignmentSPARQLEndpointService    the injected assignment SPARQL endpoint service
+     * @param uploadFileService                  the injected upload file service
+     * @param applicationProperties              the injected application properties
+     */
+    public ExerciseSheetPdfRenderingService(UserService userService,
+                                            ExerciseSheetSPARQLEndpointService exerciseSheetSPARQLEndpointService,
+                                            AssignmentSPARQLEndpointService assignmentSPARQLEndpointService,
+                                            UploadFileService uploadFileService,
+                                            ApplicationProperties applicationProperties) {
+        this.userService = userService;
+        this.exerciseSheetSPARQLEndpointService = exerciseSheetSPARQLEndpointService;
+        this.assignmentSPARQLEndpointService = assignmentSPARQLEndpointService;
+        this.uploadFileService = uploadFileService;
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix(TEMPLATE_LOCATION);
+        resolver.setSuffix(".html");
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCacheable(true);
+        SpringTemplateEngine springTemplateEngine = new SpringTemplateEngine();
+        springTemplateEngine.setTemplateResolver(resolver);
+        templateEngine = springTemplateEngine;
+
+        ApplicationProperties.PdfRendering properties = applicationProperties.getPdfRendering();
+        executor = new ThreadPoolExecutor(properties.getWorkerThreads(), properties.getWorkerThreads(),
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+            new ThreadFactoryBuilder().setNameFormat("pdf-rendering-%d").setDaemon(true).build());
+
+        jobs = CacheBuilder.newBuilder()
+            .expireAfterWrite(properties.getJobRetention())
+            .build();
+        latestJobs = CacheBuilder.newBuilder()
+            .expireAfterWrite(properties.getJobRetention())
+            .build();
+    }
+
+    /**
+     * Shuts the worker pool down. Queued jobs are discarded.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        Gauge.builder(METER_PREFIX + ".queued", executor, e -> e.getQueue().size())
+            .description("The number of queued PDF rendering jobs")
+            .register(registry);
+        Gauge.builder(METER_PREFIX + ".active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("The number of running PDF rendering jobs")
+            .register(registry);
+    }
+
+    /**
+     * Submits the rendering of the exercise sheet PDF for the given student and assigned tasks.
+     * The tasks are loaded immediately, the PDF is rendered asynchronously. If an equal job is queued,
+     * running or has been completed recently, this job is returned and the PDF is not rendered again.
+     * The callback is called once the job has been completed, or immediately if it has already been completed.
+     *
+     * @param courseInstanceUUID the course instance
+     * @param exerciseSheetUUID  the exercise sheet
+     * @param matriculationNo    the matriculation number of the student
+     * @param assignedTasks      the URLs of the assigned task assignments
+     * @param onRendered         callback which receives the file id of the uploaded PDF
+     * @return the status of the job
+     */
+    public ExerciseSheetPdfJobDTO submit(String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, List<String> assignedTasks, LongConsumer onRendered) {
+        Objects.requireNonNull(courseInstanceUUID);
+        Objects.requireNonNull(exerciseSheetUUID);
+        Objects.requireNonNull(matriculationNo);
+        Objects.requireNonNull(assignedTasks);
+        Objects.requireNonNull(onRendered);
+
+        RenderingInput input = loadInput(exerciseSheetUUID, matriculationNo, assignedTasks);
+        JobKey key = new JobKey(courseInstanceUUID, exerciseSheetUUID, matriculationNo, computeContentHash(input.renderedValues()));
+        RenderingJob[] created = new RenderingJob[1];
+
+        RenderingJob job = jobs.asMap().compute(key, (k, existing) -> {
+            if (existing != null && existing.status != JobStatus.FAILED) {
+                return existing;
+            }
+            created[0] = new RenderingJob();
+            return created[0];
+        });
+        latestJobs.put(new StudentSheetKey(courseInstanceUUID, exerciseSheetUUID, matriculationNo), job);
+
+        if (!job.attach(onRendered)) {
+            log.debug("PDF of exercise sheet {} for {} has already been rendered", exerciseSheetUUID, matriculationNo);
+            onRendered.accept(job.fileId);
+            return job.toDTO();
+        }
+        if (created[0] == null) {
+            log.debug("PDF rendering of exercise sheet {} for {} is already {}", exerciseSheetUUID, matriculationNo, job.status);
+            return job.toDTO();
+        }
+
+        try {
+            executor.execute(() -> run(job, input));
+        } catch (RejectedExecutionException e) {
+            log.warn("PDF rendering queue is full, rejected exercise sheet {} for {}", exerciseSheetUUID, matriculationNo);
+            job.fail();
+        }
+        return job.toDTO();
+    }
+
+    /**
+     * Returns the status of the latest rendering job of the given student and exercise sheet.
+     *
+     * @param courseInstanceUUID the course instance
+     * @param exerciseSheetUUID  the exercise sheet
+     * @param matriculationNo    the matriculation number of the student
+     * @return an optional containing the job status, or an empty optional if no job is known
+     */
+    public Optional<ExerciseSheetPdfJobDTO> getLatestJob(String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo) {
+        Objects.requireNonNull(courseInstanceUUID);
+        Objects.requireNonNull(exerciseSheetUUID);
+        Objects.requireNonNull(matriculationNo);
+
+        return Optional.ofNullable(latestJobs.getIfPresent(new StudentSheetKey(courseInstanceUUID, exerciseSheetUUID, matriculationNo)))
+            .map(RenderingJob::toDTO);
+    }
+
+    /**
+     * Renders an exercise sheet PDF synchronously and uploads it.
+     *
+     * @param exerciseSheetUUID       the exercise sheet
+     * @param matriculationNo         the matriculation number of the student
+     * @param assignedTasks           the tasks without task group
+     * @param taskGroupDTOTaskListMap the tasks grouped by their task group
+     * @return an optional containing the file id of the uploaded PDF, or an empty optional if the PDF could not be created
+     */
+    public Optional<Long> render(String exerciseSheetUUID, String matriculationNo, List<TaskAssignmentDTO> assignedTasks, Map<TaskGroupDTO, List<TaskAssignmentDTO>> taskGroupDTOTaskListMap) {
+        return render(new RenderingInput(exerciseSheetUUID, matriculationNo, assignedTasks, taskGroupDTOTaskListMap,
+            loadExerciseSheet(exerciseSheetUUID), userService.getUserWithAuthoritiesByLogin(matriculationNo)));
+    }
+
+    /**
+     * Computes the hash over the values which are rendered into a PDF.
+     *
+     * @param renderedValues the rendered values, which may contain null values
+     * @return the hex encoded SHA-256 hash
+     */
+    static String computeContentHash(List<String> renderedValues) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String value : renderedValues) {
+                if (value == null) {
+                    digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(-1).array());
+                    continue;
+                }
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+                digest.update(bytes);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Loads the exercise sheet, the student and the assigned tasks, grouped by their task group.
+     *
+     * @param exerciseSheetUUID the exercise sheet
+     * @param matriculationNo   the matriculation number of the student
+     * @param assignedTasks     the URLs of the assigned task assignments
+     * @return the input of the rendering
+     */
+    private RenderingInput loadInput(String exerciseSheetUUID, String matriculationNo, List<String> assignedTasks) {
+        var assignedTasksWithoutGroup = new ArrayList<TaskAssignmentDTO>();
+        var taskGroupToTaskListMap = new LinkedHashMap<TaskGroupDTO, List<TaskAssignmentDTO>>();
+        for (String assignedTask : assignedTasks) {
+            var task = assignmentSPARQLEndpointService.getTaskAssignmentByInternalId(assignedTask.substring(assignedTask.indexOf('#') + 1)).orElseThrow();
+            Optional<TaskGroupDTO> taskGroupOpt = Optional.empty();
+            if (task.getTaskGroupId() != null) {
+                taskGroupOpt = assignmentSPARQLEndpointService.getTaskGroupByName(task.getTaskGroupId().substring(task.getTaskGroupId().indexOf('#') + 1));
+            }
+            taskGroupOpt.ifPresentOrElse(taskGroup -> taskGroupToTaskListMap.computeIfAbsent(taskGroup, g -> new ArrayList<>()).add(task),
+                () -> assignedTasksWithoutGroup.add(task));
+        }
+        return new RenderingInput(exerciseSheetUUID, matriculationNo, assignedTasksWithoutGroup, taskGroupToTaskListMap,
+            loadExerciseSheet(exerciseSheetUUID), userService.getUserWithAuthoritiesByLogin(matriculationNo));
+    }
+
+    /**
+     * Loads the exercise sheet for the heading of the PDF.
+     *
+     * @param exerciseSheetUUID the exercise sheet
+     * @return an optional containing the exercise sheet, or an empty optional if it could not be read
+     */
+    private Optional<ExerciseSheetDTO> loadExerciseSheet(String exerciseSheetUUID) {
+        try {
+            return exerciseSheetSPARQLEndpointService.getExerciseSheetById(exerciseSheetUUID);
+        } catch (ParseException e) {
+            log.error("Could not read exercise sheet " + exerciseSheetUUID, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Renders an exercise sheet PDF and uploads it.
+     *
+     * @param input the input of the rendering
+     * @return an optional containing the file id of the uploaded PDF, or an empty optional if the PDF could not be created
+     */
+    private Optional<Long> render(RenderingInput input) {
+        String exerciseSheetUUID = input.exerciseSheetUUID();
+        String matriculationNo = input.matriculationNo();
+
+        // Replace links
+        input.assignedTasks().forEach(this::replaceLinks);
+        input.taskGroups().forEach((key, value) -> {
+            if (key.getDescription() != null) {
+                key.setDescription(key.getDescription().replace(HREF_TO_BE_REPLACED, HREF_TO_REPLACE_WITH));
+            }
+            value.forEach(this::replaceLinks);
+        });
+
+        // Set locale according to user
+        Locale locale = input.user().map(u -> Locale.forLanguageTag(u.getLangKey())).orElse(Locale.ENGLISH);
+        String sheetName = input.exerciseSheet().map(ExerciseSheetDTO::getName).orElse("");
+
+        int numberOfTasksWithGroup = input.taskGroups().values().stream().mapToInt(List::size).sum();
+
+        // Initialize Context for template engine
+        Context ct = new Context();
+        ct.setLocale(locale);
+        ct.setVariable("tasks", input.assignedTasks());
+        ct.setVariable("matriculationNumber", matriculationNo);
+        ct.setVariable("tasksWithGroup", input.taskGroups());
+        ct.setVariable("nTasksWithGroup", numberOfTasksWithGroup);
+        input.user().ifPresent(u -> ct.setVariable("studentName", u.getFirstName() + " " + u.getLastName()));
+        input.exerciseSheet().ifPresent(e -> ct.setVariable("exerciseSheetHeader", e.getName()));
+
+        // Process template to retrieve HTML-String
+        String inputHTML = templateEngine.process(TEMPLATE_NAME, ct);
+
+        // Parse JSoup document from HTML-String (required for rendering pdf)
+        Document document = Jsoup.parse(inputHTML, "UTF-8");
+        document.outputSettings().syntax(Document.OutputSettings.Syntax.xml);
+
+        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            PdfRendererBuilder builder = new PdfRendererBuilder();
+            builder.toStream(outputStream);
+            builder.withW3cDocument(new W3CDom().fromJsoup(document), getBaseUri());
+            builder.run();
+
+            return Optional.of(uploadFileService.uploadFile(matriculationNo, new MultipartFileImpl(outputStream, "pdf"),
+                sheetName + "_" + matriculationNo + ".pdf"));
+        } catch (IOException | StudentNotExistsException | URISyntaxException e) {
+            log.error("Could not create the PDF of exercise sheet " + exerciseSheetUUID + " for " + matriculationNo, e);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Renders the PDF and updates the job status.
+     *
+     * @param job   the job
+     * @param input the input of the rendering
+     */
+    private void run(RenderingJob job, RenderingInput input) {
+        job.status = JobStatus.RUNNING;
+        try {
+            Optional<Long> fileId = render(input);
+            if (fileId.isPresent()) {
+                job.complete(fileId.get());
+            } else {
+                job.fail();
+            }
+        } catch (Exception e) {
+            log.error("PDF rendering of exercise sheet " + input.exerciseSheetUUID() + " for " + input.matriculationNo() + " failed", e);
+            job.fail();
+        }
+    }
+
+    /**
+     * Replaces the relative links in the instruction of the given task.
+     *
+     * @param task the task
+     */
+    private void replaceLinks(TaskAssignmentDTO task) {
+        if (task.getInstruction() != null) {
+            task.setInstruction(task.getInstruction().replace(HREF_TO_BE_REPLACED, HREF_TO_REPLACE_WITH));
+        }
+    }
+
+    /**
+     * Returns the base uri for HTML related resources (css, etc). Running from jar requires a different approach.
+     *
+     * @return the base uri
+     * @throws URISyntaxException if the resource url is invalid
+     */
+    private String getBaseUri() throws URISyntaxException {
+        var baseUrl = getClass().getResource(TEMPLATE_LOCATION);
+        if (baseUrl == null) {
+            baseUrl = getClass().getClassLoader().getResource(TEMPLATE_LOCATION);
+        }
+        return baseUrl != null ? baseUrl.toURI().toString() : "/";
+    }
+
+    /**
+     * A rendering job.
+     */
+    private final class RenderingJob {
+        private final String id = UUID.randomUUID().toString();
+        private final Instant submitted = Instant.now();
+        private final List<LongConsumer> callbacks = new ArrayList<>();
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile Long fileId;
+        private volatile Instant finished;
+
+        /**
+         * Attaches a callback which is called once the job has been completed.
+         *
+         * @param callback the callback
+         * @return {@code true} if the callback has been attached, {@code false} if the job has already been completed
+         */
+        private synchronized boolean attach(LongConsumer callback) {
+            if (status == JobStatus.COMPLETED) {
+                return false;
+            }
+            callbacks.add(callback);
+            return true;
+        }
+
+        /**
+         * Calls the attached callbacks, including the ones which are attached meanwhile, and completes the job.
+         *
+         * @param fileId the file id of the uploaded PDF
+         */
+        private void complete(long fileId) {
+            this.fileId = fileId;
+            while (true) {
+                List<LongConsumer> pending;
+                synchronized (this) {
+                    if (callbacks.isEmpty()) {
+                        status = JobStatus.COMPLETED;
+                        finished = Instant.now();
+                        return;
+                    }
+                    pending = List.copyOf(callbacks);
+                    callbacks.clear();
+                }
+                for (LongConsumer callback : pending) {
+                    try {
+                        callback.accept(fileId);
+                    } catch (RuntimeException e) {
+                        log.error("Callback of PDF rendering job " + id + " failed", e);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Fails the job and drops the attached callbacks.
+         */
+        private synchronized void fail() {
+            callbacks.clear();
+            status = JobStatus.FAILED;
+            finished = Instant.now();
+        }
+
+        private ExerciseSheetPdfJobDTO toDTO() {
+            return new ExerciseSheetPdfJobDTO(id, status.name(), fileId, submitted, finished);
+        }
+    }
+
+    /**
+     * The loaded input of a rendering.
+     */
+    private record RenderingInput(String exerciseSheetUUID, String matriculationNo, List<TaskAssignmentDTO> assignedTasks,
+                                  Map<TaskGroupDTO, List<TaskAssignmentDTO>> taskGroups,
+                                  Optional<ExerciseSheetDTO> exerciseSheet, Optional<User> user) {
+
+        /**
+         * Returns the values which are rendered into the PDF, in the order in which they are rendered.
+         *
+         * @return the rendered values
+         */
+        private List<String> renderedValues() {
+            List<String> values = new ArrayList<>();
+            values.add(matriculationNo);
+            values.add(exerciseSheet.map(ExerciseSheetDTO::getName).orElse(null));
+            values.add(user.map(User::getLangKey).orElse(null));
+            values.add(user.map(u -> u.getFirstName() + " " + u.getLastName()).orElse(null));
+            addTasks(values, assignedTasks);
+            taskGroups.forEach((group, tasks) -> {
+                values.add(group.getName());
+                values.add(group.getDescription());
+                addTasks(values, tasks);
+            });
+            return values;
+        }
+
+        private static void addTasks(List<String> values, List<TaskAssignmentDTO> tasks) {
+            values.add(String.valueOf(tasks.size()));
+            for (TaskAssignmentDTO task : tasks) {
+                values.add(task.getHeader());
+                values.add(task.getInstruction());
+            }
+        }
+    }
+
+    /**
+     * De-duplication key of rendering jobs.
+     */
+    private record JobKey(String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, String contentHash) {
+    }
+
+    /**
+     * Key of the latest job of a student for an exercise sheet of a course instance.
+     */
+    private record StudentSheetKey(String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo) {
+    }
+}
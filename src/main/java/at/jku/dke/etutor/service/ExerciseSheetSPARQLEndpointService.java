@@ -6,6 +6,9 @@ import at.jku.dke.etutor.service.dto.exercisesheet.ExerciseSheetDTO;
 import at.jku.dke.etutor.service.dto.exercisesheet.ExerciseSheetDisplayDTO;
 import at.jku.dke.etutor.service.dto.exercisesheet.LearningGoalAssignmentDTO;
 import at.jku.dke.etutor.service.dto.exercisesheet.NewExerciseSheetDTO;
+import at.jku.dke.etutor.service.exception.InvalidContinuationTokenException;
+import at.jku.dke.etutor.service.pagination.Keyset;
+import at.jku.dke.etutor.service.pagination.KeysetSlice;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.query.ParameterizedSparqlString;
@@ -81,13 +84,22 @@ public /*non-sealed*/ class ExerciseSheetSPARQLEndpointService extends AbstractS
             }
             """;
 
+    private static final Keyset EXERCISE_SHEET_DISPLAY_KEYSET = new Keyset(
+        Keyset.Key.of("LCASE(STR(?name))", "?sortName"),
+        Keyset.Key.of("STR(?exerciseSheet)", "?id")
+    );
+
+    private final StudentProgressProjection studentProgressProjection;
+
     /**
      * Constructor.
      *
-     * @param rdfConnectionFactory the injected rdf connection factory
+     * @param rdfConnectionFactory      the injected rdf connection factory
+     * @param studentProgressProjection the injected student progress projection
      */
-    public ExerciseSheetSPARQLEndpointService(RDFConnectionFactory rdfConnectionFactory) {
+    public ExerciseSheetSPARQLEndpointService(RDFConnectionFactory rdfConnectionFactory, StudentProgressProjection studentProgressProjection) {
         super(rdfConnectionFactory);
+        this.studentProgressProjection = studentProgressProjection;
     }
 
     /**
@@ -215,6 +227,7 @@ public /*non-sealed*/ class ExerciseSheetSPARQLEndpointService extends AbstractS
                 connection.update(goalAssignmentInsertQry.asUpdate());
             }
         }
+        studentProgressProjection.invalidateExerciseSheet(exerciseSheetDTO.getId());
     }
 
     /**
@@ -252,33 +265,7 @@ public /*non-sealed*/ class ExerciseSheetSPARQLEndpointService extends AbstractS
         Objects.requireNonNull(nameQry);
         Objects.requireNonNull(page);
 
-        ParameterizedSparqlString query = new ParameterizedSparqlString(
-            """
-                PREFIX text:   <http://jena.apache.org/text#>
-                PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-                PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>
-
-                SELECT (STR(?exerciseSheet) as ?id) ?name (COUNT(?individualAssignment) AS ?cnt)
-                WHERE {
-                """
-        );
-
-        if (StringUtils.isNotBlank(nameQry)) {
-            query.append(String.format("?exerciseSheet text:query (rdfs:label \"*%s*\").%n", nameQry));
-        }
-
-        query.append(
-            """
-                  ?exerciseSheet a etutor:ExerciseSheet.
-                  ?exerciseSheet rdfs:label ?name.
-                  OPTIONAL {
-                    ?individualAssignment etutor:fromExerciseSheet ?exerciseSheet.
-                  }
-                }
-                GROUP BY ?exerciseSheet ?name
-                ORDER BY (LCASE(?name))
-                """
-        );
+        ParameterizedSparqlString query = createExerciseSheetDisplayQuery(nameQry, null);
 
         if (page.isPaged()) {
             query.append("LIMIT ");
@@ -293,12 +280,7 @@ public /*non-sealed*/ class ExerciseSheetSPARQLEndpointService extends AbstractS
                 List<ExerciseSheetDisplayDTO> resultList = new ArrayList<>();
 
                 while (set.hasNext()) {
-                    QuerySolution querySolution = set.nextSolution();
-
-                    String id = querySolution.getLiteral("?id").getString();
-                    String name = querySolution.getLiteral("?name").getString();
-                    int count = querySolution.getLiteral("?cnt").getInt();
-                    resultList.add(new ExerciseSheetDisplayDTO(id, name, count, false));
+                    resultList.add(toExerciseSheetDisplay(set.nextSolution()));
                 }
 
                 boolean hasNext = page.isPaged() && resultList.size() > page.getPageSize();
@@ -318,52 +300,7 @@ public /*non-sealed*/ class ExerciseSheetSPARQLEndpointService extends AbstractS
         Objects.requireNonNull(nameQry);
         Objects.requireNonNull(page);
 
-        ParameterizedSparqlString countQry = new ParameterizedSparqlString(
-            """
-                PREFIX text:   <http://jena.apache.org/text#>
-                PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-                PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>
-
-                SELECT (COUNT(DISTINCT ?exerciseSheet) as ?cnt)
-                WHERE {
-                """
-        );
-        ParameterizedSparqlString query = new ParameterizedSparqlString(
-            """
-                PREFIX text:   <http://jena.apache.org/text#>
-                PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-                PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>
-
-                SELECT (STR(?exerciseSheet) as ?id) ?name (COUNT(?individualAssignment) AS ?cnt)
-                WHERE {
-                """
-        );
-
-        if (StringUtils.isNotBlank(nameQry)) {
-            query.append(String.format("?exerciseSheet text:query (rdfs:label \"*%s*\").%n", nameQry));
-            countQry.append(String.format("?exerciseSheet text:query (rdfs:label \"*%s*\").%n", nameQry));
-        }
-
-        query.append(
-            """
-                  ?exerciseSheet a etutor:ExerciseSheet.
-                  ?exerciseSheet rdfs:label ?name.
-                  OPTIONAL {
-                    ?individualAssignment etutor:fromExerciseSheet ?exerciseSheet.
-                  }
-                }
-                GROUP BY ?exerciseSheet ?name
-                ORDER BY (LCASE(?name))
-                """
-        );
-
-        countQry.append(
-            """
-                  ?exerciseSheet a etutor:ExerciseSheet.
-                  ?exerciseSheet rdfs:label ?name.
-                }
-                """
-        );
+        ParameterizedSparqlString query = createExerciseSheetDisplayQuery(nameQry, null);
 
         if (page.isPaged()) {
             query.append("LIMIT ");
@@ -380,24 +317,43 @@ public /*non-sealed*/ class ExerciseSheetSPARQLEndpointService extends AbstractS
                 ResultSet set = execution.execSelect();
 
                 while (set.hasNext()) {
-                    QuerySolution querySolution = set.nextSolution();
-
-                    String id = querySolution.getLiteral("?id").getString();
-                    String name = querySolution.getLiteral("?name").getString();
-                    int cnt = querySolution.getLiteral("?cnt").getInt();
-                    list.add(new ExerciseSheetDisplayDTO(id, name, cnt, false));
+                    list.add(toExerciseSheetDisplay(set.nextSolution()));
                 }
             }
-            try (QueryExecution execution = connection.query(countQry.asQuery())) {
-                ResultSet set = execution.execSelect();
-                set.hasNext();
-                count = set.nextSolution().getLiteral("?cnt").getInt();
-            }
+            count = countExerciseSheets(connection, nameQry);
 
             return PageableExecutionUtils.getPage(list, page, () -> count);
         }
     }
 
+    /**
+     * Returns a page of the exercise sheet displays, which is selected by a continuation token.
+     * An optional name filter can be passed to this method. The exercise sheets are only counted
+     * for the first page.
+     *
+     * @param nameQry           the optional name filter, might be null
+     * @param continuationToken the continuation token of the previous page, null for the first page
+     * @param size              the page size
+     * @return page of the exercise sheet displays
+     * @throws InvalidContinuationTokenException if the continuation token is invalid
+     */
+    public KeysetSlice<ExerciseSheetDisplayDTO> getFilteredExerciseSheetDisplayDTOsAsPage(String nameQry, String continuationToken, int size)
+        throws InvalidContinuationTokenException {
+        Objects.requireNonNull(nameQry);
+
+        List<String> after = EXERCISE_SHEET_DISPLAY_KEYSET.decode(continuationToken);
+        ParameterizedSparqlString query = createExerciseSheetDisplayQuery(nameQry, after);
+        EXERCISE_SHEET_DISPLAY_KEYSET.appendLimit(query, size);
+
+        try (RDFConnection connection = getConnection()) {
+            Long count = after == null ? (long) countExerciseSheets(connection, nameQry) : null;
+
+            try (QueryExecution execution = connection.query(query.asQuery())) {
+                return EXERCISE_SHEET_DISPLAY_KEYSET.read(execution.execSelect(), size, this::toExerciseSheetDisplay, count);
+            }
+        }
+    }
+
     /**
      * Fetches all exercise sheets that are configured to close automatically.
      * @return the list of the exercise-sheets
@@ -444,6 +400,7 @@ public /*non-sealed*/ class ExerciseSheetSPARQLEndpointService extends AbstractS
         try (RDFConnection connection = getConnection()) {
             connection.update(query.asUpdate());
         }
+        studentProgressProjection.invalidateExerciseSheet(exerciseURL);
     }
 
     //region Private helper methods
@@ -493,5 +450,101 @@ public /*non-sealed*/ class ExerciseSheetSPARQLEndpointService extends AbstractS
 
         return resource;
     }
+
+    /**
+     * Creates the ordered query of the exercise sheet displays.
+     *
+     * @param nameQry the optional name filter, might be null
+     * @param after   the key values of the last exercise sheet of the previous page, may be null
+     * @return the query
+     */
+    private ParameterizedSparqlString createExerciseSheetDisplayQuery(String nameQry, List<String> after) {
+        ParameterizedSparqlString query = new ParameterizedSparqlString(
+            """
+                PREFIX text:   <http://jena.apache.org/text#>
+                PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+                PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>
+
+                SELECT (STR(?exerciseSheet) as ?id) ?name (COUNT(?individualAssignment) AS ?cnt) (LCASE(STR(?name)) AS ?sortName)
+                WHERE {
+                """
+        );
+
+        if (StringUtils.isNotBlank(nameQry)) {
+            query.append(String.format("?exerciseSheet text:query (rdfs:label \"*%s*\").%n", nameQry));
+        }
+
+        query.append(
+            """
+                  ?exerciseSheet a etutor:ExerciseSheet.
+                  ?exerciseSheet rdfs:label ?name.
+                  OPTIONAL {
+                    ?individualAssignment etutor:fromExerciseSheet ?exerciseSheet.
+                  }
+                """
+        );
+        EXERCISE_SHEET_DISPLAY_KEYSET.appendFilter(query, after);
+        query.append(
+            """
+                }
+                GROUP BY ?exerciseSheet ?name
+                """
+        );
+        EXERCISE_SHEET_DISPLAY_KEYSET.appendOrderBy(query);
+        return query;
+    }
+
+    /**
+     * Counts the exercise sheets which match the optional name filter.
+     *
+     * @param connection the rdf connection
+     * @param nameQry    the optional name filter, might be null
+     * @return the number of exercise sheets
+     */
+    private int countExerciseSheets(RDFConnection connection, String nameQry) {
+        ParameterizedSparqlString countQry = new ParameterizedSparqlString(
+            """
+                PREFIX text:   <http://jena.apache.org/text#>
+                PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+                PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>
+
+                SELECT (COUNT(DISTINCT ?exerciseSheet) as ?cnt)
+                WHERE {
+                """
+        );
+
+        if (StringUtils.isNotBlank(nameQry)) {
+            countQry.append(String.format("?exerciseSheet text:query (rdfs:label \"*%s*\").%n", nameQry));
+        }
+
+        countQry.append(
+            """
+                  ?exerciseSheet a etutor:ExerciseSheet.
+                  ?exerciseSheet rdfs:label ?name.
+                }
+                """
+        );
+
+        try (QueryExecution execution = connection.query(countQry.asQuery())) {
+            ResultSet set = execution.execSelect();
+            //noinspection ResultOfMethodCallIgnored
+            set.hasNext();
+            return set.nextSolution().getLiteral("?cnt").getInt();
+        }
+    }
+
+    /**
+     * Converts a row of the exercise sheet displays.
+     *
+     * @param querySolution the row
+     * @return the exercise sheet display
+     */
+    private ExerciseSheetDisplayDTO toExerciseSheetDisplay(QuerySolution querySolution) {
+        String id = querySolution.getLiteral("?id").getString();
+        String name = querySolution.getLiteral("?name").getString();
+        int cnt = querySolution.getLiteral("?cnt").getInt();
+        return new ExerciseSheetDisplayDTO(id, name, cnt, false);
+    }
+
     //endregion
 }
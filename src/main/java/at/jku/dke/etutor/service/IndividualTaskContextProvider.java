@@ -0,0 +1,73 @@
+package at.jku.dke.etutor.service;
+
+import at.jku.dke.etutor.service.dto.student.IndividualTaskContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Request scoped memo of the individual task contexts.
+ * <p>
+ * A request which processes a submission reads several values of the same individual task. The context is loaded
+ * once per request with {@link StudentService#getIndividualTaskContext(String, String, String, int)} and shared by
+ * all reads of the request. Write operations which change a value of the context have to evict it.
+ * The memo must only be used on the thread of the request, e.g. not in the callbacks of deferred results.
+ *
+ * @author fne
+ */
+@Component
+@RequestScope
+public class IndividualTaskContextProvider {
+
+    private final StudentService studentService;
+    private final Map<Key, Optional<IndividualTaskContext>> contexts = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param studentService the injected student service
+     */
+    public IndividualTaskContextProvider(StudentService studentService) {
+        this.studentService = studentService;
+    }
+
+    /**
+     * Returns the context of an individual task, which is loaded if it has not been loaded in this request.
+     *
+     * @param courseInstanceUUID the course instance UUID
+     * @param exerciseSheetUUID  the exercise sheet UUID
+     * @param matriculationNo    the matriculation number
+     * @param taskNo             the task number
+     * @return {@link Optional} containing the context, or an empty optional if the individual task does not exist
+     */
+    public Optional<IndividualTaskContext> getContext(String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int taskNo) {
+        Objects.requireNonNull(courseInstanceUUID);
+        Objects.requireNonNull(exerciseSheetUUID);
+        Objects.requireNonNull(matriculationNo);
+
+        return contexts.computeIfAbsent(new Key(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo),
+            key -> studentService.getIndividualTaskContext(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo));
+    }
+
+    /**
+     * Evicts the context of an individual task, e.g. because the highest chosen diagnose level has been updated.
+     *
+     * @param courseInstanceUUID the course instance UUID
+     * @param exerciseSheetUUID  the exercise sheet UUID
+     * @param matriculationNo    the matriculation number
+     * @param taskNo             the task number
+     */
+    public void evict(String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int taskNo) {
+        contexts.remove(new Key(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo));
+    }
+
+    /**
+     * Identifies an individual task.
+     */
+    private record Key(String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int taskNo) {
+    }
+}
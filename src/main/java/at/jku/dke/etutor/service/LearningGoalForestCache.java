@@ -0,0 +1,498 @@
+package at.jku.dke.etutor.service;
+
+import at.jku.dke.etutor.helper.RDFConnectionFactory;
+import at.jku.dke.etutor.service.dto.LearningGoalDTO;
+import org.apache.commons.lang3.time.DateFormatUtils;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdfconnection.RDFConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory forest of all learning goals, from which the goals which are visible for a user are listed.
+ * <p>
+ * The forest contains the properties, the sub goal edges and the number of referencing courses of all goals.
+ * It is kept up to date by the write operations, which reload only the goals they have changed. As the store may
+ * also be changed by other means, e.g. by other application instances, the whole forest is reloaded
+ * ten minutes after it has been loaded.
+ * The visibility view of a user, i.e. the public goals and the user's private goals, or only the user's goals,
+ * is created from the forest without querying the store. As the DTOs are mutable, new DTOs are created
+ * for every request.
+ *
+ * @author fne
+ */
+@Component
+public class LearningGoalForestCache extends AbstractSPARQLEndpointService {
+
+    private static final String QRY_SELECT_GOALS = """
+        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+        PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>
+
+        SELECT ?goal ?name ?description ?private ?needsVerification ?owner ?changeDate (COUNT(?course) AS ?cnt)
+        WHERE {
+          %s
+          ?goal a etutor:Goal.
+          ?goal rdfs:label ?name.
+          ?goal etutor:isPrivate ?private.
+          ?goal etutor:hasOwner ?owner.
+          ?goal etutor:hasChangeDate ?changeDate.
+          OPTIONAL { ?goal etutor:hasDescription ?description }
+          OPTIONAL { ?goal etutor:needsVerificationBeforeCompletion ?needsVerification }
+          OPTIONAL { ?course etutor:hasGoal ?goal }
+        }
+        GROUP BY ?goal ?name ?description ?private ?needsVerification ?owner ?changeDate
+        """;
+
+    private static final String QRY_SELECT_SUB_GOAL_EDGES = """
+        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+
+        SELECT ?from ?to
+        WHERE {
+          ?from etutor:hasSubGoal ?to.
+        }
+        """;
+
+    private static final String QRY_SELECT_ADJACENT_SUB_GOAL_EDGES = """
+        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+
+        SELECT ?from ?to
+        WHERE {
+          {
+            VALUES ?from { %1$s }
+            ?from etutor:hasSubGoal ?to.
+          } UNION {
+            VALUES ?to { %1$s }
+            ?from etutor:hasSubGoal ?to.
+          }
+        }
+        """;
+
+    private static final String QRY_SELECT_REFERENCE_COUNTS = """
+        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+
+        SELECT ?goal (COUNT(?course) AS ?cnt)
+        WHERE {
+          ?course etutor:hasGoal ?goal.
+        }
+        GROUP BY ?goal
+        """;
+
+    private static final Duration EXPIRE_AFTER_LOAD = Duration.ofMinutes(10);
+
+    private final Logger log = LoggerFactory.getLogger(LearningGoalForestCache.class);
+
+    private volatile Forest forest;
+
+    /**
+     * Constructor.
+     *
+     * @param rdfConnectionFactory the injected rdf connection factory
+     */
+    public LearningGoalForestCache(RDFConnectionFactory rdfConnectionFactory) {
+        super(rdfConnectionFactory);
+    }
+
+    /**
+     * Returns the learning goals which are visible for the given user, with their visible sub goals.
+     *
+     * @param owner            the user
+     * @param showOnlyOwnGoals {@code true}, if only the user's own goals should be returned, otherwise {@code false}
+     * @return the visible root goals
+     * @throws InternalModelException if the internal date format is not valid
+     */
+    public SortedSet<LearningGoalDTO> getVisibleLearningGoals(String owner, boolean showOnlyOwnGoals) throws InternalModelException {
+        Objects.requireNonNull(owner);
+
+        Forest currentForest = getForest();
+        Predicate<Goal> visible = showOnlyOwnGoals ?
+            goal -> goal.owner().equals(owner) :
+            goal -> !goal.privateGoal() || goal.owner().equals(owner);
+
+        Collection<String> roots;
+        if (showOnlyOwnGoals) {
+            roots = currentForest.goalsOf(owner).stream()
+                .filter(id -> currentForest.parentsOf(id).stream().noneMatch(parent -> currentForest.isOwnedBy(parent, owner)))
+                .toList();
+        } else {
+            roots = new ArrayList<>(currentForest.publicRoots);
+            currentForest.goalsOf(owner).stream()
+                .filter(id -> currentForest.goals.get(id).privateGoal() && currentForest.parentsOf(id).isEmpty())
+                .forEach(roots::add);
+        }
+
+        SortedSet<LearningGoalDTO> result = new TreeSet<>();
+        for (String root : roots) {
+            result.add(currentForest.toDTO(root, visible));
+        }
+        return result;
+    }
+
+    /**
+     * Reloads the given goals and their sub goal edges, e.g. because the goals have been inserted, moved or removed.
+     *
+     * @param goalIds the goal URLs
+     */
+    public void refreshGoals(Collection<String> goalIds) {
+        Objects.requireNonNull(goalIds);
+
+        update(currentForest -> Set.copyOf(goalIds));
+    }
+
+    /**
+     * Reloads the given goal and its (former) sub goals, e.g. because the goal has been updated or removed.
+     *
+     * @param goalId the goal URL
+     */
+    public void refreshGoalWithSubGoals(String goalId) {
+        Objects.requireNonNull(goalId);
+
+        update(currentForest -> currentForest.subTree(goalId));
+    }
+
+    /**
+     * Reloads the number of referencing courses of the goals, e.g. because a course's goal assignment has changed.
+     */
+    public synchronized void refreshReferenceCounts() {
+        Forest currentForest = forest;
+        if (!isCurrent(currentForest, getDatasetClearCount())) {
+            forest = null;
+            return;
+        }
+
+        Map<String, Goal> goals = new HashMap<>(currentForest.goals);
+        Map<String, Integer> referenceCounts = loadReferenceCounts();
+        goals.replaceAll((id, goal) -> goal.withReferenceCount(referenceCounts.getOrDefault(id, 0)));
+
+        forest = new Forest(currentForest.clearCount, currentForest.loadTime, goals, currentForest.subGoals);
+    }
+
+    /**
+     * Drops the forest, which is reloaded on the next request.
+     */
+    public synchronized void invalidateAll() {
+        forest = null;
+    }
+
+    //region Private helper methods
+
+    /**
+     * Returns the current forest. The forest is loaded if it has not been loaded yet, if the dataset
+     * has been cleared since it has been loaded or if it has expired.
+     *
+     * @return the forest
+     * @throws InternalModelException if the internal date format is not valid
+     */
+    private Forest getForest() throws InternalModelException {
+        Forest currentForest = forest;
+        long clearCount = getDatasetClearCount();
+        if (isCurrent(currentForest, clearCount)) {
+            return currentForest;
+        }
+
+        synchronized (this) {
+            if (!isCurrent(forest, clearCount)) {
+                try {
+                    long loadTime = System.nanoTime();
+                    Map<String, Set<String>> subGoals = new HashMap<>();
+                    loadEdges(QRY_SELECT_SUB_GOAL_EDGES, subGoals);
+                    forest = new Forest(clearCount, loadTime, loadGoals(""), subGoals);
+                } catch (ParseException ex) {
+                    log.error("Parsing exception", ex);
+                    throw new InternalModelException(ex);
+                }
+            }
+            return forest;
+        }
+    }
+
+    /**
+     * Returns whether the given forest may be used.
+     *
+     * @param currentForest the forest, may be null
+     * @param clearCount    the current clear count of the dataset
+     * @return {@code true} if the forest has been loaded after the last clear of the dataset
+     * and has not expired, otherwise {@code false}
+     */
+    private static boolean isCurrent(Forest currentForest, long clearCount) {
+        return currentForest != null && currentForest.clearCount == clearCount
+            && System.nanoTime() - currentForest.loadTime < EXPIRE_AFTER_LOAD.toNanos();
+    }
+
+    /**
+     * Reloads the goals which are selected from the current forest. Nothing is reloaded if the forest
+     * has not been loaded yet, as the next request loads the whole forest.
+     *
+     * @param selector selects the goals which have to be reloaded
+     */
+    private synchronized void update(Function<Forest, Set<String>> selector) {
+        Forest currentForest = forest;
+        if (!isCurrent(currentForest, getDatasetClearCount())) {
+            forest = null;
+            return;
+        }
+
+        Set<String> goalIds = selector.apply(currentForest);
+        if (goalIds.isEmpty()) {
+            return;
+        }
+
+        Map<String, Goal> goals = new HashMap<>(currentForest.goals);
+        Map<String, Set<String>> subGoals = new HashMap<>();
+        currentForest.subGoals.forEach((from, to) -> subGoals.put(from, new HashSet<>(to)));
+
+        // Remove the goals with their adjacent edges, the remaining ones are reloaded.
+        for (String goalId : goalIds) {
+            goals.remove(goalId);
+            subGoals.remove(goalId);
+            for (String parent : currentForest.parentsOf(goalId)) {
+                Set<String> siblings = subGoals.get(parent);
+                if (siblings != null) {
+                    siblings.remove(goalId);
+                }
+            }
+        }
+
+        String values = goalIds.stream().map(id -> "<" + id + ">").collect(Collectors.joining(" "));
+        try {
+            goals.putAll(loadGoals("VALUES ?goal { " + values + " }"));
+        } catch (ParseException ex) {
+            log.error("Parsing exception", ex);
+            forest = null;
+            return;
+        }
+        loadEdges(String.format(QRY_SELECT_ADJACENT_SUB_GOAL_EDGES, values), subGoals);
+
+        forest = new Forest(currentForest.clearCount, currentForest.loadTime, goals, subGoals);
+    }
+
+    /**
+     * Loads goals.
+     *
+     * @param values the VALUES clause which restricts the goals, or an empty string for all goals
+     * @return map of the goals by their URL
+     * @throws ParseException if the internal date format is not valid
+     */
+    private Map<String, Goal> loadGoals(String values) throws ParseException {
+        Map<String, Goal> goals = new HashMap<>();
+
+        try (RDFConnection connection = getConnection();
+             QueryExecution execution = connection.query(String.format(QRY_SELECT_GOALS, values))) {
+            ResultSet set = execution.execSelect();
+
+            while (set.hasNext()) {
+                QuerySolution solution = set.nextSolution();
+                String id = solution.getResource("?goal").getURI();
+                Literal description = solution.getLiteral("?description");
+                Literal needsVerification = solution.getLiteral("?needsVerification");
+                Instant changeDate = DateFormatUtils.ISO_8601_EXTENDED_DATETIME_FORMAT
+                    .parse(solution.getLiteral("?changeDate").getString()).toInstant();
+
+                goals.put(id, new Goal(
+                    id,
+                    solution.getLiteral("?name").getString(),
+                    description != null ? description.getString() : null,
+                    solution.getLiteral("?private").getBoolean(),
+                    needsVerification != null && needsVerification.getBoolean(),
+                    solution.getLiteral("?owner").getString(),
+                    changeDate,
+                    solution.getLiteral("?cnt").getInt()
+                ));
+            }
+        }
+        return goals;
+    }
+
+    /**
+     * Loads sub goal edges into the given map.
+     *
+     * @param query    the query which selects the edges
+     * @param subGoals the sub goals by their parent goal
+     */
+    private void loadEdges(String query, Map<String, Set<String>> subGoals) {
+        try (RDFConnection connection = getConnection(); QueryExecution execution = connection.query(query)) {
+            ResultSet set = execution.execSelect();
+
+            while (set.hasNext()) {
+                QuerySolution solution = set.nextSolution();
+                subGoals.computeIfAbsent(solution.getResource("?from").getURI(), k -> new HashSet<>())
+                    .add(solution.getResource("?to").getURI());
+            }
+        }
+    }
+
+    /**
+     * Loads the number of referencing courses of all referenced goals.
+     *
+     * @return map of the counts by the goal URL
+     */
+    private Map<String, Integer> loadReferenceCounts() {
+        Map<String, Integer> referenceCounts = new HashMap<>();
+
+        try (RDFConnection connection = getConnection(); QueryExecution execution = connection.query(QRY_SELECT_REFERENCE_COUNTS)) {
+            ResultSet set = execution.execSelect();
+
+            while (set.hasNext()) {
+                QuerySolution solution = set.nextSolution();
+                referenceCounts.put(solution.getResource("?goal").getURI(), solution.getLiteral("?cnt").getInt());
+            }
+        }
+        return referenceCounts;
+    }
+
+    //endregion
+
+    /**
+     * Learning goal of the forest.
+     *
+     * @param id               the goal URL
+     * @param name             the name
+     * @param description      the description, may be null
+     * @param privateGoal      whether the goal is private
+     * @param needVerification whether the goal needs a verification before completion
+     * @param owner            the owner
+     * @param lastModifiedDate the last modification date
+     * @param referenceCount   the number of courses which reference the goal
+     */
+    private record Goal(String id, String name, String description, boolean privateGoal, boolean needVerification,
+                        String owner, Instant lastModifiedDate, int referenceCount) {
+
+        /**
+         * Returns a copy of this goal with the given reference count.
+         *
+         * @param count the reference count
+         * @return the copy
+         */
+        Goal withReferenceCount(int count) {
+            return new Goal(id, name, description, privateGoal, needVerification, owner, lastModifiedDate, count);
+        }
+    }
+
+    /**
+     * Immutable snapshot of the learning goal forest.
+     */
+    private static final class Forest {
+        private final long clearCount;
+        private final long loadTime;
+        private final Map<String, Goal> goals;
+        private final Map<String, Set<String>> subGoals;
+        private final Map<String, Set<String>> parents = new HashMap<>();
+        private final Map<String, List<String>> goalsByOwner;
+        private final List<String> publicRoots;
+
+        /**
+         * Constructor.
+         *
+         * @param clearCount the clear count of the dataset at the time of the load
+         * @param loadTime   the {@link System#nanoTime()} when the whole forest has been loaded
+         * @param goals      the goals by their URL
+         * @param subGoals   the sub goal edges
+         */
+        private Forest(long clearCount, long loadTime, Map<String, Goal> goals, Map<String, Set<String>> subGoals) {
+            this.clearCount = clearCount;
+            this.loadTime = loadTime;
+            this.goals = goals;
+            this.subGoals = subGoals;
+
+            subGoals.forEach((from, targets) -> targets.forEach(to -> parents.computeIfAbsent(to, k -> new HashSet<>()).add(from)));
+
+            goalsByOwner = goals.values().stream()
+                .collect(Collectors.groupingBy(Goal::owner, Collectors.mapping(Goal::id, Collectors.toList())));
+            publicRoots = goals.values().stream()
+                .filter(goal -> !goal.privateGoal() && !parents.containsKey(goal.id()))
+                .map(Goal::id)
+                .toList();
+        }
+
+        /**
+         * Returns the goals of the given owner.
+         *
+         * @param owner the owner
+         * @return the goal URLs
+         */
+        private List<String> goalsOf(String owner) {
+            return goalsByOwner.getOrDefault(owner, Collections.emptyList());
+        }
+
+        /**
+         * Returns the parent goals of the given goal.
+         *
+         * @param id the goal URL
+         * @return the parent goal URLs
+         */
+        private Set<String> parentsOf(String id) {
+            return parents.getOrDefault(id, Collections.emptySet());
+        }
+
+        /**
+         * Returns whether the given goal exists and is owned by the given user.
+         *
+         * @param id    the goal URL
+         * @param owner the user
+         * @return {@code true} if the goal is owned by the user, otherwise {@code false}
+         */
+        private boolean isOwnedBy(String id, String owner) {
+            Goal goal = goals.get(id);
+            return goal != null && goal.owner().equals(owner);
+        }
+
+        /**
+         * Returns the given goal and its transitive sub goals.
+         *
+         * @param id the goal URL
+         * @return the goal URLs
+         */
+        private Set<String> subTree(String id) {
+            Set<String> visited = new HashSet<>();
+            Deque<String> queue = new ArrayDeque<>(List.of(id));
+
+            while (!queue.isEmpty()) {
+                String next = queue.poll();
+                if (visited.add(next)) {
+                    queue.addAll(subGoals.getOrDefault(next, Collections.emptySet()));
+                }
+            }
+            return visited;
+        }
+
+        /**
+         * Creates the DTO of the given goal with its visible sub goals.
+         *
+         * @param id      the goal URL
+         * @param visible the visibility of the goals
+         * @return the DTO
+         */
+        private LearningGoalDTO toDTO(String id, Predicate<Goal> visible) {
+            Goal goal = goals.get(id);
+
+            LearningGoalDTO dto = new LearningGoalDTO();
+            dto.setId(goal.id());
+            dto.setName(goal.name());
+            dto.setDescription(goal.description());
+            dto.setPrivateGoal(goal.privateGoal());
+            dto.setNeedVerification(goal.needVerification());
+            dto.setOwner(goal.owner());
+            dto.setLastModifiedDate(goal.lastModifiedDate());
+            dto.setReferencedFromCount(goal.referenceCount());
+
+            for (String subGoal : subGoals.getOrDefault(id, Collections.emptySet())) {
+                Goal subGoalData = goals.get(subGoal);
+                if (subGoalData != null && visible.test(subGoalData)) {
+                    dto.getSubGoals().add(toDTO(subGoal, visible));
+                }
+            }
+            return dto;
+        }
+    }
+}
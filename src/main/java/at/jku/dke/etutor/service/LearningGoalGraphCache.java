@@ -0,0 +1,391 @@
+package at.jku.dke.etutor.service;
+
+import at.jku.dke.etutor.helper.RDFConnectionFactory;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdfconnection.RDFConnection;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the precomputed learning goal graphs of the courses, which are used
+ * for the allocation of tasks.
+ * <p>
+ * A graph contains the sub goal and dependency edges of all learning goals, the goals of the course,
+ * the task assignments of the goals as well as the precomputed task distances and prerequisites
+ * of the course's goals. The graphs are built once and invalidated by the write operations
+ * which change goals, goal dependencies, goal assignments or task assignments.
+ *
+ * @author fne
+ */
+@Component
+public class LearningGoalGraphCache extends AbstractSPARQLEndpointService implements MeterBinder {
+
+    private static final String QRY_SELECT_GOAL_GRAPH = """
+        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+        PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#>
+
+        SELECT ?kind ?from ?to ?difficulty
+        WHERE {
+          {
+            ?from etutor:hasSubGoal ?to.
+            BIND("subGoal" AS ?kind)
+          } UNION {
+            ?from etutor:dependsOn ?to.
+            BIND("dependsOn" AS ?kind)
+          } UNION {
+            ?course etutor:hasGoal ?to.
+            BIND("courseGoal" AS ?kind)
+          } UNION {
+            ?from etutor:hasTaskAssignment ?to.
+            ?to a etutor:TaskAssignment.
+            ?to etutor:hasTaskDifficulty/rdf:value ?difficulty.
+            BIND("task" AS ?kind)
+          }
+        }
+        """;
+
+    private static final long MAXIMUM_SIZE = 500;
+    private static final Duration EXPIRE_AFTER_WRITE = Duration.ofHours(6);
+
+    private final Cache<String, CourseGoalGraph> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param rdfConnectionFactory the injected rdf connection factory
+     */
+    public LearningGoalGraphCache(RDFConnectionFactory rdfConnectionFactory) {
+        super(rdfConnectionFactory);
+
+        cache = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfterWrite(EXPIRE_AFTER_WRITE)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Binds the cache statistics to the given registry.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, cache, "learningGoalGraph");
+    }
+
+    /**
+     * Returns the learning goal graph of the given course. The graph is built if it is not cached.
+     *
+     * @param courseUrl the course URL
+     * @return the course's learning goal graph
+     */
+    public CourseGoalGraph getCourseGoalGraph(String courseUrl) {
+        Objects.requireNonNull(courseUrl);
+
+        long currentGeneration = generation.get();
+        boolean[] loaded = {false};
+        CourseGoalGraph graph;
+        try {
+            graph = cache.get(courseUrl, () -> {
+                loaded[0] = true;
+                return load(courseUrl, currentGeneration);
+            });
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        }
+
+        // Do not keep graphs whose load overlapped with an invalidation.
+        if (loaded[0] && graph.generation != generation.get()) {
+            cache.asMap().remove(courseUrl, graph);
+        }
+        return graph;
+    }
+
+    /**
+     * Invalidates the graph of the given course, e.g. because the course's goal assignment has changed.
+     *
+     * @param courseUrl the course URL
+     */
+    public void invalidateCourse(String courseUrl) {
+        Objects.requireNonNull(courseUrl);
+
+        generation.incrementAndGet();
+        cache.invalidate(courseUrl);
+    }
+
+    /**
+     * Invalidates all graphs, e.g. because learning goals, goal dependencies or task assignments have changed.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    //region Private helper methods
+
+    /**
+     * Loads the learning goal graph of the given course.
+     *
+     * @param courseUrl  the course URL
+     * @param generation the generation at the start of the load
+     * @return the graph
+     */
+    private CourseGoalGraph load(String courseUrl, long generation) {
+        ParameterizedSparqlString qry = new ParameterizedSparqlString(QRY_SELECT_GOAL_GRAPH);
+        qry.setIri("?course", courseUrl);
+
+        Map<String, Set<String>> subGoals = new HashMap<>();
+        Map<String, Set<String>> parents = new HashMap<>();
+        Map<String, Set<String>> dependencies = new HashMap<>();
+        Map<String, Set<String>> dependents = new HashMap<>();
+        Map<String, Set<String>> goalTasks = new HashMap<>();
+        Map<String, Integer> taskDifficulties = new HashMap<>();
+        Set<String> rootGoals = new HashSet<>();
+
+        try (RDFConnection connection = getConnection()) {
+            try (QueryExecution execution = connection.query(qry.asQuery())) {
+                ResultSet set = execution.execSelect();
+
+                while (set.hasNext()) {
+                    QuerySolution solution = set.nextSolution();
+                    String kind = solution.getLiteral("?kind").getString();
+                    String to = solution.getResource("?to").getURI();
+
+                    switch (kind) {
+                        case "subGoal" -> {
+                            String from = solution.getResource("?from").getURI();
+                            subGoals.computeIfAbsent(from, k -> new HashSet<>()).add(to);
+                            parents.computeIfAbsent(to, k -> new HashSet<>()).add(from);
+                        }
+                        case "dependsOn" -> {
+                            String from = solution.getResource("?from").getURI();
+                            dependencies.computeIfAbsent(from, k -> new HashSet<>()).add(to);
+                            dependents.computeIfAbsent(to, k -> new HashSet<>()).add(from);
+                        }
+                        case "courseGoal" -> rootGoals.add(to);
+                        case "task" -> {
+                            String from = solution.getResource("?from").getURI();
+                            goalTasks.computeIfAbsent(from, k -> new HashSet<>()).add(to);
+                            taskDifficulties.put(to, solution.getLiteral("?difficulty").getInt());
+                        }
+                        default -> throw new IllegalStateException("Unknown edge kind: " + kind);
+                    }
+                }
+            }
+        }
+
+        return new CourseGoalGraph(generation, rootGoals, subGoals, parents, dependencies, dependents, goalTasks, taskDifficulties);
+    }
+
+    /**
+     * Returns the reflexive, transitive closure of the given start nodes over the given edges.
+     *
+     * @param start the start nodes
+     * @param edges the edges
+     * @return the closure
+     */
+    private static Set<String> closure(Collection<String> start, Map<String, Set<String>> edges) {
+        Set<String> visited = new HashSet<>(start);
+        Deque<String> queue = new ArrayDeque<>(start);
+
+        while (!queue.isEmpty()) {
+            for (String next : edges.getOrDefault(queue.poll(), Collections.emptySet())) {
+                if (visited.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        return visited;
+    }
+
+    //endregion
+
+    /**
+     * Candidate for a task allocation.
+     *
+     * @param goal     the goal of the course which is not reached yet
+     * @param task     the task assignment URL
+     * @param distance the distance between the goal and the task
+     */
+    public record AllocationCandidate(String goal, String task, int distance) {
+    }
+
+    /**
+     * Immutable, precomputed learning goal graph of a course.
+     */
+    public static final class CourseGoalGraph {
+        private final long generation;
+        private final Map<String, Set<String>> subGoals;
+        private final Map<String, Set<String>> dependencies;
+        private final Map<String, Integer> taskDifficulties;
+        private final Set<String> courseGoals;
+        private final Map<String, Map<String, Integer>> taskDistances = new HashMap<>();
+        private final Map<String, Set<String>> prerequisites = new HashMap<>();
+
+        /**
+         * Constructor.
+         *
+         * @param generation       the cache generation at the start of the load
+         * @param rootGoals        the goals which are directly assigned to the course
+         * @param subGoals         the sub goal edges
+         * @param parents          the inverse sub goal edges
+         * @param dependencies     the dependency edges
+         * @param dependents       the inverse dependency edges
+         * @param goalTasks        the task assignments of the goals
+         * @param taskDifficulties the difficulty values of the tasks
+         */
+        private CourseGoalGraph(long generation, Set<String> rootGoals, Map<String, Set<String>> subGoals,
+                                Map<String, Set<String>> parents, Map<String, Set<String>> dependencies,
+                                Map<String, Set<String>> dependents, Map<String, Set<String>> goalTasks,
+                                Map<String, Integer> taskDifficulties) {
+            this.generation = generation;
+            this.subGoals = subGoals;
+            this.dependencies = dependencies;
+            this.taskDifficulties = taskDifficulties;
+            this.courseGoals = Collections.unmodifiableSet(closure(rootGoals, subGoals));
+
+            // Inverse edges (parents and dependents) for the task lookup of the goals.
+            Map<String, Set<String>> inverse = new HashMap<>(parents);
+            dependents.forEach((goal, goals) -> inverse.merge(goal, goals, (a, b) -> {
+                Set<String> merged = new HashSet<>(a);
+                merged.addAll(b);
+                return merged;
+            }));
+
+            Map<String, Set<String>> reachableTasks = new HashMap<>();
+            for (String goal : courseGoals) {
+                // The goal itself, its parents and the goals which depend on it.
+                Set<String> neighbours = new HashSet<>();
+                neighbours.add(goal);
+                neighbours.addAll(inverse.getOrDefault(goal, Collections.emptySet()));
+
+                Map<String, Integer> distances = new HashMap<>();
+                for (String neighbour : neighbours) {
+                    Set<String> tasks = reachableTasks.computeIfAbsent(neighbour, n -> {
+                        Set<String> result = new HashSet<>();
+                        for (String reachable : closure(List.of(n), inverse)) {
+                            result.addAll(goalTasks.getOrDefault(reachable, Collections.emptySet()));
+                        }
+                        return result;
+                    });
+                    for (String task : tasks) {
+                        distances.merge(task, 1, Integer::sum);
+                    }
+                }
+                taskDistances.put(goal, distances);
+
+                // Transitive dependencies of the goal and of its parents.
+                Set<String> goalPrerequisites = new HashSet<>();
+                for (String start : neighboursForPrerequisites(goal, parents)) {
+                    for (String dependency : dependencies.getOrDefault(start, Collections.emptySet())) {
+                        goalPrerequisites.addAll(closure(List.of(dependency), dependencies));
+                    }
+                }
+                prerequisites.put(goal, goalPrerequisites);
+            }
+        }
+
+        /**
+         * Returns the goals of the course, i.e. the assigned goals and their sub goals.
+         *
+         * @return unmodifiable set of goal URLs
+         */
+        public Set<String> getCourseGoals() {
+            return courseGoals;
+        }
+
+        /**
+         * Returns the goals which are covered by an exercise sheet, i.e. the sheet's goals,
+         * their sub goals and their transitive dependencies.
+         *
+         * @param sheetGoals the goals of the exercise sheet
+         * @return set of goal URLs
+         */
+        public Set<String> getCoveredGoals(Collection<String> sheetGoals) {
+            return closure(closure(sheetGoals, subGoals), dependencies);
+        }
+
+        /**
+         * Returns the allocation candidates ordered by their distance.
+         *
+         * @param sheetGoals      the goals of the exercise sheet
+         * @param sheetDifficulty the difficulty value of the exercise sheet
+         * @param reachedGoals    the goals which the student has already reached
+         * @param assignedTasks   the tasks which have already been assigned to the student
+         * @return list of candidates, ordered by the distance
+         */
+        public List<AllocationCandidate> getAllocationCandidates(Collection<String> sheetGoals, int sheetDifficulty,
+                                                                 Set<String> reachedGoals, Set<String> assignedTasks) {
+            Set<String> coveredGoals = getCoveredGoals(sheetGoals);
+            List<AllocationCandidate> candidates = new ArrayList<>();
+
+            for (String goal : courseGoals) {
+                if (!coveredGoals.contains(goal) || reachedGoals.contains(goal)) {
+                    continue;
+                }
+
+                taskDistances.get(goal).forEach((task, distance) -> {
+                    if (!assignedTasks.contains(task) && taskDifficulties.get(task) <= sheetDifficulty) {
+                        candidates.add(new AllocationCandidate(goal, task, distance));
+                    }
+                });
+            }
+
+            candidates.sort(Comparator.comparingInt(AllocationCandidate::distance)
+                .thenComparing(AllocationCandidate::goal)
+                .thenComparing(AllocationCandidate::task));
+            return candidates;
+        }
+
+        /**
+         * Returns whether the given goal has prerequisites (dependencies of the goal or of its parents)
+         * which are part of the course instance and not reached yet.
+         *
+         * @param goal                the goal URL
+         * @param courseInstanceGoals the goals of the course instance
+         * @param reachedGoals        the goals which the student has already reached
+         * @return {@code true} if an open prerequisite exists, otherwise {@code false}
+         */
+        public boolean hasOpenPrerequisites(String goal, Set<String> courseInstanceGoals, Set<String> reachedGoals) {
+            for (String prerequisite : prerequisites.getOrDefault(goal, Collections.emptySet())) {
+                if (courseInstanceGoals.contains(prerequisite) && !reachedGoals.contains(prerequisite)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns the goal and its parents.
+         *
+         * @param goal    the goal
+         * @param parents the inverse sub goal edges
+         * @return the goal and its parents
+         */
+        private static Set<String> neighboursForPrerequisites(String goal, Map<String, Set<String>> parents) {
+            Set<String> result = new HashSet<>(parents.getOrDefault(goal, Collections.emptySet()));
+            result.add(goal);
+            return result;
+        }
+    }
+}
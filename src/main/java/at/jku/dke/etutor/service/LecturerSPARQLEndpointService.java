@@ -5,12 +5,14 @@ import at.jku.dke.etutor.helper.RDFConnectionFactory;
 import at.jku.dke.etutor.service.dto.courseinstance.taskassignment.LecturerGradingInfoDTO;
 import at.jku.dke.etutor.service.dto.courseinstance.taskassignment.StudentAssignmentOverviewInfoDTO;
 import at.jku.dke.etutor.service.dto.courseinstance.taskassignment.TaskPointEntryDTO;
+import at.jku.dke.etutor.service.exception.InvalidContinuationTokenException;
+import at.jku.dke.etutor.service.export.TableWriter;
+import at.jku.dke.etutor.service.pagination.Keyset;
+import at.jku.dke.etutor.service.pagination.KeysetSlice;
 import one.util.streamex.StreamEx;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
-import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryExecution;
 import org.apache.jena.query.QuerySolution;
 import org.apache.jena.query.ResultSet;
@@ -20,15 +22,12 @@ import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdfconnection.RDFConnection;
 import org.jetbrains.annotations.NotNull;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.time.Instant;
 import java.util.*;
 
@@ -43,7 +42,7 @@ public /*non-sealed */class LecturerSPARQLEndpointService extends AbstractSPARQL
     private static final String QRY_SELECT_LECTURER_OVERVIEW = """
         PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
 
-        SELECT ?student ?submitted ?fullyGraded ?expectedTaskCount ?actualCount ?submissionCount
+        SELECT ?student (STR(?student) AS ?studentId) ?submitted ?fullyGraded ?expectedTaskCount ?actualCount ?submissionCount
         WHERE {
           {
             ?student etutor:hasIndividualTaskAssignment [
@@ -96,10 +95,10 @@ public /*non-sealed */class LecturerSPARQLEndpointService extends AbstractSPARQL
             }
           }
           BIND(BOUND(?actualCount) && BOUND(?submissionCount) && ?expectedTaskCount = ?actualCount && ?actualCount = ?submissionCount as ?submitted).
-        }
-        ORDER BY (?student)
         """;
 
+    private static final Keyset LECTURER_OVERVIEW_KEYSET = new Keyset(Keyset.Key.of("STR(?student)", "?studentId"));
+
     private static final String QRY_COUNT_LECTURER_OVERVIEW =
         """
             PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
@@ -242,13 +241,66 @@ public /*non-sealed */class LecturerSPARQLEndpointService extends AbstractSPARQL
                           }
         """;
 
+    private static final String QRY_SELECT_MAX_ORDER_NO_OF_EXERCISE_SHEET = """
+        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+
+        SELECT (MAX(?orderNo) AS ?maxOrderNo)
+        WHERE {
+          ?student etutor:hasIndividualTaskAssignment ?individualAssignment.
+          ?individualAssignment etutor:fromExerciseSheet ?exerciseSheetId;
+                                etutor:fromCourseInstance ?courseInstanceId;
+                                etutor:hasIndividualTask ?individualTask.
+          ?individualTask etutor:hasOrderNo ?orderNo;
+                          etutor:refersToTask ?taskAssignment.
+          ?taskAssignment etutor:hasMaxPoints ?maxPoints;
+                          etutor:hasTaskHeader ?taskAssignmentHeader.
+        }
+        """;
+
+    private static final String QRY_SELECT_EXERCISE_SHEETS_OF_COURSE_INSTANCE = """
+        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+        PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>
+
+        SELECT ?sheet ?lbl
+        WHERE {
+          ?courseInstance etutor:hasExerciseSheetAssignment [
+            etutor:hasExerciseSheet ?sheet
+          ].
+          ?sheet rdfs:label ?lbl.
+        }
+        ORDER BY (LCASE(?lbl)) ?sheet
+        """;
+
+    private static final String QRY_SELECT_POINTS_FOR_COURSE_INSTANCE = """
+        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+
+        SELECT ?student ?sheet ?points
+        WHERE {
+          ?courseInstance etutor:hasStudent ?student.
+          OPTIONAL {
+            ?student etutor:hasIndividualTaskAssignment ?individualAssignment.
+            ?individualAssignment etutor:fromCourseInstance ?courseInstance;
+                                  etutor:fromExerciseSheet ?sheet;
+                                  etutor:hasIndividualTask ?individualTask.
+            OPTIONAL {
+              ?individualTask etutor:hasDispatcherPoints ?points.
+            }
+          }
+        }
+        ORDER BY ?student
+        """;
+
+    private final StudentProgressProjection studentProgressProjection;
+
     /**
      * Constructor.
      *
-     * @param rdfConnectionFactory the injected rdf connection factory
+     * @param rdfConnectionFactory      the injected rdf connection factory
+     * @param studentProgressProjection the injected student progress projection
      */
-    public LecturerSPARQLEndpointService(RDFConnectionFactory rdfConnectionFactory) {
+    public LecturerSPARQLEndpointService(RDFConnectionFactory rdfConnectionFactory, StudentProgressProjection studentProgressProjection) {
         super(rdfConnectionFactory);
+        this.studentProgressProjection = studentProgressProjection;
     }
 
     /**
@@ -268,14 +320,7 @@ public /*non-sealed */class LecturerSPARQLEndpointService extends AbstractSPARQL
         Objects.requireNonNull(exerciseSheetUUID);
         Objects.requireNonNull(page);
 
-        String courseInstanceId = ETutorVocabulary.createCourseInstanceURLString(courseInstanceUUID);
-        String exerciseSheetId = ETutorVocabulary.createExerciseSheetURLString(exerciseSheetUUID);
-
-        ParameterizedSparqlString qry = new ParameterizedSparqlString(QRY_SELECT_LECTURER_OVERVIEW);
-        ParameterizedSparqlString countQry = new ParameterizedSparqlString(QRY_COUNT_LECTURER_OVERVIEW);
-
-        countQry.setIri("?courseInstance", courseInstanceId);
-        countQry.setIri("?sheet", exerciseSheetId);
+        ParameterizedSparqlString qry = createLecturerOverviewQuery(courseInstanceUUID, exerciseSheetUUID, null);
 
         if (page.isPaged()) {
             qry.append("LIMIT ");
@@ -283,8 +328,6 @@ public /*non-sealed */class LecturerSPARQLEndpointService extends AbstractSPARQL
             qry.append("\nOFFSET ");
             qry.append(page.getOffset());
         }
-        qry.setIri("?courseInstance", courseInstanceId);
-        qry.setIri("?sheet", exerciseSheetId);
 
         List<StudentAssignmentOverviewInfoDTO> entries = new ArrayList<>();
         long count;
@@ -293,33 +336,45 @@ public /*non-sealed */class LecturerSPARQLEndpointService extends AbstractSPARQL
                 ResultSet set = execution.execSelect();
 
                 while (set.hasNext()) {
-                    QuerySolution solution = set.nextSolution();
+                    entries.add(toStudentAssignmentOverviewInfo(set.nextSolution()));
+                }
+            }
+            count = countLecturerOverview(connection, courseInstanceUUID, exerciseSheetUUID);
+        }
+        return PageableExecutionUtils.getPage(entries, page, () -> count);
+    }
 
-                    String studentURI = solution.getResource("?student").getURI();
-                    String matriculationNo = studentURI.substring(studentURI.lastIndexOf('#') + 1);
+    /**
+     * Returns a page of the lecturer overview, which is selected by a continuation token.
+     * The entries are only counted for the first page.
+     *
+     * @param courseInstanceUUID the course instance uuid
+     * @param exerciseSheetUUID  the exercise sheet uuid
+     * @param continuationToken  the continuation token of the previous page, null for the first page
+     * @param size               the page size
+     * @return page of the lecturer overview
+     * @throws InvalidContinuationTokenException if the continuation token is invalid
+     */
+    public KeysetSlice<StudentAssignmentOverviewInfoDTO> getPagedLecturerOverview(
+        String courseInstanceUUID,
+        String exerciseSheetUUID,
+        String continuationToken,
+        int size
+    ) throws InvalidContinuationTokenException {
+        Objects.requireNonNull(courseInstanceUUID);
+        Objects.requireNonNull(exerciseSheetUUID);
 
-                    boolean submitted = solution.getLiteral("?submitted").getBoolean();
-                    boolean fullyGraded = solution.getLiteral("?fullyGraded").getBoolean();
-                    int expectedTaskCount = solution.getLiteral("?expectedTaskCount").getInt();
+        List<String> after = LECTURER_OVERVIEW_KEYSET.decode(continuationToken);
+        ParameterizedSparqlString qry = createLecturerOverviewQuery(courseInstanceUUID, exerciseSheetUUID, after);
+        LECTURER_OVERVIEW_KEYSET.appendLimit(qry, size);
 
-                    Literal submissionTaskCountLiteral = solution.getLiteral("?submissionCount");
-                    int submissionTaskCount = 0;
-                    if (submissionTaskCountLiteral != null) {
-                        submissionTaskCount = submissionTaskCountLiteral.getInt();
-                    }
+        try (RDFConnection connection = getConnection()) {
+            Long count = after == null ? countLecturerOverview(connection, courseInstanceUUID, exerciseSheetUUID) : null;
 
-                    entries.add(new StudentAssignmentOverviewInfoDTO(matriculationNo, submitted, fullyGraded, expectedTaskCount, submissionTaskCount));
-                }
-            }
-            try (QueryExecution execution = connection.query(countQry.asQuery())) {
-                ResultSet set = execution.execSelect();
-                //noinspection ResultOfMethodCallIgnored
-                set.hasNext();
-                QuerySolution solution = set.nextSolution();
-                count = solution.getLiteral("?cnt").getInt();
+            try (QueryExecution execution = connection.query(qry.asQuery())) {
+                return LECTURER_OVERVIEW_KEYSET.read(execution.execSelect(), size, this::toStudentAssignmentOverviewInfo, count);
             }
         }
-        return PageableExecutionUtils.getPage(entries, page, () -> count);
     }
 
     /**
@@ -461,6 +516,7 @@ public /*non-sealed */class LecturerSPARQLEndpointService extends AbstractSPARQL
                 connection.update(updateFailedCountQry.asUpdate());
             }
         }
+        studentProgressProjection.taskGraded(studentURL, courseInstanceURL, exerciseSheetURL, orderNo);
     }
 
     /**
@@ -702,6 +758,7 @@ public /*non-sealed */class LecturerSPARQLEndpointService extends AbstractSPARQL
         try (RDFConnection connection = getConnection()) {
             connection.update(updateQry.asUpdate());
         }
+        studentProgressProjection.exerciseSheetClosedForCourseInstance(courseInstanceURL, exerciseSheetURL, true);
     }
 
     /**
@@ -753,117 +810,328 @@ public /*non-sealed */class LecturerSPARQLEndpointService extends AbstractSPARQL
         try (RDFConnection connection = getConnection()) {
             connection.update(updateQry.asUpdate());
         }
+        studentProgressProjection.exerciseSheetClosedForCourseInstance(courseInstanceURL, exerciseSheetURL, false);
     }
 
-    public InputStreamResource getAchievedPointsForExerciseSheet(String courseInstanceUUID, String exerciseSheetUUID, String type) {
-        Optional<List<TaskPointEntryDTO>> optionalPointsOverviewInfo = getPointsOverviewForExerciseSheet(exerciseSheetUUID, courseInstanceUUID);
-        List<TaskPointEntryDTO> pointsOverviewInfo = optionalPointsOverviewInfo.orElse(null);
+    /**
+     * Writes the achieved points of the students for a given exercise sheet and course instance as table.
+     * The points are read from a result which is ordered by student and written in a single pass,
+     * i.e. the memory usage does not depend on the number of students.
+     * <p>
+     * The {@code aggregated} type writes one row per student with one column per task (by order number)
+     * and the sum of the points. Every other type writes one row per assigned task.
+     *
+     * @param courseInstanceUUID the course instance's UUID - must not be null
+     * @param exerciseSheetUUID  the exercise sheet's UUID - must not be null
+     * @param type               the type of the export - must not be null
+     * @param writer             the table writer - must not be null
+     * @throws IOException if the table could not be written
+     */
+    public void writeAchievedPointsForExerciseSheet(String courseInstanceUUID, String exerciseSheetUUID, String type, TableWriter writer) throws IOException {
+        Objects.requireNonNull(courseInstanceUUID);
+        Objects.requireNonNull(exerciseSheetUUID);
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(writer);
+
+        String courseInstanceId = ETutorVocabulary.createCourseInstanceURLString(courseInstanceUUID);
+        String exerciseSheetId = ETutorVocabulary.createExerciseSheetURLString(exerciseSheetUUID);
 
-        if(type.equals("aggregated")){
-            return getAchievedPointsForExerciseSheetAggregatedByStudent(pointsOverviewInfo);
-        }else{
-            return getAchievedPointsForExerciseSheetNonAggregated(pointsOverviewInfo);
+        try (RDFConnection connection = getConnection()) {
+            if (type.equals("aggregated")) {
+                writeAchievedPointsForExerciseSheetAggregatedByStudent(connection, courseInstanceId, exerciseSheetId, writer);
+            } else {
+                writeAchievedPointsForExerciseSheetNonAggregated(connection, courseInstanceId, exerciseSheetId, writer);
+            }
         }
+    }
+
+    /**
+     * Writes the gradebook of a course instance as table, i.e. one row per student of the course instance
+     * with the sum of the achieved points of each exercise sheet and the total sum. The points are read
+     * from a result which is ordered by student and written in a single pass, i.e. the memory usage
+     * does not depend on the number of students.
+     *
+     * @param courseInstanceUUID the course instance's UUID - must not be null
+     * @param writer             the table writer - must not be null
+     * @throws IOException if the table could not be written
+     */
+    public void writeGradebookForCourseInstance(String courseInstanceUUID, TableWriter writer) throws IOException {
+        Objects.requireNonNull(courseInstanceUUID);
+        Objects.requireNonNull(writer);
 
+        String courseInstanceId = ETutorVocabulary.createCourseInstanceURLString(courseInstanceUUID);
 
-    }
+        try (RDFConnection connection = getConnection()) {
+            ParameterizedSparqlString sheetQuery = new ParameterizedSparqlString(QRY_SELECT_EXERCISE_SHEETS_OF_COURSE_INSTANCE);
+            sheetQuery.setIri("?courseInstance", courseInstanceId);
+
+            Map<String, Integer> sheetColumns = new HashMap<>();
+            List<String> columnHeaders = new ArrayList<>();
+            columnHeaders.add("matriculationNo");
+            connection.querySelect(sheetQuery.asQuery(), solution -> {
+                if (sheetColumns.putIfAbsent(solution.getResource("?sheet").getURI(), sheetColumns.size()) == null) {
+                    columnHeaders.add(solution.getLiteral("?lbl").getString());
+                }
+            });
+            columnHeaders.add("sum");
+
+            ParameterizedSparqlString pointsQuery = new ParameterizedSparqlString(QRY_SELECT_POINTS_FOR_COURSE_INSTANCE);
+            pointsQuery.setIri("?courseInstance", courseInstanceId);
 
-    private InputStreamResource getAchievedPointsForExerciseSheetNonAggregated(List<TaskPointEntryDTO> pointsOverviewInfo) {
-        String[] csvHeader = {
-            "matriculationNo", "taskHeader", "maxPoints", "points"
-        };
-
-        ByteArrayInputStream byteArrayOutputStream;
-
-        try (
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            CSVPrinter csvPrinter = new CSVPrinter(
-                new PrintWriter(out),
-                CSVFormat.DEFAULT.withHeader(csvHeader)
-            )
-        ) {
-            List<String> printableRecord;
-            for (TaskPointEntryDTO record : pointsOverviewInfo) {
-                printableRecord = new ArrayList<>();
-                printableRecord.add(record.getMatriculationNo());
-                printableRecord.add(record.getTaskHeader());
-                printableRecord.add(Double.toString(record.getMaxPoints()));
-                printableRecord.add(Double.toString(record.getPoints()));
-                csvPrinter.printRecord(printableRecord);
-            }
-
-            csvPrinter.flush();
-
-            byteArrayOutputStream = new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException(e.getMessage());
+            writer.writeHeader(columnHeaders);
+            try (QueryExecution execution = connection.query(pointsQuery.asQuery())) {
+                ResultSet set = execution.execSelect();
+
+                String currentStudent = null;
+                double[] sheetPoints = new double[sheetColumns.size()];
+                boolean[] sheetAssigned = new boolean[sheetColumns.size()];
+
+                while (set.hasNext()) {
+                    QuerySolution solution = set.next();
+                    String student = solution.getResource("?student").getURI();
+
+                    if (!student.equals(currentStudent)) {
+                        if (currentStudent != null) {
+                            printGradebookRecord(writer, currentStudent, sheetPoints, sheetAssigned);
+                        }
+                        currentStudent = student;
+                        Arrays.fill(sheetPoints, 0);
+                        Arrays.fill(sheetAssigned, false);
+                    }
+
+                    Resource sheet = solution.getResource("?sheet");
+                    Integer column = sheet != null ? sheetColumns.get(sheet.getURI()) : null;
+                    if (column != null) {
+                        sheetAssigned[column] = true;
+                        Literal pointsLiteral = solution.getLiteral("?points");
+                        if (pointsLiteral != null) sheetPoints[column] += pointsLiteral.getDouble();
+                    }
+                }
+                if (currentStudent != null) {
+                    printGradebookRecord(writer, currentStudent, sheetPoints, sheetAssigned);
+                }
+            }
         }
+    }
+
+    /**
+     * Writes one row per assigned task of the given exercise sheet.
+     *
+     * @param connection       the connection
+     * @param courseInstanceId the course instance's id
+     * @param exerciseSheetId  the exercise sheet's id
+     * @param writer           the table writer
+     * @throws IOException if the table could not be written
+     */
+    private void writeAchievedPointsForExerciseSheetNonAggregated(RDFConnection connection, String courseInstanceId,
+                                                                  String exerciseSheetId, TableWriter writer) throws IOException {
+        writer.writeHeader(List.of("matriculationNo", "taskHeader", "maxPoints", "points"));
 
-        return new InputStreamResource(byteArrayOutputStream);
+        try (QueryExecution execution = connection.query(createPointsForExerciseSheetQuery(courseInstanceId, exerciseSheetId))) {
+            ResultSet set = execution.execSelect();
+            while (set.hasNext()) {
+                QuerySolution solution = set.next();
+                Literal pointsLiteral = solution.getLiteral("?points");
+
+                writer.writeRow(List.of(
+                    getMatriculationNo(solution),
+                    solution.getLiteral("?taskAssignmentHeader").getString(),
+                    solution.getLiteral("?maxPoints").getDouble(),
+                    pointsLiteral != null ? pointsLiteral.getDouble() : 0.0));
+            }
+        }
     }
 
-    private InputStreamResource getAchievedPointsForExerciseSheetAggregatedByStudent(List<TaskPointEntryDTO> pointsOverviewInfo) {
-        OptionalInt optMaxOrderNo = pointsOverviewInfo.stream().mapToInt(TaskPointEntryDTO::getOrderNo).max();
-        int maxOrderNo = optMaxOrderNo.orElse(0);
+    /**
+     * Writes one row per student of the given exercise sheet with the points of each task and the sum of the points.
+     *
+     * @param connection       the connection
+     * @param courseInstanceId the course instance's id
+     * @param exerciseSheetId  the exercise sheet's id
+     * @param writer           the table writer
+     * @throws IOException if the table could not be written
+     */
+    private void writeAchievedPointsForExerciseSheetAggregatedByStudent(RDFConnection connection, String courseInstanceId,
+                                                                        String exerciseSheetId, TableWriter writer) throws IOException {
+        ParameterizedSparqlString maxOrderNoQuery = new ParameterizedSparqlString(QRY_SELECT_MAX_ORDER_NO_OF_EXERCISE_SHEET);
+        maxOrderNoQuery.setIri("?courseInstanceId", courseInstanceId);
+        maxOrderNoQuery.setIri("?exerciseSheetId", exerciseSheetId);
+
+        int maxOrderNo = 0;
+        try (QueryExecution execution = connection.query(maxOrderNoQuery.asQuery())) {
+            ResultSet set = execution.execSelect();
+            if (set.hasNext()) {
+                Literal maxOrderNoLiteral = set.next().getLiteral("?maxOrderNo");
+                if (maxOrderNoLiteral != null) maxOrderNo = maxOrderNoLiteral.getInt();
+            }
+        }
 
         List<String> columnHeaders = new ArrayList<>();
         columnHeaders.add("matriculationNo");
-        for(int i = 1; i <= maxOrderNo; i++){
+        for (int i = 1; i <= maxOrderNo; i++) {
             columnHeaders.add("task %d".formatted(i));
         }
         columnHeaders.add("sum");
 
-        String[] csvHeader = columnHeaders.toArray(new String[0]);
-        ByteArrayInputStream byteArrayOutputStream;
-
-        try (
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            CSVPrinter csvPrinter = new CSVPrinter(
-                new PrintWriter(out),
-                CSVFormat.DEFAULT.withHeader(csvHeader)
-            )
-        ) {
-            List<String> students = pointsOverviewInfo.stream()
-                .map(TaskPointEntryDTO::getMatriculationNo)
-                .distinct()
-                .toList();
-            for(String matriculationNo : students){
-                List<String> printableRecord = new ArrayList<>();
-                printableRecord.add(matriculationNo);
-
-                List<TaskPointEntryDTO> subListForCurrentStudent = pointsOverviewInfo.stream()
-                    .filter(dto -> dto.getMatriculationNo().equals(matriculationNo))
-                    .sorted(Comparator.comparingInt(TaskPointEntryDTO::getOrderNo))
-                    .toList();
-                for (TaskPointEntryDTO taskPointEntryDTO : subListForCurrentStudent) {
-                    printableRecord.add(Double.toString(taskPointEntryDTO.getPoints()));
-                }
+        writer.writeHeader(columnHeaders);
 
-                // fill potentially missing columns due to unequal amount of assigned tasks
-                int maxOrderNoOfStudent = subListForCurrentStudent.stream()
-                    .mapToInt(TaskPointEntryDTO::getOrderNo)
-                    .max().orElse(0);
-                int difference = maxOrderNo - maxOrderNoOfStudent;
-                for(int i = 0; i < difference; i++){
-                    printableRecord.add("");
-                }
+        try (QueryExecution execution = connection.query(createPointsForExerciseSheetQuery(courseInstanceId, exerciseSheetId))) {
+            ResultSet set = execution.execSelect();
+
+            String currentStudent = null;
+            // the cells of the tasks are left empty if a student has been assigned less tasks
+            Double[] taskPoints = new Double[maxOrderNo];
+            double sumOfPoints = 0;
+
+            while (set.hasNext()) {
+                QuerySolution solution = set.next();
+                String student = getMatriculationNo(solution);
 
-                // add sum of achieved points for exercise sheet
-                double sumOfPoints = subListForCurrentStudent.stream()
-                        .mapToDouble(TaskPointEntryDTO::getPoints)
-                            .sum();
-                printableRecord.add(Double.toString(sumOfPoints));
+                if (!student.equals(currentStudent)) {
+                    if (currentStudent != null) {
+                        printAggregatedRecord(writer, currentStudent, taskPoints, sumOfPoints);
+                    }
+                    currentStudent = student;
+                    Arrays.fill(taskPoints, null);
+                    sumOfPoints = 0;
+                }
 
-                csvPrinter.printRecord(printableRecord);
+                Literal pointsLiteral = solution.getLiteral("?points");
+                double points = pointsLiteral != null ? pointsLiteral.getDouble() : 0;
+                int orderNo = solution.getLiteral("?orderNo").getInt();
+                if (orderNo >= 1 && orderNo <= maxOrderNo) taskPoints[orderNo - 1] = points;
+                sumOfPoints += points;
             }
+            if (currentStudent != null) {
+                printAggregatedRecord(writer, currentStudent, taskPoints, sumOfPoints);
+            }
+        }
+    }
+
+    /**
+     * Creates the query for the points of the assigned tasks of an exercise sheet, ordered by student and order number.
+     *
+     * @param courseInstanceId the course instance's id
+     * @param exerciseSheetId  the exercise sheet's id
+     * @return the query
+     */
+    private static Query createPointsForExerciseSheetQuery(String courseInstanceId, String exerciseSheetId) {
+        ParameterizedSparqlString query = new ParameterizedSparqlString(QRY_SELECT_POINTS_FOR_EXERCISE_SHEET + "ORDER BY ?student ?orderNo");
+        query.setIri("?courseInstanceId", courseInstanceId);
+        query.setIri("?exerciseSheetId", exerciseSheetId);
+        return query.asQuery();
+    }
 
-            csvPrinter.flush();
+    /**
+     * Returns the matriculation number of the student of the given solution.
+     *
+     * @param solution the solution
+     * @return the matriculation number
+     */
+    private static String getMatriculationNo(QuerySolution solution) {
+        String student = solution.getResource("?student").getURI();
+        return student.substring(student.lastIndexOf("#") + 1);
+    }
 
-            byteArrayOutputStream = new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException(e.getMessage());
+    /**
+     * Prints the aggregated points of a student.
+     *
+     * @param writer          the table writer
+     * @param matriculationNo the matriculation number
+     * @param taskPoints      the points of the tasks by order number, {@code null} if the task has not been assigned
+     * @param sumOfPoints     the sum of the points
+     * @throws IOException if the row could not be written
+     */
+    private static void printAggregatedRecord(TableWriter writer, String matriculationNo, Double[] taskPoints, double sumOfPoints) throws IOException {
+        List<Object> printableRecord = new ArrayList<>(taskPoints.length + 2);
+        printableRecord.add(matriculationNo);
+        printableRecord.addAll(Arrays.asList(taskPoints));
+        printableRecord.add(sumOfPoints);
+        writer.writeRow(printableRecord);
+    }
+
+    /**
+     * Prints the gradebook record of a student.
+     *
+     * @param writer        the table writer
+     * @param student       the student's URI
+     * @param sheetPoints   the sums of the points by exercise sheet column
+     * @param sheetAssigned whether the student has been assigned tasks of the exercise sheet
+     * @throws IOException if the row could not be written
+     */
+    private static void printGradebookRecord(TableWriter writer, String student, double[] sheetPoints, boolean[] sheetAssigned) throws IOException {
+        List<Object> printableRecord = new ArrayList<>(sheetPoints.length + 2);
+        printableRecord.add(student.substring(student.lastIndexOf("#") + 1));
+
+        double sumOfPoints = 0;
+        for (int i = 0; i < sheetPoints.length; i++) {
+            printableRecord.add(sheetAssigned[i] ? sheetPoints[i] : null);
+            sumOfPoints += sheetPoints[i];
+        }
+        printableRecord.add(sumOfPoints);
+        writer.writeRow(printableRecord);
+    }
+
+    /**
+     * Creates the ordered query of the lecturer overview.
+     *
+     * @param courseInstanceUUID the course instance uuid
+     * @param exerciseSheetUUID  the exercise sheet uuid
+     * @param after              the key values of the last entry of the previous page, may be null
+     * @return the query
+     */
+    private ParameterizedSparqlString createLecturerOverviewQuery(String courseInstanceUUID, String exerciseSheetUUID, List<String> after) {
+        ParameterizedSparqlString qry = new ParameterizedSparqlString(QRY_SELECT_LECTURER_OVERVIEW);
+        LECTURER_OVERVIEW_KEYSET.appendFilter(qry, after);
+        qry.append("}\n");
+        LECTURER_OVERVIEW_KEYSET.appendOrderBy(qry);
+
+        qry.setIri("?courseInstance", ETutorVocabulary.createCourseInstanceURLString(courseInstanceUUID));
+        qry.setIri("?sheet", ETutorVocabulary.createExerciseSheetURLString(exerciseSheetUUID));
+        return qry;
+    }
+
+    /**
+     * Counts the entries of the lecturer overview.
+     *
+     * @param connection         the rdf connection
+     * @param courseInstanceUUID the course instance uuid
+     * @param exerciseSheetUUID  the exercise sheet uuid
+     * @return the number of entries
+     */
+    private long countLecturerOverview(RDFConnection connection, String courseInstanceUUID, String exerciseSheetUUID) {
+        ParameterizedSparqlString countQry = new ParameterizedSparqlString(QRY_COUNT_LECTURER_OVERVIEW);
+        countQry.setIri("?courseInstance", ETutorVocabulary.createCourseInstanceURLString(courseInstanceUUID));
+        countQry.setIri("?sheet", ETutorVocabulary.createExerciseSheetURLString(exerciseSheetUUID));
+
+        try (QueryExecution execution = connection.query(countQry.asQuery())) {
+            ResultSet set = execution.execSelect();
+            //noinspection ResultOfMethodCallIgnored
+            set.hasNext();
+            return set.nextSolution().getLiteral("?cnt").getInt();
+        }
+    }
+
+    /**
+     * Converts a row of the lecturer overview.
+     *
+     * @param solution the row
+     * @return the overview info of the student
+     */
+    private StudentAssignmentOverviewInfoDTO toStudentAssignmentOverviewInfo(QuerySolution solution) {
+        String studentURI = solution.getResource("?student").getURI();
+        String matriculationNo = studentURI.substring(studentURI.lastIndexOf('#') + 1);
+
+        boolean submitted = solution.getLiteral("?submitted").getBoolean();
+        boolean fullyGraded = solution.getLiteral("?fullyGraded").getBoolean();
+        int expectedTaskCount = solution.getLiteral("?expectedTaskCount").getInt();
+
+        Literal submissionTaskCountLiteral = solution.getLiteral("?submissionCount");
+        int submissionTaskCount = 0;
+        if (submissionTaskCountLiteral != null) {
+            submissionTaskCount = submissionTaskCountLiteral.getInt();
         }
 
-        return new InputStreamResource(byteArrayOutputStream);
+        return new StudentAssignmentOverviewInfoDTO(matriculationNo, submitted, fullyGraded, expectedTaskCount, submissionTaskCount);
     }
 }
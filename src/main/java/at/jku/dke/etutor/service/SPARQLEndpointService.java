@@ -3,7 +3,9 @@ package at.jku.dke.etutor.service;
 import at.jku.dke.etutor.domain.rdf.ETutorVocabulary;
 import at.jku.dke.etutor.helper.RDFConnectionFactory;
 import at.jku.dke.etutor.service.dto.*;
+import at.jku.dke.etutor.service.dto.taskassignment.LearningGoalDisplayDTO;
 import at.jku.dke.etutor.service.exception.*;
+import at.jku.dke.etutor.service.search.SearchIndex;
 import at.jku.dke.etutor.web.rest.errors.BadRequestAlertException;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.time.DateFormatUtils;
@@ -19,6 +21,8 @@ import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.tags.Param;
 
@@ -166,13 +170,28 @@ public /*non-sealed*/ class SPARQLEndpointService extends AbstractSPARQLEndpoint
 
     private final Logger log = LoggerFactory.getLogger(SPARQLEndpointService.class);
 
+    private final LearningGoalGraphCache learningGoalGraphCache;
+    private final SearchIndex searchIndex;
+    private final TaskAssignmentCache taskAssignmentCache;
+    private final LearningGoalForestCache learningGoalForestCache;
+
     /**
      * Constructor.
      *
-     * @param rdfConnectionFactory the injected rdf connection factory
+     * @param rdfConnectionFactory    the injected rdf connection factory
+     * @param learningGoalGraphCache  the injected learning goal graph cache
+     * @param searchIndex             the injected search index
+     * @param taskAssignmentCache     the injected task assignment cache
+     * @param learningGoalForestCache the injected learning goal forest cache
      */
-    public SPARQLEndpointService(RDFConnectionFactory rdfConnectionFactory) {
+    public SPARQLEndpointService(RDFConnectionFactory rdfConnectionFactory, LearningGoalGraphCache learningGoalGraphCache,
+                                 SearchIndex searchIndex, TaskAssignmentCache taskAssignmentCache,
+                                 LearningGoalForestCache learningGoalForestCache) {
         super(rdfConnectionFactory);
+        this.learningGoalGraphCache = learningGoalGraphCache;
+        this.searchIndex = searchIndex;
+        this.taskAssignmentCache = taskAssignmentCache;
+        this.learningGoalForestCache = learningGoalForestCache;
     }
 
     /**
@@ -219,6 +238,8 @@ public /*non-sealed*/ class SPARQLEndpointService extends AbstractSPARQLEndpoint
 
             conn.load(model);
         }
+        learningGoalForestCache.refreshGoals(List.of(goal.getURI()));
+        searchIndex.refreshGoalsOf(owner);
 
         return new LearningGoalDTO(newLearningGoalDTO, owner, now, goal.getURI());
     }
@@ -253,6 +274,10 @@ public /*non-sealed*/ class SPARQLEndpointService extends AbstractSPARQLEndpoint
 
             conn.update(query.asUpdate());
         }
+        learningGoalGraphCache.invalidateAll();
+        learningGoalForestCache.refreshGoalWithSubGoals(goalUri);
+        taskAssignmentCache.invalidateAllTaskAssignments();
+        searchIndex.refreshGoalsOf(owner);
     }
 
     /**
@@ -357,6 +382,9 @@ public /*non-sealed*/ class SPARQLEndpointService extends AbstractSPARQLEndpoint
                 conn.update(transitiveUpdateQry);
             }
         }
+        learningGoalGraphCache.invalidateAll();
+        learningGoalForestCache.refreshGoalWithSubGoals(learningGoalDTO.getId());
+        searchIndex.refreshGoalsOf(learningGoalDTO.getOwner());
     }
 
     /**
@@ -399,6 +427,9 @@ public /*non-sealed*/ class SPARQLEndpointService extends AbstractSPARQLEndpoint
             parentGoalResource.addProperty(ETutorVocabulary.hasSubGoal, newGoal);
 
             conn.load(model);
+            learningGoalGraphCache.invalidateAll();
+            learningGoalForestCache.refreshGoals(List.of(newGoal.getURI()));
+            searchIndex.refreshGoalsOf(owner);
 
             return new LearningGoalDTO(newLearningGoalDTO, owner, now, newGoal.getURI());
         }
@@ -456,6 +487,8 @@ public /*non-sealed*/ class SPARQLEndpointService extends AbstractSPARQLEndpoint
                 parentGoalResource.addProperty(ETutorVocabulary.hasSubGoal, subGoalResource);
 
                 conn.load(model);
+                learningGoalGraphCache.invalidateAll();
+                learningGoalForestCache.refreshGoals(List.of(subGoalURL, parentGoalURL));
             }else{
                 throw new IllegalArgumentException();
             }
@@ -470,165 +503,20 @@ public /*non-sealed*/ class SPARQLEndpointService extends AbstractSPARQLEndpoint
      * @throws InternalModelException if the internal date format is not valid
      */
     public SortedSet<LearningGoalDTO> getVisibleLearningGoalsForUser(String owner, boolean showOnlyOwnGoals) throws InternalModelException {
-        String queryStr;
-
-        if (showOnlyOwnGoals) {
-            queryStr =
-                """
-                    PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-                    PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>
-                    PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#>
-
-                    CONSTRUCT {
-                      ?subject ?predicate ?object.
-                      ?subject etutor:hasReferenceCnt ?cnt.
-                      ?subject etutor:hasRoot ?root
-                    } WHERE {
-                      {
-                        ?subject ?predicate ?object.
-                        ?subject a etutor:Goal.
-                        ?subject rdfs:label ?lbl
-                        {
-                          ?subject etutor:hasOwner ?currentUser.
-                        }
-                      } UNION {
-                        BIND(rdf:type AS ?predicate)
-                        BIND(etutor:SubGoal AS ?object)
-                        ?goal etutor:hasSubGoal ?subject .
-                        ?goal etutor:hasOwner ?currentUser.
-                      } {
-                        SELECT (COUNT(?course) as ?cnt) ?subject WHERE {
-                          ?subject a etutor:Goal.
-                          OPTIONAL { ?course etutor:hasGoal ?subject }
-                        }
-                        GROUP BY ?subject
-                      } {
-                        SELECT ?subject ?root WHERE {
-                          ?root etutor:hasSubGoal* ?subject.
-                          FILTER (
-                            !EXISTS {
-                              ?otherGoal etutor:hasSubGoal ?root.
-                            }
-                          )
-                        }
-                      }
-                    }
-                    """;
-        } else {
-            queryStr =
-                """
-                        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-                        PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>
-                        PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#>
-
-                        CONSTRUCT {
-                          ?subject ?predicate ?object.
-                          ?subject etutor:hasReferenceCnt ?cnt.
-                          ?subject etutor:hasRoot ?root.
-                          ?subject etutor:hasSubGoal ?subGoalFromSubject.
-                        } WHERE {
-                          {
-                            ?subject a etutor:Goal.
-                            ?subject ?predicate ?object.
-                            ?subject !etutor:hasSubGoal ?object.
-                            ?subject rdfs:label ?lbl
-                            {
-                              ?subject etutor:isPrivate false.
-                            }
-                            UNION
-                            {
-                              ?subject etutor:isPrivate true.
-                              ?subject etutor:hasOwner ?currentUser.
-                            }
-                            OPTIONAL {
-                              ?subject etutor:hasSubGoal ?subGoalFromSubject.
-                              {
-                                ?subGoalFromSubject etutor:isPrivate false.
-                              }
-                              UNION
-                              {
-                                ?subGoalFromSubject etutor:isPrivate true.
-                                ?subGoalFromSubject etutor:hasOwner ?currentUser.
-                              }
-                            }
-                          } UNION {
-                            BIND(rdf:type AS ?predicate)
-                            BIND(etutor:SubGoal AS ?object)
-                            ?goal etutor:hasSubGoal ?subject .
-                            {
-                              ?subject etutor:isPrivate false.
-                            }
-                            UNION
-                            {
-                              ?subject etutor:isPrivate true.
-                              ?subject etutor:hasOwner "admin".
-                            }
-                          } {
-                            SELECT (COUNT(?course) as ?cnt) ?subject WHERE {
-                              ?subject a etutor:Goal.
-                              {
-                              	?subject etutor:isPrivate false.
-                              }
-                              UNION
-                              {
-                                ?subject etutor:isPrivate true.
-                                ?subject etutor:hasOwner ?currentUser.
-                              }
-                              OPTIONAL { ?course etutor:hasGoal ?subject }
-                            }
-                            GROUP BY ?subject
-                          } {
-                            SELECT ?subject ?root WHERE {
-                              ?root etutor:hasSubGoal* ?subject.
-                              {
-                                ?subject etutor:isPrivate false.
-                              }
-                              UNION
-                              {
-                                ?subject etutor:isPrivate true.
-                                ?subject etutor:hasOwner ?currentUser.
-                              }
-                              FILTER (
-                                !EXISTS {
-                                  ?otherGoal etutor:hasSubGoal ?root.
-                                }
-                              )
-                            }
-                          }
-                        }
-
-
-                    """;
-        }
-
-        ParameterizedSparqlString qry = new ParameterizedSparqlString(queryStr);
-        qry.setLiteral("?currentUser", owner);
-
-        SortedSet<LearningGoalDTO> goalList = new TreeSet<>();
-
-        try (RDFConnection conn = getConnection()) {
-            Model resultModel = conn.queryConstruct(qry.asQuery());
-            ResIterator iterator = null;
-
-            try {
-                iterator = resultModel.listSubjects();
-                while (iterator.hasNext()) {
-                    Resource resource = iterator.next();
-                    if (!resource.hasProperty(RDF.type, ETutorVocabulary.SubGoal)) {
-                        goalList.add(new LearningGoalDTO(resource));
-                    }
-                }
-            } catch (ParseException ex) {
-                log.error("Parsing exception", ex);
-                throw new InternalModelException(ex);
-            } finally {
-                if (iterator != null) {
-                    iterator.close();
-                }
-            }
+        return learningGoalForestCache.getVisibleLearningGoals(owner, showOnlyOwnGoals);
+    }
 
-            return goalList;
-        }
+    /**
+     * Returns the paged list of learning goals which are visible for the given user and whose name
+     * contains the words of the filter, ordered by relevance.
+     *
+     * @param nameQry the name filter, may be null or blank
+     * @param user    the currently logged-in user
+     * @param page    the page object
+     * @return {@link Page} containing the learning goals
+     */
+    public Page<LearningGoalDisplayDTO> getFilteredLearningGoalsPaged(String nameQry, String user, Pageable page) {
+        return searchIndex.searchLearningGoals(nameQry, user, page);
     }
 
     /**
@@ -694,6 +582,7 @@ public /*non-sealed*/ class SPARQLEndpointService extends AbstractSPARQLEndpoint
         try (RDFConnection connection = getConnection()) {
             connection.update(updateQry.asUpdate());
         }
+        learningGoalGraphCache.invalidateAll();
     }
 
     /**
@@ -926,6 +815,8 @@ public /*non-sealed*/ class SPARQLEndpointService extends AbstractSPARQLEndpoint
             courseDeleteQry.setIri("?uri", id);
 
             conn.update(courseDeleteQry.asUpdate());
+            learningGoalGraphCache.invalidateCourse(id);
+            learningGoalForestCache.refreshReferenceCounts();
         }
     }
 
@@ -1110,6 +1001,8 @@ public /*non-sealed*/ class SPARQLEndpointService extends AbstractSPARQLEndpoint
 
             connection.load(model);
         }
+        learningGoalGraphCache.invalidateCourse(learningGoalAssignmentDTO.getCourseId());
+        learningGoalForestCache.refreshReferenceCounts();
     }
 
     /**
@@ -1151,6 +1044,8 @@ public /*non-sealed*/ class SPARQLEndpointService extends AbstractSPARQLEndpoint
 
             connection.update(qry.asUpdate());
         }
+        learningGoalGraphCache.invalidateCourse(learningGoalAssignmentDTO.getCourseId());
+        learningGoalForestCache.refreshReferenceCounts();
     }
 
     /**
@@ -1196,6 +1091,8 @@ public /*non-sealed*/ class SPARQLEndpointService extends AbstractSPARQLEndpoint
         try (RDFConnection conn = getConnection()) {
             conn.update(updateQry.asUpdate());
         }
+        learningGoalGraphCache.invalidateCourse(learningGoalUpdateAssignment.getCourseId());
+        learningGoalForestCache.refreshReferenceCounts();
     }
 
     //endregion
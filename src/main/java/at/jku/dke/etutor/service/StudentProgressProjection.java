@@ -0,0 +1,504 @@
+package at.jku.dke.etutor.service;
+
+import at.jku.dke.etutor.helper.RDFConnectionFactory;
+import at.jku.dke.etutor.service.dto.courseinstance.CourseInstanceProgressOverviewDTO;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdfconnection.RDFConnection;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Read model of the students' progress on the exercise sheets of their course instances.
+ * <p>
+ * The projection is loaded once per student and course instance with a single query and
+ * afterwards maintained incrementally by the write paths of the SPARQL endpoint services,
+ * so that reading the progress overview is a key lookup. Changes which cannot be applied
+ * incrementally (e.g. changed exercise sheet meta data) invalidate the affected entries.
+ *
+ * @author fne
+ */
+@Component
+public class StudentProgressProjection extends AbstractSPARQLEndpointService implements MeterBinder {
+
+    private static final String QRY_SELECT_STUDENT_COURSE_PROGRESS = """
+        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+        PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>
+
+        SELECT (STR(?exerciseSheet) AS ?exerciseSheetId) ?exerciseSheetName (STR(?difficulty) AS ?difficultyURI) ?shouldTaskCount ?wholeSheetClosed
+               ?individualAssignment ?closed ?orderNo ?submitted ?graded
+        WHERE {
+          ?instance a etutor:CourseInstance.
+          ?instance etutor:hasStudent ?student.
+          ?instance etutor:hasExerciseSheetAssignment [
+            etutor:hasExerciseSheet ?exerciseSheet;
+            etutor:isExerciseSheetClosed ?wholeSheetClosed
+          ].
+          ?exerciseSheet rdfs:label ?exerciseSheetName.
+          ?exerciseSheet etutor:hasExerciseSheetDifficulty ?difficulty.
+          ?exerciseSheet etutor:hasExerciseSheetTaskCount ?shouldTaskCount.
+
+          OPTIONAL {
+            ?student etutor:hasIndividualTaskAssignment ?individualAssignment.
+            ?individualAssignment etutor:fromExerciseSheet ?exerciseSheet;
+                                  etutor:fromCourseInstance ?instance.
+            OPTIONAL {
+              ?individualAssignment etutor:isClosed ?closed.
+            }
+            OPTIONAL {
+              ?individualAssignment etutor:hasIndividualTask ?individualTask.
+              ?individualTask etutor:hasOrderNo ?orderNo.
+              OPTIONAL {
+                ?individualTask etutor:isSubmitted ?submitted.
+              }
+              OPTIONAL {
+                ?individualTask etutor:isGraded ?graded.
+              }
+            }
+          }
+        }
+        ORDER BY (LCASE(?exerciseSheetName)) (?exerciseSheet)
+        """;
+
+    private static final long MAXIMUM_SIZE = 20_000;
+    private static final Duration EXPIRE_AFTER_ACCESS = Duration.ofHours(2);
+    private static final Duration EXPIRE_AFTER_WRITE = Duration.ofHours(12);
+    private static final int LOCK_STRIPES = 64;
+
+    private final Cache<ProgressKey, CourseProgress> cache;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final long[] stamps = new long[LOCK_STRIPES];
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param rdfConnectionFactory the injected rdf connection factory
+     */
+    public StudentProgressProjection(RDFConnectionFactory rdfConnectionFactory) {
+        super(rdfConnectionFactory);
+
+        cache = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfterAccess(EXPIRE_AFTER_ACCESS)
+            .expireAfterWrite(EXPIRE_AFTER_WRITE)
+            .recordStats()
+            .build();
+
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Binds the cache statistics to the given registry.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, cache, "studentProgress");
+    }
+
+    /**
+     * Returns the progress overview of the single exercise sheets from a course instance of a
+     * specific student.
+     *
+     * @param studentUrl        the student's URL
+     * @param courseInstanceUrl the course instance URL
+     * @return list containing the elements, ordered by the exercise sheet name
+     */
+    public List<CourseInstanceProgressOverviewDTO> getProgressOverview(String studentUrl, String courseInstanceUrl) {
+        Objects.requireNonNull(studentUrl);
+        Objects.requireNonNull(courseInstanceUrl);
+
+        ProgressKey key = new ProgressKey(studentUrl, courseInstanceUrl);
+        int stripe = stripeOf(key);
+
+        synchronized (locks[stripe]) {
+            CourseProgress progress = cache.getIfPresent(key);
+            if (progress != null) {
+                return progress.toDTOs();
+            }
+        }
+
+        long stamp;
+        long currentGeneration = generation.get();
+        synchronized (locks[stripe]) {
+            stamp = stamps[stripe];
+        }
+
+        CourseProgress loaded = load(key);
+
+        synchronized (locks[stripe]) {
+            // Only publish the loaded state if no write touched this entry in the meantime.
+            if (stamps[stripe] == stamp && generation.get() == currentGeneration) {
+                cache.asMap().putIfAbsent(key, loaded);
+            }
+            return loaded.toDTOs();
+        }
+    }
+
+    /**
+     * Records that a student opened an exercise sheet.
+     *
+     * @param studentUrl        the student's URL
+     * @param courseInstanceUrl the course instance URL
+     * @param exerciseSheetUrl  the exercise sheet URL
+     */
+    public void exerciseSheetOpened(String studentUrl, String courseInstanceUrl, String exerciseSheetUrl) {
+        updateSheet(studentUrl, courseInstanceUrl, exerciseSheetUrl, sheet -> sheet.opened = true);
+    }
+
+    /**
+     * Records that a task has been assigned to a student.
+     *
+     * @param studentUrl        the student's URL
+     * @param courseInstanceUrl the course instance URL
+     * @param exerciseSheetUrl  the exercise sheet URL
+     * @param orderNo           the order number of the assigned task
+     */
+    public void taskAssigned(String studentUrl, String courseInstanceUrl, String exerciseSheetUrl, int orderNo) {
+        updateSheet(studentUrl, courseInstanceUrl, exerciseSheetUrl, sheet -> {
+            sheet.opened = true;
+            sheet.assignedTasks.add(orderNo);
+        });
+    }
+
+    /**
+     * Records that a student submitted a task.
+     *
+     * @param studentUrl        the student's URL
+     * @param courseInstanceUrl the course instance URL
+     * @param exerciseSheetUrl  the exercise sheet URL
+     * @param orderNo           the order number of the submitted task
+     */
+    public void taskSubmitted(String studentUrl, String courseInstanceUrl, String exerciseSheetUrl, int orderNo) {
+        updateSheet(studentUrl, courseInstanceUrl, exerciseSheetUrl, sheet -> {
+            if (sheet.assignedTasks.contains(orderNo)) {
+                sheet.submittedTasks.add(orderNo);
+            }
+        });
+    }
+
+    /**
+     * Records that a task of a student has been graded.
+     *
+     * @param studentUrl        the student's URL
+     * @param courseInstanceUrl the course instance URL
+     * @param exerciseSheetUrl  the exercise sheet URL
+     * @param orderNo           the order number of the graded task
+     */
+    public void taskGraded(String studentUrl, String courseInstanceUrl, String exerciseSheetUrl, int orderNo) {
+        updateSheet(studentUrl, courseInstanceUrl, exerciseSheetUrl, sheet -> {
+            if (sheet.assignedTasks.contains(orderNo)) {
+                sheet.gradedTasks.add(orderNo);
+            }
+        });
+    }
+
+    /**
+     * Records that the exercise sheet of an individual student has been closed.
+     *
+     * @param studentUrl        the student's URL
+     * @param courseInstanceUrl the course instance URL
+     * @param exerciseSheetUrl  the exercise sheet URL
+     */
+    public void exerciseSheetClosedForStudent(String studentUrl, String courseInstanceUrl, String exerciseSheetUrl) {
+        updateSheet(studentUrl, courseInstanceUrl, exerciseSheetUrl, sheet -> {
+            if (sheet.opened) {
+                sheet.closed = true;
+            }
+        });
+    }
+
+    /**
+     * Records that an exercise sheet has been closed or re-opened for a whole course instance.
+     *
+     * @param courseInstanceUrl the course instance URL
+     * @param exerciseSheetUrl  the exercise sheet URL
+     * @param closed            the new closed state
+     */
+    public void exerciseSheetClosedForCourseInstance(String courseInstanceUrl, String exerciseSheetUrl, boolean closed) {
+        Objects.requireNonNull(courseInstanceUrl);
+        Objects.requireNonNull(exerciseSheetUrl);
+
+        updateAll(key -> key.courseInstanceUrl().equals(courseInstanceUrl), progress -> {
+            SheetProgress sheet = progress.sheets.get(exerciseSheetUrl);
+            if (sheet != null) {
+                sheet.wholeSheetClosed = closed;
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Records that an exercise sheet has been closed in all course instances it is assigned to.
+     *
+     * @param exerciseSheetUrl the exercise sheet URL
+     */
+    public void exerciseSheetClosed(String exerciseSheetUrl) {
+        Objects.requireNonNull(exerciseSheetUrl);
+
+        updateAll(key -> true, progress -> {
+            SheetProgress sheet = progress.sheets.get(exerciseSheetUrl);
+            if (sheet != null) {
+                sheet.wholeSheetClosed = true;
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Invalidates all entries of the given course instance, e.g. because
+     * students or exercise sheets have been added or removed.
+     *
+     * @param courseInstanceUrl the course instance URL
+     */
+    public void invalidateCourseInstance(String courseInstanceUrl) {
+        Objects.requireNonNull(courseInstanceUrl);
+
+        updateAll(key -> key.courseInstanceUrl().equals(courseInstanceUrl), progress -> false);
+    }
+
+    /**
+     * Invalidates all entries which contain the given exercise sheet, e.g. because
+     * the exercise sheet's meta data has changed.
+     *
+     * @param exerciseSheetUrl the exercise sheet URL
+     */
+    public void invalidateExerciseSheet(String exerciseSheetUrl) {
+        Objects.requireNonNull(exerciseSheetUrl);
+
+        updateAll(key -> true, progress -> !progress.sheets.containsKey(exerciseSheetUrl));
+    }
+
+    /**
+     * Invalidates the whole projection.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    //region Private helper methods
+
+    /**
+     * Applies the given update to a sheet of a cached entry. If the entry is not cached,
+     * only the entry's stamp is increased, so that concurrently loaded states are discarded.
+     *
+     * @param studentUrl        the student's URL
+     * @param courseInstanceUrl the course instance URL
+     * @param exerciseSheetUrl  the exercise sheet URL
+     * @param update            the update to apply
+     */
+    private void updateSheet(String studentUrl, String courseInstanceUrl, String exerciseSheetUrl, Consumer<SheetProgress> update) {
+        Objects.requireNonNull(studentUrl);
+        Objects.requireNonNull(courseInstanceUrl);
+        Objects.requireNonNull(exerciseSheetUrl);
+
+        ProgressKey key = new ProgressKey(studentUrl, courseInstanceUrl);
+        int stripe = stripeOf(key);
+
+        synchronized (locks[stripe]) {
+            stamps[stripe]++;
+
+            CourseProgress progress = cache.getIfPresent(key);
+            if (progress == null) {
+                return;
+            }
+
+            SheetProgress sheet = progress.sheets.get(exerciseSheetUrl);
+            if (sheet == null) {
+                // The exercise sheet is not known (yet), reload on the next read.
+                cache.invalidate(key);
+            } else {
+                update.accept(sheet);
+            }
+        }
+    }
+
+    /**
+     * Applies the given update to all cached entries matching the filter.
+     *
+     * @param filter the key filter
+     * @param update the update, which returns {@code false} if the entry should be invalidated
+     */
+    private void updateAll(Predicate<ProgressKey> filter, Predicate<CourseProgress> update) {
+        generation.incrementAndGet();
+
+        for (ProgressKey key : new ArrayList<>(cache.asMap().keySet())) {
+            if (!filter.test(key)) {
+                continue;
+            }
+
+            synchronized (locks[stripeOf(key)]) {
+                CourseProgress progress = cache.getIfPresent(key);
+                if (progress != null && !update.test(progress)) {
+                    cache.invalidate(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the progress of a student in a course instance.
+     *
+     * @param key the key
+     * @return the loaded progress
+     */
+    private CourseProgress load(ProgressKey key) {
+        ParameterizedSparqlString qry = new ParameterizedSparqlString(QRY_SELECT_STUDENT_COURSE_PROGRESS);
+        qry.setIri("?instance", key.courseInstanceUrl());
+        qry.setIri("?student", key.studentUrl());
+
+        CourseProgress progress = new CourseProgress();
+
+        try (RDFConnection connection = getConnection()) {
+            try (QueryExecution execution = connection.query(qry.asQuery())) {
+                ResultSet set = execution.execSelect();
+
+                while (set.hasNext()) {
+                    QuerySolution solution = set.nextSolution();
+
+                    String sheetId = solution.getLiteral("?exerciseSheetId").getString();
+                    SheetProgress sheet = progress.sheets.computeIfAbsent(sheetId, id -> new SheetProgress(
+                        id,
+                        solution.getLiteral("?exerciseSheetName").getString(),
+                        solution.getLiteral("?difficultyURI").getString(),
+                        solution.getLiteral("?shouldTaskCount").getInt()
+                    ));
+                    sheet.wholeSheetClosed = solution.getLiteral("?wholeSheetClosed").getBoolean();
+
+                    if (!solution.contains("?individualAssignment")) {
+                        continue;
+                    }
+                    sheet.opened = true;
+
+                    Literal closedLiteral = solution.getLiteral("?closed");
+                    if (closedLiteral != null && closedLiteral.getBoolean()) {
+                        sheet.closed = true;
+                    }
+
+                    Literal orderNoLiteral = solution.getLiteral("?orderNo");
+                    if (orderNoLiteral == null) {
+                        continue;
+                    }
+                    int orderNo = orderNoLiteral.getInt();
+                    sheet.assignedTasks.add(orderNo);
+
+                    Literal submittedLiteral = solution.getLiteral("?submitted");
+                    if (submittedLiteral != null && submittedLiteral.getBoolean()) {
+                        sheet.submittedTasks.add(orderNo);
+                    }
+                    Literal gradedLiteral = solution.getLiteral("?graded");
+                    if (gradedLiteral != null && gradedLiteral.getBoolean()) {
+                        sheet.gradedTasks.add(orderNo);
+                    }
+                }
+            }
+        }
+        return progress;
+    }
+
+    /**
+     * Returns the lock stripe of the given key.
+     *
+     * @param key the key
+     * @return the stripe index
+     */
+    private static int stripeOf(ProgressKey key) {
+        return Math.floorMod(key.hashCode(), LOCK_STRIPES);
+    }
+
+    /**
+     * Key of the projection.
+     *
+     * @param studentUrl        the student's URL
+     * @param courseInstanceUrl the course instance URL
+     */
+    private record ProgressKey(String studentUrl, String courseInstanceUrl) {
+    }
+
+    /**
+     * Progress of a student in a course instance, guarded by the lock stripe of its key.
+     */
+    private static final class CourseProgress {
+        private final Map<String, SheetProgress> sheets = new LinkedHashMap<>();
+
+        /**
+         * Returns the DTOs of the progress.
+         *
+         * @return the list of DTOs
+         */
+        private List<CourseInstanceProgressOverviewDTO> toDTOs() {
+            List<CourseInstanceProgressOverviewDTO> items = new ArrayList<>(sheets.size());
+            for (SheetProgress sheet : sheets.values()) {
+                items.add(sheet.toDTO());
+            }
+            return items;
+        }
+    }
+
+    /**
+     * Progress of a student on a single exercise sheet.
+     */
+    private static final class SheetProgress {
+        private final String exerciseSheetId;
+        private final String exerciseSheetName;
+        private final String difficultyURI;
+        private final int shouldTaskCount;
+        private final Set<Integer> assignedTasks = new HashSet<>();
+        private final Set<Integer> submittedTasks = new HashSet<>();
+        private final Set<Integer> gradedTasks = new HashSet<>();
+        private boolean opened;
+        private boolean closed;
+        private boolean wholeSheetClosed;
+
+        /**
+         * Constructor.
+         *
+         * @param exerciseSheetId   the exercise sheet id
+         * @param exerciseSheetName the exercise sheet name
+         * @param difficultyURI     the difficulty URI
+         * @param shouldTaskCount   the task count of the exercise sheet
+         */
+        private SheetProgress(String exerciseSheetId, String exerciseSheetName, String difficultyURI, int shouldTaskCount) {
+            this.exerciseSheetId = exerciseSheetId;
+            this.exerciseSheetName = exerciseSheetName;
+            this.difficultyURI = difficultyURI;
+            this.shouldTaskCount = shouldTaskCount;
+        }
+
+        /**
+         * Returns the DTO of this sheet's progress.
+         *
+         * @return the DTO
+         */
+        private CourseInstanceProgressOverviewDTO toDTO() {
+            int actualCount = assignedTasks.size();
+            int submissionCount = submittedTasks.size();
+            boolean completed = actualCount > 0 && shouldTaskCount == actualCount && actualCount == submissionCount;
+
+            // An opened exercise sheet without assigned tasks is never reported as closed.
+            return new CourseInstanceProgressOverviewDTO(exerciseSheetId, exerciseSheetName, difficultyURI, completed, opened,
+                actualCount, submissionCount, gradedTasks.size(), closed && actualCount > 0, wholeSheetClosed);
+        }
+    }
+    //endregion
+}
@@ -2,8 +2,7 @@ package at.jku.dke.etutor.service;
 
 import at.jku.dke.etutor.calc.exception.WrongCalcParametersException;
 import at.jku.dke.etutor.calc.models.Feedback;
-import at.jku.dke.etutor.calc.service.CorrectionService;
-import at.jku.dke.etutor.domain.FileEntity;
+import at.jku.dke.etutor.calc.service.CalcSandbox;
 import at.jku.dke.etutor.domain.rdf.ETutorVocabulary;
 import at.jku.dke.etutor.helper.CSVHelper;
 import at.jku.dke.etutor.helper.RDFConnectionFactory;
@@ -13,20 +12,17 @@ import at.jku.dke.etutor.repository.StudentRepository;
 import at.jku.dke.etutor.security.AuthoritiesConstants;
 import at.jku.dke.etutor.service.tasktypes.implementation.ProcessMiningService;
 import at.jku.dke.etutor.service.dto.AdminUserDTO;
-import at.jku.dke.etutor.service.dto.MultipartFileImpl;
 import at.jku.dke.etutor.service.dto.StudentSelfEvaluationLearningGoalDTO;
 import at.jku.dke.etutor.service.dto.courseinstance.CourseInstanceInformationDTO;
 import at.jku.dke.etutor.service.dto.courseinstance.CourseInstanceProgressOverviewDTO;
 import at.jku.dke.etutor.service.dto.courseinstance.StudentImportDTO;
 import at.jku.dke.etutor.objects.dispatcher.SubmissionDTO;
-import at.jku.dke.etutor.service.dto.exercisesheet.ExerciseSheetDTO;
+import at.jku.dke.etutor.service.dto.student.IndividualTaskContext;
 import at.jku.dke.etutor.service.dto.student.IndividualTaskSubmissionDTO;
 import at.jku.dke.etutor.service.dto.student.StudentTaskListInfoDTO;
 import at.jku.dke.etutor.service.dto.taskassignment.TaskAssignmentDTO;
 import at.jku.dke.etutor.service.dto.taskassignment.TaskGroupDTO;
 import at.jku.dke.etutor.service.exception.*;
-import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
-import one.util.streamex.StreamEx;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.query.*;
 import org.apache.jena.rdf.model.Literal;
@@ -35,29 +31,17 @@ import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdfconnection.RDFConnection;
 import org.apache.jena.vocabulary.RDF;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.jetbrains.annotations.NotNull;
-import org.jsoup.Jsoup;
-import org.jsoup.helper.W3CDom;
-import org.jsoup.nodes.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring5.SpringTemplateEngine;
-import org.thymeleaf.templatemode.TemplateMode;
-import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
 
 import java.io.*;
-import java.net.URISyntaxException;
 import java.text.ParseException;
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service class for managing students.
@@ -88,96 +72,6 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
             ORDER BY(?courseName)
             """;
 
-    private static final String QRY_SELECT_STUDENT_COURSE_ASSIGNMENT_OVERVIEW = """
-        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-        PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>
-
-        SELECT (STR(?exerciseSheet) AS ?exerciseSheetId) ?exerciseSheetName (STR(?difficulty) AS ?difficultyURI) ?completed ?shouldTaskCount ?actualCount ?submissionCount ?gradedCount ?closed ?wholeSheetClosed
-        WHERE {
-          {
-            ?instance a etutor:CourseInstance.
-            ?instance etutor:hasStudent ?student.
-            ?instance etutor:hasExerciseSheetAssignment [
-            	etutor:hasExerciseSheet ?exerciseSheet;
-             	etutor:isExerciseSheetClosed ?wholeSheetClosed
-            ].
-            ?exerciseSheet rdfs:label ?exerciseSheetName.
-            ?exerciseSheet etutor:hasExerciseSheetDifficulty ?difficulty.
-            ?exerciseSheet etutor:hasExerciseSheetTaskCount ?shouldTaskCount.
-
-            ?student etutor:hasIndividualTaskAssignment ?individualAssignment.
-            ?individualAssignment etutor:fromExerciseSheet ?exerciseSheet;
-                                  etutor:fromCourseInstance ?instance;
-                                  etutor:hasIndividualTask ?individualTask;
-                                  etutor:isClosed ?closed.
-
-              OPTIONAL {
-                SELECT ?exerciseSheet (COUNT(?individualTask) AS ?actualCount)
-                WHERE {
-                  ?student etutor:hasIndividualTaskAssignment ?individualAssignment.
-                  ?individualAssignment etutor:fromExerciseSheet ?exerciseSheet;
-                                        etutor:fromCourseInstance ?instance;
-                                        etutor:hasIndividualTask ?individualTask.
-                }
-                GROUP BY ?exerciseSheet
-              }
-
-
-              OPTIONAL {
-                SELECT ?exerciseSheet (COUNT(?submitted) AS ?submissionCount)
-                WHERE {
-                  ?student etutor:hasIndividualTaskAssignment ?individualAssignment.
-                  ?individualAssignment etutor:fromExerciseSheet ?exerciseSheet;
-                                        etutor:fromCourseInstance ?instance;
-                                        etutor:hasIndividualTask ?individualTask.
-                  ?individualTask etutor:isSubmitted ?submitted.
-                  FILTER(?submitted = true)
-                }
-                GROUP BY ?exerciseSheet
-              }
-
-            BIND(?shouldTaskCount = ?actualCount && ?actualCount = ?submissionCount AS ?completed).
-
-              OPTIONAL {
-                SELECT ?exerciseSheet (COUNT(?graded) AS ?gradedCount)
-                WHERE {
-                  ?student etutor:hasIndividualTaskAssignment ?individualAssignment.
-                  ?individualAssignment etutor:fromExerciseSheet ?exerciseSheet;
-                                        etutor:fromCourseInstance ?instance;
-                                        etutor:hasIndividualTask ?individualTask.
-                  ?individualTask etutor:isGraded ?graded.
-                  FILTER(?graded = true)
-                }
-                GROUP BY ?exerciseSheet
-              }
-
-          } UNION {
-            ?instance a etutor:CourseInstance.
-            ?instance etutor:hasStudent ?student.
-            ?instance etutor:hasExerciseSheetAssignment [
-            	etutor:hasExerciseSheet ?exerciseSheet;
-             	etutor:isExerciseSheetClosed ?wholeSheetClosed
-            ].
-            ?exerciseSheet rdfs:label ?exerciseSheetName.
-            ?exerciseSheet etutor:hasExerciseSheetDifficulty ?difficulty.
-            ?exerciseSheet etutor:hasExerciseSheetTaskCount ?shouldTaskCount.
-            FILTER(NOT EXISTS{
-                ?student etutor:hasIndividualTaskAssignment ?individualAssignment.
-                ?individualAssignment etutor:fromExerciseSheet ?exerciseSheet;
-                                      etutor:fromCourseInstance ?instance;
-                                      etutor:hasIndividualTask ?individualTask.
-              }).
-            BIND(false AS ?completed).
-            BIND(0 AS ?actualCount).
-            BIND(0 AS ?submissionCount).
-            BIND(0 AS ?gradedCount).
-            BIND(false as ?closed).
-          }
-        }
-        GROUP BY ?exerciseSheet ?exerciseSheetName ?difficulty ?completed ?shouldTaskCount ?actualCount ?submissionCount ?gradedCount ?closed ?wholeSheetClosed
-        ORDER BY (LCASE(?exerciseSheetName))
-        """;
-
     private static final String QRY_ASK_STUDENT_OPENED_EXERCISE_SHEET =
         """
             PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
@@ -284,20 +178,33 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         GROUP BY ?taskCount
         """;
 
-    private static final String QRY_SELECT_TASK_ASSIGNMENT = """
+    private static final String QRY_SELECT_INDIVIDUAL_TASK_CONTEXT = """
         PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
 
-        SELECT ?task
+        SELECT ?taskAssignment ?maxPoints ?startTime ?endTime ?diagnoseLevelWeighting ?taskIdForDispatcher ?diagnoseLevel
+               ?individualTaskIdForDispatcher ?calcInstructionFileId ?calcSolutionFileId ?writerInstructionFileId
         WHERE {
           ?courseInstance a etutor:CourseInstance.
           ?student etutor:hasIndividualTaskAssignment ?individualAssignment.
           ?individualAssignment etutor:fromExerciseSheet ?sheet;
-                                etutor:fromCourseInstance ?courseInstance.
-          ?individualAssignment etutor:hasIndividualTask [
-              etutor:refersToTask ?task; etutor:hasOrderNo ?orderNo
-            ].
-
+                                etutor:fromCourseInstance ?courseInstance;
+                                etutor:hasIndividualTask ?individualTask.
+          ?individualTask etutor:hasOrderNo ?orderNo.
+          OPTIONAL {
+            ?individualTask etutor:refersToTask ?taskAssignment.
+            OPTIONAL { ?taskAssignment etutor:hasMaxPoints ?maxPoints. }
+            OPTIONAL { ?taskAssignment etutor:hasStartTime ?startTime. }
+            OPTIONAL { ?taskAssignment etutor:hasEndTime ?endTime. }
+            OPTIONAL { ?taskAssignment etutor:hasDiagnoseLevelWeighting ?diagnoseLevelWeighting. }
+            OPTIONAL { ?taskAssignment etutor:hasTaskIdForDispatcher ?taskIdForDispatcher. }
+          }
+          OPTIONAL { ?individualTask etutor:hasDiagnoseLevel ?diagnoseLevel. }
+          OPTIONAL { ?individualTask etutor:hasTaskIdForDispatcher ?individualTaskIdForDispatcher. }
+          OPTIONAL { ?individualTask etutor:hasCalcInstructionAssignmentFileId ?calcInstructionFileId. }
+          OPTIONAL { ?individualTask etutor:hasCalcSolutionAssignmentFileId ?calcSolutionFileId. }
+          OPTIONAL { ?individualTask etutor:hasWriterInstructionAssignmentFileId ?writerInstructionFileId. }
         }
+        LIMIT 1
         """;
     private static final String QRY_SELECT_MAX_ORDER_NO = """
         PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
@@ -373,22 +280,6 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         }
         """;
 
-
-    private static final String QRY_ASK_CALC_INSTRUCTION_FILE_ID_OF_INDIVIDUAL_TASK = """
-        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-
-
-        SELECT ?id WHERE {
-               ?courseInstance a etutor:CourseInstance.
-               ?student etutor:hasIndividualTaskAssignment ?individualAssignment.
-               ?individualAssignment etutor:fromExerciseSheet ?sheet;
-                            etutor:fromCourseInstance ?courseInstance.
-               ?individualAssignment etutor:hasIndividualTask ?individualTask.
-               ?individualTask etutor:hasOrderNo ?orderNo;
-                               etutor:hasCalcInstructionAssignmentFileId ?id.
-        }
-        """;
-
     private static final String QRY_INSERT_CALC_SOLUTION_FILE_ID_FOR_INDIVIDUAL_TASK = """
         PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
 
@@ -405,22 +296,6 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         }
         """;
 
-
-    private static final String QRY_ASK_CALC_SOLUTION_FILE_ID_OF_INDIVIDUAL_TASK = """
-        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-
-
-        SELECT ?id WHERE {
-               ?courseInstance a etutor:CourseInstance.
-               ?student etutor:hasIndividualTaskAssignment ?individualAssignment.
-               ?individualAssignment etutor:fromExerciseSheet ?sheet;
-                            etutor:fromCourseInstance ?courseInstance.
-               ?individualAssignment etutor:hasIndividualTask ?individualTask.
-               ?individualTask etutor:hasOrderNo ?orderNo;
-                               etutor:hasCalcSolutionAssignmentFileId ?id.
-        }
-        """;
-
     private static final String QRY_INSERT_WRITER_INSTRUCTION_FILE_ID_FOR_INDIVIDUAL_TASK = """
         PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
 
@@ -438,22 +313,6 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         """;
 
 
-    private static final String QRY_ASK_WRITER_INSTRUCTION_FILE_ID_OF_INDIVIDUAL_TASK = """
-        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-
-
-        SELECT ?id WHERE {
-               ?courseInstance a etutor:CourseInstance.
-               ?student etutor:hasIndividualTaskAssignment ?individualAssignment.
-               ?individualAssignment etutor:fromExerciseSheet ?sheet;
-                            etutor:fromCourseInstance ?courseInstance.
-               ?individualAssignment etutor:hasIndividualTask ?individualTask.
-               ?individualTask etutor:hasOrderNo ?orderNo;
-                               etutor:hasWriterInstructionAssignmentFileId ?id.
-        }
-        """;
-
-
 
 
     private static final String QRY_ASK_INDIVIDUAL_TASK_SUBMISSIONS = """
@@ -495,6 +354,43 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         }
         """;
 
+    private static final String QRY_SELECT_ALLOCATION_SHEET = """
+        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+        PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#>
+
+        SELECT ?course ?sheetDifficultyValue ?sheetGoal
+        WHERE {
+          ?courseInstance a etutor:CourseInstance.
+          ?courseInstance etutor:hasCourse ?course.
+          ?sheet etutor:hasExerciseSheetDifficulty/rdf:value ?sheetDifficultyValue.
+          OPTIONAL {
+            ?sheet etutor:containsLearningGoalAssignment/etutor:containsLearningGoal ?sheetGoal.
+          }
+        }
+        """;
+
+    private static final String QRY_SELECT_ALLOCATION_STUDENT_STATE = """
+        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+
+        SELECT ?goal ?reached ?task
+        WHERE {
+          {
+            GRAPH ?courseInstance {
+              ?goal a etutor:Goal.
+              OPTIONAL {
+                ?goal etutor:isCompletedFrom ?student.
+                BIND(true AS ?reached)
+              }
+            }
+          } UNION {
+            ?student etutor:hasIndividualTaskAssignment ?individualAssignment.
+            ?individualAssignment etutor:fromCourseInstance ?courseInstance;
+                                  etutor:hasIndividualTask ?individualTask.
+            ?individualTask etutor:refersToTask ?task.
+          }
+        }
+        """;
+
     private static final String QRY_SELECT_EXERCISE_SHEET_HAS_TO_BE_GENERATED_AT_ONCE = """
         PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
 
@@ -517,6 +413,10 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
     private final ProcessMiningService processMiningService;
     private final DispatcherSubmissionService dispatcherSubmissionService;
     private final BpmnDispatcherSubmissionService bpmnDispatcherSubmissionService;
+    private final StudentProgressProjection studentProgressProjection;
+    private final LearningGoalGraphCache learningGoalGraphCache;
+    private final ExerciseSheetPdfRenderingService exerciseSheetPdfRenderingService;
+    private final CalcSandbox calcSandbox;
 
     /**
      * Constructor.
@@ -524,6 +424,10 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
      * @param userService          the injected user service
      * @param studentRepository    the injected student repository
      * @param rdfConnectionFactory the injected rdf connection factory
+     * @param studentProgressProjection the injected student progress projection
+     * @param learningGoalGraphCache    the injected learning goal graph cache
+     * @param exerciseSheetPdfRenderingService the injected exercise sheet PDF rendering service
+     * @param calcSandbox                      the injected sandbox of the calc corrections
      */
     public StudentService(ExerciseSheetSPARQLEndpointService exerciseSheetSPARQLEndpointService,
                           UserService userService,
@@ -534,7 +438,11 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
                           ProcessMiningService processMiningService,
                           DispatcherSubmissionService dispatcherSubmissionService,
                           UploadFileService uploadFileService,
-                          BpmnDispatcherSubmissionService bpmnDispatcherSubmissionService
+                          BpmnDispatcherSubmissionService bpmnDispatcherSubmissionService,
+                          StudentProgressProjection studentProgressProjection,
+                          LearningGoalGraphCache learningGoalGraphCache,
+                          ExerciseSheetPdfRenderingService exerciseSheetPdfRenderingService,
+                          CalcSandbox calcSandbox
                           ) {
         super(rdfConnectionFactory);
         this.dispatcherSubmissionService = dispatcherSubmissionService;
@@ -546,6 +454,10 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         this.exerciseSheetSPARQLEndpointService = exerciseSheetSPARQLEndpointService;
         this.processMiningService = processMiningService;
         this.bpmnDispatcherSubmissionService = bpmnDispatcherSubmissionService;
+        this.studentProgressProjection = studentProgressProjection;
+        this.learningGoalGraphCache = learningGoalGraphCache;
+        this.exerciseSheetPdfRenderingService = exerciseSheetPdfRenderingService;
+        this.calcSandbox = calcSandbox;
 
         random = new Random();
     }
@@ -580,26 +492,59 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         return students;
     }
 
-    public Optional<String> getTaskAssignmentIdByIndividualTask(String courseInstanceUUID, String exerciseSheetUUID, int taskNo, String matriculationNo) {
-        ParameterizedSparqlString query = new ParameterizedSparqlString(QRY_SELECT_TASK_ASSIGNMENT);
+    /**
+     * Returns the context of an individual task, which contains the values of the individual task and of the
+     * task assignment it refers to. All values are loaded with a single query.
+     *
+     * @param courseInstanceUUID the course instance UUID
+     * @param exerciseSheetUUID  the exercise sheet UUID
+     * @param matriculationNo    the matriculation number
+     * @param taskNo             the task number
+     * @return {@link Optional} containing the context, or an empty optional if the individual task does not exist
+     */
+    public Optional<IndividualTaskContext> getIndividualTaskContext(String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int taskNo) {
+        Objects.requireNonNull(courseInstanceUUID);
+        Objects.requireNonNull(exerciseSheetUUID);
+        Objects.requireNonNull(matriculationNo);
 
+        ParameterizedSparqlString query = new ParameterizedSparqlString(QRY_SELECT_INDIVIDUAL_TASK_CONTEXT);
         query.setIri("?courseInstance", ETutorVocabulary.createCourseInstanceURLString(courseInstanceUUID));
         query.setIri("?sheet", ETutorVocabulary.createExerciseSheetURLString(exerciseSheetUUID));
         query.setIri("?student", ETutorVocabulary.getStudentURLFromMatriculationNumber(matriculationNo));
         query.setLiteral("?orderNo", taskNo);
 
-        String taskUri = null;
         try (RDFConnection connection = getConnection()) {
             try (QueryExecution execution = connection.query(query.asQuery())) {
                 ResultSet set = execution.execSelect();
-                while (set.hasNext()) {
-                    QuerySolution solution = set.nextSolution();
-                    taskUri = solution.getResource("?task").getURI();
+
+                if (!set.hasNext()) {
+                    return Optional.empty();
                 }
+                QuerySolution solution = set.nextSolution();
+                Resource taskAssignment = solution.getResource("?taskAssignment");
+
+                Integer diagnoseLevelWeighting = getNullableInt(solution, "?diagnoseLevelWeighting");
+
+                return Optional.of(new IndividualTaskContext(
+                    taskAssignment != null ? taskAssignment.getURI() : null,
+                    getNullableInt(solution, "?maxPoints"),
+                    getNullableString(solution, "?startTime"),
+                    getNullableString(solution, "?endTime"),
+                    diagnoseLevelWeighting != null ? diagnoseLevelWeighting : 0,
+                    getNullableInt(solution, "?taskIdForDispatcher"),
+                    getNullableInt(solution, "?diagnoseLevel"),
+                    getNullableInt(solution, "?individualTaskIdForDispatcher"),
+                    getNullableInt(solution, "?calcInstructionFileId"),
+                    getNullableInt(solution, "?calcSolutionFileId"),
+                    getNullableInt(solution, "?writerInstructionFileId")
+                ));
             }
         }
+    }
 
-        return Optional.ofNullable(taskUri);
+    public Optional<String> getTaskAssignmentIdByIndividualTask(String courseInstanceUUID, String exerciseSheetUUID, int taskNo, String matriculationNo) {
+        return getIndividualTaskContext(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo)
+            .flatMap(IndividualTaskContext::getTaskAssignmentId);
     }
 
     /**
@@ -650,62 +595,7 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         String studentURI = ETutorVocabulary.getStudentURLFromMatriculationNumber(matriculationNumber);
         String courseInstanceURI = ETutorVocabulary.createCourseInstanceURLString(courseInstanceUUID);
 
-        ParameterizedSparqlString qry = new ParameterizedSparqlString(QRY_SELECT_STUDENT_COURSE_ASSIGNMENT_OVERVIEW);
-        qry.setIri("?instance", courseInstanceURI);
-        qry.setIri("?student", studentURI);
-
-        ParameterizedSparqlString exerciseSheetOpenedQry = new ParameterizedSparqlString(QRY_ASK_EXERCISE_SHEET_OPENED);
-        exerciseSheetOpenedQry.setIri("?courseInstance", courseInstanceURI);
-        exerciseSheetOpenedQry.setIri("?student", studentURI);
-
-        try (RDFConnection connection = getConnection()) {
-            try (QueryExecution execution = connection.query(qry.asQuery(Syntax.syntaxARQ))) {
-                ResultSet set = execution.execSelect();
-                List<CourseInstanceProgressOverviewDTO> items = new ArrayList<>();
-                while (set.hasNext()) {
-                    var solution = set.nextSolution();
-
-                    String sheetId = solution.getLiteral("?exerciseSheetId").getString();
-                    String sheetName = solution.getLiteral("?exerciseSheetName").getString();
-                    String difficultyUri = solution.getLiteral("?difficultyURI").getString();
-                    Literal completedLiteral = solution.getLiteral("?completed");
-                    boolean completed = false;
-                    if (completedLiteral != null) {
-                        completed = completedLiteral.getBoolean();
-                    }
-                    boolean opened = true;
-
-                    if (!completed) {
-                        exerciseSheetOpenedQry.setIri("?sheet", sheetId);
-                        opened = connection.queryAsk(exerciseSheetOpenedQry.asQuery());
-                    }
-
-                    int actualCount = 0;
-                    int submissionCount = 0;
-                    int gradedCount = 0;
-
-                    Literal actualCountLiteral = solution.getLiteral("?actualCount");
-                    Literal submissionCountLiteral = solution.getLiteral("?submissionCount");
-                    Literal gradedCountLiteral = solution.getLiteral("?gradedCount");
-
-                    if (actualCountLiteral != null) {
-                        actualCount = actualCountLiteral.getInt();
-                    }
-                    if (submissionCountLiteral != null) {
-                        submissionCount = submissionCountLiteral.getInt();
-                    }
-                    if (gradedCountLiteral != null) {
-                        gradedCount = gradedCountLiteral.getInt();
-                    }
-
-                    boolean closed = solution.getLiteral("?closed").getBoolean();
-                    boolean wholeSheetClosed = solution.getLiteral("?wholeSheetClosed").getBoolean();
-
-                    items.add(new CourseInstanceProgressOverviewDTO(sheetId, sheetName, difficultyUri, completed, opened, actualCount, submissionCount, gradedCount, closed, wholeSheetClosed));
-                }
-                return items;
-            }
-        }
+        return studentProgressProjection.getProgressOverview(studentURI, courseInstanceURI);
     }
 
     /**
@@ -781,6 +671,7 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
 
             studentResource.addProperty(ETutorVocabulary.hasIndividualTaskAssignment, individualTaskAssignmentResource);
             connection.load(model);
+            studentProgressProjection.exerciseSheetOpened(studentURL, courseInstanceURL, exerciseSheetURL);
 
             // check if all tasks should be assigned at once
             try (QueryExecution execution = connection.query(exerciseSheetGenerateWholeQry.asQuery())) {
@@ -907,6 +798,21 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
      * @param orderNo            the order no
      */
     public void markTaskAssignmentAsSubmitted(String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int orderNo) {
+        UnitOfWork unitOfWork = beginUnitOfWork();
+        markTaskAssignmentAsSubmitted(unitOfWork, courseInstanceUUID, exerciseSheetUUID, matriculationNo, orderNo);
+        unitOfWork.commit();
+    }
+
+    /**
+     * Adds the update which marks a task assignment as submitted to the given unit of work.
+     *
+     * @param unitOfWork         the unit of work
+     * @param courseInstanceUUID the course instance uuid
+     * @param exerciseSheetUUID  the exercise sheet uuid
+     * @param matriculationNo    the matriculation number
+     * @param orderNo            the order no
+     */
+    private void markTaskAssignmentAsSubmitted(UnitOfWork unitOfWork, String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int orderNo) {
         Objects.requireNonNull(courseInstanceUUID);
         Objects.requireNonNull(exerciseSheetUUID);
         Objects.requireNonNull(matriculationNo);
@@ -922,9 +828,8 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         qry.setIri("?courseInstance", courseInstanceId);
         qry.setLiteral("?orderNo", orderNo);
 
-        try (RDFConnection connection = getConnection()) {
-            connection.update(qry.asUpdate());
-        }
+        unitOfWork.add(qry)
+            .afterCommit(() -> studentProgressProjection.taskSubmitted(studentUrl, courseInstanceId, sheetId, orderNo));
     }
 
     /**
@@ -1081,6 +986,7 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         try (RDFConnection connection = getConnection()) {
             connection.update(updateQuery.asUpdate());
         }
+        studentProgressProjection.exerciseSheetClosedForStudent(studentUrl, courseInstanceId, sheetId);
     }
 
     /**
@@ -1266,138 +1172,6 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         }
     }
 
-    /**
-     * Return the file id of an individual calc instruction
-     *
-     * @param courseInstanceUUID the course instance UUID
-     * @param exerciseSheetUUID  the exercise sheet UUID
-     * @param matriculationNo    the matriculation no
-     * @param orderNo             the order no
-     * @return {@link Optional} containing the file id
-     */
-    public Optional<Integer> getFileIdIndividualCalcInstruction (String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int orderNo ) {
-        Objects.requireNonNull(courseInstanceUUID);
-        Objects.requireNonNull(exerciseSheetUUID);
-        Objects.requireNonNull(matriculationNo);
-        assert orderNo > 0;
-
-        String courseInstanceId = ETutorVocabulary.createCourseInstanceURLString(courseInstanceUUID);
-        String sheetId = ETutorVocabulary.createExerciseSheetURLString(exerciseSheetUUID);
-        String studentUrl = ETutorVocabulary.getStudentURLFromMatriculationNumber(matriculationNo);
-
-        ParameterizedSparqlString qry = new ParameterizedSparqlString(QRY_ASK_CALC_INSTRUCTION_FILE_ID_OF_INDIVIDUAL_TASK);
-        qry.setIri("?student", studentUrl);
-        qry.setIri("?sheet", sheetId);
-        qry.setIri("?courseInstance", courseInstanceId);
-        qry.setLiteral("?orderNo", orderNo);
-
-        try (RDFConnection connection = getConnection()) {
-            try (QueryExecution execution = connection.query(qry.asQuery())) {
-                ResultSet set = execution.execSelect();
-
-                if (set.hasNext()) {
-                    QuerySolution solution = set.nextSolution();
-                    Literal attachmentIdLiteral = solution.getLiteral("?id");
-
-                    if (attachmentIdLiteral == null) {
-                        return Optional.empty();
-                    }
-                    return Optional.of(attachmentIdLiteral.getInt());
-                } else {
-                    return Optional.empty();
-                }
-            }
-        }
-    }
-
-    /**
-     * Return the file id of an individual calc solution
-     *
-     * @param courseInstanceUUID the course instance UUID
-     * @param exerciseSheetUUID  the exercise sheet UUID
-     * @param matriculationNo    the matriculation no
-     * @param orderNo             the order no
-     * @return {@link Optional} containing the file id
-     */
-    public Optional<Integer> getFileIdIndividualCalcSolution (String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int orderNo ) {
-        Objects.requireNonNull(courseInstanceUUID);
-        Objects.requireNonNull(exerciseSheetUUID);
-        Objects.requireNonNull(matriculationNo);
-        assert orderNo > 0;
-
-        String courseInstanceId = ETutorVocabulary.createCourseInstanceURLString(courseInstanceUUID);
-        String sheetId = ETutorVocabulary.createExerciseSheetURLString(exerciseSheetUUID);
-        String studentUrl = ETutorVocabulary.getStudentURLFromMatriculationNumber(matriculationNo);
-
-        ParameterizedSparqlString qry = new ParameterizedSparqlString(QRY_ASK_CALC_SOLUTION_FILE_ID_OF_INDIVIDUAL_TASK);
-        qry.setIri("?student", studentUrl);
-        qry.setIri("?sheet", sheetId);
-        qry.setIri("?courseInstance", courseInstanceId);
-        qry.setLiteral("?orderNo", orderNo);
-
-        try (RDFConnection connection = getConnection()) {
-            try (QueryExecution execution = connection.query(qry.asQuery())) {
-                ResultSet set = execution.execSelect();
-
-                if (set.hasNext()) {
-                    QuerySolution solution = set.nextSolution();
-                    Literal attachmentIdLiteral = solution.getLiteral("?id");
-
-                    if (attachmentIdLiteral == null) {
-                        return Optional.empty();
-                    }
-                    return Optional.of(attachmentIdLiteral.getInt());
-                } else {
-                    return Optional.empty();
-                }
-            }
-        }
-    }
-
-    /**
-     * Return the file id of an individual writer instruction
-     *
-     * @param courseInstanceUUID the course instance UUID
-     * @param exerciseSheetUUID  the exercise sheet UUID
-     * @param matriculationNo    the matriculation no
-     * @param orderNo             the order no
-     * @return {@link Optional} containing the file id
-     */
-    public Optional<Integer> getFileIdIndividualWriterInstruction (String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int orderNo ) {
-        Objects.requireNonNull(courseInstanceUUID);
-        Objects.requireNonNull(exerciseSheetUUID);
-        Objects.requireNonNull(matriculationNo);
-        assert orderNo > 0;
-
-        String courseInstanceId = ETutorVocabulary.createCourseInstanceURLString(courseInstanceUUID);
-        String sheetId = ETutorVocabulary.createExerciseSheetURLString(exerciseSheetUUID);
-        String studentUrl = ETutorVocabulary.getStudentURLFromMatriculationNumber(matriculationNo);
-
-        ParameterizedSparqlString qry = new ParameterizedSparqlString(QRY_ASK_WRITER_INSTRUCTION_FILE_ID_OF_INDIVIDUAL_TASK);
-        qry.setIri("?student", studentUrl);
-        qry.setIri("?sheet", sheetId);
-        qry.setIri("?courseInstance", courseInstanceId);
-        qry.setLiteral("?orderNo", orderNo);
-
-        try (RDFConnection connection = getConnection()) {
-            try (QueryExecution execution = connection.query(qry.asQuery())) {
-                ResultSet set = execution.execSelect();
-
-                if (set.hasNext()) {
-                    QuerySolution solution = set.nextSolution();
-                    Literal attachmentIdLiteral = solution.getLiteral("?id");
-
-                    if (attachmentIdLiteral == null) {
-                        return Optional.empty();
-                    }
-                    return Optional.of(attachmentIdLiteral.getInt());
-                } else {
-                    return Optional.empty();
-                }
-            }
-        }
-    }
-
 
 
 //    /**
@@ -1434,7 +1208,8 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
 //    }
 
     /**
-     * Corrects a calc task
+     * Corrects a calc task within the limits of the {@link CalcSandbox}. The writer instruction and the calc solution
+     * are taken from the {@link at.jku.dke.etutor.calc.service.CalcDocumentCache}, only the submission is parsed on every correction.
      *
      * @param writerInstructionFileId id of the writer instruction file
      * @param calcSolutionFileId id of the calc solution file
@@ -1443,21 +1218,8 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
      */
     @Transactional
     public Feedback correctCalcTask (Long writerInstructionFileId, Long calcSolutionFileId, Long calcSubmissionFileId) {
-        FileEntity writerInstructionFile = fileRepository.getById(writerInstructionFileId);
-        FileEntity calcSolutionFile = fileRepository.getById(calcSolutionFileId);
-        FileEntity calcSubmissionFile = fileRepository.getById(calcSubmissionFileId);
-
         try {
-            InputStream streamWriterInstruction = new ByteArrayInputStream(writerInstructionFile.getContent());
-            InputStream streamCalcSolution = new ByteArrayInputStream(calcSolutionFile.getContent());
-            InputStream streamCalcSubmission = new ByteArrayInputStream(calcSubmissionFile.getContent());
-
-            XWPFDocument documentWriterInstruction = new XWPFDocument(streamWriterInstruction);
-            XSSFWorkbook workbookCalcSolution = new XSSFWorkbook(streamCalcSolution);
-            XSSFWorkbook workbookCalcSubmission = new XSSFWorkbook(streamCalcSubmission);
-
-            return CorrectionService.runCorrection(documentWriterInstruction, workbookCalcSolution, workbookCalcSubmission);
-
+            return calcSandbox.correct(writerInstructionFileId, calcSolutionFileId, calcSubmissionFileId);
         } catch (IOException e) {
             return null;
         } catch (Exception e) {
@@ -1478,6 +1240,23 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
      * @param submission         the submission
      */
     public void addSubmissionForIndividualTaskByDispatcherSubmission(String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int taskNo, SubmissionDTO submission, boolean hasBeenSolved) {
+        UnitOfWork unitOfWork = beginUnitOfWork();
+        addSubmissionForIndividualTaskByDispatcherSubmission(unitOfWork, courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo, submission, hasBeenSolved);
+        unitOfWork.commit();
+    }
+
+    /**
+     * Adds the updates which persist a submission for an individual task to the given unit of work.
+     *
+     * @param unitOfWork         the unit of work
+     * @param courseInstanceUUID the course instance
+     * @param exerciseSheetUUID  the exercise sheet
+     * @param matriculationNo    the matriculation number
+     * @param taskNo             the task number
+     * @param submission         the submission
+     * @param hasBeenSolved      whether the submission solves the task
+     */
+    private void addSubmissionForIndividualTaskByDispatcherSubmission(UnitOfWork unitOfWork, String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int taskNo, SubmissionDTO submission, boolean hasBeenSolved) {
         Objects.requireNonNull(submission);
         Objects.requireNonNull(courseInstanceUUID);
         Objects.requireNonNull(exerciseSheetUUID);
@@ -1488,7 +1267,7 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         String exerciseSheetId = ETutorVocabulary.createExerciseSheetURLString(exerciseSheetUUID);
         String studentId = ETutorVocabulary.getStudentURLFromMatriculationNumber(matriculationNo);
 
-        setLatestSubmissionForIndividualTask(courseInstanceId, exerciseSheetId, studentId, taskNo, submission.getSubmissionId());
+        setLatestSubmissionForIndividualTask(unitOfWork, courseInstanceId, exerciseSheetId, studentId, taskNo, submission.getSubmissionId());
 
         if(!submission.getPassedAttributes().get("action").equals("submit"))
             return;
@@ -1503,10 +1282,7 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         insertNewSubmissionForIndividualTaskQry.setLiteral("?isSubmitted", submission.getPassedAttributes().get("action").equals("submit"));
         insertNewSubmissionForIndividualTaskQry.setLiteral("?isSolved", hasBeenSolved);
 
-        try (RDFConnection connection = getConnection()) {
-            connection.update(insertNewSubmissionForIndividualTaskQry.asUpdate());
-        }
-
+        unitOfWork.add(insertNewSubmissionForIndividualTaskQry);
     }
 
 
@@ -1520,6 +1296,22 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
      * @param submission       the submission
      */
     public void setLatestSubmissionForIndividualTask(String courseInstanceId, String exerciseSheetId, String studentId, int taskNo, String submission) {
+        UnitOfWork unitOfWork = beginUnitOfWork();
+        setLatestSubmissionForIndividualTask(unitOfWork, courseInstanceId, exerciseSheetId, studentId, taskNo, submission);
+        unitOfWork.commit();
+    }
+
+    /**
+     * Adds the update of the latest submission for an individual task to the given unit of work.
+     *
+     * @param unitOfWork       the unit of work
+     * @param courseInstanceId the course instance
+     * @param exerciseSheetId  the exercise sheet
+     * @param studentId        the student id
+     * @param taskNo           the task number
+     * @param submission       the submission
+     */
+    private void setLatestSubmissionForIndividualTask(UnitOfWork unitOfWork, String courseInstanceId, String exerciseSheetId, String studentId, int taskNo, String submission) {
         ParameterizedSparqlString insertQry = new ParameterizedSparqlString("""
             PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
 
@@ -1548,10 +1340,7 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         insertQry.setLiteral("?orderNo", taskNo);
         insertQry.setLiteral("?newSubmission", submission);
 
-
-        try (RDFConnection connection = getConnection()) {
-            connection.update(insertQry.asUpdate());
-        }
+        unitOfWork.add(insertQry);
     }
 
     /**
@@ -1578,33 +1367,44 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         query.setIri("?courseInstance", courseInstanceId);
         query.setLiteral("?orderNo", taskNo);
 
-        List<IndividualTaskSubmissionDTO> submissions = new ArrayList<>();
+        List<QuerySolution> solutions = new ArrayList<>();
 
         try (RDFConnection connection = getConnection()) {
             try (QueryExecution execution = connection.query(query.asQuery())) {
                 ResultSet set = execution.execSelect();
                 while (set.hasNext()) {
-                    QuerySolution solution = set.nextSolution();
-                    Literal submissionLiteral = solution.getLiteral("?submission");
-                    Literal instantLiteral = solution.getLiteral("?instant");
-                    Literal hasBeenSubmittedLiteral = solution.getLiteral("?isSubmitted");
-                    Literal hasBeenSolvedLiteral = solution.getLiteral("?isSolved");
-                    Literal dispatcherIdLiteral = solution.getLiteral("?dispatcherId");
-                    String taskTypeUri = solution.getResource("?taskType").getURI();
-
-                    submissions.add(new IndividualTaskSubmissionDTO(
-                        instantFromRDFString(instantLiteral.getString()),
-                        dispatcherSubmissionService.getSubmissionStringFromSubmissionUUID(submissionLiteral.getString(), taskTypeUri).orElse(""),
-                        hasBeenSubmittedLiteral.getBoolean(),
-                        hasBeenSolvedLiteral.getBoolean(),
-                        dispatcherIdLiteral.getInt(),
-                        taskTypeUri
-                    ));
+                    solutions.add(set.nextSolution());
                 }
-            } catch (ParseException e) {
-                e.printStackTrace();
             }
         }
+
+        // Fetches the submissions from the dispatcher concurrently instead of one after another
+        dispatcherSubmissionService.prefetchSubmissions(solutions.stream()
+            .map(solution -> solution.getLiteral("?submission").getString())
+            .toList());
+
+        List<IndividualTaskSubmissionDTO> submissions = new ArrayList<>();
+        try {
+            for (QuerySolution solution : solutions) {
+                Literal submissionLiteral = solution.getLiteral("?submission");
+                Literal instantLiteral = solution.getLiteral("?instant");
+                Literal hasBeenSubmittedLiteral = solution.getLiteral("?isSubmitted");
+                Literal hasBeenSolvedLiteral = solution.getLiteral("?isSolved");
+                Literal dispatcherIdLiteral = solution.getLiteral("?dispatcherId");
+                String taskTypeUri = solution.getResource("?taskType").getURI();
+
+                submissions.add(new IndividualTaskSubmissionDTO(
+                    instantFromRDFString(instantLiteral.getString()),
+                    dispatcherSubmissionService.getSubmissionStringFromSubmissionUUID(submissionLiteral.getString(), taskTypeUri).orElse(""),
+                    hasBeenSubmittedLiteral.getBoolean(),
+                    hasBeenSolvedLiteral.getBoolean(),
+                    dispatcherIdLiteral.getInt(),
+                    taskTypeUri
+                ));
+            }
+        } catch (ParseException e) {
+            e.printStackTrace();
+        }
         if (submissions.isEmpty()) return Optional.empty();
         return Optional.of(submissions);
     }
@@ -1678,6 +1478,22 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
      *                           * @param points             the points
      */
     public void setDispatcherPointsForIndividualTask(String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int taskNo, double points) {
+        UnitOfWork unitOfWork = beginUnitOfWork();
+        setDispatcherPointsForIndividualTask(unitOfWork, courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo, points);
+        unitOfWork.commit();
+    }
+
+    /**
+     * Adds the update of the achieved points for an individual task to the given unit of work.
+     *
+     * @param unitOfWork         the unit of work
+     * @param courseInstanceUUID the course instance UUID
+     * @param exerciseSheetUUID  the exercise sheet UUID
+     * @param matriculationNo    the matriculation no
+     * @param taskNo             the task no
+     * @param points             the points
+     */
+    private void setDispatcherPointsForIndividualTask(UnitOfWork unitOfWork, String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int taskNo, double points) {
         Objects.requireNonNull(courseInstanceUUID);
         Objects.requireNonNull(exerciseSheetUUID);
         Objects.requireNonNull(matriculationNo);
@@ -1714,10 +1530,7 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         insertQry.setLiteral("?orderNo", taskNo);
         insertQry.setLiteral("?newDispatcherPoints", points);
 
-
-        try (RDFConnection connection = getConnection()) {
-            connection.update(insertQry.asUpdate());
-        }
+        unitOfWork.add(insertQry);
     }
 
 
@@ -1788,6 +1601,22 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
      */
 
     public void setHighestChosenDiagnoseLevelForIndividualTask(String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int taskNo, int diagnoseLevel) {
+        UnitOfWork unitOfWork = beginUnitOfWork();
+        setHighestChosenDiagnoseLevelForIndividualTask(unitOfWork, courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo, diagnoseLevel);
+        unitOfWork.commit();
+    }
+
+    /**
+     * Adds the update of the (highest) chosen diagnose level for an individual task to the given unit of work.
+     *
+     * @param unitOfWork         the unit of work
+     * @param courseInstanceUUID the course instance UUID
+     * @param exerciseSheetUUID  the exercise sheet UUID
+     * @param matriculationNo    the matriculation no
+     * @param taskNo             the task no
+     * @param diagnoseLevel      the diagnose level
+     */
+    private void setHighestChosenDiagnoseLevelForIndividualTask(UnitOfWork unitOfWork, String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int taskNo, int diagnoseLevel) {
         Objects.requireNonNull(courseInstanceUUID);
         Objects.requireNonNull(exerciseSheetUUID);
         Objects.requireNonNull(matriculationNo);
@@ -1824,10 +1653,7 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         insertQry.setLiteral("?orderNo", taskNo);
         insertQry.setLiteral("?newDiagnoseLevel", diagnoseLevel);
 
-
-        try (RDFConnection connection = getConnection()) {
-            connection.update(insertQry.asUpdate());
-        }
+        unitOfWork.add(insertQry);
     }
 
     /**
@@ -1840,50 +1666,8 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
      * @return {@link Optional} containing the points
      */
     public Optional<Integer> getHighestEverChosenDiagnoseLevelForIndividualTask(String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int taskNo) {
-        Objects.requireNonNull(courseInstanceUUID);
-        Objects.requireNonNull(exerciseSheetUUID);
-        Objects.requireNonNull(matriculationNo);
-
-        String courseInstanceId = ETutorVocabulary.createCourseInstanceURLString(courseInstanceUUID);
-        String sheetId = ETutorVocabulary.createExerciseSheetURLString(exerciseSheetUUID);
-        String studentId = ETutorVocabulary.getStudentURLFromMatriculationNumber(matriculationNo);
-
-        ParameterizedSparqlString query = new ParameterizedSparqlString("""
-            PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-
-            SELECT ?diagnoseLevel
-            WHERE {
-              ?instance a etutor:CourseInstance.
-              ?student etutor:hasIndividualTaskAssignment ?individualAssignment.
-              ?individualAssignment etutor:fromExerciseSheet ?sheet;
-                                    etutor:fromCourseInstance ?instance;
-                                    etutor:hasIndividualTask ?individualTask.
-              ?individualTask etutor:hasOrderNo ?orderNo;
-                              etutor:hasDiagnoseLevel ?diagnoseLevel.
-            }
-            """);
-        query.setIri("?instance", courseInstanceId);
-        query.setIri("?student", studentId);
-        query.setIri("?sheet", sheetId);
-        query.setLiteral("?orderNo", taskNo);
-
-        try (RDFConnection connection = getConnection()) {
-            try (QueryExecution execution = connection.query(query.asQuery())) {
-                ResultSet set = execution.execSelect();
-
-                if (set.hasNext()) {
-                    QuerySolution solution = set.nextSolution();
-                    Literal diagnoseLevelLiteral = solution.getLiteral("?diagnoseLevel");
-
-                    if (diagnoseLevelLiteral == null) {
-                        return Optional.empty();
-                    }
-                    return Optional.of(diagnoseLevelLiteral.getInt());
-                } else {
-                    return Optional.empty();
-                }
-            }
-        }
+        return getIndividualTaskContext(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo)
+            .flatMap(IndividualTaskContext::getHighestDiagnoseLevel);
     }
 
     /**
@@ -1896,64 +1680,9 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
      * @return an Optional Double[] containing both values
      */
     public Optional<Integer[]> getDiagnoseLevelWeightingAndMaxPointsAndId(String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int taskNo) {
-        Objects.requireNonNull(courseInstanceUUID);
-        Objects.requireNonNull(exerciseSheetUUID);
-        Objects.requireNonNull(matriculationNo);
-
-        String courseInstanceId = ETutorVocabulary.createCourseInstanceURLString(courseInstanceUUID);
-        String sheetId = ETutorVocabulary.createExerciseSheetURLString(exerciseSheetUUID);
-        String studentId = ETutorVocabulary.getStudentURLFromMatriculationNumber(matriculationNo);
-
-        ParameterizedSparqlString query = new ParameterizedSparqlString("""
-                    PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-                    PREFIX xsd: <http://www.w3.org/2001/XMLSchema#>
-
-                    SELECT ?diagnoseLevelWeighting ?maxPoints ?dispatcherId
-                    WHERE{
-                         ?student etutor:hasIndividualTaskAssignment ?individualAssignment.
-
-                         ?individualAssignment etutor:fromExerciseSheet ?exerciseSheetId;
-                                               etutor:fromCourseInstance ?courseInstanceId;
-                                               etutor:hasIndividualTask ?individualTask.
-
-                         ?individualTask etutor:hasOrderNo ?orderNo;
-                                         etutor:refersToTask ?taskAssignment.
-
-                         ?taskAssignment etutor:hasMaxPoints ?maxPoints;
-                                         etutor:hasTaskIdForDispatcher ?dispatcherId.
-
-                         OPTIONAL{
-                            ?taskAssignment etutor:hasDiagnoseLevelWeighting ?diagnoseLevelWeighting;
-                         }
-                    }
-            """);
-
-        query.setIri("?courseInstanceId", courseInstanceId);
-        query.setIri("?student", studentId);
-        query.setIri("?exerciseSheetId", sheetId);
-        query.setLiteral("?orderNo", taskNo);
-
-
-        try (RDFConnection connection = getConnection()) {
-            try (QueryExecution execution = connection.query(query.asQuery())) {
-                ResultSet set = execution.execSelect();
-
-                if (set.hasNext()) {
-                    QuerySolution solution = set.nextSolution();
-                    Literal diagnoseLevelWeightingLiteral = solution.getLiteral("?diagnoseLevelWeighting");
-                    Literal maxPointsLiteral = solution.getLiteral("?maxPoints");
-                    Literal dispatcherIdLiteral = solution.getLiteral("?dispatcherId");
-
-                    var result = new Integer[3];
-                    result[0] = diagnoseLevelWeightingLiteral != null ? diagnoseLevelWeightingLiteral.getInt() : 0;
-                    result[1] = maxPointsLiteral != null ? maxPointsLiteral.getInt() : 0;
-                    result[2] = dispatcherIdLiteral != null ? dispatcherIdLiteral.getInt() : -1;
-                    return Optional.of(result);
-                } else {
-                    return Optional.empty();
-                }
-            }
-        }
+        return getIndividualTaskContext(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo)
+            .filter(context -> context.getMaxPoints().isPresent() && context.getTaskIdForDispatcher().isPresent())
+            .map(context -> new Integer[]{context.getDiagnoseLevelWeighting(), context.getMaxPoints().get(), context.getTaskIdForDispatcher().get()});
     }
 
     /**
@@ -1972,6 +1701,30 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
     }
     //region Private methods
 
+    /**
+     * Returns the integer value of an optional variable of a query solution.
+     *
+     * @param solution the query solution
+     * @param variable the variable
+     * @return the value, or {@code null} if the variable is not bound
+     */
+    private static Integer getNullableInt(QuerySolution solution, String variable) {
+        Literal literal = solution.getLiteral(variable);
+        return literal != null ? literal.getInt() : null;
+    }
+
+    /**
+     * Returns the lexical value of an optional variable of a query solution.
+     *
+     * @param solution the query solution
+     * @param variable the variable
+     * @return the value, or {@code null} if the variable is not bound
+     */
+    private static String getNullableString(QuerySolution solution, String variable) {
+        Literal literal = solution.getLiteral(variable);
+        return literal != null ? literal.getString() : null;
+    }
+
     /**
      * Assigns the next available task according to the student's current learning curve.
      *
@@ -2082,32 +1835,9 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
                 }
             }
 
-            // generate pdf in new thread
-            new Thread(() -> {
-                var assignedTasksWithoutGroup = new ArrayList<TaskAssignmentDTO>();
-                var taskGroupToTaskListMap = new HashMap<TaskGroupDTO, List<TaskAssignmentDTO>>();
-                for(String assignedTask : assignedTasks){
-                    // Adding task to collection for pdf creation
-                    var taskOpt = assignmentSPARQLEndpointService.getTaskAssignmentByInternalId(assignedTask.substring(assignedTask.indexOf("#") + 1));
-                    var task = taskOpt.orElseThrow();
-                    Optional<TaskGroupDTO> taskGroupOpt = Optional.empty();
-                    if (task.getTaskGroupId() != null)
-                        taskGroupOpt = assignmentSPARQLEndpointService.getTaskGroupByName(task.getTaskGroupId().substring(task.getTaskGroupId().indexOf("#") + 1));
-
-                    taskGroupOpt.ifPresentOrElse(taskGroup -> {
-                        if (taskGroupToTaskListMap.containsKey(taskGroup)) {
-                            taskGroupToTaskListMap.get(taskGroup).add(task);
-                        } else {
-                            var taskList = new ArrayList<TaskAssignmentDTO>();
-                            taskList.add(task);
-                            taskGroupToTaskListMap.put(taskGroup, taskList);
-                        }
-                    }, () -> assignedTasksWithoutGroup.add(task));
-                }
-                generatePdfExerciseSheet(exerciseSheetUUID, matriculationNumber, assignedTasksWithoutGroup, taskGroupToTaskListMap).ifPresent(id ->
-                    setFileForIndividualAssignment(matriculationNumber, courseInstanceUUID, exerciseSheetUUID, id));
-
-            }).start();
+            // generate pdf asynchronously
+            exerciseSheetPdfRenderingService.submit(courseInstanceUUID, exerciseSheetUUID, matriculationNumber, assignedTasks, id ->
+                setFileForIndividualAssignment(matriculationNumber, courseInstanceUUID, exerciseSheetUUID, id));
         } catch (Exception e) {
             log.error(e.getMessage());
         }
@@ -2220,100 +1950,7 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
      * @return the file id
      */
     public Optional<Long> generatePdfExerciseSheet(String exerciseSheetId, String matriculationNo, List<TaskAssignmentDTO> assignedTasks, Map<TaskGroupDTO, List<TaskAssignmentDTO>> taskGroupDTOTaskListMap) {
-        // Replace links
-        String hrefToBeReplaced = "href=\"/";
-        String hrefToReplaceWith = "href=\"https://etutor.dke.uni-linz.ac.at/etutorpp/";
-        assignedTasks.forEach(t -> {
-            if(t.getInstruction() != null) {
-                t.setInstruction(t.getInstruction().replace(hrefToBeReplaced, hrefToReplaceWith));
-            }
-        });
-        taskGroupDTOTaskListMap.forEach((key, value) -> {
-            if(key.getDescription() != null){
-                key.setDescription(key.getDescription().replace(hrefToBeReplaced, hrefToReplaceWith));
-            }
-            value.forEach(t -> {
-                if(t.getInstruction() != null){
-                    t.setInstruction(t.getInstruction().replace(hrefToBeReplaced, hrefToReplaceWith));
-                }
-            });
-        });
-
-        // Set locale according to user
-        AtomicReference<Locale> locale = new AtomicReference<>(Locale.ENGLISH);
-        var optionalUser = userService.getUserWithAuthoritiesByLogin(matriculationNo);
-        optionalUser.ifPresent(x -> locale.set(Locale.forLanguageTag(x.getLangKey())));
-
-        //Get Exercise Sheet for PDF-Heading
-        Optional<ExerciseSheetDTO> optionalExerciseSheet = Optional.empty();
-        final String[] sheetName = {""};
-        try {
-            optionalExerciseSheet = exerciseSheetSPARQLEndpointService.getExerciseSheetById(exerciseSheetId);
-        } catch (ParseException e) {
-            e.printStackTrace();
-        }
-
-        //Get number of tasks with task group
-        var numberOfTasksWithGroup = 0;
-        numberOfTasksWithGroup = (int) taskGroupDTOTaskListMap.entrySet().stream().flatMap(e -> e.getValue().stream()).count();
-
-
-        // Initialize Context for template engine
-        Context ct = new Context();
-        ct.setLocale(locale.get());
-        ct.setVariable("tasks", assignedTasks);
-        ct.setVariable("matriculationNumber", matriculationNo);
-        ct.setVariable("tasksWithGroup", taskGroupDTOTaskListMap);
-        ct.setVariable("nTasksWithGroup", numberOfTasksWithGroup);
-        optionalUser.ifPresent(u -> ct.setVariable("studentName", u.getFirstName() + " " +u.getLastName()));
-        optionalExerciseSheet.ifPresent(e -> {
-            sheetName[0] = e.getName();
-            ct.setVariable("exerciseSheetHeader", e.getName());
-        });
-
-        //Initialize Thymeleaf template engine
-        TemplateEngine templateEngine = new SpringTemplateEngine();
-
-        //Initialize and set template-resolver
-        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
-        resolver.setPrefix("/templates/exercise-sheet/");
-        resolver.setSuffix(".html");
-        resolver.setCharacterEncoding("UTF-8");
-        resolver.setTemplateMode(TemplateMode.HTML); // HTML5 option was deprecated in 3.0.0
-        templateEngine.setTemplateResolver(resolver);
-
-        // Process template to retrieve HTML-String
-        String inputHTML = templateEngine.process("exercise-sheet.html", ct);
-
-        // Parse JSoup document from HTML-String (required for rendering pdf)
-        Document document = Jsoup.parse(inputHTML, "UTF-8");
-        document.outputSettings().syntax(Document.OutputSettings.Syntax.xml);
-
-        // Convert Jsoup-Document to PDF
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            // Get base uri for HTML related resources (css, etc) (Running from jar requires different approach, therefore the following if-block)
-            var baseUrl = this.getClass().getResource("/templates/exercise-sheet/");
-            if(baseUrl == null){
-                baseUrl = this.getClass().getClassLoader().getResource("/templates/exercise-sheet/");
-            }
-            String baseUri = baseUrl != null ? baseUrl.toURI().toString() : "/";
-
-            // Initialize and run renderer
-            PdfRendererBuilder builder = new PdfRendererBuilder();
-            builder.toStream(outputStream);
-            builder.withW3cDocument(new W3CDom().fromJsoup(document), baseUri);
-            builder.run();
-
-            // Convert PDF-Outputstream to Multipart-File
-            MultipartFile multipartFile = new MultipartFileImpl(outputStream, "pdf");
-
-            // Upload Multipart PDF-file and return file id
-            return Optional.of(this.uploadFileService.uploadFile(matriculationNo, multipartFile, sheetName[0] + "_" + matriculationNo + ".pdf"));
-
-        } catch (IOException | StudentNotExistsException | URISyntaxException e) {
-            e.printStackTrace();
-        }
-        return Optional.empty();
+        return exerciseSheetPdfRenderingService.render(exerciseSheetId, matriculationNo, assignedTasks, taskGroupDTOTaskListMap);
     }
 
 
@@ -2323,6 +1960,8 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
      * - updates the highest chosen diagnose level for the individual task, if necessary
      * - updates the achieved points for the individual task, if necessary
      * - marks the task assignment as submitted, if necessary
+     * <p>
+     * The updates are sent to the server as one request.
      *
      * @param matriculationNo        the matriculation number of the student
      * @param courseInstanceUUID     the course instance
@@ -2337,26 +1976,31 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         Integer diagnoseLevelWeighting = Integer.parseInt(taskAssignmentDTO.getDiagnoseLevelWeighting());
         Integer maxPoints = Integer.parseInt(taskAssignmentDTO.getMaxPoints());
 
-        addSubmissionForIndividualTaskByDispatcherSubmission(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo,
+        UnitOfWork unitOfWork = beginUnitOfWork();
+        addSubmissionForIndividualTaskByDispatcherSubmission(unitOfWork, courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo,
             submission,grading != null && grading.isSubmissionSuitsSolution());
 
-        if(grading == null || isExerciseSheetClosed)
+        if(grading == null || isExerciseSheetClosed) {
+            unitOfWork.commit();
             return getAchievedDispatcherPointsForIndividualTask(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo).orElse(0);
+        }
 
-        int highestChosenDiagnoseLevel = updateHighestDiagnoseLevelForIndividualTask(courseInstanceUUID, exerciseSheetUUID,
+        int highestChosenDiagnoseLevel = updateHighestDiagnoseLevelForIndividualTask(unitOfWork, courseInstanceUUID, exerciseSheetUUID,
             matriculationNo, taskNo, submission);
 
-        int achievedPoints =  updateAndGetAchievedPointsForIndividualTaskByDispatcherSubmission(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo,
+        int achievedPoints =  updateAndGetAchievedPointsForIndividualTaskByDispatcherSubmission(unitOfWork, courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo,
             submission, grading, maxPoints, diagnoseLevelWeighting, highestChosenDiagnoseLevel, isExerciseSheetClosed);
 
         if(submission.getPassedAttributes().get("action").equals("submit"))
-            markTaskAssignmentAsSubmitted(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo);
+            markTaskAssignmentAsSubmitted(unitOfWork, courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo);
+        unitOfWork.commit();
         return achievedPoints;
     }
 
     /**
      * Updates the points that have been achieved for an individual task according to the submission to the dispatcher.
      *
+     * @param unitOfWork             the unit of work which collects the update
      * @param courseInstanceUUID     -
      * @param exerciseSheetUUID      -
      * @param matriculationNo        -
@@ -2369,7 +2013,7 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
      * @param isExerciseSheetClosed
      * @return the current achieved points for the individual task
      */
-    private int updateAndGetAchievedPointsForIndividualTaskByDispatcherSubmission(String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int taskNo, SubmissionDTO submission, GradingDTO grading, int maxPoints, int diagnoseLevelWeighting, int highestDiagnoseLevel, boolean isExerciseSheetClosed) {
+    private int updateAndGetAchievedPointsForIndividualTaskByDispatcherSubmission(UnitOfWork unitOfWork, String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo, int taskNo, SubmissionDTO submission, GradingDTO grading, int maxPoints, int diagnoseLevelWeighting, int highestDiagnoseLevel, boolean isExerciseSheetClosed) {
         int achievedPointsOld = getAchievedDispatcherPointsForIndividualTask(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo).orElse(0);
         int achievedPointsNew;
         if(submission.getPassedAttributes().get("action").equals("submit")
@@ -2381,7 +2025,7 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
             achievedPointsNew = (int) (maxPoints * achievedPercent - highestDiagnoseLevel * diagnoseLevelWeighting);
             if(achievedPointsNew > achievedPointsOld){
                 // only improving the achieved points is possible
-                setDispatcherPointsForIndividualTask(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo, achievedPointsNew);
+                setDispatcherPointsForIndividualTask(unitOfWork, courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo, achievedPointsNew);
                 return achievedPointsNew;
             }
         }
@@ -2391,6 +2035,7 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
     /**
      * Updates the highest chosen diagnose level for an individual task in the course of
      * the submission to the dispatcher.
+     * @param unitOfWork the unit of work which collects the update
      * @param courseInstanceUUID -
      * @param exerciseSheetUUID -
      * @param matriculationNo -
@@ -2398,14 +2043,14 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
      * @param submission the submission for an individual task, holding the diagnose level.
      * @return the current highest chosen diagnose level for the individual task.
      */
-    private int updateHighestDiagnoseLevelForIndividualTask(String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo,
+    private int updateHighestDiagnoseLevelForIndividualTask(UnitOfWork unitOfWork, String courseInstanceUUID, String exerciseSheetUUID, String matriculationNo,
                                                             int taskNo, SubmissionDTO submission) {
         var oldDiagnoseLevel = getHighestEverChosenDiagnoseLevelForIndividualTask(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo).orElse(0);
         var currDiagnoseLevel = Integer.parseInt(submission.getPassedAttributes().get("diagnoseLevel"));
         int highestDiagnoseLevel = oldDiagnoseLevel;
 
         if(currDiagnoseLevel > oldDiagnoseLevel && !submission.getPassedAttributes().get("action").equals("submit")){
-            setHighestChosenDiagnoseLevelForIndividualTask(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo, currDiagnoseLevel);
+            setHighestChosenDiagnoseLevelForIndividualTask(unitOfWork, courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo, currDiagnoseLevel);
             highestDiagnoseLevel = currDiagnoseLevel;
         }
         return highestDiagnoseLevel;
@@ -2421,51 +2066,8 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
      * @return exercise id corresponding to dispatcher
      */
     public Optional<Integer> getDispatcherTaskIdOfIndividualTask(String matriculationNo, String courseInstanceUUID, String exerciseSheetUUID, int orderNo){
-        Objects.requireNonNull(matriculationNo);
-        Objects.requireNonNull(courseInstanceUUID);
-        Objects.requireNonNull(exerciseSheetUUID);
-
-        String courseInstanceUrl = ETutorVocabulary.createCourseInstanceURLString(courseInstanceUUID);
-        String exerciseSheetUrl = ETutorVocabulary.createExerciseSheetURLString(exerciseSheetUUID);
-        String studentUrl = ETutorVocabulary.getStudentURLFromMatriculationNumber(matriculationNo);
-
-        ParameterizedSparqlString selectQuery = new ParameterizedSparqlString("""
-            PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-
-            SELECT ?id
-            WHERE{
-               ?instance a etutor:CourseInstance.
-               ?student etutor:hasIndividualTaskAssignment ?individualTaskAssignment.
-               ?individualTaskAssignment etutor:fromExerciseSheet ?sheet;
-               etutor:fromCourseInstance ?instance;
-               etutor:hasIndividualTask ?individualTask.
-               ?individualTask etutor:hasOrderNo ?orderNo;
-               etutor:hasTaskIdForDispatcher ?id.
-            }
-            """);
-
-        selectQuery.setIri("?instance", courseInstanceUrl);
-        selectQuery.setIri("?sheet", exerciseSheetUrl);
-        selectQuery.setIri("?student", studentUrl);
-        selectQuery.setLiteral("?orderNo", orderNo);
-
-        try(RDFConnection connection = getConnection()){
-            try(QueryExecution execution = connection.query(selectQuery.asQuery())){
-                ResultSet rs = execution.execSelect();
-
-                if(rs.hasNext()){
-                    QuerySolution solution = rs.nextSolution();
-                    Literal dispatcherIdLiteral = solution.getLiteral("?id");
-
-                    if(dispatcherIdLiteral == null){
-                        return Optional.empty();
-                    }
-                    return Optional.of(dispatcherIdLiteral.getInt());
-                }else{
-                    return Optional.empty();
-                }
-            }
-        }
+        return getIndividualTaskContext(courseInstanceUUID, exerciseSheetUUID, matriculationNo, orderNo)
+            .flatMap(IndividualTaskContext::getIndividualTaskIdForDispatcher);
     }
 
     /**
@@ -2480,82 +2082,34 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
      */
     private String getNextTaskAssignmentForAllocation(@NotNull String courseInstanceUrl, @NotNull String exerciseSheetUrl,
                                                       @NotNull String studentUrl, @NotNull RDFConnection connection) {
+        AllocationContext context = getAllocationContext(courseInstanceUrl, exerciseSheetUrl, studentUrl, connection);
+        if (context == null) {
+            return null;
+        }
 
-        List<String> reachedGoals = getReachedGoalsOfStudentAndCourseInstance(courseInstanceUrl, studentUrl, connection);
-
-        ParameterizedSparqlString getPossibleAssignmentsQuery = new ParameterizedSparqlString("""
-            PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-            PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#>
+        LearningGoalGraphCache.CourseGoalGraph graph = learningGoalGraphCache.getCourseGoalGraph(context.courseUrl());
+        int minDistance = Integer.MAX_VALUE;
+        List<String> taskSheets = new ArrayList<>();
 
-            SELECT ?goalOfCourse ?task ?distance
-            WHERE {
-              SELECT ?goalOfCourse ?task (COUNT(DISTINCT ?mid) AS ?distance)
-              WHERE {
-                ?courseInstance a etutor:CourseInstance.
-                ?courseInstance etutor:hasCourse ?course.
-                ?course etutor:hasGoal/etutor:hasSubGoal* ?goalOfCourse.
-                ?sheet etutor:containsLearningGoalAssignment/etutor:containsLearningGoal/etutor:hasSubGoal*/etutor:dependsOn* ?goalOfCourse.
-                ?sheet etutor:hasExerciseSheetDifficulty/rdf:value ?sheetDifficultyValue.
-
-                ?task a etutor:TaskAssignment.
-                ?task etutor:hasTaskDifficulty/rdf:value ?taskDifficultyValue.
-
-                ?goalOfCourse (^etutor:hasSubGoal|^etutor:dependsOn)? ?mid.
-                ?mid (^etutor:hasSubGoal|^etutor:dependsOn)* ?endGoal.
-                ?endGoal etutor:hasTaskAssignment ?task.
-
-                FILTER(?goalOfCourse NOT IN (?reachedGoals))
-                FILTER(?taskDifficultyValue <= ?sheetDifficultyValue)
-
-                FILTER (NOT EXISTS {
-                    ?goalOfCourse (^etutor:hasSubGoal/etutor:dependsOn+|etutor:dependsOn+) ?dependentGoal.
-                    GRAPH ?courseInstance {
-                      ?dependentGoal a etutor:Goal
-                    }
-                    FILTER(?dependentGoal NOT IN (?reachedGoals))
-                }).
-                FILTER (NOT EXISTS {
-                    ?student etutor:hasIndividualTaskAssignment ?individualAssignment.
-                    ?individualAssignment etutor:fromExerciseSheet ?anySheet;
-                                          etutor:fromCourseInstance ?courseInstance;
-                                          etutor:hasIndividualTask ?individualTask.
-                    ?individualTask etutor:refersToTask ?task.
-                }).
-              }
-              GROUP BY ?goalOfCourse ?task
+        for (var candidate : graph.getAllocationCandidates(context.sheetGoals(), context.sheetDifficulty(),
+            context.reachedGoals(), context.assignedTasks())) {
+            if (candidate.distance() > minDistance) {
+                break;
+            }
+            if (graph.hasOpenPrerequisites(candidate.goal(), context.courseInstanceGoals(), context.reachedGoals())) {
+                continue;
             }
-            ORDER BY ?distance
-            """);
-        getPossibleAssignmentsQuery.setIri("?courseInstance", courseInstanceUrl);
-        getPossibleAssignmentsQuery.setIri("?sheet", exerciseSheetUrl);
-        getPossibleAssignmentsQuery.setIri("?student", studentUrl);
-        String query = getPossibleAssignmentsQuery.toString();
-        query = query.replace("?reachedGoals", StreamEx.of(reachedGoals).map(x -> String.format("<%s>", x)).joining(", "));
-
-        try (QueryExecution execution = connection.query(query)) {
-            ResultSet set = execution.execSelect();
-            int minDistance = Integer.MAX_VALUE;
-            List<String> taskSheets = new ArrayList<>();
-
-            if (set.hasNext()) {
-                do {
-                    QuerySolution solution = set.nextSolution();
-                    int distance = solution.getLiteral("?distance").getInt();
 
-                    if (distance <= minDistance) {
-                        minDistance = distance;
-                        taskSheets.add(solution.getResource("?task").getURI());
-                    }
-                } while (set.hasNext());
+            minDistance = candidate.distance();
+            taskSheets.add(candidate.task());
+        }
 
-                if (taskSheets.size() > 1) {
-                    return taskSheets.get(random.nextInt(taskSheets.size()));
-                } else { // taskSheets.size() == 1
-                    return taskSheets.get(0);
-                }
-            } else {
-                return null;
-            }
+        if (taskSheets.isEmpty()) {
+            return null;
+        } else if (taskSheets.size() > 1) {
+            return taskSheets.get(random.nextInt(taskSheets.size()));
+        } else {
+            return taskSheets.get(0);
         }
     }
 
@@ -2573,73 +2127,91 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
      */
     private List<String> getAllTaskAssignmentsForAllocation(@NotNull String courseInstanceUrl, @NotNull String exerciseSheetUrl,
                                                             @NotNull String studentUrl, @NotNull RDFConnection connection, int taskCount) {
+        AllocationContext context = getAllocationContext(courseInstanceUrl, exerciseSheetUrl, studentUrl, connection);
+        if (context == null) {
+            return Collections.emptyList();
+        }
 
-        List<String> reachedGoals = getReachedGoalsOfStudentAndCourseInstance(courseInstanceUrl, studentUrl, connection);
+        LearningGoalGraphCache.CourseGoalGraph graph = learningGoalGraphCache.getCourseGoalGraph(context.courseUrl());
 
-        ParameterizedSparqlString getPossibleAssignmentsQuery = new ParameterizedSparqlString("""
-            PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
-            PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#>
+        // The candidates are ordered by their distance, therefore the first occurrence of a task is its closest one.
+        Set<String> taskSheets = new LinkedHashSet<>();
+        for (var candidate : graph.getAllocationCandidates(context.sheetGoals(), context.sheetDifficulty(),
+            context.reachedGoals(), context.assignedTasks())) {
+            if (taskSheets.size() >= taskCount) {
+                break;
+            }
+            taskSheets.add(candidate.task());
+        }
+        return new ArrayList<>(taskSheets);
+    }
 
+    /**
+     * Returns the student and exercise sheet specific data which is required for the allocation of tasks.
+     *
+     * @param courseInstanceUrl the course instance URL
+     * @param exerciseSheetUrl  the exercise sheet URL
+     * @param studentUrl        the student URL
+     * @param connection        the RDF connection to the fuseki instance
+     * @return the allocation context or {@code null} if the course instance or exercise sheet does not exist
+     */
+    private AllocationContext getAllocationContext(@NotNull String courseInstanceUrl, @NotNull String exerciseSheetUrl,
+                                                   @NotNull String studentUrl, @NotNull RDFConnection connection) {
+        ParameterizedSparqlString sheetQry = new ParameterizedSparqlString(QRY_SELECT_ALLOCATION_SHEET);
+        sheetQry.setIri("?courseInstance", courseInstanceUrl);
+        sheetQry.setIri("?sheet", exerciseSheetUrl);
 
-            SELECT ?task
-            WHERE{
-            SELECT ?goalOfCourse ?task ?distance
-            WHERE {
-              SELECT ?goalOfCourse ?task (COUNT(DISTINCT ?mid) AS ?distance)
-              WHERE {
-                ?courseInstance a etutor:CourseInstance.
-                ?courseInstance etutor:hasCourse ?course.
-                ?course etutor:hasGoal/etutor:hasSubGoal* ?goalOfCourse.
-                ?sheet etutor:containsLearningGoalAssignment/etutor:containsLearningGoal/etutor:hasSubGoal*/etutor:dependsOn* ?goalOfCourse.
-                ?sheet etutor:hasExerciseSheetDifficulty/rdf:value ?sheetDifficultyValue.
-
-                ?task a etutor:TaskAssignment.
-                ?task etutor:hasTaskDifficulty/rdf:value ?taskDifficultyValue.
-
-                ?goalOfCourse (^etutor:hasSubGoal|^etutor:dependsOn)? ?mid.
-                ?mid (^etutor:hasSubGoal|^etutor:dependsOn)* ?endGoal.
-                ?endGoal etutor:hasTaskAssignment ?task.
-
-                FILTER(?goalOfCourse NOT IN (?reachedGoals))
-                FILTER(?taskDifficultyValue <= ?sheetDifficultyValue)
-
-                FILTER (NOT EXISTS {
-                    ?student etutor:hasIndividualTaskAssignment ?individualAssignment.
-                    ?individualAssignment etutor:fromExerciseSheet ?anySheet;
-                                          etutor:fromCourseInstance ?courseInstance;
-                                          etutor:hasIndividualTask ?individualTask.
-                    ?individualTask etutor:refersToTask ?task.
-                }).
-              }
-              GROUP BY ?goalOfCourse ?task
-            }
-            ORDER BY ?distance
+        String courseUrl = null;
+        int sheetDifficulty = 0;
+        List<String> sheetGoals = new ArrayList<>();
+
+        try (QueryExecution execution = connection.query(sheetQry.asQuery())) {
+            ResultSet set = execution.execSelect();
+            while (set.hasNext()) {
+                QuerySolution solution = set.nextSolution();
+                courseUrl = solution.getResource("?course").getURI();
+                sheetDifficulty = solution.getLiteral("?sheetDifficultyValue").getInt();
+
+                Resource sheetGoal = solution.getResource("?sheetGoal");
+                if (sheetGoal != null) {
+                    sheetGoals.add(sheetGoal.getURI());
+                }
             }
-            GROUP BY ?task
-            LIMIT ?taskCount
-            """);
-        getPossibleAssignmentsQuery.setIri("?courseInstance", courseInstanceUrl);
-        getPossibleAssignmentsQuery.setIri("?sheet", exerciseSheetUrl);
-        getPossibleAssignmentsQuery.setIri("?student", studentUrl);
-        getPossibleAssignmentsQuery.setLiteral("?taskCount", taskCount);
-        String query = getPossibleAssignmentsQuery.toString();
-        query = query.replace("?reachedGoals", StreamEx.of(reachedGoals).map(x -> String.format("<%s>", x)).joining(", "));
-
-        try (QueryExecution execution = connection.query(query)) {
+        }
+
+        if (courseUrl == null) {
+            return null;
+        }
+
+        ParameterizedSparqlString studentQry = new ParameterizedSparqlString(QRY_SELECT_ALLOCATION_STUDENT_STATE);
+        studentQry.setIri("?courseInstance", courseInstanceUrl);
+        studentQry.setIri("?student", studentUrl);
+
+        Set<String> courseInstanceGoals = new HashSet<>();
+        Set<String> reachedGoals = new HashSet<>();
+        Set<String> assignedTasks = new HashSet<>();
+
+        try (QueryExecution execution = connection.query(studentQry.asQuery())) {
             ResultSet set = execution.execSelect();
-            List<String> taskSheets = new ArrayList<>();
+            while (set.hasNext()) {
+                QuerySolution solution = set.nextSolution();
 
-            if (set.hasNext()) {
-                do {
-                    QuerySolution solution = set.nextSolution();
-                    taskSheets.add(solution.getResource("?task").getURI());
-                } while (set.hasNext());
+                Resource goal = solution.getResource("?goal");
+                if (goal != null) {
+                    courseInstanceGoals.add(goal.getURI());
+                    if (solution.contains("?reached")) {
+                        reachedGoals.add(goal.getURI());
+                    }
+                }
 
-                return taskSheets;
-            } else {
-                return Collections.emptyList();
+                Resource task = solution.getResource("?task");
+                if (task != null) {
+                    assignedTasks.add(task.getURI());
+                }
             }
         }
+
+        return new AllocationContext(courseUrl, sheetGoals, sheetDifficulty, courseInstanceGoals, reachedGoals, assignedTasks);
     }
 
     /**
@@ -2720,6 +2292,8 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
 
 
         connection.update(individualAssignmentInsertQry.asUpdate());
+        studentProgressProjection.taskAssigned(studentUrl, courseInstanceUrl, exerciseSheetUrl, orderNo);
+
         Optional<TaskAssignmentDTO> taskAssignmentDTO = assignmentSPARQLEndpointService.getTaskAssignmentByInternalId(newTaskResourceUrl.substring(newTaskResourceUrl.lastIndexOf('#') + 1));
 
         // Additional requirements for Process-Mining tasks (triggering random exercise generation in Dispatcher and persisting id in RDF)
@@ -2824,5 +2398,18 @@ public /*non-sealed */class StudentService extends AbstractSPARQLEndpointService
         });
         return getDispatcherTaskIdOfIndividualTask(matriculationNo, courseInstanceUUID, exerciseSheetUUID, taskNo);
     }
-}
 
+    /**
+     * Student and exercise sheet specific data for the allocation of tasks.
+     *
+     * @param courseUrl           the URL of the course instance's course
+     * @param sheetGoals          the goals of the exercise sheet
+     * @param sheetDifficulty     the difficulty value of the exercise sheet
+     * @param courseInstanceGoals the goals of the course instance
+     * @param reachedGoals        the goals which the student has already reached
+     * @param assignedTasks       the tasks which have already been assigned to the student in the course instance
+     */
+    private record AllocationContext(String courseUrl, List<String> sheetGoals, int sheetDifficulty,
+                                     Set<String> courseInstanceGoals, Set<String> reachedGoals, Set<String> assignedTasks) {
+    }
+}
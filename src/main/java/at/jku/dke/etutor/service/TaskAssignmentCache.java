@@ -0,0 +1,242 @@
+package at.jku.dke.etutor.service;
+
+import at.jku.dke.etutor.helper.RDFConnectionFactory;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdfconnection.RDFConnection;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of the task assignments and task groups.
+ * <p>
+ * The cache holds the statements which are constructed for a task assignment or task group, so that
+ * repeated lookups of the same tasks during an exercise do not query the store. As the DTOs are mutable,
+ * a new DTO is created from the cached statements for every lookup. The cached models are only read.
+ * Entries are invalidated by the write operations which change task assignments, their learning goal
+ * assignments or task groups. Tasks and task groups which do not exist are not cached.
+ *
+ * @author fne
+ */
+@Component
+public class TaskAssignmentCache extends AbstractSPARQLEndpointService implements MeterBinder {
+
+    private static final String QRY_CONSTRUCT_TASK_ASSIGNMENT =
+        """
+            PREFIX etutor:            <http://www.dke.uni-linz.ac.at/etutorpp/>
+            PREFIX etutor-difficulty: <http://www.dke.uni-linz.ac.at/etutorpp/DifficultyRanking#>
+            PREFIX rdfs:              <http://www.w3.org/2000/01/rdf-schema#>
+
+            CONSTRUCT { ?assignment ?predicate ?object.
+              ?assignment etutor:isAssignmentOf ?goal.
+              ?goal rdfs:label ?goalName.
+              ?assignment etutor:hasTaskGroup ?taskGroup. }
+            WHERE {
+              ?assignment ?predicate ?object.
+              ?assignment a etutor:TaskAssignment.
+              OPTIONAL {
+                ?goal etutor:hasTaskAssignment ?assignment.
+                ?goal rdfs:label ?goalName.
+              }
+              OPTIONAL {
+                ?taskGroup etutor:hasTask ?assignment.
+              }
+            }
+            """;
+
+    private static final String QRY_CONSTRUCT_TASK_GROUP =
+        """
+            PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+
+            CONSTRUCT {
+              ?group ?predicate ?object.
+            } WHERE {
+              ?group ?predicate ?object.
+            }
+            """;
+
+    private static final long MAXIMUM_SIZE = 1000;
+    private static final Duration EXPIRE_AFTER_WRITE = Duration.ofHours(1);
+
+    private final ModelCache taskAssignments = new ModelCache();
+    private final ModelCache taskGroups = new ModelCache();
+    private final AtomicLong clearCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param rdfConnectionFactory the injected rdf connection factory
+     */
+    public TaskAssignmentCache(RDFConnectionFactory rdfConnectionFactory) {
+        super(rdfConnectionFactory);
+    }
+
+    /**
+     * Binds the cache statistics to the given registry.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, taskAssignments.cache, "taskAssignments");
+        GuavaCacheMetrics.monitor(registry, taskGroups.cache, "taskGroups");
+    }
+
+    /**
+     * Returns the statements of the given task assignment, which are loaded if they are not cached.
+     *
+     * @param taskAssignmentId the task assignment URL
+     * @return the statements, or an empty optional if the task assignment does not exist
+     */
+    public Optional<Model> getTaskAssignment(String taskAssignmentId) {
+        Objects.requireNonNull(taskAssignmentId);
+
+        invalidateIfDatasetCleared();
+        return taskAssignments.get(taskAssignmentId, id -> construct(QRY_CONSTRUCT_TASK_ASSIGNMENT, "?assignment", id));
+    }
+
+    /**
+     * Returns the statements of the given task group, which are loaded if they are not cached.
+     *
+     * @param taskGroupId the task group URL
+     * @return the statements, or an empty optional if the task group does not exist
+     */
+    public Optional<Model> getTaskGroup(String taskGroupId) {
+        Objects.requireNonNull(taskGroupId);
+
+        invalidateIfDatasetCleared();
+        return taskGroups.get(taskGroupId, id -> construct(QRY_CONSTRUCT_TASK_GROUP, "?group", id));
+    }
+
+    /**
+     * Invalidates the given task assignment, e.g. because it has been updated or removed.
+     *
+     * @param taskAssignmentId the task assignment URL
+     */
+    public void invalidateTaskAssignment(String taskAssignmentId) {
+        Objects.requireNonNull(taskAssignmentId);
+
+        taskAssignments.invalidate(taskAssignmentId);
+    }
+
+    /**
+     * Invalidates all task assignments, e.g. because a learning goal or task group
+     * which is referenced by task assignments has been removed.
+     */
+    public void invalidateAllTaskAssignments() {
+        taskAssignments.invalidateAll();
+    }
+
+    /**
+     * Invalidates the given task group, e.g. because it has been modified or deleted.
+     *
+     * @param taskGroupId the task group URL
+     */
+    public void invalidateTaskGroup(String taskGroupId) {
+        Objects.requireNonNull(taskGroupId);
+
+        taskGroups.invalidate(taskGroupId);
+    }
+
+    //region Private helper methods
+
+    /**
+     * Invalidates all entries if the dataset has been cleared since the last lookup.
+     */
+    private void invalidateIfDatasetCleared() {
+        long currentClearCount = getDatasetClearCount();
+        if (clearCount.getAndSet(currentClearCount) != currentClearCount) {
+            taskAssignments.invalidateAll();
+            taskGroups.invalidateAll();
+        }
+    }
+
+    /**
+     * Runs a construct query for the given resource.
+     *
+     * @param query    the query
+     * @param variable the variable of the resource
+     * @param id       the resource URL
+     * @return the constructed statements
+     */
+    private Model construct(String query, String variable, String id) {
+        ParameterizedSparqlString qry = new ParameterizedSparqlString(query);
+        qry.setIri(variable, id);
+
+        try (RDFConnection connection = getConnection()) {
+            return connection.queryConstruct(qry.asQuery());
+        }
+    }
+
+    //endregion
+
+    /**
+     * Bounded cache of constructed models.
+     * <p>
+     * A model which has been loaded while the cache has been invalidated is returned, but not kept,
+     * as it might reflect the state before the write operation.
+     */
+    private static final class ModelCache {
+        private final Cache<String, Model> cache = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfterWrite(EXPIRE_AFTER_WRITE)
+            .recordStats()
+            .build();
+        private final AtomicLong generation = new AtomicLong();
+
+        /**
+         * Returns the cached model or loads it.
+         *
+         * @param id     the resource URL
+         * @param loader the loader of the model
+         * @return the model, or an empty optional if the loaded model is empty
+         */
+        Optional<Model> get(String id, Function<String, Model> loader) {
+            Model model = cache.getIfPresent(id);
+            if (model != null) {
+                return Optional.of(model);
+            }
+
+            long currentGeneration = generation.get();
+            model = loader.apply(id);
+            if (model.isEmpty()) {
+                return Optional.empty();
+            }
+
+            cache.put(id, model);
+            if (currentGeneration != generation.get()) {
+                cache.asMap().remove(id, model);
+            }
+            return Optional.of(model);
+        }
+
+        /**
+         * Invalidates a model.
+         *
+         * @param id the resource URL
+         */
+        void invalidate(String id) {
+            generation.incrementAndGet();
+            cache.invalidate(id);
+        }
+
+        /**
+         * Invalidates all models.
+         */
+        void invalidateAll() {
+            generation.incrementAndGet();
+            cache.invalidateAll();
+        }
+    }
+}
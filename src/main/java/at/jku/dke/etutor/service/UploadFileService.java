@@ -1,7 +1,7 @@
 package at.jku.dke.etutor.service;
 
-import at.jku.dke.etutor.calc.functions.DecodeMultipartFile;
 import at.jku.dke.etutor.calc.models.RandomInstruction;
+import at.jku.dke.etutor.calc.service.CalcDocumentCache;
 import at.jku.dke.etutor.calc.service.CorrectionService;
 import at.jku.dke.etutor.domain.FileEntity;
 import at.jku.dke.etutor.repository.FileRepository;
@@ -11,6 +11,10 @@ import at.jku.dke.etutor.service.exception.StudentNotExistsException;
 import at.jku.dke.etutor.calc.exception.WrongCalcParametersException;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ObjectUtils;
@@ -18,6 +22,8 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -31,15 +37,22 @@ import java.util.Optional;
 @Service
 public class UploadFileService {
 
+    private static final Duration UNREFERENCED_CONTENT_RETENTION = Duration.ofDays(1);
+
+    private final Logger log = LoggerFactory.getLogger(UploadFileService.class);
+
     private final FileRepository fileRepository;
+    private final CalcDocumentCache calcDocumentCache;
 
     /**
      * Constructor.
      *
-     * @param fileRepository the injected file repository
+     * @param fileRepository    the injected file repository
+     * @param calcDocumentCache the injected cache of the parsed calc documents
      */
-    public UploadFileService(FileRepository fileRepository) {
+    public UploadFileService(FileRepository fileRepository, CalcDocumentCache calcDocumentCache) {
         this.fileRepository = fileRepository;
+        this.calcDocumentCache = calcDocumentCache;
     }
 
     /**
@@ -63,8 +76,9 @@ public class UploadFileService {
             fileNameStr = file.getOriginalFilename();
         }
         String name = StringUtils.cleanPath(Objects.requireNonNull(fileNameStr));
-        return fileRepository.uploadFile(matriculationNumber, name, file.getContentType(),
-            file.getBytes(), file.getSize());
+        try (InputStream content = file.getInputStream()) {
+            return fileRepository.uploadFile(matriculationNumber, name, file.getContentType(), content);
+        }
     }
 
 
@@ -83,13 +97,10 @@ public class UploadFileService {
             FileEntity calcSolutionFileOld = fileRepository.getById(calcSolutionFileId);
             FileEntity writerInstructionFileOld = fileRepository.getById(writerInstructionFileId);
 
-            InputStream calcInstructionStreamOld = new ByteArrayInputStream(calcInstructionFileOld.getContent());
-            InputStream calcSolutionStreamOld = new ByteArrayInputStream(calcSolutionFileOld.getContent());
-            InputStream writerInstructionStreamOld = new ByteArrayInputStream(writerInstructionFileOld.getContent());
-
-            XSSFWorkbook workbookCalcInstructionOld = new XSSFWorkbook(calcInstructionStreamOld);
-            XSSFWorkbook workbookCalcSolutionOld = new XSSFWorkbook(calcSolutionStreamOld);
-            XWPFDocument documentWriterInstructionOld = new XWPFDocument(writerInstructionStreamOld);
+            // the randomisation modifies the documents, so copies of the cached documents are used
+            XSSFWorkbook workbookCalcInstructionOld = calcDocumentCache.copyWorkbook(calcInstructionFileId);
+            XSSFWorkbook workbookCalcSolutionOld = calcDocumentCache.copyWorkbook(calcSolutionFileId);
+            XWPFDocument documentWriterInstructionOld = calcDocumentCache.copyDocument(writerInstructionFileId);
 
             RandomInstruction randomInstruction = CorrectionService.createInstruction(documentWriterInstructionOld, workbookCalcInstructionOld, workbookCalcSolutionOld, login);
 
@@ -105,10 +116,6 @@ public class UploadFileService {
             workbookCalcSolution.write(byteArrayOutputStreamCalcSolution);
             documentWriterInstruction.write(byteArrayOutputStreamWriterInstruction);
 
-            MultipartFile fileCalcInstruction = new DecodeMultipartFile(byteArrayOutputStreamCalcInstruction.toByteArray());
-            MultipartFile fileCalcSolution = new DecodeMultipartFile(byteArrayOutputStreamCalcSolution.toByteArray());
-            MultipartFile fileWriterInstruction = new DecodeMultipartFile(byteArrayOutputStreamWriterInstruction.toByteArray());
-
             String fileNameCalcInstruction = calcInstructionFileOld.getName().substring(0, calcInstructionFileOld.getName().lastIndexOf('.'))
                 + "_"
                 + login
@@ -124,9 +131,9 @@ public class UploadFileService {
 
             List<Long> returningList = new ArrayList<>();
 
-            returningList.add(fileRepository.uploadFile(fileNameCalcInstruction, calcInstructionFileOld.getContentType(), fileCalcInstruction.getBytes(), fileCalcInstruction.getSize()));
-            returningList.add(fileRepository.uploadFile(fileNameCalcSolution, calcSolutionFileOld.getContentType(), fileCalcSolution.getBytes(), fileCalcSolution.getSize()));
-            returningList.add(fileRepository.uploadFile(fileNameWriterInstruction, writerInstructionFileOld.getContentType(), fileWriterInstruction.getBytes(), fileWriterInstruction.getSize()));
+            returningList.add(fileRepository.uploadFile(fileNameCalcInstruction, calcInstructionFileOld.getContentType(), byteArrayOutputStreamCalcInstruction.toByteArray(), byteArrayOutputStreamCalcInstruction.size()));
+            returningList.add(fileRepository.uploadFile(fileNameCalcSolution, calcSolutionFileOld.getContentType(), byteArrayOutputStreamCalcSolution.toByteArray(), byteArrayOutputStreamCalcSolution.size()));
+            returningList.add(fileRepository.uploadFile(fileNameWriterInstruction, writerInstructionFileOld.getContentType(), byteArrayOutputStreamWriterInstruction.toByteArray(), byteArrayOutputStreamWriterInstruction.size()));
 
             return returningList;
         } catch (Exception e) {
@@ -148,6 +155,19 @@ public class UploadFileService {
         return file.orElseThrow(FileNotExistsException::new);
     }
 
+    /**
+     * Returns the content of a stored file as resource, which can be streamed
+     * and supports the retrieval of byte ranges.
+     *
+     * @param fileId the internal file id
+     * @return the content resource
+     * @throws FileNotExistsException if the file does not exist
+     */
+    @Transactional(readOnly = true)
+    public Resource getFileContent(long fileId) throws FileNotExistsException {
+        return fileRepository.getContentResource(fileId);
+    }
+
     /**
      * Deletes a file from the database.
      *
@@ -155,7 +175,24 @@ public class UploadFileService {
      */
     @Transactional
     public void removeFile(long fileId) {
-        fileRepository.deleteById(fileId);
+        fileRepository.deleteFile(fileId);
+        calcDocumentCache.invalidate(fileId);
+    }
+
+    /**
+     * Contents of the file store which are no longer referenced by any file are removed after one day.
+     * <p>
+     * This is scheduled to get fired everyday, at 02:00 (am).
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    @Transactional
+    public void removeUnreferencedFileContents() {
+        try {
+            int count = fileRepository.removeUnreferencedContents(LocalDateTime.now().minus(UNREFERENCED_CONTENT_RETENTION));
+            log.debug("Removed {} unreferenced file contents", count);
+        } catch (IOException e) {
+            log.error("Could not remove the unreferenced file contents", e);
+        }
     }
 
     /**
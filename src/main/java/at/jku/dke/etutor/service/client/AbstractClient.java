@@ -10,28 +10,35 @@ import org.springframework.http.ResponseEntity;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URLEncoder;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 
 public abstract class AbstractClient {
-    private static final Integer NUMBER_OF_THREADS = 30;
-    private static final HttpClient CLIENT = HttpClient
-        .newBuilder()
-        .executor(Executors.newFixedThreadPool(NUMBER_OF_THREADS))
-        .build();
     private final String baseUrl;
+    private final DispatcherHttpClient client;
     private final ObjectMapper mapper;
     protected final HttpResponse.BodyHandler<String> stringHandler = HttpResponse.BodyHandlers.ofString();
 
-    protected AbstractClient(String baseUrl){
+    protected AbstractClient(String baseUrl, DispatcherHttpClient client){
         this.baseUrl = baseUrl;
+        this.client = client;
         this.mapper = new ObjectMapper();
     }
 
+    /**
+     * Returns the timeout for receiving the response of a request
+     * @return the request timeout
+     */
+    public Duration getRequestTimeout() {
+        return client.getRequestTimeout();
+    }
+
     /**
      * Encodes a string for URL compatibility
      * @param value the value to encode
@@ -50,6 +57,7 @@ public abstract class AbstractClient {
     protected final HttpRequest.Builder getPostRequestWithBody(String path, String json){
         return HttpRequest.newBuilder()
             .uri(URI.create(baseUrl + path))
+            .timeout(client.getRequestTimeout())
             .POST(HttpRequest.BodyPublishers.ofString(json))
             .setHeader(org.springframework.http.HttpHeaders.CONTENT_TYPE, "application/json");
     }
@@ -64,6 +72,7 @@ public abstract class AbstractClient {
     protected final HttpRequest getPutRequestWithBody(String path, String json){
         return HttpRequest.newBuilder()
             .uri(URI.create(baseUrl + path))
+            .timeout(client.getRequestTimeout())
             .PUT(HttpRequest.BodyPublishers.ofString(json))
             .setHeader(org.springframework.http.HttpHeaders.CONTENT_TYPE, "application/json")
             .build();
@@ -77,6 +86,7 @@ public abstract class AbstractClient {
     protected final HttpRequest getGetRequest(String path){
         return HttpRequest.newBuilder()
             .uri(URI.create(baseUrl + path))
+            .timeout(client.getRequestTimeout())
             .GET()
             .build();
     }
@@ -90,44 +100,153 @@ public abstract class AbstractClient {
     protected final HttpRequest getDeleteRequest(String path){
         return HttpRequest.newBuilder()
             .uri(URI.create(baseUrl + path))
+            .timeout(client.getRequestTimeout())
             .DELETE()
             .build();
     }
 
     /**
      * Utility method that sends an HttpRequest and returns the response-body wrapped inside an ResponseEntity<T>
+     * @param operation the client method which sends the request, used to tag the metrics
      * @param request the HttpRequest
      * @param handler the HttpResponse.BodyHandler
      * @return the ResponseEntity
      * @throws DispatcherRequestFailedException if the status code is 500
      */
-    protected final <T> ResponseEntity<T> sendRequest(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws DispatcherRequestFailedException {
-        try {
-            HttpResponse<T> response = CLIENT.send(request, handler);
-            if (response.statusCode() == 500)
-                throw new DispatcherRequestFailedException(((HttpResponse<String>)response).body());
-            return ResponseEntity.status(response.statusCode()).body(response.body());
-        } catch (IOException | InterruptedException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    protected final <T> ResponseEntity<T> sendRequest(String operation, HttpRequest request, HttpResponse.BodyHandler<T> handler) throws DispatcherRequestFailedException {
+        return await(sendRequestAsync(operation, request, handler));
     }
 
     /**
      * Utility method that sends an HttpRequest and returns the response-body wrapped inside an ResponseEntity<T>
+     * @param operation the client method which sends the request, used to tag the metrics
      * @param request the HttpRequest
      * @param handler the HttpResponse.BodyHandler
      * @param ignoredStatusCodes the expected status code
      * @return the ResponseEntity
      * @throws DispatcherRequestFailedException if the status code does not match one of the ignored status codes
      */
-    protected final <T> ResponseEntity<T> sendRequest(HttpRequest request, HttpResponse.BodyHandler<T> handler, int... ignoredStatusCodes) throws DispatcherRequestFailedException {
+    protected final <T> ResponseEntity<T> sendRequest(String operation, HttpRequest request, HttpResponse.BodyHandler<T> handler, int... ignoredStatusCodes) throws DispatcherRequestFailedException {
+        return await(sendRequestAsync(operation, request, handler, ignoredStatusCodes));
+    }
+
+    /**
+     * Utility method that sends an idempotent HttpRequest, which is hedged by a second request
+     * if the dispatcher does not answer in time and hedging is enabled
+     * @param operation the client method which sends the request, used to tag the metrics
+     * @param request the HttpRequest
+     * @param handler the HttpResponse.BodyHandler
+     * @return the ResponseEntity
+     * @throws DispatcherRequestFailedException if the status code is 500
+     */
+    protected final <T> ResponseEntity<T> sendHedgedRequest(String operation, HttpRequest request, HttpResponse.BodyHandler<T> handler) throws DispatcherRequestFailedException {
+        return await(sendHedgedRequestAsync(operation, request, handler));
+    }
+
+    /**
+     * Utility method that sends an HttpRequest without blocking the calling thread.
+     * The future fails with a {@link DispatcherRequestFailedException} if the status code is 500
+     * or if the request has been rejected because too many requests are pending.
+     * @param operation the client method which sends the request, used to tag the metrics
+     * @param request the HttpRequest
+     * @param handler the HttpResponse.BodyHandler
+     * @return the future of the ResponseEntity
+     */
+    protected final <T> CompletableFuture<ResponseEntity<T>> sendRequestAsync(String operation, HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        return checkStatus(send(operation, request, handler, false));
+    }
+
+    /**
+     * Utility method that sends an idempotent HttpRequest without blocking the calling thread.
+     * The request is hedged by a second request if the dispatcher does not answer in time and hedging is enabled.
+     * @param operation the client method which sends the request, used to tag the metrics
+     * @param request the HttpRequest
+     * @param handler the HttpResponse.BodyHandler
+     * @return the future of the ResponseEntity
+     */
+    protected final <T> CompletableFuture<ResponseEntity<T>> sendHedgedRequestAsync(String operation, HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        return checkStatus(send(operation, request, handler, true));
+    }
+
+    /**
+     * Fails the future with a {@link DispatcherRequestFailedException} if the status code is 500
+     * @param future the future of the response
+     * @return the future of the ResponseEntity
+     */
+    private static <T> CompletableFuture<ResponseEntity<T>> checkStatus(CompletableFuture<HttpResponse<T>> future) {
+        return future.thenApply(response -> {
+            if (response != null && response.statusCode() == 500)
+                throw new CompletionException(new DispatcherRequestFailedException(String.valueOf(response.body())));
+            return toResponseEntity(response);
+        });
+    }
+
+    /**
+     * Utility method that sends an HttpRequest without blocking the calling thread.
+     * The future fails with a {@link DispatcherRequestFailedException} if the status code does not match one of the ignored status codes
+     * or if the request has been rejected because too many requests are pending.
+     * @param operation the client method which sends the request, used to tag the metrics
+     * @param request the HttpRequest
+     * @param handler the HttpResponse.BodyHandler
+     * @param ignoredStatusCodes the expected status code
+     * @return the future of the ResponseEntity
+     */
+    protected final <T> CompletableFuture<ResponseEntity<T>> sendRequestAsync(String operation, HttpRequest request, HttpResponse.BodyHandler<T> handler, int... ignoredStatusCodes) {
+        return send(operation, request, handler, false).thenApply(response -> {
+            if (response != null && Arrays.stream(ignoredStatusCodes).filter(i -> i == response.statusCode()).findAny().isEmpty())
+                throw new CompletionException(new DispatcherRequestFailedException("Expected status codes " + Arrays.toString(ignoredStatusCodes) + " but got " + response.statusCode() + " instead." + response.body()));
+            return toResponseEntity(response);
+        });
+    }
+
+    /**
+     * Sends the request through the shared client. Connection failures and timeouts complete
+     * the future with {@code null}, which is mapped to an internal server error.
+     * @param operation the client method which sends the request, used to tag the metrics
+     * @param request the HttpRequest
+     * @param handler the HttpResponse.BodyHandler
+     * @param hedged whether the request may be hedged
+     * @return the future of the response, or {@code null} if the request could not be sent
+     */
+    private <T> CompletableFuture<HttpResponse<T>> send(String operation, HttpRequest request, HttpResponse.BodyHandler<T> handler, boolean hedged) {
+        return client.sendAsync(baseUrl, new DispatcherHttpClient.Operation(getClass().getSimpleName(), operation), request, handler, hedged)
+            .exceptionally(throwable -> {
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                if (cause instanceof IOException)
+                    return null;
+                throw throwable instanceof CompletionException completionException ? completionException : new CompletionException(cause);
+            });
+    }
+
+    /**
+     * Wraps a response inside an ResponseEntity<T>
+     * @param response the response, or {@code null} if the request could not be sent
+     * @return the ResponseEntity
+     */
+    private static <T> ResponseEntity<T> toResponseEntity(HttpResponse<T> response) {
+        if (response == null)
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        return ResponseEntity.status(response.statusCode()).body(response.body());
+    }
+
+    /**
+     * Waits for an asynchronously sent request
+     * @param future the future of the ResponseEntity
+     * @return the ResponseEntity
+     * @throws DispatcherRequestFailedException if the request failed
+     */
+    private static <T> ResponseEntity<T> await(CompletableFuture<ResponseEntity<T>> future) throws DispatcherRequestFailedException {
         try {
-            HttpResponse<T> response = CLIENT.send(request, handler);
-            if (Arrays.stream(ignoredStatusCodes).filter(i -> i == response.statusCode()).findAny().isEmpty())
-                throw new DispatcherRequestFailedException("Expected status codes " + Arrays.toString(ignoredStatusCodes) + " but got " + response.statusCode() + " instead." + response.body());
-            return ResponseEntity.status(response.statusCode()).body(response.body());
-        } catch (IOException | InterruptedException e) {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DispatcherRequestFailedException dispatcherRequestFailedException)
+                throw dispatcherRequestFailedException;
+            if (e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            throw new IllegalStateException(e.getCause());
         }
     }
 
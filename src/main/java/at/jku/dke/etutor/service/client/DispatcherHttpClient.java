@@ -0,0 +1,637 @@
+package at.jku.dke.etutor.service.client;
+
+import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.service.exception.DispatcherRequestFailedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Http client which is shared by all dispatcher clients.
+ * <p>
+ * Requests are sent asynchronously, so no thread is blocked while a dispatcher grades a submission.
+ * Each dispatcher base url has its own bulkhead which limits the number of concurrent requests.
+ * Requests exceeding the limit wait in a bounded queue and are rejected if the queue is full,
+ * so a slow dispatcher cannot consume the capacity for the other dispatchers.
+ * <p>
+ * Each dispatcher also has a circuit breaker, which rejects requests without sending them after
+ * consecutive failures, until a trial request succeeds. Idempotent requests are retried with
+ * exponential backoff if the dispatcher could not be reached or was temporarily unavailable, and
+ * can optionally be hedged by a second request if the first one is not answered in time.
+ * The duration and outcome of the requests are recorded per client method.
+ *
+ * @author fne
+ */
+@Component
+public class DispatcherHttpClient implements MeterBinder {
+
+    public static final String METER_PREFIX = "etutor.dispatcher.client";
+    public static final String METER_URL_DIMENSION = "url";
+    public static final String METER_CLIENT_DIMENSION = "client";
+    public static final String METER_OPERATION_DIMENSION = "operation";
+    public static final String METER_OUTCOME_DIMENSION = "outcome";
+
+    private final Logger log = LoggerFactory.getLogger(DispatcherHttpClient.class);
+
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final int maxConcurrentRequests;
+    private final int maxQueuedRequests;
+    private final int maxRetries;
+    private final long initialBackoff;
+    private final long maxBackoff;
+    private final int failureThreshold;
+    private final long openDuration;
+    private final Duration hedgeDelay;
+
+    private final Map<String, Dispatcher> dispatchers = new ConcurrentHashMap<>();
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * Constructor.
+     *
+     * @param applicationProperties the injected application properties
+     */
+    public DispatcherHttpClient(ApplicationProperties applicationProperties) {
+        ApplicationProperties.DispatcherClient properties = applicationProperties.getDispatcherClient();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(properties.getHttpThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "dispatcher-http-client-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(properties.getConnectTimeout())
+            .executor(executor)
+            .build();
+        this.requestTimeout = properties.getRequestTimeout();
+        this.maxConcurrentRequests = properties.getMaxConcurrentRequests();
+        this.maxQueuedRequests = properties.getMaxQueuedRequests();
+        this.maxRetries = properties.getMaxRetries();
+        this.initialBackoff = properties.getInitialBackoff().toMillis();
+        this.maxBackoff = properties.getMaxBackoff().toMillis();
+        this.failureThreshold = properties.getFailureThreshold();
+        this.openDuration = properties.getOpenDuration().toNanos();
+        this.hedgeDelay = properties.getHedgeDelay();
+    }
+
+    /**
+     * Returns the timeout for receiving the response of a request.
+     *
+     * @return the request timeout
+     */
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * Sends a request asynchronously to the dispatcher with the given base url.
+     * The returned future fails with a {@link DispatcherRequestFailedException} if the request
+     * has been rejected by the bulkhead or the circuit breaker of the dispatcher.
+     *
+     * @param baseUrl   the base url of the dispatcher
+     * @param operation the client method which sends the request, used for the metrics
+     * @param request   the request
+     * @param handler   the body handler
+     * @param hedged    whether a second request may be sent if the first one is not answered in time;
+     *                  only applies to idempotent requests and if a hedge delay is configured
+     * @param <T>       the type of the response body
+     * @return the future of the response
+     */
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(String baseUrl, Operation operation, HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> handler, boolean hedged) {
+        Objects.requireNonNull(operation);
+        Objects.requireNonNull(request);
+        Objects.requireNonNull(handler);
+
+        Dispatcher dispatcher = getDispatcher(baseUrl);
+        long start = System.nanoTime();
+
+        CompletableFuture<HttpResponse<T>> future;
+        if ("GET".equals(request.method())) {
+            future = sendWithRetries(dispatcher, operation, request, handler, hedged && hedgeDelay != null, 0);
+        } else {
+            future = attempt(dispatcher, request, handler);
+        }
+        return future.whenComplete((response, throwable) ->
+            record(operation, getOutcome(response, throwable), System.nanoTime() - start));
+    }
+
+    /**
+     * Returns the number of requests to the given base url which are currently sent.
+     *
+     * @param baseUrl the base url of the dispatcher
+     * @return the number of active requests
+     */
+    public int getActiveRequests(String baseUrl) {
+        return getDispatcher(baseUrl).bulkhead.getActive();
+    }
+
+    /**
+     * Returns the number of requests to the given base url which wait for a free slot.
+     *
+     * @param baseUrl the base url of the dispatcher
+     * @return the number of queued requests
+     */
+    public int getQueuedRequests(String baseUrl) {
+        return getDispatcher(baseUrl).bulkhead.queued.get();
+    }
+
+    /**
+     * Returns whether the circuit breaker of the given base url currently rejects requests.
+     *
+     * @param baseUrl the base url of the dispatcher
+     * @return {@code true} if the circuit breaker is open, otherwise {@code false}
+     */
+    public boolean isCircuitOpen(String baseUrl) {
+        return getDispatcher(baseUrl).circuitBreaker.getState() == CircuitState.OPEN;
+    }
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        this.meterRegistry = registry;
+        dispatchers.values().forEach(dispatcher -> dispatcher.bindTo(registry));
+    }
+
+    /**
+     * Stops the threads of the http client.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Sends an idempotent request and retries it with exponential backoff if it failed transiently.
+     *
+     * @param dispatcher the dispatcher
+     * @param operation  the client method which sends the request
+     * @param request    the request
+     * @param handler    the body handler
+     * @param hedged     whether the request is hedged
+     * @param retry      the number of retries so far
+     * @param <T>        the type of the response body
+     * @return the future of the response
+     */
+    private <T> CompletableFuture<HttpResponse<T>> sendWithRetries(Dispatcher dispatcher, Operation operation, HttpRequest request,
+                                                                  HttpResponse.BodyHandler<T> handler, boolean hedged, int retry) {
+        CompletableFuture<HttpResponse<T>> future = hedged ? hedge(dispatcher, operation, request, handler) : attempt(dispatcher, request, handler);
+
+        return future.handle((response, throwable) -> {
+            if (retry >= maxRetries || !isRetryable(response, throwable)) {
+                return throwable == null ? CompletableFuture.completedFuture(response) : CompletableFuture.<HttpResponse<T>>failedFuture(throwable);
+            }
+            long backoff = Math.min(maxBackoff, initialBackoff << retry);
+            long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+            log.debug("Retrying request {} to dispatcher {} in {} ms", operation, dispatcher.baseUrl, delay);
+            count(operation, ".retries");
+
+            return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, executor))
+                .thenCompose(v -> sendWithRetries(dispatcher, operation, request, handler, hedged, retry + 1));
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Sends a request and sends a second one if the first one has not been answered after the hedge delay.
+     * The first response wins; the request fails only if both requests failed.
+     *
+     * @param dispatcher the dispatcher
+     * @param operation  the client method which sends the request
+     * @param request    the request
+     * @param handler    the body handler
+     * @param <T>        the type of the response body
+     * @return the future of the response
+     */
+    private <T> CompletableFuture<HttpResponse<T>> hedge(Dispatcher dispatcher, Operation operation, HttpRequest request,
+                                                        HttpResponse.BodyHandler<T> handler) {
+        CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        AtomicInteger running = new AtomicInteger(1);
+        BiConsumer<HttpResponse<T>, Throwable> complete = (response, throwable) -> {
+            if (throwable == null) {
+                result.complete(response);
+            } else if (running.decrementAndGet() == 0) {
+                result.completeExceptionally(throwable);
+            }
+        };
+
+        attempt(dispatcher, request, handler).whenComplete(complete);
+        CompletableFuture.delayedExecutor(hedgeDelay.toMillis(), TimeUnit.MILLISECONDS, executor).execute(() -> {
+            // Only hedges while the first request is still running
+            if (result.isDone() || running.getAndUpdate(count -> count > 0 ? count + 1 : count) == 0) {
+                return;
+            }
+            count(operation, ".hedges");
+            attempt(dispatcher, request, handler).whenComplete(complete);
+        });
+        return result;
+    }
+
+    /**
+     * Sends a request once within the circuit breaker and the bulkhead of the dispatcher.
+     *
+     * @param dispatcher the dispatcher
+     * @param request    the request
+     * @param handler    the body handler
+     * @param <T>        the type of the response body
+     * @return the future of the response
+     */
+    private <T> CompletableFuture<HttpResponse<T>> attempt(Dispatcher dispatcher, HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        if (!dispatcher.circuitBreaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new DispatcherRequestFailedException("The dispatcher " + dispatcher.baseUrl + " is currently unavailable"));
+        }
+        return dispatcher.bulkhead.execute(() -> client.sendAsync(request, handler))
+            .whenComplete((response, throwable) -> {
+                if (isTransientFailure(response, throwable)) {
+                    dispatcher.circuitBreaker.onFailure();
+                } else if (throwable == null) {
+                    dispatcher.circuitBreaker.onSuccess();
+                } else {
+                    // Rejected by the bulkhead, which says nothing about the dispatcher
+                    dispatcher.circuitBreaker.onIgnored();
+                }
+            });
+    }
+
+    /**
+     * Returns whether a request failed because the dispatcher could not be reached, did not answer in time
+     * or was temporarily unavailable. Such requests may be retried.
+     *
+     * @param response  the response, if any
+     * @param throwable the failure, if any
+     * @return {@code true} if the failure is transient, otherwise {@code false}
+     */
+    private static boolean isTransientFailure(HttpResponse<?> response, Throwable throwable) {
+        if (throwable != null) {
+            return unwrap(throwable) instanceof IOException;
+        }
+        int status = response.statusCode();
+        return status == 502 || status == 503 || status == 504;
+    }
+
+    /**
+     * Returns whether a request may be retried. Requests which timed out are not retried,
+     * as a slow dispatcher would only receive more load.
+     *
+     * @param response  the response, if any
+     * @param throwable the failure, if any
+     * @return {@code true} if the request may be retried, otherwise {@code false}
+     */
+    private static boolean isRetryable(HttpResponse<?> response, Throwable throwable) {
+        return isTransientFailure(response, throwable) && !(throwable != null && unwrap(throwable) instanceof HttpTimeoutException);
+    }
+
+    /**
+     * Returns the outcome of a request for the metrics.
+     *
+     * @param response  the response, if any
+     * @param throwable the failure, if any
+     * @return the outcome
+     */
+    private static String getOutcome(HttpResponse<?> response, Throwable throwable) {
+        if (throwable != null) {
+            return unwrap(throwable) instanceof DispatcherRequestFailedException ? "REJECTED" : "FAILED";
+        }
+        if (response.statusCode() >= 500) {
+            return "SERVER_ERROR";
+        }
+        return response.statusCode() >= 400 ? "CLIENT_ERROR" : "SUCCESS";
+    }
+
+    /**
+     * Returns the cause of a completion exception.
+     *
+     * @param throwable the throwable
+     * @return the cause, or the throwable itself
+     */
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+
+    /**
+     * Records the duration and outcome of a request.
+     *
+     * @param operation the client method
+     * @param outcome   the outcome
+     * @param nanos     the duration in nanoseconds
+     */
+    private void record(Operation operation, String outcome, long nanos) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            return;
+        }
+        Timer.builder(METER_PREFIX + ".requests")
+            .description("Duration of the requests sent to the dispatchers, including retries")
+            .tag(METER_CLIENT_DIMENSION, operation.client())
+            .tag(METER_OPERATION_DIMENSION, operation.method())
+            .tag(METER_OUTCOME_DIMENSION, outcome)
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Increments a counter of a client method.
+     *
+     * @param operation the client method
+     * @param suffix    the suffix of the counter name
+     */
+    private void count(Operation operation, String suffix) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            return;
+        }
+        Counter.builder(METER_PREFIX + suffix)
+            .tag(METER_CLIENT_DIMENSION, operation.client())
+            .tag(METER_OPERATION_DIMENSION, operation.method())
+            .register(registry)
+            .increment();
+    }
+
+    /**
+     * Returns the state of a base url, which is created on first use.
+     *
+     * @param baseUrl the base url
+     * @return the dispatcher
+     */
+    private Dispatcher getDispatcher(String baseUrl) {
+        Objects.requireNonNull(baseUrl);
+
+        return dispatchers.computeIfAbsent(baseUrl, url -> {
+            Dispatcher dispatcher = new Dispatcher(url);
+            MeterRegistry registry = meterRegistry;
+            if (registry != null) {
+                dispatcher.bindTo(registry);
+            }
+            return dispatcher;
+        });
+    }
+
+    /**
+     * The client method which sends a request.
+     *
+     * @param client the simple name of the client class
+     * @param method the name of the method
+     */
+    public record Operation(String client, String method) {
+        @Override
+        public String toString() {
+            return client + "." + method;
+        }
+    }
+
+    /**
+     * The states of a circuit breaker.
+     */
+    private enum CircuitState {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * The bulkhead and circuit breaker of a dispatcher base url.
+     */
+    private final class Dispatcher {
+
+        private final String baseUrl;
+        private final Bulkhead bulkhead;
+        private final CircuitBreaker circuitBreaker;
+
+        /**
+         * Constructor.
+         *
+         * @param baseUrl the base url
+         */
+        private Dispatcher(String baseUrl) {
+            this.baseUrl = baseUrl;
+            this.bulkhead = new Bulkhead(baseUrl);
+            this.circuitBreaker = new CircuitBreaker(baseUrl);
+        }
+
+        /**
+         * Registers the gauges of this dispatcher.
+         *
+         * @param registry the meter registry
+         */
+        private void bindTo(MeterRegistry registry) {
+            Gauge.builder(METER_PREFIX + ".active", bulkhead, Bulkhead::getActive)
+                .description("Number of requests currently sent to the dispatcher")
+                .tag(METER_URL_DIMENSION, baseUrl)
+                .register(registry);
+            Gauge.builder(METER_PREFIX + ".queued", bulkhead.queued, AtomicInteger::get)
+                .description("Number of requests waiting for a free slot of the dispatcher")
+                .tag(METER_URL_DIMENSION, baseUrl)
+                .register(registry);
+            Gauge.builder(METER_PREFIX + ".circuit.open", circuitBreaker, breaker -> breaker.getState() == CircuitState.OPEN ? 1 : 0)
+                .description("Whether requests to the dispatcher are currently rejected by the circuit breaker")
+                .tag(METER_URL_DIMENSION, baseUrl)
+                .register(registry);
+        }
+    }
+
+    /**
+     * Opens after consecutive transient failures and lets a single trial request through
+     * once the open duration has elapsed.
+     */
+    private final class CircuitBreaker {
+
+        private final String baseUrl;
+        private CircuitState state = CircuitState.CLOSED;
+        private int consecutiveFailures;
+        private long openedAt;
+        private boolean trialRunning;
+
+        /**
+         * Constructor.
+         *
+         * @param baseUrl the base url
+         */
+        private CircuitBreaker(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        /**
+         * Returns whether a request may be sent.
+         *
+         * @return {@code true} if the request may be sent, otherwise {@code false}
+         */
+        private synchronized boolean tryAcquire() {
+            if (state == CircuitState.OPEN && System.nanoTime() - openedAt >= openDuration) {
+                state = CircuitState.HALF_OPEN;
+                trialRunning = false;
+            }
+            if (state == CircuitState.HALF_OPEN) {
+                if (trialRunning) {
+                    return false;
+                }
+                trialRunning = true;
+                return true;
+            }
+            return state == CircuitState.CLOSED;
+        }
+
+        /**
+         * Closes the circuit after a successful request.
+         */
+        private synchronized void onSuccess() {
+            if (state != CircuitState.CLOSED) {
+                log.info("Dispatcher {} is available again", baseUrl);
+            }
+            state = CircuitState.CLOSED;
+            consecutiveFailures = 0;
+            trialRunning = false;
+        }
+
+        /**
+         * Counts a transient failure and opens the circuit if the threshold has been reached
+         * or the trial request failed.
+         */
+        private synchronized void onFailure() {
+            consecutiveFailures++;
+            if (state == CircuitState.HALF_OPEN || (state == CircuitState.CLOSED && consecutiveFailures >= failureThreshold)) {
+                log.warn("Dispatcher {} is unavailable, rejecting requests for {} ms", baseUrl, TimeUnit.NANOSECONDS.toMillis(openDuration));
+                state = CircuitState.OPEN;
+                openedAt = System.nanoTime();
+                trialRunning = false;
+            }
+        }
+
+        /**
+         * Releases the trial slot after a request which has not reached the dispatcher.
+         */
+        private synchronized void onIgnored() {
+            trialRunning = false;
+        }
+
+        /**
+         * Returns the current state.
+         *
+         * @return the state
+         */
+        private synchronized CircuitState getState() {
+            return state;
+        }
+    }
+
+    /**
+     * Limits the number of concurrent asynchronous calls without blocking the calling threads.
+     */
+    private final class Bulkhead {
+
+        private final String baseUrl;
+        private final Semaphore permits;
+        private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+
+        /**
+         * Constructor.
+         *
+         * @param baseUrl the base url
+         */
+        private Bulkhead(String baseUrl) {
+            this.baseUrl = baseUrl;
+            this.permits = new Semaphore(maxConcurrentRequests);
+        }
+
+        /**
+         * Starts the call if a slot is free, otherwise queues it.
+         *
+         * @param call the call
+         * @param <R>  the result type
+         * @return the future of the result
+         */
+        private <R> CompletableFuture<R> execute(Supplier<CompletableFuture<R>> call) {
+            CompletableFuture<R> result = new CompletableFuture<>();
+            Runnable task = () -> {
+                CompletableFuture<R> future;
+                try {
+                    future = call.get();
+                } catch (RuntimeException e) {
+                    release();
+                    result.completeExceptionally(e);
+                    return;
+                }
+                future.whenComplete((value, throwable) -> {
+                    release();
+                    if (throwable != null) {
+                        result.completeExceptionally(throwable);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            };
+
+            if (permits.tryAcquire()) {
+                task.run();
+            } else if (queued.incrementAndGet() <= maxQueuedRequests) {
+                pending.add(task);
+                drain();
+            } else {
+                queued.decrementAndGet();
+                result.completeExceptionally(new DispatcherRequestFailedException("Too many pending requests to " + baseUrl));
+            }
+            return result;
+        }
+
+        /**
+         * Returns the slot of a finished call and starts the next queued call.
+         */
+        private void release() {
+            permits.release();
+            drain();
+        }
+
+        /**
+         * Starts queued calls as long as slots are free.
+         */
+        private void drain() {
+            while (!pending.isEmpty() && permits.tryAcquire()) {
+                Runnable task = pending.poll();
+                if (task == null) {
+                    permits.release();
+                    return;
+                }
+                queued.decrementAndGet();
+                task.run();
+            }
+        }
+
+        /**
+         * Returns the number of running calls.
+         *
+         * @return the number of running calls
+         */
+        private int getActive() {
+            return maxConcurrentRequests - permits.availablePermits();
+        }
+    }
+}
@@ -2,11 +2,12 @@ package at.jku.dke.etutor.service.client.bpmn;
 
 import at.jku.dke.etutor.config.ApplicationProperties;
 import at.jku.dke.etutor.service.client.AbstractClient;
+import at.jku.dke.etutor.service.client.DispatcherHttpClient;
 
 public abstract sealed class AbstractBpmnDispatcherClient extends AbstractClient permits
     BpmnSubmissionClient,
     BpmnClient {
-    protected AbstractBpmnDispatcherClient(ApplicationProperties properties){
-        super(properties.getBpmnDispatcher().getUrl());
+    protected AbstractBpmnDispatcherClient(ApplicationProperties properties, DispatcherHttpClient client){
+        super(properties.getBpmnDispatcher().getUrl(), client);
     }
 }
@@ -1,6 +1,7 @@
 package at.jku.dke.etutor.service.client.bpmn;
 
 import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.service.client.DispatcherHttpClient;
 import at.jku.dke.etutor.service.exception.DispatcherRequestFailedException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -11,15 +12,15 @@ import java.net.http.HttpResponse;
 // NOTE: Do not at this client for an best-practice implementation of a client.
 @Service
 public non-sealed class BpmnClient extends AbstractBpmnDispatcherClient {
-    public BpmnClient(ApplicationProperties properties) {
-        super(properties);
+    public BpmnClient(ApplicationProperties properties, DispatcherHttpClient client) {
+        super(properties, client);
     }
 
     public ResponseEntity<String> deleteBpmnExercise(int id) throws DispatcherRequestFailedException {
         String path = "/bpmn/exercise/id/"+id;
         var request = getDeleteRequest(path);
 
-        return sendRequest(request, stringHandler);
+        return sendRequest("deleteBpmnExercise", request, stringHandler);
     }
 
     public ResponseEntity<Integer> createBpmnExercise(String bpmnExercise) throws DispatcherRequestFailedException {
@@ -27,7 +28,7 @@ public non-sealed class BpmnClient extends AbstractBpmnDispatcherClient {
         HttpRequest request = null;
         request = getPostRequestWithBody(path, bpmnExercise).build();
 
-        var response = sendRequest(request, stringHandler);
+        var response = sendRequest("createBpmnExercise", request, stringHandler);
 
         if (response.getBody() == null) throw new DispatcherRequestFailedException("No id returned");
 
@@ -40,6 +41,6 @@ public non-sealed class BpmnClient extends AbstractBpmnDispatcherClient {
 
         HttpRequest request = null;
         request = getPostRequestWithBody(path, exercise).build();
-        return sendRequest(request, HttpResponse.BodyHandlers.discarding());
+        return sendRequest("modifyBpmnExercise", request, HttpResponse.BodyHandlers.discarding());
     }
 }
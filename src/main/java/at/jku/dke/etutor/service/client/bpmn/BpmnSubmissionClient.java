@@ -1,15 +1,18 @@
 package at.jku.dke.etutor.service.client.bpmn;
 
 import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.service.client.DispatcherHttpClient;
 import at.jku.dke.etutor.service.exception.DispatcherRequestFailedException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public non-sealed class BpmnSubmissionClient extends AbstractBpmnDispatcherClient {
-    public BpmnSubmissionClient(ApplicationProperties properties) {
-        super(properties);
+    public BpmnSubmissionClient(ApplicationProperties properties, DispatcherHttpClient client) {
+        super(properties, client);
     }
 
     /**
@@ -22,7 +25,7 @@ public non-sealed class BpmnSubmissionClient extends AbstractBpmnDispatcherClien
             .setHeader(HttpHeaders.ACCEPT_LANGUAGE, language)
             .build();
 
-        return sendRequest(request, stringHandler);
+        return sendRequest("postBpmnSubmission", request, stringHandler);
     }
 
     /**
@@ -33,7 +36,7 @@ public non-sealed class BpmnSubmissionClient extends AbstractBpmnDispatcherClien
     public ResponseEntity<String> getBpmnGrading(String submissionId) throws DispatcherRequestFailedException {
         var request = getGetRequest("/grading/"+submissionId);
 
-        return sendRequest(request, stringHandler);
+        return sendHedgedRequest("getBpmnGrading", request, stringHandler);
     }
 
     /**
@@ -44,6 +47,42 @@ public non-sealed class BpmnSubmissionClient extends AbstractBpmnDispatcherClien
     public ResponseEntity<String> getBpmnSubmission(String submissionUUID) throws DispatcherRequestFailedException {
         var request = getGetRequest("/submission/"+submissionUUID);
 
-        return sendRequest(request, stringHandler);
+        return sendHedgedRequest("getBpmnSubmission", request, stringHandler);
+    }
+
+    /**
+     * Sends the submission to the dispatcher without blocking the calling thread
+     * @param submissionDto the submission
+     * @param language the language of the grading
+     * @return the future of the submission-id
+     */
+    public CompletableFuture<ResponseEntity<String>> postBpmnSubmissionAsync(String submissionDto, String language) {
+        var request = getPostRequestWithBody("/submission", submissionDto)
+            .setHeader(HttpHeaders.ACCEPT_LANGUAGE, language)
+            .build();
+
+        return sendRequestAsync("postBpmnSubmissionAsync", request, stringHandler);
+    }
+
+    /**
+     * Requests a grading from the dispatcher without blocking the calling thread
+     * @param submissionId the submission-id identifying the grading
+     * @return the future of the response from the Bpmn Dispatcher
+     */
+    public CompletableFuture<ResponseEntity<String>> getBpmnGradingAsync(String submissionId) {
+        var request = getGetRequest("/grading/"+submissionId);
+
+        return sendHedgedRequestAsync("getBpmnGradingAsync", request, stringHandler);
+    }
+
+    /**
+     * Sends the submission UUID to the dispatcher without blocking the calling thread
+     * @param submissionUUID the UUID identifying the Bpmn submission
+     * @return the future of the submission
+     */
+    public CompletableFuture<ResponseEntity<String>> getBpmnSubmissionAsync(String submissionUUID) {
+        var request = getGetRequest("/submission/"+submissionUUID);
+
+        return sendHedgedRequestAsync("getBpmnSubmissionAsync", request, stringHandler);
     }
 }
@@ -1,6 +1,7 @@
 package at.jku.dke.etutor.service.client.dke;
 import at.jku.dke.etutor.config.ApplicationProperties;
 import at.jku.dke.etutor.service.client.AbstractClient;
+import at.jku.dke.etutor.service.client.DispatcherHttpClient;
 
 /**
  * Abstract class to interact with the dke-dispatcher
@@ -11,7 +12,7 @@ public abstract sealed class AbstractDispatcherClient extends AbstractClient per
     PmClient,
     SqlClient,
     XQueryClient {
-    protected AbstractDispatcherClient(ApplicationProperties properties){
-        super(properties.getDispatcher().getUrl());
+    protected AbstractDispatcherClient(ApplicationProperties properties, DispatcherHttpClient client){
+        super(properties.getDispatcher().getUrl(), client);
     }
 }
@@ -1,6 +1,7 @@
 package at.jku.dke.etutor.service.client.dke;
 
 import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.service.client.DispatcherHttpClient;
 import at.jku.dke.etutor.objects.dispatcher.dlg.DatalogExerciseDTO;
 import at.jku.dke.etutor.objects.dispatcher.dlg.DatalogTaskGroupDTO;
 import at.jku.dke.etutor.service.exception.DispatcherRequestFailedException;
@@ -21,8 +22,8 @@ import java.net.http.HttpResponse;
  */
 @Service
 public non-sealed class DatalogClient extends AbstractDispatcherClient {
-    public DatalogClient(ApplicationProperties properties) {
-        super(properties);
+    public DatalogClient(ApplicationProperties properties, DispatcherHttpClient client) {
+        super(properties, client);
     }
 
     /**
@@ -38,7 +39,7 @@ public non-sealed class DatalogClient extends AbstractDispatcherClient {
         } catch (JsonProcessingException e) {
             throw new DispatcherRequestFailedException("Could not serialize the task group.");
         }
-        var response = sendRequest(request, stringHandler, 200);
+        var response = sendRequest("createDLGTaskGroup", request, stringHandler, 200);
 
         if(response.getBody() == null)
             throw new DispatcherRequestFailedException("No id has been returned by the dispatcher.");
@@ -54,7 +55,7 @@ public non-sealed class DatalogClient extends AbstractDispatcherClient {
     public void updateDLGTaskGroup(String id, String newFacts) throws DispatcherRequestFailedException {
         String path = "/datalog/taskgroup/"+id;
         var request = getPostRequestWithBody(path, newFacts).build();
-        sendRequest(request, HttpResponse.BodyHandlers.discarding(), 200);
+        sendRequest("updateDLGTaskGroup", request, HttpResponse.BodyHandlers.discarding(), 200);
     }
 
     /**
@@ -65,7 +66,7 @@ public non-sealed class DatalogClient extends AbstractDispatcherClient {
         String path = "/datalog/taskgroup/"+id;
 
         var request = getDeleteRequest(path);
-        sendRequest(request, HttpResponse.BodyHandlers.discarding(), 200);
+        sendRequest("deleteDLGTaskGroup", request, HttpResponse.BodyHandlers.discarding(), 200);
     }
 
     /**
@@ -82,7 +83,7 @@ public non-sealed class DatalogClient extends AbstractDispatcherClient {
         } catch (JsonProcessingException e) {
             throw new DispatcherRequestFailedException("Could not serialize the exercise.");
         }
-        var response = sendRequest(request, stringHandler,200);
+        var response = sendRequest("createDLGExercise", request, stringHandler,200);
 
         if (response.getBody() == null)
             throw new DispatcherRequestFailedException("No id has been returned by the dispatcher.");
@@ -104,7 +105,7 @@ public non-sealed class DatalogClient extends AbstractDispatcherClient {
         } catch (JsonProcessingException e) {
             throw new DispatcherRequestFailedException("Could not serialize the exercise.");
         }
-        sendRequest(request, HttpResponse.BodyHandlers.discarding(), 200);
+        sendRequest("modifyDLGExercise", request, HttpResponse.BodyHandlers.discarding(), 200);
     }
 
     /**
@@ -113,19 +114,19 @@ public non-sealed class DatalogClient extends AbstractDispatcherClient {
      */
     public void deleteDLGExercise(int id) throws DispatcherRequestFailedException {
         var request = getDeleteRequest("/datalog/exercise/" + id);
-        sendRequest(request, HttpResponse.BodyHandlers.discarding(), 200);
+        sendRequest("deleteDLGExercise", request, HttpResponse.BodyHandlers.discarding(), 200);
     }
 
     // methods called by controller return response entities
 
     public ResponseEntity<String> getDLGFacts(int id) throws DispatcherRequestFailedException {
         var request = getGetRequest("/datalog/taskgroup/"+id);
-        return sendRequest(request, stringHandler, 200);
+        return sendRequest("getDLGFacts", request, stringHandler, 200);
     }
 
     public ResponseEntity<Resource> getDLGFactsAsInputStream(int id) throws DispatcherRequestFailedException {
         var request = getGetRequest("/datalog/taskgroup/"+id+"/raw");
-        var response = sendRequest(request, stringHandler, 200);
+        var response = sendRequest("getDLGFactsAsInputStream", request, stringHandler, 200);
         var facts = response.getBody();
 
         if(facts != null && response.getStatusCodeValue() == 200){
@@ -1,23 +1,26 @@
 package at.jku.dke.etutor.service.client.dke;
 import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.service.client.DispatcherHttpClient;
 import at.jku.dke.etutor.service.exception.DispatcherRequestFailedException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
 /**
  * Client for interacting with the submission endpoint of the dispatcher.
  */
 @Service
 public non-sealed class DkeSubmissionClient extends AbstractDispatcherClient {
 
-    public DkeSubmissionClient(ApplicationProperties properties) {
-        super(properties);
+    public DkeSubmissionClient(ApplicationProperties properties, DispatcherHttpClient client) {
+        super(properties, client);
     }
 
     public ResponseEntity<String> getGrading(String submissionId) throws DispatcherRequestFailedException {
         var request = getGetRequest("/grading/"+submissionId);
 
-        return sendRequest(request, stringHandler);
+        return sendHedgedRequest("getGrading", request, stringHandler);
     }
 
     /**
@@ -28,7 +31,7 @@ public non-sealed class DkeSubmissionClient extends AbstractDispatcherClient {
     public ResponseEntity<String> getSubmission(String submissionUUID) throws DispatcherRequestFailedException {
         var request = getGetRequest("/submission/"+submissionUUID);
 
-        return sendRequest(request, stringHandler);
+        return sendHedgedRequest("getSubmission", request, stringHandler);
     }
 
     /**
@@ -41,6 +44,42 @@ public non-sealed class DkeSubmissionClient extends AbstractDispatcherClient {
             .setHeader(HttpHeaders.ACCEPT_LANGUAGE, language)
             .build();
 
-        return sendRequest(request, stringHandler);
+        return sendRequest("postSubmission", request, stringHandler);
+    }
+
+    /**
+     * Requests a grading from the dispatcher without blocking the calling thread
+     * @param submissionId the submission-id identifying the grading
+     * @return the future of the grading
+     */
+    public CompletableFuture<ResponseEntity<String>> getGradingAsync(String submissionId) {
+        var request = getGetRequest("/grading/"+submissionId);
+
+        return sendHedgedRequestAsync("getGradingAsync", request, stringHandler);
+    }
+
+    /**
+     * Sends the submission UUID to the dispatcher without blocking the calling thread
+     * @param submissionUUID the UUID identifying the submission
+     * @return the future of the submission
+     */
+    public CompletableFuture<ResponseEntity<String>> getSubmissionAsync(String submissionUUID) {
+        var request = getGetRequest("/submission/"+submissionUUID);
+
+        return sendHedgedRequestAsync("getSubmissionAsync", request, stringHandler);
+    }
+
+    /**
+     * Sends the submission to the dispatcher without blocking the calling thread
+     * @param submissionDto the submission
+     * @param language the language of the grading
+     * @return the future of the submission-id
+     */
+    public CompletableFuture<ResponseEntity<String>> postSubmissionAsync(String submissionDto, String language) {
+        var request = getPostRequestWithBody("/submission", submissionDto)
+            .setHeader(HttpHeaders.ACCEPT_LANGUAGE, language)
+            .build();
+
+        return sendRequestAsync("postSubmissionAsync", request, stringHandler);
     }
 }
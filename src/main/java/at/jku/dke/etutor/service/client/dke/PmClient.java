@@ -1,6 +1,7 @@
 package at.jku.dke.etutor.service.client.dke;
 
 import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.service.client.DispatcherHttpClient;
 import at.jku.dke.etutor.objects.dispatcher.processmining.PmExerciseConfigDTO;
 import at.jku.dke.etutor.objects.dispatcher.processmining.PmExerciseLogDTO;
 import at.jku.dke.etutor.service.exception.DispatcherRequestFailedException;
@@ -16,8 +17,8 @@ import java.net.http.HttpRequest;
 @Service
 public non-sealed class PmClient extends AbstractDispatcherClient {
 
-    public PmClient(ApplicationProperties properties) {
-        super(properties);
+    public PmClient(ApplicationProperties properties, DispatcherHttpClient client) {
+        super(properties, client);
     }
 
     /**
@@ -36,7 +37,7 @@ public non-sealed class PmClient extends AbstractDispatcherClient {
             throw new DispatcherRequestFailedException("Could not serialize the exercise config");
         }
 
-        var response = sendRequest(request, stringHandler, 200);
+        var response = sendRequest("createPmExerciseConfiguration", request, stringHandler, 200);
         if(response.getBody() == null){
             throw new DispatcherRequestFailedException("No id has returned by the dispatcher");
         }
@@ -58,7 +59,7 @@ public non-sealed class PmClient extends AbstractDispatcherClient {
         }catch (JsonProcessingException e){
             throw new DispatcherRequestFailedException("Could not serialize the exercise config");
         }
-        sendRequest(request, stringHandler, 200);
+        sendRequest("updatePmExerciseConfiguration", request, stringHandler, 200);
     }
 
     /**
@@ -70,7 +71,7 @@ public non-sealed class PmClient extends AbstractDispatcherClient {
         String path = "/pm/configuration/"+id;
         var request = getDeleteRequest(path);
 
-        sendRequest(request, stringHandler, 200);
+        sendRequest("deletePmExerciseConfiguration", request, stringHandler, 200);
     }
 
     /**
@@ -82,7 +83,7 @@ public non-sealed class PmClient extends AbstractDispatcherClient {
     public PmExerciseConfigDTO getPmExerciseConfiguration(int id) throws DispatcherRequestFailedException{
         String path = "/pm/configurations/"+id;
         var request = getGetRequest(path);
-        var response = sendRequest(request,stringHandler, 200);
+        var response = sendRequest("getPmExerciseConfiguration", request,stringHandler, 200);
         PmExerciseConfigDTO exerciseConfigDTO = null;
 
         try{
@@ -101,7 +102,7 @@ public non-sealed class PmClient extends AbstractDispatcherClient {
     public PmExerciseLogDTO fetchLogToExercise(int exerciseId) throws DispatcherRequestFailedException{
         String path = "/pm/log/"+exerciseId;
         var request = getGetRequest(path);
-        var response = sendRequest(request, stringHandler, 200);
+        var response = sendRequest("fetchLogToExercise", request, stringHandler, 200);
 
         try{
             return deserialize(response.getBody(), PmExerciseLogDTO.class);
@@ -120,7 +121,7 @@ public non-sealed class PmClient extends AbstractDispatcherClient {
     public Integer createRandomPmExercise(int configId) throws DispatcherRequestFailedException{
         String path = "/pm/exercise/"+configId;
         var request = getGetRequest(path);
-        var response = sendRequest(request, stringHandler, 200);
+        var response = sendRequest("createRandomPmExercise", request, stringHandler, 200);
 
         if(response.getBody() == null){
             throw new DispatcherRequestFailedException("No id has returned by the dispatcher");
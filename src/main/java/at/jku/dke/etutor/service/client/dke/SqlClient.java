@@ -1,6 +1,7 @@
 package at.jku.dke.etutor.service.client.dke;
 
 import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.service.client.DispatcherHttpClient;
 import at.jku.dke.etutor.objects.dispatcher.sql.SQLExerciseDTO;
 import at.jku.dke.etutor.objects.dispatcher.sql.SQLSchemaInfoDTO;
 import at.jku.dke.etutor.objects.dispatcher.sql.SqlDataDefinitionDTO;
@@ -17,8 +18,8 @@ import java.util.Objects;
  */
 @Service
 public non-sealed class SqlClient extends AbstractDispatcherClient {
-    public SqlClient(ApplicationProperties properties) {
-        super(properties);
+    public SqlClient(ApplicationProperties properties, DispatcherHttpClient client) {
+        super(properties, client);
     }
     /**
      * Sends the DDL-Statements for creating an SQL-schema for an SQL-task-group to the dispatcher
@@ -29,7 +30,7 @@ public non-sealed class SqlClient extends AbstractDispatcherClient {
         HttpRequest request = null;
         try {
             request = getPostRequestWithBody("/sql/schema", serialize(ddl)).build();
-            return deserialize(sendRequest(request, stringHandler, 200).getBody(), SQLSchemaInfoDTO.class);
+            return deserialize(sendRequest("executeDDLForSQL", request, stringHandler, 200).getBody(), SQLSchemaInfoDTO.class);
         } catch (JsonProcessingException e) {
             throw new DispatcherRequestFailedException("Could not serialize the DDL-Statements, or deserialize the returned dto.");
         }
@@ -46,7 +47,7 @@ public non-sealed class SqlClient extends AbstractDispatcherClient {
         HttpRequest request = null;
         try {
             request = getPutRequestWithBody("/sql/exercise", serialize(exerciseDTO));
-            return Integer.parseInt(Objects.requireNonNull(sendRequest(request, stringHandler, 200).getBody()));
+            return Integer.parseInt(Objects.requireNonNull(sendRequest("createSQLExercise", request, stringHandler, 200).getBody()));
         } catch (JsonProcessingException e) {
             throw new DispatcherRequestFailedException("Could not serialize the exercise");
         }
@@ -59,7 +60,7 @@ public non-sealed class SqlClient extends AbstractDispatcherClient {
     public String getSQLSolution(int id) throws DispatcherRequestFailedException {
         var request = getGetRequest("/sql/exercise/"+id+"/solution");
 
-        return sendRequest(request, stringHandler, 200).getBody();
+        return sendRequest("getSQLSolution", request, stringHandler, 200).getBody();
     }
 
     /**
@@ -70,7 +71,7 @@ public non-sealed class SqlClient extends AbstractDispatcherClient {
     public void updateSQLExerciseSolution(int id, String newSolution) throws DispatcherRequestFailedException {
         var request = getPostRequestWithBody("/sql/exercise/"+id+"/solution", newSolution).build();
 
-        sendRequest(request, stringHandler, 200);
+        sendRequest("updateSQLExerciseSolution", request, stringHandler, 200);
     }
 
     /**
@@ -80,7 +81,7 @@ public non-sealed class SqlClient extends AbstractDispatcherClient {
      */
     public void deleteSQLSchema(String schemaName) throws DispatcherRequestFailedException {
         var request = getDeleteRequest("/sql/schema/"+encodeValue(schemaName));
-        sendRequest(request, stringHandler, 200);
+        sendRequest("deleteSQLSchema", request, stringHandler, 200);
     }
 
 
@@ -91,7 +92,7 @@ public non-sealed class SqlClient extends AbstractDispatcherClient {
      */
     public void deleteSQLConnection(String schemaName) throws DispatcherRequestFailedException {
         var request = getDeleteRequest("/sql/schema/"+encodeValue(schemaName)+"/connection");
-        sendRequest(request, stringHandler, 200);
+        sendRequest("deleteSQLConnection", request, stringHandler, 200);
     }
 
     /**
@@ -101,7 +102,7 @@ public non-sealed class SqlClient extends AbstractDispatcherClient {
      */
     public void deleteSQLExercise(int id) throws DispatcherRequestFailedException {
         var request = getDeleteRequest("/sql/exercise/"+id);
-        sendRequest(request, stringHandler, 200);
+        sendRequest("deleteSQLExercise", request, stringHandler, 200);
     }
     // Method called by controller returns response entity
     public ResponseEntity<String> getHTMLTableForSQL(String tableName, int connId, int exerciseId, String taskGroup) throws DispatcherRequestFailedException {
@@ -116,6 +117,6 @@ public non-sealed class SqlClient extends AbstractDispatcherClient {
         }
         var request = getGetRequest(url);
 
-        return sendRequest(request, stringHandler, 200);
+        return sendRequest("getHTMLTableForSQL", request, stringHandler, 200);
     }
 }
@@ -1,6 +1,7 @@
 package at.jku.dke.etutor.service.client.dke;
 
 import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.service.client.DispatcherHttpClient;
 import at.jku.dke.etutor.objects.dispatcher.xq.XMLDefinitionDTO;
 import at.jku.dke.etutor.objects.dispatcher.xq.XQExerciseDTO;
 import at.jku.dke.etutor.service.exception.DispatcherRequestFailedException;
@@ -23,8 +24,8 @@ import java.util.Objects;
 @Service
 public non-sealed class XQueryClient extends AbstractDispatcherClient {
 
-    public XQueryClient(ApplicationProperties properties) {
-        super(properties);
+    public XQueryClient(ApplicationProperties properties, DispatcherHttpClient client) {
+        super(properties, client);
     }
 
     /**
@@ -41,7 +42,7 @@ public non-sealed class XQueryClient extends AbstractDispatcherClient {
         } catch (JsonProcessingException e) {
             throw new DispatcherRequestFailedException(e.getMessage());
         }
-        return sendRequest(request, stringHandler, 200).getBody();
+        return sendRequest("addXMLForXQTaskGroup", request, stringHandler, 200).getBody();
     }
 
     /**
@@ -52,7 +53,7 @@ public non-sealed class XQueryClient extends AbstractDispatcherClient {
     public void deleteXMLofXQTaskGroup(String taskGroup) throws DispatcherRequestFailedException {
         String path = "/xquery/xml/taskGroup/"+encodeValue(taskGroup);
         var request = getDeleteRequest(path);
-        sendRequest(request, stringHandler, 200);
+        sendRequest("deleteXMLofXQTaskGroup", request, stringHandler, 200);
     }
 
     /**
@@ -67,7 +68,7 @@ public non-sealed class XQueryClient extends AbstractDispatcherClient {
         ResponseEntity<String> response = null;
         try {
             request = getPostRequestWithBody(path, serialize(exercise));
-            response = sendRequest(request.build(), stringHandler, 200);
+            response = sendRequest("createXQExercise", request.build(), stringHandler, 200);
             return Integer.parseInt(Objects.requireNonNull(response.getBody()));
         } catch (RuntimeException | IOException e) {
             throw new DispatcherRequestFailedException(e.getMessage());
@@ -86,7 +87,7 @@ public non-sealed class XQueryClient extends AbstractDispatcherClient {
         } catch (JsonProcessingException e) {
             throw new DispatcherRequestFailedException(e.getMessage());
         }
-        sendRequest(request, stringHandler, 200);
+        sendRequest("updateXQExercise", request, stringHandler, 200);
     }
 
     /**
@@ -101,7 +102,7 @@ public non-sealed class XQueryClient extends AbstractDispatcherClient {
     public ResponseEntity<String> getXQExerciseInfo(int id) throws DispatcherRequestFailedException {
         var path = "/xquery/exercise/solution/id/"+id;
         var request = getGetRequest(path);
-        return sendRequest(request, stringHandler, 200);
+        return sendRequest("getXQExerciseInfo", request, stringHandler, 200);
     }
 
     /**
@@ -113,14 +114,14 @@ public non-sealed class XQueryClient extends AbstractDispatcherClient {
         String path = "/xquery/exercise/id/"+id;
         var request = getDeleteRequest(path);
 
-        sendRequest(request, stringHandler, 200);
+        sendRequest("deleteXQExercise", request, stringHandler, 200);
     }
 
     public ResponseEntity<String> getXMLForXQByFileId(int id) throws DispatcherRequestFailedException {
         String path = "/xquery/xml/fileid/"+id;
         var request = getGetRequest(path);
 
-        return sendRequest(request, stringHandler, 200);
+        return sendRequest("getXMLForXQByFileId", request, stringHandler, 200);
     }
 
     public ResponseEntity<Resource> getXMLForXQByFileIdAsInputStream(int id) throws DispatcherRequestFailedException {
@@ -0,0 +1,13 @@
+package at.jku.dke.etutor.service.dto.student;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+
+import java.time.Instant;
+
+/**
+ * DTO class (record) for the status of a calc correction job.
+ * The result of the correction is only set once the job has been completed.
+ */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+public record CalcCorrectionJobDTO(String jobId, String status, Boolean correct, String feedback, Instant submitted, Instant finished) {
+}
@@ -0,0 +1,12 @@
+package at.jku.dke.etutor.service.dto.student;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+
+import java.time.Instant;
+
+/**
+ * DTO class (record) for the status of an exercise sheet PDF rendering job.
+ */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+public record ExerciseSheetPdfJobDTO(String jobId, String status, Long fileId, Instant submitted, Instant finished) {
+}
@@ -0,0 +1,155 @@
+package at.jku.dke.etutor.service.dto.student;
+
+import java.util.Optional;
+
+/**
+ * DTO class for the context of an individual task, i.e. the values of the individual task of a student
+ * and of the task assignment it refers to which are needed to process a submission.
+ * All values except the diagnose level weighting may be missing.
+ *
+ * @author fne
+ */
+public final class IndividualTaskContext {
+    private final String taskAssignmentId;
+    private final Integer maxPoints;
+    private final String startTime;
+    private final String endTime;
+    private final int diagnoseLevelWeighting;
+    private final Integer taskIdForDispatcher;
+    private final Integer highestDiagnoseLevel;
+    private final Integer individualTaskIdForDispatcher;
+    private final Integer calcInstructionFileId;
+    private final Integer calcSolutionFileId;
+    private final Integer writerInstructionFileId;
+
+    /**
+     * Constructor.
+     *
+     * @param taskAssignmentId              the URL of the task assignment the individual task refers to, may be null
+     * @param maxPoints                     the max points of the task assignment, may be null
+     * @param startTime                     the start time of the task assignment, may be null
+     * @param endTime                       the end time of the task assignment, may be null
+     * @param diagnoseLevelWeighting        the weighting of the diagnose level, {@code 0} if not set
+     * @param taskIdForDispatcher           the dispatcher id of the task assignment, may be null
+     * @param highestDiagnoseLevel          the highest diagnose level which has been chosen by the student, may be null
+     * @param individualTaskIdForDispatcher the dispatcher id of the exercise which has been assigned to the student (PM tasks), may be null
+     * @param calcInstructionFileId         the file id of the individual calc instruction, may be null
+     * @param calcSolutionFileId            the file id of the individual calc solution, may be null
+     * @param writerInstructionFileId       the file id of the individual writer instruction, may be null
+     */
+    public IndividualTaskContext(String taskAssignmentId, Integer maxPoints, String startTime, String endTime,
+                                 int diagnoseLevelWeighting, Integer taskIdForDispatcher, Integer highestDiagnoseLevel,
+                                 Integer individualTaskIdForDispatcher, Integer calcInstructionFileId,
+                                 Integer calcSolutionFileId, Integer writerInstructionFileId) {
+        this.taskAssignmentId = taskAssignmentId;
+        this.maxPoints = maxPoints;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.diagnoseLevelWeighting = diagnoseLevelWeighting;
+        this.taskIdForDispatcher = taskIdForDispatcher;
+        this.highestDiagnoseLevel = highestDiagnoseLevel;
+        this.individualTaskIdForDispatcher = individualTaskIdForDispatcher;
+        this.calcInstructionFileId = calcInstructionFileId;
+        this.calcSolutionFileId = calcSolutionFileId;
+        this.writerInstructionFileId = writerInstructionFileId;
+    }
+
+    /**
+     * Returns the URL of the task assignment the individual task refers to.
+     *
+     * @return the task assignment URL
+     */
+    public Optional<String> getTaskAssignmentId() {
+        return Optional.ofNullable(taskAssignmentId);
+    }
+
+    /**
+     * Returns the max points of the task assignment.
+     *
+     * @return the max points
+     */
+    public Optional<Integer> getMaxPoints() {
+        return Optional.ofNullable(maxPoints);
+    }
+
+    /**
+     * Returns the start time of the task assignment.
+     *
+     * @return the start time
+     */
+    public Optional<String> getStartTime() {
+        return Optional.ofNullable(startTime);
+    }
+
+    /**
+     * Returns the end time of the task assignment.
+     *
+     * @return the end time
+     */
+    public Optional<String> getEndTime() {
+        return Optional.ofNullable(endTime);
+    }
+
+    /**
+     * Returns the weighting of the diagnose level.
+     *
+     * @return the weighting, {@code 0} if not set
+     */
+    public int getDiagnoseLevelWeighting() {
+        return diagnoseLevelWeighting;
+    }
+
+    /**
+     * Returns the dispatcher id of the task assignment.
+     *
+     * @return the dispatcher id
+     */
+    public Optional<Integer> getTaskIdForDispatcher() {
+        return Optional.ofNullable(taskIdForDispatcher);
+    }
+
+    /**
+     * Returns the highest diagnose level which has been chosen by the student.
+     *
+     * @return the diagnose level
+     */
+    public Optional<Integer> getHighestDiagnoseLevel() {
+        return Optional.ofNullable(highestDiagnoseLevel);
+    }
+
+    /**
+     * Returns the dispatcher id of the exercise which has been assigned to the student (PM tasks).
+     *
+     * @return the dispatcher id
+     */
+    public Optional<Integer> getIndividualTaskIdForDispatcher() {
+        return Optional.ofNullable(individualTaskIdForDispatcher);
+    }
+
+    /**
+     * Returns the file id of the individual calc instruction.
+     *
+     * @return the file id
+     */
+    public Optional<Integer> getCalcInstructionFileId() {
+        return Optional.ofNullable(calcInstructionFileId);
+    }
+
+    /**
+     * Returns the file id of the individual calc solution.
+     *
+     * @return the file id
+     */
+    public Optional<Integer> getCalcSolutionFileId() {
+        return Optional.ofNullable(calcSolutionFileId);
+    }
+
+    /**
+     * Returns the file id of the individual writer instruction.
+     *
+     * @return the file id
+     */
+    public Optional<Integer> getWriterInstructionFileId() {
+        return Optional.ofNullable(writerInstructionFileId);
+    }
+}
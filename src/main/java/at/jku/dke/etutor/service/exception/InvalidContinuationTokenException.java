@@ -0,0 +1,14 @@
+package at.jku.dke.etutor.service.exception;
+
+import java.io.Serial;
+
+/**
+ * Validation exception which is thrown when a continuation token
+ * of a paged list is invalid.
+ *
+ * @author fne
+ */
+public class InvalidContinuationTokenException extends Exception {
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
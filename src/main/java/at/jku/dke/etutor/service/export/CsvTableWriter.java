@@ -0,0 +1,75 @@
+package at.jku.dke.etutor.service.export;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link TableWriter} which writes csv. Numbers are written with {@link Double#toString(double)},
+ * empty cells as empty strings.
+ *
+ * @author fne
+ */
+public class CsvTableWriter implements TableWriter {
+
+    private final Writer writer;
+    private final CSVPrinter csvPrinter;
+
+    /**
+     * Constructor.
+     *
+     * @param writer the writer
+     * @throws IOException if the csv printer could not be created
+     */
+    public CsvTableWriter(Writer writer) throws IOException {
+        this.writer = writer;
+        this.csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT);
+    }
+
+    /**
+     * Writes the header row.
+     *
+     * @param columns the column names
+     * @throws IOException if the row could not be written
+     */
+    @Override
+    public void writeHeader(List<String> columns) throws IOException {
+        csvPrinter.printRecord(columns);
+    }
+
+    /**
+     * Writes a row.
+     *
+     * @param values the values of the row
+     * @throws IOException if the row could not be written
+     */
+    @Override
+    public void writeRow(List<?> values) throws IOException {
+        List<String> printableRecord = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (value == null) {
+                printableRecord.add("");
+            } else if (value instanceof Number number) {
+                printableRecord.add(Double.toString(number.doubleValue()));
+            } else {
+                printableRecord.add(value.toString());
+            }
+        }
+        csvPrinter.printRecord(printableRecord);
+    }
+
+    /**
+     * Flushes the csv to the underlying writer.
+     *
+     * @throws IOException if the csv could not be flushed
+     */
+    @Override
+    public void close() throws IOException {
+        csvPrinter.flush();
+        writer.flush();
+    }
+}
@@ -0,0 +1,69 @@
+package at.jku.dke.etutor.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The formats of tabular exports.
+ *
+ * @author fne
+ */
+public enum ExportFormat {
+    /**
+     * Comma separated values (UTF-8).
+     */
+    CSV("text/csv", "csv"),
+    /**
+     * Excel workbook.
+     */
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    /**
+     * Constructor.
+     *
+     * @param contentType   the content type
+     * @param fileExtension the file extension
+     */
+    ExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    /**
+     * Returns the content type of the format.
+     *
+     * @return the content type
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Returns the file extension of the format.
+     *
+     * @return the file extension without dot
+     */
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Creates a table writer, which writes to the given output stream.
+     *
+     * @param outputStream the output stream
+     * @param title        the title of the table, which is used as worksheet name
+     * @return the table writer
+     * @throws IOException if the writer could not be created
+     */
+    public TableWriter createWriter(OutputStream outputStream, String title) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvTableWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            case XLSX -> new XlsxTableWriter(outputStream, title);
+        };
+    }
+}
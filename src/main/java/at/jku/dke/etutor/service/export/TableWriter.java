@@ -0,0 +1,41 @@
+package at.jku.dke.etutor.service.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writer for tabular exports (e.g. points overviews and gradebooks), which are written row by row,
+ * so that the rows do not have to be kept in memory.
+ * <p>
+ * The values of a row are either {@link Number}s, which are written as numeric values,
+ * {@code null} for empty cells or any other object, which is written as text.
+ *
+ * @author fne
+ */
+public interface TableWriter extends Closeable {
+
+    /**
+     * Writes the header row.
+     *
+     * @param columns the column names
+     * @throws IOException if the row could not be written
+     */
+    void writeHeader(List<String> columns) throws IOException;
+
+    /**
+     * Writes a row.
+     *
+     * @param values the values of the row
+     * @throws IOException if the row could not be written
+     */
+    void writeRow(List<?> values) throws IOException;
+
+    /**
+     * Completes the table and flushes it to the underlying stream. The underlying stream is not closed.
+     *
+     * @throws IOException if the table could not be written
+     */
+    @Override
+    void close() throws IOException;
+}
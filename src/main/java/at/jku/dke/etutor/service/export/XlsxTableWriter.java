@@ -0,0 +1,102 @@
+package at.jku.dke.etutor.service.export;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * {@link TableWriter} which writes an Excel workbook with POI's streaming {@link SXSSFWorkbook}.
+ * Only the last {@link #ROW_ACCESS_WINDOW} rows are kept in memory, older rows are flushed
+ * to a compressed temporary file, which is copied to the output stream when the writer is closed.
+ *
+ * @author fne
+ */
+public class XlsxTableWriter implements TableWriter {
+
+    /**
+     * The number of rows which are kept in memory.
+     */
+    public static final int ROW_ACCESS_WINDOW = 100;
+
+    private final OutputStream outputStream;
+    private final SXSSFWorkbook workbook;
+    private final SXSSFSheet sheet;
+    private final CellStyle headerStyle;
+    private int rowNo;
+
+    /**
+     * Constructor.
+     *
+     * @param outputStream the output stream
+     * @param sheetName    the name of the worksheet
+     */
+    public XlsxTableWriter(OutputStream outputStream, String sheetName) {
+        this.outputStream = outputStream;
+
+        workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        sheet = workbook.createSheet(sheetName);
+
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerStyle = workbook.createCellStyle();
+        headerStyle.setFont(headerFont);
+    }
+
+    /**
+     * Writes the header row, which is frozen in the worksheet.
+     *
+     * @param columns the column names
+     */
+    @Override
+    public void writeHeader(List<String> columns) {
+        Row row = sheet.createRow(rowNo++);
+        for (int i = 0; i < columns.size(); i++) {
+            Cell cell = row.createCell(i);
+            cell.setCellValue(columns.get(i));
+            cell.setCellStyle(headerStyle);
+        }
+        sheet.createFreezePane(0, rowNo);
+    }
+
+    /**
+     * Writes a row.
+     *
+     * @param values the values of the row
+     */
+    @Override
+    public void writeRow(List<?> values) {
+        Row row = sheet.createRow(rowNo++);
+        for (int i = 0; i < values.size(); i++) {
+            Object value = values.get(i);
+            if (value instanceof Number number) {
+                row.createCell(i).setCellValue(number.doubleValue());
+            } else if (value != null) {
+                row.createCell(i).setCellValue(value.toString());
+            }
+        }
+    }
+
+    /**
+     * Writes the workbook to the output stream and deletes the temporary files.
+     *
+     * @throws IOException if the workbook could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            workbook.write(outputStream);
+            outputStream.flush();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package at.jku.dke.etutor.service.pagination;
+
+import at.jku.dke.etutor.service.exception.InvalidContinuationTokenException;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.RDFNode;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Sort key of a SPARQL list query, which is paged by continuation tokens instead of offsets.
+ * <p>
+ * The rows are ordered ascending by the key expressions, the last expression must be unique.
+ * A continuation token contains the key values of the last row of a page; the next page is
+ * selected by a filter on the keys, so that the server does not have to sort and skip all
+ * preceding rows.
+ *
+ * @author fne
+ */
+public final class Keyset {
+
+    private final List<Key> keys;
+
+    /**
+     * Constructor.
+     *
+     * @param keys the sort keys, the last one must be unique
+     */
+    public Keyset(Key... keys) {
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("At least one key is required");
+        }
+        this.keys = List.of(keys);
+    }
+
+    /**
+     * Decodes a continuation token of this key set.
+     *
+     * @param continuationToken the continuation token, may be null for the first page
+     * @return the key values of the last row of the previous page, or {@code null} for the first page
+     * @throws InvalidContinuationTokenException if the token is not a token of this key set
+     */
+    public List<String> decode(String continuationToken) throws InvalidContinuationTokenException {
+        if (continuationToken == null) {
+            return null;
+        }
+
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(continuationToken)))) {
+            List<String> values = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                values.add(input.readUTF());
+            }
+            if (input.available() > 0) {
+                throw new InvalidContinuationTokenException();
+            }
+            return values;
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidContinuationTokenException();
+        }
+    }
+
+    /**
+     * Appends the filter which selects the rows after the given key values. The filter has to
+     * be appended to the group pattern which binds the variables of the keys.
+     *
+     * @param qry    the query
+     * @param values the decoded key values, may be null for the first page
+     */
+    public void appendFilter(ParameterizedSparqlString qry, List<String> values) {
+        if (values == null) {
+            return;
+        }
+
+        // (k1 > v1 || (k1 = v1 && (k2 > v2 || (k2 = v2 && k3 > v3))))
+        qry.append("FILTER(");
+        for (int i = 0; i < keys.size(); i++) {
+            Key key = keys.get(i);
+            boolean last = i == keys.size() - 1;
+
+            if (!last) {
+                qry.append("(");
+            }
+            qry.append(key.expression());
+            qry.append(" > ");
+            appendValue(qry, key, values.get(i));
+            if (!last) {
+                qry.append(" || (");
+                qry.append(key.expression());
+                qry.append(" = ");
+                appendValue(qry, key, values.get(i));
+                qry.append(" && ");
+            }
+        }
+        qry.append(")".repeat(2 * (keys.size() - 1)));
+        qry.append(")\n");
+    }
+
+    /**
+     * Appends the order by clause of the keys.
+     *
+     * @param qry the query
+     */
+    public void appendOrderBy(ParameterizedSparqlString qry) {
+        qry.append("ORDER BY");
+        for (Key key : keys) {
+            qry.append(" (");
+            qry.append(key.expression());
+            qry.append(")");
+        }
+        qry.append("\n");
+    }
+
+    /**
+     * Appends the limit of a page, which includes one more row to detect whether there is a next page.
+     *
+     * @param qry  the query
+     * @param size the page size
+     */
+    public void appendLimit(ParameterizedSparqlString qry, int size) {
+        qry.append("LIMIT ");
+        qry.append(size + 1);
+        qry.append("\n");
+    }
+
+    /**
+     * Reads a page from the result of a query with the filter, order and limit of this key set.
+     *
+     * @param set           the result set
+     * @param size          the page size
+     * @param mapper        maps a row to an element
+     * @param totalElements the total number of elements, may be null if they have not been counted
+     * @param <T>           the element type
+     * @return the page
+     */
+    public <T> KeysetSlice<T> read(ResultSet set, int size, Function<QuerySolution, T> mapper, Long totalElements) {
+        List<T> content = new ArrayList<>();
+        QuerySolution last = null;
+
+        while (content.size() < size && set.hasNext()) {
+            last = set.nextSolution();
+            content.add(mapper.apply(last));
+        }
+        String continuationToken = last != null && set.hasNext() ? encode(last) : null;
+        return new KeysetSlice<>(content, continuationToken, totalElements);
+    }
+
+    /**
+     * Encodes the key values of the given row.
+     *
+     * @param solution the row
+     * @return the continuation token
+     */
+    private String encode(QuerySolution solution) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            for (Key key : keys) {
+                RDFNode node = solution.get(key.variable());
+                output.writeUTF(node.isLiteral() ? node.asLiteral().getLexicalForm() : node.toString());
+            }
+        } catch (IOException e) {
+            // Written in memory
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Appends a key value as literal.
+     *
+     * @param qry   the query
+     * @param key   the key
+     * @param value the value
+     */
+    private static void appendValue(ParameterizedSparqlString qry, Key key, String value) {
+        if (key.datatype() == null) {
+            qry.appendLiteral(value);
+        } else {
+            qry.appendLiteral(value, key.datatype());
+        }
+    }
+
+    /**
+     * Sort key.
+     *
+     * @param expression the expression in the where clause, e.g. {@code LCASE(STR(?name))}
+     * @param variable   the projected variable which contains the value of the expression
+     * @param datatype   the datatype of the values, null for strings
+     */
+    public record Key(String expression, String variable, XSDDatatype datatype) {
+
+        /**
+         * Creates a key with string values.
+         *
+         * @param expression the expression in the where clause
+         * @param variable   the projected variable which contains the value of the expression
+         * @return the key
+         */
+        public static Key of(String expression, String variable) {
+            return new Key(expression, variable, null);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package at.jku.dke.etutor.service.pagination;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Page of a list which is paged by continuation tokens.
+ *
+ * @param <T> the element type
+ * @author fne
+ */
+public final class KeysetSlice<T> {
+
+    private final List<T> content;
+    private final String continuationToken;
+    private final Long totalElements;
+
+    /**
+     * Constructor.
+     *
+     * @param content           the elements of the page
+     * @param continuationToken the token of the next page, null if this is the last page
+     * @param totalElements     the total number of elements, null if they have not been counted
+     */
+    public KeysetSlice(List<T> content, String continuationToken, Long totalElements) {
+        this.content = List.copyOf(content);
+        this.continuationToken = continuationToken;
+        this.totalElements = totalElements;
+    }
+
+    /**
+     * Returns the elements of the page.
+     *
+     * @return the elements
+     */
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * Returns the token of the next page.
+     *
+     * @return the token, or an empty optional if this is the last page
+     */
+    public Optional<String> getContinuationToken() {
+        return Optional.ofNullable(continuationToken);
+    }
+
+    /**
+     * Returns whether there is a next page.
+     *
+     * @return {@code true} if there is a next page, otherwise {@code false}
+     */
+    public boolean hasNext() {
+        return continuationToken != null;
+    }
+
+    /**
+     * Returns the total number of elements, which is only counted for the first page.
+     *
+     * @return the total number of elements, or an empty optional if they have not been counted
+     */
+    public Optional<Long> getTotalElements() {
+        return Optional.ofNullable(totalElements);
+    }
+}
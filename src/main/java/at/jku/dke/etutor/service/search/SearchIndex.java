@@ -0,0 +1,817 @@
+package at.jku.dke.etutor.service.search;
+
+import at.jku.dke.etutor.helper.RDFConnectionFactory;
+import at.jku.dke.etutor.service.AbstractSPARQLEndpointService;
+import at.jku.dke.etutor.service.dto.TaskDisplayDTO;
+import at.jku.dke.etutor.service.dto.taskassignment.LearningGoalDisplayDTO;
+import at.jku.dke.etutor.service.dto.taskassignment.TaskGroupDisplayDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdfconnection.RDFConnection;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * In-memory search index of the task assignments, task groups and learning goals.
+ * <p>
+ * The names are indexed as words, prefixes and n-grams (see {@link SearchTextAnalyzer}), so that substring
+ * queries are answered by a single index lookup which also applies the visibility of private tasks and goals.
+ * Hits are ranked by whether a query word matches a whole word, the prefix of a word or only a substring,
+ * and then ordered by name. A query which contains no words, e.g. only punctuation, matches nothing.
+ * The index is built from the RDF graph on the first search, kept in sync by the write paths of the SPARQL
+ * endpoint services and rebuilt once it is older than {@link #MAX_INDEX_AGE}, which picks up changes that
+ * bypassed the services. A replaced index is closed once the last search which uses it has finished.
+ *
+ * @author fne
+ */
+@Component
+public class SearchIndex extends AbstractSPARQLEndpointService implements MeterBinder {
+
+    private static final String QRY_SELECT_TASKS = """
+        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+
+        SELECT ?task ?header ?creator ?privateTask ?taskGroup ?taskGroupName
+        WHERE {
+          ?task a etutor:TaskAssignment.
+          ?task etutor:hasTaskHeader ?header.
+          ?task etutor:hasInternalTaskCreator ?creator.
+          ?task etutor:isPrivateTask ?privateTask.
+          OPTIONAL {
+            ?taskGroup etutor:hasTask ?task.
+            ?taskGroup etutor:hasTaskGroupName ?taskGroupName.
+          }
+          %s
+        }
+        """;
+
+    private static final String QRY_SELECT_TASK_GROUPS = """
+        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+
+        SELECT ?taskGroup ?taskGroupName
+        WHERE {
+          ?taskGroup a etutor:TaskGroup.
+          ?taskGroup etutor:hasTaskGroupName ?taskGroupName.
+          %s
+        }
+        """;
+
+    private static final String QRY_SELECT_GOALS = """
+        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+        PREFIX rdfs:   <http://www.w3.org/2000/01/rdf-schema#>
+
+        SELECT ?goal ?goalName ?owner ?privateGoal
+        WHERE {
+          ?goal a etutor:Goal.
+          ?goal rdfs:label ?goalName.
+          ?goal etutor:hasOwner ?owner.
+          ?goal etutor:isPrivate ?privateGoal.
+          %s
+        }
+        """;
+
+    private static final Duration MAX_INDEX_AGE = Duration.ofHours(1);
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_KIND = "kind";
+    private static final String FIELD_NAME = "name";
+    private static final String FIELD_NAME_WORDS = "name.words";
+    private static final String FIELD_NAME_PREFIXES = "name.prefixes";
+    private static final String FIELD_NAME_INFIXES = "name.infixes";
+    private static final String FIELD_NAME_SORT = "name.sort";
+    private static final String FIELD_OWNER = "owner";
+    private static final String FIELD_PRIVATE = "private";
+    private static final String FIELD_GROUP = "group";
+    private static final String FIELD_GROUP_INFIXES = "group.infixes";
+
+    private static final Sort RELEVANCE = new Sort(SortField.FIELD_SCORE, new SortField(FIELD_NAME_SORT, SortField.Type.STRING));
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndex.class);
+
+    private final SearchTextAnalyzer wordAnalyzer = new SearchTextAnalyzer(SearchTextAnalyzer.Mode.WORDS);
+    private final Analyzer analyzer;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile IndexState state;
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * Constructor.
+     *
+     * @param rdfConnectionFactory the injected rdf connection factory
+     */
+    public SearchIndex(RDFConnectionFactory rdfConnectionFactory) {
+        super(rdfConnectionFactory);
+
+        SearchTextAnalyzer infixAnalyzer = new SearchTextAnalyzer(SearchTextAnalyzer.Mode.INFIXES);
+        analyzer = new PerFieldAnalyzerWrapper(wordAnalyzer, Map.of(
+            FIELD_NAME_PREFIXES, new SearchTextAnalyzer(SearchTextAnalyzer.Mode.PREFIXES),
+            FIELD_NAME_INFIXES, infixAnalyzer,
+            FIELD_GROUP_INFIXES, infixAnalyzer
+        ));
+    }
+
+    /**
+     * Binds the index size and the search timers to the given registry.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        meterRegistry = registry;
+        Gauge.builder("etutor.search.documents", this, index -> {
+                IndexState current = index.state;
+                if (current == null || !current.retain()) {
+                    return 0;
+                }
+                try {
+                    return current.writer.getDocStats().numDocs;
+                } finally {
+                    current.release();
+                }
+            })
+            .description("Number of documents in the search index")
+            .register(registry);
+    }
+
+    //region Search
+
+    /**
+     * Searches the task assignments which are visible for the given user.
+     *
+     * @param headerQuery    the query of the task header, may be blank
+     * @param taskGroupQuery the query of the task group name, may be blank
+     * @param user           the currently logged-in user
+     * @param pageable       the pageable object
+     * @return {@link Slice} containing the tasks, ordered by relevance and header
+     */
+    public Slice<TaskDisplayDTO> searchTasks(String headerQuery, String taskGroupQuery, String user, Pageable pageable) {
+        Objects.requireNonNull(user);
+        Objects.requireNonNull(pageable);
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+            .add(new TermQuery(new Term(FIELD_KIND, Kind.TASK.name())), BooleanClause.Occur.FILTER)
+            .add(visibleFor(user), BooleanClause.Occur.FILTER);
+        addNameClauses(query, headerQuery);
+        List<String> taskGroupWords = wordAnalyzer.words(StringUtils.defaultString(taskGroupQuery));
+        for (String word : taskGroupWords) {
+            query.add(infixQuery(FIELD_GROUP_INFIXES, word), BooleanClause.Occur.FILTER);
+        }
+        addMatchNothingIfWordless(query, taskGroupQuery, taskGroupWords);
+
+        List<TaskDisplayDTO> content = search(Kind.TASK, query.build(), pageable, 1, document -> new TaskDisplayDTO(
+            document.get(FIELD_ID), document.get(FIELD_NAME), document.get(FIELD_OWNER), Boolean.parseBoolean(document.get(FIELD_PRIVATE))));
+
+        boolean hasNext = pageable.isPaged() && content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    /**
+     * Searches the task groups.
+     *
+     * @param nameQuery the query of the task group name, may be blank
+     * @param pageable  the pageable object
+     * @return {@link Page} containing the task groups, ordered by relevance and name
+     */
+    public Page<TaskGroupDisplayDTO> searchTaskGroups(String nameQuery, Pageable pageable) {
+        Objects.requireNonNull(pageable);
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+            .add(new TermQuery(new Term(FIELD_KIND, Kind.TASK_GROUP.name())), BooleanClause.Occur.FILTER);
+        addNameClauses(query, nameQuery);
+
+        return searchPage(Kind.TASK_GROUP, query.build(), pageable,
+            document -> new TaskGroupDisplayDTO(document.get(FIELD_ID), document.get(FIELD_NAME)));
+    }
+
+    /**
+     * Searches the learning goals which are visible for the given user.
+     *
+     * @param nameQuery the query of the goal name, may be blank
+     * @param user      the currently logged-in user
+     * @param pageable  the pageable object
+     * @return {@link Page} containing the goals, ordered by relevance and name
+     */
+    public Page<LearningGoalDisplayDTO> searchLearningGoals(String nameQuery, String user, Pageable pageable) {
+        Objects.requireNonNull(user);
+        Objects.requireNonNull(pageable);
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+            .add(new TermQuery(new Term(FIELD_KIND, Kind.GOAL.name())), BooleanClause.Occur.FILTER)
+            .add(visibleFor(user), BooleanClause.Occur.FILTER);
+        addNameClauses(query, nameQuery);
+
+        return searchPage(Kind.GOAL, query.build(), pageable,
+            document -> new LearningGoalDisplayDTO(document.get(FIELD_ID), document.get(FIELD_NAME)));
+    }
+
+    //endregion
+
+    //region Synchronization
+
+    /**
+     * Updates the index entry of the given task assignment, e.g. because it has been created, modified or removed.
+     *
+     * @param taskId the task assignment URL
+     */
+    public void refreshTask(String taskId) {
+        Objects.requireNonNull(taskId);
+
+        update(indexState -> {
+            List<Document> documents;
+            try (RDFConnection connection = getConnection()) {
+                documents = loadTasks(connection, taskId);
+            }
+            indexState.writer.deleteDocuments(new Term(FIELD_ID, taskId));
+            indexState.writer.addDocuments(documents);
+        });
+    }
+
+    /**
+     * Updates the index entries of the given task group and of its task assignments,
+     * e.g. because the task group has been created or removed.
+     *
+     * @param taskGroupId the task group URL
+     */
+    public void refreshTaskGroup(String taskGroupId) {
+        Objects.requireNonNull(taskGroupId);
+
+        update(indexState -> {
+            Set<String> taskIds = new LinkedHashSet<>();
+            IndexSearcher searcher = indexState.searcherManager.acquire();
+            try {
+                TermQuery groupQuery = new TermQuery(new Term(FIELD_GROUP, taskGroupId));
+                for (ScoreDoc scoreDoc : searcher.search(groupQuery, Math.max(1, searcher.getIndexReader().maxDoc())).scoreDocs) {
+                    taskIds.add(searcher.doc(scoreDoc.doc).get(FIELD_ID));
+                }
+            } finally {
+                indexState.searcherManager.release(searcher);
+            }
+
+            try (RDFConnection connection = getConnection()) {
+                indexState.writer.deleteDocuments(new Term(FIELD_ID, taskGroupId));
+                indexState.writer.addDocuments(loadTaskGroups(connection, taskGroupId));
+
+                for (String taskId : taskIds) {
+                    indexState.writer.deleteDocuments(new Term(FIELD_ID, taskId));
+                    indexState.writer.addDocuments(loadTasks(connection, taskId));
+                }
+            }
+        });
+    }
+
+    /**
+     * Updates the index entries of the learning goals of the given owner, e.g. because
+     * a goal has been created, removed or its visibility has changed.
+     *
+     * @param owner the owner of the learning goals
+     */
+    public void refreshGoalsOf(String owner) {
+        Objects.requireNonNull(owner);
+
+        update(indexState -> {
+            List<Document> documents;
+            try (RDFConnection connection = getConnection()) {
+                documents = loadGoals(connection, owner);
+            }
+            indexState.writer.deleteDocuments(new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(FIELD_KIND, Kind.GOAL.name())), BooleanClause.Occur.FILTER)
+                .add(new TermQuery(new Term(FIELD_OWNER, owner)), BooleanClause.Occur.FILTER)
+                .build());
+            indexState.writer.addDocuments(documents);
+        });
+    }
+
+    /**
+     * Drops the index, which is rebuilt by the next search, e.g. after a bulk import.
+     */
+    public void invalidate() {
+        lock.lock();
+        try {
+            IndexState current = state;
+            state = null;
+            if (current != null) {
+                current.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //endregion
+
+    //region Private helper methods
+
+    /**
+     * Adds the clauses which match the words of the given query to the name and rank the hits:
+     * every word must be a substring of the name, a matching word prefix and a matching whole word score higher.
+     *
+     * @param query     the query builder
+     * @param nameQuery the query of the name, may be blank
+     */
+    private void addNameClauses(BooleanQuery.Builder query, String nameQuery) {
+        List<String> words = wordAnalyzer.words(StringUtils.defaultString(nameQuery));
+        for (String word : words) {
+            query.add(new ConstantScoreQuery(infixQuery(FIELD_NAME_INFIXES, word)), BooleanClause.Occur.MUST);
+            query.add(new BoostQuery(new ConstantScoreQuery(new TermQuery(new Term(FIELD_NAME_PREFIXES, word))), 2), BooleanClause.Occur.SHOULD);
+            query.add(new BoostQuery(new ConstantScoreQuery(new TermQuery(new Term(FIELD_NAME_WORDS, word))), 4), BooleanClause.Occur.SHOULD);
+        }
+        addMatchNothingIfWordless(query, nameQuery, words);
+    }
+
+    /**
+     * Adds a clause which matches nothing if the given query is not blank, but contains no words,
+     * e.g. only punctuation. Without a word, the query would not restrict the hits at all.
+     *
+     * @param query     the query builder
+     * @param textQuery the query text, may be blank
+     * @param words     the words of the query text
+     */
+    private static void addMatchNothingIfWordless(BooleanQuery.Builder query, String textQuery, List<String> words) {
+        if (words.isEmpty() && StringUtils.isNotBlank(textQuery)) {
+            query.add(new MatchNoDocsQuery(), BooleanClause.Occur.FILTER);
+        }
+    }
+
+    /**
+     * Returns the query which matches the documents whose field contains the given word as substring.
+     * Words which are longer than the indexed n-grams are matched by all of their n-grams.
+     *
+     * @param field the n-gram field
+     * @param word  the normalized word
+     * @return the query
+     */
+    private static Query infixQuery(String field, String word) {
+        if (word.length() <= SearchTextAnalyzer.MAX_GRAM) {
+            return new TermQuery(new Term(field, word));
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (int i = 0; i + SearchTextAnalyzer.MAX_GRAM <= word.length(); i++) {
+            query.add(new TermQuery(new Term(field, word.substring(i, i + SearchTextAnalyzer.MAX_GRAM))), BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    /**
+     * Returns the query which matches the public documents and the private documents of the given user.
+     *
+     * @param user the user
+     * @return the query
+     */
+    private static Query visibleFor(String user) {
+        return new BooleanQuery.Builder()
+            .add(new TermQuery(new Term(FIELD_PRIVATE, Boolean.FALSE.toString())), BooleanClause.Occur.SHOULD)
+            .add(new TermQuery(new Term(FIELD_OWNER, user)), BooleanClause.Occur.SHOULD)
+            .build();
+    }
+
+    /**
+     * Searches a page and counts the total hits.
+     *
+     * @param kind     the kind of the searched documents
+     * @param query    the query
+     * @param pageable the pageable object
+     * @param mapper   the mapper of the documents
+     * @param <T>      the type of the results
+     * @return the page
+     */
+    private <T> Page<T> searchPage(Kind kind, Query query, Pageable pageable, Function<Document, T> mapper) {
+        long[] total = new long[1];
+        List<T> content = search(kind, query, pageable, 0, mapper, total);
+        return new PageImpl<>(content, pageable, total[0]);
+    }
+
+    /**
+     * Searches the documents of the requested page.
+     *
+     * @param kind      the kind of the searched documents
+     * @param query     the query
+     * @param pageable  the pageable object
+     * @param lookahead the number of additional documents after the page
+     * @param mapper    the mapper of the documents
+     * @param <T>       the type of the results
+     * @return the results
+     */
+    private <T> List<T> search(Kind kind, Query query, Pageable pageable, int lookahead, Function<Document, T> mapper) {
+        return search(kind, query, pageable, lookahead, mapper, null);
+    }
+
+    /**
+     * Searches the documents of the requested page.
+     *
+     * @param kind      the kind of the searched documents
+     * @param query     the query
+     * @param pageable  the pageable object
+     * @param lookahead the number of additional documents after the page
+     * @param mapper    the mapper of the documents
+     * @param total     array which receives the total number of hits, may be null
+     * @param <T>       the type of the results
+     * @return the results
+     */
+    private <T> List<T> search(Kind kind, Query query, Pageable pageable, int lookahead, Function<Document, T> mapper, long[] total) {
+        long start = System.nanoTime();
+        IndexState indexState = acquireState();
+
+        try {
+            // the index state is retained, so it cannot be closed by a rebuild or an update before the searcher is acquired
+            IndexSearcher searcher = indexState.searcherManager.acquire();
+            try {
+                long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+                long end = pageable.isPaged() ? offset + pageable.getPageSize() + lookahead : Long.MAX_VALUE;
+                int maxDoc = searcher.getIndexReader().maxDoc();
+                List<T> results = new ArrayList<>();
+
+                if (offset < maxDoc) {
+                    TopFieldDocs topDocs = searcher.search(query, (int) Math.max(1, Math.min(end, maxDoc)), RELEVANCE, true);
+                    for (int i = (int) offset; i < topDocs.scoreDocs.length; i++) {
+                        results.add(mapper.apply(searcher.doc(topDocs.scoreDocs[i].doc)));
+                    }
+                }
+                if (total != null) {
+                    total[0] = searcher.count(query);
+                }
+                return results;
+            } finally {
+                indexState.searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            // The index is held in memory
+            throw new UncheckedIOException(e);
+        } finally {
+            indexState.release();
+            MeterRegistry registry = meterRegistry;
+            if (registry != null) {
+                Timer.builder("etutor.search")
+                    .description("Duration of the searches in the search index")
+                    .tag("kind", kind.name().toLowerCase(Locale.ROOT))
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Returns the current index, which is retained and must be released after the search.
+     *
+     * @return the retained index
+     */
+    private IndexState acquireState() {
+        while (true) {
+            IndexState current = currentState();
+            // the index can only be closed in the meantime if it has been replaced, so the next attempt uses its successor
+            if (current.retain()) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Returns the current index, which is built if it does not exist and rebuilt if it is older than
+     * {@link #MAX_INDEX_AGE}. While the index is rebuilt, the searches use the previous index.
+     *
+     * @return the index
+     */
+    private IndexState currentState() {
+        IndexState current = state;
+        if (current != null && System.nanoTime() - current.builtAt < MAX_INDEX_AGE.toNanos()) {
+            return current;
+        }
+
+        if (current == null) {
+            lock.lock();
+        } else if (!lock.tryLock()) {
+            return current;
+        }
+        try {
+            current = state;
+            if (current == null || System.nanoTime() - current.builtAt >= MAX_INDEX_AGE.toNanos()) {
+                IndexState rebuilt = build();
+                state = rebuilt;
+                if (current != null) {
+                    current.close();
+                }
+                current = rebuilt;
+            }
+            return current;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Builds the index from the RDF graph.
+     *
+     * @return the index
+     */
+    private IndexState build() {
+        long start = System.nanoTime();
+        IndexState indexState = new IndexState(analyzer);
+
+        try (RDFConnection connection = getConnection()) {
+            indexState.writer.addDocuments(loadTasks(connection, null));
+            indexState.writer.addDocuments(loadTaskGroups(connection, null));
+            indexState.writer.addDocuments(loadGoals(connection, null));
+            indexState.searcherManager.maybeRefreshBlocking();
+        } catch (IOException | RuntimeException e) {
+            indexState.close();
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new UncheckedIOException((IOException) e);
+        }
+
+        log.info("Built search index with {} documents in {} ms", indexState.writer.getDocStats().numDocs,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return indexState;
+    }
+
+    /**
+     * Applies an update to the index, if it has been built. If the update fails,
+     * the index is dropped and rebuilt by the next search.
+     *
+     * @param update the update
+     */
+    private void update(IndexUpdate update) {
+        lock.lock();
+        try {
+            IndexState current = state;
+            if (current == null) {
+                // The next search builds the index from the current graph
+                return;
+            }
+            try {
+                update.apply(current);
+                current.searcherManager.maybeRefreshBlocking();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not update the search index, it will be rebuilt", e);
+                state = null;
+                current.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Loads the task assignments.
+     *
+     * @param connection the rdf connection
+     * @param taskId     the task assignment URL, or {@code null} to load all task assignments
+     * @return the documents
+     */
+    private List<Document> loadTasks(RDFConnection connection, String taskId) {
+        ParameterizedSparqlString qry = new ParameterizedSparqlString(
+            String.format(QRY_SELECT_TASKS, taskId != null ? "FILTER(?task = ?taskId)" : ""));
+        if (taskId != null) {
+            qry.setIri("?taskId", taskId);
+        }
+
+        Map<String, Document> documents = new LinkedHashMap<>();
+        try (QueryExecution execution = connection.query(qry.asQuery())) {
+            ResultSet set = execution.execSelect();
+
+            while (set.hasNext()) {
+                QuerySolution solution = set.nextSolution();
+                String id = solution.getResource("?task").getURI();
+
+                Document document = documents.computeIfAbsent(id, key -> createDocument(Kind.TASK, key,
+                    solution.getLiteral("?header").getString(),
+                    solution.getLiteral("?creator").getString(),
+                    solution.getLiteral("?privateTask").getBoolean()));
+
+                if (solution.contains("?taskGroup")) {
+                    document.add(new StringField(FIELD_GROUP, solution.getResource("?taskGroup").getURI(), Field.Store.NO));
+                    document.add(new TextField(FIELD_GROUP_INFIXES, solution.getLiteral("?taskGroupName").getString(), Field.Store.NO));
+                }
+            }
+        }
+        return new ArrayList<>(documents.values());
+    }
+
+    /**
+     * Loads the task groups.
+     *
+     * @param connection  the rdf connection
+     * @param taskGroupId the task group URL, or {@code null} to load all task groups
+     * @return the documents
+     */
+    private List<Document> loadTaskGroups(RDFConnection connection, String taskGroupId) {
+        ParameterizedSparqlString qry = new ParameterizedSparqlString(
+            String.format(QRY_SELECT_TASK_GROUPS, taskGroupId != null ? "FILTER(?taskGroup = ?taskGroupId)" : ""));
+        if (taskGroupId != null) {
+            qry.setIri("?taskGroupId", taskGroupId);
+        }
+
+        List<Document> documents = new ArrayList<>();
+        try (QueryExecution execution = connection.query(qry.asQuery())) {
+            ResultSet set = execution.execSelect();
+
+            while (set.hasNext()) {
+                QuerySolution solution = set.nextSolution();
+                documents.add(createDocument(Kind.TASK_GROUP, solution.getResource("?taskGroup").getURI(),
+                    solution.getLiteral("?taskGroupName").getString(), null, false));
+            }
+        }
+        return documents;
+    }
+
+    /**
+     * Loads the learning goals.
+     *
+     * @param connection the rdf connection
+     * @param owner      the owner of the goals, or {@code null} to load all goals
+     * @return the documents
+     */
+    private List<Document> loadGoals(RDFConnection connection, String owner) {
+        ParameterizedSparqlString qry = new ParameterizedSparqlString(
+            String.format(QRY_SELECT_GOALS, owner != null ? "FILTER(?owner = ?goalOwner)" : ""));
+        if (owner != null) {
+            qry.setLiteral("?goalOwner", owner);
+        }
+
+        List<Document> documents = new ArrayList<>();
+        try (QueryExecution execution = connection.query(qry.asQuery())) {
+            ResultSet set = execution.execSelect();
+
+            while (set.hasNext()) {
+                QuerySolution solution = set.nextSolution();
+                documents.add(createDocument(Kind.GOAL, solution.getResource("?goal").getURI(),
+                    solution.getLiteral("?goalName").getString(),
+                    solution.getLiteral("?owner").getString(),
+                    solution.getLiteral("?privateGoal").getBoolean()));
+            }
+        }
+        return documents;
+    }
+
+    /**
+     * Creates a document.
+     *
+     * @param kind        the kind of the document
+     * @param id          the URL
+     * @param name        the name
+     * @param owner       the owner, may be null
+     * @param privateFlag whether the document is only visible for its owner
+     * @return the document
+     */
+    private static Document createDocument(Kind kind, String id, String name, String owner, boolean privateFlag) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, id, Field.Store.YES));
+        document.add(new StringField(FIELD_KIND, kind.name(), Field.Store.NO));
+        document.add(new StoredField(FIELD_NAME, name));
+        document.add(new TextField(FIELD_NAME_WORDS, name, Field.Store.NO));
+        document.add(new TextField(FIELD_NAME_PREFIXES, name, Field.Store.NO));
+        document.add(new TextField(FIELD_NAME_INFIXES, name, Field.Store.NO));
+        document.add(new SortedDocValuesField(FIELD_NAME_SORT, new BytesRef(name.toLowerCase(Locale.ROOT))));
+        if (owner != null) {
+            document.add(new StringField(FIELD_OWNER, owner, Field.Store.YES));
+        }
+        document.add(new StringField(FIELD_PRIVATE, Boolean.toString(privateFlag), Field.Store.YES));
+        return document;
+    }
+
+    //endregion
+
+    /**
+     * Kind of the indexed documents.
+     */
+    private enum Kind {
+        TASK, TASK_GROUP, GOAL
+    }
+
+    /**
+     * Update of the index.
+     */
+    @FunctionalInterface
+    private interface IndexUpdate {
+        /**
+         * Applies the update.
+         *
+         * @param indexState the index
+         * @throws IOException if the index could not be written
+         */
+        void apply(IndexState indexState) throws IOException;
+    }
+
+    /**
+     * Lucene index with its writer and near-real-time searchers.
+     * <p>
+     * The index is reference counted: the reference of the {@code state} field is released by {@link #close()},
+     * every search retains the index until it has finished. The writer and searchers are closed with the last reference.
+     */
+    private static final class IndexState {
+        private final IndexWriter writer;
+        private final SearcherManager searcherManager;
+        private final long builtAt = System.nanoTime();
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        /**
+         * Constructor.
+         *
+         * @param analyzer the analyzer
+         */
+        private IndexState(Analyzer analyzer) {
+            try {
+                writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+                searcherManager = new SearcherManager(writer, null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Retains the index, unless it has already been closed.
+         *
+         * @return true, if the index has been retained
+         */
+        private boolean retain() {
+            while (true) {
+                int count = references.get();
+                if (count == 0) {
+                    return false;
+                }
+                if (references.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Releases a reference and closes the searchers and the writer with the last reference.
+         */
+        private void release() {
+            if (references.decrementAndGet() == 0) {
+                try {
+                    searcherManager.close();
+                    writer.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        /**
+         * Releases the reference of the {@code state} field, after the index has been replaced or dropped.
+         * Running searches keep the index open until they have finished.
+         */
+        private void close() {
+            release();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package at.jku.dke.etutor.service.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
+import org.apache.lucene.analysis.ngram.NGramTokenFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Analyzer of the names in the {@link SearchIndex}.
+ * <p>
+ * The names are split into words, lower-cased and folded to ASCII. The words are indexed as they are,
+ * as their prefixes (edge n-grams) or as all their substrings (n-grams), so that prefix and infix
+ * queries are simple term lookups instead of wildcard scans over the term dictionary.
+ *
+ * @author fne
+ */
+final class SearchTextAnalyzer extends Analyzer {
+
+    /**
+     * Maximum length of the indexed n-grams. Longer query words are split into n-grams of this length.
+     */
+    static final int MAX_GRAM = 20;
+
+    private final Mode mode;
+
+    /**
+     * Constructor.
+     *
+     * @param mode how the words are indexed
+     */
+    SearchTextAnalyzer(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Creates the components of the analyzer.
+     *
+     * @param fieldName the field name
+     * @return the components
+     */
+    @Override
+    protected TokenStreamComponents createComponents(String fieldName) {
+        StandardTokenizer tokenizer = new StandardTokenizer();
+        TokenStream stream = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+
+        stream = switch (mode) {
+            case WORDS -> stream;
+            case PREFIXES -> new EdgeNGramTokenFilter(stream, 1, MAX_GRAM, true);
+            case INFIXES -> new NGramTokenFilter(stream, 1, MAX_GRAM, true);
+        };
+        return new TokenStreamComponents(tokenizer, stream);
+    }
+
+    /**
+     * Returns the normalized words of the given text.
+     *
+     * @param text the text
+     * @return list of words
+     */
+    List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+
+        try (TokenStream stream = tokenStream("", text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                words.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            // Strings are analyzed in memory
+            throw new UncheckedIOException(e);
+        }
+        return words;
+    }
+
+    /**
+     * Mode of the analyzer.
+     */
+    enum Mode {
+        /**
+         * The words themselves.
+         */
+        WORDS,
+        /**
+         * The words and their prefixes.
+         */
+        PREFIXES,
+        /**
+         * The words and all their substrings.
+         */
+        INFIXES
+    }
+}
@@ -1,7 +1,6 @@
 package at.jku.dke.etutor.service.tasktypes.implementation;
 
 import at.jku.dke.etutor.calc.service.CorrectionService;
-import at.jku.dke.etutor.domain.FileEntity;
 import at.jku.dke.etutor.domain.rdf.ETutorVocabulary;
 import at.jku.dke.etutor.repository.FileRepository;
 import at.jku.dke.etutor.service.tasktypes.TaskTypeService;
@@ -14,7 +13,6 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 
 @Service
@@ -29,15 +27,9 @@ public class CalcService implements TaskTypeService {
     public void createTask(NewTaskAssignmentDTO newTaskAssignmentDTO) throws MissingParameterException, DispatcherRequestFailedException, NotAValidTaskGroupException {
         if (!newTaskAssignmentDTO.getTaskAssignmentTypeId().equals(ETutorVocabulary.CalcTask.toString())) return;
 
-        FileEntity calcInstructionFile = fileRepository.findById((long) newTaskAssignmentDTO.getCalcInstructionFileId()).orElse(new FileEntity());
-        FileEntity calcSolutionFile = fileRepository.findById((long) newTaskAssignmentDTO.getCalcSolutionFileId()).orElse(new FileEntity());
-        FileEntity writerInstructionFile = fileRepository.findById((long) newTaskAssignmentDTO.getWriterInstructionFileId()).orElse(new FileEntity());
-        InputStream calcInstructionStream = new ByteArrayInputStream(calcInstructionFile.getContent());
-        InputStream calcSolutionStream = new ByteArrayInputStream(calcSolutionFile.getContent());
-        InputStream writerInstructionStream = new ByteArrayInputStream(writerInstructionFile.getContent());
-        System.out.println();
-
-        try {
+        try (InputStream calcInstructionStream = fileRepository.openContent(newTaskAssignmentDTO.getCalcInstructionFileId());
+             InputStream calcSolutionStream = fileRepository.openContent(newTaskAssignmentDTO.getCalcSolutionFileId());
+             InputStream writerInstructionStream = fileRepository.openContent(newTaskAssignmentDTO.getWriterInstructionFileId())) {
             System.out.println();
             XSSFWorkbook workbookCalcInstruction = new XSSFWorkbook(calcInstructionStream);
             XSSFWorkbook workbookCalcSolution = new XSSFWorkbook(calcSolutionStream);
@@ -0,0 +1,75 @@
+package at.jku.dke.etutor.startup;
+
+import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.helper.RDFConnectionFactory;
+import at.jku.dke.etutor.helper.generator.CourseDataGenerator;
+import at.jku.dke.etutor.helper.generator.CourseDataSink;
+import at.jku.dke.etutor.service.LearningGoalForestCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Listener class which generates synthetic course data after the application is ready,
+ * if the {@code generator} profile is active. The data is configured with the
+ * {@code application.generator} properties and loaded into the configured RDF database
+ * (or written to the configured N-Quads file).
+ *
+ * @author fne
+ */
+@Component
+@Profile(CourseDataGeneratorListener.PROFILE)
+@Order(1)
+public class CourseDataGeneratorListener implements ApplicationListener<ApplicationReadyEvent> {
+
+    /**
+     * The profile which activates the generator.
+     */
+    public static final String PROFILE = "generator";
+
+    private final Logger log = LoggerFactory.getLogger(CourseDataGeneratorListener.class);
+
+    private final ApplicationProperties applicationProperties;
+    private final RDFConnectionFactory rdfConnectionFactory;
+    private final LearningGoalForestCache learningGoalForestCache;
+
+    /**
+     * Constructor.
+     *
+     * @param applicationProperties   the injected application properties
+     * @param rdfConnectionFactory    the injected RDF connection factory
+     * @param learningGoalForestCache the injected learning goal forest cache
+     */
+    public CourseDataGeneratorListener(ApplicationProperties applicationProperties, RDFConnectionFactory rdfConnectionFactory,
+                                       LearningGoalForestCache learningGoalForestCache) {
+        this.applicationProperties = applicationProperties;
+        this.rdfConnectionFactory = rdfConnectionFactory;
+        this.learningGoalForestCache = learningGoalForestCache;
+    }
+
+    /**
+     * See {@link ApplicationListener#onApplicationEvent(ApplicationEvent)}
+     */
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        ApplicationProperties.Generator settings = applicationProperties.getGenerator();
+        log.info("Generating synthetic course data with seed {}", settings.getSeed());
+
+        try (CourseDataSink sink = CourseDataSink.of(settings, rdfConnectionFactory)) {
+            log.info("Generated synthetic course data: {}", new CourseDataGenerator(settings).generate(sink));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            // The goals have been loaded directly into the store
+            learningGoalForestCache.invalidateAll();
+        }
+    }
+}
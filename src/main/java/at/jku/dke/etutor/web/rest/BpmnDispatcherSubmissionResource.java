@@ -1,20 +1,28 @@
 package at.jku.dke.etutor.web.rest;
 
 import at.jku.dke.etutor.security.AuthoritiesConstants;
-import at.jku.dke.etutor.service.exception.DispatcherRequestFailedException;
+import at.jku.dke.etutor.service.BpmnDispatcherSubmissionService;
 import at.jku.dke.etutor.service.client.bpmn.BpmnSubmissionClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
 
 @RestController
 @RequestMapping("/api/bpmn/dispatcher")
 public class BpmnDispatcherSubmissionResource {
 
     private final BpmnSubmissionClient bpmnSubmissionClient;
+    private final BpmnDispatcherSubmissionService bpmnDispatcherSubmissionService;
+    private final Duration timeout;
 
-    public BpmnDispatcherSubmissionResource(BpmnSubmissionClient bpmnSubmissionClient) {
+    public BpmnDispatcherSubmissionResource(BpmnSubmissionClient bpmnSubmissionClient, BpmnDispatcherSubmissionService bpmnDispatcherSubmissionService) {
         this.bpmnSubmissionClient = bpmnSubmissionClient;
+        this.bpmnDispatcherSubmissionService = bpmnDispatcherSubmissionService;
+        // leaves room for waiting in the bulkhead of the dispatcher before the request is sent
+        this.timeout = bpmnSubmissionClient.getRequestTimeout().multipliedBy(2);
     }
 
 
@@ -26,8 +34,8 @@ public class BpmnDispatcherSubmissionResource {
      */
     @GetMapping(value = "/grading/{submissionId}")
     @PreAuthorize("hasAnyAuthority(\"" + AuthoritiesConstants.STUDENT + "\", \"" + AuthoritiesConstants.INSTRUCTOR + "\")")
-    public ResponseEntity<String> getBpmnGrading(@PathVariable String submissionId) throws DispatcherRequestFailedException {
-        return bpmnSubmissionClient.getBpmnGrading(submissionId);
+    public DeferredResult<ResponseEntity<String>> getBpmnGrading(@PathVariable String submissionId) {
+        return DeferredResults.of(bpmnDispatcherSubmissionService.getBpmnGradingResponseAsync(submissionId), timeout);
     }
 
     /**
@@ -38,8 +46,8 @@ public class BpmnDispatcherSubmissionResource {
      */
     @PostMapping(value = "/submission")
     @PreAuthorize("hasAnyAuthority(\"" + AuthoritiesConstants.STUDENT + "\", \"" + AuthoritiesConstants.INSTRUCTOR + "\")")
-    public ResponseEntity<String> postBpmnSubmission(@RequestBody String submissionDto, @RequestHeader("Accept-Language") String language) throws DispatcherRequestFailedException {
-        return bpmnSubmissionClient.postBpmnSubmission(submissionDto, language);
+    public DeferredResult<ResponseEntity<String>> postBpmnSubmission(@RequestBody String submissionDto, @RequestHeader("Accept-Language") String language) {
+        return DeferredResults.of(bpmnSubmissionClient.postBpmnSubmissionAsync(submissionDto, language), timeout);
     }
 
     /**
@@ -50,8 +58,8 @@ public class BpmnDispatcherSubmissionResource {
      */
     @GetMapping(value = "/submission/{submissionUUID}")
     @PreAuthorize("hasAnyAuthority(\"" + AuthoritiesConstants.STUDENT + "\", \"" + AuthoritiesConstants.INSTRUCTOR + "\")")
-    public ResponseEntity<String> getBpmnSubmission(@PathVariable String submissionUUID) throws DispatcherRequestFailedException {
-        return bpmnSubmissionClient.getBpmnSubmission(submissionUUID);
+    public DeferredResult<ResponseEntity<String>> getBpmnSubmission(@PathVariable String submissionUUID) {
+        return DeferredResults.of(bpmnDispatcherSubmissionService.getBpmnSubmissionResponseAsync(submissionUUID), timeout);
     }
 
 }
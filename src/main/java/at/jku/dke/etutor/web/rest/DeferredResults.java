@@ -0,0 +1,46 @@
+package at.jku.dke.etutor.web.rest;
+
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Utility class for returning the results of asynchronous dispatcher requests from REST endpoints,
+ * so that the web worker threads are released while the dispatcher processes a request.
+ *
+ * @author fne
+ */
+final class DeferredResults {
+
+    /**
+     * Private constructor.
+     */
+    private DeferredResults() {
+    }
+
+    /**
+     * Creates a deferred result which is completed by the given future. Failures of the future are
+     * handled like exceptions thrown by the endpoint. If the future is not completed within the given
+     * timeout, the request is answered with service unavailable.
+     *
+     * @param future  the future
+     * @param timeout the timeout
+     * @param <T>     the result type
+     * @return the deferred result
+     */
+    static <T> DeferredResult<T> of(CompletableFuture<T> future, Duration timeout) {
+        DeferredResult<T> result = new DeferredResult<>(timeout.toMillis());
+        future.whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                result.setResult(value);
+            } else if (throwable instanceof CompletionException && throwable.getCause() != null) {
+                result.setErrorResult(throwable.getCause());
+            } else {
+                result.setErrorResult(throwable);
+            }
+        });
+        return result;
+    }
+}
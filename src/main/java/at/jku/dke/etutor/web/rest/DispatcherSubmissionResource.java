@@ -1,26 +1,31 @@
 package at.jku.dke.etutor.web.rest;
 
 import at.jku.dke.etutor.security.AuthoritiesConstants;
-import at.jku.dke.etutor.service.exception.DispatcherRequestFailedException;
-import at.jku.dke.etutor.service.client.dke.DatalogClient;
+import at.jku.dke.etutor.service.DispatcherSubmissionService;
 import at.jku.dke.etutor.service.client.dke.DkeSubmissionClient;
-import at.jku.dke.etutor.service.client.dke.SqlClient;
-import at.jku.dke.etutor.service.client.dke.XQueryClient;
-import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
 
 /**
  * Contains actual REST endpoints that are exposed to the client and proxy requests
  * (submissions, gradings) to dispatcher(s).
+ * The requests are sent asynchronously, so no web worker thread waits for the dispatcher.
  */
 @RestController
 @RequestMapping("/api/dispatcher")
 public class DispatcherSubmissionResource {
     private final DkeSubmissionClient dkeSubmissionClient;
-    public DispatcherSubmissionResource(DkeSubmissionClient dkeSubmissionClient){
+    private final DispatcherSubmissionService dispatcherSubmissionService;
+    private final Duration timeout;
+    public DispatcherSubmissionResource(DkeSubmissionClient dkeSubmissionClient, DispatcherSubmissionService dispatcherSubmissionService){
         this.dkeSubmissionClient = dkeSubmissionClient;
+        this.dispatcherSubmissionService = dispatcherSubmissionService;
+        // leaves room for waiting in the bulkhead of the dispatcher before the request is sent
+        this.timeout = dkeSubmissionClient.getRequestTimeout().multipliedBy(2);
     }
     /**
      * Requests a grading from the dispatcher
@@ -29,8 +34,8 @@ public class DispatcherSubmissionResource {
      */
     @GetMapping(value="/grading/{submissionId}")
     @PreAuthorize("hasAnyAuthority(\"" + AuthoritiesConstants.STUDENT + "\", \"" + AuthoritiesConstants.INSTRUCTOR + "\")")
-    public ResponseEntity<String> getGrading(@PathVariable String submissionId) throws DispatcherRequestFailedException {
-        return dkeSubmissionClient.getGrading(submissionId);
+    public DeferredResult<ResponseEntity<String>> getGrading(@PathVariable String submissionId) {
+        return DeferredResults.of(dispatcherSubmissionService.getGradingResponseAsync(submissionId), timeout);
     }
 
     /**
@@ -40,8 +45,8 @@ public class DispatcherSubmissionResource {
      */
     @PostMapping(value="/submission")
     @PreAuthorize("hasAnyAuthority(\"" + AuthoritiesConstants.STUDENT + "\", \"" + AuthoritiesConstants.INSTRUCTOR + "\")")
-    public ResponseEntity<String> postSubmission(@RequestBody String submissionDto, @RequestHeader("Accept-Language") String language) throws DispatcherRequestFailedException {
-        return dkeSubmissionClient.postSubmission(submissionDto, language);
+    public DeferredResult<ResponseEntity<String>> postSubmission(@RequestBody String submissionDto, @RequestHeader("Accept-Language") String language) {
+        return DeferredResults.of(dkeSubmissionClient.postSubmissionAsync(submissionDto, language), timeout);
     }
 
     /**
@@ -51,7 +56,7 @@ public class DispatcherSubmissionResource {
      */
     @GetMapping(value="/submission/{submissionUUID}")
     @PreAuthorize("hasAnyAuthority(\"" + AuthoritiesConstants.STUDENT + "\", \"" + AuthoritiesConstants.INSTRUCTOR + "\")")
-    public ResponseEntity<String> getSubmission(@PathVariable String submissionUUID) throws DispatcherRequestFailedException {
-        return dkeSubmissionClient.getSubmission(submissionUUID);
+    public DeferredResult<ResponseEntity<String>> getSubmission(@PathVariable String submissionUUID) {
+        return DeferredResults.of(dispatcherSubmissionService.getSubmissionResponseAsync(submissionUUID), timeout);
     }
 }
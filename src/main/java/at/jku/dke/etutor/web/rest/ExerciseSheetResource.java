@@ -6,6 +6,8 @@ import at.jku.dke.etutor.service.ExerciseSheetSPARQLEndpointService;
 import at.jku.dke.etutor.service.dto.exercisesheet.ExerciseSheetDTO;
 import at.jku.dke.etutor.service.dto.exercisesheet.ExerciseSheetDisplayDTO;
 import at.jku.dke.etutor.service.dto.exercisesheet.NewExerciseSheetDTO;
+import at.jku.dke.etutor.service.pagination.KeysetSlice;
+import at.jku.dke.etutor.web.rest.errors.InvalidContinuationTokenException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.text.ParseException;
@@ -124,8 +126,9 @@ public class ExerciseSheetResource {
     /**
      * {@code GET display/paged} : Retrieves the paged exercise sheet displays.
      *
-     * @param name     the optional name filter query parameter
-     * @param pageable the pagination object
+     * @param name              the optional name filter query parameter
+     * @param continuationToken the optional continuation token of the previous page
+     * @param pageable          the pagination object
      * @return {@link ResponseEntity} containing the list of exercise sheet displays of the currently
      * selected page
      */
@@ -133,8 +136,21 @@ public class ExerciseSheetResource {
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.INSTRUCTOR + "\")")
     public ResponseEntity<List<ExerciseSheetDisplayDTO>> getPagedExerciseDisplayList(
         @RequestParam(required = false, defaultValue = "") String name,
+        @RequestParam(required = false) String continuationToken,
         Pageable pageable
     ) {
+        KeysetPagination.rejectSort(pageable);
+
+        if (KeysetPagination.isKeysetRequest(continuationToken, pageable)) {
+            try {
+                KeysetSlice<ExerciseSheetDisplayDTO> slice = exerciseSheetSPARQLEndpointService.getFilteredExerciseSheetDisplayDTOsAsPage(
+                    name, continuationToken, pageable.getPageSize());
+                return new ResponseEntity<>(slice.getContent(), KeysetPagination.generateHeaders(slice, pageable), HttpStatus.OK);
+            } catch (at.jku.dke.etutor.service.exception.InvalidContinuationTokenException e) {
+                throw new InvalidContinuationTokenException();
+            }
+        }
+
         Page<ExerciseSheetDisplayDTO> page = exerciseSheetSPARQLEndpointService.getFilteredExerciseSheetDisplayDTOsAsPage(name, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
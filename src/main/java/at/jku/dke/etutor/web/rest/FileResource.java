@@ -13,7 +13,6 @@ import at.jku.dke.etutor.web.rest.errors.StudentNotExistsException;
 import com.google.common.net.UrlEscapers;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -100,6 +99,8 @@ public class FileResource {
 
     /**
      * REST endpoint for retrieving files.
+     * The content is streamed to the client; requests with a {@code Range} header
+     * are answered with the requested byte ranges.
      *
      * @param id the internal file id
      * @return {@link ResponseEntity} containing the file resource
@@ -111,17 +112,17 @@ public class FileResource {
         try {
             FileEntity entity = uploadFileService.getFile(id);
 
-            ByteArrayResource resource = new ByteArrayResource(entity.getContent());
+            Resource resource = uploadFileService.getFileContent(id);
             HttpHeaders headers = new HttpHeaders();
 
             headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + UrlEscapers.urlFragmentEscaper().escape(entity.getName()).replace(",", "_"));
             headers.add(HttpHeaders.CONTENT_TYPE, entity.getContentType());
             headers.add("X-Filename", entity.getName());
             headers.add("X-Content-Type", entity.getContentType());
+            headers.add(HttpHeaders.ACCEPT_RANGES, "bytes");
 
             return ResponseEntity.ok()
                 .headers(headers)
-                .contentLength(entity.getSize())
                 .contentType(MediaType.APPLICATION_OCTET_STREAM)
                 .body(resource);
         } catch (at.jku.dke.etutor.service.exception.FileNotExistsException e) {
@@ -0,0 +1,75 @@
+package at.jku.dke.etutor.web.rest;
+
+import at.jku.dke.etutor.service.pagination.KeysetSlice;
+import at.jku.dke.etutor.web.rest.errors.UnsupportedSortException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * Utility class for REST endpoints whose lists are paged by continuation tokens.
+ * <p>
+ * The first page and every request with a continuation token are answered with a keyset query. Only the
+ * first page is counted, the following pages are requested with the token of the {@value #CONTINUATION_TOKEN_HEADER}
+ * header. Requests of a page number without token are still answered with an offset query.
+ * <p>
+ * Both queries order the list by fixed keys, which is why sorted requests are rejected.
+ *
+ * @author fne
+ */
+final class KeysetPagination {
+
+    /**
+     * Response header which contains the continuation token of the next page.
+     */
+    static final String CONTINUATION_TOKEN_HEADER = "X-Continuation-Token";
+
+    /**
+     * Private constructor.
+     */
+    private KeysetPagination() {
+    }
+
+    /**
+     * Rejects sorted requests, because the lists are ordered by fixed keys.
+     *
+     * @param pageable the pagination object
+     * @throws UnsupportedSortException if the request is sorted
+     */
+    static void rejectSort(Pageable pageable) {
+        if (pageable.getSort().isSorted()) {
+            throw new UnsupportedSortException();
+        }
+    }
+
+    /**
+     * Returns whether the request is answered with a keyset query.
+     *
+     * @param continuationToken the continuation token request parameter, may be null
+     * @param pageable          the pagination object
+     * @return {@code true} if the request is answered with a keyset query, {@code false} if it is answered with an offset query
+     */
+    static boolean isKeysetRequest(String continuationToken, Pageable pageable) {
+        return continuationToken != null || (pageable.isPaged() && pageable.getPageNumber() == 0);
+    }
+
+    /**
+     * Creates the response headers of a page. The pagination headers are only generated if the
+     * elements have been counted.
+     *
+     * @param slice    the page
+     * @param pageable the pagination object
+     * @return the headers
+     */
+    static HttpHeaders generateHeaders(KeysetSlice<?> slice, Pageable pageable) {
+        HttpHeaders headers = slice.getTotalElements()
+            .map(total -> PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(),
+                new PageImpl<>(slice.getContent(), pageable, total)))
+            .orElseGet(HttpHeaders::new);
+        headers.add("X-Has-Next-Page", String.valueOf(slice.hasNext()));
+        slice.getContinuationToken().ifPresent(token -> headers.add(CONTINUATION_TOKEN_HEADER, token));
+        return headers;
+    }
+}
@@ -5,6 +5,7 @@ import at.jku.dke.etutor.service.InternalModelException;
 import at.jku.dke.etutor.service.SPARQLEndpointService;
 import at.jku.dke.etutor.service.dto.LearningGoalDTO;
 import at.jku.dke.etutor.service.dto.NewLearningGoalDTO;
+import at.jku.dke.etutor.service.dto.taskassignment.LearningGoalDisplayDTO;
 import at.jku.dke.etutor.service.exception.LearningGoalAlreadyExistsException;
 import at.jku.dke.etutor.service.exception.LearningGoalNotExistsException;
 import at.jku.dke.etutor.service.exception.PrivateSuperGoalException;
@@ -13,6 +14,7 @@ import at.jku.dke.etutor.web.rest.errors.LearningGoalNotFoundException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collection;
+import java.util.List;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import net.minidev.json.JSONArray;
@@ -20,10 +22,16 @@ import one.util.streamex.StreamEx;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
 
 /**
  * REST controller for managing learning goals.
@@ -277,4 +285,26 @@ public class LearningGoalResource {
             throw new BadRequestAlertException("An internal error occurred!", "learningGoalManagement", "parsingError");
         }
     }
+
+    /**
+     * {@code GET /learninggoals/displayable/list}
+     *
+     * <p>
+     * Returns a paged list of the learning goals which are visible to the current user and whose name matches the filter.
+     * </p>
+     *
+     * @param filter   the optional name filter (from the query parameters)
+     * @param pageable the pagination object
+     * @return {@link ResponseEntity} with status {@code 200 (OK)} and the list of matching learning goals in body
+     */
+    @GetMapping("/learninggoals/displayable/list")
+    public ResponseEntity<List<LearningGoalDisplayDTO>> getPagedGoals(
+        @RequestParam(required = false, defaultValue = "") String filter,
+        Pageable pageable
+    ) {
+        String currentLogin = SecurityContextHolder.getContext().getAuthentication().getName();
+        Page<LearningGoalDisplayDTO> page = sparqlEndpointService.getFilteredLearningGoalsPaged(filter, currentLogin, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
 }
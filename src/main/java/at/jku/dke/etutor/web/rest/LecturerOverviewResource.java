@@ -6,7 +6,9 @@ import at.jku.dke.etutor.service.CourseInstanceSPARQLEndpointService;
 import at.jku.dke.etutor.service.LecturerOverviewService;
 import at.jku.dke.etutor.service.dto.courseinstance.DisplayableCourseInstanceDTO;
 import at.jku.dke.etutor.service.dto.lectureroverview.StatisticsOverviewModelDTO;
+import at.jku.dke.etutor.service.pagination.KeysetSlice;
 import at.jku.dke.etutor.web.rest.errors.CourseInstanceNotFoundException;
+import at.jku.dke.etutor.web.rest.errors.InvalidContinuationTokenException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
@@ -16,6 +18,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.PaginationUtil;
@@ -50,14 +53,27 @@ public class LecturerOverviewResource {
      * REST endpoint for retrieving a paged course overview of the currently
      * logged-in user.
      *
-     * @param pageable the pagination object
+     * @param continuationToken the optional continuation token of the previous page
+     * @param pageable          the pagination object
      * @return the {@link ResponseEntity} containing the list of paged courses
      */
     @GetMapping("courses")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.INSTRUCTOR + "\")")
-    public ResponseEntity<List<DisplayableCourseInstanceDTO>> getPagedCoursesOfUser(Pageable pageable) {
+    public ResponseEntity<List<DisplayableCourseInstanceDTO>> getPagedCoursesOfUser(@RequestParam(required = false) String continuationToken,
+                                                                                    Pageable pageable) {
+        KeysetPagination.rejectSort(pageable);
         String user = SecurityUtils.getCurrentUserLogin().orElse("");
 
+        if (KeysetPagination.isKeysetRequest(continuationToken, pageable)) {
+            try {
+                KeysetSlice<DisplayableCourseInstanceDTO> slice = courseInstanceSPARQLEndpointService.getDisplayableCourseInstancesForLecturer(
+                    user, continuationToken, pageable.getPageSize());
+                return new ResponseEntity<>(slice.getContent(), KeysetPagination.generateHeaders(slice, pageable), HttpStatus.OK);
+            } catch (at.jku.dke.etutor.service.exception.InvalidContinuationTokenException e) {
+                throw new InvalidContinuationTokenException();
+            }
+        }
+
         Page<DisplayableCourseInstanceDTO> page = courseInstanceSPARQLEndpointService.getDisplayableCourseInstancesForLecturer(user, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
@@ -5,12 +5,11 @@ import at.jku.dke.etutor.service.LecturerSPARQLEndpointService;
 import at.jku.dke.etutor.service.dto.courseinstance.taskassignment.LecturerGradingInfoDTO;
 import at.jku.dke.etutor.service.dto.courseinstance.taskassignment.StudentAssignmentOverviewInfoDTO;
 import at.jku.dke.etutor.service.dto.courseinstance.taskassignment.TaskPointEntryDTO;
+import at.jku.dke.etutor.service.export.ExportFormat;
+import at.jku.dke.etutor.service.export.TableWriter;
+import at.jku.dke.etutor.service.pagination.KeysetSlice;
+import at.jku.dke.etutor.web.rest.errors.InvalidContinuationTokenException;
 import at.jku.dke.etutor.web.rest.vm.GradingInfoVM;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
-import org.apache.commons.io.output.ByteArrayOutputStream;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
@@ -18,13 +17,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.PaginationUtil;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,6 +50,7 @@ public class LecturerResource {
      *
      * @param courseInstanceUUID the course instance uuid from the request path
      * @param exerciseSheetUUID  the exercise sheet uuid from the request path
+     * @param continuationToken  the optional continuation token of the previous page
      * @param pageable           the pagination object
      * @return {@link ResponseEntity} containing the list of student assignment overview information of the currently
      * selected page
@@ -62,8 +60,25 @@ public class LecturerResource {
     public ResponseEntity<List<StudentAssignmentOverviewInfoDTO>> getPagedLecturerOverview(
         @PathVariable String courseInstanceUUID,
         @PathVariable String exerciseSheetUUID,
+        @RequestParam(required = false) String continuationToken,
         Pageable pageable
     ) {
+        KeysetPagination.rejectSort(pageable);
+
+        if (KeysetPagination.isKeysetRequest(continuationToken, pageable)) {
+            try {
+                KeysetSlice<StudentAssignmentOverviewInfoDTO> slice = lecturerSPARQLEndpointService.getPagedLecturerOverview(
+                    courseInstanceUUID,
+                    exerciseSheetUUID,
+                    continuationToken,
+                    pageable.getPageSize()
+                );
+                return new ResponseEntity<>(slice.getContent(), KeysetPagination.generateHeaders(slice, pageable), HttpStatus.OK);
+            } catch (at.jku.dke.etutor.service.exception.InvalidContinuationTokenException e) {
+                throw new InvalidContinuationTokenException();
+            }
+        }
+
         Page<StudentAssignmentOverviewInfoDTO> page = lecturerSPARQLEndpointService.getPagedLecturerOverview(
             courseInstanceUUID,
             exerciseSheetUUID,
@@ -134,28 +149,63 @@ public class LecturerResource {
     }
 
     /**
-     * Returns the points overview for a specific exercise sheet and course instance as csv
+     * Returns the points overview for a specific exercise sheet and course instance as csv.
+     * The csv is streamed to the client while the points are read.
      *
      * @param courseInstanceUUID the course instance
-     * @param exerciseSheetUUID  the csv
+     * @param exerciseSheetUUID  the exercise sheet
+     * @param type               {@code aggregated} for one row per student, otherwise one row per task
      * @return a ResponseEntity containing the csv
      */
     @GetMapping(value = "course-instance/{courseInstanceUUID}/exercise-sheet/{exerciseSheetUUID}/csv/points-overview", produces = "text/csv")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.INSTRUCTOR + "\")")
-    public ResponseEntity<Resource> getDispatcherPointsForExerciseSheetAsCSV(@PathVariable String courseInstanceUUID, @PathVariable String exerciseSheetUUID, @RequestParam(required = false, defaultValue = "aggregated") String type) {
-        InputStreamResource fileInputStream = lecturerSPARQLEndpointService.getAchievedPointsForExerciseSheet(courseInstanceUUID, exerciseSheetUUID, type);
+    public ResponseEntity<StreamingResponseBody> getDispatcherPointsForExerciseSheetAsCSV(@PathVariable String courseInstanceUUID, @PathVariable String exerciseSheetUUID, @RequestParam(required = false, defaultValue = "aggregated") String type) {
+        return exportResponse(ExportFormat.CSV, "pointOverview", writer ->
+            lecturerSPARQLEndpointService.writeAchievedPointsForExerciseSheet(courseInstanceUUID, exerciseSheetUUID, type, writer));
+    }
 
-        String csvFileName = "pointOverview.csv";
+    /**
+     * Returns the points overview for a specific exercise sheet and course instance as Excel workbook.
+     * The workbook is written with a bounded number of rows in memory.
+     *
+     * @param courseInstanceUUID the course instance
+     * @param exerciseSheetUUID  the exercise sheet
+     * @param type               {@code aggregated} for one row per student, otherwise one row per task
+     * @return a ResponseEntity containing the workbook
+     */
+    @GetMapping("course-instance/{courseInstanceUUID}/exercise-sheet/{exerciseSheetUUID}/xlsx/points-overview")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.INSTRUCTOR + "\")")
+    public ResponseEntity<StreamingResponseBody> getDispatcherPointsForExerciseSheetAsXLSX(@PathVariable String courseInstanceUUID, @PathVariable String exerciseSheetUUID, @RequestParam(required = false, defaultValue = "aggregated") String type) {
+        return exportResponse(ExportFormat.XLSX, "pointOverview", writer ->
+            lecturerSPARQLEndpointService.writeAchievedPointsForExerciseSheet(courseInstanceUUID, exerciseSheetUUID, type, writer));
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + csvFileName);
-        headers.set(HttpHeaders.CONTENT_TYPE, "text/csv");
+    /**
+     * Returns the gradebook of a course instance as csv, i.e. the achieved points of all students
+     * for all exercise sheets of the course instance. The csv is streamed to the client while the points are read.
+     *
+     * @param courseInstanceUUID the course instance
+     * @return a ResponseEntity containing the csv
+     */
+    @GetMapping(value = "course-instance/{courseInstanceUUID}/csv/gradebook", produces = "text/csv")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.INSTRUCTOR + "\")")
+    public ResponseEntity<StreamingResponseBody> getGradebookForCourseInstanceAsCSV(@PathVariable String courseInstanceUUID) {
+        return exportResponse(ExportFormat.CSV, "gradebook", writer ->
+            lecturerSPARQLEndpointService.writeGradebookForCourseInstance(courseInstanceUUID, writer));
+    }
 
-        return new ResponseEntity<>(
-            fileInputStream,
-            headers,
-            HttpStatus.OK
-        );
+    /**
+     * Returns the gradebook of a course instance as Excel workbook, i.e. the achieved points of all students
+     * for all exercise sheets of the course instance. The workbook is written with a bounded number of rows in memory.
+     *
+     * @param courseInstanceUUID the course instance
+     * @return a ResponseEntity containing the workbook
+     */
+    @GetMapping("course-instance/{courseInstanceUUID}/xlsx/gradebook")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.INSTRUCTOR + "\")")
+    public ResponseEntity<StreamingResponseBody> getGradebookForCourseInstanceAsXLSX(@PathVariable String courseInstanceUUID) {
+        return exportResponse(ExportFormat.XLSX, "gradebook", writer ->
+            lecturerSPARQLEndpointService.writeGradebookForCourseInstance(courseInstanceUUID, writer));
     }
 
     /**
@@ -185,4 +235,39 @@ public class LecturerResource {
         lecturerSPARQLEndpointService.openExerciseSheetOfCourseInstance(courseInstanceUUID, exerciseSheetUUID);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Creates the response for an export, which is written by the given action while it is streamed to the client.
+     *
+     * @param format   the format of the export
+     * @param fileName the file name without extension
+     * @param action   the action which writes the table
+     * @return the response entity
+     */
+    private static ResponseEntity<StreamingResponseBody> exportResponse(ExportFormat format, String fileName, TableExport action) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName + "." + format.getFileExtension());
+        headers.set(HttpHeaders.CONTENT_TYPE, format.getContentType());
+
+        StreamingResponseBody body = outputStream -> {
+            try (TableWriter writer = format.createWriter(outputStream, fileName)) {
+                action.write(writer);
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Action which writes a tabular export.
+     */
+    @FunctionalInterface
+    private interface TableExport {
+        /**
+         * Writes the table.
+         *
+         * @param writer the table writer
+         * @throws IOException if the table could not be written
+         */
+        void write(TableWriter writer) throws IOException;
+    }
 }
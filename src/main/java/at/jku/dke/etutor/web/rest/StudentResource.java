@@ -14,6 +14,9 @@ import at.jku.dke.etutor.service.dto.courseinstance.CourseInstanceProgressOvervi
 import at.jku.dke.etutor.service.dto.courseinstance.StudentInfoDTO;
 import at.jku.dke.etutor.objects.dispatcher.GradingDTO;
 import at.jku.dke.etutor.objects.dispatcher.SubmissionDTO;
+import at.jku.dke.etutor.service.dto.student.CalcCorrectionJobDTO;
+import at.jku.dke.etutor.service.dto.student.ExerciseSheetPdfJobDTO;
+import at.jku.dke.etutor.service.dto.student.IndividualTaskContext;
 import at.jku.dke.etutor.service.dto.student.IndividualTaskSubmissionDTO;
 import at.jku.dke.etutor.service.dto.student.StudentTaskListInfoDTO;
 import at.jku.dke.etutor.service.exception.DispatcherRequestFailedException;
@@ -25,10 +28,14 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
 /**
  * REST controller for managing students.
@@ -47,6 +54,9 @@ public class StudentResource {
     private final ProcessMiningService processMiningService;
     private final DispatcherSubmissionService dispatcherSubmissionService;
     private final BpmnDispatcherSubmissionService bpmnDispatcherSubmissionService;
+    private final ExerciseSheetPdfRenderingService exerciseSheetPdfRenderingService;
+    private final CalcCorrectionJobService calcCorrectionJobService;
+    private final IndividualTaskContextProvider individualTaskContextProvider;
 
     /**
      * Constructor.
@@ -55,13 +65,19 @@ public class StudentResource {
      * @param studentService                  the injected student service
      * @param processMiningService            the injected process mining service
      * @param bpmnDispatcherSubmissionService
+     * @param exerciseSheetPdfRenderingService the injected exercise sheet PDF rendering service
+     * @param calcCorrectionJobService         the injected calc correction job service
+     * @param individualTaskContextProvider    the injected request scoped individual task context provider
      */
     public StudentResource(UserService userService,
                            StudentService studentService,
                            AssignmentSPARQLEndpointService assignmentSPARQLEndpointService,
                            CourseInstanceSPARQLEndpointService courseInstanceService,
                            ProcessMiningService processMiningService,
-                           DispatcherSubmissionService dispatcherSubmissionService, BpmnDispatcherSubmissionService bpmnDispatcherSubmissionService) {
+                           DispatcherSubmissionService dispatcherSubmissionService, BpmnDispatcherSubmissionService bpmnDispatcherSubmissionService,
+                           ExerciseSheetPdfRenderingService exerciseSheetPdfRenderingService,
+                           CalcCorrectionJobService calcCorrectionJobService,
+                           IndividualTaskContextProvider individualTaskContextProvider) {
         this.userService = userService;
         this.studentService = studentService;
         this.assignmentSPARQLEndpointService = assignmentSPARQLEndpointService;
@@ -69,6 +85,9 @@ public class StudentResource {
         this.processMiningService = processMiningService;
         this.dispatcherSubmissionService = dispatcherSubmissionService;
         this.bpmnDispatcherSubmissionService = bpmnDispatcherSubmissionService;
+        this.exerciseSheetPdfRenderingService = exerciseSheetPdfRenderingService;
+        this.calcCorrectionJobService = calcCorrectionJobService;
+        this.individualTaskContextProvider = individualTaskContextProvider;
     }
 
     /**
@@ -362,7 +381,8 @@ public class StudentResource {
                                                                                    @PathVariable int taskNo) {
         String matriculationNo = SecurityUtils.getCurrentUserLogin().orElse("");
 
-        Optional<Integer> optionalId = studentService.getFileIdIndividualCalcInstruction(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo);
+        Optional<Integer> optionalId = individualTaskContextProvider.getContext(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo)
+            .flatMap(IndividualTaskContext::getCalcInstructionFileId);
 
         int id = optionalId.orElse(-1);
 
@@ -383,7 +403,8 @@ public class StudentResource {
                                                                                    @PathVariable int taskNo) {
         String matriculationNo = SecurityUtils.getCurrentUserLogin().orElse("");
 
-        Optional<Integer> optionalId = studentService.getFileIdIndividualCalcSolution(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo);
+        Optional<Integer> optionalId = individualTaskContextProvider.getContext(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo)
+            .flatMap(IndividualTaskContext::getCalcSolutionFileId);
 
         int id = optionalId.orElse(-1);
 
@@ -404,7 +425,8 @@ public class StudentResource {
                                                                                    @PathVariable int taskNo) {
         String matriculationNo = SecurityUtils.getCurrentUserLogin().orElse("");
 
-        Optional<Integer> optionalId = studentService.getFileIdIndividualWriterInstruction(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo);
+        Optional<Integer> optionalId = individualTaskContextProvider.getContext(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo)
+            .flatMap(IndividualTaskContext::getWriterInstructionFileId);
 
         int id = optionalId.orElse(-1);
 
@@ -412,7 +434,7 @@ public class StudentResource {
     }
 
     /**
-     * Corrects a calc submission and returns feedback
+     * Corrects a calc submission and returns feedback. The correction runs in the calc correction job queue.
      *
      * @param writerInstructionFileId id of the instruction writer file
      * @param calcSolutionFileId id of the solution calc file
@@ -421,35 +443,72 @@ public class StudentResource {
      */
     @PutMapping("courses/{courseInstanceUUID}/exercises/{exerciseSheetUUID}/calcTask/{taskNo}/student/{matriculationNo}/calcSubmission/{writerInstructionFileId}/{calcSolutionFileId}/{calcSubmissionFileId}/diagnose_task")
     @PreAuthorize("hasAnyAuthority(\"" + AuthoritiesConstants.STUDENT + "\", \"" + AuthoritiesConstants.INSTRUCTOR + "\")")
-    public ResponseEntity<String> diagnoseAndPersistCalcTaskSubmission(@PathVariable String courseInstanceUUID, @PathVariable String exerciseSheetUUID,
+    public DeferredResult<ResponseEntity<String>> diagnoseAndPersistCalcTaskSubmission(@PathVariable String courseInstanceUUID, @PathVariable String exerciseSheetUUID,
                                                                        @PathVariable int taskNo, @PathVariable String matriculationNo,
                                                                        @PathVariable long writerInstructionFileId, @PathVariable long calcSolutionFileId,
                                                                        @PathVariable long calcSubmissionFileId) {
-        Feedback feedback = studentService.correctCalcTask(writerInstructionFileId, calcSolutionFileId, calcSubmissionFileId);
-//        double maxPoints = assignmentSPARQLEndpointService.getMaxPointsForTaskAssignmentByIndividualTask(matriculationNo, courseInstanceUUID, exerciseSheetUUID, taskNo).get();
+        String login = SecurityUtils.getCurrentUserLogin().orElse("");
+        var job = calcCorrectionJobService.submit(login, writerInstructionFileId, calcSolutionFileId, calcSubmissionFileId);
+//        double maxPoints = individualTaskContextProvider.getContext(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo).flatMap(IndividualTaskContext::getMaxPoints).orElse(0);
 //        double achievedPoints = maxPoints;
 //        if (!feedback.isCorrect()) {
 //            achievedPoints = 0.0;
 //        }
         //StudentService.persistGradingOfCalcTaskSubmission(matriculationNo, courseInstanceUUID, exerciseSheetUUID, taskNo, maxPoints, achievedPoints, "diagnose", feedback.getTextualFeedback());
 
-        return ResponseEntity
+        return awaitCalcCorrection(job, feedback -> ResponseEntity
             .ok()
-            .body(feedback.getTextualFeedback());
+            .body(feedback.getTextualFeedback()));
     }
 
     @GetMapping("courses/calcSubmission/{writerInstructionFileId}/{calcSolutionFileId}/{calcSubmissionFileId}/diagnose_task")
     @PreAuthorize("hasAnyAuthority(\"" + AuthoritiesConstants.STUDENT + "\", \"" + AuthoritiesConstants.INSTRUCTOR + "\")")
-    public ResponseEntity<String> diagnoseCalcTaskSubmission(
+    public DeferredResult<ResponseEntity<String>> diagnoseCalcTaskSubmission(
                                                    @PathVariable long writerInstructionFileId, @PathVariable long calcSolutionFileId,
                                                    @PathVariable long calcSubmissionFileId) {
-        Feedback feedback = studentService.correctCalcTask(writerInstructionFileId, calcSolutionFileId, calcSubmissionFileId);
-        return ResponseEntity
+        String login = SecurityUtils.getCurrentUserLogin().orElse("");
+        var job = calcCorrectionJobService.submit(login, writerInstructionFileId, calcSolutionFileId, calcSubmissionFileId);
+        return awaitCalcCorrection(job, feedback -> ResponseEntity
             .ok()
-            .body(feedback.getTextualFeedback());
+            .body(feedback.getTextualFeedback()));
     }
 
+    /**
+     * {@code POST /api/student/courses/calcSubmission/:writerInstructionFileId/:calcSolutionFileId/:calcSubmissionFileId/correction-jobs}
+     * Submits the correction of a calc submission without waiting for the result, which can be polled with the returned job id.
+     *
+     * @param writerInstructionFileId id of the instruction writer file
+     * @param calcSolutionFileId      id of the solution calc file
+     * @param calcSubmissionFileId    id of the submission calc file
+     * @return the {@link ResponseEntity} containing the job status, or {@code 503} if the queue is full
+     */
+    @PostMapping("courses/calcSubmission/{writerInstructionFileId}/{calcSolutionFileId}/{calcSubmissionFileId}/correction-jobs")
+    @PreAuthorize("hasAnyAuthority(\"" + AuthoritiesConstants.STUDENT + "\", \"" + AuthoritiesConstants.INSTRUCTOR + "\")")
+    public ResponseEntity<CalcCorrectionJobDTO> submitCalcCorrectionJob(@PathVariable long writerInstructionFileId, @PathVariable long calcSolutionFileId,
+                                                                        @PathVariable long calcSubmissionFileId) {
+        String login = SecurityUtils.getCurrentUserLogin().orElse("");
+        CalcCorrectionJobDTO job = calcCorrectionJobService.submit(login, writerInstructionFileId, calcSolutionFileId, calcSubmissionFileId).toDTO();
 
+        if (CalcCorrectionJobService.JobStatus.FAILED.name().equals(job.status())) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(job);
+        }
+        return ResponseEntity.accepted().body(job);
+    }
+
+    /**
+     * {@code GET /api/student/courses/calcSubmission/correction-jobs/:jobId}
+     * Returns the status of a calc correction job of the logged in user.
+     *
+     * @param jobId the id of the job
+     * @return the {@link ResponseEntity} containing the job status, or {@code 404} if the job is not known
+     */
+    @GetMapping("courses/calcSubmission/correction-jobs/{jobId}")
+    @PreAuthorize("hasAnyAuthority(\"" + AuthoritiesConstants.STUDENT + "\", \"" + AuthoritiesConstants.INSTRUCTOR + "\")")
+    public ResponseEntity<CalcCorrectionJobDTO> getCalcCorrectionJob(@PathVariable String jobId) {
+        String login = SecurityUtils.getCurrentUserLogin().orElse("");
+
+        return ResponseEntity.of(calcCorrectionJobService.getJob(jobId, login));
+    }
 
 
     /**
@@ -463,22 +522,46 @@ public class StudentResource {
      */
     @PutMapping("courses/{courseInstanceUUID}/exercises/{exerciseSheetUUID}/calcTask/{taskNo}/student/{matriculationNo}/calcSubmission/{writerInstructionFileId}/{calcSolutionFileId}/{calcSubmissionFileId}/submit_task")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.STUDENT + "\")")
-    public ResponseEntity<Void> processSubmittedCalcTaskSubmission(@PathVariable String courseInstanceUUID, @PathVariable String exerciseSheetUUID,
+    public DeferredResult<ResponseEntity<Void>> processSubmittedCalcTaskSubmission(@PathVariable String courseInstanceUUID, @PathVariable String exerciseSheetUUID,
                                                                    @PathVariable int taskNo, @PathVariable String matriculationNo,
                                                                    @PathVariable long writerInstructionFileId, @PathVariable long calcSolutionFileId,
                                                                    @PathVariable long calcSubmissionFileId) {
-        Feedback feedback = studentService.correctCalcTask(writerInstructionFileId, calcSolutionFileId, calcSubmissionFileId);
-        AtomicReference<Double> maxPoints = new AtomicReference<>(0.0);
-        assignmentSPARQLEndpointService.getMaxPointsForTaskAssignmentByIndividualTask(matriculationNo, courseInstanceUUID, exerciseSheetUUID, taskNo).ifPresent(points -> maxPoints.set((double)points));
-        if (feedback.isCorrect()){
-            studentService.setDispatcherPointsForIndividualTask(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo, maxPoints.get());
-            studentService.markTaskAssignmentAsSubmitted(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo);
-        }
-        double achievedPoints = maxPoints.get();
-        if (!feedback.isCorrect()) {
-            achievedPoints = 0.0;
-        }
-        return ResponseEntity.ok().build();
+        String login = SecurityUtils.getCurrentUserLogin().orElse("");
+        // the request scoped context is not available in the callback
+        double maxPoints = individualTaskContextProvider.getContext(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo)
+            .flatMap(IndividualTaskContext::getMaxPoints)
+            .orElse(0);
+        var job = calcCorrectionJobService.submit(login, writerInstructionFileId, calcSolutionFileId, calcSubmissionFileId);
+        return awaitCalcCorrection(job, feedback -> {
+            if (feedback.isCorrect()){
+                studentService.setDispatcherPointsForIndividualTask(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo, maxPoints);
+                studentService.markTaskAssignmentAsSubmitted(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo);
+            }
+            return ResponseEntity.ok().build();
+        });
+    }
+
+    /**
+     * Answers a request with the result of a calc correction job, once the job has been completed.
+     * The request is answered with service unavailable if the job has been rejected because the queue is full.
+     *
+     * @param job        the job
+     * @param onFeedback function which creates the response from the feedback of the correction
+     * @param <T>        the type of the response body
+     * @return the deferred result
+     */
+    private <T> DeferredResult<ResponseEntity<T>> awaitCalcCorrection(CalcCorrectionJobService.CalcCorrectionJob job,
+                                                                      Function<Feedback, ResponseEntity<T>> onFeedback) {
+        CompletableFuture<ResponseEntity<T>> response = job.getResult().handle((feedback, throwable) -> {
+            if (throwable == null) {
+                return onFeedback.apply(feedback);
+            }
+            if (throwable instanceof RejectedExecutionException) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+            throw new CompletionException(throwable);
+        });
+        return DeferredResults.of(response, calcCorrectionJobService.getRequestTimeout());
     }
 
 
@@ -574,7 +657,8 @@ public class StudentResource {
         }
 
         // Get Task-Assignment
-        Optional<String> optTaskUri = studentService.getTaskAssignmentIdByIndividualTask(courseInstanceUUID, exerciseSheetUUID, taskNo, matriculationNo);
+        Optional<String> optTaskUri = individualTaskContextProvider.getContext(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo)
+            .flatMap(IndividualTaskContext::getTaskAssignmentId);
         String taskUri = optTaskUri.orElseThrow(() -> new NoSuchElementException("Could not find task assignment URI for exercise sheet: %s, course instance: %s, taskNo: %d, matriculation-no: %s".formatted(exerciseSheetUUID, courseInstanceUUID, taskNo, matriculationNo)));
         Optional<TaskAssignmentDTO> optTaskAssignmentDTO = assignmentSPARQLEndpointService.getTaskAssignmentByInternalId(taskUri.substring(taskUri.indexOf("#") + 1));
         TaskAssignmentDTO taskAssignmentDTO = optTaskAssignmentDTO.orElseThrow(() -> new NoSuchElementException("Could not load task assignment for URI: %s".formatted(taskUri)));
@@ -585,6 +669,7 @@ public class StudentResource {
         // Process submission
         var achievedPoints = studentService.processDispatcherSubmissionForIndividualTask(matriculationNo, courseInstanceUUID, exerciseSheetUUID, taskNo,
             submission, grading, taskAssignmentDTO, isExerciseSheetClosed);
+        individualTaskContextProvider.evict(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo);
 
         return ResponseEntity.ok(achievedPoints);
     }
@@ -614,12 +699,11 @@ public class StudentResource {
         Objects.requireNonNull(submission);
 
         // comparing excercise-id of assignment and submission
-        var optWeightingAndMaxPointsIdArr = studentService.getDiagnoseLevelWeightingAndMaxPointsAndId(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo);
-        var weightingAndMaxPointsIdArr = optWeightingAndMaxPointsIdArr.orElse(null);
+        var context = individualTaskContextProvider.getContext(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo).orElse(null);
 
-        if(weightingAndMaxPointsIdArr == null) return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        if(context == null || context.getMaxPoints().isEmpty() || context.getTaskIdForDispatcher().isEmpty()) return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
 
-        int dispatcherId = weightingAndMaxPointsIdArr[2].intValue();
+        int dispatcherId = context.getTaskIdForDispatcher().get();
 
         if(submission.getExerciseId() != dispatcherId) return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
 
@@ -628,12 +712,13 @@ public class StudentResource {
         studentService.addSubmissionForIndividualTaskByDispatcherSubmission(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo, submission, hasBeenSolved);
 
         // eventually setting a new highest diagnose-level (if current is higher and action not submit and not previously solved)
-        var oldDiagnoseLevel = studentService.getHighestEverChosenDiagnoseLevelForIndividualTask(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo).orElse(0);
+        var oldDiagnoseLevel = context.getHighestDiagnoseLevel().orElse(0);
         var currDiagnoseLevel = Integer.parseInt(submission.getPassedAttributes().get("diagnoseLevel"));
         int highestDiagnoseLevel = oldDiagnoseLevel;
 
         if(currDiagnoseLevel > oldDiagnoseLevel && !submission.getPassedAttributes().get("action").equals("submit")){
             studentService.setHighestChosenDiagnoseLevelForIndividualTask(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo, currDiagnoseLevel);
+            individualTaskContextProvider.evict(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo);
             highestDiagnoseLevel = currDiagnoseLevel;
         }
 
@@ -646,8 +731,8 @@ public class StudentResource {
             && grading.getMaxPoints() == grading.getPoints()
             && grading.getMaxPoints() != 0
         ){
-            var diagnoseLevelWeighting = weightingAndMaxPointsIdArr[0];
-            var maxPoints = weightingAndMaxPointsIdArr[1];
+            var diagnoseLevelWeighting = context.getDiagnoseLevelWeighting();
+            var maxPoints = context.getMaxPoints().get();
 
             points = maxPoints - (highestDiagnoseLevel * diagnoseLevelWeighting);
 
@@ -676,7 +761,8 @@ public class StudentResource {
                                                        @PathVariable int taskNo) {
         String matriculationNo = SecurityUtils.getCurrentUserLogin().orElse("");
 
-        Optional<Integer> optionalDiagnoseLevel = studentService.getHighestEverChosenDiagnoseLevelForIndividualTask(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo);
+        Optional<Integer> optionalDiagnoseLevel = individualTaskContextProvider.getContext(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo)
+            .flatMap(IndividualTaskContext::getHighestDiagnoseLevel);
 
         int diagnoseLevel = optionalDiagnoseLevel.orElse(0);
 
@@ -725,6 +811,22 @@ public class StudentResource {
         return ResponseEntity.ok(id);
     }
 
+    /**
+     * {@code GET /api/student/courses/:courseInstanceUUID/exercises/:exerciseSheetUUID/pdf-status}
+     * Returns the status of the latest PDF rendering job of the assigned exercise sheet for the logged in student.
+     *
+     * @param courseInstanceUUID the course instance
+     * @param exerciseSheetUUID  the exercise sheet
+     * @return the {@link ResponseEntity} containing the job status, or {@code 404} if no job is known
+     */
+    @GetMapping("courses/{courseInstanceUUID}/exercises/{exerciseSheetUUID}/pdf-status")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.STUDENT + "\")")
+    public ResponseEntity<ExerciseSheetPdfJobDTO> getPdfRenderingStatus(@PathVariable String courseInstanceUUID, @PathVariable String exerciseSheetUUID) {
+        String matriculationNo = SecurityUtils.getCurrentUserLogin().orElse("");
+
+        return ResponseEntity.of(exerciseSheetPdfRenderingService.getLatestJob(courseInstanceUUID, exerciseSheetUUID, matriculationNo));
+    }
+
     /**
      * {@code GET /api/student/courses/:courseInstanceUUID/exercises/:exerciseSheetUUID/task/:taskNo}
      * Returns the log corresponding to the given exercise
@@ -740,9 +842,11 @@ public class StudentResource {
         PmExerciseLogDTO pmExerciseLogDTO = null;
 
         // fetches the dispatcher exercise id corresponding to the assigned exercise
-        Optional<Integer> dispatcherExerciseId = studentService.getDispatcherTaskIdOfIndividualTask(matriculationNo, courseInstanceUUID, exerciseSheetUUID, taskNo);
+        Optional<Integer> dispatcherExerciseId = individualTaskContextProvider.getContext(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo)
+            .flatMap(IndividualTaskContext::getIndividualTaskIdForDispatcher);
         if(dispatcherExerciseId.isEmpty()){
             dispatcherExerciseId = studentService.randomizePmTask(matriculationNo, courseInstanceUUID, exerciseSheetUUID, taskNo, taskAssignmentUUID);
+            individualTaskContextProvider.evict(courseInstanceUUID, exerciseSheetUUID, matriculationNo, taskNo);
         }
 
         if(dispatcherExerciseId.isPresent()){
@@ -14,8 +14,10 @@ import at.jku.dke.etutor.service.exception.InternalTaskAssignmentNonexistentExce
 import at.jku.dke.etutor.service.exception.MissingParameterException;
 import at.jku.dke.etutor.service.exception.NotAValidTaskGroupException;
 import at.jku.dke.etutor.service.exception.TaskTypeSpecificOperationFailedException;
+import at.jku.dke.etutor.service.pagination.KeysetSlice;
 import at.jku.dke.etutor.web.rest.errors.BadRequestAlertException;
 import at.jku.dke.etutor.web.rest.errors.DispatcherRequestFailedException;
+import at.jku.dke.etutor.web.rest.errors.InvalidContinuationTokenException;
 import at.jku.dke.etutor.web.rest.errors.TaskAssignmentNonexistentException;
 import at.jku.dke.etutor.calc.exception.WrongCalcParametersException;
 import org.apache.commons.lang3.StringUtils;
@@ -218,8 +220,9 @@ public class TaskAssignmentResource {
      * by an optional task header filter string.
      *
      * @param taskHeader      the optional task header filter query parameter
-     * @param taskGroupHeader the optional task group header filter query parameter
-     * @param pageable        the pagination object
+     * @param taskGroupHeader   the optional task group header filter query parameter
+     * @param continuationToken the optional continuation token of the previous page of the unfiltered list
+     * @param pageable          the pagination object
      * @return {@link ResponseEntity} containing the list of task displays of the current "page"
      */
     @GetMapping("tasks/display")
@@ -227,10 +230,22 @@ public class TaskAssignmentResource {
     public ResponseEntity<List<TaskDisplayDTO>> getAllTaskDisplayList(
         @RequestParam(required = false, defaultValue = "") String taskHeader,
         @RequestParam(required = false, defaultValue = "") String taskGroupHeader,
+        @RequestParam(required = false) String continuationToken,
         Pageable pageable
     ) {
+        KeysetPagination.rejectSort(pageable);
         String currentLogin = SecurityContextHolder.getContext().getAuthentication().getName();
 
+        // Filtered lists are answered by the search index and ordered by relevance
+        if (StringUtils.isAllBlank(taskHeader, taskGroupHeader) && KeysetPagination.isKeysetRequest(continuationToken, pageable)) {
+            try {
+                KeysetSlice<TaskDisplayDTO> slice = assignmentSPARQLEndpointService.findAllTasks(currentLogin, continuationToken, pageable.getPageSize());
+                return new ResponseEntity<>(slice.getContent(), KeysetPagination.generateHeaders(slice, pageable), HttpStatus.OK);
+            } catch (at.jku.dke.etutor.service.exception.InvalidContinuationTokenException e) {
+                throw new InvalidContinuationTokenException();
+            }
+        }
+
         Slice<TaskDisplayDTO> slice = assignmentSPARQLEndpointService.findAllTasks(taskHeader, pageable, currentLogin, taskGroupHeader);
         HttpHeaders headers = new HttpHeaders();
         headers.add("X-Has-Next-Page", String.valueOf(slice.hasNext()));
@@ -9,8 +9,11 @@ import at.jku.dke.etutor.service.dto.taskassignment.TaskGroupDTO;
 import at.jku.dke.etutor.service.dto.taskassignment.TaskGroupDisplayDTO;
 import at.jku.dke.etutor.service.exception.MissingParameterException;
 import at.jku.dke.etutor.service.exception.TaskTypeSpecificOperationFailedException;
+import at.jku.dke.etutor.service.pagination.KeysetSlice;
 import at.jku.dke.etutor.web.rest.errors.DispatcherRequestFailedException;
+import at.jku.dke.etutor.web.rest.errors.InvalidContinuationTokenException;
 import at.jku.dke.etutor.web.rest.errors.TaskGroupAlreadyExistentException;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.*;
@@ -136,13 +139,28 @@ public class TaskGroupResource {
     /**
      * REST endpoint for retrieving a paged task group list.
      *
-     * @param filter   the optional filter
-     * @param pageable the pagination object
+     * @param filter            the optional filter
+     * @param continuationToken the optional continuation token of the previous page of the unfiltered list
+     * @param pageable          the pagination object
      * @return the {@link ResponseEntity} containing the list of paged task groups
      */
     @GetMapping("displayable/list")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.INSTRUCTOR + "\")")
-    public ResponseEntity<List<TaskGroupDisplayDTO>> getPagedTaskGroups(@RequestParam(required = false, defaultValue = "") String filter, Pageable pageable) {
+    public ResponseEntity<List<TaskGroupDisplayDTO>> getPagedTaskGroups(@RequestParam(required = false, defaultValue = "") String filter,
+                                                                        @RequestParam(required = false) String continuationToken,
+                                                                        Pageable pageable) {
+        KeysetPagination.rejectSort(pageable);
+
+        // Filtered lists are answered by the search index and ordered by relevance
+        if (StringUtils.isBlank(filter) && KeysetPagination.isKeysetRequest(continuationToken, pageable)) {
+            try {
+                KeysetSlice<TaskGroupDisplayDTO> slice = assignmentSPARQLEndpointService.getTaskGroupsPaged(continuationToken, pageable.getPageSize());
+                return new ResponseEntity<>(slice.getContent(), KeysetPagination.generateHeaders(slice, pageable), HttpStatus.OK);
+            } catch (at.jku.dke.etutor.service.exception.InvalidContinuationTokenException e) {
+                throw new InvalidContinuationTokenException();
+            }
+        }
+
         Page<TaskGroupDisplayDTO> page = assignmentSPARQLEndpointService.getFilteredTaskGroupPaged(filter, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
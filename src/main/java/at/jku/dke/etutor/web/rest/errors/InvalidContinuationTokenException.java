@@ -0,0 +1,20 @@
+package at.jku.dke.etutor.web.rest.errors;
+
+import java.io.Serial;
+
+/**
+ * Validation exception which indicates that a continuation token is invalid.
+ *
+ * @author fne
+ */
+public class InvalidContinuationTokenException extends BadRequestAlertException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor.
+     */
+    public InvalidContinuationTokenException() {
+        super("The continuation token is invalid!", "pagination", "invalidContinuationToken");
+    }
+}
@@ -0,0 +1,20 @@
+package at.jku.dke.etutor.web.rest.errors;
+
+import java.io.Serial;
+
+/**
+ * Validation exception which indicates that a list with a fixed order has been requested with a sort.
+ *
+ * @author fne
+ */
+public class UnsupportedSortException extends BadRequestAlertException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor.
+     */
+    public UnsupportedSortException() {
+        super("The list can not be sorted!", "pagination", "unsupportedSort");
+    }
+}
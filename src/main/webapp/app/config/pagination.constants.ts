@@ -6,3 +6,4 @@ export const DESC = 'desc';
 export const SORT = 'sort';
 export const TOTAL_COUNT_RESPONSE_HEADER = 'X-Total-Count';
 export const PAGE_HEADER = 'page';
+export const CONTINUATION_TOKEN_HEADER = 'X-Continuation-Token';
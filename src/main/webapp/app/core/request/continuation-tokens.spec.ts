@@ -0,0 +1,34 @@
+import { HttpHeaders } from '@angular/common/http';
+
+import { ContinuationTokens } from './continuation-tokens';
+
+describe('Continuation tokens test', () => {
+  let tokens: ContinuationTokens;
+
+  beforeEach(() => {
+    tokens = new ContinuationTokens();
+  });
+
+  it('should store the token of the next page', () => {
+    tokens.update(0, new HttpHeaders({ 'X-Continuation-Token': 'token' }));
+
+    expect(tokens.get(0)).toBeUndefined();
+    expect(tokens.get(1)).toBe('token');
+  });
+
+  it('should forget the token of the next page if the response has no token', () => {
+    tokens.update(0, new HttpHeaders({ 'X-Continuation-Token': 'token' }));
+    tokens.update(0, new HttpHeaders());
+
+    expect(tokens.get(1)).toBeUndefined();
+  });
+
+  it('should forget all tokens when cleared', () => {
+    tokens.update(0, new HttpHeaders({ 'X-Continuation-Token': 'first' }));
+    tokens.update(1, new HttpHeaders({ 'X-Continuation-Token': 'second' }));
+    tokens.clear();
+
+    expect(tokens.get(1)).toBeUndefined();
+    expect(tokens.get(2)).toBeUndefined();
+  });
+});
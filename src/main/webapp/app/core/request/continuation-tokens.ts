@@ -0,0 +1,42 @@
+import { HttpHeaders } from '@angular/common/http';
+import { CONTINUATION_TOKEN_HEADER } from 'app/config/pagination.constants';
+
+/**
+ * Remembers the continuation tokens of the pages of a list which is paged by continuation tokens.
+ * Pages whose token is unknown are requested by their page number.
+ */
+export class ContinuationTokens {
+  private readonly tokens = new Map<number, string>();
+
+  /**
+   * Returns the continuation token of the given page.
+   *
+   * @param page the zero-based page number
+   */
+  public get(page: number): string | undefined {
+    return this.tokens.get(page);
+  }
+
+  /**
+   * Stores the continuation token of the page which follows the given page.
+   *
+   * @param page the zero-based number of the loaded page
+   * @param headers the response headers of the loaded page
+   */
+  public update(page: number, headers: HttpHeaders): void {
+    const token = headers.get(CONTINUATION_TOKEN_HEADER);
+
+    if (token) {
+      this.tokens.set(page + 1, token);
+    } else {
+      this.tokens.delete(page + 1);
+    }
+  }
+
+  /**
+   * Forgets all continuation tokens, e.g. if the filter or the page size has been changed.
+   */
+  public clear(): void {
+    this.tokens.clear();
+  }
+}
@@ -2,6 +2,7 @@ export interface Pagination {
   page: number;
   size: number;
   sort: string[];
+  continuationToken?: string;
 }
 
 export interface Search {
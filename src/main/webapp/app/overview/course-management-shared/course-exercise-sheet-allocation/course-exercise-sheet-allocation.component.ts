@@ -8,6 +8,7 @@ import { CourseManagementService } from '../../course-management/course-manageme
 import {forkJoin, lastValueFrom} from 'rxjs';
 import { LecturerTaskAssignmentOverviewComponent } from './lecturer-task-assignment-overview/lecturer-task-assignment-overview.component';
 import { COUNT_HEADER, ITEMS_PER_PAGE } from 'app/config/pagination.constants';
+import { ContinuationTokens } from 'app/core/request/continuation-tokens';
 import { LecturerTaskAssignmentService } from './lecturer-task-assignment-overview/lecturer-task-assignment.service';
 import { TaskPointEntryModel } from '../../course-management/course-instances/course-instance-overview/course-exercise-sheet-allocation/task-point-entry.model';
 
@@ -33,6 +34,7 @@ export class CourseExerciseSheetAllocationComponent {
   private _selectedSheetIdsToSave: string[] = [];
   private _closedExerciseSheets: string[] = [];
   private _exerciseSheetPointOverview: TaskPointEntryModel[] = [];
+  private readonly _continuationTokens = new ContinuationTokens();
 
   /**
    * Constructor.
@@ -211,17 +213,22 @@ export class CourseExerciseSheetAllocationComponent {
    * Asynchronously loads the exercise sheets page.
    */
   private async loadExerciseSheetsPageAsync(): Promise<any> {
+    const page = this.page - 1;
     const response = await lastValueFrom(this.exerciseSheetService
       .getPagedExerciseSheetPage(
         {
-          page: this.page - 1,
+          page,
           size: this.itemsPerPage,
           sort: [],
+          continuationToken: this._continuationTokens.get(page),
         },
         undefined
       ));
 
-    this.totalItems = Number(response.headers.get(COUNT_HEADER));
+    this._continuationTokens.update(page, response.headers);
+    if (response.headers.has(COUNT_HEADER)) {
+      this.totalItems = Number(response.headers.get(COUNT_HEADER));
+    }
     this.exerciseSheets = response.body ?? [];
   }
 }
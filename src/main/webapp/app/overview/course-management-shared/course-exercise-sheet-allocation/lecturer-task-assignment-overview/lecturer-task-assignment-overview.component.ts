@@ -5,6 +5,7 @@ import { NgbActiveModal, NgbModal } from '@ng-bootstrap/ng-bootstrap';
 import { LecturerGradeAssignmentComponent } from './lecturer-grade-assignment/lecturer-grade-assignment.component';
 import { COUNT_HEADER, ITEMS_PER_PAGE } from 'app/config/pagination.constants';
 import {lastValueFrom} from "rxjs";
+import { ContinuationTokens } from 'app/core/request/continuation-tokens';
 
 // noinspection JSIgnoredPromiseFromCall
 /**
@@ -21,6 +22,7 @@ export class LecturerTaskAssignmentOverviewComponent {
   public entries: IStudentAssignmentOverviewInfo[] = [];
 
   private _assignedSheetInfo?: ILecturerTaskAssignmentInfoModel;
+  private readonly _continuationTokens = new ContinuationTokens();
 
   /**
    * Constructor.
@@ -44,6 +46,7 @@ export class LecturerTaskAssignmentOverviewComponent {
    */
   public set assignedSheetInfo(value: ILecturerTaskAssignmentInfoModel) {
     this._assignedSheetInfo = value;
+    this._continuationTokens.clear();
     this.transition();
   }
 
@@ -95,14 +98,19 @@ export class LecturerTaskAssignmentOverviewComponent {
    * Asynchronously loads the page.
    */
   private async loadPageAsync(): Promise<any> {
+    const page = this.page - 1;
     const response = await lastValueFrom(this.lecturerAssignmentService
       .getStudentAssignmentInfoPage(this.assignedSheetInfo, {
-        page: this.page - 1,
+        page,
         size: this.itemsPerPage,
         sort: [],
+        continuationToken: this._continuationTokens.get(page),
       }));
 
-    this.totalItems = Number(response.headers.get(COUNT_HEADER));
+    this._continuationTokens.update(page, response.headers);
+    if (response.headers.has(COUNT_HEADER)) {
+      this.totalItems = Number(response.headers.get(COUNT_HEADER));
+    }
     this.entries = response.body ?? [];
   }
 }
@@ -9,6 +9,7 @@ import { NgbModal } from '@ng-bootstrap/ng-bootstrap';
 import { IDisplayableCourseInstanceDTO } from '../course-management/course-mangement.model';
 import { ActivatedRoute, Router } from '@angular/router';
 import {lastValueFrom} from "rxjs";
+import { ContinuationTokens } from 'app/core/request/continuation-tokens';
 
 /**
  * Component which is used for displaying an overview for a lecturer.
@@ -24,6 +25,8 @@ export class LecturerOverviewComponent implements OnInit {
   public totalItems = 0;
   public courseInstances: IDisplayableCourseInstanceDTO[] = [];
 
+  private readonly continuationTokens = new ContinuationTokens();
+
   /**
    * Constructor.
    *
@@ -79,14 +82,19 @@ export class LecturerOverviewComponent implements OnInit {
    * Asynchronously loads the courses.
    */
   private async loadCoursesAsync(): Promise<void> {
+    const page = this.page - 1;
     const result = await lastValueFrom(this.lecturerOverviewService
       .getPagedCoursesOfUser({
-        page: this.page - 1,
+        page,
         size: this.itemsPerPage,
         sort: [],
+        continuationToken: this.continuationTokens.get(page),
       }));
 
-    this.totalItems = Number(result.headers.get(COUNT_HEADER));
+    this.continuationTokens.update(page, result.headers);
+    if (result.headers.has(COUNT_HEADER)) {
+      this.totalItems = Number(result.headers.get(COUNT_HEADER));
+    }
     this.courseInstances = result.body ?? [];
   }
 }
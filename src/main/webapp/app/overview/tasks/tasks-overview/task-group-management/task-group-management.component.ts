@@ -9,6 +9,7 @@ import { COUNT_HEADER, ITEMS_PER_PAGE } from 'app/config/pagination.constants';
 import { TaskGroupUpdateComponent } from 'app/overview/tasks/tasks-overview/task-group-management/task-group-update/task-group-update.component';
 import { TranslatePipe } from '@ngx-translate/core';
 import {lastValueFrom} from "rxjs";
+import { ContinuationTokens } from 'app/core/request/continuation-tokens';
 
 /**
  * Component for managing task groups.
@@ -29,6 +30,9 @@ export class TaskGroupManagementComponent implements OnInit {
   public deletePopoverCancelBtnText = 'taskManagement.popover.cancelBtn';
   public deletePopoverConfirmBtnText = 'taskManagement.popover.confirmBtn';
 
+  private readonly continuationTokens = new ContinuationTokens();
+  private continuationTokensQuery = '';
+
   /**
    * Constructor.
    *
@@ -124,16 +128,26 @@ export class TaskGroupManagementComponent implements OnInit {
    * Asynchronously loads the current page.
    */
   private async loadPageAsync(): Promise<any> {
+    if (this.query !== this.continuationTokensQuery) {
+      this.continuationTokens.clear();
+      this.continuationTokensQuery = this.query;
+    }
+
+    const page = this.page - 1;
     const response = await lastValueFrom(this.taskGroupService
       .getPagedTaskGroups(
         {
-          page: this.page - 1,
+          page,
           size: this.itemsPerPage,
           sort: [],
+          continuationToken: this.continuationTokens.get(page),
         },
         this.query
       ));
-    this.totalItems = Number(response.headers.get(COUNT_HEADER));
+    this.continuationTokens.update(page, response.headers);
+    if (response.headers.has(COUNT_HEADER)) {
+      this.totalItems = Number(response.headers.get(COUNT_HEADER));
+    }
     this.taskGroups = response.body ?? [];
   }
 }
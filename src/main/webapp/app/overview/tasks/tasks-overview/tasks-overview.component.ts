@@ -14,6 +14,7 @@ import { EventManager } from 'app/core/util/event-manager.service';
 import { ITEMS_PER_SLICE } from 'app/config/pagination.constants';
 import { TaskGroupManagementComponent } from 'app/overview/tasks/tasks-overview/task-group-management/task-group-management.component';
 import { SqlExerciseService } from '../../dispatcher/services/sql-exercise.service';
+import { ContinuationTokens } from 'app/core/request/continuation-tokens';
 
 /**
  * Component which provides an overview of the tasks.
@@ -42,6 +43,7 @@ export class TasksOverviewComponent implements OnInit, OnDestroy {
   private subscription?: Subscription;
   private routingSubscription?: Subscription;
   private userLogin = '';
+  private readonly continuationTokens = new ContinuationTokens();
 
   /**
    * Constructor.
@@ -133,6 +135,9 @@ export class TasksOverviewComponent implements OnInit, OnDestroy {
    * @param page the page to load
    */
   public loadPage(page: number): void {
+    if (page === 0) {
+      this.continuationTokens.clear();
+    }
     this.page = page;
     this.loadEntries();
   }
@@ -254,6 +259,7 @@ export class TasksOverviewComponent implements OnInit, OnDestroy {
         {
           page: this.page,
           size: this.itemsPerPage,
+          continuationToken: this.continuationTokens.get(this.page),
         },
         this.filterString,
         this.taskGroupFilterString
@@ -269,6 +275,7 @@ export class TasksOverviewComponent implements OnInit, OnDestroy {
    */
   private paginate(data: ITaskDisplayModel[] | null, headers: HttpHeaders): void {
     this.hasNextPage = headers.get('X-Has-Next-Page') === 'true';
+    this.continuationTokens.update(this.page, headers);
 
     if (data) {
       this.entries.push(...data);
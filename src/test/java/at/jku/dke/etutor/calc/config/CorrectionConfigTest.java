@@ -0,0 +1,178 @@
+package at.jku.dke.etutor.calc.config;
+
+import at.jku.dke.etutor.calc.models.CorrectnessRule;
+import at.jku.dke.etutor.calc.models.Feedback;
+import at.jku.dke.etutor.config.ApplicationProperties;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link CorrectionConfig} and {@link CorrectionPipeline} classes.
+ *
+ * @author fne
+ */
+public class CorrectionConfigTest {
+
+    private static final List<String> evaluatedRules = Collections.synchronizedList(new ArrayList<>());
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Clears the evaluated rules.
+     */
+    @AfterEach
+    public void clearEvaluatedRules() {
+        evaluatedRules.clear();
+    }
+
+    /**
+     * Tests that the rule file is compiled once, the rules are shared and the pipeline
+     * is recompiled when the file changes.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testPipelineIsCompiledOnceAndReloaded() throws Exception {
+        Path ruleFile = tempDir.resolve("CorrectionConfig.txt");
+        Files.writeString(ruleFile, CorrectRule.class.getName() + "\n" + ModifyingRule.class.getName() + "\n");
+        CorrectionConfig correctionConfig = createCorrectionConfig(ruleFile);
+
+        CorrectionPipeline pipeline = correctionConfig.getPipeline();
+        assertThat(correctionConfig.getPipeline()).isSameAs(pipeline);
+        assertThat(pipeline.getRules()).hasSize(2);
+
+        Files.writeString(ruleFile, "# comment\n" + CorrectRule.class.getName() + "\n\n" + FailingRule.class.getName() + "\n"
+            + ModifyingRule.class.getName() + "\n");
+        CorrectionPipeline reloaded = correctionConfig.getPipeline();
+        assertThat(reloaded).isNotSameAs(pipeline);
+        assertThat(reloaded.getRules()).hasSize(3);
+        assertThat(reloaded.getRules().get(0)).isSameAs(pipeline.getRules().get(0));
+    }
+
+    /**
+     * Tests that the previous pipeline is kept if the changed rule file contains an unknown rule.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testInvalidRuleFileKeepsPreviousPipeline() throws Exception {
+        Path ruleFile = tempDir.resolve("CorrectionConfig.txt");
+        Files.writeString(ruleFile, CorrectRule.class.getName() + "\n");
+        CorrectionConfig correctionConfig = createCorrectionConfig(ruleFile);
+        CorrectionPipeline pipeline = correctionConfig.getPipeline();
+
+        Files.writeString(ruleFile, CorrectRule.class.getName() + "\nat.jku.dke.etutor.calc.functions.UnknownRule\n");
+
+        assertThat(correctionConfig.getPipeline()).isSameAs(pipeline);
+    }
+
+    /**
+     * Tests that the evaluation stops at the first failing rule and evaluates every rule once.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testSequentialEvaluationStopsAtFirstFailure() throws Exception {
+        CorrectionPipeline pipeline = new CorrectionPipeline(List.of(new CorrectRule(), new FailingRule(), new SecondFailingRule()));
+
+        Feedback feedback = pipeline.evaluate(this::evaluate);
+
+        assertThat(feedback.getTextualFeedback()).isEqualTo("first");
+        assertThat(evaluatedRules).containsExactly("CorrectRule", "FailingRule");
+    }
+
+    /**
+     * Tests that the evaluation returns {@code null} if all rules succeed.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testEvaluationWithoutFailure() throws Exception {
+        CorrectionPipeline pipeline = new CorrectionPipeline(List.of(new CorrectRule(), new ModifyingRule()));
+
+        assertThat(pipeline.evaluate(this::evaluate)).isNull();
+    }
+
+    /**
+     * Evaluates a rule without workbooks.
+     *
+     * @param rule the rule
+     * @return the feedback
+     * @throws Exception if the rule could not be evaluated
+     */
+    private Feedback evaluate(CorrectnessRule rule) throws Exception {
+        return rule.checkCorrectness(null, null);
+    }
+
+    /**
+     * Creates a correction config for the given rule file.
+     *
+     * @param ruleFile the rule file
+     * @return the correction config
+     */
+    private static CorrectionConfig createCorrectionConfig(Path ruleFile) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCalcCorrection().setRuleFile(ruleFile.toString());
+        return new CorrectionConfig(applicationProperties);
+    }
+
+    /**
+     * Rule which always succeeds.
+     */
+    public static class CorrectRule extends CorrectnessRule {
+        @Override
+        public Feedback checkCorrectness(XSSFWorkbook solution, XSSFWorkbook submission) {
+            evaluatedRules.add(getClass().getSimpleName());
+            return new Feedback(true, null);
+        }
+    }
+
+    /**
+     * Rule which always fails.
+     */
+    public static class FailingRule extends CorrectnessRule {
+        @Override
+        public Feedback checkCorrectness(XSSFWorkbook solution, XSSFWorkbook submission) {
+            evaluatedRules.add(getClass().getSimpleName());
+            return new Feedback(false, "first");
+        }
+    }
+
+    /**
+     * Rule which always fails with a different feedback.
+     */
+    public static class SecondFailingRule extends CorrectnessRule {
+        @Override
+        public Feedback checkCorrectness(XSSFWorkbook solution, XSSFWorkbook submission) {
+            evaluatedRules.add(getClass().getSimpleName());
+            return new Feedback(false, "second");
+        }
+    }
+
+    /**
+     * Succeeding rule which claims to modify the workbooks.
+     */
+    public static class ModifyingRule extends CorrectnessRule {
+        @Override
+        public Feedback checkCorrectness(XSSFWorkbook solution, XSSFWorkbook submission) {
+            evaluatedRules.add(getClass().getSimpleName());
+            return new Feedback(true, null);
+        }
+
+        @Override
+        public boolean modifiesWorkbooks() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package at.jku.dke.etutor.calc.models;
+
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link WorkbookIndex} and {@link CorrectionContext} classes.
+ *
+ * @author fne
+ */
+public class WorkbookIndexTest {
+
+    /**
+     * Tests that the marked cells and formula cells of a sheet are indexed in row order.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testCellsAreIndexedByColor() throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            XSSFSheet sheet = workbook.createSheet("Sheet1");
+            XSSFCellStyle orange = createFillStyle(workbook, new byte[]{(byte) 255, (byte) 255, (byte) 128, 0});
+            XSSFCellStyle yellow = createFillStyle(workbook, new byte[]{(byte) 255, (byte) 255, (byte) 255, 0});
+
+            XSSFRow firstRow = sheet.createRow(0);
+            XSSFCell value = firstRow.createCell(0);
+            value.setCellValue(2);
+            value.setCellStyle(yellow);
+            XSSFCell unmarked = firstRow.createCell(1);
+            unmarked.setCellValue(3);
+
+            XSSFRow secondRow = sheet.createRow(1);
+            XSSFCell firstCalculation = secondRow.createCell(0);
+            firstCalculation.setCellFormula("A1*2");
+            firstCalculation.setCellStyle(orange);
+            XSSFCell secondCalculation = secondRow.createCell(1);
+            secondCalculation.setCellFormula("A1+B1");
+            secondCalculation.setCellStyle(orange);
+
+            WorkbookIndex.SheetIndex sheetIndex = new WorkbookIndex(workbook).getSheet(sheet);
+
+            assertThat(sheetIndex.getCells(CellColor.CALCULATION)).containsExactly(firstCalculation, secondCalculation);
+            assertThat(sheetIndex.getCells(CellColor.VALUE)).containsExactly(value);
+            assertThat(sheetIndex.getCells(CellColor.DROPDOWN)).isEmpty();
+            assertThat(sheetIndex.getCellColor(unmarked)).isNull();
+            assertThat(sheetIndex.is(value, CellColor.VALUE)).isTrue();
+            assertThat(sheetIndex.getFormulaCells()).containsExactly(firstCalculation, secondCalculation);
+            assertThat(sheetIndex.getDataValidations()).isEmpty();
+            assertThat(sheetIndex.getCharts()).isNull();
+        }
+    }
+
+    /**
+     * Tests that the shared formula evaluator returns the overridden values after the results have been invalidated.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testInvalidateFormulaResults() throws Exception {
+        try (XSSFWorkbook solution = new XSSFWorkbook(); XSSFWorkbook submission = new XSSFWorkbook()) {
+            XSSFRow row = solution.createSheet("Sheet1").createRow(0);
+            row.createCell(0).setCellValue(2);
+            XSSFCell formula = row.createCell(1);
+            formula.setCellFormula("A1*2");
+            submission.createSheet("Sheet1");
+
+            CorrectionContext context = new CorrectionContext(solution, submission);
+            assertThat(context.getSolutionFormulaEvaluator()).isSameAs(context.getSolutionFormulaEvaluator());
+            assertThat(context.getSolutionFormulaEvaluator().evaluate(formula).getNumberValue()).isEqualTo(4);
+
+            row.getCell(0).setCellValue(5);
+            context.invalidateFormulaResults();
+
+            assertThat(context.getSolutionFormulaEvaluator().evaluate(formula).getNumberValue()).isEqualTo(10);
+        }
+    }
+
+    /**
+     * Creates a cell style with a solid fill.
+     *
+     * @param workbook the workbook
+     * @param argb     the fill color
+     * @return the cell style
+     */
+    private static XSSFCellStyle createFillStyle(XSSFWorkbook workbook, byte[] argb) {
+        XSSFCellStyle style = workbook.createCellStyle();
+        style.setFillForegroundColor(new XSSFColor(argb, null));
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        return style;
+    }
+}
@@ -0,0 +1,84 @@
+package at.jku.dke.etutor.calc.sandbox;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link CorrectionDeadline} class.
+ *
+ * @author fne
+ */
+public class CorrectionDeadlineTest {
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates the scheduler of the deadlines.
+     */
+    @BeforeEach
+    public void setup() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    /**
+     * Stops the scheduler and clears the interrupt flag of the test thread.
+     */
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+        Thread.interrupted();
+    }
+
+    /**
+     * Tests that an expired deadline interrupts the thread, runs the cancellation
+     * and clears the interrupt flag when it is closed.
+     */
+    @Test
+    public void testExpiryInterruptsAndCancels() {
+        AtomicInteger cancellations = new AtomicInteger();
+
+        try (CorrectionDeadline deadline = CorrectionDeadline.start(scheduler, Duration.ofMillis(100))) {
+            deadline.onExpiry(cancellations::incrementAndGet);
+            assertThatThrownBy(() -> Thread.sleep(10_000)).isInstanceOf(InterruptedException.class);
+
+            assertThat(deadline.isExpired()).isTrue();
+            assertThat(deadline.remaining()).isZero();
+            assertThat(cancellations.get()).isEqualTo(1);
+
+            deadline.onExpiry(cancellations::incrementAndGet);
+            assertThat(cancellations.get()).isEqualTo(2);
+            Thread.currentThread().interrupt();
+        }
+
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    /**
+     * Tests that a deadline which is closed in time neither interrupts the thread nor runs the cancellation.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testClosedDeadlineDoesNotExpire() throws Exception {
+        AtomicInteger cancellations = new AtomicInteger();
+
+        CorrectionDeadline deadline = CorrectionDeadline.start(scheduler, Duration.ofMillis(100));
+        deadline.onExpiry(cancellations::incrementAndGet);
+        assertThat(deadline.remaining()).isPositive();
+        deadline.close();
+
+        Thread.sleep(300);
+        assertThat(deadline.isExpired()).isFalse();
+        assertThat(cancellations.get()).isZero();
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+}
@@ -0,0 +1,158 @@
+package at.jku.dke.etutor.calc.sandbox;
+
+import at.jku.dke.etutor.calc.models.Feedback;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link ForkedCorrectionPool} class, which forks a {@link StubWorker} instead of a {@link CorrectionWorker}.
+ *
+ * @author fne
+ */
+public class ForkedCorrectionPoolTest {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private ScheduledExecutorService scheduler;
+    private ForkedCorrectionPool pool;
+
+    /**
+     * Creates a pool with a single worker process.
+     */
+    @BeforeEach
+    public void setup() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        String java = ProcessHandle.current().info().command().orElse(System.getProperty("java.home") + "/bin/java");
+        pool = new ForkedCorrectionPool(List.of(java, "-cp", System.getProperty("java.class.path"), StubWorker.class.getName()), 1);
+    }
+
+    /**
+     * Terminates the worker process and stops the scheduler.
+     */
+    @AfterEach
+    public void tearDown() {
+        pool.close();
+        scheduler.shutdownNow();
+        Thread.interrupted();
+    }
+
+    /**
+     * Tests that a submission which could not be corrected is answered with a negative feedback
+     * and that the worker process is reused afterwards.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testErrorKeepsWorker() throws Exception {
+        Feedback first = correct("first", Duration.ofSeconds(30));
+        assertThat(first.isCorrect()).isTrue();
+
+        Feedback error = correct("error", Duration.ofSeconds(30));
+        assertThat(error.isCorrect()).isFalse();
+        assertThat(error.getTextualFeedback()).isNotBlank();
+
+        Feedback second = correct("second", Duration.ofSeconds(30));
+        assertThat(second.isCorrect()).isTrue();
+        assertThat(second.getTextualFeedback()).isEqualTo(first.getTextualFeedback());
+    }
+
+    /**
+     * Tests that a worker process which exceeds the deadline is terminated and replaced for the next correction.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testExpiredDeadlineReplacesWorker() throws Exception {
+        Feedback first = correct("first", Duration.ofSeconds(30));
+
+        assertThatThrownBy(() -> correct("sleep", Duration.ofSeconds(2))).isInstanceOf(IOException.class);
+        Thread.interrupted();
+
+        Feedback second = correct("second", Duration.ofSeconds(30));
+        assertThat(second.isCorrect()).isTrue();
+        assertThat(second.getTextualFeedback()).isNotEqualTo(first.getTextualFeedback());
+    }
+
+    //region Private helper methods
+
+    /**
+     * Corrects a submission within a deadline.
+     *
+     * @param submission the submission, which tells the stub worker how to answer
+     * @param timeout    the timeout of the correction
+     * @return the feedback
+     * @throws Exception if the correction failed
+     */
+    private Feedback correct(String submission, Duration timeout) throws Exception {
+        try (CorrectionDeadline deadline = CorrectionDeadline.start(scheduler, timeout)) {
+            return pool.correct(EMPTY, EMPTY, submission.getBytes(StandardCharsets.UTF_8), deadline);
+        }
+    }
+
+    //endregion
+
+    /**
+     * Worker which answers with the process id as feedback, reports an error for the submission {@code error}
+     * and does not answer the submission {@code sleep}.
+     */
+    public static final class StubWorker {
+
+        /**
+         * Private constructor.
+         */
+        private StubWorker() {
+        }
+
+        /**
+         * Runs the worker.
+         *
+         * @param args not used
+         * @throws Exception if the requests could not be read or the responses could not be written
+         */
+        public static void main(String[] args) throws Exception {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+            DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+            while (true) {
+                try {
+                    CorrectionWorker.readContent(input);
+                } catch (EOFException e) {
+                    return;
+                }
+                CorrectionWorker.readContent(input);
+                String submission = new String(CorrectionWorker.readContent(input), StandardCharsets.UTF_8);
+
+                if (submission.equals("sleep")) {
+                    Thread.sleep(60_000);
+                }
+                if (submission.equals("error")) {
+                    output.writeByte(CorrectionWorker.STATUS_ERROR);
+                    output.writeUTF("java.io.IOException: invalid submission");
+                } else {
+                    output.writeByte(CorrectionWorker.STATUS_FEEDBACK);
+                    output.writeBoolean(true);
+                    output.writeUTF(Long.toString(ProcessHandle.current().pid()));
+                }
+                output.flush();
+            }
+        }
+    }
+}
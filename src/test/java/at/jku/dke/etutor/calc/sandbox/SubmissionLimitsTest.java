@@ -0,0 +1,75 @@
+package at.jku.dke.etutor.calc.sandbox;
+
+import at.jku.dke.etutor.calc.exception.SubmissionLimitExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link SubmissionLimits} class.
+ *
+ * @author fne
+ */
+public class SubmissionLimitsTest {
+
+    /**
+     * Tests that a small archive and content which is not an archive are accepted.
+     */
+    @Test
+    public void testSmallContentIsAccepted() {
+        SubmissionLimits limits = new SubmissionLimits(1024 * 1024, 0.01);
+
+        assertThatCode(() -> limits.check(zip(new byte[4096]))).doesNotThrowAnyException();
+        assertThatCode(() -> limits.check("no archive".getBytes(StandardCharsets.UTF_8))).doesNotThrowAnyException();
+    }
+
+    /**
+     * Tests that an archive whose entries exceed the maximum uncompressed size is rejected.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testUncompressedSizeIsLimited() throws Exception {
+        SubmissionLimits limits = new SubmissionLimits(64 * 1024, 0);
+        byte[] content = zip(new byte[128 * 1024]);
+
+        assertThatThrownBy(() -> limits.check(content)).isInstanceOf(SubmissionLimitExceededException.class);
+    }
+
+    /**
+     * Tests that an archive which inflates too much is rejected, even though it is below the maximum size.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testInflateRatioIsLimited() throws Exception {
+        SubmissionLimits limits = new SubmissionLimits(100 * 1024 * 1024, 0.01);
+        byte[] content = zip(new byte[8 * 1024 * 1024]);
+
+        assertThatThrownBy(() -> limits.check(content)).isInstanceOf(SubmissionLimitExceededException.class);
+    }
+
+    /**
+     * Creates an archive with a single entry.
+     *
+     * @param entry the content of the entry
+     * @return the archive
+     * @throws IOException if the archive could not be written
+     */
+    private static byte[] zip(byte[] entry) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+            zipOutputStream.putNextEntry(new ZipEntry("xl/workbook.xml"));
+            zipOutputStream.write(entry);
+            zipOutputStream.closeEntry();
+        }
+        return outputStream.toByteArray();
+    }
+}
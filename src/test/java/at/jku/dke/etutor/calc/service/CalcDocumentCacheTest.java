@@ -0,0 +1,144 @@
+package at.jku.dke.etutor.calc.service;
+
+import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.repository.FileRepository;
+import at.jku.dke.etutor.service.exception.FileNotExistsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link CalcDocumentCache} class.
+ *
+ * @author fne
+ */
+public class CalcDocumentCacheTest {
+
+    private byte[] content;
+    private FileRepository fileRepository;
+    private CalcDocumentCache calcDocumentCache;
+
+    /**
+     * Creates the cache with a mocked file repository, which returns a workbook with one sheet.
+     *
+     * @throws Exception must not be thrown
+     */
+    @BeforeEach
+    public void setup() throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            workbook.createSheet("Sheet1").createRow(0).createCell(0).setCellValue(42);
+            workbook.write(outputStream);
+            content = outputStream.toByteArray();
+        }
+
+        fileRepository = mock(FileRepository.class);
+        when(fileRepository.openContent(1L)).thenAnswer(invocation -> new ByteArrayInputStream(content));
+        when(fileRepository.openContent(2L)).thenThrow(new FileNotExistsException());
+        calcDocumentCache = new CalcDocumentCache(fileRepository, new ApplicationProperties());
+    }
+
+    /**
+     * Stops the cache.
+     */
+    @AfterEach
+    public void shutdown() {
+        calcDocumentCache.shutdown();
+    }
+
+    /**
+     * Tests that the file is read once and the shared workbook is reused.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testSharedWorkbookIsParsedOnce() throws Exception {
+        XSSFWorkbook workbook = calcDocumentCache.getWorkbook(1L);
+
+        assertThat(calcDocumentCache.getWorkbook(1L)).isSameAs(workbook);
+        assertThat(workbook.getSheetAt(0).getRow(0).getCell(0).getNumericCellValue()).isEqualTo(42);
+        verify(fileRepository, times(1)).openContent(anyLong());
+    }
+
+    /**
+     * Tests that modifications of a copy do not affect the shared workbook or later copies.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testCopiesAreIndependent() throws Exception {
+        XSSFWorkbook copy = calcDocumentCache.copyWorkbook(1L);
+        copy.getSheetAt(0).getRow(0).getCell(0).setCellValue(7);
+
+        XSSFWorkbook secondCopy = calcDocumentCache.copyWorkbook(1L);
+
+        assertThat(secondCopy).isNotSameAs(copy);
+        assertThat(secondCopy.getSheetAt(0).getRow(0).getCell(0).getNumericCellValue()).isEqualTo(42);
+        assertThat(calcDocumentCache.getWorkbook(1L)).isNotSameAs(copy).isNotSameAs(secondCopy);
+        assertThat(calcDocumentCache.getWorkbook(1L).getSheetAt(0).getRow(0).getCell(0).getNumericCellValue()).isEqualTo(42);
+        verify(fileRepository, times(1)).openContent(anyLong());
+    }
+
+    /**
+     * Tests that the file is read again after the cache has been invalidated.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testInvalidate() throws Exception {
+        XSSFWorkbook workbook = calcDocumentCache.getWorkbook(1L);
+        calcDocumentCache.invalidate(1L);
+
+        assertThat(calcDocumentCache.getWorkbook(1L)).isNotSameAs(workbook);
+        verify(fileRepository, times(2)).openContent(anyLong());
+    }
+
+    /**
+     * Tests that spare copies are only parsed for documents which have been copied before.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testSpareCopiesAreParsedLazily() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        calcDocumentCache.bindTo(registry);
+
+        calcDocumentCache.getWorkbook(1L);
+        Thread.sleep(200);
+        calcDocumentCache.copyWorkbook(1L);
+
+        assertThat(registry.get("cache.copies").tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.copies").tag("result", "hit").counter().count()).isZero();
+    }
+
+    /**
+     * Tests that the parsed size is estimated by the uncompressed size of the workbook.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testEstimateParsedSize() throws Exception {
+        assertThat(CalcDocumentCache.estimateParsedSize(content)).isGreaterThan(6L * content.length);
+        assertThat(CalcDocumentCache.estimateParsedSize(new byte[10])).isEqualTo(60);
+    }
+
+    /**
+     * Tests that a missing file is reported.
+     */
+    @Test
+    public void testMissingFile() {
+        assertThatThrownBy(() -> calcDocumentCache.getWorkbook(2L)).isInstanceOf(FileNotExistsException.class);
+    }
+}
@@ -0,0 +1,114 @@
+package at.jku.dke.etutor.helper;
+
+import at.jku.dke.etutor.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.jena.rdfconnection.RDFConnection;
+import org.apache.jena.shared.JenaException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the {@code PooledFusekiRDFConnectionFactory} class.
+ *
+ * @author fne
+ */
+public class PooledFusekiRDFConnectionFactoryTest {
+
+    private PooledFusekiRDFConnectionFactory connectionFactory;
+
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Method which initializes the pool before each run.
+     */
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getFuseki().setBaseUrl("http://localhost:3030/etutorpp-database");
+        applicationProperties.getFuseki().getPool().setMaxConnections(2);
+        applicationProperties.getFuseki().getPool().setAcquireTimeout(Duration.ofMillis(50));
+        applicationProperties.getFuseki().getPool().setIdleTimeout(Duration.ZERO);
+        applicationProperties.getFuseki().getPool().setEvictionInterval(Duration.ofHours(1));
+
+        meterRegistry = new SimpleMeterRegistry();
+        connectionFactory = new PooledFusekiRDFConnectionFactory(applicationProperties, meterRegistry);
+    }
+
+    /**
+     * Closes the pool after each run.
+     */
+    @AfterEach
+    public void tearDown() {
+        connectionFactory.close();
+    }
+
+    /**
+     * Tests that closed connections are reused.
+     */
+    @Test
+    public void testConnectionsAreReused() {
+        RDFConnection connection = connectionFactory.getRDFConnection();
+        assertThat(connectionFactory.getActiveConnectionCount()).isEqualTo(1);
+        connection.close();
+        connection.close();
+
+        assertThat(connectionFactory.getActiveConnectionCount()).isZero();
+        assertThat(connectionFactory.getIdleConnectionCount()).isEqualTo(1);
+
+        connectionFactory.getRDFConnection().close();
+
+        assertThat(meterRegistry.get(PooledFusekiRDFConnectionFactory.METER_PREFIX + ".created").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(PooledFusekiRDFConnectionFactory.METER_PREFIX + ".idle").tag("dataset", "etutorpp-database").gauge().value()).isEqualTo(1);
+    }
+
+    /**
+     * Tests that the pool does not hand out more than the configured connections.
+     */
+    @Test
+    public void testMaxConnections() {
+        RDFConnection first = connectionFactory.getRDFConnection();
+        RDFConnection second = connectionFactory.getRDFConnection();
+
+        assertThatThrownBy(() -> connectionFactory.getRDFConnection()).isInstanceOf(JenaException.class);
+        assertThat(meterRegistry.get(PooledFusekiRDFConnectionFactory.METER_PREFIX + ".acquire.timeouts").counter().count()).isEqualTo(1);
+
+        first.close();
+        RDFConnection third = connectionFactory.getRDFConnection();
+        assertThat(connectionFactory.getActiveConnectionCount()).isEqualTo(2);
+
+        second.close();
+        third.close();
+    }
+
+    /**
+     * Tests that a returned connection cannot be used any longer.
+     */
+    @Test
+    public void testReturnedConnectionIsNotUsable() {
+        RDFConnection connection = connectionFactory.getRDFConnection();
+        connection.close();
+
+        assertThatThrownBy(() -> connection.queryAsk("ASK { ?s ?p ?o }")).isInstanceOf(JenaException.class);
+    }
+
+    /**
+     * Tests the eviction of idle connections.
+     */
+    @Test
+    public void testEvictIdleConnections() {
+        connectionFactory.getRDFConnection().close();
+        assertThat(connectionFactory.getIdleConnectionCount()).isEqualTo(1);
+
+        connectionFactory.evictIdleConnections();
+
+        assertThat(connectionFactory.getIdleConnectionCount()).isZero();
+        assertThat(meterRegistry.get(PooledFusekiRDFConnectionFactory.METER_PREFIX + ".evicted").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,136 @@
+package at.jku.dke.etutor.helper.generator;
+
+import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.helper.LocalRDFConnectionFactory;
+import at.jku.dke.etutor.helper.RDFConnectionFactory;
+import at.jku.dke.etutor.service.StudentService;
+import at.jku.dke.etutor.service.dto.courseinstance.CourseInstanceInformationDTO;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdfconnection.RDFConnection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the {@code CourseDataGenerator} class.
+ *
+ * @author fne
+ */
+public class CourseDataGeneratorTest {
+
+    private ApplicationProperties.Generator settings;
+
+    /**
+     * Initializes small generator settings before each test.
+     */
+    @BeforeEach
+    public void setup() {
+        settings = new ApplicationProperties.Generator();
+        settings.setSeed(7);
+        settings.setRootGoals(3);
+        settings.setSubGoalsPerGoal(2);
+        settings.setGoalDepth(1);
+        settings.setTasksPerGoal(4);
+        settings.setExerciseSheets(2);
+        settings.setTasksPerSheet(3);
+        settings.setStudents(20);
+        settings.setOpenRatio(1);
+        settings.setSubmissionRatio(1);
+    }
+
+    /**
+     * Tests that the same seed produces the same quads and that another seed produces different quads.
+     *
+     * @throws IOException must not happen
+     */
+    @Test
+    public void testGenerationIsDeterministic() throws IOException {
+        String first = generateNQuads();
+        String second = generateNQuads();
+
+        settings.setSeed(8);
+        String third = generateNQuads();
+
+        assertThat(first).isNotEmpty().isEqualTo(second);
+        assertThat(third).isNotEqualTo(first);
+    }
+
+    /**
+     * Tests that the generated data is loaded in batches and can be read by the services.
+     *
+     * @throws IOException must not happen
+     */
+    @Test
+    public void testGeneratedDataIsReadable() throws IOException {
+        RDFConnectionFactory rdfConnectionFactory = new LocalRDFConnectionFactory();
+
+        CourseDataGenerator.Statistics statistics;
+        try (CourseDataSink sink = new RDFConnectionCourseDataSink(rdfConnectionFactory, 100)) {
+            statistics = new CourseDataGenerator(settings).generate(sink);
+        }
+
+        assertThat(statistics.goals()).isEqualTo(9);
+        assertThat(statistics.taskAssignments()).isEqualTo(36);
+        assertThat(statistics.students()).isEqualTo(20);
+        assertThat(statistics.individualTasks()).isEqualTo(20 * 2 * 3);
+
+        try (RDFConnection connection = rdfConnectionFactory.getRDFConnection()) {
+            assertThat(count(connection, "SELECT * WHERE { ?submission a etutor:IndividualTaskSubmission. }"))
+                .isEqualTo(statistics.submissions());
+            assertThat(count(connection, "SELECT * WHERE { ?task a etutor:IndividualTask. }"))
+                .isEqualTo(statistics.individualTasks());
+            assertThat(count(connection, "SELECT DISTINCT ?type WHERE { ?task etutor:hasTaskAssignmentType ?type. }"))
+                .isEqualTo(11);
+            assertThat(count(connection, "SELECT * WHERE { GRAPH ?instance { ?goal a etutor:Goal. } }"))
+                .isEqualTo(9);
+        }
+
+        StudentService studentService = new StudentService(null, null, null, null, null, rdfConnectionFactory,
+            null, null, null, null, null, null, null, null);
+        List<CourseInstanceInformationDTO> courses = studentService.getCoursesFromStudent("k10000000");
+
+        assertThat(courses).hasSize(1);
+        assertThat(courses.get(0).getCourseName()).isEqualTo("Synthetic course 7-1");
+        assertThat(courses.get(0).getYear()).isEqualTo(2022);
+    }
+
+    /**
+     * Generates the data as N-Quads.
+     *
+     * @return the N-Quads
+     * @throws IOException must not happen
+     */
+    private String generateNQuads() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (CourseDataSink sink = StreamRDFCourseDataSink.nQuads(outputStream)) {
+            new CourseDataGenerator(settings).generate(sink);
+        }
+        return outputStream.toString();
+    }
+
+    /**
+     * Counts the solutions of the given query.
+     *
+     * @param connection the connection
+     * @param query      the select query without the prefix declaration
+     * @return the number of solutions
+     */
+    private static long count(RDFConnection connection, String query) {
+        try (QueryExecution execution = connection.query("PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>\n" + query)) {
+            ResultSet resultSet = execution.execSelect();
+            long count = 0;
+            while (resultSet.hasNext()) {
+                resultSet.next();
+                count++;
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package at.jku.dke.etutor.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local HTTP stand-in for the DKE and BPMN dispatchers, which serves the endpoints used by the
+ * platform ({@code POST /submission}, {@code GET /submission/{id}} and {@code GET /grading/{id}}).
+ * <p>
+ * Every request is delayed by the configured latency plus a random jitter, and the configured
+ * ratio of requests fails with {@code 503 Service Unavailable}. Posted submissions are stored
+ * and echoed back with their new submission id, each grading awards the maximum points.
+ *
+ * @author fne
+ */
+public class DispatcherStandIn implements AutoCloseable {
+
+    private static final String SUBMISSION_PATH = "/submission";
+    private static final String GRADING_PATH = "/grading/";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, ObjectNode> submissions = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private final Profile profile;
+    private final Random random;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Constructor.
+     *
+     * @param profile the latency and error profile
+     * @throws IOException if the server could not be started
+     */
+    private DispatcherStandIn(Profile profile) throws IOException {
+        this.profile = profile;
+        this.random = new Random(profile.seed());
+        this.executor = Executors.newCachedThreadPool();
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * Starts a new stand-in on a free local port.
+     *
+     * @param profile the latency and error profile
+     * @return the started stand-in
+     * @throws IOException if the server could not be started
+     */
+    public static DispatcherStandIn start(Profile profile) throws IOException {
+        return new DispatcherStandIn(profile);
+    }
+
+    /**
+     * Returns the base url of the stand-in, which replaces the url of a dispatcher.
+     *
+     * @return the base url
+     */
+    public String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the number of received requests.
+     *
+     * @return the number of requests
+     */
+    public int getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * Returns the number of requests which have been failed on purpose.
+     *
+     * @return the number of failed requests
+     */
+    public int getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Stops the server.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Handles a request.
+     *
+     * @param exchange the exchange
+     * @throws IOException if the response could not be written
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            if (!delay()) {
+                failures.incrementAndGet();
+                respond(exchange, 503, null);
+                return;
+            }
+
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+
+            if ("POST".equals(method) && path.equals(SUBMISSION_PATH)) {
+                ObjectNode submission = (ObjectNode) mapper.readTree(exchange.getRequestBody());
+                String submissionId = UUID.randomUUID().toString();
+                submission.put("submissionId", submissionId);
+                submissions.put(submissionId, submission);
+
+                respond(exchange, 200, mapper.createObjectNode().put("submissionId", submissionId));
+            } else if ("GET".equals(method) && path.startsWith(SUBMISSION_PATH + "/")) {
+                respond(exchange, 200, submissions.get(path.substring(SUBMISSION_PATH.length() + 1)));
+            } else if ("GET".equals(method) && path.startsWith(GRADING_PATH)) {
+                respond(exchange, 200, grading(submissions.get(path.substring(GRADING_PATH.length()))));
+            } else {
+                respond(exchange, 404, null);
+            }
+        }
+    }
+
+    /**
+     * Waits for the configured latency and decides whether the request fails.
+     *
+     * @return {@code true} if the request should be answered, {@code false} if it should fail
+     */
+    private boolean delay() {
+        long jitter = profile.jitter().toMillis();
+        double failure;
+        long latency;
+        synchronized (random) {
+            latency = profile.latency().toMillis() + (jitter > 0 ? (long) (random.nextDouble() * jitter) : 0);
+            failure = random.nextDouble();
+        }
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return failure >= profile.errorRate();
+    }
+
+    /**
+     * Creates the grading of the given submission, which awards the maximum points.
+     *
+     * @param submission the submission, may be {@code null}
+     * @return the grading or {@code null} if the submission does not exist
+     */
+    private ObjectNode grading(ObjectNode submission) {
+        if (submission == null) {
+            return null;
+        }
+        JsonNode maxPoints = submission.path("maxPoints");
+        double points = maxPoints.isTextual() ? Double.parseDouble(maxPoints.asText()) : maxPoints.asDouble();
+
+        return mapper.createObjectNode()
+            .put("submissionId", submission.get("submissionId").asText())
+            .put("points", points)
+            .put("maxPoints", points)
+            .put("submissionSuitsSolution", true);
+    }
+
+    /**
+     * Writes the response.
+     *
+     * @param exchange the exchange
+     * @param status   the status code
+     * @param body     the json body, {@code null} results in an empty 404 response
+     * @throws IOException if the response could not be written
+     */
+    private void respond(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status == 200 ? 404 : status, -1);
+            return;
+        }
+        byte[] bytes = mapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    /**
+     * The latency and error profile of a stand-in.
+     *
+     * @param latency   the minimum latency of each request
+     * @param jitter    the maximum random latency, which is added to the minimum latency
+     * @param errorRate the ratio of requests which fail with {@code 503 Service Unavailable}
+     * @param seed      the seed of the random latencies and failures
+     */
+    public record Profile(Duration latency, Duration jitter, double errorRate, long seed) {
+    }
+}
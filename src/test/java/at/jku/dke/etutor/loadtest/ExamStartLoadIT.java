@@ -0,0 +1,421 @@
+package at.jku.dke.etutor.loadtest;
+
+import at.jku.dke.etutor.EtutorPlusPlusApp;
+import at.jku.dke.etutor.domain.rdf.ETutorVocabulary;
+import at.jku.dke.etutor.helper.RDFConnectionFactory;
+import at.jku.dke.etutor.security.AuthoritiesConstants;
+import at.jku.dke.etutor.service.AssignmentSPARQLEndpointService;
+import at.jku.dke.etutor.service.CourseInstanceSPARQLEndpointService;
+import at.jku.dke.etutor.service.ExerciseSheetSPARQLEndpointService;
+import at.jku.dke.etutor.service.SPARQLEndpointService;
+import at.jku.dke.etutor.service.dto.CourseDTO;
+import at.jku.dke.etutor.service.dto.LearningGoalAssignmentDTO;
+import at.jku.dke.etutor.service.dto.LearningGoalDTO;
+import at.jku.dke.etutor.service.dto.NewLearningGoalDTO;
+import at.jku.dke.etutor.service.dto.courseinstance.NewCourseInstanceDTO;
+import at.jku.dke.etutor.service.dto.exercisesheet.NewExerciseSheetDTO;
+import at.jku.dke.etutor.service.dto.taskassignment.LearningGoalDisplayDTO;
+import at.jku.dke.etutor.service.dto.taskassignment.NewTaskAssignmentDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Load scenario of the start of an exam: all students of a course instance open the same exercise sheet
+ * at once, list their tasks, submit their solution through the dispatcher proxy, fetch the grading and
+ * let the platform process it.
+ * <p>
+ * The application runs against an in-memory dataset and two local stand-ins of the DKE and BPMN dispatchers.
+ * The scenario only runs if the number of virtual students is given, e.g.
+ * {@code ./mvnw verify -Dit.test=ExamStartLoadIT -Dloadtest.students=300}. Further settings are
+ * {@code loadtest.concurrency} (default: all students at once), {@code loadtest.latency} and
+ * {@code loadtest.jitter} (latency of the dispatchers in milliseconds), {@code loadtest.error-rate}
+ * (ratio of failing dispatcher requests), {@code loadtest.bpmn-ratio} (ratio of BPMN tasks) and
+ * {@code loadtest.seed}. The report with the percentiles of the latencies and the Fuseki round-trips
+ * per endpoint is logged and written to {@code target/loadtest-report.txt}.
+ *
+ * @author fne
+ */
+@AutoConfigureMockMvc
+@ContextConfiguration(classes = LoadTestConfiguration.class)
+@SpringBootTest(classes = EtutorPlusPlusApp.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = ExamStartLoadIT.STUDENTS_PROPERTY, matches = "\\d+")
+public class ExamStartLoadIT {
+
+    static final String STUDENTS_PROPERTY = "loadtest.students";
+
+    private static final String OWNER = "admin";
+    private static final String SHEET_PATH = "/api/student/courses/{courseInstanceUUID}/exercises/{exerciseSheetUUID}";
+    private static final Duration ASYNC_TIMEOUT = Duration.ofMinutes(2);
+    private static final Path REPORT = Path.of("target", "loadtest-report.txt");
+
+    private static final int STUDENTS = Integer.getInteger(STUDENTS_PROPERTY, 0);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", Math.max(STUDENTS, 1));
+    private static final double ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.error-rate", "0"));
+    private static final double BPMN_RATIO = Double.parseDouble(System.getProperty("loadtest.bpmn-ratio", "0.25"));
+    private static final long SEED = Long.getLong("loadtest.seed", 42);
+
+    private static DispatcherStandIn dkeDispatcher;
+    private static DispatcherStandIn bpmnDispatcher;
+
+    private final Logger log = LoggerFactory.getLogger(ExamStartLoadIT.class);
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LoadStatistics statistics = new LoadStatistics();
+    private final Map<String, SeededTask> tasks = new HashMap<>();
+    private final List<String> matriculationNumbers = new ArrayList<>();
+
+    @Autowired
+    private RDFConnectionFactory rdfConnectionFactory;
+
+    @Autowired
+    private SPARQLEndpointService sparqlEndpointService;
+
+    @Autowired
+    private AssignmentSPARQLEndpointService assignmentSPARQLEndpointService;
+
+    @Autowired
+    private ExerciseSheetSPARQLEndpointService exerciseSheetSPARQLEndpointService;
+
+    @Autowired
+    private CourseInstanceSPARQLEndpointService courseInstanceSPARQLEndpointService;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private RoundTripCountingRDFConnectionFactory connectionFactory;
+    private String courseInstanceUUID;
+    private String exerciseSheetUUID;
+
+    /**
+     * Starts the dispatcher stand-ins and points the dispatcher urls of the application to them.
+     *
+     * @param registry the property registry
+     * @throws IOException if a stand-in could not be started
+     */
+    @DynamicPropertySource
+    static void dispatcherProperties(DynamicPropertyRegistry registry) throws IOException {
+        Duration latency = Duration.ofMillis(Long.getLong("loadtest.latency", 100));
+        Duration jitter = Duration.ofMillis(Long.getLong("loadtest.jitter", 100));
+
+        dkeDispatcher = DispatcherStandIn.start(new DispatcherStandIn.Profile(latency, jitter, ERROR_RATE, SEED));
+        bpmnDispatcher = DispatcherStandIn.start(new DispatcherStandIn.Profile(latency, jitter, ERROR_RATE, SEED + 1));
+
+        registry.add("application.dispatcher.url", dkeDispatcher::getUrl);
+        registry.add("application.bpmn-dispatcher.url", bpmnDispatcher::getUrl);
+    }
+
+    /**
+     * Seeds the dataset with a course, whose goals are covered by SQL and BPMN tasks, one course instance
+     * with the virtual students and one exercise sheet, which has not been opened yet.
+     *
+     * @throws Exception must not be thrown
+     */
+    @BeforeAll
+    public void initBeforeAllTests() throws Exception {
+        connectionFactory = (RoundTripCountingRDFConnectionFactory) rdfConnectionFactory;
+        connectionFactory.clearDataset();
+        sparqlEndpointService.insertScheme();
+
+        CourseDTO courseDTO = new CourseDTO();
+        courseDTO.setName("Exam start load test");
+        courseDTO.setCourseType("LVA");
+        String courseId = sparqlEndpointService.insertNewCourse(courseDTO, OWNER).getId();
+
+        List<LearningGoalDisplayDTO> goals = new ArrayList<>();
+        int dispatcherId = 0;
+        for (int i = 1; i <= 4; i++) {
+            NewLearningGoalDTO goalDTO = new NewLearningGoalDTO();
+            goalDTO.setName("Exam goal " + i);
+            goalDTO.setDescription("Learning goal of the exam start load test");
+            goalDTO.setPrivateGoal(false);
+            LearningGoalDTO goal = sparqlEndpointService.insertNewLearningGoal(goalDTO, OWNER);
+            sparqlEndpointService.addGoalAssignment(new LearningGoalAssignmentDTO(courseId, goal.getId()));
+
+            LearningGoalDisplayDTO goalDisplay = new LearningGoalDisplayDTO(goal.getId(), goal.getName());
+            goals.add(goalDisplay);
+
+            for (int j = 0; j < 4; j++) {
+                dispatcherId++;
+                boolean bpmn = j < Math.round(BPMN_RATIO * 4);
+                insertTask(goalDisplay, dispatcherId, bpmn);
+            }
+        }
+
+        NewCourseInstanceDTO newCourseInstanceDTO = new NewCourseInstanceDTO();
+        newCourseInstanceDTO.setCourseId(courseId);
+        newCourseInstanceDTO.setYear(2022);
+        newCourseInstanceDTO.setTermId(ETutorVocabulary.Winter.getURI());
+        String courseInstanceUrl = courseInstanceSPARQLEndpointService.createNewCourseInstance(newCourseInstanceDTO);
+        courseInstanceUUID = courseInstanceUrl.substring(courseInstanceUrl.lastIndexOf('#') + 1);
+
+        for (int i = 0; i < STUDENTS; i++) {
+            matriculationNumbers.add(String.format("k%08d", 10_000_000 + i));
+        }
+        courseInstanceSPARQLEndpointService.setStudentsOfCourseInstance(matriculationNumbers, courseInstanceUrl);
+
+        NewExerciseSheetDTO newExerciseSheetDTO = new NewExerciseSheetDTO();
+        newExerciseSheetDTO.setName("Exam");
+        newExerciseSheetDTO.setDifficultyId(ETutorVocabulary.Medium.getURI());
+        newExerciseSheetDTO.setLearningGoals(goals.stream()
+            .map(goal -> new at.jku.dke.etutor.service.dto.exercisesheet.LearningGoalAssignmentDTO(goal, 1))
+            .toList());
+        newExerciseSheetDTO.setTaskCount(1);
+
+        String exerciseSheetId = exerciseSheetSPARQLEndpointService.insertNewExerciseSheet(newExerciseSheetDTO, OWNER).getId();
+        courseInstanceSPARQLEndpointService.addExerciseSheetCourseInstanceAssignments(courseInstanceUUID,
+            Collections.singletonList(exerciseSheetId));
+        exerciseSheetUUID = exerciseSheetId.substring(exerciseSheetId.lastIndexOf('#') + 1);
+    }
+
+    /**
+     * Stops the dispatcher stand-ins.
+     */
+    @AfterAll
+    public void cleanupAfterAllTests() {
+        dkeDispatcher.close();
+        bpmnDispatcher.close();
+    }
+
+    /**
+     * Runs the exam start scenario for all virtual students and reports the latencies
+     * and Fuseki round-trips per endpoint.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testExamStart() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        CountDownLatch start = new CountDownLatch(1);
+        long roundTripsBefore = connectionFactory.getTotal();
+
+        List<Future<?>> flows = new ArrayList<>();
+        for (String matriculationNumber : matriculationNumbers) {
+            flows.add(executor.submit(() -> {
+                start.await();
+                long flowStart = System.nanoTime();
+                boolean completed = runFlow(matriculationNumber);
+                statistics.record("flow", System.nanoTime() - flowStart, 0, !completed);
+                return null;
+            }));
+        }
+
+        long runStart = System.nanoTime();
+        start.countDown();
+        for (Future<?> flow : flows) {
+            flow.get();
+        }
+        Duration runDuration = Duration.ofNanos(System.nanoTime() - runStart);
+        executor.shutdown();
+
+        String report = String.format("""
+                Exam start: %d students, concurrency %d, duration %d ms
+                Fuseki round-trips: %d in total
+                Dispatcher requests: %d (%d failed on purpose), BPMN dispatcher requests: %d (%d failed on purpose)
+                %s""",
+            STUDENTS, CONCURRENCY, runDuration.toMillis(),
+            connectionFactory.getTotal() - roundTripsBefore,
+            dkeDispatcher.getRequests(), dkeDispatcher.getFailures(),
+            bpmnDispatcher.getRequests(), bpmnDispatcher.getFailures(),
+            statistics.format());
+
+        log.info("\n{}", report);
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, report, StandardCharsets.UTF_8);
+
+        assertThat(statistics.getRequests("open")).isEqualTo(STUDENTS);
+        if (ERROR_RATE == 0) {
+            assertThat(statistics.getFailures()).isZero();
+        }
+    }
+
+    /**
+     * Runs the flow of one virtual student: open the exercise sheet, list the tasks, post the submission
+     * of the first task to the dispatcher, fetch the grading, let the platform process the grading
+     * and mark the task as submitted.
+     *
+     * @param matriculationNumber the matriculation number of the student
+     * @return {@code true} if all requests succeeded, otherwise {@code false}
+     * @throws IOException if a response could not be parsed
+     */
+    private boolean runFlow(String matriculationNumber) throws IOException {
+        RequestPostProcessor student = user(matriculationNumber).authorities(new SimpleGrantedAuthority(AuthoritiesConstants.STUDENT));
+
+        if (!execute("open", post(SHEET_PATH + "/open", courseInstanceUUID, exerciseSheetUUID).with(student)).successful()) {
+            return false;
+        }
+
+        Response list = execute("list", get(SHEET_PATH + "/list", courseInstanceUUID, exerciseSheetUUID).with(student));
+        if (!list.successful()) {
+            return false;
+        }
+        JsonNode taskInfo = mapper.readTree(list.body()).get(0);
+        int taskNo = taskInfo.get("orderNo").asInt();
+        SeededTask task = tasks.get(taskInfo.get("taskId").asText());
+        String dispatcherPath = task.bpmn() ? "/api/bpmn/dispatcher" : "/api/dispatcher";
+
+        Response submission = execute("dispatcher submission", post(dispatcherPath + "/submission")
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.ACCEPT_LANGUAGE, "de")
+            .content(submission(task))
+            .with(student));
+        if (!submission.successful()) {
+            return false;
+        }
+        String submissionId = mapper.readTree(submission.body()).get("submissionId").asText();
+
+        if (!execute("dispatcher grading", get(dispatcherPath + "/grading/{submissionId}", submissionId).with(student)).successful()) {
+            return false;
+        }
+
+        String processPath = SHEET_PATH + "/{taskNo}/dispatcherUUID/" + (task.bpmn() ? "bpmn/" : "") + "{dispatcherUUID}";
+        if (!execute("process grading", put(processPath, courseInstanceUUID, exerciseSheetUUID, taskNo, submissionId).with(student)).successful()) {
+            return false;
+        }
+
+        return execute("submit", post(SHEET_PATH + "/task/{taskNo}/submit", courseInstanceUUID, exerciseSheetUUID, taskNo)
+            .with(student)).successful();
+    }
+
+    /**
+     * Executes the given request, waits for the asynchronous result if the request has been processed
+     * asynchronously and records the latency and the Fuseki round-trips of the request.
+     *
+     * @param endpoint the name of the endpoint in the report
+     * @param request  the request
+     * @return the response
+     */
+    private Response execute(String endpoint, MockHttpServletRequestBuilder request) {
+        connectionFactory.beginCounting();
+        long start = System.nanoTime();
+
+        Response response;
+        try {
+            MvcResult result = restMockMvc.perform(request).andReturn();
+            if (result.getRequest().isAsyncStarted()) {
+                result.getAsyncResult(ASYNC_TIMEOUT.toMillis());
+                result = restMockMvc.perform(asyncDispatch(result)).andReturn();
+            }
+            response = new Response(result.getResponse().getStatus(), result.getResponse().getContentAsString());
+        } catch (Exception ex) {
+            log.debug("Request to endpoint {} failed", endpoint, ex);
+            response = new Response(0, "");
+        }
+
+        long nanos = System.nanoTime() - start;
+        statistics.record(endpoint, nanos, connectionFactory.endCounting(), !response.successful());
+        return response;
+    }
+
+    /**
+     * Inserts a new task, which is evaluated by a dispatcher.
+     *
+     * @param goal         the goal of the task
+     * @param dispatcherId the id of the task in the dispatcher
+     * @param bpmn         whether the task is a BPMN task or an SQL task
+     */
+    private void insertTask(LearningGoalDisplayDTO goal, int dispatcherId, boolean bpmn) {
+        NewTaskAssignmentDTO newTaskAssignmentDTO = new NewTaskAssignmentDTO();
+        newTaskAssignmentDTO.setCreator(OWNER);
+        newTaskAssignmentDTO.setHeader("Exam task " + dispatcherId);
+        newTaskAssignmentDTO.setTaskDifficultyId(ETutorVocabulary.Medium.getURI());
+        newTaskAssignmentDTO.setOrganisationUnit("DKE");
+        newTaskAssignmentDTO.setTaskAssignmentTypeId((bpmn ? ETutorVocabulary.BpmnTask : ETutorVocabulary.SQLTask).getURI());
+        newTaskAssignmentDTO.setTaskIdForDispatcher(String.valueOf(dispatcherId));
+        newTaskAssignmentDTO.setMaxPoints("10");
+        newTaskAssignmentDTO.setDiagnoseLevelWeighting("1");
+        newTaskAssignmentDTO.setLearningGoalIds(List.of(goal));
+
+        String taskId = assignmentSPARQLEndpointService.insertNewTaskAssignment(newTaskAssignmentDTO, OWNER).getId();
+        tasks.put(taskId, new SeededTask(dispatcherId, bpmn));
+    }
+
+    /**
+     * Creates the submission of the given task, as it is posted by the client.
+     *
+     * @param task the task
+     * @return the submission as json
+     */
+    private String submission(SeededTask task) {
+        ObjectNode submission = mapper.createObjectNode()
+            .put("submissionId", "")
+            .put("exerciseId", String.valueOf(task.dispatcherId()))
+            .put("taskType", (task.bpmn() ? ETutorVocabulary.BpmnTask : ETutorVocabulary.SQLTask).getURI())
+            .put("maxPoints", "10");
+        submission.putObject("passedAttributes")
+            .put("action", "submit")
+            .put("submission", "SELECT * FROM exam")
+            .put("diagnoseLevel", "0");
+        submission.putObject("passedParameters");
+        return submission.toString();
+    }
+
+    /**
+     * A task of the seeded course.
+     *
+     * @param dispatcherId the id of the task in the dispatcher
+     * @param bpmn         whether the task is a BPMN task
+     */
+    private record SeededTask(int dispatcherId, boolean bpmn) {
+    }
+
+    /**
+     * The response of a request.
+     *
+     * @param status the status code, {@code 0} if the request could not be processed
+     * @param body   the body
+     */
+    private record Response(int status, String body) {
+
+        /**
+         * Returns whether the request succeeded.
+         *
+         * @return {@code true} if the status is a 2xx status code, otherwise {@code false}
+         */
+        boolean successful() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
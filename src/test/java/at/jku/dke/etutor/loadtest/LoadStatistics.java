@@ -0,0 +1,110 @@
+package at.jku.dke.etutor.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the latencies, failures and Fuseki round-trips of the requests of a load test per endpoint
+ * and formats them as report with the 50th, 95th and 99th percentile of the latencies.
+ *
+ * @author fne
+ */
+public class LoadStatistics {
+
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    /**
+     * Records a request.
+     *
+     * @param endpoint   the name of the endpoint
+     * @param nanos      the latency in nanoseconds
+     * @param roundTrips the number of Fuseki round-trips of the request
+     * @param failed     whether the request failed
+     */
+    public synchronized void record(String endpoint, long nanos, long roundTrips, boolean failed) {
+        endpoints.computeIfAbsent(endpoint, name -> new Endpoint()).record(nanos, roundTrips, failed);
+    }
+
+    /**
+     * Returns the number of requests of the given endpoint.
+     *
+     * @param endpoint the name of the endpoint
+     * @return the number of requests
+     */
+    public synchronized int getRequests(String endpoint) {
+        Endpoint statistics = endpoints.get(endpoint);
+        return statistics == null ? 0 : statistics.latencies.size();
+    }
+
+    /**
+     * Returns the number of failed requests of all endpoints.
+     *
+     * @return the number of failed requests
+     */
+    public synchronized int getFailures() {
+        return endpoints.values().stream().mapToInt(endpoint -> endpoint.failures).sum();
+    }
+
+    /**
+     * Formats the statistics as table, one row per endpoint.
+     *
+     * @return the report
+     */
+    public synchronized String format() {
+        StringBuilder report = new StringBuilder(String.format("%-22s %9s %9s %9s %9s %9s %12s%n",
+            "endpoint", "requests", "failures", "p50 ms", "p95 ms", "p99 ms", "round-trips"));
+
+        endpoints.forEach((name, endpoint) -> {
+            List<Long> latencies = new ArrayList<>(endpoint.latencies);
+            Collections.sort(latencies);
+
+            report.append(String.format("%-22s %9d %9d %9.1f %9.1f %9.1f %12.2f%n", name, latencies.size(), endpoint.failures,
+                percentile(latencies, 0.5), percentile(latencies, 0.95), percentile(latencies, 0.99),
+                latencies.isEmpty() ? 0 : (double) endpoint.roundTrips / latencies.size()));
+        });
+        return report.toString();
+    }
+
+    /**
+     * Returns the given percentile of the sorted latencies (nearest rank).
+     *
+     * @param latencies the sorted latencies in nanoseconds
+     * @param quantile  the quantile, e.g. {@code 0.95}
+     * @return the percentile in milliseconds
+     */
+    static double percentile(List<Long> latencies, double quantile) {
+        if (latencies.isEmpty()) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * latencies.size());
+        return latencies.get(Math.max(rank, 1) - 1) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * The statistics of one endpoint.
+     */
+    private static class Endpoint {
+        private final List<Long> latencies = new ArrayList<>();
+        private long roundTrips;
+        private int failures;
+
+        /**
+         * Records a request.
+         *
+         * @param nanos      the latency in nanoseconds
+         * @param roundTrips the number of Fuseki round-trips
+         * @param failed     whether the request failed
+         */
+        private void record(long nanos, long roundTrips, boolean failed) {
+            latencies.add(nanos);
+            this.roundTrips += roundTrips;
+            if (failed) {
+                failures++;
+            }
+        }
+    }
+}
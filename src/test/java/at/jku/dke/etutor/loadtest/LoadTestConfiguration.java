@@ -0,0 +1,29 @@
+package at.jku.dke.etutor.loadtest;
+
+import at.jku.dke.etutor.helper.LocalRDFConnectionFactory;
+import at.jku.dke.etutor.helper.RDFConnectionFactory;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Test configuration which runs the application against an in-memory dataset
+ * and counts the requests to the dataset.
+ *
+ * @author fne
+ */
+@TestConfiguration
+public class LoadTestConfiguration {
+
+    private final RoundTripCountingRDFConnectionFactory connectionFactory =
+        new RoundTripCountingRDFConnectionFactory(new LocalRDFConnectionFactory());
+
+    /**
+     * Returns the counting RDF connection factory, which replaces the Fuseki connection factory.
+     *
+     * @return the RDF connection factory
+     */
+    @Bean
+    public RDFConnectionFactory getRDFConnection() {
+        return connectionFactory;
+    }
+}
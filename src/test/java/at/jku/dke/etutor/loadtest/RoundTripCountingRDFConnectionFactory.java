@@ -0,0 +1,137 @@
+package at.jku.dke.etutor.loadtest;
+
+import at.jku.dke.etutor.helper.RDFConnectionFactory;
+import org.apache.jena.rdfconnection.RDFConnection;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RDF connection factory which counts the requests that would be sent to Fuseki, i.e. the queries,
+ * updates and graph store operations of the connections of the wrapped factory.
+ * <p>
+ * The requests are counted in total and for the current thread between {@link #beginCounting()}
+ * and {@link #endCounting()}, so that they can be attributed to a synchronously processed HTTP request.
+ *
+ * @author fne
+ */
+public class RoundTripCountingRDFConnectionFactory implements RDFConnectionFactory {
+
+    private static final List<String> ROUND_TRIP_PREFIXES = List.of("query", "update", "load", "put", "fetch", "delete");
+
+    private final RDFConnectionFactory delegate;
+    private final LongAdder total = new LongAdder();
+    private final ThreadLocal<long[]> current = new ThreadLocal<>();
+
+    /**
+     * Constructor.
+     *
+     * @param delegate the factory whose connections are counted
+     */
+    public RoundTripCountingRDFConnectionFactory(RDFConnectionFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Returns a connection of the wrapped factory, whose requests are counted.
+     *
+     * @return the counting connection
+     */
+    @Override
+    public RDFConnection getRDFConnection() {
+        RDFConnection connection = delegate.getRDFConnection();
+
+        return (RDFConnection) Proxy.newProxyInstance(RDFConnection.class.getClassLoader(),
+            new Class<?>[]{RDFConnection.class}, (proxy, method, args) -> {
+                if (isRoundTrip(method)) {
+                    count();
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getCause();
+                }
+            });
+    }
+
+    /**
+     * Clears the dataset (only works in embedded mode).
+     */
+    @Override
+    public void clearDataset() {
+        delegate.clearDataset();
+    }
+
+    /**
+     * Returns how often the dataset has been cleared.
+     *
+     * @return the number of times the dataset has been cleared
+     */
+    @Override
+    public long getClearCount() {
+        return delegate.getClearCount();
+    }
+
+    /**
+     * Returns whether a hashtag replacement is needed or not.
+     *
+     * @return {@code true} if a hashtag replacement is needed, otherwise {@code false}
+     */
+    @Override
+    public boolean needsHashtagReplacement() {
+        return delegate.needsHashtagReplacement();
+    }
+
+    /**
+     * Starts counting the requests of the current thread.
+     */
+    public void beginCounting() {
+        current.set(new long[1]);
+    }
+
+    /**
+     * Stops counting the requests of the current thread.
+     *
+     * @return the number of requests since {@link #beginCounting()}
+     */
+    public long endCounting() {
+        long[] count = current.get();
+        current.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    /**
+     * Returns the total number of requests.
+     *
+     * @return the total number of requests
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * Counts a request.
+     */
+    private void count() {
+        total.increment();
+
+        long[] count = current.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    /**
+     * Returns whether the given method sends a request to the SPARQL endpoint. Default methods
+     * like {@code querySelect} are invoked on the wrapped connection, so that a request is counted once.
+     *
+     * @param method the invoked method
+     * @return {@code true} if the method sends a request, otherwise {@code false}
+     */
+    private static boolean isRoundTrip(Method method) {
+        return ROUND_TRIP_PREFIXES.stream().anyMatch(method.getName()::startsWith);
+    }
+}
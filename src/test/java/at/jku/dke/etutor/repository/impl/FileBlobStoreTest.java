@@ -0,0 +1,154 @@
+package at.jku.dke.etutor.repository.impl;
+
+import at.jku.dke.etutor.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the {@code FileBlobStore} class.
+ *
+ * @author fne
+ */
+public class FileBlobStoreTest {
+
+    private static final byte[] CONTENT = "eTutor++ file content".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path directory;
+
+    private FileBlobStore fileBlobStore;
+
+    /**
+     * Method which initializes the store before each run.
+     */
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getFileStorage().setDirectory(directory.toString());
+
+        fileBlobStore = new FileBlobStore(applicationProperties);
+    }
+
+    /**
+     * Tests storing and reading a blob.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testStageAndPublish() throws Exception {
+        FileBlobStore.StagedBlob blob = fileBlobStore.stage(new ByteArrayInputStream(CONTENT));
+
+        assertThat(blob.size()).isEqualTo(CONTENT.length);
+        assertThat(blob.key()).hasSize(64);
+        assertThat(fileBlobStore.exists(blob.key())).isFalse();
+
+        assertThat(fileBlobStore.publish(blob)).isTrue();
+        try (InputStream inputStream = fileBlobStore.open(blob.key())) {
+            assertThat(inputStream.readAllBytes()).isEqualTo(CONTENT);
+        }
+        assertThat(fileBlobStore.getResource(blob.key()).contentLength()).isEqualTo(CONTENT.length);
+        assertThat(regularFileCount()).isEqualTo(1);
+    }
+
+    /**
+     * Tests that identical contents are stored once.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testDeduplication() throws Exception {
+        FileBlobStore.StagedBlob first = fileBlobStore.stage(new ByteArrayInputStream(CONTENT));
+        FileBlobStore.StagedBlob second = fileBlobStore.stage(CONTENT);
+
+        assertThat(second.key()).isEqualTo(first.key());
+        assertThat(second.tempFile()).isNull();
+
+        assertThat(fileBlobStore.publish(first)).isTrue();
+        assertThat(fileBlobStore.publish(second)).isFalse();
+        assertThat(fileBlobStore.publish(fileBlobStore.stage(new ByteArrayInputStream(CONTENT)))).isFalse();
+        assertThat(regularFileCount()).isEqualTo(1);
+
+        FileBlobStore.StagedBlob other = fileBlobStore.stage("other content".getBytes(StandardCharsets.UTF_8));
+        assertThat(other.key()).isNotEqualTo(first.key());
+        assertThat(fileBlobStore.publish(other)).isTrue();
+        assertThat(regularFileCount()).isEqualTo(2);
+    }
+
+    /**
+     * Tests the deletion of blobs and temporary files.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testDelete() throws Exception {
+        FileBlobStore.StagedBlob blob = fileBlobStore.stage(CONTENT);
+        fileBlobStore.publish(blob);
+        FileBlobStore.StagedBlob staged = fileBlobStore.stage(new ByteArrayInputStream(CONTENT));
+
+        Instant future = Instant.now().plusSeconds(60);
+        assertThat(fileBlobStore.getKeysModifiedBefore(future)).containsExactly(blob.key());
+        assertThat(fileBlobStore.getKeysModifiedBefore(Instant.now().minusSeconds(60))).isEmpty();
+
+        fileBlobStore.delete(blob.key());
+        fileBlobStore.delete(blob.key());
+        assertThat(fileBlobStore.exists(blob.key())).isFalse();
+
+        assertThat(fileBlobStore.deleteTemporaryFiles(future)).isEqualTo(1);
+        assertThat(Files.exists(staged.tempFile())).isFalse();
+    }
+
+    /**
+     * Tests that a blob which has been published again since the removal is not deleted.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testDeleteIfNotModifiedSince() throws Exception {
+        FileBlobStore.StagedBlob blob = fileBlobStore.stage(CONTENT);
+        fileBlobStore.publish(blob);
+        Path path = directory.resolve(blob.key().substring(0, 2)).resolve(blob.key());
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().minusSeconds(120)));
+
+        Instant removalTime = Instant.now().minusSeconds(60);
+        fileBlobStore.publish(fileBlobStore.stage(CONTENT));
+        fileBlobStore.deleteIfNotModifiedSince(blob.key(), removalTime);
+        assertThat(fileBlobStore.exists(blob.key())).isTrue();
+
+        fileBlobStore.deleteIfNotModifiedSince(blob.key(), Instant.now().plusSeconds(60));
+        assertThat(fileBlobStore.exists(blob.key())).isFalse();
+        fileBlobStore.deleteIfNotModifiedSince(blob.key(), Instant.now().plusSeconds(60));
+    }
+
+    /**
+     * Tests that keys which could escape the storage directory are rejected.
+     */
+    @Test
+    public void testInvalidKey() {
+        assertThatThrownBy(() -> fileBlobStore.open("../secret")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> fileBlobStore.open(null)).isInstanceOf(NullPointerException.class);
+    }
+
+    /**
+     * Returns the number of regular files in the storage directory.
+     *
+     * @return the number of files
+     * @throws Exception must not be thrown
+     */
+    private long regularFileCount() throws Exception {
+        try (var files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+}
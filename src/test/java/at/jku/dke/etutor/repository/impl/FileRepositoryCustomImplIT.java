@@ -0,0 +1,91 @@
+package at.jku.dke.etutor.repository.impl;
+
+import at.jku.dke.etutor.EtutorPlusPlusApp;
+import at.jku.dke.etutor.config.RDFConnectionTestConfiguration;
+import at.jku.dke.etutor.domain.FileBlob;
+import at.jku.dke.etutor.repository.FileRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the {@code FileRepositoryCustomImpl} class.
+ *
+ * @author fne
+ */
+@SpringBootTest(classes = EtutorPlusPlusApp.class)
+@ContextConfiguration(classes = RDFConnectionTestConfiguration.class)
+public class FileRepositoryCustomImplIT {
+
+    private static final int UPLOADS = 4;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private FileRepository fileRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Tests that concurrent uploads of the same new content all succeed and share one reference counted content.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testConcurrentUploadsOfSameContent() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(UPLOADS);
+
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                byte[] content = ("concurrent upload " + round + " " + System.nanoTime()).getBytes(StandardCharsets.UTF_8);
+                CyclicBarrier barrier = new CyclicBarrier(UPLOADS);
+
+                List<Future<Long>> uploads = new ArrayList<>();
+                for (int i = 0; i < UPLOADS; i++) {
+                    uploads.add(executor.submit(() -> {
+                        barrier.await(10, TimeUnit.SECONDS);
+                        return transaction.execute(status -> fileRepository.uploadFile("upload.txt", "text/plain", content, content.length));
+                    }));
+                }
+
+                List<Long> ids = new ArrayList<>();
+                for (Future<Long> upload : uploads) {
+                    ids.add(upload.get(30, TimeUnit.SECONDS));
+                }
+                assertThat(ids).doesNotContainNull().doesNotHaveDuplicates();
+
+                String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+                FileBlob fileBlob = transaction.execute(status -> entityManager.find(FileBlob.class, hash));
+                assertThat(fileBlob).isNotNull();
+                assertThat(fileBlob.getReferenceCount()).isEqualTo(UPLOADS);
+                assertThat(fileBlob.getReleaseTime()).isNull();
+
+                transaction.executeWithoutResult(status -> ids.forEach(fileRepository::deleteFile));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package at.jku.dke.etutor.service;
+
+import at.jku.dke.etutor.helper.LocalRDFConnectionFactory;
+import at.jku.dke.etutor.helper.RDFConnectionFactory;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.rdfconnection.RDFConnection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the {@code AbstractSPARQLEndpointService} class.
+ *
+ * @author fne
+ */
+public class AbstractSPARQLEndpointServiceTest {
+
+    private static final String PREFIX = "PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>\n";
+
+    private AtomicInteger connections;
+    private TestService service;
+
+    /**
+     * Method which initializes the dataset and the service before each run.
+     */
+    @BeforeEach
+    public void setup() {
+        RDFConnectionFactory localFactory = new LocalRDFConnectionFactory(DatasetFactory.createTxnMem());
+        connections = new AtomicInteger();
+
+        service = new TestService(new RDFConnectionFactory() {
+            @Override
+            public RDFConnection getRDFConnection() {
+                connections.incrementAndGet();
+                return localFactory.getRDFConnection();
+            }
+
+            @Override
+            public void clearDataset() {
+                localFactory.clearDataset();
+            }
+
+            @Override
+            public boolean needsHashtagReplacement() {
+                return localFactory.needsHashtagReplacement();
+            }
+        });
+    }
+
+    /**
+     * Tests that the updates of a unit of work are sent in one request and executed in order.
+     */
+    @Test
+    public void testUnitOfWork() {
+        List<String> actions = new ArrayList<>();
+        AbstractSPARQLEndpointService.UnitOfWork unitOfWork = service.beginUnitOfWork();
+
+        ParameterizedSparqlString insertQry = new ParameterizedSparqlString(PREFIX + "INSERT DATA { etutor:task etutor:hasPoints 1. }");
+        ParameterizedSparqlString updateQry = new ParameterizedSparqlString(PREFIX + """
+            DELETE { ?task etutor:hasPoints ?old. }
+            INSERT { ?task etutor:hasPoints ?new. }
+            WHERE { ?task etutor:hasPoints ?old. }
+            """);
+        updateQry.setLiteral("?new", 5);
+
+        unitOfWork.add(insertQry)
+            .afterCommit(() -> actions.add("first"))
+            .add(updateQry)
+            .afterCommit(() -> actions.add("second"));
+
+        assertThat(unitOfWork.isEmpty()).isFalse();
+        assertThat(connections.get()).isZero();
+        assertThat(actions).isEmpty();
+
+        unitOfWork.commit();
+
+        assertThat(connections.get()).isEqualTo(1);
+        assertThat(actions).containsExactly("first", "second");
+        assertThat(service.getPoints()).containsExactly(5);
+
+        assertThatThrownBy(unitOfWork::commit).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> unitOfWork.add(insertQry)).isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * Tests that committing an empty unit of work does not open a connection.
+     */
+    @Test
+    public void testEmptyUnitOfWork() {
+        AtomicInteger actions = new AtomicInteger();
+        AbstractSPARQLEndpointService.UnitOfWork unitOfWork = service.beginUnitOfWork();
+        unitOfWork.afterCommit(actions::incrementAndGet);
+
+        assertThat(unitOfWork.isEmpty()).isTrue();
+        unitOfWork.commit();
+
+        assertThat(connections.get()).isZero();
+        assertThat(actions.get()).isEqualTo(1);
+    }
+
+    /**
+     * Service which is used for testing the abstract base class.
+     */
+    private static class TestService extends AbstractSPARQLEndpointService {
+
+        /**
+         * Constructor.
+         *
+         * @param rdfConnectionFactory the rdf connection factory
+         */
+        TestService(RDFConnectionFactory rdfConnectionFactory) {
+            super(rdfConnectionFactory);
+        }
+
+        /**
+         * Returns the stored points.
+         *
+         * @return the list of points
+         */
+        List<Integer> getPoints() {
+            List<Integer> points = new ArrayList<>();
+            try (RDFConnection connection = getConnection()) {
+                connection.querySelect(PREFIX + "SELECT ?points WHERE { ?task etutor:hasPoints ?points. }",
+                    solution -> points.add(solution.getLiteral("?points").getInt()));
+            }
+            return points;
+        }
+    }
+}
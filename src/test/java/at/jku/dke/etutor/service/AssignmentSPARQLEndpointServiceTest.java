@@ -8,8 +8,11 @@ import at.jku.dke.etutor.service.dto.NewLearningGoalDTO;
 import at.jku.dke.etutor.service.dto.TaskDisplayDTO;
 import at.jku.dke.etutor.service.dto.taskassignment.*;
 import at.jku.dke.etutor.service.exception.InternalTaskAssignmentNonexistentException;
+import at.jku.dke.etutor.service.exception.InvalidContinuationTokenException;
 import at.jku.dke.etutor.service.exception.LearningGoalAlreadyExistsException;
 import at.jku.dke.etutor.service.exception.TaskGroupAlreadyExistentException;
+import at.jku.dke.etutor.service.pagination.KeysetSlice;
+import at.jku.dke.etutor.service.search.SearchIndex;
 import one.util.streamex.StreamEx;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.DatasetFactory;
@@ -50,8 +53,13 @@ public class AssignmentSPARQLEndpointServiceTest {
     public void setup() throws LearningGoalAlreadyExistsException {
         Dataset dataset = DatasetFactory.createTxnMem();
         rdfConnectionFactory = new LocalRDFConnectionFactory(dataset);
-        sparqlEndpointService = new SPARQLEndpointService(rdfConnectionFactory);
-        assignmentSPARQLEndpointService = new AssignmentSPARQLEndpointService(rdfConnectionFactory);
+        LearningGoalGraphCache learningGoalGraphCache = new LearningGoalGraphCache(rdfConnectionFactory);
+        SearchIndex searchIndex = new SearchIndex(rdfConnectionFactory);
+        TaskAssignmentCache taskAssignmentCache = new TaskAssignmentCache(rdfConnectionFactory);
+        sparqlEndpointService = new SPARQLEndpointService(rdfConnectionFactory, learningGoalGraphCache, searchIndex, taskAssignmentCache,
+            new LearningGoalForestCache(rdfConnectionFactory));
+        assignmentSPARQLEndpointService = new AssignmentSPARQLEndpointService(rdfConnectionFactory, learningGoalGraphCache, searchIndex,
+            taskAssignmentCache);
 
         sparqlEndpointService.insertScheme();
 
@@ -384,6 +392,46 @@ public class AssignmentSPARQLEndpointServiceTest {
         assertThat(optionalTaskFromDb).isEmpty();
     }
 
+    /**
+     * Tests that the cached task assignment reflects updates and removals.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testGetTaskAssignmentByInternalIdAfterUpdateAndRemoval() throws Exception {
+        var goals = sparqlEndpointService.getVisibleLearningGoalsForUser(OWNER, false);
+        var testGoal1 = goals.first();
+
+        NewTaskAssignmentDTO newTaskAssignmentDTO = new NewTaskAssignmentDTO();
+        newTaskAssignmentDTO.setCreator("Florian");
+        newTaskAssignmentDTO.setHeader("Testassignment");
+        newTaskAssignmentDTO.setOrganisationUnit("DKE");
+        newTaskAssignmentDTO.addLearningGoal(new LearningGoalDisplayDTO(testGoal1.getId(), testGoal1.getName()));
+        newTaskAssignmentDTO.setTaskDifficultyId(ETutorVocabulary.Medium.getURI());
+        newTaskAssignmentDTO.setTaskAssignmentTypeId(ETutorVocabulary.NoType.getURI());
+
+        var assignment = assignmentSPARQLEndpointService.insertNewTaskAssignment(newTaskAssignmentDTO, OWNER);
+        String id = assignment.getId().substring(assignment.getId().lastIndexOf('#') + 1);
+
+        assertThat(assignmentSPARQLEndpointService.getTaskAssignmentByInternalId(id).orElseThrow().getHeader())
+            .isEqualTo("Testassignment");
+
+        assignment.setHeader("Newheader");
+        assignmentSPARQLEndpointService.updateTaskAssignment(assignment);
+
+        TaskAssignmentDTO cachedAssignment = assignmentSPARQLEndpointService.getTaskAssignmentByInternalId(id).orElseThrow();
+        assertThat(cachedAssignment.getHeader()).isEqualTo("Newheader");
+        assertThat(cachedAssignment.getLearningGoalIds()).extracting(LearningGoalDisplayDTO::getId)
+            .containsExactly(testGoal1.getId());
+
+        cachedAssignment.setHeader("Modified");
+        assertThat(assignmentSPARQLEndpointService.getTaskAssignmentByInternalId(id).orElseThrow().getHeader())
+            .isEqualTo("Newheader");
+
+        assignmentSPARQLEndpointService.removeTaskAssignment(id);
+        assertThat(assignmentSPARQLEndpointService.getTaskAssignmentByInternalId(id)).isEmpty();
+    }
+
     /**
      * Tests the find all tasks method.‚
      */
@@ -402,6 +450,32 @@ public class AssignmentSPARQLEndpointServiceTest {
         assertThat(slice.hasNext()).isTrue();
     }
 
+    /**
+     * Tests that the unfiltered task list is paged by continuation tokens.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testFindAllTasksByContinuationToken() throws Exception {
+        int cnt = insertTestAssignmentsForFulltextSearch();
+        List<String> headers = new ArrayList<>();
+
+        KeysetSlice<TaskDisplayDTO> slice = assignmentSPARQLEndpointService.findAllTasks(OWNER, null, 2);
+        StreamEx.of(slice.getContent()).map(TaskDisplayDTO::getHeader).into(headers);
+        while (slice.hasNext()) {
+            assertThat(slice.getContent()).hasSize(2);
+            slice = assignmentSPARQLEndpointService.findAllTasks(OWNER, slice.getContinuationToken().orElseThrow(), 2);
+            StreamEx.of(slice.getContent()).map(TaskDisplayDTO::getHeader).into(headers);
+        }
+
+        assertThat(headers)
+            .hasSize(cnt)
+            .containsExactly("Aufgabe1", "Beispielaufgabe", "New header for", "Test123", "Testheader");
+
+        assertThatThrownBy(() -> assignmentSPARQLEndpointService.findAllTasks(OWNER, "invalid", 2))
+            .isInstanceOf(InvalidContinuationTokenException.class);
+    }
+
     /**
      * Tests the get assigned learning goal ids of task assignment method.
      *
@@ -533,6 +607,32 @@ public class AssignmentSPARQLEndpointServiceTest {
         assertThat(assignmentSPARQLEndpointService.getTaskGroupByName(name).orElseThrow().getDescription().equals("TestDescription2"));
     }
 
+    /**
+     * Tests that the cached task group reflects modifications and the deletion.
+     *
+     * @throws TaskGroupAlreadyExistentException must not be thrown
+     */
+    @Test
+    public void testGetTaskGroupByNameAfterModificationAndDeletion() throws TaskGroupAlreadyExistentException {
+        var name = "TestGroup";
+        var newTaskGroupDTO = new NewTaskGroupDTO();
+        newTaskGroupDTO.setName(name);
+        newTaskGroupDTO.setTaskGroupTypeId(ETutorVocabulary.NoTypeTaskGroup.toString());
+        newTaskGroupDTO.setDescription("TestDescription1");
+
+        var taskGroupDTO = assignmentSPARQLEndpointService.createNewTaskGroup(newTaskGroupDTO, "admin");
+        assertThat(assignmentSPARQLEndpointService.getTaskGroupByName(name).orElseThrow().getDescription())
+            .isEqualTo("TestDescription1");
+
+        taskGroupDTO.setDescription("TestDescription2");
+        assignmentSPARQLEndpointService.modifyTaskGroup(taskGroupDTO);
+        assertThat(assignmentSPARQLEndpointService.getTaskGroupByName(name).orElseThrow().getDescription())
+            .isEqualTo("TestDescription2");
+
+        assignmentSPARQLEndpointService.deleteTaskGroup(name);
+        assertThat(assignmentSPARQLEndpointService.getTaskGroupByName(name)).isEmpty();
+    }
+
     @Test
     public void testModifySQLTaskGroup() throws TaskGroupAlreadyExistentException {
         var name = "TestGroup";
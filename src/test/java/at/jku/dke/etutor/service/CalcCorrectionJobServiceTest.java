@@ -0,0 +1,125 @@
+package at.jku.dke.etutor.service;
+
+import at.jku.dke.etutor.calc.models.Feedback;
+import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.service.dto.student.CalcCorrectionJobDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the {@code CalcCorrectionJobService} class.
+ *
+ * @author fne
+ */
+public class CalcCorrectionJobServiceTest {
+
+    private static final String STUDENT = "k11805541";
+    private static final String OTHER_STUDENT = "k11805542";
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private StudentService studentService;
+    private CalcCorrectionJobService jobService;
+
+    /**
+     * Method which initializes the service before each run. The corrections block until they are released.
+     */
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCalcCorrection().setWorkerThreads(1);
+        applicationProperties.getCalcCorrection().setQueueCapacity(1);
+
+        studentService = mock(StudentService.class);
+        when(studentService.correctCalcTask(anyLong(), anyLong(), anyLong())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return new Feedback(true, "correct");
+        });
+        jobService = new CalcCorrectionJobService(studentService, applicationProperties);
+    }
+
+    /**
+     * Shuts the worker pool down after each run.
+     */
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        jobService.shutdown();
+    }
+
+    /**
+     * Tests that an equal job of a student is de-duplicated while it is in flight.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testInFlightJobIsDeduplicated() throws Exception {
+        var job = jobService.submit(STUDENT, 1, 2, 3);
+        var sameJob = jobService.submit(STUDENT, 1, 2, 3);
+        var otherJob = jobService.submit(OTHER_STUDENT, 1, 2, 3);
+
+        assertThat(sameJob).isSameAs(job);
+        assertThat(otherJob).isNotSameAs(job);
+
+        release.countDown();
+        assertThat(job.getResult().get(10, TimeUnit.SECONDS).getTextualFeedback()).isEqualTo("correct");
+        otherJob.getResult().get(10, TimeUnit.SECONDS);
+        verify(studentService, times(2)).correctCalcTask(1L, 2L, 3L);
+
+        CalcCorrectionJobDTO status = jobService.getJob(job.toDTO().jobId(), STUDENT).orElseThrow();
+        assertThat(status.status()).isEqualTo(CalcCorrectionJobService.JobStatus.COMPLETED.name());
+        assertThat(status.correct()).isTrue();
+        assertThat(status.feedback()).isEqualTo("correct");
+        assertThat(status.finished()).isNotNull();
+
+        assertThat(jobService.submit(STUDENT, 1, 2, 3)).isNotSameAs(job);
+    }
+
+    /**
+     * Tests that a student can only see the own jobs.
+     */
+    @Test
+    public void testJobOfOtherStudentIsNotVisible() {
+        var job = jobService.submit(STUDENT, 1, 2, 3);
+
+        assertThat(jobService.getJob(job.toDTO().jobId(), STUDENT)).isPresent();
+        assertThat(jobService.getJob(job.toDTO().jobId(), OTHER_STUDENT)).isEmpty();
+        assertThat(jobService.getJob("unknown", STUDENT)).isEmpty();
+    }
+
+    /**
+     * Tests that jobs are rejected if the queue is full.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testJobIsRejectedIfQueueIsFull() throws Exception {
+        jobService.submit(STUDENT, 1, 2, 3);
+        // wait until the first job is running, so that the next job occupies the queue
+        for (int i = 0; i < 100 && jobService.getJob(jobService.submit(STUDENT, 1, 2, 3).toDTO().jobId(), STUDENT)
+            .orElseThrow().status().equals(CalcCorrectionJobService.JobStatus.QUEUED.name()); i++) {
+            Thread.sleep(50);
+        }
+        jobService.submit(STUDENT, 1, 2, 4);
+
+        var rejected = jobService.submit(STUDENT, 1, 2, 5);
+
+        assertThat(rejected.toDTO().status()).isEqualTo(CalcCorrectionJobService.JobStatus.FAILED.name());
+        assertThatThrownBy(() -> rejected.getResult().get()).isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+}
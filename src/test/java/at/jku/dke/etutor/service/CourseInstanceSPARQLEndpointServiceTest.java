@@ -22,6 +22,7 @@ import java.time.Instant;
 import java.util.*;
 
 import at.jku.dke.etutor.service.exception.CourseNotFoundException;
+import at.jku.dke.etutor.service.search.SearchIndex;
 import liquibase.integration.spring.SpringLiquibase;
 import one.util.streamex.StreamEx;
 import org.apache.jena.query.Dataset;
@@ -103,9 +104,12 @@ public class CourseInstanceSPARQLEndpointServiceTest {
     public void setup() throws Exception {
         Dataset dataset = DatasetFactory.createTxnMem();
         rdfConnectionFactory = new LocalRDFConnectionFactory(dataset);
-        sparqlEndpointService = new SPARQLEndpointService(rdfConnectionFactory);
-        courseInstanceSPARQLEndpointService = new CourseInstanceSPARQLEndpointService(rdfConnectionFactory, userService);
-        exerciseSheetSPARQLEndpointService = new ExerciseSheetSPARQLEndpointService(rdfConnectionFactory);
+        sparqlEndpointService = new SPARQLEndpointService(rdfConnectionFactory, new LearningGoalGraphCache(rdfConnectionFactory),
+            new SearchIndex(rdfConnectionFactory), new TaskAssignmentCache(rdfConnectionFactory),
+            new LearningGoalForestCache(rdfConnectionFactory));
+        StudentProgressProjection studentProgressProjection = new StudentProgressProjection(rdfConnectionFactory);
+        courseInstanceSPARQLEndpointService = new CourseInstanceSPARQLEndpointService(rdfConnectionFactory, userService, studentProgressProjection);
+        exerciseSheetSPARQLEndpointService = new ExerciseSheetSPARQLEndpointService(rdfConnectionFactory, studentProgressProjection);
 
         sparqlEndpointService.insertScheme();
 
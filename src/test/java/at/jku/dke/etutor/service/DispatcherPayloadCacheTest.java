@@ -0,0 +1,127 @@
+package at.jku.dke.etutor.service;
+
+import at.jku.dke.etutor.config.ApplicationProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the {@code DispatcherPayloadCache} class.
+ *
+ * @author fne
+ */
+public class DispatcherPayloadCacheTest {
+
+    private static final String FIRST_UUID = "0f8fad5b-d9cb-469f-a165-70867728950e";
+    private static final String SECOND_UUID = "7c9e6679-7425-40de-944b-e07fc1f90ae7";
+    private static final String PAYLOAD = "{\"passedAttributes\":{\"submission\":\"SELECT * FROM t\"}}";
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that only successful responses are cached.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testCachesSuccessfulResponses() throws Exception {
+        DispatcherPayloadCache cache = new DispatcherPayloadCache(new ApplicationProperties());
+        AtomicInteger requests = new AtomicInteger();
+
+        ResponseEntity<String> notFound = cache.getAsync(DispatcherPayloadCache.PayloadType.GRADING, FIRST_UUID, uuid -> {
+            requests.incrementAndGet();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        }).get();
+        assertThat(notFound.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(cache.get(DispatcherPayloadCache.PayloadType.GRADING, FIRST_UUID)).isEmpty();
+
+        for (int i = 0; i < 3; i++) {
+            ResponseEntity<String> response = cache.getAsync(DispatcherPayloadCache.PayloadType.GRADING, FIRST_UUID, uuid -> {
+                requests.incrementAndGet();
+                return CompletableFuture.completedFuture(ResponseEntity.ok(PAYLOAD));
+            }).get();
+            assertThat(response.getBody()).isEqualTo(PAYLOAD);
+        }
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(cache.get(DispatcherPayloadCache.PayloadType.GRADING, FIRST_UUID.toUpperCase())).contains(PAYLOAD);
+        assertThat(cache.get(DispatcherPayloadCache.PayloadType.SUBMISSION, FIRST_UUID)).isEmpty();
+    }
+
+    /**
+     * Tests that concurrent requests for the same payload share one dispatcher request
+     * and that values which are not UUIDs are not cached.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testSharedAndUncachedRequests() throws Exception {
+        DispatcherPayloadCache cache = new DispatcherPayloadCache(new ApplicationProperties());
+        AtomicInteger requests = new AtomicInteger();
+        CompletableFuture<ResponseEntity<String>> pending = new CompletableFuture<>();
+
+        CompletableFuture<ResponseEntity<String>> first = cache.getAsync(DispatcherPayloadCache.PayloadType.SUBMISSION, FIRST_UUID, uuid -> {
+            requests.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<ResponseEntity<String>> second = cache.getAsync(DispatcherPayloadCache.PayloadType.SUBMISSION, FIRST_UUID, uuid -> {
+            requests.incrementAndGet();
+            return pending;
+        });
+        pending.complete(ResponseEntity.ok(PAYLOAD));
+
+        assertThat(first.get().getBody()).isEqualTo(PAYLOAD);
+        assertThat(second.get().getBody()).isEqualTo(PAYLOAD);
+        assertThat(requests.get()).isEqualTo(1);
+
+        for (int i = 0; i < 2; i++) {
+            cache.getAsync(DispatcherPayloadCache.PayloadType.SUBMISSION, "SELECT 1", uuid -> {
+                requests.incrementAndGet();
+                return CompletableFuture.completedFuture(ResponseEntity.ok(PAYLOAD));
+            }).get();
+        }
+        assertThat(requests.get()).isEqualTo(3);
+    }
+
+    /**
+     * Tests the on-disk tier and the prefetching of payloads.
+     */
+    @Test
+    public void testDiskTierAndPrefetch() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getDispatcherCache().setDiskDirectory(directory.toString());
+        DispatcherPayloadCache cache = new DispatcherPayloadCache(applicationProperties);
+        AtomicInteger requests = new AtomicInteger();
+
+        cache.prefetch(DispatcherPayloadCache.PayloadType.BPMN_SUBMISSION, List.of(FIRST_UUID, SECOND_UUID, FIRST_UUID, "legacy"), uuid -> {
+            requests.incrementAndGet();
+            return CompletableFuture.completedFuture(ResponseEntity.ok(uuid));
+        }, Duration.ofSeconds(10));
+        assertThat(requests.get()).isEqualTo(2);
+
+        DispatcherPayloadCache restarted = new DispatcherPayloadCache(applicationProperties);
+        assertThat(restarted.get(DispatcherPayloadCache.PayloadType.BPMN_SUBMISSION, FIRST_UUID)).contains(FIRST_UUID);
+        assertThat(restarted.get(DispatcherPayloadCache.PayloadType.BPMN_SUBMISSION, SECOND_UUID)).contains(SECOND_UUID);
+        assertThat(restarted.get(DispatcherPayloadCache.PayloadType.BPMN_GRADING, FIRST_UUID)).isEmpty();
+
+        assertThat(restarted.removeExpiredDiskEntries()).isZero();
+    }
+
+    /**
+     * Tests that payloads are weighed by their size in bytes.
+     */
+    @Test
+    public void testWeighsPayloadsInBytes() {
+        assertThat(DispatcherPayloadCache.weigh("")).isZero();
+        assertThat(DispatcherPayloadCache.weigh(PAYLOAD)).isEqualTo(2 * PAYLOAD.length());
+    }
+}
@@ -0,0 +1,162 @@
+package at.jku.dke.etutor.service;
+
+import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.service.dto.student.ExerciseSheetPdfJobDTO;
+import at.jku.dke.etutor.service.exception.StudentNotExistsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the {@code ExerciseSheetPdfRenderingService} class.
+ *
+ * @author fne
+ */
+public class ExerciseSheetPdfRenderingServiceTest {
+
+    private static final String COURSE_INSTANCE = "0e5e5f0d-7d2a-4c0b-9a51-2b0c8c2b7a11";
+    private static final String OTHER_COURSE_INSTANCE = "5d7b1c3a-1f8e-4e4b-8f0a-6a3d2e9c4b22";
+    private static final String SHEET = "a5a3a0d6-4c8c-4bd0-8b9a-7a7e3f7a7cb2";
+    private static final String STUDENT = "k11805541";
+    private static final String FIRST_TASK = "http://www.dke.uni-linz.ac.at/etutorpp/TaskAssignment#first";
+    private static final String SECOND_TASK = "http://www.dke.uni-linz.ac.at/etutorpp/TaskAssignment#second";
+    private static final long FILE_ID = 42;
+
+    private UploadFileService uploadFileService;
+    private ExerciseSheetPdfRenderingService renderingService;
+
+    /**
+     * Method which initializes the service before each run.
+     */
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getPdfRendering().setWorkerThreads(1);
+        applicationProperties.getPdfRendering().setQueueCapacity(10);
+
+        uploadFileService = mock(UploadFileService.class);
+        renderingService = new ExerciseSheetPdfRenderingService(mock(UserService.class), mock(ExerciseSheetSPARQLEndpointService.class),
+            mock(AssignmentSPARQLEndpointService.class), uploadFileService, applicationProperties);
+    }
+
+    /**
+     * Shuts the worker pool down after each run.
+     */
+    @AfterEach
+    public void tearDown() {
+        renderingService.shutdown();
+    }
+
+    /**
+     * Tests the content hash of the rendered values.
+     */
+    @Test
+    public void testContentHash() {
+        String hash = ExerciseSheetPdfRenderingService.computeContentHash(List.of(FIRST_TASK, SECOND_TASK));
+
+        assertThat(hash).hasSize(64);
+        assertThat(ExerciseSheetPdfRenderingService.computeContentHash(List.of(FIRST_TASK, SECOND_TASK))).isEqualTo(hash);
+        assertThat(ExerciseSheetPdfRenderingService.computeContentHash(List.of(SECOND_TASK, FIRST_TASK))).isNotEqualTo(hash);
+        assertThat(ExerciseSheetPdfRenderingService.computeContentHash(List.of(FIRST_TASK))).isNotEqualTo(hash);
+        assertThat(ExerciseSheetPdfRenderingService.computeContentHash(List.of("a\nb", "c")))
+            .isNotEqualTo(ExerciseSheetPdfRenderingService.computeContentHash(List.of("a", "b\nc")));
+        assertThat(ExerciseSheetPdfRenderingService.computeContentHash(Arrays.asList("", null)))
+            .isNotEqualTo(ExerciseSheetPdfRenderingService.computeContentHash(Arrays.asList(null, "")));
+    }
+
+    /**
+     * Tests that failed jobs are reported and can be submitted again.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testFailedJobIsResubmitted() throws Exception {
+        when(uploadFileService.uploadFile(anyString(), any(), anyString())).thenThrow(new StudentNotExistsException());
+        assertThat(renderingService.getLatestJob(COURSE_INSTANCE, SHEET, STUDENT)).isEmpty();
+
+        ExerciseSheetPdfJobDTO job = renderingService.submit(COURSE_INSTANCE, SHEET, STUDENT, Collections.emptyList(), id -> {});
+        assertThat(renderingService.getLatestJob(COURSE_INSTANCE, SHEET, STUDENT)).isPresent();
+
+        ExerciseSheetPdfJobDTO failed = awaitLatestJob(COURSE_INSTANCE);
+        assertThat(failed.jobId()).isEqualTo(job.jobId());
+        assertThat(failed.status()).isEqualTo(ExerciseSheetPdfRenderingService.JobStatus.FAILED.name());
+        assertThat(failed.fileId()).isNull();
+
+        ExerciseSheetPdfJobDTO resubmitted = renderingService.submit(COURSE_INSTANCE, SHEET, STUDENT, Collections.emptyList(), id -> {});
+        assertThat(resubmitted.jobId()).isNotEqualTo(job.jobId());
+    }
+
+    /**
+     * Tests that the callback of a request for an already rendered PDF is called with the file id
+     * and that jobs of different course instances are not shared.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testCompletedJobCallsCallback() throws Exception {
+        when(uploadFileService.uploadFile(anyString(), any(), anyString())).thenReturn(FILE_ID);
+        List<Long> renderedFileIds = new CopyOnWriteArrayList<>();
+
+        ExerciseSheetPdfJobDTO job = renderingService.submit(COURSE_INSTANCE, SHEET, STUDENT, Collections.emptyList(), renderedFileIds::add);
+        ExerciseSheetPdfJobDTO completed = awaitLatestJob(COURSE_INSTANCE);
+        assertThat(completed.status()).isEqualTo(ExerciseSheetPdfRenderingService.JobStatus.COMPLETED.name());
+        assertThat(completed.fileId()).isEqualTo(FILE_ID);
+        assertThat(renderedFileIds).containsExactly(FILE_ID);
+
+        List<Long> reusedFileIds = new ArrayList<>();
+        ExerciseSheetPdfJobDTO reused = renderingService.submit(COURSE_INSTANCE, SHEET, STUDENT, Collections.emptyList(), reusedFileIds::add);
+        assertThat(reused.jobId()).isEqualTo(job.jobId());
+        assertThat(reusedFileIds).containsExactly(FILE_ID);
+
+        ExerciseSheetPdfJobDTO other = renderingService.submit(OTHER_COURSE_INSTANCE, SHEET, STUDENT, Collections.emptyList(), renderedFileIds::add);
+        assertThat(other.jobId()).isNotEqualTo(job.jobId());
+        assertThat(awaitLatestJob(OTHER_COURSE_INSTANCE).status()).isEqualTo(ExerciseSheetPdfRenderingService.JobStatus.COMPLETED.name());
+        assertThat(renderedFileIds).containsExactly(FILE_ID, FILE_ID);
+        verify(uploadFileService, times(2)).uploadFile(anyString(), any(), anyString());
+    }
+
+    /**
+     * Tests the service with null values.
+     */
+    @Test
+    public void testNullValues() {
+        assertThatThrownBy(() -> renderingService.submit(null, SHEET, STUDENT, Collections.emptyList(), id -> {})).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> renderingService.submit(COURSE_INSTANCE, null, STUDENT, Collections.emptyList(), id -> {})).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> renderingService.getLatestJob(COURSE_INSTANCE, SHEET, null)).isInstanceOf(NullPointerException.class);
+    }
+
+    //region Private helper methods
+
+    /**
+     * Waits until the latest job of the student has been finished.
+     *
+     * @param courseInstance the course instance
+     * @return the status of the job
+     * @throws InterruptedException if the thread has been interrupted
+     */
+    private ExerciseSheetPdfJobDTO awaitLatestJob(String courseInstance) throws InterruptedException {
+        ExerciseSheetPdfJobDTO job = renderingService.getLatestJob(courseInstance, SHEET, STUDENT).orElseThrow();
+        for (int i = 0; i < 100 && job.finished() == null; i++) {
+            Thread.sleep(100);
+            job = renderingService.getLatestJob(courseInstance, SHEET, STUDENT).orElseThrow();
+        }
+        return job;
+    }
+
+    //endregion
+}
@@ -9,6 +9,7 @@ import at.jku.dke.etutor.service.dto.exercisesheet.ExerciseSheetDisplayDTO;
 import at.jku.dke.etutor.service.dto.exercisesheet.LearningGoalAssignmentDTO;
 import at.jku.dke.etutor.service.dto.exercisesheet.NewExerciseSheetDTO;
 import at.jku.dke.etutor.service.dto.taskassignment.LearningGoalDisplayDTO;
+import at.jku.dke.etutor.service.search.SearchIndex;
 import one.util.streamex.StreamEx;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.DatasetFactory;
@@ -46,8 +47,10 @@ public class ExerciseSheetSPARQLEndpointServiceTest {
     public void setup() throws Exception {
         Dataset dataset = DatasetFactory.createTxnMem();
         rdfConnectionFactory = new LocalRDFConnectionFactory(dataset);
-        sparqlEndpointService = new SPARQLEndpointService(rdfConnectionFactory);
-        exerciseSheetSPARQLEndpointService = new ExerciseSheetSPARQLEndpointService(rdfConnectionFactory);
+        sparqlEndpointService = new SPARQLEndpointService(rdfConnectionFactory, new LearningGoalGraphCache(rdfConnectionFactory),
+            new SearchIndex(rdfConnectionFactory), new TaskAssignmentCache(rdfConnectionFactory),
+            new LearningGoalForestCache(rdfConnectionFactory));
+        exerciseSheetSPARQLEndpointService = new ExerciseSheetSPARQLEndpointService(rdfConnectionFactory, new StudentProgressProjection(rdfConnectionFactory));
 
         sparqlEndpointService.insertScheme();
 
@@ -275,6 +278,28 @@ public class ExerciseSheetSPARQLEndpointServiceTest {
         assertThat(page.getContent()).hasSize(cnt - 1);
     }
 
+    /**
+     * Tests that the exercise sheet displays are paged by continuation tokens and only counted for the first page.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testGetFilteredExerciseSheetDisplayDTOsByContinuationToken() throws Exception {
+        int cnt = insertExerciseSheetsForFulltextSearch();
+
+        var page = exerciseSheetSPARQLEndpointService.getFilteredExerciseSheetDisplayDTOsAsPage("", null, cnt - 1);
+        assertThat(page.getTotalElements()).contains((long) cnt);
+        assertThat(page.getContent()).hasSize(cnt - 1);
+        assertThat(page.hasNext()).isTrue();
+
+        page = exerciseSheetSPARQLEndpointService.getFilteredExerciseSheetDisplayDTOsAsPage("", page.getContinuationToken().orElseThrow(), cnt - 1);
+        assertThat(page.getTotalElements()).isEmpty();
+        assertThat(page.getContent())
+            .extracting(ExerciseSheetDisplayDTO::getName)
+            .containsExactly("Testheader");
+        assertThat(page.hasNext()).isFalse();
+    }
+
     //region Private helper methods
 
     /**
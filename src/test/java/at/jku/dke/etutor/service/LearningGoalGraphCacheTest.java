@@ -0,0 +1,138 @@
+package at.jku.dke.etutor.service;
+
+import at.jku.dke.etutor.helper.LocalRDFConnectionFactory;
+import at.jku.dke.etutor.helper.RDFConnectionFactory;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdfconnection.RDFConnection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the {@code LearningGoalGraphCache} class.
+ *
+ * @author fne
+ */
+public class LearningGoalGraphCacheTest {
+
+    private static final String COURSE = "http://www.dke.uni-linz.ac.at/etutorpp/Course#Testcourse";
+    private static final String ROOT = "http://www.dke.uni-linz.ac.at/etutorpp/admin/Goal#Root";
+    private static final String SUB = "http://www.dke.uni-linz.ac.at/etutorpp/admin/Goal#Sub";
+    private static final String BASICS = "http://www.dke.uni-linz.ac.at/etutorpp/admin/Goal#Basics";
+    private static final String EASY_TASK = "http://www.dke.uni-linz.ac.at/etutorpp/TaskAssignment#easy";
+    private static final String HARD_TASK = "http://www.dke.uni-linz.ac.at/etutorpp/TaskAssignment#hard";
+
+    private static final String INSERT_GOALS = """
+        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+        PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#>
+        PREFIX xsd: <http://www.w3.org/2001/XMLSchema#>
+
+        INSERT DATA {
+          etutor:Easy rdf:value "1"^^xsd:int.
+          etutor:Hard rdf:value "3"^^xsd:int.
+
+          <http://www.dke.uni-linz.ac.at/etutorpp/Course#Testcourse> etutor:hasGoal <http://www.dke.uni-linz.ac.at/etutorpp/admin/Goal#Root>,
+                                                                              <http://www.dke.uni-linz.ac.at/etutorpp/admin/Goal#Basics>.
+          <http://www.dke.uni-linz.ac.at/etutorpp/admin/Goal#Root> etutor:hasSubGoal <http://www.dke.uni-linz.ac.at/etutorpp/admin/Goal#Sub>.
+          <http://www.dke.uni-linz.ac.at/etutorpp/admin/Goal#Sub> etutor:dependsOn <http://www.dke.uni-linz.ac.at/etutorpp/admin/Goal#Basics>.
+
+          <http://www.dke.uni-linz.ac.at/etutorpp/admin/Goal#Sub> etutor:hasTaskAssignment <http://www.dke.uni-linz.ac.at/etutorpp/TaskAssignment#easy>.
+          <http://www.dke.uni-linz.ac.at/etutorpp/admin/Goal#Basics> etutor:hasTaskAssignment <http://www.dke.uni-linz.ac.at/etutorpp/TaskAssignment#hard>.
+          <http://www.dke.uni-linz.ac.at/etutorpp/TaskAssignment#easy> a etutor:TaskAssignment;
+                                                                        etutor:hasTaskDifficulty etutor:Easy.
+          <http://www.dke.uni-linz.ac.at/etutorpp/TaskAssignment#hard> a etutor:TaskAssignment;
+                                                                        etutor:hasTaskDifficulty etutor:Hard.
+        }
+        """;
+
+    private LearningGoalGraphCache learningGoalGraphCache;
+    private RDFConnectionFactory rdfConnectionFactory;
+
+    /**
+     * Method which initializes the dataset and the cache before each run.
+     */
+    @BeforeEach
+    public void setup() {
+        Dataset dataset = DatasetFactory.createTxnMem();
+        rdfConnectionFactory = new LocalRDFConnectionFactory(dataset);
+        learningGoalGraphCache = new LearningGoalGraphCache(rdfConnectionFactory);
+
+        try (RDFConnection connection = rdfConnectionFactory.getRDFConnection()) {
+            connection.update(INSERT_GOALS);
+        }
+    }
+
+    /**
+     * Tests the course goals and the covered goals of an exercise sheet.
+     */
+    @Test
+    public void testCourseAndCoveredGoals() {
+        var graph = learningGoalGraphCache.getCourseGoalGraph(COURSE);
+
+        assertThat(graph.getCourseGoals()).containsExactlyInAnyOrder(ROOT, SUB, BASICS);
+        assertThat(graph.getCoveredGoals(List.of(ROOT))).containsExactlyInAnyOrder(ROOT, SUB, BASICS);
+        assertThat(graph.getCoveredGoals(List.of(BASICS))).containsExactly(BASICS);
+    }
+
+    /**
+     * Tests the computation of the allocation candidates.
+     */
+    @Test
+    public void testAllocationCandidates() {
+        var graph = learningGoalGraphCache.getCourseGoalGraph(COURSE);
+
+        var candidates = graph.getAllocationCandidates(List.of(ROOT), 3, Collections.emptySet(), Collections.emptySet());
+        assertThat(candidates).extracting(LearningGoalGraphCache.AllocationCandidate::task).contains(EASY_TASK, HARD_TASK);
+        assertThat(candidates).isSortedAccordingTo((a, b) -> Integer.compare(a.distance(), b.distance()));
+
+        candidates = graph.getAllocationCandidates(List.of(ROOT), 1, Collections.emptySet(), Set.of(EASY_TASK));
+        assertThat(candidates).isEmpty();
+
+        candidates = graph.getAllocationCandidates(List.of(ROOT), 3, Set.of(ROOT, SUB), Collections.emptySet());
+        assertThat(candidates).extracting(LearningGoalGraphCache.AllocationCandidate::goal).containsOnly(BASICS);
+    }
+
+    /**
+     * Tests the prerequisites of goals.
+     */
+    @Test
+    public void testOpenPrerequisites() {
+        var graph = learningGoalGraphCache.getCourseGoalGraph(COURSE);
+        Set<String> instanceGoals = Set.of(ROOT, SUB, BASICS);
+
+        assertThat(graph.hasOpenPrerequisites(SUB, instanceGoals, Collections.emptySet())).isTrue();
+        assertThat(graph.hasOpenPrerequisites(SUB, instanceGoals, Set.of(BASICS))).isFalse();
+        assertThat(graph.hasOpenPrerequisites(ROOT, instanceGoals, Collections.emptySet())).isFalse();
+    }
+
+    /**
+     * Tests that graphs are cached until they are invalidated.
+     */
+    @Test
+    public void testInvalidation() {
+        var graph = learningGoalGraphCache.getCourseGoalGraph(COURSE);
+        assertThat(learningGoalGraphCache.getCourseGoalGraph(COURSE)).isSameAs(graph);
+
+        learningGoalGraphCache.invalidateCourse(COURSE);
+        assertThat(learningGoalGraphCache.getCourseGoalGraph(COURSE)).isNotSameAs(graph);
+
+        graph = learningGoalGraphCache.getCourseGoalGraph(COURSE);
+        learningGoalGraphCache.invalidateAll();
+        assertThat(learningGoalGraphCache.getCourseGoalGraph(COURSE)).isNotSameAs(graph);
+    }
+
+    /**
+     * Tests the cache with null values.
+     */
+    @Test
+    public void testNullValues() {
+        assertThatThrownBy(() -> learningGoalGraphCache.getCourseGoalGraph(null)).isInstanceOf(NullPointerException.class);
+    }
+}
@@ -17,6 +17,9 @@ import at.jku.dke.etutor.service.dto.exercisesheet.NewExerciseSheetDTO;
 import at.jku.dke.etutor.service.dto.taskassignment.LearningGoalDisplayDTO;
 import at.jku.dke.etutor.service.dto.taskassignment.NewTaskAssignmentDTO;
 import at.jku.dke.etutor.service.dto.taskassignment.TaskAssignmentDTO;
+import at.jku.dke.etutor.service.export.CsvTableWriter;
+import at.jku.dke.etutor.service.export.TableWriter;
+import at.jku.dke.etutor.service.search.SearchIndex;
 import liquibase.integration.spring.SpringLiquibase;
 import one.util.streamex.StreamEx;
 import org.apache.commons.collections4.ListUtils;
@@ -40,6 +43,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ContextConfiguration;
 
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -113,19 +117,27 @@ public class LecturerSPARQLEndpointServiceTest {
     public void setup() throws Exception {
         Dataset dataset = DatasetFactory.createTxnMem();
         rdfConnectionFactory = new LocalRDFConnectionFactory(dataset);
-        lecturerSPARQLEndpointService = new LecturerSPARQLEndpointService(rdfConnectionFactory);
-        sparqlEndpointService = new SPARQLEndpointService(rdfConnectionFactory);
+        StudentProgressProjection studentProgressProjection = new StudentProgressProjection(rdfConnectionFactory);
+        lecturerSPARQLEndpointService = new LecturerSPARQLEndpointService(rdfConnectionFactory, studentProgressProjection);
+        LearningGoalGraphCache learningGoalGraphCache = new LearningGoalGraphCache(rdfConnectionFactory);
+        SearchIndex searchIndex = new SearchIndex(rdfConnectionFactory);
+        TaskAssignmentCache taskAssignmentCache = new TaskAssignmentCache(rdfConnectionFactory);
+        sparqlEndpointService = new SPARQLEndpointService(rdfConnectionFactory, learningGoalGraphCache, searchIndex, taskAssignmentCache,
+            new LearningGoalForestCache(rdfConnectionFactory));
         courseInstanceSPARQLEndpointService = new CourseInstanceSPARQLEndpointService(
             rdfConnectionFactory,
-            userService
+            userService,
+            studentProgressProjection
         );
-        assignmentSPARQLEndpointService = new AssignmentSPARQLEndpointService(rdfConnectionFactory);
+        assignmentSPARQLEndpointService = new AssignmentSPARQLEndpointService(rdfConnectionFactory, learningGoalGraphCache, searchIndex,
+            taskAssignmentCache);
         exerciseSheetSPARQLEndpointService = new ExerciseSheetSPARQLEndpointService(
-            rdfConnectionFactory
+            rdfConnectionFactory,
+            studentProgressProjection
         );
 
         //TODO: change to not null
-        studentService = new StudentService(exerciseSheetSPARQLEndpointService, userService, studentRepository, fileRepository, assignmentSPARQLEndpointService, rdfConnectionFactory, null, null, null, null);
+        studentService = new StudentService(exerciseSheetSPARQLEndpointService, userService, studentRepository, fileRepository, assignmentSPARQLEndpointService, rdfConnectionFactory, null, null, null, null, studentProgressProjection, learningGoalGraphCache, null, null);
 
         sparqlEndpointService.insertScheme();
 
@@ -426,4 +438,71 @@ public class LecturerSPARQLEndpointServiceTest {
         List<String> notReachedGoals = ListUtils.subtract(allGoalIds, reachedGoalIds);
         assertThat(notReachedGoals).isEmpty();
     }
+
+    /**
+     * Tests the csv export of the points of an exercise sheet, aggregated by student and per task.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testWriteAchievedPointsForExerciseSheet() throws Exception {
+        String courseInstanceUUID = courseInstanceUrl.substring(courseInstanceUrl.lastIndexOf('#') + 1);
+        String exerciseSheetUUID = exerciseSheetDTO.getId().substring(exerciseSheetDTO.getId().lastIndexOf('#') + 1);
+        insertPoints();
+
+        StringWriter aggregated = new StringWriter();
+        try (TableWriter writer = new CsvTableWriter(aggregated)) {
+            lecturerSPARQLEndpointService.writeAchievedPointsForExerciseSheet(courseInstanceUUID, exerciseSheetUUID, "aggregated", writer);
+        }
+
+        StringWriter perTask = new StringWriter();
+        try (TableWriter writer = new CsvTableWriter(perTask)) {
+            lecturerSPARQLEndpointService.writeAchievedPointsForExerciseSheet(courseInstanceUUID, exerciseSheetUUID, "task", writer);
+        }
+
+        assertThat(aggregated.toString()).isEqualTo("matriculationNo,task 1,sum\r\nk11805541,7.0,7.0\r\n");
+        assertThat(perTask.toString()).isEqualTo("matriculationNo,taskHeader,maxPoints,points\r\nk11805541,Testassignment,10.0,7.0\r\n");
+    }
+
+    /**
+     * Tests the csv export of the gradebook of a course instance, which also contains the students without tasks.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testWriteGradebookForCourseInstance() throws Exception {
+        String courseInstanceUUID = courseInstanceUrl.substring(courseInstanceUrl.lastIndexOf('#') + 1);
+        courseInstanceSPARQLEndpointService.setStudentsOfCourseInstance(List.of("k00000001", student.getLogin()), courseInstanceUrl);
+        insertPoints();
+
+        StringWriter gradebook = new StringWriter();
+        try (TableWriter writer = new CsvTableWriter(gradebook)) {
+            lecturerSPARQLEndpointService.writeGradebookForCourseInstance(courseInstanceUUID, writer);
+        }
+
+        assertThat(gradebook.toString()).isEqualTo("""
+            matriculationNo,Test exercise sheet,sum\r
+            k00000001,,0.0\r
+            k11805541,7.0,7.0\r
+            """);
+    }
+
+    /**
+     * Sets the maximum points of the demo task and the achieved points of the demo assignment.
+     */
+    private void insertPoints() {
+        try (RDFConnection connection = rdfConnectionFactory.getRDFConnection()) {
+            connection.update("""
+                PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+
+                INSERT {
+                  ?task etutor:hasMaxPoints "10".
+                  ?individualTask etutor:hasDispatcherPoints 7.
+                }
+                WHERE {
+                  ?individualTask etutor:refersToTask ?task.
+                }
+                """);
+        }
+    }
 }
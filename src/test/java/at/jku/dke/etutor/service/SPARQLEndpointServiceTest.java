@@ -4,6 +4,7 @@ import at.jku.dke.etutor.helper.LocalRDFConnectionFactory;
 import at.jku.dke.etutor.helper.RDFConnectionFactory;
 import at.jku.dke.etutor.service.dto.*;
 import at.jku.dke.etutor.service.exception.*;
+import at.jku.dke.etutor.service.search.SearchIndex;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.DatasetFactory;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,7 +38,9 @@ public class SPARQLEndpointServiceTest {
     public void setup() {
         Dataset dataset = DatasetFactory.createTxnMem();
         rdfConnectionFactory = new LocalRDFConnectionFactory(dataset);
-        sparqlEndpointService = new SPARQLEndpointService(rdfConnectionFactory);
+        sparqlEndpointService = new SPARQLEndpointService(rdfConnectionFactory, new LearningGoalGraphCache(rdfConnectionFactory),
+            new SearchIndex(rdfConnectionFactory), new TaskAssignmentCache(rdfConnectionFactory),
+            new LearningGoalForestCache(rdfConnectionFactory));
 
         sparqlEndpointService.insertScheme();
     }
@@ -383,6 +386,59 @@ public class SPARQLEndpointServiceTest {
         assertThat(resultList).hasSize(6);
     }
 
+    /**
+     * Tests that the visible learning goals reflect the changes after they have been listed once.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testGetVisibleLearningGoalsForUserAfterChanges() throws Exception {
+        String owner = "admin";
+        String otherOwner = "test123";
+
+        NewLearningGoalDTO newLearningGoalDTO = new NewLearningGoalDTO();
+        newLearningGoalDTO.setName("Testziel");
+        newLearningGoalDTO.setPrivateGoal(false);
+        var goal = sparqlEndpointService.insertNewLearningGoal(newLearningGoalDTO, owner);
+
+        assertThat(sparqlEndpointService.getVisibleLearningGoalsForUser(otherOwner, false)).hasSize(1);
+
+        newLearningGoalDTO = new NewLearningGoalDTO();
+        newLearningGoalDTO.setName("Subziel");
+        newLearningGoalDTO.setPrivateGoal(false);
+        var subGoal = sparqlEndpointService.insertSubGoal(newLearningGoalDTO, owner, goal.getName());
+
+        var goals = sparqlEndpointService.getVisibleLearningGoalsForUser(otherOwner, false);
+        assertThat(goals).hasSize(1);
+        assertThat(goals.first().getSubGoals()).extracting(LearningGoalDTO::getId).containsExactly(subGoal.getId());
+
+        CourseDTO course = new CourseDTO();
+        course.setName("TestCourse");
+        course.setCourseType("LVA");
+        course = sparqlEndpointService.insertNewCourse(course, owner);
+
+        LearningGoalAssignmentDTO learningGoalAssignmentDTO = new LearningGoalAssignmentDTO();
+        learningGoalAssignmentDTO.setCourseId(course.getId());
+        learningGoalAssignmentDTO.setLearningGoalId(goal.getId());
+        sparqlEndpointService.addGoalAssignment(learningGoalAssignmentDTO);
+
+        assertThat(sparqlEndpointService.getVisibleLearningGoalsForUser(owner, true).first().getReferencedFromCount()).isEqualTo(1);
+
+        goal.setPrivateGoal(true);
+        sparqlEndpointService.updateLearningGoal(goal);
+
+        assertThat(sparqlEndpointService.getVisibleLearningGoalsForUser(otherOwner, false)).isEmpty();
+        goals = sparqlEndpointService.getVisibleLearningGoalsForUser(owner, false);
+        assertThat(goals).hasSize(1);
+        assertThat(goals.first().isPrivateGoal()).isTrue();
+        assertThat(goals.first().getSubGoals().first().isPrivateGoal()).isTrue();
+
+        sparqlEndpointService.removeLearningGoalAndSubGoals(owner, goal.getName());
+
+        assertThat(sparqlEndpointService.getVisibleLearningGoalsForUser(owner, false)).isEmpty();
+        assertThat(sparqlEndpointService.getVisibleLearningGoalsForUser(owner, true)).isEmpty();
+    }
+
     /**
      * Tests the set dependency method.
      *
@@ -0,0 +1,169 @@
+package at.jku.dke.etutor.service;
+
+import at.jku.dke.etutor.helper.LocalRDFConnectionFactory;
+import at.jku.dke.etutor.helper.RDFConnectionFactory;
+import at.jku.dke.etutor.service.dto.courseinstance.CourseInstanceProgressOverviewDTO;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdfconnection.RDFConnection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the {@code StudentProgressProjection} class.
+ *
+ * @author fne
+ */
+public class StudentProgressProjectionTest {
+
+    private static final String STUDENT = "http://www.dke.uni-linz.ac.at/etutorpp/Student#k11805541";
+    private static final String INSTANCE = "http://www.dke.uni-linz.ac.at/etutorpp/CourseInstance#instance";
+    private static final String FIRST_SHEET = "http://www.dke.uni-linz.ac.at/etutorpp/ExerciseSheet#a";
+    private static final String SECOND_SHEET = "http://www.dke.uni-linz.ac.at/etutorpp/ExerciseSheet#b";
+
+    private static final String INSERT_COURSE_INSTANCE = """
+        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+        PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>
+
+        INSERT DATA {
+          <http://www.dke.uni-linz.ac.at/etutorpp/CourseInstance#instance> a etutor:CourseInstance;
+            etutor:hasStudent <http://www.dke.uni-linz.ac.at/etutorpp/Student#k11805541>;
+            etutor:hasExerciseSheetAssignment [
+              etutor:hasExerciseSheet <http://www.dke.uni-linz.ac.at/etutorpp/ExerciseSheet#a>;
+              etutor:isExerciseSheetClosed false
+            ], [
+              etutor:hasExerciseSheet <http://www.dke.uni-linz.ac.at/etutorpp/ExerciseSheet#b>;
+              etutor:isExerciseSheetClosed false
+            ].
+          <http://www.dke.uni-linz.ac.at/etutorpp/ExerciseSheet#a> rdfs:label "Sheet A";
+            etutor:hasExerciseSheetDifficulty etutor:Easy;
+            etutor:hasExerciseSheetTaskCount 1.
+          <http://www.dke.uni-linz.ac.at/etutorpp/ExerciseSheet#b> rdfs:label "Sheet B";
+            etutor:hasExerciseSheetDifficulty etutor:Medium;
+            etutor:hasExerciseSheetTaskCount 2.
+        }
+        """;
+
+    private static final String INSERT_INDIVIDUAL_ASSIGNMENT = """
+        PREFIX etutor: <http://www.dke.uni-linz.ac.at/etutorpp/>
+
+        INSERT DATA {
+          <http://www.dke.uni-linz.ac.at/etutorpp/Student#k11805541> etutor:hasIndividualTaskAssignment [
+            etutor:fromExerciseSheet <http://www.dke.uni-linz.ac.at/etutorpp/ExerciseSheet#a>;
+            etutor:fromCourseInstance <http://www.dke.uni-linz.ac.at/etutorpp/CourseInstance#instance>;
+            etutor:isClosed false;
+            etutor:hasIndividualTask [
+              etutor:hasOrderNo 1;
+              etutor:isSubmitted true;
+              etutor:isGraded false
+            ]
+          ].
+        }
+        """;
+
+    private StudentProgressProjection studentProgressProjection;
+    private RDFConnectionFactory rdfConnectionFactory;
+
+    /**
+     * Method which initializes the dataset and the projection before each run.
+     */
+    @BeforeEach
+    public void setup() {
+        Dataset dataset = DatasetFactory.createTxnMem();
+        rdfConnectionFactory = new LocalRDFConnectionFactory(dataset);
+        studentProgressProjection = new StudentProgressProjection(rdfConnectionFactory);
+
+        try (RDFConnection connection = rdfConnectionFactory.getRDFConnection()) {
+            connection.update(INSERT_COURSE_INSTANCE);
+        }
+    }
+
+    /**
+     * Tests the initial load of the projection.
+     */
+    @Test
+    public void testLoad() {
+        try (RDFConnection connection = rdfConnectionFactory.getRDFConnection()) {
+            connection.update(INSERT_INDIVIDUAL_ASSIGNMENT);
+        }
+
+        List<CourseInstanceProgressOverviewDTO> items = studentProgressProjection.getProgressOverview(STUDENT, INSTANCE);
+
+        assertThat(items).hasSize(2);
+
+        CourseInstanceProgressOverviewDTO first = items.get(0);
+        assertThat(first.getExerciseSheetId()).isEqualTo(FIRST_SHEET);
+        assertThat(first.isOpened()).isTrue();
+        assertThat(first.isCompleted()).isTrue();
+        assertThat(first.getActualCount()).isEqualTo(1);
+        assertThat(first.getSubmissionCount()).isEqualTo(1);
+        assertThat(first.getGradedCount()).isZero();
+
+        CourseInstanceProgressOverviewDTO second = items.get(1);
+        assertThat(second.getExerciseSheetId()).isEqualTo(SECOND_SHEET);
+        assertThat(second.isOpened()).isFalse();
+        assertThat(second.isCompleted()).isFalse();
+        assertThat(second.getActualCount()).isZero();
+    }
+
+    /**
+     * Tests that the write hooks update a cached entry without reloading it.
+     */
+    @Test
+    public void testIncrementalUpdates() {
+        assertThat(studentProgressProjection.getProgressOverview(STUDENT, INSTANCE).get(1).isOpened()).isFalse();
+
+        studentProgressProjection.exerciseSheetOpened(STUDENT, INSTANCE, SECOND_SHEET);
+        studentProgressProjection.taskAssigned(STUDENT, INSTANCE, SECOND_SHEET, 1);
+        studentProgressProjection.taskAssigned(STUDENT, INSTANCE, SECOND_SHEET, 2);
+        studentProgressProjection.taskSubmitted(STUDENT, INSTANCE, SECOND_SHEET, 1);
+        studentProgressProjection.taskSubmitted(STUDENT, INSTANCE, SECOND_SHEET, 1);
+        studentProgressProjection.taskGraded(STUDENT, INSTANCE, SECOND_SHEET, 1);
+
+        CourseInstanceProgressOverviewDTO second = studentProgressProjection.getProgressOverview(STUDENT, INSTANCE).get(1);
+        assertThat(second.isOpened()).isTrue();
+        assertThat(second.getActualCount()).isEqualTo(2);
+        assertThat(second.getSubmissionCount()).isEqualTo(1);
+        assertThat(second.getGradedCount()).isEqualTo(1);
+        assertThat(second.isCompleted()).isFalse();
+
+        studentProgressProjection.taskSubmitted(STUDENT, INSTANCE, SECOND_SHEET, 2);
+        studentProgressProjection.exerciseSheetClosedForStudent(STUDENT, INSTANCE, SECOND_SHEET);
+        studentProgressProjection.exerciseSheetClosedForCourseInstance(INSTANCE, FIRST_SHEET, true);
+
+        List<CourseInstanceProgressOverviewDTO> items = studentProgressProjection.getProgressOverview(STUDENT, INSTANCE);
+        assertThat(items.get(1).isCompleted()).isTrue();
+        assertThat(items.get(1).isClosed()).isTrue();
+        assertThat(items.get(0).isWholeSheetClosed()).isTrue();
+    }
+
+    /**
+     * Tests that invalidated entries are reloaded.
+     */
+    @Test
+    public void testInvalidation() {
+        assertThat(studentProgressProjection.getProgressOverview(STUDENT, INSTANCE).get(0).isOpened()).isFalse();
+
+        try (RDFConnection connection = rdfConnectionFactory.getRDFConnection()) {
+            connection.update(INSERT_INDIVIDUAL_ASSIGNMENT);
+        }
+        assertThat(studentProgressProjection.getProgressOverview(STUDENT, INSTANCE).get(0).isOpened()).isFalse();
+
+        studentProgressProjection.invalidateCourseInstance(INSTANCE);
+        assertThat(studentProgressProjection.getProgressOverview(STUDENT, INSTANCE).get(0).isOpened()).isTrue();
+    }
+
+    /**
+     * Tests the projection with null values.
+     */
+    @Test
+    public void testNullValues() {
+        assertThatThrownBy(() -> studentProgressProjection.getProgressOverview(null, INSTANCE)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> studentProgressProjection.taskAssigned(STUDENT, null, FIRST_SHEET, 1)).isInstanceOf(NullPointerException.class);
+    }
+}
@@ -770,6 +770,68 @@ public class StudentServiceIT {
         assertThat(optionalFileId).isEmpty();
     }
 
+    /**
+     * Tests the retrieval of the individual task context.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testGetIndividualTaskContext() throws Exception {
+        var values = initTestGoalAndCourse();
+
+        Model model = values.getValue0();
+        String courseInstanceId = values.getValue2();
+        String courseInstanceUUID = values.getValue3();
+
+        String matriculationNumber = importStudentsAndGetFirstStudentsMatriculationNumber();
+
+        courseInstanceSPARQLEndpointService.setStudentsOfCourseInstance(Collections.singletonList(matriculationNumber), courseInstanceId);
+
+        List<StudentSelfEvaluationLearningGoalDTO> selfEvaluations = getStudentSelfEvaluations(model, "^(?!Basic SQL|outerjoin|join).*$");
+        studentService.saveSelfEvaluation(courseInstanceUUID, matriculationNumber, selfEvaluations);
+
+        NewTaskAssignmentDTO newTaskAssignmentDTO = new TaskAssignmentDTO();
+        newTaskAssignmentDTO.setCreator(OWNER);
+        newTaskAssignmentDTO.setHeader("Join assignment");
+        newTaskAssignmentDTO.setTaskDifficultyId(ETutorVocabulary.Medium.getURI());
+        newTaskAssignmentDTO.setOrganisationUnit("DKE");
+        newTaskAssignmentDTO.setTaskAssignmentTypeId(ETutorVocabulary.NoType.getURI());
+        newTaskAssignmentDTO.setMaxPoints("10");
+        newTaskAssignmentDTO.setDiagnoseLevelWeighting("2");
+        newTaskAssignmentDTO.setTaskIdForDispatcher("5");
+        newTaskAssignmentDTO.setLearningGoalIds(Collections.singletonList(new LearningGoalDisplayDTO("http://www.dke.uni-linz.ac.at/etutorpp/admin/Goal#Join", "Join")));
+
+        TaskAssignmentDTO taskAssignmentDTO = assignmentSPARQLEndpointService.insertNewTaskAssignment(newTaskAssignmentDTO, OWNER);
+
+        NewExerciseSheetDTO newExerciseSheetDTO = new ExerciseSheetDTO();
+        newExerciseSheetDTO.setName("Join exercise sheet");
+        newExerciseSheetDTO.setDifficultyId(ETutorVocabulary.Medium.getURI());
+        newExerciseSheetDTO.setLearningGoals(Collections.singletonList(new LearningGoalAssignmentDTO(new LearningGoalDisplayDTO("http://www.dke.uni-linz.ac.at/etutorpp/admin/Goal#Join", "Join"), 1)));
+        newExerciseSheetDTO.setTaskCount(1);
+
+        ExerciseSheetDTO exerciseSheetDTO = exerciseSheetSPARQLEndpointService.insertNewExerciseSheet(newExerciseSheetDTO, OWNER);
+        String exerciseSheetUUID = exerciseSheetDTO.getId().substring(exerciseSheetDTO.getId().lastIndexOf('#') + 1);
+
+        studentService.openExerciseSheetForStudent(matriculationNumber, courseInstanceUUID, exerciseSheetUUID);
+        studentService.setHighestChosenDiagnoseLevelForIndividualTask(courseInstanceUUID, exerciseSheetUUID, matriculationNumber, 1, 3);
+
+        var optionalContext = studentService.getIndividualTaskContext(courseInstanceUUID, exerciseSheetUUID, matriculationNumber, 1);
+        assertThat(optionalContext).isPresent();
+
+        var context = optionalContext.get();
+        assertThat(context.getTaskAssignmentId()).contains(taskAssignmentDTO.getId());
+        assertThat(context.getMaxPoints()).contains(10);
+        assertThat(context.getDiagnoseLevelWeighting()).isEqualTo(2);
+        assertThat(context.getTaskIdForDispatcher()).contains(5);
+        assertThat(context.getHighestDiagnoseLevel()).contains(3);
+        assertThat(context.getIndividualTaskIdForDispatcher()).isEmpty();
+        assertThat(context.getCalcInstructionFileId()).isEmpty();
+
+        assertThat(studentService.getDiagnoseLevelWeightingAndMaxPointsAndId(courseInstanceUUID, exerciseSheetUUID, matriculationNumber, 1))
+            .hasValueSatisfying(weightingAndMaxPointsAndId -> assertThat(weightingAndMaxPointsAndId).containsExactly(2, 10, 5));
+        assertThat(studentService.getIndividualTaskContext(courseInstanceUUID, exerciseSheetUUID, matriculationNumber, 2)).isEmpty();
+    }
+
     //region Private helper methods
 
     /**
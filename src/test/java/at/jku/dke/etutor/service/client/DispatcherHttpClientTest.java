@@ -0,0 +1,180 @@
+package at.jku.dke.etutor.service.client;
+
+import at.jku.dke.etutor.config.ApplicationProperties;
+import at.jku.dke.etutor.service.exception.DispatcherRequestFailedException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the {@code DispatcherHttpClient} class.
+ *
+ * @author fne
+ */
+public class DispatcherHttpClientTest {
+
+    private static final DispatcherHttpClient.Operation OPERATION = new DispatcherHttpClient.Operation("TestClient", "send");
+
+    private HttpServer server;
+    private String baseUrl;
+    private CountDownLatch gradingLatch;
+    private AtomicInteger unavailableResponses;
+    private AtomicInteger submissionRequests;
+    private DispatcherHttpClient client;
+
+    /**
+     * Method which starts a local dispatcher stand-in before each run.
+     *
+     * @throws Exception must not be thrown
+     */
+    @BeforeEach
+    public void setup() throws Exception {
+        gradingLatch = new CountDownLatch(1);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/grading", exchange -> {
+            try {
+                gradingLatch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "graded".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        unavailableResponses = new AtomicInteger();
+        submissionRequests = new AtomicInteger();
+        server.createContext("/submission", exchange -> {
+            submissionRequests.incrementAndGet();
+            int status = unavailableResponses.getAndUpdate(count -> Math.max(0, count - 1)) > 0 ? 503 : 200;
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getDispatcherClient().setHttpThreads(2);
+        applicationProperties.getDispatcherClient().setMaxConcurrentRequests(1);
+        applicationProperties.getDispatcherClient().setMaxQueuedRequests(1);
+        applicationProperties.getDispatcherClient().setRequestTimeout(Duration.ofSeconds(10));
+        applicationProperties.getDispatcherClient().setMaxRetries(2);
+        applicationProperties.getDispatcherClient().setInitialBackoff(Duration.ofMillis(10));
+        applicationProperties.getDispatcherClient().setFailureThreshold(3);
+        applicationProperties.getDispatcherClient().setOpenDuration(Duration.ofMinutes(1));
+        client = new DispatcherHttpClient(applicationProperties);
+    }
+
+    /**
+     * Stops the dispatcher stand-in and the client after each run.
+     */
+    @AfterEach
+    public void tearDown() {
+        gradingLatch.countDown();
+        server.stop(0);
+        client.shutdown();
+    }
+
+    /**
+     * Tests that the number of concurrent requests to a dispatcher is limited
+     * and that requests exceeding the queue are rejected.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testBulkhead() throws Exception {
+        CompletableFuture<HttpResponse<String>> first = send();
+        CompletableFuture<HttpResponse<String>> second = send();
+        CompletableFuture<HttpResponse<String>> third = send();
+
+        assertThat(client.getActiveRequests(baseUrl)).isEqualTo(1);
+        assertThat(client.getQueuedRequests(baseUrl)).isEqualTo(1);
+        assertThat(client.getActiveRequests("http://localhost:1")).isZero();
+        assertThatThrownBy(third::get)
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(DispatcherRequestFailedException.class);
+
+        gradingLatch.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS).body()).isEqualTo("graded");
+        assertThat(second.get(10, TimeUnit.SECONDS).body()).isEqualTo("graded");
+        assertThat(client.getQueuedRequests(baseUrl)).isZero();
+    }
+
+    /**
+     * Tests that idempotent requests are retried if the dispatcher is temporarily unavailable.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testRetry() throws Exception {
+        unavailableResponses.set(2);
+
+        assertThat(sendSubmissionRequest("GET").get(10, TimeUnit.SECONDS).statusCode()).isEqualTo(200);
+        assertThat(submissionRequests.get()).isEqualTo(3);
+
+        unavailableResponses.set(1);
+        assertThat(sendSubmissionRequest("POST").get(10, TimeUnit.SECONDS).statusCode()).isEqualTo(503);
+        assertThat(submissionRequests.get()).isEqualTo(4);
+    }
+
+    /**
+     * Tests that the circuit breaker rejects requests after consecutive failures.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testCircuitBreaker() throws Exception {
+        unavailableResponses.set(3);
+
+        assertThat(sendSubmissionRequest("GET").get(10, TimeUnit.SECONDS).statusCode()).isEqualTo(503);
+        assertThat(client.isCircuitOpen(baseUrl)).isTrue();
+
+        assertThatThrownBy(() -> sendSubmissionRequest("GET").get(10, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(DispatcherRequestFailedException.class);
+        assertThat(submissionRequests.get()).isEqualTo(3);
+    }
+
+    /**
+     * Sends a grading request to the dispatcher stand-in.
+     *
+     * @return the future of the response
+     */
+    private CompletableFuture<HttpResponse<String>> send() {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/grading/1")).GET().build();
+        return client.sendAsync(baseUrl, OPERATION, request, HttpResponse.BodyHandlers.ofString(), false);
+    }
+
+    /**
+     * Sends a submission request to the dispatcher stand-in.
+     *
+     * @param method the http method
+     * @return the future of the response
+     */
+    private CompletableFuture<HttpResponse<Void>> sendSubmissionRequest(String method) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/submission"))
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .build();
+        return client.sendAsync(baseUrl, OPERATION, request, HttpResponse.BodyHandlers.discarding(), true);
+    }
+}
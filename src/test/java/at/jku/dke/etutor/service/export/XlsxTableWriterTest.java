@@ -0,0 +1,59 @@
+package at.jku.dke.etutor.service.export;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link XlsxTableWriter} class.
+ *
+ * @author fne
+ */
+public class XlsxTableWriterTest {
+
+    /**
+     * Tests that more rows than the row access window are written and that
+     * numbers, texts and empty cells are written with the correct cell types.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testWriteRows() throws Exception {
+        int rows = XlsxTableWriter.ROW_ACCESS_WINDOW * 3;
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (TableWriter writer = new XlsxTableWriter(outputStream, "gradebook")) {
+            writer.writeHeader(List.of("matriculationNo", "sheet 1", "sum"));
+            for (int i = 0; i < rows; i++) {
+                writer.writeRow(Arrays.asList(String.format("k%08d", i), i % 2 == 0 ? (double) i : null, (double) i));
+            }
+        }
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("gradebook");
+            assertThat(sheet).isNotNull();
+            assertThat(sheet.getLastRowNum()).isEqualTo(rows);
+
+            Row header = sheet.getRow(0);
+            assertThat(header.getCell(1).getStringCellValue()).isEqualTo("sheet 1");
+            assertThat(workbook.getFontAt(header.getCell(0).getCellStyle().getFontIndex()).getBold()).isTrue();
+
+            Row last = sheet.getRow(rows);
+            assertThat(last.getCell(0).getStringCellValue()).isEqualTo(String.format("k%08d", rows - 1));
+            assertThat(last.getCell(1)).isNull();
+            assertThat(last.getCell(2).getCellType()).isEqualTo(CellType.NUMERIC);
+            assertThat(last.getCell(2).getNumericCellValue()).isEqualTo(rows - 1);
+
+            assertThat(sheet.getRow(1).getCell(1).getNumericCellValue()).isEqualTo(0.0);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package at.jku.dke.etutor.service.search;
+
+import at.jku.dke.etutor.domain.rdf.ETutorVocabulary;
+import at.jku.dke.etutor.helper.LocalRDFConnectionFactory;
+import at.jku.dke.etutor.helper.RDFConnectionFactory;
+import at.jku.dke.etutor.service.AssignmentSPARQLEndpointService;
+import at.jku.dke.etutor.service.LearningGoalForestCache;
+import at.jku.dke.etutor.service.LearningGoalGraphCache;
+import at.jku.dke.etutor.service.SPARQLEndpointService;
+import at.jku.dke.etutor.service.TaskAssignmentCache;
+import at.jku.dke.etutor.service.dto.NewLearningGoalDTO;
+import at.jku.dke.etutor.service.dto.TaskDisplayDTO;
+import at.jku.dke.etutor.service.dto.taskassignment.LearningGoalDisplayDTO;
+import at.jku.dke.etutor.service.dto.taskassignment.NewTaskAssignmentDTO;
+import at.jku.dke.etutor.service.dto.taskassignment.NewTaskGroupDTO;
+import at.jku.dke.etutor.service.dto.taskassignment.TaskAssignmentDTO;
+import at.jku.dke.etutor.service.dto.taskassignment.TaskGroupDTO;
+import at.jku.dke.etutor.service.dto.taskassignment.TaskGroupDisplayDTO;
+import org.apache.jena.query.DatasetFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link SearchIndex} class.
+ *
+ * @author fne
+ */
+public class SearchIndexTest {
+
+    private static final String OWNER = "admin";
+    private static final String OTHER_USER = "other";
+
+    private SearchIndex searchIndex;
+    private SPARQLEndpointService sparqlEndpointService;
+    private AssignmentSPARQLEndpointService assignmentSPARQLEndpointService;
+
+    /**
+     * Initializes the dataset and the services before each test.
+     */
+    @BeforeEach
+    public void setup() {
+        RDFConnectionFactory rdfConnectionFactory = new LocalRDFConnectionFactory(DatasetFactory.createTxnMem());
+        LearningGoalGraphCache learningGoalGraphCache = new LearningGoalGraphCache(rdfConnectionFactory);
+        searchIndex = new SearchIndex(rdfConnectionFactory);
+        TaskAssignmentCache taskAssignmentCache = new TaskAssignmentCache(rdfConnectionFactory);
+        sparqlEndpointService = new SPARQLEndpointService(rdfConnectionFactory, learningGoalGraphCache, searchIndex, taskAssignmentCache,
+            new LearningGoalForestCache(rdfConnectionFactory));
+        assignmentSPARQLEndpointService = new AssignmentSPARQLEndpointService(rdfConnectionFactory, learningGoalGraphCache, searchIndex,
+            taskAssignmentCache);
+
+        sparqlEndpointService.insertScheme();
+    }
+
+    /**
+     * Tests that substrings of the headers are found and that word matches rank before substring matches.
+     */
+    @Test
+    public void testTasksAreFoundBySubstringAndRanked() {
+        insertTask("Beispielaufgabe", false, null);
+        insertTask("Aufgabe 1", false, null);
+        insertTask("SQL Joins", false, null);
+
+        assertThat(searchIndex.searchTasks("aufgabe", null, OWNER, Pageable.unpaged()).getContent())
+            .extracting(TaskDisplayDTO::getHeader)
+            .containsExactly("Aufgabe 1", "Beispielaufgabe");
+        assertThat(searchIndex.searchTasks("spielauf", null, OWNER, Pageable.unpaged()).getContent())
+            .extracting(TaskDisplayDTO::getHeader)
+            .containsExactly("Beispielaufgabe");
+        assertThat(searchIndex.searchTasks("join sql", null, OWNER, Pageable.unpaged()).getContent())
+            .extracting(TaskDisplayDTO::getHeader)
+            .containsExactly("SQL Joins");
+    }
+
+    /**
+     * Tests that private tasks are only found by their creator.
+     */
+    @Test
+    public void testPrivateTasksAreOnlyVisibleForTheirCreator() {
+        insertTask("Private task", true, null);
+        insertTask("Public task", false, null);
+
+        assertThat(searchIndex.searchTasks("task", null, OWNER, Pageable.unpaged()).getContent()).hasSize(2);
+        assertThat(searchIndex.searchTasks("task", null, OTHER_USER, Pageable.unpaged()).getContent())
+            .extracting(TaskDisplayDTO::getHeader)
+            .containsExactly("Public task");
+    }
+
+    /**
+     * Tests that the index is kept in sync with the task and task group write operations.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testIndexIsUpdatedByWriteOperations() throws Exception {
+        TaskGroupDTO taskGroup = insertTaskGroup("Relational Algebra");
+        TaskAssignmentDTO groupedTask = insertTask("Selection", false, taskGroup.getId());
+        insertTask("Projection", false, null);
+
+        // The index is built by the first search, all further changes are applied to it
+        assertThat(searchIndex.searchTasks(null, "algebra", OWNER, Pageable.unpaged()).getContent())
+            .extracting(TaskDisplayDTO::getHeader)
+            .containsExactly("Selection");
+
+        insertTask("Union", false, taskGroup.getId());
+        assertThat(searchIndex.searchTasks("", "relational", OWNER, Pageable.unpaged()).getContent())
+            .extracting(TaskDisplayDTO::getHeader)
+            .containsExactly("Selection", "Union");
+
+        groupedTask.setHeader("Selection and Projection");
+        assignmentSPARQLEndpointService.updateTaskAssignment(groupedTask);
+        assertThat(searchIndex.searchTasks("projection", null, OWNER, Pageable.unpaged()).getContent())
+            .extracting(TaskDisplayDTO::getHeader)
+            .containsExactly("Projection", "Selection and Projection");
+
+        assignmentSPARQLEndpointService.deleteTaskGroup("Relational Algebra");
+        assertThat(searchIndex.searchTasks(null, "algebra", OWNER, Pageable.unpaged()).getContent()).isEmpty();
+        assertThat(searchIndex.searchTaskGroups("algebra", Pageable.unpaged()).getContent()).isEmpty();
+
+        assignmentSPARQLEndpointService.removeTaskAssignment(groupedTask.getId().substring(groupedTask.getId().lastIndexOf('#') + 1));
+        assertThat(searchIndex.searchTasks("selection", null, OWNER, Pageable.unpaged()).getContent()).isEmpty();
+    }
+
+    /**
+     * Tests the paging of the task groups.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testTaskGroupsArePaged() throws Exception {
+        insertTaskGroup("Group A");
+        insertTaskGroup("Group B");
+        insertTaskGroup("Group C");
+        insertTaskGroup("Other");
+
+        Page<TaskGroupDisplayDTO> page = searchIndex.searchTaskGroups("grou", PageRequest.of(1, 2));
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent())
+            .extracting(TaskGroupDisplayDTO::getName)
+            .containsExactly("Group C");
+    }
+
+    /**
+     * Tests that learning goals are found by their name and visibility.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testLearningGoalsAreFound() throws Exception {
+        insertGoal("Normalization", false);
+        insertGoal("Normal forms", true);
+
+        assertThat(searchIndex.searchLearningGoals("norm", OWNER, Pageable.unpaged()).getContent())
+            .extracting(LearningGoalDisplayDTO::getName)
+            .containsExactly("Normal forms", "Normalization");
+        assertThat(searchIndex.searchLearningGoals("norm", OTHER_USER, Pageable.unpaged()).getContent())
+            .extracting(LearningGoalDisplayDTO::getName)
+            .containsExactly("Normalization");
+
+        insertGoal("Denormalization", false);
+        assertThat(searchIndex.searchLearningGoals("normali", OTHER_USER, Pageable.unpaged()).getContent())
+            .extracting(LearningGoalDisplayDTO::getName)
+            .containsExactly("Normalization", "Denormalization");
+    }
+
+    /**
+     * Tests that queries without words, e.g. only punctuation, match nothing, while blank queries match everything.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testQueriesWithoutWordsMatchNothing() throws Exception {
+        TaskGroupDTO taskGroup = insertTaskGroup("Group A");
+        insertTask("Aufgabe 1", false, taskGroup.getId());
+
+        assertThat(searchIndex.searchTasks("?!", null, OWNER, Pageable.unpaged()).getContent()).isEmpty();
+        assertThat(searchIndex.searchTasks(null, "-", OWNER, Pageable.unpaged()).getContent()).isEmpty();
+        assertThat(searchIndex.searchTaskGroups("...", Pageable.unpaged()).getTotalElements()).isZero();
+        assertThat(searchIndex.searchTasks(" ", "", OWNER, Pageable.unpaged()).getContent()).hasSize(1);
+    }
+
+    /**
+     * Tests that searches do not fail while the index is dropped and rebuilt concurrently.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testSearchesWhileIndexIsReplaced() throws Exception {
+        insertTask("Aufgabe 1", false, null);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> searches = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                searches.add(executor.submit(() -> {
+                    for (int j = 0; j < 200; j++) {
+                        assertThat(searchIndex.searchTasks("aufgabe", null, OWNER, Pageable.unpaged()).getContent()).hasSize(1);
+                    }
+                }));
+            }
+            for (int i = 0; i < 50; i++) {
+                searchIndex.invalidate();
+                Thread.sleep(1);
+            }
+            for (Future<?> search : searches) {
+                search.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    //region Private methods
+
+    /**
+     * Inserts a task assignment.
+     *
+     * @param header      the header
+     * @param privateTask whether the task is private
+     * @param taskGroupId the task group, may be null
+     * @return the inserted task assignment
+     */
+    private TaskAssignmentDTO insertTask(String header, boolean privateTask, String taskGroupId) {
+        NewTaskAssignmentDTO newTaskAssignmentDTO = new NewTaskAssignmentDTO();
+        newTaskAssignmentDTO.setTaskDifficultyId(ETutorVocabulary.Medium.getURI());
+        newTaskAssignmentDTO.setTaskAssignmentTypeId(ETutorVocabulary.NoType.getURI());
+        newTaskAssignmentDTO.setCreator("TestCreator");
+        newTaskAssignmentDTO.setOrganisationUnit("DKE");
+        newTaskAssignmentDTO.setHeader(header);
+        newTaskAssignmentDTO.setPrivateTask(privateTask);
+        newTaskAssignmentDTO.setTaskGroupId(taskGroupId);
+
+        return assignmentSPARQLEndpointService.insertNewTaskAssignment(newTaskAssignmentDTO, OWNER);
+    }
+
+    /**
+     * Inserts a task group.
+     *
+     * @param name the name
+     * @return the inserted task group
+     * @throws Exception if the task group already exists
+     */
+    private TaskGroupDTO insertTaskGroup(String name) throws Exception {
+        NewTaskGroupDTO newTaskGroupDTO = new NewTaskGroupDTO();
+        newTaskGroupDTO.setName(name);
+        newTaskGroupDTO.setTaskGroupTypeId(ETutorVocabulary.NoTypeTaskGroup.toString());
+
+        return assignmentSPARQLEndpointService.createNewTaskGroup(newTaskGroupDTO, OWNER);
+    }
+
+    /**
+     * Inserts a learning goal of the owner.
+     *
+     * @param name        the name
+     * @param privateGoal whether the goal is private
+     * @throws Exception if the goal already exists
+     */
+    private void insertGoal(String name, boolean privateGoal) throws Exception {
+        NewLearningGoalDTO newLearningGoalDTO = new NewLearningGoalDTO();
+        newLearningGoalDTO.setName(name);
+        newLearningGoalDTO.setPrivateGoal(privateGoal);
+
+        sparqlEndpointService.insertNewLearningGoal(newLearningGoalDTO, OWNER);
+    }
+
+    //endregion
+}
@@ -277,6 +277,10 @@ public class ExerciseSheetResourceIT {
 
         assertThat(result.getResponse().getHeader("X-Total-Count")).isEqualTo(String.valueOf(fullTextCount + 2));
         assertThat(list).hasSize(size);
+
+        restExerciseSheetMockMvc
+            .perform(get("/api/exercise-sheet/display/paged?page={page}&size={size}&sort=name,asc", page, size))
+            .andExpect(status().isBadRequest());
     }
 
     //region Private helper methods
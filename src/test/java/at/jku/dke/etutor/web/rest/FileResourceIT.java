@@ -12,6 +12,7 @@ import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -21,6 +22,7 @@ import org.springframework.util.FileCopyUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
@@ -142,6 +144,26 @@ public class FileResourceIT {
         assertThat(result.getResponse().getHeader("X-Content-Type")).isEqualTo(file.getContentType());
     }
 
+    /**
+     * Tests the retrieval of a byte range of a file.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testGetFileRange() throws Exception {
+        var fileId = uploadTestFile();
+
+        var result = restMockMvc
+            .perform(get("/api/files/{fileId}", fileId)
+                .header(HttpHeaders.RANGE, "bytes=0-9")
+                .with(user(user)))
+            .andExpect(status().isPartialContent())
+            .andReturn();
+
+        assertThat(result.getResponse().getContentAsByteArray()).containsExactly(Arrays.copyOf(file.getBytes(), 10));
+        assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-9/" + file.getSize());
+    }
+
     /**
      * Tests the retrieval of an invalid file.
      *
@@ -209,6 +231,30 @@ public class FileResourceIT {
             .andExpect(status().isNoContent());
     }
 
+    /**
+     * Tests that files with identical contents remain available when one of them is removed.
+     *
+     * @throws Exception must not be thrown
+     */
+    @Test
+    public void testDeleteFileWithSharedContent() throws Exception {
+        var firstFileId = uploadTestFile();
+        var secondFileId = uploadTestFile();
+        assertThat(secondFileId).isNotEqualTo(firstFileId);
+
+        restMockMvc.perform(delete("/api/files/{fileId}", firstFileId)
+            .with(user(user)))
+            .andExpect(status().isNoContent());
+
+        var result = restMockMvc
+            .perform(get("/api/files/{fileId}", secondFileId)
+                .with(user(user)))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        assertThat(result.getResponse().getContentAsByteArray()).isEqualTo(file.getBytes());
+    }
+
     /**
      * Uploads the test file.
      *